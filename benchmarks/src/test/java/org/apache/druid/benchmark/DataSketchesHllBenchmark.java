@@ -21,14 +21,36 @@ package org.apache.druid.benchmark;
 
 import org.apache.datasketches.hll.HllSketch;
 import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.java.util.common.guava.Sequence;
+import org.apache.druid.java.util.common.io.Closer;
 import org.apache.druid.query.aggregation.AggregatorFactory;
 import org.apache.druid.query.aggregation.BufferAggregator;
+import org.apache.druid.query.aggregation.VectorAggregator;
+import org.apache.druid.query.aggregation.datasketches.hll.HllSketchBuildAggregatorFactory;
 import org.apache.druid.query.aggregation.datasketches.hll.HllSketchMergeAggregatorFactory;
 import org.apache.druid.query.dimension.DimensionSpec;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.ColumnValueSelector;
+import org.apache.druid.segment.Cursor;
 import org.apache.druid.segment.DimensionSelector;
+import org.apache.druid.segment.QueryableIndex;
+import org.apache.druid.segment.QueryableIndexStorageAdapter;
+import org.apache.druid.segment.VirtualColumns;
 import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.generator.GeneratorBasicSchemas;
+import org.apache.druid.segment.generator.GeneratorSchemaInfo;
+import org.apache.druid.segment.generator.SegmentGenerator;
+import org.apache.druid.segment.vector.MultiValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.NoFilterVectorOffset;
+import org.apache.druid.segment.vector.ReadableVectorInspector;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorCursor;
+import org.apache.druid.segment.vector.VectorObjectSelector;
+import org.apache.druid.segment.vector.VectorValueSelector;
+import org.apache.druid.timeline.DataSegment;
+import org.apache.druid.timeline.partition.LinearShardSpec;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -36,6 +58,7 @@ import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -44,6 +67,7 @@ import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.concurrent.TimeUnit;
 
@@ -69,11 +93,39 @@ public class DataSketchesHllBenchmark
 
   private final ByteBuffer buf = ByteBuffer.allocateDirect(aggregatorFactory.getMaxIntermediateSize());
 
+  @Param({"false", "true"})
+  private boolean vectorize;
+
+  @Param({"100000"})
+  private int rowsPerSegment;
+
+  /**
+   * Column of the "basic" generator schema which {@link #build} computes a sketch of.
+   */
+  @Param({"dimUniform", "metLongUniform"})
+  private String column;
+
+  @Nullable
   private BufferAggregator aggregator;
 
+  @Nullable
+  private VectorAggregator vectorAggregator;
+
+  private AggregatorFactory buildAggregatorFactory;
+  private ByteBuffer buildBuf;
+  private QueryableIndex index;
+  private Closer closer;
+
   @Setup(Level.Trial)
   public void setUp()
   {
+    setUpIndex();
+
+    if (vectorize) {
+      setUpVectorAggregator();
+      return;
+    }
+
     aggregator = aggregatorFactory.factorizeBuffered(
         new ColumnSelectorFactory()
         {
@@ -99,30 +151,175 @@ public class DataSketchesHllBenchmark
     );
   }
 
+  private void setUpIndex()
+  {
+    closer = Closer.create();
+
+    final GeneratorSchemaInfo schemaInfo = GeneratorBasicSchemas.SCHEMA_MAP.get("basic");
+    final DataSegment dataSegment = DataSegment.builder()
+                                               .dataSource("foo")
+                                               .interval(schemaInfo.getDataInterval())
+                                               .version("1")
+                                               .shardSpec(new LinearShardSpec(0))
+                                               .size(0)
+                                               .build();
+
+    final SegmentGenerator segmentGenerator = closer.register(new SegmentGenerator());
+    index = closer.register(segmentGenerator.generate(dataSegment, schemaInfo, Granularities.NONE, rowsPerSegment));
+
+    buildAggregatorFactory = new HllSketchBuildAggregatorFactory("hll", column, null, null, false);
+    buildBuf = ByteBuffer.allocateDirect(buildAggregatorFactory.getMaxIntermediateSize());
+  }
+
+  private void setUpVectorAggregator()
+  {
+    final ReadableVectorInspector vectorInspector = new NoFilterVectorOffset(512, 0, 512);
+    vectorAggregator = aggregatorFactory.factorizeVector(
+        new VectorColumnSelectorFactory()
+        {
+          @Override
+          public ReadableVectorInspector getReadableVectorInspector()
+          {
+            return vectorInspector;
+          }
+
+          @Override
+          public SingleValueDimensionVectorSelector makeSingleValueDimensionSelector(DimensionSpec dimensionSpec)
+          {
+            return null;
+          }
+
+          @Override
+          public MultiValueDimensionVectorSelector makeMultiValueDimensionSelector(DimensionSpec dimensionSpec)
+          {
+            return null;
+          }
+
+          @Override
+          public VectorValueSelector makeValueSelector(String column)
+          {
+            return null;
+          }
+
+          @Override
+          public VectorObjectSelector makeObjectSelector(String column)
+          {
+            return null;
+          }
+
+          @Nullable
+          @Override
+          public ColumnCapabilities getColumnCapabilities(String column)
+          {
+            return null;
+          }
+        }
+    );
+  }
+
   @TearDown(Level.Trial)
-  public void tearDown()
+  public void tearDown() throws IOException
   {
-    aggregator.close();
-    aggregator = null;
+    if (vectorize) {
+      vectorAggregator.close();
+      vectorAggregator = null;
+    } else {
+      aggregator.close();
+      aggregator = null;
+    }
+    closer.close();
   }
 
   @Benchmark
   public void init(Blackhole bh)
   {
-    aggregator.init(buf, 0);
+    initAggregator();
   }
 
   @Benchmark
   public Object initAndGet()
   {
-    aggregator.init(buf, 0);
-    return aggregator.get(buf, 0);
+    initAggregator();
+    return getResult();
   }
 
   @Benchmark
   public Object initAndSerde()
   {
-    aggregator.init(buf, 0);
-    return aggregatorFactory.deserialize(((HllSketch) aggregator.get(buf, 0)).toCompactByteArray());
+    initAggregator();
+    return aggregatorFactory.deserialize(((HllSketch) getResult()).toCompactByteArray());
+  }
+
+  /**
+   * Builds a sketch of {@link #column} over all rows of the segment, reading the segment through a
+   * {@link VectorCursor} and aggregating with the {@link VectorAggregator} if {@link #vectorize} is set, and through
+   * {@link Cursor}s and the {@link BufferAggregator} otherwise.
+   */
+  @Benchmark
+  public Object build()
+  {
+    final QueryableIndexStorageAdapter adapter = new QueryableIndexStorageAdapter(index);
+
+    if (vectorize) {
+      try (VectorCursor cursor = adapter.makeVectorCursor(
+          null,
+          index.getDataInterval(),
+          VirtualColumns.EMPTY,
+          false,
+          512,
+          null
+      )) {
+        final VectorAggregator buildAggregator = buildAggregatorFactory.factorizeVector(
+            cursor.getColumnSelectorFactory()
+        );
+        buildAggregator.init(buildBuf, 0);
+        while (!cursor.isDone()) {
+          buildAggregator.aggregate(buildBuf, 0, 0, cursor.getCurrentVectorSize());
+          cursor.advance();
+        }
+        final Object sketch = buildAggregator.get(buildBuf, 0);
+        buildAggregator.close();
+        return sketch;
+      }
+    } else {
+      final Sequence<Cursor> cursors = adapter.makeCursors(
+          null,
+          index.getDataInterval(),
+          VirtualColumns.EMPTY,
+          Granularities.ALL,
+          false,
+          null
+      );
+
+      return cursors.map(
+          cursor -> {
+            final BufferAggregator buildAggregator = buildAggregatorFactory.factorizeBuffered(
+                cursor.getColumnSelectorFactory()
+            );
+            buildAggregator.init(buildBuf, 0);
+            while (!cursor.isDone()) {
+              buildAggregator.aggregate(buildBuf, 0);
+              cursor.advance();
+            }
+            final Object sketch = buildAggregator.get(buildBuf, 0);
+            buildAggregator.close();
+            return sketch;
+          }
+      ).accumulate(null, (acc, sketch) -> sketch);
+    }
+  }
+
+  private void initAggregator()
+  {
+    if (vectorize) {
+      vectorAggregator.init(buf, 0);
+    } else {
+      aggregator.init(buf, 0);
+    }
+  }
+
+  private Object getResult()
+  {
+    return vectorize ? vectorAggregator.get(buf, 0) : aggregator.get(buf, 0);
   }
 }
@@ -78,6 +78,9 @@ public class ExpressionSelectorBenchmark
   @Param({"1000000"})
   private int rowsPerSegment;
 
+  @Param({"false", "true"})
+  private boolean compileExpressions;
+
   private QueryableIndex index;
   private Closer closer;
 
@@ -140,14 +143,12 @@ public class ExpressionSelectorBenchmark
     final Sequence<Cursor> cursors = new QueryableIndexStorageAdapter(index).makeCursors(
         null,
         index.getDataInterval(),
-        VirtualColumns.create(
-            ImmutableList.of(
-                new ExpressionVirtualColumn(
-                    "v",
-                    "timestamp_floor(__time, 'PT1H')",
-                    ValueType.LONG,
-                    TestExprMacroTable.INSTANCE
-                )
+        expressionVirtualColumns(
+            new ExpressionVirtualColumn(
+                "v",
+                "timestamp_floor(__time, 'PT1H')",
+                ValueType.LONG,
+                TestExprMacroTable.INSTANCE
             )
         ),
         Granularities.ALL,
@@ -234,14 +235,12 @@ public class ExpressionSelectorBenchmark
     final Sequence<Cursor> cursors = new QueryableIndexStorageAdapter(index).makeCursors(
         null,
         index.getDataInterval(),
-        VirtualColumns.create(
-            ImmutableList.of(
-                new ExpressionVirtualColumn(
-                    "v",
-                    "timestamp_format(__time, 'yyyy-MM-dd')",
-                    ValueType.STRING,
-                    TestExprMacroTable.INSTANCE
-                )
+        expressionVirtualColumns(
+            new ExpressionVirtualColumn(
+                "v",
+                "timestamp_format(__time, 'yyyy-MM-dd')",
+                ValueType.STRING,
+                TestExprMacroTable.INSTANCE
             )
         ),
         Granularities.ALL,
@@ -299,14 +298,12 @@ public class ExpressionSelectorBenchmark
     final Sequence<Cursor> cursors = new QueryableIndexStorageAdapter(index).makeCursors(
         null,
         index.getDataInterval(),
-        VirtualColumns.create(
-            ImmutableList.of(
-                new ExpressionVirtualColumn(
-                    "v",
-                    "strlen(s)",
-                    ValueType.STRING,
-                    TestExprMacroTable.INSTANCE
-                )
+        expressionVirtualColumns(
+            new ExpressionVirtualColumn(
+                "v",
+                "strlen(s)",
+                ValueType.STRING,
+                TestExprMacroTable.INSTANCE
             )
         ),
         Granularities.ALL,
@@ -331,14 +328,12 @@ public class ExpressionSelectorBenchmark
     final Sequence<Cursor> cursors = new QueryableIndexStorageAdapter(index).makeCursors(
         null,
         index.getDataInterval(),
-        VirtualColumns.create(
-            ImmutableList.of(
-                new ExpressionVirtualColumn(
-                    "v",
-                    "strlen(s)",
-                    ValueType.STRING,
-                    TestExprMacroTable.INSTANCE
-                )
+        expressionVirtualColumns(
+            new ExpressionVirtualColumn(
+                "v",
+                "strlen(s)",
+                ValueType.STRING,
+                TestExprMacroTable.INSTANCE
             )
         ),
         Granularities.ALL,
@@ -392,14 +387,12 @@ public class ExpressionSelectorBenchmark
     final Sequence<Cursor> cursors = new QueryableIndexStorageAdapter(index).makeCursors(
         null,
         index.getDataInterval(),
-        VirtualColumns.create(
-            ImmutableList.of(
-                new ExpressionVirtualColumn(
-                    "v",
-                    "n + 1",
-                    ValueType.LONG,
-                    TestExprMacroTable.INSTANCE
-                )
+        expressionVirtualColumns(
+            new ExpressionVirtualColumn(
+                "v",
+                "n + 1",
+                ValueType.LONG,
+                TestExprMacroTable.INSTANCE
             )
         ),
         Granularities.ALL,
@@ -424,14 +417,12 @@ public class ExpressionSelectorBenchmark
     final Sequence<Cursor> cursors = new QueryableIndexStorageAdapter(index).makeCursors(
         null,
         index.getDataInterval(),
-        VirtualColumns.create(
-            ImmutableList.of(
-                new ExpressionVirtualColumn(
-                    "v",
-                    "concat(n, ' is my favorite number') == '3 is my favorite number'",
-                    ValueType.LONG,
-                    TestExprMacroTable.INSTANCE
-                )
+        expressionVirtualColumns(
+            new ExpressionVirtualColumn(
+                "v",
+                "concat(n, ' is my favorite number') == '3 is my favorite number'",
+                ValueType.LONG,
+                TestExprMacroTable.INSTANCE
             )
         ),
         Granularities.ALL,
@@ -450,6 +441,13 @@ public class ExpressionSelectorBenchmark
     blackhole.consume(results);
   }
 
+  private VirtualColumns expressionVirtualColumns(final ExpressionVirtualColumn virtualColumn)
+  {
+    return VirtualColumns.create(
+        ImmutableList.of(compileExpressions ? virtualColumn.withCompiledExpression() : virtualColumn)
+    );
+  }
+
   private void consumeDimension(final Cursor cursor, final DimensionSelector selector, final Blackhole blackhole)
   {
     if (selector.getValueCardinality() >= 0) {
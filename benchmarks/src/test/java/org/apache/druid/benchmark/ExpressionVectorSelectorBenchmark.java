@@ -25,10 +25,9 @@ import org.apache.druid.java.util.common.granularity.Granularities;
 import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.java.util.common.io.Closer;
 import org.apache.druid.math.expr.Expr;
-import org.apache.druid.math.expr.ExprMacroTable;
 import org.apache.druid.math.expr.ExprType;
 import org.apache.druid.math.expr.Parser;
-import org.apache.druid.query.expression.TestExprMacroTable;
+import org.apache.druid.query.expression.LookupEnabledTestExprMacroTable;
 import org.apache.druid.segment.ColumnInspector;
 import org.apache.druid.segment.ColumnValueSelector;
 import org.apache.druid.segment.Cursor;
@@ -40,6 +39,7 @@ import org.apache.druid.segment.generator.GeneratorBasicSchemas;
 import org.apache.druid.segment.generator.GeneratorSchemaInfo;
 import org.apache.druid.segment.generator.SegmentGenerator;
 import org.apache.druid.segment.vector.VectorCursor;
+import org.apache.druid.segment.vector.VectorObjectSelector;
 import org.apache.druid.segment.vector.VectorValueSelector;
 import org.apache.druid.segment.virtual.ExpressionVectorSelectorsTest;
 import org.apache.druid.segment.virtual.ExpressionVirtualColumn;
@@ -94,7 +94,16 @@ public class ExpressionVectorSelectorBenchmark
       "parse_long(string1)",
       "parse_long(string1) * double3",
       "parse_long(string5) * parse_long(string1)",
-      "parse_long(string5) * parse_long(string1) * double3"
+      "parse_long(string5) * parse_long(string1) * double3",
+      "concat(string1, string5)",
+      "lower(string3)",
+      "substring(string1, 1, 3)",
+      "strlen(string3)",
+      "if(long1 > 0, double1, double3)",
+      "case_searched(double1 > 0.5, long1, double5 > 0.5, long2, long4)",
+      "nvl(string3, string5)",
+      "lookup(string3, 'lookyloo')",
+      "regexp_extract(string1, '([0-9]+)', 1)"
   })
   private String expression;
 
@@ -124,7 +133,7 @@ public class ExpressionVectorSelectorBenchmark
         segmentGenerator.generate(dataSegment, schemaInfo, Granularities.HOUR, rowsPerSegment)
     );
 
-    Expr parsed = Parser.parse(expression, ExprMacroTable.nil());
+    Expr parsed = Parser.parse(expression, LookupEnabledTestExprMacroTable.INSTANCE);
     outputType = parsed.getOutputType(
         new ColumnInspector()
         {
@@ -156,7 +165,7 @@ public class ExpressionVectorSelectorBenchmark
                 "v",
                 expression,
                 ExprType.toValueType(outputType),
-                TestExprMacroTable.INSTANCE
+                LookupEnabledTestExprMacroTable.INSTANCE
             )
         )
     );
@@ -185,6 +194,13 @@ public class ExpressionVectorSelectorBenchmark
           }
         }
         closer.register(cursor);
+      } else {
+        VectorObjectSelector selector = cursor.getColumnSelectorFactory().makeObjectSelector("v");
+        while (!cursor.isDone()) {
+          blackhole.consume(selector.getObjectVector());
+          cursor.advance();
+        }
+        closer.register(cursor);
       }
     } else {
       Sequence<Cursor> cursors = new QueryableIndexStorageAdapter(index).makeCursors(
@@ -214,6 +230,13 @@ public class ExpressionVectorSelectorBenchmark
 
   private void checkSanity()
   {
-    ExpressionVectorSelectorsTest.sanityTestVectorizedExpressionSelectors(expression, outputType, index, closer, rowsPerSegment);
+    ExpressionVectorSelectorsTest.sanityTestVectorizedExpressionSelectors(
+        expression,
+        outputType,
+        index,
+        closer,
+        rowsPerSegment,
+        LookupEnabledTestExprMacroTable.INSTANCE
+    );
   }
 }
@@ -23,6 +23,7 @@ import com.google.common.base.Supplier;
 import org.apache.druid.common.config.NullHandling;
 import org.apache.druid.java.util.common.FileUtils;
 import org.apache.druid.java.util.common.MappedByteBufferHandler;
+import org.apache.druid.segment.QueryableIndexStorageAdapter;
 import org.apache.druid.segment.data.ColumnarFloats;
 import org.apache.druid.segment.data.CompressedColumnarFloatsSupplier;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -66,7 +67,10 @@ public class FloatCompressionBenchmark
   @Param({"enumerate", "zipfLow", "zipfHigh", "sequential", "uniform"})
   private static String file;
 
-  @Param({"lz4", "none"})
+  @Param({"floats", "xor"})
+  private static String format;
+
+  @Param({"lz4", "zstd", "zstd_dictionary", "none"})
   private static String strategy;
 
   private Supplier<ColumnarFloats> supplier;
@@ -77,7 +81,7 @@ public class FloatCompressionBenchmark
   public void setup() throws Exception
   {
     File dir = new File(dirPath);
-    File compFile = new File(dir, file + "-" + strategy);
+    File compFile = new File(dir, file + "-" + strategy + "-" + format);
     bufferHandler = FileUtils.map(compFile);
     ByteBuffer buffer = bufferHandler.get();
     supplier = CompressedColumnarFloatsSupplier.fromByteBuffer(buffer, ByteOrder.nativeOrder());
@@ -111,4 +115,16 @@ public class FloatCompressionBenchmark
     columnarFloats.close();
   }
 
+  @Benchmark
+  public void readVectorized(Blackhole bh)
+  {
+    ColumnarFloats columnarFloats = supplier.get();
+    int count = columnarFloats.size();
+    float[] vector = new float[QueryableIndexStorageAdapter.DEFAULT_VECTOR_SIZE];
+    for (int i = 0; i < count; i += vector.length) {
+      columnarFloats.get(vector, i, Math.min(vector.length, count - i));
+      bh.consume(vector);
+    }
+    columnarFloats.close();
+  }
 }
@@ -54,8 +54,12 @@ public class FloatCompressionBenchmarkFileGenerator
   public static final List<CompressionStrategy> COMPRESSIONS =
       ImmutableList.of(
           CompressionStrategy.LZ4,
+          CompressionStrategy.ZSTD,
+          CompressionStrategy.ZSTD_DICTIONARY,
           CompressionStrategy.NONE
       );
+  public static final List<CompressionFactory.FloatEncodingStrategy> ENCODINGS =
+      ImmutableList.of(CompressionFactory.FloatEncodingStrategy.FLOATS, CompressionFactory.FloatEncodingStrategy.XOR);
 
   private static String dirPath = "floatCompress/";
 
@@ -149,32 +153,39 @@ public class FloatCompressionBenchmarkFileGenerator
     // create compressed files using all combinations of CompressionStrategy and FloatEncoding provided
     for (Map.Entry<String, ColumnValueGenerator> entry : generators.entrySet()) {
       for (CompressionStrategy compression : COMPRESSIONS) {
-        String name = entry.getKey() + "-" + compression;
-        log.info("%s: ", name);
-        File compFile = new File(dir, name);
-        compFile.delete();
-        File dataFile = new File(dir, entry.getKey());
+        for (CompressionFactory.FloatEncodingStrategy encoding : ENCODINGS) {
+          String name = entry.getKey() + "-" + compression + "-" + encoding;
+          log.info("%s: ", name);
+          File compFile = new File(dir, name);
+          compFile.delete();
+          File dataFile = new File(dir, entry.getKey());
 
-        ColumnarFloatsSerializer writer = CompressionFactory.getFloatSerializer(
-            "float-benchmark",
-            new OffHeapMemorySegmentWriteOutMedium(),
-            "float",
-            ByteOrder.nativeOrder(),
-            compression
-        );
-        try (
-            BufferedReader br = Files.newBufferedReader(dataFile.toPath(), StandardCharsets.UTF_8);
-            FileChannel output =
-                FileChannel.open(compFile.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)
-        ) {
-          writer.open();
-          String line;
-          while ((line = br.readLine()) != null) {
-            writer.add(Float.parseFloat(line));
+          ColumnarFloatsSerializer writer = CompressionFactory.getFloatSerializer(
+              "float-benchmark",
+              new OffHeapMemorySegmentWriteOutMedium(),
+              "float",
+              ByteOrder.nativeOrder(),
+              compression,
+              encoding
+          );
+          try (
+              BufferedReader br = Files.newBufferedReader(dataFile.toPath(), StandardCharsets.UTF_8);
+              FileChannel output =
+                  FileChannel.open(compFile.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)
+          ) {
+            writer.open();
+            String line;
+            while ((line = br.readLine()) != null) {
+              writer.add(Float.parseFloat(line));
+            }
+            writer.writeTo(output, null);
           }
-          writer.writeTo(output, null);
+          log.info(
+              "%d KiB, compression ratio %.2f",
+              compFile.length() / 1024,
+              (double) ROW_NUM * Float.BYTES / compFile.length()
+          );
         }
-        log.info("%d", compFile.length() / 1024);
       }
     }
   }
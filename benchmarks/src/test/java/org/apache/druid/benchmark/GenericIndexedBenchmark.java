@@ -24,10 +24,16 @@ import org.apache.druid.common.config.NullHandling;
 import org.apache.druid.java.util.common.FileUtils;
 import org.apache.druid.java.util.common.io.smoosh.FileSmoosher;
 import org.apache.druid.java.util.common.io.smoosh.SmooshedFileMapper;
+import org.apache.druid.java.util.common.logger.Logger;
+import org.apache.druid.segment.data.DictionaryWriter;
+import org.apache.druid.segment.data.FrontCodedIndexed;
 import org.apache.druid.segment.data.GenericIndexed;
 import org.apache.druid.segment.data.GenericIndexedWriter;
+import org.apache.druid.segment.data.Indexed;
 import org.apache.druid.segment.data.ObjectStrategy;
+import org.apache.druid.segment.data.StringEncodingStrategy;
 import org.apache.druid.segment.writeout.OffHeapMemorySegmentWriteOutMedium;
+import org.apache.druid.segment.writeout.OnHeapMemorySegmentWriteOutMedium;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -43,12 +49,15 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.file.StandardOpenOption;
+import java.util.TreeSet;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
@@ -65,6 +74,8 @@ public class GenericIndexedBenchmark
     NullHandling.initializeForTests();
   }
 
+  private static final Logger log = new Logger(GenericIndexedBenchmark.class);
+
   public static final int ITERATIONS = 10000;
 
   static final ObjectStrategy<byte[]> BYTE_ARRAY_STRATEGY = new ObjectStrategy<byte[]>()
@@ -175,4 +186,85 @@ public class GenericIndexedBenchmark
     }
     return r;
   }
+
+  @Benchmark
+  public void getString(StringDictionaryState state, Blackhole bh)
+  {
+    for (int i : state.iterationIndexes) {
+      bh.consume(state.dictionary.get(i));
+    }
+  }
+
+  @Benchmark
+  public int indexOfString(StringDictionaryState state)
+  {
+    int r = 0;
+    for (String valueToSearch : state.valuesToSearch) {
+      r ^= state.dictionary.indexOf(valueToSearch);
+    }
+    return r;
+  }
+
+  /**
+   * Sorted dictionary of URL-like strings, stored either as a {@link GenericIndexed} or as a {@link FrontCodedIndexed}
+   * with the given bucket size, to compare their footprint (logged at setup) and lookup latency.
+   */
+  @State(Scope.Benchmark)
+  public static class StringDictionaryState
+  {
+    private static final String[] PREFIXES = {
+        "http://druid.apache.org/docs/latest/",
+        "https://github.com/apache/druid/",
+        "https://www.example.com/search?q="
+    };
+
+    @Param({"10000"})
+    public int dictionarySize;
+    @Param({"generic", "frontCoded-4", "frontCoded-16"})
+    public String encoding;
+
+    private Indexed<String> dictionary;
+    private int[] iterationIndexes;
+    private String[] valuesToSearch;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+      final ThreadLocalRandom random = ThreadLocalRandom.current();
+      final TreeSet<String> values = new TreeSet<>();
+      while (values.size() < dictionarySize) {
+        values.add(PREFIXES[random.nextInt(PREFIXES.length)] + Long.toString(random.nextLong() >>> 16, 36));
+      }
+
+      final StringEncodingStrategy strategy = "generic".equals(encoding)
+                                              ? StringEncodingStrategy.DEFAULT
+                                              : new StringEncodingStrategy.FrontCoded(
+                                                  Integer.parseInt(encoding.substring("frontCoded-".length()))
+                                              );
+      final DictionaryWriter<String> writer = strategy.makeDictionaryWriter(
+          new OnHeapMemorySegmentWriteOutMedium(),
+          "genericIndexedBenchmark"
+      );
+      writer.open();
+      for (String value : values) {
+        writer.write(value);
+      }
+      final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      writer.writeTo(Channels.newChannel(baos), null);
+      final ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+      log.info("Dictionary of [%,d] values with encoding[%s] takes [%,d] bytes.", dictionarySize, encoding, baos.size());
+
+      dictionary = "generic".equals(encoding)
+                   ? GenericIndexed.read(buffer, GenericIndexed.STRING_STRATEGY)
+                   : FrontCodedIndexed.read(buffer);
+
+      final String[] sortedValues = values.toArray(new String[0]);
+      iterationIndexes = new int[ITERATIONS];
+      valuesToSearch = new String[ITERATIONS];
+      for (int i = 0; i < ITERATIONS; i++) {
+        iterationIndexes[i] = random.nextInt(dictionarySize);
+        valuesToSearch[i] = sortedValues[random.nextInt(dictionarySize)];
+      }
+    }
+  }
 }
@@ -59,6 +59,8 @@ import org.apache.druid.segment.join.filter.rewrite.JoinFilterRewriteConfig;
 import org.apache.druid.segment.join.table.BroadcastSegmentIndexedTable;
 import org.apache.druid.segment.join.table.IndexedTable;
 import org.apache.druid.segment.join.table.IndexedTableJoinable;
+import org.apache.druid.segment.vector.VectorCursor;
+import org.apache.druid.segment.vector.VectorObjectSelector;
 import org.apache.druid.timeline.DataSegment;
 import org.apache.druid.timeline.SegmentId;
 import org.apache.druid.timeline.partition.LinearShardSpec;
@@ -139,6 +141,9 @@ public class IndexedTableJoinCursorBenchmark
   @Param({"string1,stringKey", "stringKey,stringKey", "long3,longKey", "longKey,longKey"})
   String joinColumns;
 
+  @Param({"512"})
+  int vectorSize;
+
   private Set<String> keyColumns = ImmutableSet.of("stringKey", "longKey");
 
   boolean enableFilterPushdown = false;
@@ -199,7 +204,8 @@ public class IndexedTableJoinCursorBenchmark
             ReferenceCountingSegment.wrapRootGenerationSegment(baseSegment),
             null,
             clauses,
-            preAnalysis
+            preAnalysis,
+            true
         )
     );
   }
@@ -230,6 +236,27 @@ public class IndexedTableJoinCursorBenchmark
     blackhole.consume(rowCount);
   }
 
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void hashJoinVectorCursorObjectSelectors(Blackhole blackhole)
+  {
+    int rowCount = processRowsVectorObjectSelectors(blackhole, makeVectorCursor(), projectionColumns);
+    blackhole.consume(rowCount);
+  }
+
+  private VectorCursor makeVectorCursor()
+  {
+    return hashJoinSegment.asStorageAdapter().makeVectorCursor(
+        null,
+        Intervals.ETERNITY,
+        VirtualColumns.EMPTY,
+        false,
+        vectorSize,
+        null
+    );
+  }
+
   private Sequence<Cursor> makeCursors()
   {
     return hashJoinSegment.asStorageAdapter().makeCursors(
@@ -414,4 +441,29 @@ public class IndexedTableJoinCursorBenchmark
           return rowCount;
         }).accumulate(0, (acc, in) -> acc + in);
   }
+
+  private static int processRowsVectorObjectSelectors(
+      final Blackhole blackhole,
+      final VectorCursor cursor,
+      final Set<String> columns
+  )
+  {
+    try (final VectorCursor theCursor = cursor) {
+      final List<VectorObjectSelector> selectors =
+          columns.stream()
+                 .map(theCursor.getColumnSelectorFactory()::makeObjectSelector)
+                 .collect(Collectors.toList());
+
+      int rowCount = 0;
+      while (!theCursor.isDone()) {
+        for (VectorObjectSelector selector : selectors) {
+          blackhole.consume(selector.getObjectVector());
+        }
+
+        rowCount += theCursor.getCurrentVectorSize();
+        theCursor.advance();
+      }
+      return rowCount;
+    }
+  }
 }
@@ -38,6 +38,7 @@ import org.apache.druid.segment.Cursor;
 import org.apache.druid.segment.DimensionSelector;
 import org.apache.druid.segment.QueryableIndex;
 import org.apache.druid.segment.QueryableIndexSegment;
+import org.apache.druid.segment.QueryableIndexStorageAdapter;
 import org.apache.druid.segment.ReferenceCountingSegment;
 import org.apache.druid.segment.Segment;
 import org.apache.druid.segment.VirtualColumns;
@@ -55,6 +56,8 @@ import org.apache.druid.segment.join.filter.JoinFilterPreAnalysisKey;
 import org.apache.druid.segment.join.filter.rewrite.JoinFilterRewriteConfig;
 import org.apache.druid.segment.join.lookup.LookupJoinable;
 import org.apache.druid.segment.join.table.IndexedTableJoinable;
+import org.apache.druid.segment.vector.VectorCursor;
+import org.apache.druid.segment.vector.VectorObjectSelector;
 import org.apache.druid.segment.virtual.ExpressionVirtualColumn;
 import org.apache.druid.timeline.SegmentId;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -162,7 +165,8 @@ public class JoinAndLookupBenchmark
         ReferenceCountingSegment.wrapRootGenerationSegment(baseSegment),
         null,
         joinableClausesLookupStringKey,
-        preAnalysisLookupStringKey
+        preAnalysisLookupStringKey,
+        true
     );
 
     List<JoinableClause> joinableClausesLookupLongKey = ImmutableList.of(
@@ -232,7 +236,8 @@ public class JoinAndLookupBenchmark
         ReferenceCountingSegment.wrapRootGenerationSegment(baseSegment),
         null,
         joinableClausesIndexedTableStringKey,
-        preAnalysisIndexedStringKey
+        preAnalysisIndexedStringKey,
+        true
     );
 
     List<JoinableClause> joinableClausesIndexedTableLongKey = ImmutableList.of(
@@ -362,6 +367,20 @@ public class JoinAndLookupBenchmark
     ).accumulate(null, (acc, in) -> in);
   }
 
+  private static Object getLastValue(final VectorCursor cursor, final String column)
+  {
+    try (final VectorCursor theCursor = cursor) {
+      final VectorObjectSelector selector = theCursor.getColumnSelectorFactory().makeObjectSelector(column);
+
+      Object lastValue = null;
+      while (!theCursor.isDone()) {
+        lastValue = selector.getObjectVector()[theCursor.getCurrentVectorSize() - 1];
+        theCursor.advance();
+      }
+      return lastValue;
+    }
+  }
+
   @Benchmark
   @BenchmarkMode(Mode.AverageTime)
   @OutputTimeUnit(TimeUnit.MILLISECONDS)
@@ -430,6 +449,23 @@ public class JoinAndLookupBenchmark
     blackhole.consume(getLastValue(cursors, "c.v"));
   }
 
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void joinLookupStringKeyVectorized(Blackhole blackhole)
+  {
+    final VectorCursor cursor = hashJoinLookupStringKeySegment.asStorageAdapter().makeVectorCursor(
+        null,
+        Intervals.ETERNITY,
+        VirtualColumns.EMPTY,
+        false,
+        QueryableIndexStorageAdapter.DEFAULT_VECTOR_SIZE,
+        null
+    );
+
+    blackhole.consume(getLastValue(cursor, "c.v"));
+  }
+
   @Benchmark
   @BenchmarkMode(Mode.AverageTime)
   @OutputTimeUnit(TimeUnit.MILLISECONDS)
@@ -532,6 +568,23 @@ public class JoinAndLookupBenchmark
     blackhole.consume(getLastValue(cursors, "c.countryName"));
   }
 
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void joinIndexedTableStringKeyVectorized(Blackhole blackhole)
+  {
+    final VectorCursor cursor = hashJoinIndexedTableStringKeySegment.asStorageAdapter().makeVectorCursor(
+        null,
+        Intervals.ETERNITY,
+        VirtualColumns.EMPTY,
+        false,
+        QueryableIndexStorageAdapter.DEFAULT_VECTOR_SIZE,
+        null
+    );
+
+    blackhole.consume(getLastValue(cursor, "c.countryName"));
+  }
+
   @Benchmark
   @BenchmarkMode(Mode.AverageTime)
   @OutputTimeUnit(TimeUnit.MILLISECONDS)
@@ -36,11 +36,15 @@ import org.apache.druid.query.filter.SelectorDimFilter;
 import org.apache.druid.query.ordering.StringComparators;
 import org.apache.druid.segment.column.BitmapIndex;
 import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.column.NgramIndex;
 import org.apache.druid.segment.data.BitmapSerdeFactory;
 import org.apache.druid.segment.data.CloseableIndexed;
 import org.apache.druid.segment.data.GenericIndexed;
+import org.apache.druid.segment.data.ImmutableNgramIndex;
+import org.apache.druid.segment.data.NgramIndexSerializer;
 import org.apache.druid.segment.data.RoaringBitmapSerdeFactory;
 import org.apache.druid.segment.serde.BitmapIndexColumnPartSupplier;
+import org.apache.druid.segment.writeout.OnHeapMemorySegmentWriteOutMedium;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -54,6 +58,11 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -108,17 +117,28 @@ public class LikeFilterBenchmark
       null
   ).toFilter();
 
+  private static final Filter LIKE_CONTAINS = new LikeDimFilter(
+      "foo",
+      "%5050%",
+      null,
+      null
+  ).toFilter();
+
   // cardinality, the dictionary will contain evenly spaced integers
   @Param({"1000", "100000", "1000000"})
   int cardinality;
 
+  // whether the selector has a NgramIndex, used by LIKE_CONTAINS
+  @Param({"false", "true"})
+  boolean ngramIndex;
+
   int step;
 
   // selector will contain a cardinality number of bitmaps; each one contains a single int: 0
   BitmapIndexSelector selector;
 
   @Setup
-  public void setup()
+  public void setup() throws IOException
   {
     step = (END_INT - START_INT) / cardinality;
     final BitmapFactory bitmapFactory = new RoaringBitmapFactory();
@@ -158,6 +178,7 @@ public class LikeFilterBenchmark
         ),
         dictionary
     ).get();
+    final NgramIndex ngrams = ngramIndex ? makeNgramIndex(dictionary, serdeFactory) : null;
     selector = new BitmapIndexSelector()
     {
       @Override
@@ -201,6 +222,13 @@ public class LikeFilterBenchmark
       {
         throw new UnsupportedOperationException();
       }
+
+      @Nullable
+      @Override
+      public NgramIndex getNgramIndex(String dimension)
+      {
+        return ngrams;
+      }
     };
   }
 
@@ -249,6 +277,31 @@ public class LikeFilterBenchmark
     blackhole.consume(bitmapIndex);
   }
 
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void matchLikeContains(Blackhole blackhole)
+  {
+    final ImmutableBitmap bitmapIndex = LIKE_CONTAINS.getBitmapIndex(selector);
+    blackhole.consume(bitmapIndex);
+  }
+
+  private static NgramIndex makeNgramIndex(GenericIndexed<String> dictionary, BitmapSerdeFactory serdeFactory)
+      throws IOException
+  {
+    final NgramIndexSerializer serializer = new NgramIndexSerializer(
+        "foo",
+        serdeFactory,
+        new OnHeapMemorySegmentWriteOutMedium()
+    );
+    for (String value : dictionary) {
+      serializer.add(value);
+    }
+    final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    serializer.writeTo(Channels.newChannel(baos), null);
+    return ImmutableNgramIndex.read(ByteBuffer.wrap(baos.toByteArray()), serdeFactory, null);
+  }
+
   private List<Integer> generateInts()
   {
     final List<Integer> ints = new ArrayList<>(cardinality);
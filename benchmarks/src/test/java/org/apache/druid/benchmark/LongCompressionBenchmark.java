@@ -23,6 +23,7 @@ import com.google.common.base.Supplier;
 import org.apache.druid.common.config.NullHandling;
 import org.apache.druid.java.util.common.FileUtils;
 import org.apache.druid.java.util.common.MappedByteBufferHandler;
+import org.apache.druid.segment.QueryableIndexStorageAdapter;
 import org.apache.druid.segment.data.ColumnarLongs;
 import org.apache.druid.segment.data.CompressedColumnarLongsSupplier;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -69,7 +70,7 @@ public class LongCompressionBenchmark
   @Param({"auto", "longs"})
   private static String format;
 
-  @Param({"lz4", "none"})
+  @Param({"lz4", "zstd", "zstd_dictionary", "none"})
   private static String strategy;
 
   private Supplier<ColumnarLongs> supplier;
@@ -114,4 +115,16 @@ public class LongCompressionBenchmark
     columnarLongs.close();
   }
 
+  @Benchmark
+  public void readVectorized(Blackhole bh)
+  {
+    ColumnarLongs columnarLongs = supplier.get();
+    int count = columnarLongs.size();
+    long[] vector = new long[QueryableIndexStorageAdapter.DEFAULT_VECTOR_SIZE];
+    for (int i = 0; i < count; i += vector.length) {
+      columnarLongs.get(vector, i, Math.min(vector.length, count - i));
+      bh.consume(vector);
+    }
+    columnarLongs.close();
+  }
 }
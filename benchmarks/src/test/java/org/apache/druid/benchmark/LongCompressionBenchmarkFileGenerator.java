@@ -54,6 +54,8 @@ public class LongCompressionBenchmarkFileGenerator
   public static final List<CompressionStrategy> COMPRESSIONS =
       ImmutableList.of(
           CompressionStrategy.LZ4,
+          CompressionStrategy.ZSTD,
+          CompressionStrategy.ZSTD_DICTIONARY,
           CompressionStrategy.NONE);
   public static final List<CompressionFactory.LongEncodingStrategy> ENCODINGS =
       ImmutableList.of(CompressionFactory.LongEncodingStrategy.AUTO, CompressionFactory.LongEncodingStrategy.LONGS);
@@ -168,7 +170,11 @@ public class LongCompressionBenchmarkFileGenerator
             }
             writer.writeTo(output, null);
           }
-          log.info("%d", compFile.length() / 1024);
+          log.info(
+              "%d KiB, compression ratio %.2f",
+              compFile.length() / 1024,
+              (double) ROW_NUM * Long.BYTES / compFile.length()
+          );
         }
       }
     }
@@ -20,6 +20,7 @@
 package org.apache.druid.benchmark.indexing;
 
 import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.java.util.common.ISE;
 import org.apache.druid.java.util.common.granularity.Granularities;
 import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.java.util.common.logger.Logger;
@@ -28,6 +29,7 @@ import org.apache.druid.query.aggregation.hyperloglog.HyperUniquesSerde;
 import org.apache.druid.query.dimension.DefaultDimensionSpec;
 import org.apache.druid.query.filter.BoundDimFilter;
 import org.apache.druid.query.filter.DimFilter;
+import org.apache.druid.query.filter.Filter;
 import org.apache.druid.query.filter.InDimFilter;
 import org.apache.druid.query.filter.JavaScriptDimFilter;
 import org.apache.druid.query.filter.OrDimFilter;
@@ -37,6 +39,7 @@ import org.apache.druid.query.ordering.StringComparators;
 import org.apache.druid.query.search.ContainsSearchQuerySpec;
 import org.apache.druid.segment.Cursor;
 import org.apache.druid.segment.DimensionSelector;
+import org.apache.druid.segment.QueryableIndexStorageAdapter;
 import org.apache.druid.segment.VirtualColumns;
 import org.apache.druid.segment.data.IndexedInts;
 import org.apache.druid.segment.generator.DataGenerator;
@@ -49,6 +52,8 @@ import org.apache.druid.segment.incremental.IncrementalIndexSchema;
 import org.apache.druid.segment.incremental.IncrementalIndexStorageAdapter;
 import org.apache.druid.segment.incremental.oak.OakIncrementalIndexModule;
 import org.apache.druid.segment.serde.ComplexMetrics;
+import org.apache.druid.segment.vector.MultiValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorCursor;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -63,6 +68,7 @@ import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -206,6 +212,38 @@ public class IncrementalIndexReadBenchmark
     }
   }
 
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void readVectorized(Blackhole blackhole)
+  {
+    IncrementalIndexStorageAdapter sa = new IncrementalIndexStorageAdapter(incIndex);
+    try (VectorCursor cursor = makeVectorCursor(sa, null)) {
+      readVectors(cursor, blackhole);
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void readWithFiltersVectorized(Blackhole blackhole)
+  {
+    DimFilter filter = new OrDimFilter(
+        Arrays.asList(
+            new BoundDimFilter("dimSequential", "-1", "-1", true, true, null, null, StringComparators.ALPHANUMERIC),
+            new JavaScriptDimFilter("dimSequential", "function(x) { return false }", null, JavaScriptConfig.getEnabledInstance()),
+            new RegexDimFilter("dimSequential", "X", null),
+            new SearchQueryDimFilter("dimSequential", new ContainsSearchQuerySpec("X", false), null),
+            new InDimFilter("dimSequential", Collections.singletonList("X"), null)
+        )
+    );
+
+    IncrementalIndexStorageAdapter sa = new IncrementalIndexStorageAdapter(incIndex);
+    try (VectorCursor cursor = makeVectorCursor(sa, filter)) {
+      readVectors(cursor, blackhole);
+    }
+  }
+
   private Sequence<Cursor> makeCursors(IncrementalIndexStorageAdapter sa, DimFilter filter)
   {
     return sa.makeCursors(
@@ -218,6 +256,51 @@ public class IncrementalIndexReadBenchmark
     );
   }
 
+  private VectorCursor makeVectorCursor(IncrementalIndexStorageAdapter sa, DimFilter filter)
+  {
+    final Filter theFilter = filter == null ? null : filter.toFilter();
+    if (!sa.canVectorize(theFilter, VirtualColumns.EMPTY, false)) {
+      throw new ISE("Index type[%s] cannot be read with a vector cursor", indexType);
+    }
+    return sa.makeVectorCursor(
+        theFilter,
+        schemaInfo.getDataInterval(),
+        VirtualColumns.EMPTY,
+        false,
+        QueryableIndexStorageAdapter.DEFAULT_VECTOR_SIZE,
+        null
+    );
+  }
+
+  private static void readVectors(@Nullable VectorCursor cursor, Blackhole blackhole)
+  {
+    if (cursor == null) {
+      return;
+    }
+
+    List<MultiValueDimensionVectorSelector> selectors = new ArrayList<>();
+    selectors.add(makeDimensionVectorSelector(cursor, "dimSequential"));
+    selectors.add(makeDimensionVectorSelector(cursor, "dimZipf"));
+    selectors.add(makeDimensionVectorSelector(cursor, "dimUniform"));
+    selectors.add(makeDimensionVectorSelector(cursor, "dimSequentialHalfNull"));
+
+    while (!cursor.isDone()) {
+      final int vectorSize = cursor.getCurrentVectorSize();
+      for (MultiValueDimensionVectorSelector selector : selectors) {
+        IndexedInts[] rows = selector.getRowVector();
+        for (int i = 0; i < vectorSize; i++) {
+          blackhole.consume(rows[i].size() == 0 ? null : selector.lookupName(rows[i].get(0)));
+        }
+      }
+      cursor.advance();
+    }
+  }
+
+  private static MultiValueDimensionVectorSelector makeDimensionVectorSelector(VectorCursor cursor, String name)
+  {
+    return cursor.getColumnSelectorFactory().makeMultiValueDimensionSelector(new DefaultDimensionSpec(name, null));
+  }
+
   private static DimensionSelector makeDimensionSelector(Cursor cursor, String name)
   {
     return cursor.getColumnSelectorFactory().makeDimensionSelector(new DefaultDimensionSpec(name, null));
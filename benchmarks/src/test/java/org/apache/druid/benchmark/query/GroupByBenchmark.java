@@ -135,7 +135,7 @@ public class GroupByBenchmark
   @Param({"100000"})
   private int rowsPerSegment;
 
-  @Param({"basic.A", "basic.nested"})
+  @Param({"basic.A", "basic.nested", "multiValue.A", "multiValue.B"})
   private String schemaAndQuery;
 
   @Param({"v1", "v2"})
@@ -320,6 +320,51 @@ public class GroupByBenchmark
     }
     SCHEMA_QUERY_MAP.put("basic", basicQueries);
 
+    // queries for the multi-value schema, grouping on multi-value dimensions alone and next to single-value ones
+    Map<String, GroupByQuery> multiValueQueries = new LinkedHashMap<>();
+    GeneratorSchemaInfo multiValueSchema = GeneratorBasicSchemas.SCHEMA_MAP.get("multiValue");
+
+    { // multiValue.A
+      QuerySegmentSpec intervalSpec = new MultipleIntervalSegmentSpec(Collections.singletonList(multiValueSchema.getDataInterval()));
+      List<AggregatorFactory> queryAggs = new ArrayList<>();
+      queryAggs.add(new CountAggregatorFactory("cnt"));
+      queryAggs.add(new LongSumAggregatorFactory("sumLongSequential", "sumLongSequential"));
+      GroupByQuery queryA = GroupByQuery
+          .builder()
+          .setDataSource("blah")
+          .setQuerySegmentSpec(intervalSpec)
+          .setDimensions(new DefaultDimensionSpec("dimMultiValueZipf", null))
+          .setAggregatorSpecs(queryAggs)
+          .setGranularity(Granularity.fromString(queryGranularity))
+          .setContext(ImmutableMap.of("vectorize", vectorize))
+          .build();
+
+      multiValueQueries.put("A", queryA);
+    }
+
+    { // multiValue.B
+      QuerySegmentSpec intervalSpec = new MultipleIntervalSegmentSpec(Collections.singletonList(multiValueSchema.getDataInterval()));
+      List<AggregatorFactory> queryAggs = new ArrayList<>();
+      queryAggs.add(new CountAggregatorFactory("cnt"));
+      queryAggs.add(new DoubleMinAggregatorFactory("minFloatZipf", "minFloatZipf"));
+      GroupByQuery queryB = GroupByQuery
+          .builder()
+          .setDataSource("blah")
+          .setQuerySegmentSpec(intervalSpec)
+          .setDimensions(
+              new DefaultDimensionSpec("dimZipf", null),
+              new DefaultDimensionSpec("dimMultiValueZipf", null),
+              new DefaultDimensionSpec("dimMultiValueSequentialWithNulls", null)
+          )
+          .setAggregatorSpecs(queryAggs)
+          .setGranularity(Granularity.fromString(queryGranularity))
+          .setContext(ImmutableMap.of("vectorize", vectorize))
+          .build();
+
+      multiValueQueries.put("B", queryB);
+    }
+    SCHEMA_QUERY_MAP.put("multiValue", multiValueQueries);
+
     // simple one column schema, for testing performance difference between querying on numeric values as Strings and
     // directly as longs
     Map<String, GroupByQuery> simpleQueries = new LinkedHashMap<>();
@@ -35,6 +35,7 @@ import org.apache.druid.query.DefaultGenericQueryMetricsFactory;
 import org.apache.druid.query.Druids;
 import org.apache.druid.query.FinalizeResultsQueryRunner;
 import org.apache.druid.query.Query;
+import org.apache.druid.query.QueryContexts;
 import org.apache.druid.query.QueryPlus;
 import org.apache.druid.query.QueryRunner;
 import org.apache.druid.query.QueryRunnerFactory;
@@ -118,6 +119,12 @@ public class ScanBenchmark
   @Param({"NONE", "DESCENDING", "ASCENDING"})
   private static ScanQuery.Order ordering;
 
+  @Param({"list", "compactedList"})
+  private String resultFormat;
+
+  @Param({"false", "true"})
+  private String vectorize;
+
   private static final Logger log = new Logger(ScanBenchmark.class);
   private static final int RNG_SEED = 9999;
   private static final ObjectMapper JSON_MAPPER;
@@ -257,7 +264,9 @@ public class ScanBenchmark
 
     schemaInfo = GeneratorBasicSchemas.SCHEMA_MAP.get(schemaName);
     queryBuilder = SCHEMA_QUERY_MAP.get(schemaName).get(queryName);
-    queryBuilder.limit(limit);
+    queryBuilder.limit(limit)
+                .resultFormat(ScanQuery.ResultFormat.fromString(resultFormat))
+                .context(ImmutableMap.of(QueryContexts.VECTORIZE_KEY, vectorize));
     query = queryBuilder.build();
 
     generator = new DataGenerator(
@@ -387,6 +387,10 @@ public class SearchBenchmark
     @Param({"1"})
     private int numSegments;
 
+    // whether string dimensions have a NgramIndex, used to only check the values containing the searched substring
+    @Param({"false", "true"})
+    private boolean ngramIndexes;
+
     private ExecutorService executorService;
     private File qIndexesDir;
     private List<QueryableIndex> qIndexes;
@@ -410,7 +414,7 @@ public class SearchBenchmark
         File indexFile = INDEX_MERGER_V9.persist(
             incIndex,
             new File(qIndexesDir, String.valueOf(i)),
-            new IndexSpec(),
+            new IndexSpec(null, null, null, null, null, null, null, null, ngramIndexes, null),
             null
         );
         incIndex.close();
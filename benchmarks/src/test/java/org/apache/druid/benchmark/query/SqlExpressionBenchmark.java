@@ -183,6 +183,9 @@ public class SqlExpressionBenchmark
   @Param({"false", "force"})
   private String vectorize;
 
+  @Param({"false", "true"})
+  private boolean compileExpressions;
+
   @Param({
       // non-expression reference
       "0",
@@ -286,7 +289,8 @@ public class SqlExpressionBenchmark
   {
     final Map<String, Object> context = ImmutableMap.of(
         QueryContexts.VECTORIZE_KEY, vectorize,
-        QueryContexts.VECTORIZE_VIRTUAL_COLUMNS_KEY, vectorize
+        QueryContexts.VECTORIZE_VIRTUAL_COLUMNS_KEY, vectorize,
+        QueryContexts.COMPILE_EXPRESSIONS_KEY, compileExpressions
     );
     final String sql = QUERIES.get(Integer.parseInt(query));
     try (final DruidPlanner planner = plannerFactory.createPlannerForTesting(context, sql)) {
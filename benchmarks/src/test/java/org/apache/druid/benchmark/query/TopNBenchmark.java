@@ -21,6 +21,7 @@ package org.apache.druid.benchmark.query;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
 import org.apache.druid.collections.StupidPool;
 import org.apache.druid.common.config.NullHandling;
 import org.apache.druid.jackson.DefaultObjectMapper;
@@ -112,6 +113,9 @@ public class TopNBenchmark
   @Param({"10"})
   private int threshold;
 
+  @Param({"force", "false"})
+  private String vectorize;
+
   private static final Logger log = new Logger(TopNBenchmark.class);
   private static final int RNG_SEED = 9999;
   private static final IndexMergerV9 INDEX_MERGER_V9;
@@ -230,6 +234,7 @@ public class TopNBenchmark
     schemaInfo = GeneratorBasicSchemas.SCHEMA_MAP.get(schemaName);
     queryBuilder = SCHEMA_QUERY_MAP.get(schemaName).get(queryName);
     queryBuilder.threshold(threshold);
+    queryBuilder.context(ImmutableMap.of("vectorize", vectorize));
     query = queryBuilder.build();
 
     generator = new DataGenerator(
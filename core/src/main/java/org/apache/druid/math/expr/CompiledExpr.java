@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.math.expr;
+
+import java.util.List;
+
+/**
+ * A numeric {@link Expr} compiled by {@link ExprCompiler} into a generated subclass, which evaluates the expression
+ * on primitive input values, without allocating an {@link ExprEval} for every node of the expression tree.
+ *
+ * Compiled expressions are stateless, and are shared by all selectors evaluating the same expression with the same
+ * input types.
+ */
+public abstract class CompiledExpr
+{
+  /**
+   * Primitive input values of a compiled expression, identified by their position in {@link #getInputs()}
+   */
+  public interface NumericBinding
+  {
+    long getLong(int input);
+
+    double getDouble(int input);
+  }
+
+  private final List<String> inputs;
+  private final ExprType outputType;
+
+  protected CompiledExpr(List<String> inputs, ExprType outputType)
+  {
+    this.inputs = inputs;
+    this.outputType = outputType;
+  }
+
+  /**
+   * Names of the bindings the expression reads, in the order of the positions passed to {@link NumericBinding}.
+   */
+  public List<String> getInputs()
+  {
+    return inputs;
+  }
+
+  /**
+   * Either {@link ExprType#LONG} or {@link ExprType#DOUBLE}
+   */
+  public ExprType getOutputType()
+  {
+    return outputType;
+  }
+
+  /**
+   * Evaluates the expression like {@link ExprEval#asLong()} of {@link Expr#eval}, for non-null inputs
+   */
+  public abstract long evalLong(NumericBinding bindings);
+
+  /**
+   * Evaluates the expression like {@link ExprEval#asDouble()} of {@link Expr#eval}, for non-null inputs
+   */
+  public abstract double evalDouble(NumericBinding bindings);
+}
@@ -0,0 +1,376 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.math.expr;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.math.LongMath;
+import com.google.common.primitives.Ints;
+import org.apache.druid.java.util.common.DefineClassUtils;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.common.logger.Logger;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compiles numeric {@link Expr} trees into {@link CompiledExpr} subclasses, generated with ASM and defined with
+ * {@link DefineClassUtils}, so that row-based selectors can evaluate them on primitives instead of interpreting them.
+ *
+ * Only trees of numeric constants, identifiers of {@link ExprType#LONG} or {@link ExprType#DOUBLE} inputs, unary
+ * minus, and math and comparison operators can be compiled. {@link #compile} returns null for anything else, in which
+ * case callers should fall back to {@link Expr#eval}.
+ *
+ * Compiled expressions do not handle null inputs: in SQL compatible null handling mode, callers must check their
+ * inputs for nulls first, since the result of every supported operator is null if any of its inputs is null.
+ */
+public class ExprCompiler
+{
+  private static final Logger log = new Logger(ExprCompiler.class);
+
+  /**
+   * Generated classes are never unloaded, so the number of compiled expressions is bounded, after which expressions
+   * that have not been compiled yet are interpreted.
+   */
+  private static final int MAX_COMPILED_EXPRESSIONS = 1000;
+
+  private static final String COMPILED_EXPR = Type.getInternalName(CompiledExpr.class);
+  private static final String NUMERIC_BINDING = Type.getInternalName(CompiledExpr.NumericBinding.class);
+  private static final String CONSTRUCTOR_DESCRIPTOR =
+      "(" + Type.getDescriptor(List.class) + Type.getDescriptor(ExprType.class) + ")V";
+  private static final String EVAL_LONG_DESCRIPTOR = "(L" + NUMERIC_BINDING + ";)J";
+  private static final String EVAL_DOUBLE_DESCRIPTOR = "(L" + NUMERIC_BINDING + ";)D";
+
+  private static final AtomicLong GENERATED_CLASS_COUNTER = new AtomicLong();
+  private static final AtomicInteger NUM_COMPILED_EXPRESSIONS = new AtomicInteger();
+  private static final ConcurrentHashMap<String, CompiledExpr> COMPILED_EXPRESSIONS = new ConcurrentHashMap<>();
+
+  /**
+   * Returns a compiled version of "expr" for the input types given by "inspector", or null if it cannot be compiled.
+   * Expressions with the same string representation and input types share their compiled class.
+   */
+  @Nullable
+  public static CompiledExpr compile(Expr expr, Expr.InputBindingInspector inspector)
+  {
+    final Map<String, ExprType> inputTypes = new LinkedHashMap<>();
+    final ExprType outputType = typeOf(expr, inspector, inputTypes);
+    if (outputType == null) {
+      return null;
+    }
+
+    final String key = StringUtils.format("%s %s", expr.stringify(), inputTypes);
+    final CompiledExpr compiled = COMPILED_EXPRESSIONS.get(key);
+    if (compiled != null) {
+      return compiled;
+    }
+
+    return COMPILED_EXPRESSIONS.computeIfAbsent(
+        key,
+        k -> {
+          // reserve a slot first, so that concurrent compilations of different expressions never exceed the bound
+          if (NUM_COMPILED_EXPRESSIONS.incrementAndGet() > MAX_COMPILED_EXPRESSIONS) {
+            NUM_COMPILED_EXPRESSIONS.decrementAndGet();
+            return null;
+          }
+          final CompiledExpr generated = generate(expr, inputTypes, outputType);
+          if (generated == null) {
+            NUM_COMPILED_EXPRESSIONS.decrementAndGet();
+          }
+          return generated;
+        }
+    );
+  }
+
+  @Nullable
+  private static CompiledExpr generate(Expr expr, Map<String, ExprType> inputTypes, ExprType outputType)
+  {
+    final List<String> inputs = ImmutableList.copyOf(inputTypes.keySet());
+    final String className = CompiledExpr.class.getName() + "$Generated" + GENERATED_CLASS_COUNTER.incrementAndGet();
+    final String internalName = className.replace('.', '/');
+
+    final ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+    writer.visit(
+        Opcodes.V1_8,
+        Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+        internalName,
+        null,
+        COMPILED_EXPR,
+        null
+    );
+
+    final MethodVisitor constructor =
+        writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", CONSTRUCTOR_DESCRIPTOR, null, null);
+    constructor.visitCode();
+    constructor.visitVarInsn(Opcodes.ALOAD, 0);
+    constructor.visitVarInsn(Opcodes.ALOAD, 1);
+    constructor.visitVarInsn(Opcodes.ALOAD, 2);
+    constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, COMPILED_EXPR, "<init>", CONSTRUCTOR_DESCRIPTOR, false);
+    constructor.visitInsn(Opcodes.RETURN);
+    constructor.visitMaxs(0, 0);
+    constructor.visitEnd();
+
+    final MethodVisitor evalLong =
+        writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, "evalLong", EVAL_LONG_DESCRIPTOR, null, null);
+    evalLong.visitCode();
+    new CodeGenerator(evalLong, inputs, inputTypes).generate(expr, ExprType.LONG);
+    evalLong.visitInsn(Opcodes.LRETURN);
+    evalLong.visitMaxs(0, 0);
+    evalLong.visitEnd();
+
+    final MethodVisitor evalDouble =
+        writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, "evalDouble", EVAL_DOUBLE_DESCRIPTOR, null, null);
+    evalDouble.visitCode();
+    new CodeGenerator(evalDouble, inputs, inputTypes).generate(expr, ExprType.DOUBLE);
+    evalDouble.visitInsn(Opcodes.DRETURN);
+    evalDouble.visitMaxs(0, 0);
+    evalDouble.visitEnd();
+
+    writer.visitEnd();
+
+    try {
+      final Class<?> generatedClass = DefineClassUtils.defineClass(CompiledExpr.class, writer.toByteArray(), className);
+      return (CompiledExpr) generatedClass.getConstructor(List.class, ExprType.class).newInstance(inputs, outputType);
+    }
+    catch (UnsupportedOperationException | ReflectiveOperationException e) {
+      log.warn(e, "Unable to compile expression[%s], it will be interpreted instead", expr.stringify());
+      return null;
+    }
+  }
+
+  /**
+   * Returns the type {@link Expr#eval} of "expr" has for non-null inputs, or null if "expr" cannot be compiled, and
+   * adds the inputs of "expr" to "inputTypes" in the order they are first used.
+   */
+  @Nullable
+  private static ExprType typeOf(Expr expr, Expr.InputBindingInspector inspector, Map<String, ExprType> inputTypes)
+  {
+    if (expr instanceof LongExpr) {
+      return ExprType.LONG;
+    } else if (expr instanceof DoubleExpr) {
+      return ExprType.DOUBLE;
+    } else if (expr instanceof IdentifierExpr) {
+      final String binding = expr.getBindingIfIdentifier();
+      final ExprType type = inspector.getType(binding);
+      if (type != ExprType.LONG && type != ExprType.DOUBLE) {
+        return null;
+      }
+      inputTypes.put(binding, type);
+      return type;
+    } else if (expr instanceof UnaryMinusExpr) {
+      return typeOf(((UnaryMinusExpr) expr).expr, inspector, inputTypes);
+    } else if (isCompiledOperator(expr)) {
+      final BinaryOpExprBase operator = (BinaryOpExprBase) expr;
+      final ExprType leftType = typeOf(operator.left, inspector, inputTypes);
+      final ExprType rightType = typeOf(operator.right, inspector, inputTypes);
+      if (leftType == null || rightType == null) {
+        return null;
+      }
+      // like ExprTypeConversion.autoDetect for non-null numbers
+      return leftType == ExprType.LONG && rightType == ExprType.LONG ? ExprType.LONG : ExprType.DOUBLE;
+    } else {
+      return null;
+    }
+  }
+
+  private static boolean isCompiledOperator(Expr expr)
+  {
+    return expr instanceof BinPlusExpr
+           || expr instanceof BinMinusExpr
+           || expr instanceof BinMulExpr
+           || expr instanceof BinDivExpr
+           || expr instanceof BinModuloExpr
+           || expr instanceof BinPowExpr
+           || isComparison(expr);
+  }
+
+  private static boolean isComparison(Expr expr)
+  {
+    return expr instanceof BinLtExpr
+           || expr instanceof BinLeqExpr
+           || expr instanceof BinGtExpr
+           || expr instanceof BinGeqExpr
+           || expr instanceof BinEqExpr
+           || expr instanceof BinNeqExpr;
+  }
+
+  /**
+   * Emits the bytecode pushing the value of an expression, which must have passed {@link #typeOf}, on the operand
+   * stack. Operators work like the evalLong and evalDouble methods of {@link BinaryEvalOpExprBase}.
+   */
+  private static class CodeGenerator
+  {
+    private final MethodVisitor method;
+    private final List<String> inputs;
+    private final Map<String, ExprType> inputTypes;
+
+    private CodeGenerator(MethodVisitor method, List<String> inputs, Map<String, ExprType> inputTypes)
+    {
+      this.method = method;
+      this.inputs = inputs;
+      this.inputTypes = inputTypes;
+    }
+
+    /**
+     * Pushes the value of "expr" converted to "type", like {@link ExprEval#asLong()} or {@link ExprEval#asDouble()}.
+     */
+    private void generate(Expr expr, ExprType type)
+    {
+      final ExprType exprType = generate(expr);
+      if (exprType == ExprType.LONG && type == ExprType.DOUBLE) {
+        method.visitInsn(Opcodes.L2D);
+      } else if (exprType == ExprType.DOUBLE && type == ExprType.LONG) {
+        method.visitInsn(Opcodes.D2L);
+      }
+    }
+
+    /**
+     * Pushes the value of "expr" with its own type, and returns that type.
+     */
+    private ExprType generate(Expr expr)
+    {
+      if (expr instanceof LongExpr) {
+        method.visitLdcInsn(expr.getLiteralValue());
+        return ExprType.LONG;
+      } else if (expr instanceof DoubleExpr) {
+        method.visitLdcInsn(expr.getLiteralValue());
+        return ExprType.DOUBLE;
+      } else if (expr instanceof IdentifierExpr) {
+        final String binding = expr.getBindingIfIdentifier();
+        final ExprType type = inputTypes.get(binding);
+        method.visitVarInsn(Opcodes.ALOAD, 1);
+        method.visitLdcInsn(inputs.indexOf(binding));
+        if (type == ExprType.LONG) {
+          method.visitMethodInsn(Opcodes.INVOKEINTERFACE, NUMERIC_BINDING, "getLong", "(I)J", true);
+        } else {
+          method.visitMethodInsn(Opcodes.INVOKEINTERFACE, NUMERIC_BINDING, "getDouble", "(I)D", true);
+        }
+        return type;
+      } else if (expr instanceof UnaryMinusExpr) {
+        final ExprType type = generate(((UnaryMinusExpr) expr).expr);
+        method.visitInsn(type == ExprType.LONG ? Opcodes.LNEG : Opcodes.DNEG);
+        return type;
+      } else {
+        return generateOperator((BinaryOpExprBase) expr);
+      }
+    }
+
+    private ExprType generateOperator(BinaryOpExprBase operator)
+    {
+      final ExprType leftType = generate(operator.left);
+      if (leftType == ExprType.LONG && !isLong(operator.right)) {
+        method.visitInsn(Opcodes.L2D);
+      }
+      final ExprType rightType = generate(operator.right);
+      final boolean isLong = leftType == ExprType.LONG && rightType == ExprType.LONG;
+      if (!isLong && rightType == ExprType.LONG) {
+        method.visitInsn(Opcodes.L2D);
+      }
+      final ExprType type = isLong ? ExprType.LONG : ExprType.DOUBLE;
+
+      if (isComparison(operator)) {
+        generateComparison(operator, isLong);
+      } else if (operator instanceof BinPlusExpr) {
+        method.visitInsn(isLong ? Opcodes.LADD : Opcodes.DADD);
+      } else if (operator instanceof BinMinusExpr) {
+        method.visitInsn(isLong ? Opcodes.LSUB : Opcodes.DSUB);
+      } else if (operator instanceof BinMulExpr) {
+        method.visitInsn(isLong ? Opcodes.LMUL : Opcodes.DMUL);
+      } else if (operator instanceof BinDivExpr) {
+        method.visitInsn(isLong ? Opcodes.LDIV : Opcodes.DDIV);
+      } else if (operator instanceof BinModuloExpr) {
+        method.visitInsn(isLong ? Opcodes.LREM : Opcodes.DREM);
+      } else if (operator instanceof BinPowExpr) {
+        if (isLong) {
+          method.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(Ints.class), "checkedCast", "(J)I", false);
+          method.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(LongMath.class), "pow", "(JI)J", false);
+        } else {
+          method.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(Math.class), "pow", "(DD)D", false);
+        }
+      } else {
+        throw new ISE("Cannot compile operator[%s]", operator.op);
+      }
+      return type;
+    }
+
+    /**
+     * Compares the two operands on the stack, pushing 1 or 0 like {@link Evals#asLong(boolean)}, or 1.0 or 0.0 like
+     * {@link Evals#asDouble(boolean)}. Doubles are compared with {@link Double#compare} like the operators do, except
+     * for '==' and '!=' which use the primitive comparison.
+     */
+    private void generateComparison(BinaryOpExprBase operator, boolean isLong)
+    {
+      if (isLong) {
+        method.visitInsn(Opcodes.LCMP);
+      } else if (operator instanceof BinEqExpr || operator instanceof BinNeqExpr) {
+        // NaN compares as -1, so it is not equal to anything
+        method.visitInsn(Opcodes.DCMPL);
+      } else {
+        method.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(Double.class), "compare", "(DD)I", false);
+      }
+
+      final Label isFalse = new Label();
+      final Label end = new Label();
+      method.visitJumpInsn(falseJumpOpcode(operator), isFalse);
+      method.visitInsn(isLong ? Opcodes.LCONST_1 : Opcodes.DCONST_1);
+      method.visitJumpInsn(Opcodes.GOTO, end);
+      method.visitLabel(isFalse);
+      method.visitInsn(isLong ? Opcodes.LCONST_0 : Opcodes.DCONST_0);
+      method.visitLabel(end);
+    }
+
+    /**
+     * Returns the jump instruction that jumps if the result of a comparison of the operands is false for "operator".
+     */
+    private static int falseJumpOpcode(BinaryOpExprBase operator)
+    {
+      if (operator instanceof BinLtExpr) {
+        return Opcodes.IFGE;
+      } else if (operator instanceof BinLeqExpr) {
+        return Opcodes.IFGT;
+      } else if (operator instanceof BinGtExpr) {
+        return Opcodes.IFLE;
+      } else if (operator instanceof BinGeqExpr) {
+        return Opcodes.IFLT;
+      } else if (operator instanceof BinEqExpr) {
+        return Opcodes.IFNE;
+      } else {
+        return Opcodes.IFEQ;
+      }
+    }
+
+    /**
+     * Whether "expr" has type {@link ExprType#LONG}, so its left sibling can be converted before it is generated.
+     */
+    private boolean isLong(Expr expr)
+    {
+      return typeOf(expr, inputTypes::get, new LinkedHashMap<>()) == ExprType.LONG;
+    }
+  }
+}
@@ -49,6 +49,19 @@ public class Exprs
     return new UOE("Unable to vectorize expression: %s", msg);
   }
 
+  /**
+   * Returns true if the expr is a call of a {@link Function}, {@link ApplyFunction} or
+   * {@link ExprMacroTable.ExprMacro}, rather than an operator, identifier, constant or lambda.
+   */
+  public static boolean isFunctionCall(final Expr expr)
+  {
+    return !(expr instanceof BinaryOpExprBase
+             || expr instanceof UnaryExpr
+             || expr instanceof ConstantExpr
+             || expr instanceof IdentifierExpr
+             || expr instanceof LambdaExpr);
+  }
+
   /**
    * Decomposes any expr into a list of exprs that, if ANDed together, are equivalent to the input expr.
    *
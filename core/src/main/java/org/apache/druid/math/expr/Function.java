@@ -30,6 +30,7 @@ import org.apache.druid.math.expr.vector.CastToTypeVectorProcessor;
 import org.apache.druid.math.expr.vector.ExprVectorProcessor;
 import org.apache.druid.math.expr.vector.VectorMathProcessors;
 import org.apache.druid.math.expr.vector.VectorProcessors;
+import org.apache.druid.math.expr.vector.VectorStringProcessors;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.joda.time.format.DateTimeFormat;
@@ -1950,6 +1951,18 @@ public interface Function
     {
       return ExprTypeConversion.conditional(inspector, args.subList(1, 3));
     }
+
+    @Override
+    public boolean canVectorize(Expr.InputBindingInspector inspector, List<Expr> args)
+    {
+      return inspector.canVectorize(args) && !ExprType.isArray(getOutputType(inspector, args));
+    }
+
+    @Override
+    public <T> ExprVectorProcessor<T> asVectorProcessor(Expr.VectorInputBindingInspector inspector, List<Expr> args)
+    {
+      return VectorProcessors.caseSearched(inspector, args, getOutputType(inspector, args));
+    }
   }
 
   /**
@@ -1999,6 +2012,18 @@ public interface Function
       results.add(args.get(args.size() - 1));
       return ExprTypeConversion.conditional(inspector, results);
     }
+
+    @Override
+    public boolean canVectorize(Expr.InputBindingInspector inspector, List<Expr> args)
+    {
+      return inspector.canVectorize(args) && !ExprType.isArray(getOutputType(inspector, args));
+    }
+
+    @Override
+    public <T> ExprVectorProcessor<T> asVectorProcessor(Expr.VectorInputBindingInspector inspector, List<Expr> args)
+    {
+      return VectorProcessors.caseSearched(inspector, args, getOutputType(inspector, args));
+    }
   }
 
   /**
@@ -2048,6 +2073,36 @@ public interface Function
       results.add(args.get(args.size() - 1));
       return ExprTypeConversion.conditional(inspector, results);
     }
+
+    @Override
+    public boolean canVectorize(Expr.InputBindingInspector inspector, List<Expr> args)
+    {
+      return inspector.canVectorize(toCaseSearchedArgs(args)) && !ExprType.isArray(getOutputType(inspector, args));
+    }
+
+    @Override
+    public <T> ExprVectorProcessor<T> asVectorProcessor(Expr.VectorInputBindingInspector inspector, List<Expr> args)
+    {
+      return VectorProcessors.caseSearched(inspector, toCaseSearchedArgs(args), getOutputType(inspector, args));
+    }
+
+    /**
+     * Rewrites the arguments into those of the equivalent {@link CaseSearchedFunc}, comparing the first argument to
+     * the value of each WHEN clause like {@link #apply} does.
+     */
+    private static List<Expr> toCaseSearchedArgs(List<Expr> args)
+    {
+      final List<Expr> searchedArgs = new ArrayList<>();
+      for (int i = 1; i < args.size(); i += 2) {
+        if (i == args.size() - 1) {
+          searchedArgs.add(args.get(i));
+        } else {
+          searchedArgs.add(new BinEqExpr("==", args.get(0), args.get(i)));
+          searchedArgs.add(args.get(i + 1));
+        }
+      }
+      return searchedArgs;
+    }
   }
 
   class NvlFunc implements Function
@@ -2079,6 +2134,18 @@ public interface Function
     {
       return ExprTypeConversion.conditional(inspector, args);
     }
+
+    @Override
+    public boolean canVectorize(Expr.InputBindingInspector inspector, List<Expr> args)
+    {
+      return inspector.canVectorize(args) && !ExprType.isArray(getOutputType(inspector, args));
+    }
+
+    @Override
+    public <T> ExprVectorProcessor<T> asVectorProcessor(Expr.VectorInputBindingInspector inspector, List<Expr> args)
+    {
+      return VectorProcessors.nvl(inspector, args.get(0), args.get(1), getOutputType(inspector, args));
+    }
   }
 
   class IsNullFunc implements Function
@@ -2110,6 +2177,18 @@ public interface Function
     {
       return ExprType.LONG;
     }
+
+    @Override
+    public boolean canVectorize(Expr.InputBindingInspector inspector, List<Expr> args)
+    {
+      return inspector.canVectorize(args);
+    }
+
+    @Override
+    public <T> ExprVectorProcessor<T> asVectorProcessor(Expr.VectorInputBindingInspector inspector, List<Expr> args)
+    {
+      return VectorProcessors.isNull(inspector, args.get(0));
+    }
   }
 
   class IsNotNullFunc implements Function
@@ -2141,6 +2220,18 @@ public interface Function
     {
       return ExprType.LONG;
     }
+
+    @Override
+    public boolean canVectorize(Expr.InputBindingInspector inspector, List<Expr> args)
+    {
+      return inspector.canVectorize(args);
+    }
+
+    @Override
+    public <T> ExprVectorProcessor<T> asVectorProcessor(Expr.VectorInputBindingInspector inspector, List<Expr> args)
+    {
+      return VectorProcessors.isNotNull(inspector, args.get(0));
+    }
   }
 
   class ConcatFunc implements Function
@@ -2191,6 +2282,18 @@ public interface Function
     {
       return ExprType.STRING;
     }
+
+    @Override
+    public boolean canVectorize(Expr.InputBindingInspector inspector, List<Expr> args)
+    {
+      return inspector.canVectorize(args);
+    }
+
+    @Override
+    public <T> ExprVectorProcessor<T> asVectorProcessor(Expr.VectorInputBindingInspector inspector, List<Expr> args)
+    {
+      return VectorStringProcessors.concat(inspector, args);
+    }
   }
 
   class StrlenFunc implements Function
@@ -2222,6 +2325,18 @@ public interface Function
     {
       return ExprType.LONG;
     }
+
+    @Override
+    public boolean canVectorize(Expr.InputBindingInspector inspector, List<Expr> args)
+    {
+      return inspector.canVectorize(args);
+    }
+
+    @Override
+    public <T> ExprVectorProcessor<T> asVectorProcessor(Expr.VectorInputBindingInspector inspector, List<Expr> args)
+    {
+      return VectorStringProcessors.strlen(inspector, args.get(0));
+    }
   }
 
   class StringFormatFunc implements Function
@@ -2358,6 +2473,29 @@ public interface Function
     {
       return ExprType.STRING;
     }
+
+    @Override
+    public boolean canVectorize(Expr.InputBindingInspector inspector, List<Expr> args)
+    {
+      // only literal index and length, which is how they are nearly always used
+      return args.get(0).canVectorize(inspector) && isNumericLiteral(args.get(1)) && isNumericLiteral(args.get(2));
+    }
+
+    @Override
+    public <T> ExprVectorProcessor<T> asVectorProcessor(Expr.VectorInputBindingInspector inspector, List<Expr> args)
+    {
+      return VectorStringProcessors.substring(
+          inspector,
+          args.get(0),
+          ((Number) args.get(1).getLiteralValue()).intValue(),
+          ((Number) args.get(2).getLiteralValue()).intValue()
+      );
+    }
+
+    private static boolean isNumericLiteral(Expr expr)
+    {
+      return expr.isLiteral() && expr.getLiteralValue() instanceof Number;
+    }
   }
 
   class RightFunc extends StringLongFunction
@@ -2491,6 +2629,18 @@ public interface Function
     {
       return ExprType.STRING;
     }
+
+    @Override
+    public boolean canVectorize(Expr.InputBindingInspector inspector, List<Expr> args)
+    {
+      return inspector.canVectorize(args);
+    }
+
+    @Override
+    public <T> ExprVectorProcessor<T> asVectorProcessor(Expr.VectorInputBindingInspector inspector, List<Expr> args)
+    {
+      return VectorStringProcessors.lower(inspector, args.get(0));
+    }
   }
 
   class UpperFunc implements Function
@@ -2525,6 +2675,18 @@ public interface Function
     {
       return ExprType.STRING;
     }
+
+    @Override
+    public boolean canVectorize(Expr.InputBindingInspector inspector, List<Expr> args)
+    {
+      return inspector.canVectorize(args);
+    }
+
+    @Override
+    public <T> ExprVectorProcessor<T> asVectorProcessor(Expr.VectorInputBindingInspector inspector, List<Expr> args)
+    {
+      return VectorStringProcessors.upper(inspector, args.get(0));
+    }
   }
 
   class ReverseFunc extends UnivariateFunction
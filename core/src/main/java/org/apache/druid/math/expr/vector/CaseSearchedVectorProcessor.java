@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.math.expr.vector;
+
+import org.apache.druid.math.expr.Evals;
+import org.apache.druid.math.expr.Expr;
+import org.apache.druid.math.expr.ExprType;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link ConditionalVectorProcessor} for "searched CASE" style expressions, {@code if} and {@code case_searched}, where
+ * each row takes the result of the first condition that is true for it, or the 'else' result if there is none.
+ *
+ * Conditions are evaluated in order, each on the rows which matched none of the previous ones, stopping once every row
+ * has matched one, and each result is only evaluated on the rows which selected it.
+ */
+final class CaseSearchedVectorProcessor<T> extends ConditionalVectorProcessor<T>
+{
+  private final ExprVectorProcessor<?>[] conditions;
+  private final ExprVectorProcessor<?>[] results;
+  private final boolean[] truths;
+
+  /**
+   * @param conditions the WHEN conditions
+   * @param results    the THEN results of each condition, followed by the ELSE result
+   */
+  CaseSearchedVectorProcessor(
+      List<ExprVectorProcessor<?>> conditions,
+      List<ExprVectorProcessor<?>> results,
+      ExprType outputType,
+      int maxVectorSize
+  )
+  {
+    super(outputType, maxVectorSize);
+    this.conditions = conditions.toArray(new ExprVectorProcessor<?>[0]);
+    this.results = results.stream()
+                          .map(result -> CastToTypeVectorProcessor.cast(result, outputType))
+                          .toArray(ExprVectorProcessor<?>[]::new);
+    this.truths = new boolean[maxVectorSize];
+  }
+
+  @Override
+  public ExprEvalVector<T> evalVector(Expr.VectorInputBinding bindings)
+  {
+    final int currentSize = bindings.getCurrentVectorSize();
+    final int elseBranch = conditions.length;
+
+    Arrays.fill(selection, 0, currentSize, elseBranch);
+
+    int numUnmatched = currentSize;
+    for (int branch = 0; branch < conditions.length && numUnmatched > 0; branch++) {
+      // like row-based evaluation, evaluate each condition only on the rows that matched none of the previous ones
+      final int[] rows;
+      final ExprEvalVector<?> condition;
+      if (numUnmatched == currentSize) {
+        rows = null;
+        condition = conditions[branch].evalVector(bindings);
+      } else {
+        rows = selectedRows.getRows();
+        int numRows = 0;
+        for (int i = 0; i < currentSize; i++) {
+          if (selection[i] == elseBranch) {
+            rows[numRows++] = i;
+          }
+        }
+        condition = conditions[branch].evalVector(selectedRows.setRows(bindings, numRows));
+      }
+
+      computeTruths(condition, numUnmatched);
+      int numMatched = 0;
+      for (int i = 0; i < numUnmatched; i++) {
+        if (truths[i]) {
+          selection[rows == null ? i : rows[i]] = branch;
+          numMatched++;
+        }
+      }
+      numUnmatched -= numMatched;
+    }
+
+    for (int branch = 0; branch < results.length; branch++) {
+      evalSelectedRows(results[branch], branch, bindings, currentSize);
+    }
+    return asEval();
+  }
+
+  /**
+   * Fills {@link #truths} with {@link org.apache.druid.math.expr.ExprEval#asBoolean()} of the first "numRows" rows of
+   * "condition"
+   */
+  private void computeTruths(ExprEvalVector<?> condition, int numRows)
+  {
+    switch (condition.getType()) {
+      case LONG:
+        final long[] longs = condition.getLongVector();
+        final boolean[] longNulls = condition.getNullVector();
+        for (int i = 0; i < numRows; i++) {
+          truths[i] = (longNulls == null || !longNulls[i]) && Evals.asBoolean(longs[i]);
+        }
+        break;
+      case DOUBLE:
+        final double[] doubles = condition.getDoubleVector();
+        final boolean[] doubleNulls = condition.getNullVector();
+        for (int i = 0; i < numRows; i++) {
+          truths[i] = (doubleNulls == null || !doubleNulls[i]) && Evals.asBoolean(doubles[i]);
+        }
+        break;
+      default:
+        final Object[] strings = condition.getObjectVector();
+        for (int i = 0; i < numRows; i++) {
+          truths[i] = Evals.asBoolean((String) strings[i]);
+        }
+    }
+  }
+}
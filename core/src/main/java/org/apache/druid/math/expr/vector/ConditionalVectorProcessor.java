@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.math.expr.vector;
+
+import org.apache.druid.math.expr.Expr;
+import org.apache.druid.math.expr.ExprType;
+import org.apache.druid.math.expr.Exprs;
+
+import javax.annotation.Nullable;
+
+/**
+ * Base {@link ExprVectorProcessor} for conditional expressions, which choose the value of each row from one of several
+ * 'branch' inputs. Implementations record the branch chosen by each row of the current vector in {@link #selection},
+ * and then evaluate each branch on the rows that chose it only with {@link #evalSelectedRows}, so that, like with
+ * row-based evaluation, a branch is never evaluated on rows whose conditions did not select it.
+ */
+abstract class ConditionalVectorProcessor<T> implements ExprVectorProcessor<T>
+{
+  final ExprType outputType;
+  final int[] selection;
+  final SelectedRowsVectorInputBinding selectedRows;
+
+  @Nullable
+  private final long[] longs;
+  @Nullable
+  private final double[] doubles;
+  @Nullable
+  private final String[] strings;
+  @Nullable
+  private final boolean[] outNulls;
+
+  ConditionalVectorProcessor(ExprType outputType, int maxVectorSize)
+  {
+    this.outputType = outputType;
+    this.selection = new int[maxVectorSize];
+    this.selectedRows = new SelectedRowsVectorInputBinding(maxVectorSize);
+
+    switch (outputType) {
+      case LONG:
+        this.longs = new long[maxVectorSize];
+        this.doubles = null;
+        this.strings = null;
+        this.outNulls = new boolean[maxVectorSize];
+        break;
+      case DOUBLE:
+        this.longs = null;
+        this.doubles = new double[maxVectorSize];
+        this.strings = null;
+        this.outNulls = new boolean[maxVectorSize];
+        break;
+      case STRING:
+        this.longs = null;
+        this.doubles = null;
+        this.strings = new String[maxVectorSize];
+        this.outNulls = null;
+        break;
+      default:
+        throw Exprs.cannotVectorize();
+    }
+  }
+
+  /**
+   * Evaluates "branchProcessor", whose output must be of the output type, on the rows which chose branch "branch" only,
+   * and copies its values to those rows. The whole vector is evaluated if every row chose the branch, and nothing if
+   * none did.
+   */
+  void evalSelectedRows(
+      ExprVectorProcessor<?> branchProcessor,
+      int branch,
+      Expr.VectorInputBinding bindings,
+      int currentSize
+  )
+  {
+    final int[] rows = selectedRows.getRows();
+    int numRows = 0;
+    for (int i = 0; i < currentSize; i++) {
+      if (selection[i] == branch) {
+        rows[numRows++] = i;
+      }
+    }
+
+    if (numRows == currentSize) {
+      copyRows(branchProcessor.evalVector(bindings), null, currentSize);
+    } else if (numRows > 0) {
+      copyRows(branchProcessor.evalVector(selectedRows.setRows(bindings, numRows)), rows, numRows);
+    }
+  }
+
+  /**
+   * Copies the first "numRows" values of "result", which must be of the output type, to the given rows, or to the
+   * first "numRows" rows if "rows" is null.
+   */
+  void copyRows(ExprEvalVector<?> result, @Nullable int[] rows, int numRows)
+  {
+    switch (outputType) {
+      case LONG:
+        final long[] resultLongs = result.getLongVector();
+        final boolean[] longNulls = result.getNullVector();
+        for (int i = 0; i < numRows; i++) {
+          final int row = rows == null ? i : rows[i];
+          longs[row] = resultLongs[i];
+          outNulls[row] = longNulls != null && longNulls[i];
+        }
+        break;
+      case DOUBLE:
+        final double[] resultDoubles = result.getDoubleVector();
+        final boolean[] doubleNulls = result.getNullVector();
+        for (int i = 0; i < numRows; i++) {
+          final int row = rows == null ? i : rows[i];
+          doubles[row] = resultDoubles[i];
+          outNulls[row] = doubleNulls != null && doubleNulls[i];
+        }
+        break;
+      default:
+        final Object[] resultStrings = result.getObjectVector();
+        for (int i = 0; i < numRows; i++) {
+          strings[rows == null ? i : rows[i]] = (String) resultStrings[i];
+        }
+    }
+  }
+
+  ExprEvalVector<T> asEval()
+  {
+    final ExprEvalVector<?> eval;
+    switch (outputType) {
+      case LONG:
+        eval = new ExprEvalLongVector(longs, outNulls);
+        break;
+      case DOUBLE:
+        eval = new ExprEvalDoubleVector(doubles, outNulls);
+        break;
+      default:
+        // always a new vector, since string vectors cache their numeric values
+        eval = new ExprEvalStringVector(strings);
+    }
+    return (ExprEvalVector<T>) eval;
+  }
+
+  @Override
+  public ExprType getOutputType()
+  {
+    return outputType;
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.math.expr.vector;
+
+import org.apache.druid.math.expr.Expr;
+import org.apache.druid.math.expr.ExprType;
+
+/**
+ * {@link ConditionalVectorProcessor} for {@code nvl}, which takes the value of the first input, or of the second input
+ * for rows where the first input is null. The second input is only evaluated on those rows.
+ */
+final class NvlVectorProcessor<T> extends ConditionalVectorProcessor<T>
+{
+  private static final int INPUT = 0;
+  private static final int REPLACEMENT = 1;
+
+  private final ExprVectorProcessor<?> input;
+  private final ExprVectorProcessor<?> replacement;
+  private final boolean[] inputNulls;
+
+  NvlVectorProcessor(
+      ExprVectorProcessor<?> input,
+      ExprVectorProcessor<?> replacement,
+      ExprType outputType,
+      int maxVectorSize
+  )
+  {
+    super(outputType, maxVectorSize);
+    this.input = CastToTypeVectorProcessor.cast(input, outputType);
+    this.replacement = CastToTypeVectorProcessor.cast(replacement, outputType);
+    this.inputNulls = new boolean[maxVectorSize];
+  }
+
+  @Override
+  public ExprEvalVector<T> evalVector(Expr.VectorInputBinding bindings)
+  {
+    final int currentSize = bindings.getCurrentVectorSize();
+
+    final ExprEvalVector<?> inputResult = input.evalVector(bindings);
+    VectorProcessors.computeNulls(inputResult, currentSize, inputNulls);
+
+    for (int i = 0; i < currentSize; i++) {
+      selection[i] = inputNulls[i] ? REPLACEMENT : INPUT;
+    }
+
+    copyRows(inputResult, null, currentSize);
+    evalSelectedRows(replacement, REPLACEMENT, bindings, currentSize);
+    return asEval();
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.math.expr.vector;
+
+import org.apache.druid.math.expr.Expr;
+import org.apache.druid.math.expr.ExprType;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Array;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link Expr.VectorInputBinding} over some rows of the current vector of another binding, whose vectors hold the
+ * values of the selected rows only, in order. {@link ConditionalVectorProcessor} evaluates conditions and results with
+ * it on the rows that reach them, like the row-based evaluation does, so that a result guarded by a condition, like
+ * {@code if(x != 0, y / x, 0)}, is never evaluated on rows where the condition is false.
+ *
+ * Vectors are gathered each time they are requested, into arrays reused by later selections.
+ */
+final class SelectedRowsVectorInputBinding implements Expr.VectorInputBinding
+{
+  // ReadableVectorInspector.NULL_ID, in druid-processing
+  private static final int NULL_ID = -1;
+
+  private final int maxVectorSize;
+  private final int[] rows;
+  private final Map<String, Object[]> objectVectors = new HashMap<>();
+  private final Map<String, long[]> longVectors = new HashMap<>();
+  private final Map<String, double[]> doubleVectors = new HashMap<>();
+  private final Map<String, boolean[]> nullVectors = new HashMap<>();
+
+  @Nullable
+  private Expr.VectorInputBinding bindings;
+  private int numRows;
+
+  SelectedRowsVectorInputBinding(int maxVectorSize)
+  {
+    this.maxVectorSize = maxVectorSize;
+    this.rows = new int[maxVectorSize];
+  }
+
+  /**
+   * Returns the array to fill with the selected rows before calling {@link #setRows}.
+   */
+  int[] getRows()
+  {
+    return rows;
+  }
+
+  /**
+   * Selects the first "numRows" entries of {@link #getRows()}, which are rows of the current vector of "bindings".
+   */
+  SelectedRowsVectorInputBinding setRows(Expr.VectorInputBinding bindings, int numRows)
+  {
+    this.bindings = bindings;
+    this.numRows = numRows;
+    return this;
+  }
+
+  @Override
+  public <T> T[] getObjectVector(String name)
+  {
+    final T[] vector = bindings.getObjectVector(name);
+    final Object[] selected = objectVectors.computeIfAbsent(
+        name,
+        k -> (Object[]) Array.newInstance(vector.getClass().getComponentType(), maxVectorSize)
+    );
+    for (int i = 0; i < numRows; i++) {
+      selected[i] = vector[rows[i]];
+    }
+    return (T[]) selected;
+  }
+
+  @Override
+  public long[] getLongVector(String name)
+  {
+    final long[] vector = bindings.getLongVector(name);
+    final long[] selected = longVectors.computeIfAbsent(name, k -> new long[maxVectorSize]);
+    for (int i = 0; i < numRows; i++) {
+      selected[i] = vector[rows[i]];
+    }
+    return selected;
+  }
+
+  @Override
+  public double[] getDoubleVector(String name)
+  {
+    final double[] vector = bindings.getDoubleVector(name);
+    final double[] selected = doubleVectors.computeIfAbsent(name, k -> new double[maxVectorSize]);
+    for (int i = 0; i < numRows; i++) {
+      selected[i] = vector[rows[i]];
+    }
+    return selected;
+  }
+
+  @Nullable
+  @Override
+  public boolean[] getNullVector(String name)
+  {
+    final boolean[] vector = bindings.getNullVector(name);
+    if (vector == null) {
+      return null;
+    }
+    final boolean[] selected = nullVectors.computeIfAbsent(name, k -> new boolean[maxVectorSize]);
+    for (int i = 0; i < numRows; i++) {
+      selected[i] = vector[rows[i]];
+    }
+    return selected;
+  }
+
+  @Override
+  public int getCurrentVectorSize()
+  {
+    return numRows;
+  }
+
+  /**
+   * Selections are not identified, so that nothing caches their results as those of the vector of the base binding.
+   */
+  @Override
+  public int getCurrentVectorId()
+  {
+    return NULL_ID;
+  }
+
+  @Override
+  public int getMaxVectorSize()
+  {
+    return maxVectorSize;
+  }
+
+  @Nullable
+  @Override
+  public ExprType getType(String name)
+  {
+    return bindings.getType(name);
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.math.expr.vector;
+
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.math.expr.ExprType;
+
+import javax.annotation.Nullable;
+
+/**
+ * specialized {@link UnivariateFunctionVectorObjectProcessor} for processing (String[]) -> String[]
+ *
+ * Like {@link org.apache.druid.math.expr.ExprEval#of(String)}, empty outputs are null in default value mode.
+ */
+public abstract class StringOutStringInFunctionVectorProcessor
+    extends UnivariateFunctionVectorObjectProcessor<String[], String[]>
+{
+  public StringOutStringInFunctionVectorProcessor(ExprVectorProcessor<?> processor, int maxVectorSize)
+  {
+    super(CastToTypeVectorProcessor.cast(processor, ExprType.STRING), maxVectorSize, new String[maxVectorSize]);
+  }
+
+  @Nullable
+  public abstract String apply(@Nullable String input);
+
+  @Override
+  public ExprType getOutputType()
+  {
+    return ExprType.STRING;
+  }
+
+  @Override
+  public final void processIndex(String[] strings, String[] outputs, boolean[] outputNulls, int i)
+  {
+    outputs[i] = NullHandling.emptyToNullIfNeeded(apply(strings[i]));
+  }
+
+  @Override
+  public final ExprEvalVector<String[]> asEval()
+  {
+    return new ExprEvalStringVector(outValues);
+  }
+}
@@ -20,11 +20,14 @@
 package org.apache.druid.math.expr.vector;
 
 import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.math.expr.Evals;
 import org.apache.druid.math.expr.Expr;
 import org.apache.druid.math.expr.ExprType;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 public class VectorProcessors
 {
@@ -135,6 +138,128 @@ public class VectorProcessors
     return (ExprVectorProcessor<T>) processor;
   }
 
+  /**
+   * Processor for "searched CASE" style conditional functions. "args" are pairs of conditions and results, optionally
+   * followed by an 'else' result, like the arguments of the {@code case_searched} function. Rows matching no condition
+   * and with no 'else' result are null.
+   */
+  public static <T> ExprVectorProcessor<T> caseSearched(
+      Expr.VectorInputBindingInspector inspector,
+      List<Expr> args,
+      @Nullable ExprType outputType
+  )
+  {
+    // null output means no input has a known type, so be a string like identifiers of nil columns
+    final ExprType type = outputType == null ? ExprType.STRING : outputType;
+    final int maxVectorSize = inspector.getMaxVectorSize();
+
+    final List<ExprVectorProcessor<?>> conditions = new ArrayList<>();
+    final List<ExprVectorProcessor<?>> results = new ArrayList<>();
+    for (int i = 0; i < args.size() - 1; i += 2) {
+      conditions.add(args.get(i).buildVectorized(inspector));
+      results.add(args.get(i + 1).buildVectorized(inspector));
+    }
+
+    if (args.size() % 2 == 1) {
+      results.add(args.get(args.size() - 1).buildVectorized(inspector));
+    } else {
+      results.add(constantNull(type, maxVectorSize));
+    }
+
+    return new CaseSearchedVectorProcessor<>(conditions, results, type, maxVectorSize);
+  }
+
+  public static <T> ExprVectorProcessor<T> nvl(
+      Expr.VectorInputBindingInspector inspector,
+      Expr input,
+      Expr replacement,
+      @Nullable ExprType outputType
+  )
+  {
+    return new NvlVectorProcessor<>(
+        input.buildVectorized(inspector),
+        replacement.buildVectorized(inspector),
+        outputType == null ? ExprType.STRING : outputType,
+        inspector.getMaxVectorSize()
+    );
+  }
+
+  public static <T> ExprVectorProcessor<T> isNull(Expr.VectorInputBindingInspector inspector, Expr expr)
+  {
+    return makeNullCheckProcessor(inspector, expr, true);
+  }
+
+  public static <T> ExprVectorProcessor<T> isNotNull(Expr.VectorInputBindingInspector inspector, Expr expr)
+  {
+    return makeNullCheckProcessor(inspector, expr, false);
+  }
+
+  /**
+   * Fills "isNull" with whether each row of "eval" is null, the same way as {@link org.apache.druid.math.expr.ExprEval}
+   * would be: numbers are never null in default value mode, and neither are strings, which become null if empty.
+   */
+  static void computeNulls(ExprEvalVector<?> eval, int currentSize, boolean[] isNull)
+  {
+    if (eval.getType() == ExprType.LONG || eval.getType() == ExprType.DOUBLE) {
+      final boolean[] nulls = eval.getNullVector();
+      if (nulls == null || NullHandling.replaceWithDefault()) {
+        Arrays.fill(isNull, 0, currentSize, false);
+      } else {
+        System.arraycopy(nulls, 0, isNull, 0, currentSize);
+      }
+    } else {
+      final Object[] values = eval.getObjectVector();
+      for (int i = 0; i < currentSize; i++) {
+        isNull[i] = NullHandling.isNullOrEquivalent((String) values[i]);
+      }
+    }
+  }
+
+  private static <T> ExprVectorProcessor<T> constantNull(ExprType type, int maxVectorSize)
+  {
+    switch (type) {
+      case LONG:
+        return constantLong(null, maxVectorSize);
+      case DOUBLE:
+        return constantDouble(null, maxVectorSize);
+      default:
+        return constantString(null, maxVectorSize);
+    }
+  }
+
+  private static <T> ExprVectorProcessor<T> makeNullCheckProcessor(
+      Expr.VectorInputBindingInspector inspector,
+      Expr expr,
+      boolean matchNull
+  )
+  {
+    final ExprVectorProcessor<?> processor = expr.buildVectorized(inspector);
+    final boolean[] isNull = new boolean[inspector.getMaxVectorSize()];
+    final long[] outValues = new long[inspector.getMaxVectorSize()];
+
+    final ExprVectorProcessor<long[]> nullCheck = new ExprVectorProcessor<long[]>()
+    {
+      @Override
+      public ExprEvalVector<long[]> evalVector(Expr.VectorInputBinding bindings)
+      {
+        final int currentSize = bindings.getCurrentVectorSize();
+        computeNulls(processor.evalVector(bindings), currentSize, isNull);
+        for (int i = 0; i < currentSize; i++) {
+          outValues[i] = Evals.asLong(isNull[i] == matchNull);
+        }
+        return new ExprEvalLongVector(outValues, null);
+      }
+
+      @Override
+      public ExprType getOutputType()
+      {
+        return ExprType.LONG;
+      }
+    };
+
+    return (ExprVectorProcessor<T>) nullCheck;
+  }
+
   private VectorProcessors()
   {
     // No instantiation
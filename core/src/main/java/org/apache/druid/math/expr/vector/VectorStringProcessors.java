@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.math.expr.vector;
+
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.math.expr.Expr;
+import org.apache.druid.math.expr.ExprType;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+public class VectorStringProcessors
+{
+  public static <T> ExprVectorProcessor<T> concat(Expr.VectorInputBindingInspector inspector, List<Expr> args)
+  {
+    if (args.isEmpty()) {
+      return VectorProcessors.constantString(null, inspector.getMaxVectorSize());
+    }
+
+    final ExprVectorProcessor<?>[] inputs = new ExprVectorProcessor<?>[args.size()];
+    for (int i = 0; i < inputs.length; i++) {
+      inputs[i] = CastToTypeVectorProcessor.cast(args.get(i).buildVectorized(inspector), ExprType.STRING);
+    }
+
+    final Object[][] inputValues = new Object[inputs.length][];
+    final String[] outValues = new String[inspector.getMaxVectorSize()];
+    final ExprVectorProcessor<String[]> processor = new ExprVectorProcessor<String[]>()
+    {
+      @Override
+      public ExprEvalVector<String[]> evalVector(Expr.VectorInputBinding bindings)
+      {
+        for (int j = 0; j < inputs.length; j++) {
+          inputValues[j] = inputs[j].evalVector(bindings).getObjectVector();
+        }
+
+        final int currentSize = bindings.getCurrentVectorSize();
+        for (int i = 0; i < currentSize; i++) {
+          outValues[i] = concatRow(i);
+        }
+        return new ExprEvalStringVector(outValues);
+      }
+
+      @Nullable
+      private String concatRow(int i)
+      {
+        final StringBuilder builder = new StringBuilder();
+        for (Object[] values : inputValues) {
+          final String s = NullHandling.nullToEmptyIfNeeded((String) values[i]);
+          if (s == null) {
+            // Result of concatenation is null if any of the values is null, like the non-vectorized function.
+            return null;
+          }
+          builder.append(s);
+        }
+        return NullHandling.emptyToNullIfNeeded(builder.toString());
+      }
+
+      @Override
+      public ExprType getOutputType()
+      {
+        return ExprType.STRING;
+      }
+    };
+
+    return (ExprVectorProcessor<T>) processor;
+  }
+
+  public static <T> ExprVectorProcessor<T> strlen(Expr.VectorInputBindingInspector inspector, Expr arg)
+  {
+    final ExprVectorProcessor<?> processor = new LongOutStringInFunctionVectorProcessor(
+        CastToTypeVectorProcessor.cast(arg.buildVectorized(inspector), ExprType.STRING),
+        inspector.getMaxVectorSize()
+    )
+    {
+      @Override
+      public void processIndex(String[] strings, long[] longs, boolean[] outputNulls, int i)
+      {
+        final String input = strings[i];
+        if (input == null) {
+          longs[i] = 0L;
+          outputNulls[i] = NullHandling.sqlCompatible();
+        } else {
+          longs[i] = input.length();
+          outputNulls[i] = false;
+        }
+      }
+    };
+
+    return (ExprVectorProcessor<T>) processor;
+  }
+
+  /**
+   * Behaves like the non-vectorized 'substring' function with literal index and length arguments
+   */
+  public static <T> ExprVectorProcessor<T> substring(
+      Expr.VectorInputBindingInspector inspector,
+      Expr arg,
+      int index,
+      int length
+  )
+  {
+    final ExprVectorProcessor<?> processor = new StringOutStringInFunctionVectorProcessor(
+        arg.buildVectorized(inspector),
+        inspector.getMaxVectorSize()
+    )
+    {
+      @Nullable
+      @Override
+      public String apply(@Nullable String input)
+      {
+        if (input == null) {
+          return null;
+        }
+        if (index < input.length()) {
+          if (length >= 0) {
+            return input.substring(index, Math.min(index + length, input.length()));
+          } else {
+            return input.substring(index);
+          }
+        } else {
+          return NullHandling.defaultStringValue();
+        }
+      }
+    };
+
+    return (ExprVectorProcessor<T>) processor;
+  }
+
+  public static <T> ExprVectorProcessor<T> lower(Expr.VectorInputBindingInspector inspector, Expr arg)
+  {
+    final ExprVectorProcessor<?> processor = new StringOutStringInFunctionVectorProcessor(
+        arg.buildVectorized(inspector),
+        inspector.getMaxVectorSize()
+    )
+    {
+      @Nullable
+      @Override
+      public String apply(@Nullable String input)
+      {
+        return input == null ? null : StringUtils.toLowerCase(input);
+      }
+    };
+
+    return (ExprVectorProcessor<T>) processor;
+  }
+
+  public static <T> ExprVectorProcessor<T> upper(Expr.VectorInputBindingInspector inspector, Expr arg)
+  {
+    final ExprVectorProcessor<?> processor = new StringOutStringInFunctionVectorProcessor(
+        arg.buildVectorized(inspector),
+        inspector.getMaxVectorSize()
+    )
+    {
+      @Nullable
+      @Override
+      public String apply(@Nullable String input)
+      {
+        return input == null ? null : StringUtils.toUpperCase(input);
+      }
+    };
+
+    return (ExprVectorProcessor<T>) processor;
+  }
+
+  private VectorStringProcessors()
+  {
+    // No instantiation
+  }
+}
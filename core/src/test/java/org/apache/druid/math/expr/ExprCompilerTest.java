@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.math.expr;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class ExprCompilerTest extends InitializedNullHandlingTest
+{
+  private static final int NUM_ROWS = 1000;
+
+  private static final Map<String, ExprType> TYPES = ImmutableMap.of(
+      "l1", ExprType.LONG,
+      "l2", ExprType.LONG,
+      "d1", ExprType.DOUBLE,
+      "d2", ExprType.DOUBLE,
+      "s1", ExprType.STRING
+  );
+
+  private static final Expr.InputBindingInspector INSPECTOR = TYPES::get;
+
+  @Test
+  public void testMathOperators()
+  {
+    assertCompiledMatchesEval("l1 + l2");
+    assertCompiledMatchesEval("l1 - d1 * 2");
+    assertCompiledMatchesEval("l1 / l2");
+    assertCompiledMatchesEval("l1 % l2");
+    assertCompiledMatchesEval("d1 / d2");
+    assertCompiledMatchesEval("d1 % l2");
+    assertCompiledMatchesEval("-l1 + 3");
+    assertCompiledMatchesEval("-(d1 - l1)");
+    assertCompiledMatchesEval("l2 ^ 3");
+    assertCompiledMatchesEval("d1 ^ 0.5");
+    assertCompiledMatchesEval("(l1 + 1.5) * (l2 - d2) / 7");
+  }
+
+  @Test
+  public void testComparisonOperators()
+  {
+    final String[] operators = new String[]{"<", "<=", ">", ">=", "==", "!="};
+    for (String operator : operators) {
+      assertCompiledMatchesEval(StringUtils.format("l1 %s l2", operator));
+      assertCompiledMatchesEval(StringUtils.format("l1 %s d1", operator));
+      assertCompiledMatchesEval(StringUtils.format("d1 %s d2", operator));
+      assertCompiledMatchesEval(StringUtils.format("l1 + (d1 %s d2)", operator));
+    }
+  }
+
+  @Test
+  public void testComparisonOperatorsWithNaN()
+  {
+    final String[] operators = new String[]{"<", "<=", ">", ">=", "==", "!="};
+    final Map<String, Object> values = new HashMap<>();
+    values.put("d1", Double.NaN);
+    values.put("d2", 1.0);
+    for (String operator : operators) {
+      for (String expression : new String[]{"d1 %s d2", "d2 %s d1", "d1 %s d1"}) {
+        final Expr expr = Parser.parse(StringUtils.format(expression, operator), ExprMacroTable.nil());
+        final CompiledExpr compiled = ExprCompiler.compile(expr, INSPECTOR);
+        Assert.assertNotNull(compiled);
+        assertRowMatches(expr, compiled, values);
+      }
+    }
+  }
+
+  @Test
+  public void testCannotCompile()
+  {
+    final String[] expressions = new String[]{
+        "s1 + l1",
+        "cos(d1)",
+        "l1 + nonexistent",
+        "l1 && l2",
+        "l1 + null"
+    };
+    for (String expression : expressions) {
+      Assert.assertNull(
+          expression,
+          ExprCompiler.compile(Parser.parse(expression, ExprMacroTable.nil()), INSPECTOR)
+      );
+    }
+  }
+
+  @Test
+  public void testSameExpressionSharesCompiledClass()
+  {
+    final CompiledExpr compiled = ExprCompiler.compile(Parser.parse("l1 * d2", ExprMacroTable.nil()), INSPECTOR);
+    Assert.assertNotNull(compiled);
+    Assert.assertSame(compiled, ExprCompiler.compile(Parser.parse("l1 * d2", ExprMacroTable.nil()), INSPECTOR));
+    Assert.assertEquals(ExprType.DOUBLE, compiled.getOutputType());
+    Assert.assertEquals(2, compiled.getInputs().size());
+
+    // different input types make a different class
+    final CompiledExpr compiledLongs = ExprCompiler.compile(
+        Parser.parse("l1 * d2", ExprMacroTable.nil()),
+        name -> ExprType.LONG
+    );
+    Assert.assertNotNull(compiledLongs);
+    Assert.assertNotSame(compiled, compiledLongs);
+    Assert.assertEquals(ExprType.LONG, compiledLongs.getOutputType());
+  }
+
+  private static void assertCompiledMatchesEval(String expression)
+  {
+    final Expr expr = Parser.parse(expression, ExprMacroTable.nil());
+    final CompiledExpr compiled = ExprCompiler.compile(expr, INSPECTOR);
+    Assert.assertNotNull(StringUtils.format("Cannot compile %s", expression), compiled);
+    Assert.assertEquals(expression, expr.getOutputType(INSPECTOR), compiled.getOutputType());
+
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int i = 0; i < NUM_ROWS; i++) {
+      final Map<String, Object> values = new HashMap<>();
+      values.put("l1", random.nextLong(-1000, 1000));
+      // never zero, since long division by zero throws
+      values.put("l2", random.nextLong(1, 20));
+      values.put("d1", random.nextDouble(-100, 100));
+      values.put("d2", random.nextBoolean() ? 2.0 : random.nextDouble(-100, 100));
+      assertRowMatches(expr, compiled, values);
+    }
+  }
+
+  private static void assertRowMatches(Expr expr, CompiledExpr compiled, Map<String, Object> values)
+  {
+    final ExprEval<?> eval = expr.eval(Parser.withMap(values));
+    final CompiledExpr.NumericBinding bindings = makeBindings(compiled.getInputs(), values);
+    final String message = StringUtils.format("%s for %s", expr.stringify(), values);
+
+    Assert.assertEquals(message, eval.type(), compiled.getOutputType());
+    Assert.assertEquals(message, eval.asLong(), compiled.evalLong(bindings));
+    Assert.assertEquals(message, eval.asDouble(), compiled.evalDouble(bindings), 0.0);
+  }
+
+  private static CompiledExpr.NumericBinding makeBindings(List<String> inputs, Map<String, Object> values)
+  {
+    return new CompiledExpr.NumericBinding()
+    {
+      @Override
+      public long getLong(int input)
+      {
+        return ((Number) values.get(inputs.get(input))).longValue();
+      }
+
+      @Override
+      public double getDouble(int input)
+      {
+        return ((Number) values.get(inputs.get(input))).doubleValue();
+      }
+    };
+  }
+}
@@ -96,4 +96,15 @@ public class ExprsTest
     Assert.assertEquals("foo", ((IdentifierExpr) pair.lhs).getIdentifier());
     Assert.assertEquals("bar", ((IdentifierExpr) pair.rhs).getIdentifier());
   }
+
+  @Test
+  public void test_isFunctionCall()
+  {
+    Assert.assertTrue(Exprs.isFunctionCall(Parser.parse("concat(foo, bar)", ExprMacroTable.nil())));
+    Assert.assertTrue(Exprs.isFunctionCall(Parser.parse("map((x) -> x + 1, foo)", ExprMacroTable.nil())));
+    Assert.assertFalse(Exprs.isFunctionCall(Parser.parse("foo + concat(foo, bar)", ExprMacroTable.nil())));
+    Assert.assertFalse(Exprs.isFunctionCall(Parser.parse("-foo", ExprMacroTable.nil())));
+    Assert.assertFalse(Exprs.isFunctionCall(Parser.parse("foo", ExprMacroTable.nil())));
+    Assert.assertFalse(Exprs.isFunctionCall(Parser.parse("'foo'", ExprMacroTable.nil())));
+  }
 }
@@ -202,6 +202,72 @@ public class VectorExprSanityTest extends InitializedNullHandlingTest
     testFunctions(types, templates, args);
   }
 
+  @Test
+  public void testConditionalFunctions()
+  {
+    final String[][] args = new String[][]{
+        {"l1", "l2"},
+        {"d1", "d2"},
+        {"s1", "s2"}
+    };
+    final String[] templates = new String[]{
+        "if(l1 > 1000, %s, %s)",
+        "if(d1 < 0.5, %s, %s)",
+        "if(s1, %s, %s)",
+        "case_searched(l1 > 1000, %s, d1 < 0.5, %s)",
+        "case_simple(l2 % 3, 0, %s, 1, %s)",
+        "nvl(%s, %s)"
+    };
+    testFunctions(types, templates, args);
+  }
+
+  @Test
+  public void testConditionalFunctionsGuardDivision()
+  {
+    // long division and modulo by zero throw, so results and later conditions must only be evaluated on the rows
+    // that reach them, like with row-based evaluation
+    final String[] templates = new String[]{
+        "if(l1 % 3 != 0, l2 / (l1 % 3), 0)",
+        "if(l1 % 3 == 0, -1, l2 % (l1 % 3))",
+        "case_searched(l1 % 3 != 0, l2 / (l1 % 3), 0)",
+        "case_searched(l1 % 3 == 0, 0, l2 / (l1 % 3) > 100, 1, 2)",
+        "case_searched(l1 % 3 == 0, 0, l1 % 3 == 1, l2 % (l1 % 3), l2 / (l1 % 3 - 1))",
+        "case_simple(l1 % 3, 0, 0, l2 / (l1 % 3))",
+        "if(l1 % 3 != 0, if(l1 % 3 != 1, l2 % (l1 % 3 - 1), 1), 0)"
+    };
+    for (String template : templates) {
+      testExpression(template, types);
+    }
+  }
+
+  @Test
+  public void testNullCheckFunctions()
+  {
+    final String[] functions = new String[]{"isnull", "notnull"};
+    final String[] templates = new String[]{"%s(l1)", "%s(d1)", "%s(s1)", "%s(nonexistent)", "%s(null)"};
+    testFunctions(types, templates, functions);
+  }
+
+  @Test
+  public void testStringFunctions()
+  {
+    final String[] templates = new String[]{
+        "concat(s1, s2)",
+        "concat(s1, l1, 'x')",
+        "concat(s1, nonexistent)",
+        "strlen(s1)",
+        "strlen(nonexistent)",
+        "substring(s1, 1, 2)",
+        "substring(s1, 2, -1)",
+        "substring(s1, 100, 2)",
+        "lower(s1)",
+        "upper(concat('a', s1))"
+    };
+    for (String template : templates) {
+      testExpression(template, types);
+    }
+  }
+
   static void testFunctions(Map<String, ExprType> types, String[] templates, String[] args)
   {
     for (String template : templates) {
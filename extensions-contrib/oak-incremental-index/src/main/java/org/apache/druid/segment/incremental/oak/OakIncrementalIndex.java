@@ -551,6 +551,20 @@ public class OakIncrementalIndex extends IncrementalIndex<BufferAggregator> impl
     };
   }
 
+  @Override
+  public boolean iteratorReusesRows()
+  {
+    // Stream iterators reuse a single OakIncrementalIndexRow for every entry.
+    return true;
+  }
+
+  @Override
+  public boolean isPersistSorted()
+  {
+    // The facts are an OakMap, sorted by time and dimensions.
+    return true;
+  }
+
   @Override
   public Iterable<IncrementalIndexRow> keySet()
   {
@@ -20,19 +20,13 @@
 package org.apache.druid.query.aggregation.datasketches.hll;
 
 import com.google.common.util.concurrent.Striped;
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import org.apache.datasketches.hll.HllSketch;
 import org.apache.datasketches.hll.TgtHllType;
-import org.apache.datasketches.hll.Union;
-import org.apache.datasketches.memory.WritableMemory;
 import org.apache.druid.query.aggregation.BufferAggregator;
 import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
 import org.apache.druid.segment.ColumnValueSelector;
 
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.util.IdentityHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 
@@ -49,20 +43,9 @@ public class HllSketchBuildBufferAggregator implements BufferAggregator
   private static final int NUM_STRIPES = 64;
 
   private final ColumnValueSelector<Object> selector;
-  private final int lgK;
-  private final TgtHllType tgtHllType;
-  private final int size;
-  private final IdentityHashMap<ByteBuffer, WritableMemory> memCache = new IdentityHashMap<>();
-  private final IdentityHashMap<ByteBuffer, Int2ObjectMap<HllSketch>> sketchCache = new IdentityHashMap<>();
+  private final HllSketchBuildBufferAggregatorHelper helper;
   private final Striped<ReadWriteLock> stripedLock = Striped.readWriteLock(NUM_STRIPES);
 
-  /**
-   * Used by {@link #init(ByteBuffer, int)}. We initialize by copying a prebuilt empty HllSketch image.
-   * {@link HllSketchMergeBufferAggregator} does something similar, but different enough that we don't share code. The
-   * "build" flavor uses {@link HllSketch} objects and the "merge" flavor uses {@link Union} objects.
-   */
-  private final byte[] emptySketch;
-
   public HllSketchBuildBufferAggregator(
       final ColumnValueSelector<Object> selector,
       final int lgK,
@@ -71,32 +54,13 @@ public class HllSketchBuildBufferAggregator implements BufferAggregator
   )
   {
     this.selector = selector;
-    this.lgK = lgK;
-    this.tgtHllType = tgtHllType;
-    this.size = size;
-    this.emptySketch = new byte[size];
-
-    //noinspection ResultOfObjectAllocationIgnored (HllSketch writes to "emptySketch" as a side effect of construction)
-    new HllSketch(lgK, tgtHllType, WritableMemory.wrap(emptySketch));
+    this.helper = new HllSketchBuildBufferAggregatorHelper(lgK, tgtHllType, size);
   }
 
   @Override
   public void init(final ByteBuffer buf, final int position)
   {
-    // Copy prebuilt empty sketch object.
-
-    final int oldPosition = buf.position();
-    try {
-      buf.position(position);
-      buf.put(emptySketch);
-    }
-    finally {
-      buf.position(oldPosition);
-    }
-
-    // Add an HllSketch for this chunk to our sketchCache.
-    final WritableMemory mem = getMemory(buf).writableRegion(position, size);
-    putSketchIntoCache(buf, position, HllSketch.writableWrap(mem));
+    helper.init(buf, position);
   }
 
   /**
@@ -114,7 +78,7 @@ public class HllSketchBuildBufferAggregator implements BufferAggregator
     final Lock lock = stripedLock.getAt(lockIndex(position)).writeLock();
     lock.lock();
     try {
-      final HllSketch sketch = sketchCache.get(buf).get(position);
+      final HllSketch sketch = helper.getSketchAtPosition(buf, position);
       HllSketchBuildAggregator.updateSketch(sketch, value);
     }
     finally {
@@ -133,7 +97,7 @@ public class HllSketchBuildBufferAggregator implements BufferAggregator
     final Lock lock = stripedLock.getAt(lockIndex(position)).readLock();
     lock.lock();
     try {
-      return sketchCache.get(buf).get(position).copy();
+      return helper.get(buf, position);
     }
     finally {
       lock.unlock();
@@ -143,8 +107,7 @@ public class HllSketchBuildBufferAggregator implements BufferAggregator
   @Override
   public void close()
   {
-    memCache.clear();
-    sketchCache.clear();
+    helper.clear();
   }
 
   @Override
@@ -159,31 +122,10 @@ public class HllSketchBuildBufferAggregator implements BufferAggregator
     throw new UnsupportedOperationException("Not implemented");
   }
 
-  private WritableMemory getMemory(final ByteBuffer buf)
-  {
-    return memCache.computeIfAbsent(buf, b -> WritableMemory.wrap(b, ByteOrder.LITTLE_ENDIAN));
-  }
-
-  /**
-   * In very rare cases sketches can exceed given memory, request on-heap memory and move there.
-   * We need to identify such sketches and reuse the same objects as opposed to wrapping new memory regions.
-   */
   @Override
   public void relocate(final int oldPosition, final int newPosition, final ByteBuffer oldBuf, final ByteBuffer newBuf)
   {
-    HllSketch sketch = sketchCache.get(oldBuf).get(oldPosition);
-    final WritableMemory oldMem = getMemory(oldBuf).writableRegion(oldPosition, size);
-    if (sketch.isSameResource(oldMem)) { // sketch has not moved
-      final WritableMemory newMem = getMemory(newBuf).writableRegion(newPosition, size);
-      sketch = HllSketch.writableWrap(newMem);
-    }
-    putSketchIntoCache(newBuf, newPosition, sketch);
-  }
-
-  private void putSketchIntoCache(final ByteBuffer buf, final int position, final HllSketch sketch)
-  {
-    final Int2ObjectMap<HllSketch> map = sketchCache.computeIfAbsent(buf, b -> new Int2ObjectOpenHashMap<>());
-    map.put(position, sketch);
+    helper.relocate(oldPosition, newPosition, oldBuf, newBuf);
   }
 
   /**
@@ -218,6 +160,6 @@ public class HllSketchBuildBufferAggregator implements BufferAggregator
     // lgK should be inspected because different execution paths exist in HllSketch.update() that is called from
     // @CalledFromHotLoop-annotated aggregate() depending on the lgK.
     // See https://github.com/apache/druid/pull/6893#discussion_r250726028
-    inspector.visit("lgK", lgK);
+    inspector.visit("lgK", helper.getLgK());
   }
 }
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.aggregation.datasketches.hll;
+
+import org.apache.druid.segment.VectorColumnProcessorFactory;
+import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.vector.MultiValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorObjectSelector;
+import org.apache.druid.segment.vector.VectorValueSelector;
+
+/**
+ * Builds {@link HllSketchBuildVectorProcessor} for {@link HllSketchBuildVectorAggregator}. Unlike the generic
+ * {@link org.apache.druid.query.aggregation.datasketches.util.ToObjectVectorColumnProcessorFactory}, this keeps
+ * primitive and dictionary-encoded inputs in their native form, so no boxing happens on the hot path.
+ */
+public class HllSketchBuildVectorProcessorFactory implements VectorColumnProcessorFactory<HllSketchBuildVectorProcessor>
+{
+  private final HllSketchBuildBufferAggregatorHelper helper;
+
+  HllSketchBuildVectorProcessorFactory(final HllSketchBuildBufferAggregatorHelper helper)
+  {
+    this.helper = helper;
+  }
+
+  @Override
+  public HllSketchBuildVectorProcessor makeSingleValueDimensionProcessor(
+      ColumnCapabilities capabilities,
+      SingleValueDimensionVectorSelector selector
+  )
+  {
+    return new SingleValueStringHllSketchBuildVectorProcessor(helper, selector);
+  }
+
+  @Override
+  public HllSketchBuildVectorProcessor makeMultiValueDimensionProcessor(
+      ColumnCapabilities capabilities,
+      MultiValueDimensionVectorSelector selector
+  )
+  {
+    return new MultiValueStringHllSketchBuildVectorProcessor(helper, selector);
+  }
+
+  @Override
+  public HllSketchBuildVectorProcessor makeFloatProcessor(
+      ColumnCapabilities capabilities,
+      VectorValueSelector selector
+  )
+  {
+    // Floats are widened to double, like HllSketchBuildAggregator#updateSketch does for Float objects.
+    return new DoubleHllSketchBuildVectorProcessor(helper, selector);
+  }
+
+  @Override
+  public HllSketchBuildVectorProcessor makeDoubleProcessor(
+      ColumnCapabilities capabilities,
+      VectorValueSelector selector
+  )
+  {
+    return new DoubleHllSketchBuildVectorProcessor(helper, selector);
+  }
+
+  @Override
+  public HllSketchBuildVectorProcessor makeLongProcessor(
+      ColumnCapabilities capabilities,
+      VectorValueSelector selector
+  )
+  {
+    return new LongHllSketchBuildVectorProcessor(helper, selector);
+  }
+
+  @Override
+  public HllSketchBuildVectorProcessor makeObjectProcessor(
+      ColumnCapabilities capabilities,
+      VectorObjectSelector selector
+  )
+  {
+    return new ObjectHllSketchBuildVectorProcessor(helper, selector);
+  }
+}
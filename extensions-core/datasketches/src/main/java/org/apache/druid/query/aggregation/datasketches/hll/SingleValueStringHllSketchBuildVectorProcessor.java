@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.aggregation.datasketches.hll;
+
+import org.apache.datasketches.hll.HllSketch;
+import org.apache.druid.segment.DimensionDictionarySelector;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+
+/**
+ * Processor for single-value dictionary-encoded string columns. Sketches are updated with the same char arrays as
+ * {@link HllSketchBuildAggregator#updateSketch} would use, but each dictionary id is looked up and converted at most
+ * once per segment, since HllSketch does not expose a way to update it with a precomputed hash.
+ */
+public class SingleValueStringHllSketchBuildVectorProcessor implements HllSketchBuildVectorProcessor
+{
+  /**
+   * Number of dictionary ids for which converted values are cached. Values for larger ids are converted on every row,
+   * as the non-vectorized aggregator does.
+   */
+  private static final int MAX_CACHED_IDS = 1 << 16;
+
+  private static final char[] NULL_CHARS = new char[0];
+
+  private final HllSketchBuildBufferAggregatorHelper helper;
+  private final SingleValueDimensionVectorSelector selector;
+
+  /**
+   * Converted values by dictionary id, or null if names cannot be looked up in advance. Entries are null until first
+   * used, and {@link #NULL_CHARS} for ids that look up to null.
+   */
+  @Nullable
+  private final char[][] cache;
+
+  SingleValueStringHllSketchBuildVectorProcessor(
+      final HllSketchBuildBufferAggregatorHelper helper,
+      final SingleValueDimensionVectorSelector selector
+  )
+  {
+    this.helper = helper;
+    this.selector = selector;
+
+    final int cardinality = selector.getValueCardinality();
+    if (selector.nameLookupPossibleInAdvance() && cardinality != DimensionDictionarySelector.CARDINALITY_UNKNOWN) {
+      this.cache = new char[Math.min(cardinality, MAX_CACHED_IDS)][];
+    } else {
+      this.cache = null;
+    }
+  }
+
+  @Override
+  public void aggregate(ByteBuffer buf, int position, int startRow, int endRow)
+  {
+    final int[] vector = selector.getRowVector();
+    final HllSketch sketch = helper.getSketchAtPosition(buf, position);
+
+    for (int i = startRow; i < endRow; i++) {
+      final char[] chars = lookupChars(vector[i]);
+      if (chars != NULL_CHARS) {
+        sketch.update(chars);
+      }
+    }
+  }
+
+  @Override
+  public void aggregate(ByteBuffer buf, int numRows, int[] positions, @Nullable int[] rows, int positionOffset)
+  {
+    final int[] vector = selector.getRowVector();
+
+    for (int i = 0; i < numRows; i++) {
+      final char[] chars = lookupChars(vector[rows != null ? rows[i] : i]);
+      if (chars != NULL_CHARS) {
+        final int position = positions[i] + positionOffset;
+        final HllSketch sketch = helper.getSketchAtPosition(buf, position);
+        sketch.update(chars);
+      }
+    }
+  }
+
+  private char[] lookupChars(final int id)
+  {
+    if (cache == null || id >= cache.length) {
+      return toChars(selector.lookupName(id));
+    }
+
+    char[] chars = cache[id];
+    if (chars == null) {
+      chars = toChars(selector.lookupName(id));
+      cache[id] = chars;
+    }
+    return chars;
+  }
+
+  private static char[] toChars(@Nullable final String value)
+  {
+    return value == null ? NULL_CHARS : value.toCharArray();
+  }
+}
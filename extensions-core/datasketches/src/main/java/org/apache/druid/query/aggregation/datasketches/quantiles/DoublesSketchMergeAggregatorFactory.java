@@ -25,9 +25,11 @@ import org.apache.datasketches.quantiles.DoublesSketch;
 import org.apache.druid.query.aggregation.Aggregator;
 import org.apache.druid.query.aggregation.AggregatorUtil;
 import org.apache.druid.query.aggregation.BufferAggregator;
+import org.apache.druid.query.aggregation.VectorAggregator;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.ColumnValueSelector;
 import org.apache.druid.segment.NilColumnValueSelector;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
 
 public class DoublesSketchMergeAggregatorFactory extends DoublesSketchAggregatorFactory
 {
@@ -60,4 +62,15 @@ public class DoublesSketchMergeAggregatorFactory extends DoublesSketchAggregator
     return new DoublesSketchMergeBufferAggregator(selector, getK(), getMaxIntermediateSizeWithNulls());
   }
 
+  @Override
+  public VectorAggregator factorizeVector(final VectorColumnSelectorFactory selectorFactory)
+  {
+    return new DoublesSketchMergeVectorAggregator(
+        selectorFactory,
+        getFieldName(),
+        getK(),
+        getMaxIntermediateSizeWithNulls()
+    );
+  }
+
 }
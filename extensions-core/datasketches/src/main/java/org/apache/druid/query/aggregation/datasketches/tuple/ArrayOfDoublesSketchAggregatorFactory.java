@@ -33,15 +33,21 @@ import org.apache.druid.query.aggregation.AggregatorFactory;
 import org.apache.druid.query.aggregation.AggregatorUtil;
 import org.apache.druid.query.aggregation.BufferAggregator;
 import org.apache.druid.query.aggregation.ObjectAggregateCombiner;
+import org.apache.druid.query.aggregation.VectorAggregator;
 import org.apache.druid.query.cache.CacheKeyBuilder;
 import org.apache.druid.query.dimension.DefaultDimensionSpec;
 import org.apache.druid.segment.BaseDoubleColumnValueSelector;
 import org.apache.druid.segment.BaseObjectColumnValueSelector;
+import org.apache.druid.segment.ColumnInspector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.ColumnValueSelector;
 import org.apache.druid.segment.DimensionSelector;
 import org.apache.druid.segment.NilColumnValueSelector;
+import org.apache.druid.segment.column.ColumnCapabilities;
 import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorValueSelector;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
@@ -147,6 +153,56 @@ public class ArrayOfDoublesSketchAggregatorFactory extends AggregatorFactory
     );
   }
 
+  @Override
+  public VectorAggregator factorizeVector(final VectorColumnSelectorFactory selectorFactory)
+  {
+    if (metricColumns == null) { // input is sketches, use merge aggregator
+      return new ArrayOfDoublesSketchMergeVectorAggregator(
+          selectorFactory,
+          fieldName,
+          nominalEntries,
+          numberOfValues,
+          getMaxIntermediateSizeWithNulls()
+      );
+    }
+    // input is raw data (key and array of values), use build aggregator
+    final SingleValueDimensionVectorSelector keySelector =
+        selectorFactory.makeSingleValueDimensionSelector(DefaultDimensionSpec.of(fieldName));
+    final List<VectorValueSelector> valueSelectors = new ArrayList<>();
+    for (final String column : metricColumns) {
+      valueSelectors.add(selectorFactory.makeValueSelector(column));
+    }
+    return new ArrayOfDoublesSketchBuildVectorAggregator(
+        keySelector,
+        valueSelectors,
+        nominalEntries,
+        getMaxIntermediateSizeWithNulls()
+    );
+  }
+
+  @Override
+  public boolean canVectorize(final ColumnInspector columnInspector)
+  {
+    if (metricColumns == null) {
+      return true;
+    }
+    // The vectorized build aggregator reads keys from a single-value dimension selector and values as doubles.
+    final ColumnCapabilities keyCapabilities = columnInspector.getColumnCapabilities(fieldName);
+    if (keyCapabilities != null
+        && (keyCapabilities.getType() != ValueType.STRING
+            || !keyCapabilities.isDictionaryEncoded().isTrue()
+            || !keyCapabilities.hasMultipleValues().isFalse())) {
+      return false;
+    }
+    for (final String column : metricColumns) {
+      final ColumnCapabilities capabilities = columnInspector.getColumnCapabilities(column);
+      if (capabilities != null && !ValueType.isNumeric(capabilities.getType())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   @Override
   public Object deserialize(final Object object)
   {
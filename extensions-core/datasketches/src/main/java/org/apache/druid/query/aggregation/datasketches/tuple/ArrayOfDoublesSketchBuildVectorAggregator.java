@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.aggregation.datasketches.tuple;
+
+import org.apache.datasketches.memory.WritableMemory;
+import org.apache.datasketches.tuple.arrayofdoubles.ArrayOfDoublesSketches;
+import org.apache.datasketches.tuple.arrayofdoubles.ArrayOfDoublesUpdatableSketch;
+import org.apache.datasketches.tuple.arrayofdoubles.ArrayOfDoublesUpdatableSketchBuilder;
+import org.apache.druid.query.aggregation.VectorAggregator;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorValueSelector;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+/**
+ * Vectorized version of {@link ArrayOfDoublesSketchBuildBufferAggregator}. Only single-value keys are supported.
+ */
+public class ArrayOfDoublesSketchBuildVectorAggregator implements VectorAggregator
+{
+  private final SingleValueDimensionVectorSelector keySelector;
+  private final VectorValueSelector[] valueSelectors;
+  private final int nominalEntries;
+  private final int maxIntermediateSize;
+  private final double[] values; // not part of the state, but to reuse in aggregate() method
+  private final double[][] valueVectors; // not part of the state, but to reuse in aggregate() method
+  private final boolean[][] nullVectors; // not part of the state, but to reuse in aggregate() method
+
+  ArrayOfDoublesSketchBuildVectorAggregator(
+      final SingleValueDimensionVectorSelector keySelector,
+      final List<VectorValueSelector> valueSelectors,
+      final int nominalEntries,
+      final int maxIntermediateSize
+  )
+  {
+    this.keySelector = keySelector;
+    this.valueSelectors = valueSelectors.toArray(new VectorValueSelector[0]);
+    this.nominalEntries = nominalEntries;
+    this.maxIntermediateSize = maxIntermediateSize;
+    this.values = new double[valueSelectors.size()];
+    this.valueVectors = new double[valueSelectors.size()][];
+    this.nullVectors = new boolean[valueSelectors.size()][];
+  }
+
+  @Override
+  public void init(final ByteBuffer buf, final int position)
+  {
+    final WritableMemory mem = WritableMemory.wrap(buf, ByteOrder.LITTLE_ENDIAN);
+    final WritableMemory region = mem.writableRegion(position, maxIntermediateSize);
+    new ArrayOfDoublesUpdatableSketchBuilder().setNominalEntries(nominalEntries)
+        .setNumberOfValues(valueSelectors.length).build(region);
+  }
+
+  @Override
+  public void aggregate(final ByteBuffer buf, final int position, final int startRow, final int endRow)
+  {
+    final int[] keys = keySelector.getRowVector();
+    readValueVectors();
+
+    final WritableMemory mem = WritableMemory.wrap(buf, ByteOrder.LITTLE_ENDIAN);
+    final WritableMemory region = mem.writableRegion(position, maxIntermediateSize);
+    final ArrayOfDoublesUpdatableSketch sketch = ArrayOfDoublesSketches.wrapUpdatableSketch(region);
+
+    for (int i = startRow; i < endRow; i++) {
+      if (readValues(i)) {
+        sketch.update(keySelector.lookupName(keys[i]), values);
+      }
+    }
+  }
+
+  @Override
+  public void aggregate(
+      final ByteBuffer buf,
+      final int numRows,
+      final int[] positions,
+      @Nullable final int[] rows,
+      final int positionOffset
+  )
+  {
+    final int[] keys = keySelector.getRowVector();
+    readValueVectors();
+
+    final WritableMemory mem = WritableMemory.wrap(buf, ByteOrder.LITTLE_ENDIAN);
+
+    for (int i = 0; i < numRows; i++) {
+      final int idx = rows != null ? rows[i] : i;
+
+      if (readValues(idx)) {
+        final int position = positions[i] + positionOffset;
+        final WritableMemory region = mem.writableRegion(position, maxIntermediateSize);
+        final ArrayOfDoublesUpdatableSketch sketch = ArrayOfDoublesSketches.wrapUpdatableSketch(region);
+        sketch.update(keySelector.lookupName(keys[idx]), values);
+      }
+    }
+  }
+
+  /**
+   * The returned sketch is a separate instance of ArrayOfDoublesCompactSketch
+   * representing the current state of the aggregation, and is not affected by consequent
+   * aggregate() calls
+   */
+  @Override
+  public Object get(final ByteBuffer buf, final int position)
+  {
+    final WritableMemory mem = WritableMemory.wrap(buf, ByteOrder.LITTLE_ENDIAN);
+    final WritableMemory region = mem.writableRegion(position, maxIntermediateSize);
+    final ArrayOfDoublesUpdatableSketch sketch = (ArrayOfDoublesUpdatableSketch) ArrayOfDoublesSketches
+        .wrapSketch(region);
+    return sketch.compact();
+  }
+
+  @Override
+  public void close()
+  {
+    // nothing to close
+  }
+
+  private void readValueVectors()
+  {
+    for (int j = 0; j < valueSelectors.length; j++) {
+      valueVectors[j] = valueSelectors[j].getDoubleVector();
+      nullVectors[j] = valueSelectors[j].getNullVector();
+    }
+  }
+
+  /**
+   * Copies the values of a row into {@link #values}. Returns false if any of them is null, in which case the row
+   * must be skipped, like {@link ArrayOfDoublesSketchBuildBufferAggregator} does.
+   */
+  private boolean readValues(final int row)
+  {
+    for (int j = 0; j < valueSelectors.length; j++) {
+      if (nullVectors[j] != null && nullVectors[j][row]) {
+        return false;
+      }
+      values[j] = valueVectors[j][row];
+    }
+    return true;
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.aggregation.datasketches.tuple;
+
+import org.apache.datasketches.memory.WritableMemory;
+import org.apache.datasketches.tuple.arrayofdoubles.ArrayOfDoublesSetOperationBuilder;
+import org.apache.datasketches.tuple.arrayofdoubles.ArrayOfDoublesSketch;
+import org.apache.datasketches.tuple.arrayofdoubles.ArrayOfDoublesSketches;
+import org.apache.datasketches.tuple.arrayofdoubles.ArrayOfDoublesUnion;
+import org.apache.druid.query.aggregation.VectorAggregator;
+import org.apache.druid.query.aggregation.datasketches.util.ToObjectVectorColumnProcessorFactory;
+import org.apache.druid.segment.ColumnProcessors;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.Supplier;
+
+/**
+ * Vectorized version of {@link ArrayOfDoublesSketchMergeBufferAggregator}.
+ */
+public class ArrayOfDoublesSketchMergeVectorAggregator implements VectorAggregator
+{
+  private final Supplier<Object[]> objectSupplier;
+  private final int nominalEntries;
+  private final int numberOfValues;
+  private final int maxIntermediateSize;
+
+  ArrayOfDoublesSketchMergeVectorAggregator(
+      final VectorColumnSelectorFactory columnSelectorFactory,
+      final String column,
+      final int nominalEntries,
+      final int numberOfValues,
+      final int maxIntermediateSize
+  )
+  {
+    this.objectSupplier =
+        ColumnProcessors.makeVectorProcessor(
+            column,
+            ToObjectVectorColumnProcessorFactory.INSTANCE,
+            columnSelectorFactory
+        );
+    this.nominalEntries = nominalEntries;
+    this.numberOfValues = numberOfValues;
+    this.maxIntermediateSize = maxIntermediateSize;
+  }
+
+  @Override
+  public void init(final ByteBuffer buf, final int position)
+  {
+    final WritableMemory mem = WritableMemory.wrap(buf, ByteOrder.LITTLE_ENDIAN);
+    final WritableMemory region = mem.writableRegion(position, maxIntermediateSize);
+    new ArrayOfDoublesSetOperationBuilder().setNominalEntries(nominalEntries)
+        .setNumberOfValues(numberOfValues).buildUnion(region);
+  }
+
+  @Override
+  public void aggregate(final ByteBuffer buf, final int position, final int startRow, final int endRow)
+  {
+    final Object[] vector = objectSupplier.get();
+
+    final WritableMemory mem = WritableMemory.wrap(buf, ByteOrder.LITTLE_ENDIAN);
+    final WritableMemory region = mem.writableRegion(position, maxIntermediateSize);
+    final ArrayOfDoublesUnion union = ArrayOfDoublesSketches.wrapUnion(region);
+
+    for (int i = startRow; i < endRow; i++) {
+      final ArrayOfDoublesSketch update = (ArrayOfDoublesSketch) vector[i];
+      if (update != null) {
+        union.update(update);
+      }
+    }
+  }
+
+  @Override
+  public void aggregate(
+      final ByteBuffer buf,
+      final int numRows,
+      final int[] positions,
+      @Nullable final int[] rows,
+      final int positionOffset
+  )
+  {
+    final Object[] vector = objectSupplier.get();
+    final WritableMemory mem = WritableMemory.wrap(buf, ByteOrder.LITTLE_ENDIAN);
+
+    for (int i = 0; i < numRows; i++) {
+      final ArrayOfDoublesSketch update = (ArrayOfDoublesSketch) vector[rows != null ? rows[i] : i];
+
+      if (update != null) {
+        final int position = positions[i] + positionOffset;
+        final WritableMemory region = mem.writableRegion(position, maxIntermediateSize);
+        final ArrayOfDoublesUnion union = ArrayOfDoublesSketches.wrapUnion(region);
+        union.update(update);
+      }
+    }
+  }
+
+  /**
+   * The returned sketch is a separate instance of ArrayOfDoublesCompactSketch
+   * representing the current state of the aggregation, and is not affected by consequent
+   * aggregate() calls
+   */
+  @Override
+  public Object get(final ByteBuffer buf, final int position)
+  {
+    final WritableMemory mem = WritableMemory.wrap(buf, ByteOrder.LITTLE_ENDIAN);
+    final WritableMemory region = mem.writableRegion(position, maxIntermediateSize);
+    final ArrayOfDoublesUnion union = ArrayOfDoublesSketches.wrapUnion(region);
+    return union.getResult();
+  }
+
+  @Override
+  public void close()
+  {
+    // nothing to close
+  }
+}
@@ -24,6 +24,7 @@ import org.apache.druid.common.config.NullHandling;
 import org.apache.druid.initialization.DruidModule;
 import org.apache.druid.java.util.common.granularity.Granularities;
 import org.apache.druid.java.util.common.guava.Sequence;
+import org.apache.druid.query.QueryContexts;
 import org.apache.druid.query.aggregation.AggregationTestHelper;
 import org.apache.druid.query.groupby.GroupByQueryConfig;
 import org.apache.druid.query.groupby.GroupByQueryRunnerTest;
@@ -49,21 +50,25 @@ public class ArrayOfDoublesSketchAggregationTest extends InitializedNullHandling
   @Rule
   public final TemporaryFolder tempFolder = new TemporaryFolder();
   private final AggregationTestHelper helper;
+  private final QueryContexts.Vectorize vectorize;
 
-  public ArrayOfDoublesSketchAggregationTest(final GroupByQueryConfig config)
+  public ArrayOfDoublesSketchAggregationTest(final GroupByQueryConfig config, final String vectorize)
   {
+    this.vectorize = QueryContexts.Vectorize.fromString(vectorize);
     DruidModule module = new ArrayOfDoublesSketchModule();
     module.configure(null);
     helper = AggregationTestHelper.createGroupByQueryAggregationTestHelper(
         module.getJacksonModules(), config, tempFolder);
   }
 
-  @Parameterized.Parameters(name = "{0}")
+  @Parameterized.Parameters(name = "config = {0}, vectorize = {1}")
   public static Collection<?> constructorFeeder()
   {
     final List<Object[]> constructors = new ArrayList<>();
     for (GroupByQueryConfig config : GroupByQueryRunnerTest.testConfigs()) {
-      constructors.add(new Object[]{config});
+      for (String vectorize : new String[]{"false", "force"}) {
+        constructors.add(new Object[]{config, vectorize});
+      }
     }
     return constructors;
   }
@@ -144,6 +149,7 @@ public class ArrayOfDoublesSketchAggregationTest extends InitializedNullHandling
             "    {\"type\": \"arrayOfDoublesSketchToString\", \"name\": \"summary\", \"field\": {\"type\": \"fieldAccess\", \"fieldName\": \"sketch\"}},",
             "    {\"type\": \"arrayOfDoublesSketchToVariances\", \"name\": \"variances\", \"field\": {\"type\": \"fieldAccess\", \"fieldName\": \"sketch\"}}",
             "  ],",
+            "  \"context\": {\"vectorize\": \"" + vectorize + "\"},",
             "  \"intervals\": [\"2015-01-01T00:00:00.000Z/2015-01-31T00:00:00.000Z\"]",
             "}"
         )
@@ -253,6 +259,7 @@ public class ArrayOfDoublesSketchAggregationTest extends InitializedNullHandling
             "      \"field\": {\"type\": \"fieldAccess\", \"fieldName\": \"sketch\"}",
             "    }",
             "  ],",
+            "  \"context\": {\"vectorize\": \"" + vectorize + "\"},",
             "  \"intervals\": [\"2015-01-01T00:00:00.000Z/2015-01-31T00:00:00.000Z\"]",
             "}"
         )
@@ -346,6 +353,7 @@ public class ArrayOfDoublesSketchAggregationTest extends InitializedNullHandling
             "      \"fields\": [{\"type\": \"fieldAccess\", \"fieldName\": \"sketch\"}, {\"type\": \"fieldAccess\", \"fieldName\": \"sketch\"}]",
             "    }}",
             "  ],",
+            "  \"context\": {\"vectorize\": \"" + vectorize + "\"},",
             "  \"intervals\": [\"2015-01-01T00:00:00.000Z/2015-01-31T00:00:00.000Z\"]",
             "}"
         )
@@ -441,6 +449,7 @@ public class ArrayOfDoublesSketchAggregationTest extends InitializedNullHandling
             "      \"field\": {\"type\": \"fieldAccess\", \"fieldName\": \"sketch\"}",
             "    }",
             "  ],",
+            "  \"context\": {\"vectorize\": \"" + vectorize + "\"},",
             "  \"intervals\": [\"2015-01-01T00:00:00.000Z/2015-01-31T00:00:00.000Z\"]",
             "}"
         )
@@ -547,6 +556,7 @@ public class ArrayOfDoublesSketchAggregationTest extends InitializedNullHandling
             "    },",
             "    {\"type\": \"arrayOfDoublesSketchToQuantilesSketch\", \"name\": \"quantiles-sketch-with-nulls\", \"column\": 3, \"field\": {\"type\": \"fieldAccess\", \"fieldName\": \"sketch\"}}",
             "  ],",
+            "  \"context\": {\"vectorize\": \"" + vectorize + "\"},",
             "  \"intervals\": [\"2015-01-01T00:00:00.000Z/2015-01-31T00:00:00.000Z\"]",
             "}"
         )
@@ -649,6 +659,7 @@ public class ArrayOfDoublesSketchAggregationTest extends InitializedNullHandling
             "      \"fields\": [{\"type\": \"fieldAccess\", \"fieldName\": \"sketch\"}, {\"type\": \"fieldAccess\", \"fieldName\": \"sketch\"}]",
             "    }}",
             "  ],",
+            "  \"context\": {\"vectorize\": \"" + vectorize + "\"},",
             "  \"intervals\": [\"2015-01-01T00:00:00.000Z/2015-01-31T00:00:00.000Z\"]",
             "}"
         )
@@ -728,6 +739,7 @@ public class ArrayOfDoublesSketchAggregationTest extends InitializedNullHandling
             "      ]",
             "    }",
             "  ],",
+            "  \"context\": {\"vectorize\": \"" + vectorize + "\"},",
             "  \"intervals\": [\"2017-01-01T00:00:00.000Z/2017-01-31T00:00:00.000Z\"]",
             "}"
         )
@@ -829,6 +841,7 @@ public class ArrayOfDoublesSketchAggregationTest extends InitializedNullHandling
             "    {\"type\": \"arrayOfDoublesSketchToQuantilesSketch\", \"name\": \"quantiles-sketch-with-nulls\", \"column\": 3, \"field\": {\"type\": \"fieldAccess\", \"fieldName\": \"sketch\"}},",
             "    {\"type\": \"arrayOfDoublesSketchToQuantilesSketch\", \"name\": \"quantiles-sketch-with-no-nulls\", \"column\": 3, \"field\": {\"type\": \"fieldAccess\", \"fieldName\": \"sketchNoNulls\"}}",
             "  ],",
+            "  \"context\": {\"vectorize\": \"" + vectorize + "\"},",
             "  \"intervals\": [\"2015-01-01T00:00:00.000Z/2015-01-31T00:00:00.000Z\"]",
             "}"
         )
@@ -308,10 +308,26 @@ public abstract class HyperLogLogCollector implements Comparable<HyperLogLogColl
 
     estimatedCardinality = null;
 
-    final ByteBuffer buffer = ByteBuffer.wrap(hashedValue);
+    add(computeBucket(hashedValue), computePositionOf1(hashedValue));
+  }
 
-    short bucket = (short) (buffer.getShort(hashedValue.length - 2) & BUCKET_MASK);
+  /**
+   * Returns the bucket that {@link #add(byte[])} updates for the given hashed value. Together with
+   * {@link #computePositionOf1(byte[])}, this allows callers that add the same value many times to hash it only once
+   * and then call {@link #add(short, byte)}.
+   */
+  public static short computeBucket(byte[] hashedValue)
+  {
+    final ByteBuffer buffer = ByteBuffer.wrap(hashedValue);
+    return (short) (buffer.getShort(hashedValue.length - 2) & BUCKET_MASK);
+  }
 
+  /**
+   * Returns the register value that {@link #add(byte[])} uses for the given hashed value, see
+   * {@link #computeBucket(byte[])}.
+   */
+  public static byte computePositionOf1(byte[] hashedValue)
+  {
     byte positionOf1 = 0;
 
     for (int i = 0; i < 8; ++i) {
@@ -327,7 +343,7 @@ public abstract class HyperLogLogCollector implements Comparable<HyperLogLogColl
       }
     }
 
-    add(bucket, positionOf1);
+    return positionOf1;
   }
 
   public void add(short bucket, byte positionOf1)
@@ -101,8 +101,11 @@ import org.apache.druid.segment.column.BitmapIndex;
 import org.apache.druid.segment.column.ColumnCapabilities;
 import org.apache.druid.segment.column.ColumnCapabilitiesImpl;
 import org.apache.druid.segment.column.ColumnHolder;
+import org.apache.druid.segment.column.NgramIndex;
+import org.apache.druid.segment.column.NumericBitmapIndex;
 import org.apache.druid.segment.column.SpatialIndex;
 import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.column.ZoneMap;
 import org.apache.druid.segment.data.CompressionFactory.LongEncodingStrategy;
 import org.apache.druid.segment.data.CompressionStrategy;
 import org.apache.druid.segment.data.ListIndexed;
@@ -1778,6 +1781,24 @@ public class CompactionTaskTest
     {
       return null;
     }
+
+    @Override
+    public ZoneMap getZoneMap()
+    {
+      return null;
+    }
+
+    @Override
+    public NumericBitmapIndex getNumericBitmapIndex()
+    {
+      return null;
+    }
+
+    @Override
+    public NgramIndex getNgramIndex()
+    {
+      return null;
+    }
   }
 
   /**
@@ -43,6 +43,8 @@ public class GuiceInjectors
         new RuntimeInfoModule(),
         new ConfigModule(),
         new NullHandlingModule(),
+        new DecompressedBlockCacheModule(),
+        new FilterBitmapCacheModule(),
         binder -> {
           binder.bind(DruidSecondaryModule.class);
           JsonConfigProvider.bind(binder, "druid.extensions", ExtensionsConfig.class);
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.guice;
+
+import com.google.inject.Binder;
+import com.google.inject.Module;
+import org.apache.druid.segment.cache.HeapBufferCache;
+import org.apache.druid.segment.cache.HeapBufferCacheConfig;
+
+/**
+ * Configures a process-wide {@link HeapBufferCache} from the given properties. The cache class holds the configured
+ * instance, and must have a static method annotated with {@link com.google.inject.Inject} taking the configuration.
+ */
+public abstract class HeapBufferCacheModule implements Module
+{
+  private final String propertyBase;
+  private final Class<? extends HeapBufferCacheConfig> configClass;
+  private final Class<? extends HeapBufferCache<?>> cacheClass;
+
+  protected HeapBufferCacheModule(
+      String propertyBase,
+      Class<? extends HeapBufferCacheConfig> configClass,
+      Class<? extends HeapBufferCache<?>> cacheClass
+  )
+  {
+    this.propertyBase = propertyBase;
+    this.configClass = configClass;
+    this.cacheClass = cacheClass;
+  }
+
+  @Override
+  public void configure(Binder binder)
+  {
+    JsonConfigProvider.bind(binder, propertyBase, configClass);
+    binder.requestStaticInjection(cacheClass);
+  }
+}
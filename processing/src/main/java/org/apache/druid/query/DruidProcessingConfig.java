@@ -140,6 +140,13 @@ public abstract class DruidProcessingConfig extends ExecutorServiceConfig implem
     return 0;
   }
 
+  @Override
+  @Config(value = "${base_path}.lazyColumnCache.maxEntries")
+  public int lazyColumnCacheSize()
+  {
+    return 0;
+  }
+
   @Config(value = "${base_path}.fifo")
   public boolean isFifo()
   {
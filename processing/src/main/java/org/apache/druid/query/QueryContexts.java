@@ -49,7 +49,9 @@ public class QueryContexts
   public static final String BROKER_PARALLELISM = "parallelMergeParallelism";
   public static final String VECTORIZE_KEY = "vectorize";
   public static final String VECTORIZE_VIRTUAL_COLUMNS_KEY = "vectorizeVirtualColumns";
+  public static final String VECTORIZE_JOINS_KEY = "vectorizeJoins";
   public static final String VECTOR_SIZE_KEY = "vectorSize";
+  public static final String COMPILE_EXPRESSIONS_KEY = "compileExpressions";
   public static final String MAX_SUBQUERY_ROWS_KEY = "maxSubqueryRows";
   public static final String JOIN_FILTER_PUSH_DOWN_KEY = "enableJoinFilterPushDown";
   public static final String JOIN_FILTER_REWRITE_ENABLE_KEY = "enableJoinFilterRewrite";
@@ -72,6 +74,8 @@ public class QueryContexts
   public static final boolean DEFAULT_USE_RESULTLEVEL_CACHE = true;
   public static final Vectorize DEFAULT_VECTORIZE = Vectorize.TRUE;
   public static final Vectorize DEFAULT_VECTORIZE_VIRTUAL_COLUMN = Vectorize.FALSE;
+  public static final boolean DEFAULT_VECTORIZE_JOINS = false;
+  public static final boolean DEFAULT_COMPILE_EXPRESSIONS = false;
   public static final int DEFAULT_PRIORITY = 0;
   public static final int DEFAULT_UNCOVERED_INTERVALS_LIMIT = 0;
   public static final long DEFAULT_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
@@ -215,6 +219,16 @@ public class QueryContexts
     return parseEnum(query, VECTORIZE_VIRTUAL_COLUMNS_KEY, Vectorize.class, defaultValue);
   }
 
+  public static <T> boolean getVectorizeJoins(Query<T> query)
+  {
+    return parseBoolean(query, VECTORIZE_JOINS_KEY, DEFAULT_VECTORIZE_JOINS);
+  }
+
+  public static <T> boolean getCompileExpressions(Query<T> query)
+  {
+    return parseBoolean(query, COMPILE_EXPRESSIONS_KEY, DEFAULT_COMPILE_EXPRESSIONS);
+  }
+
   public static <T> int getVectorSize(Query<T> query)
   {
     return getVectorSize(query, QueryableIndexStorageAdapter.DEFAULT_VECTOR_SIZE);
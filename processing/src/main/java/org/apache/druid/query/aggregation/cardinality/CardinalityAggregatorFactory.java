@@ -35,15 +35,21 @@ import org.apache.druid.query.aggregation.AggregatorUtil;
 import org.apache.druid.query.aggregation.BufferAggregator;
 import org.apache.druid.query.aggregation.NoopAggregator;
 import org.apache.druid.query.aggregation.NoopBufferAggregator;
+import org.apache.druid.query.aggregation.NoopVectorAggregator;
+import org.apache.druid.query.aggregation.VectorAggregator;
 import org.apache.druid.query.aggregation.cardinality.types.CardinalityAggregatorColumnSelectorStrategy;
 import org.apache.druid.query.aggregation.cardinality.types.CardinalityAggregatorColumnSelectorStrategyFactory;
 import org.apache.druid.query.aggregation.hyperloglog.HyperUniquesAggregatorFactory;
 import org.apache.druid.query.cache.CacheKeyBuilder;
 import org.apache.druid.query.dimension.DefaultDimensionSpec;
 import org.apache.druid.query.dimension.DimensionSpec;
+import org.apache.druid.segment.ColumnInspector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.DimensionHandlerUtils;
+import org.apache.druid.segment.column.ColumnCapabilities;
 import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
 
 import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
@@ -163,6 +169,38 @@ public class CardinalityAggregatorFactory extends AggregatorFactory
     return new CardinalityBufferAggregator(selectorPluses, byRow);
   }
 
+  @Override
+  public VectorAggregator factorizeVector(VectorColumnSelectorFactory selectorFactory)
+  {
+    if (fields.isEmpty()) {
+      return NoopVectorAggregator.instance();
+    }
+
+    final List<SingleValueDimensionVectorSelector> selectors =
+        fields.stream().map(selectorFactory::makeSingleValueDimensionSelector).collect(Collectors.toList());
+    return new CardinalityVectorAggregator(selectors, byRow);
+  }
+
+  @Override
+  public boolean canVectorize(ColumnInspector columnInspector)
+  {
+    // The vectorized aggregator hashes dictionary ids, so all fields must be undecorated single-valued strings.
+    for (DimensionSpec field : fields) {
+      if (field.mustDecorate() || field.getExtractionFn() != null || !field.canVectorize()) {
+        return false;
+      }
+
+      final ColumnCapabilities capabilities = columnInspector.getColumnCapabilities(field.getDimension());
+      if (capabilities != null
+          && (capabilities.getType() != ValueType.STRING
+              || !capabilities.isDictionaryEncoded().isTrue()
+              || !capabilities.hasMultipleValues().isFalse())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   @Override
   public Comparator getComparator()
   {
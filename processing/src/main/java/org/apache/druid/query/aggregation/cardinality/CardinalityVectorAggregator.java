@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.aggregation.cardinality;
+
+import com.google.common.hash.Hasher;
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.hll.HyperLogLogCollector;
+import org.apache.druid.query.aggregation.VectorAggregator;
+import org.apache.druid.query.aggregation.cardinality.types.StringCardinalityAggregatorColumnSelectorStrategy;
+import org.apache.druid.query.aggregation.hyperloglog.HyperUniquesBufferAggregator;
+import org.apache.druid.segment.DimensionDictionarySelector;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Vectorized version of {@link CardinalityBufferAggregator} for single-valued string columns. The values are hashed
+ * the same way as {@link StringCardinalityAggregatorColumnSelectorStrategy} does, but the hash of a dictionary id is
+ * computed only once per selector: it is cached as the (bucket, positionOf1) pair which
+ * {@link HyperLogLogCollector#add(short, byte)} folds into the registers.
+ *
+ * When hashing by row over more than one column, the hash depends on the ids of all the columns, so it is not cached
+ * per id. Instead, the hash of the previous row is reused when the ids did not change, which is common for clustered
+ * data.
+ */
+public class CardinalityVectorAggregator implements VectorAggregator
+{
+  /**
+   * Limits the cache to 4MB per selector, hashes of ids above it are computed for every row.
+   */
+  private static final int MAX_CACHED_IDS = 1 << 20;
+  private static final int NOT_COMPUTED = -1;
+  private static final int SKIPPED = -2;
+
+  private final SingleValueDimensionVectorSelector[] selectors;
+  private final boolean byRow;
+  private final int[][] hashCaches;
+
+  // state for hashing by row over multiple selectors
+  private final int[] previousRowIds;
+  private int previousRowHash = NOT_COMPUTED;
+
+  CardinalityVectorAggregator(List<SingleValueDimensionVectorSelector> selectors, boolean byRow)
+  {
+    this.selectors = selectors.toArray(new SingleValueDimensionVectorSelector[0]);
+    this.byRow = byRow;
+    this.hashCaches = new int[this.selectors.length][];
+    this.previousRowIds = new int[this.selectors.length];
+
+    for (int i = 0; i < this.selectors.length; i++) {
+      final SingleValueDimensionVectorSelector selector = this.selectors[i];
+      final int cardinality = selector.getValueCardinality();
+      if (selector.nameLookupPossibleInAdvance() && cardinality != DimensionDictionarySelector.CARDINALITY_UNKNOWN) {
+        hashCaches[i] = new int[Math.min(cardinality, MAX_CACHED_IDS)];
+        Arrays.fill(hashCaches[i], NOT_COMPUTED);
+      }
+    }
+  }
+
+  @Override
+  public void init(ByteBuffer buf, int position)
+  {
+    HyperUniquesBufferAggregator.doInit(buf, position);
+  }
+
+  @Override
+  public void aggregate(ByteBuffer buf, int position, int startRow, int endRow)
+  {
+    // Save position, limit and restore later instead of allocating a new ByteBuffer object
+    final int oldPosition = buf.position();
+    final int oldLimit = buf.limit();
+    buf.limit(position + HyperLogLogCollector.getLatestNumBytesForDenseStorage());
+    buf.position(position);
+
+    try {
+      final HyperLogLogCollector collector = HyperLogLogCollector.makeCollector(buf);
+      if (byRow && selectors.length > 1) {
+        final int[][] rowVectors = getRowVectors();
+        for (int row = startRow; row < endRow; row++) {
+          add(collector, getRowHash(rowVectors, row));
+        }
+      } else {
+        for (int i = 0; i < selectors.length; i++) {
+          final int[] rowVector = selectors[i].getRowVector();
+          for (int row = startRow; row < endRow; row++) {
+            add(collector, getValueHash(i, rowVector[row]));
+          }
+        }
+      }
+    }
+    finally {
+      buf.limit(oldLimit);
+      buf.position(oldPosition);
+    }
+  }
+
+  @Override
+  public void aggregate(
+      ByteBuffer buf,
+      int numRows,
+      int[] positions,
+      @Nullable int[] rows,
+      int positionOffset
+  )
+  {
+    final int[][] rowVectors = getRowVectors();
+    final int oldPosition = buf.position();
+    final int oldLimit = buf.limit();
+
+    try {
+      for (int i = 0; i < numRows; i++) {
+        final int position = positions[i] + positionOffset;
+        final int row = rows == null ? i : rows[i];
+
+        buf.limit(position + HyperLogLogCollector.getLatestNumBytesForDenseStorage());
+        buf.position(position);
+        final HyperLogLogCollector collector = HyperLogLogCollector.makeCollector(buf);
+
+        if (byRow && selectors.length > 1) {
+          add(collector, getRowHash(rowVectors, row));
+        } else {
+          for (int j = 0; j < selectors.length; j++) {
+            add(collector, getValueHash(j, rowVectors[j][row]));
+          }
+        }
+      }
+    }
+    finally {
+      buf.limit(oldLimit);
+      buf.position(oldPosition);
+    }
+  }
+
+  @Override
+  public Object get(ByteBuffer buf, int position)
+  {
+    return HyperUniquesBufferAggregator.doGet(buf, position);
+  }
+
+  @Override
+  public void close()
+  {
+    // no resources to cleanup
+  }
+
+  private int[][] getRowVectors()
+  {
+    final int[][] rowVectors = new int[selectors.length][];
+    for (int i = 0; i < selectors.length; i++) {
+      rowVectors[i] = selectors[i].getRowVector();
+    }
+    return rowVectors;
+  }
+
+  private int getValueHash(int selectorIndex, int id)
+  {
+    final int[] hashCache = hashCaches[selectorIndex];
+    if (hashCache == null || id >= hashCache.length) {
+      return computeValueHash(selectors[selectorIndex].lookupName(id));
+    }
+
+    int hash = hashCache[id];
+    if (hash == NOT_COMPUTED) {
+      hash = computeValueHash(selectors[selectorIndex].lookupName(id));
+      hashCache[id] = hash;
+    }
+    return hash;
+  }
+
+  private int computeValueHash(@Nullable String value)
+  {
+    // SQL standard spec does not count null values, see StringCardinalityAggregatorColumnSelectorStrategy. Rows are
+    // still counted when hashing by row, using the hash of no value at all.
+    if (NullHandling.sqlCompatible() && value == null) {
+      return byRow ? pack(CardinalityAggregator.HASH_FUNCTION.newHasher().hash().asBytes()) : SKIPPED;
+    }
+    return pack(CardinalityAggregator.HASH_FUNCTION.hashUnencodedChars(nullToSpecial(value)).asBytes());
+  }
+
+  private int getRowHash(int[][] rowVectors, int row)
+  {
+    boolean sameIds = previousRowHash != NOT_COMPUTED;
+    for (int i = 0; sameIds && i < rowVectors.length; i++) {
+      sameIds = previousRowIds[i] == rowVectors[i][row];
+    }
+
+    if (!sameIds) {
+      // same as CardinalityAggregator.hashRow over single-valued rows
+      final Hasher hasher = CardinalityAggregator.HASH_FUNCTION.newHasher();
+      for (int i = 0; i < rowVectors.length; i++) {
+        if (i != 0) {
+          hasher.putByte((byte) 0);
+        }
+        final int id = rowVectors[i][row];
+        final String value = selectors[i].lookupName(id);
+        if (NullHandling.replaceWithDefault() || value != null) {
+          hasher.putUnencodedChars(nullToSpecial(value));
+        }
+        previousRowIds[i] = id;
+      }
+      previousRowHash = pack(hasher.hash().asBytes());
+    }
+    return previousRowHash;
+  }
+
+  private static String nullToSpecial(@Nullable String value)
+  {
+    return value == null ? StringCardinalityAggregatorColumnSelectorStrategy.CARDINALITY_AGG_NULL_STRING : value;
+  }
+
+  private static int pack(byte[] hashedValue)
+  {
+    final short bucket = HyperLogLogCollector.computeBucket(hashedValue);
+    final byte positionOf1 = HyperLogLogCollector.computePositionOf1(hashedValue);
+    return (bucket << Byte.SIZE) | (positionOf1 & 0xFF);
+  }
+
+  private static void add(HyperLogLogCollector collector, int packedHash)
+  {
+    if (packedHash != SKIPPED) {
+      collector.add((short) (packedHash >>> Byte.SIZE), (byte) packedHash);
+    }
+  }
+}
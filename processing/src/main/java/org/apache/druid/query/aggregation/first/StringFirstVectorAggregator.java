@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.aggregation.first;
+
+import org.apache.druid.java.util.common.DateTimes;
+import org.apache.druid.query.aggregation.SerializablePairLongString;
+import org.apache.druid.query.aggregation.VectorAggregator;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorValueSelector;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+
+/**
+ * Vectorized implementation of the {@link StringFirstBufferAggregator} for single-valued string columns. The buffer
+ * layout is the one written by {@link StringFirstLastUtils#writePair}.
+ */
+public class StringFirstVectorAggregator implements VectorAggregator
+{
+  private static final SerializablePairLongString INIT = new SerializablePairLongString(
+      DateTimes.MAX.getMillis(),
+      null
+  );
+
+  private final VectorValueSelector timeSelector;
+  private final SingleValueDimensionVectorSelector valueSelector;
+  private final int maxStringBytes;
+
+  public StringFirstVectorAggregator(
+      VectorValueSelector timeSelector,
+      SingleValueDimensionVectorSelector valueSelector,
+      int maxStringBytes
+  )
+  {
+    this.timeSelector = timeSelector;
+    this.valueSelector = valueSelector;
+    this.maxStringBytes = maxStringBytes;
+  }
+
+  @Override
+  public void init(ByteBuffer buf, int position)
+  {
+    StringFirstLastUtils.writePair(buf, position, INIT, maxStringBytes);
+  }
+
+  @Override
+  public void aggregate(ByteBuffer buf, int position, int startRow, int endRow)
+  {
+    final long[] timeVector = timeSelector.getLongVector();
+
+    // Find the first row of the range, so that only one string is looked up and written.
+    long firstTime = buf.getLong(position);
+    int firstRow = -1;
+    for (int i = startRow; i < endRow; i++) {
+      if (timeVector[i] < firstTime) {
+        firstTime = timeVector[i];
+        firstRow = i;
+      }
+    }
+
+    if (firstRow >= 0) {
+      writeRow(buf, position, firstTime, valueSelector.getRowVector(), firstRow);
+    }
+  }
+
+  @Override
+  public void aggregate(
+      ByteBuffer buf,
+      int numRows,
+      int[] positions,
+      @Nullable int[] rows,
+      int positionOffset
+  )
+  {
+    final long[] timeVector = timeSelector.getLongVector();
+    final int[] valueVector = valueSelector.getRowVector();
+
+    for (int i = 0; i < numRows; i++) {
+      final int position = positions[i] + positionOffset;
+      final int row = rows == null ? i : rows[i];
+      final long time = timeVector[row];
+      if (time < buf.getLong(position)) {
+        writeRow(buf, position, time, valueVector, row);
+      }
+    }
+  }
+
+  @Override
+  public Object get(ByteBuffer buf, int position)
+  {
+    return StringFirstLastUtils.readPair(buf, position);
+  }
+
+  @Override
+  public void close()
+  {
+    // no resources to cleanup
+  }
+
+  private void writeRow(ByteBuffer buf, int position, long time, int[] valueVector, int row)
+  {
+    StringFirstLastUtils.writePair(
+        buf,
+        position,
+        new SerializablePairLongString(time, valueSelector.lookupName(valueVector[row])),
+        maxStringBytes
+    );
+  }
+}
@@ -27,6 +27,8 @@ import org.apache.druid.math.expr.Expr;
 import org.apache.druid.math.expr.ExprEval;
 import org.apache.druid.math.expr.ExprMacroTable;
 import org.apache.druid.math.expr.ExprType;
+import org.apache.druid.math.expr.vector.ExprVectorProcessor;
+import org.apache.druid.math.expr.vector.StringOutStringInFunctionVectorProcessor;
 import org.apache.druid.query.lookup.LookupExtractorFactoryContainerProvider;
 import org.apache.druid.query.lookup.RegisteredLookupExtractionFn;
 
@@ -89,6 +91,32 @@ public class LookupExprMacro implements ExprMacroTable.ExprMacro
         return ExprEval.of(extractionFn.apply(NullHandling.emptyToNullIfNeeded(arg.eval(bindings).asString())));
       }
 
+      @Override
+      public boolean canVectorize(InputBindingInspector inspector)
+      {
+        return arg.canVectorize(inspector);
+      }
+
+      @Override
+      public <T> ExprVectorProcessor<T> buildVectorized(VectorInputBindingInspector inspector)
+      {
+        ExprVectorProcessor<?> processor;
+        processor = new StringOutStringInFunctionVectorProcessor(
+            arg.buildVectorized(inspector),
+            inspector.getMaxVectorSize()
+        )
+        {
+          @Nullable
+          @Override
+          public String apply(@Nullable String input)
+          {
+            return extractionFn.apply(NullHandling.emptyToNullIfNeeded(input));
+          }
+        };
+
+        return (ExprVectorProcessor<T>) processor;
+      }
+
       @Override
       public Expr visit(Shuttle shuttle)
       {
@@ -26,6 +26,8 @@ import org.apache.druid.math.expr.Expr;
 import org.apache.druid.math.expr.ExprEval;
 import org.apache.druid.math.expr.ExprMacroTable;
 import org.apache.druid.math.expr.ExprType;
+import org.apache.druid.math.expr.vector.ExprVectorProcessor;
+import org.apache.druid.math.expr.vector.StringOutStringInFunctionVectorProcessor;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -86,12 +88,45 @@ public class RegexpExtractExprMacro implements ExprMacroTable.ExprMacro
           // True nulls do not match anything. Note: this branch only executes in SQL-compatible null handling mode.
           return ExprEval.of(null);
         } else {
-          final Matcher matcher = pattern.matcher(NullHandling.nullToEmptyIfNeeded(s));
-          final String retVal = matcher.find() ? matcher.group(index) : null;
-          return ExprEval.of(retVal);
+          return ExprEval.of(extract(s));
         }
       }
 
+      @Override
+      public boolean canVectorize(InputBindingInspector inspector)
+      {
+        return arg.canVectorize(inspector);
+      }
+
+      @Override
+      public <T> ExprVectorProcessor<T> buildVectorized(VectorInputBindingInspector inspector)
+      {
+        ExprVectorProcessor<?> processor;
+        processor = new StringOutStringInFunctionVectorProcessor(
+            arg.buildVectorized(inspector),
+            inspector.getMaxVectorSize()
+        )
+        {
+          @Nullable
+          @Override
+          public String apply(@Nullable String input)
+          {
+            final String s = NullHandling.nullToEmptyIfNeeded(input);
+            // True nulls do not match anything, like in eval.
+            return s == null ? null : extract(s);
+          }
+        };
+
+        return (ExprVectorProcessor<T>) processor;
+      }
+
+      @Nullable
+      private String extract(String s)
+      {
+        final Matcher matcher = pattern.matcher(s);
+        return matcher.find() ? matcher.group(index) : null;
+      }
+
       @Override
       public Expr visit(Shuttle shuttle)
       {
@@ -25,6 +25,9 @@ import org.apache.druid.collections.bitmap.ImmutableBitmap;
 import org.apache.druid.collections.spatial.ImmutableRTree;
 import org.apache.druid.segment.column.BitmapIndex;
 import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.column.NgramIndex;
+import org.apache.druid.segment.column.NumericBitmapIndex;
+import org.apache.druid.segment.column.ZoneMap;
 import org.apache.druid.segment.data.CloseableIndexed;
 
 import javax.annotation.Nullable;
@@ -44,4 +47,33 @@ public interface BitmapIndexSelector
   @Nullable
   ImmutableBitmap getBitmapIndex(String dimension, String value);
   ImmutableRTree getSpatialIndex(String dimension);
+
+  /**
+   * Returns the {@link ZoneMap} of a column, or null if the column does not exist or has no zone map.
+   */
+  @Nullable
+  default ZoneMap getZoneMap(String dimension)
+  {
+    return null;
+  }
+
+  /**
+   * Returns the {@link NumericBitmapIndex} of a long, float or double column, or null if the column does not exist or
+   * has no such index. Such columns have no {@link #getBitmapIndex(String)}.
+   */
+  @Nullable
+  default NumericBitmapIndex getNumericBitmapIndex(String dimension)
+  {
+    return null;
+  }
+
+  /**
+   * Returns the {@link NgramIndex} of a string column, whose ids are those of {@link #getDimensionValues(String)}, or
+   * null if the column does not exist or has no such index.
+   */
+  @Nullable
+  default NgramIndex getNgramIndex(String dimension)
+  {
+    return null;
+  }
 }
@@ -30,6 +30,7 @@ import org.apache.druid.segment.ColumnSelector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
 
+import javax.annotation.Nullable;
 import java.util.Map;
 import java.util.Set;
 
@@ -105,13 +106,29 @@ public interface Filter
     throw new UOE("Filter[%s] cannot vectorize", getClass().getName());
   }
 
+  /**
+   * Get a ZoneMatcher that tells which ranges of rows cannot match this filter, based on the
+   * {@link org.apache.druid.segment.column.ZoneMap} of its columns. It is used by filtered cursors to skip rows before
+   * calling the {@link ValueMatcher} of this filter.
+   *
+   * @param selector Object used to retrieve zone maps
+   *
+   * @return ZoneMatcher for this filter, or null if the zone maps of its columns cannot rule out any row.
+   */
+  @Nullable
+  default ZoneMatcher makeZoneMatcher(BitmapIndexSelector selector)
+  {
+    return null;
+  }
+
   /**
    * Indicates whether this filter can return a bitmap index for filtering, based on the information provided by the
    * input {@link BitmapIndexSelector}.
    *
    * Returning a value of true here guarantees that {@link #getBitmapIndex(BitmapIndexSelector)} will return a non-null
    * {@link BitmapIndexSelector}, and also that all columns specified in {@link #getRequiredColumns()} have a bitmap
-   * index retrievable via {@link BitmapIndexSelector#getBitmapIndex(String)}.
+   * index retrievable via {@link BitmapIndexSelector#getBitmapIndex(String)}, or, for numeric columns, via
+   * {@link BitmapIndexSelector#getNumericBitmapIndex(String)}.
    *
    * @param selector Object used to retrieve bitmap indexes
    *
@@ -164,10 +181,24 @@ public interface Filter
 
   /**
    * Set of columns used by a filter. If {@link #supportsBitmapIndex} returns true, all columns returned by this method
-   * can be expected to have a bitmap index retrievable via {@link BitmapIndexSelector#getBitmapIndex(String)}
+   * can be expected to have a bitmap index retrievable via {@link BitmapIndexSelector#getBitmapIndex(String)} or
+   * {@link BitmapIndexSelector#getNumericBitmapIndex(String)}
    */
   Set<String> getRequiredColumns();
 
+  /**
+   * Returns a key which identifies the rows this filter matches in any segment, so that the results of
+   * {@link #getBitmapResult} can be cached per segment by {@link org.apache.druid.segment.filter.FilterBitmapCache}.
+   * Filters with equal cache keys must match the same rows of a segment.
+   *
+   * @return cache key, or null if the bitmaps of this filter must not be cached
+   */
+  @Nullable
+  default byte[] getCacheKey()
+  {
+    return null;
+  }
+
   /**
    * Returns true is this filter is able to return a copy of this filter that is identical to this filter except that it
    * operates on different columns, based on a renaming map.
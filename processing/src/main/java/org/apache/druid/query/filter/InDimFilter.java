@@ -63,6 +63,7 @@ import org.apache.druid.segment.DimensionHandlerUtils;
 import org.apache.druid.segment.IntIteratorUtils;
 import org.apache.druid.segment.column.BitmapIndex;
 import org.apache.druid.segment.filter.Filters;
+import org.apache.druid.segment.filter.NumericBitmapIndexes;
 import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
 
 import javax.annotation.Nullable;
@@ -275,6 +276,11 @@ public class InDimFilter extends AbstractOptimizableDimFilter implements Filter
   {
     if (extractionFn == null) {
       final BitmapIndex bitmapIndex = selector.getBitmapIndex(dimension);
+      if (bitmapIndex == null) {
+        return bitmapResultFactory.unionDimensionValueBitmaps(
+            NumericBitmapIndexes.forValues(selector.getNumericBitmapIndex(dimension), values, predicateFactory)
+        );
+      }
       return bitmapResultFactory.unionDimensionValueBitmaps(getBitmapIterable(values, bitmapIndex));
     } else {
       return Filters.matchPredicate(
@@ -291,6 +297,16 @@ public class InDimFilter extends AbstractOptimizableDimFilter implements Filter
   {
     if (extractionFn == null) {
       final BitmapIndex bitmapIndex = indexSelector.getBitmapIndex(dimension);
+      if (bitmapIndex == null) {
+        return Filters.estimateSelectivity(
+            NumericBitmapIndexes.forValues(
+                indexSelector.getNumericBitmapIndex(dimension),
+                values,
+                predicateFactory
+            ).iterator(),
+            indexSelector.getNumRows()
+        );
+      }
       return Filters.estimateSelectivity(
           bitmapIndex,
           IntIteratorUtils.toIntList(getBitmapIndexIterable(values, bitmapIndex).iterator()),
@@ -357,7 +373,8 @@ public class InDimFilter extends AbstractOptimizableDimFilter implements Filter
   @Override
   public boolean supportsBitmapIndex(BitmapIndexSelector selector)
   {
-    return selector.getBitmapIndex(dimension) != null;
+    return selector.getBitmapIndex(dimension) != null
+           || (extractionFn == null && selector.getNumericBitmapIndex(dimension) != null);
   }
 
   @Override
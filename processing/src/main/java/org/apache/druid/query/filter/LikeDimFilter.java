@@ -25,6 +25,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.RangeSet;
 import com.google.common.io.BaseEncoding;
@@ -37,6 +38,7 @@ import org.apache.druid.segment.filter.LikeFilter;
 
 import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -225,15 +227,20 @@ public class LikeDimFilter extends AbstractOptimizableDimFilter implements DimFi
     // Regex pattern that describes matching strings.
     private final Pattern pattern;
 
+    // Literal parts of the pattern, between wildcards, which matching strings are known to contain.
+    private final List<String> literals;
+
     private LikeMatcher(
         final SuffixMatch suffixMatch,
         final String prefix,
-        final Pattern pattern
+        final Pattern pattern,
+        final List<String> literals
     )
     {
       this.suffixMatch = Preconditions.checkNotNull(suffixMatch, "suffixMatch");
       this.prefix = NullHandling.nullToEmptyIfNeeded(prefix);
       this.pattern = Preconditions.checkNotNull(pattern, "pattern");
+      this.literals = Preconditions.checkNotNull(literals, "literals");
     }
 
     public static LikeMatcher from(
@@ -243,6 +250,8 @@ public class LikeDimFilter extends AbstractOptimizableDimFilter implements DimFi
     {
       final StringBuilder prefix = new StringBuilder();
       final StringBuilder regex = new StringBuilder();
+      final ImmutableList.Builder<String> literals = ImmutableList.builder();
+      final StringBuilder literal = new StringBuilder();
       boolean escaping = false;
       boolean inPrefix = true;
       SuffixMatch suffixMatch = SuffixMatch.MATCH_EMPTY;
@@ -251,12 +260,14 @@ public class LikeDimFilter extends AbstractOptimizableDimFilter implements DimFi
         if (escapeChar != null && c == escapeChar && !escaping) {
           escaping = true;
         } else if (c == '%' && !escaping) {
+          addLiteral(literals, literal);
           inPrefix = false;
           if (suffixMatch == SuffixMatch.MATCH_EMPTY) {
             suffixMatch = SuffixMatch.MATCH_ANY;
           }
           regex.append(WILDCARD);
         } else if (c == '_' && !escaping) {
+          addLiteral(literals, literal);
           inPrefix = false;
           suffixMatch = SuffixMatch.MATCH_PATTERN;
           regex.append(".");
@@ -266,12 +277,28 @@ public class LikeDimFilter extends AbstractOptimizableDimFilter implements DimFi
           } else {
             suffixMatch = SuffixMatch.MATCH_PATTERN;
           }
+          literal.append(c);
           addPatternCharacter(regex, c);
           escaping = false;
         }
       }
 
-      return new LikeMatcher(suffixMatch, prefix.toString(), Pattern.compile(regex.toString(), Pattern.DOTALL));
+      addLiteral(literals, literal);
+
+      return new LikeMatcher(
+          suffixMatch,
+          prefix.toString(),
+          Pattern.compile(regex.toString(), Pattern.DOTALL),
+          literals.build()
+      );
+    }
+
+    private static void addLiteral(final ImmutableList.Builder<String> literals, final StringBuilder literal)
+    {
+      if (literal.length() > 0) {
+        literals.add(literal.toString());
+        literal.setLength(0);
+      }
     }
 
     private static void addPatternCharacter(final StringBuilder patternBuilder, final char c)
@@ -328,6 +355,14 @@ public class LikeDimFilter extends AbstractOptimizableDimFilter implements DimFi
       return suffixMatch;
     }
 
+    /**
+     * Returns the literal parts of the pattern, between wildcards, which all matching strings contain.
+     */
+    public List<String> getLiterals()
+    {
+      return literals;
+    }
+
     @VisibleForTesting
     static class PatternDruidPredicateFactory implements DruidPredicateFactory
     {
@@ -413,13 +448,14 @@ public class LikeDimFilter extends AbstractOptimizableDimFilter implements DimFi
       LikeMatcher that = (LikeMatcher) o;
       return getSuffixMatch() == that.getSuffixMatch() &&
              Objects.equals(getPrefix(), that.getPrefix()) &&
-             Objects.equals(pattern.toString(), that.pattern.toString());
+             Objects.equals(pattern.toString(), that.pattern.toString()) &&
+             Objects.equals(literals, that.literals);
     }
 
     @Override
     public int hashCode()
     {
-      return Objects.hash(getSuffixMatch(), getPrefix(), pattern.toString());
+      return Objects.hash(getSuffixMatch(), getPrefix(), pattern.toString(), literals);
     }
   }
 }
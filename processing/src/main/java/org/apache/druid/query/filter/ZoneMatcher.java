@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.filter;
+
+/**
+ * An object that tells whether any row in a range of rows of a segment may match a filter, using the
+ * {@link org.apache.druid.segment.column.ZoneMap} of its columns and without reading their values. It is returned by
+ * {@link Filter#makeZoneMatcher}, and used by filtered offsets to skip the rows of the zones which cannot match.
+ *
+ * Zone matchers are conservative: they may say that a range of rows may match even if none of its rows does.
+ */
+public interface ZoneMatcher
+{
+  /**
+   * Returns false if no row between startRow (inclusive) and endRow (exclusive) can match the filter.
+   */
+  boolean mayMatch(int startRow, int endRow);
+}
@@ -240,6 +240,44 @@ public class BufferArrayGrouper implements VectorGrouper, IntGrouper
     return AggregateResult.ok();
   }
 
+  @Override
+  public AggregateResult aggregateVector(Memory keySpace, int[] keyRows, int startKey, int endKey)
+  {
+    final int numKeys = endKey - startKey;
+
+    // Hoisted bounds check on keySpace.
+    if (keySpace.getCapacity() < (long) endKey * Integer.BYTES) {
+      throw new IAE("Not enough keySpace capacity for the provided start/end keys");
+    }
+
+    // We use integer indexes into the keySpace.
+    if (keySpace.getCapacity() > Integer.MAX_VALUE) {
+      throw new ISE("keySpace too large to handle");
+    }
+
+    if (vAggregationPositions == null || vAggregationRows == null) {
+      throw new ISE("Grouper was not initialized for vectorization");
+    }
+
+    for (int i = 0; i < numKeys; i++) {
+      // +1 matches what hashFunction() would do.
+      final int dimIndex = keySpace.getInt(((long) startKey + i) * Integer.BYTES) + 1;
+
+      if (dimIndex < 0 || dimIndex >= cardinalityWithMissingValue) {
+        throw new IAE("Invalid dimIndex[%s]", dimIndex);
+      }
+
+      vAggregationPositions[i] = dimIndex * recordSize;
+      vAggregationRows[i] = keyRows[startKey + i];
+
+      initializeSlotIfNeeded(dimIndex);
+    }
+
+    aggregators.aggregateVector(valBuffer, numKeys, vAggregationPositions, vAggregationRows);
+
+    return AggregateResult.ok();
+  }
+
   private void initializeSlotIfNeeded(int dimIndex)
   {
     final int index = dimIndex / Byte.SIZE;
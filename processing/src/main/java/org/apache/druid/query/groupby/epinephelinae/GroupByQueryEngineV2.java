@@ -62,6 +62,7 @@ import org.apache.druid.segment.Cursor;
 import org.apache.druid.segment.DimensionHandlerUtils;
 import org.apache.druid.segment.DimensionSelector;
 import org.apache.druid.segment.StorageAdapter;
+import org.apache.druid.segment.VirtualColumns;
 import org.apache.druid.segment.column.ColumnCapabilities;
 import org.apache.druid.segment.column.ValueType;
 import org.apache.druid.segment.data.IndexedInts;
@@ -191,7 +192,7 @@ public class GroupByQueryEngineV2
     final Sequence<Cursor> cursors = storageAdapter.makeCursors(
         filter,
         interval,
-        query.getVirtualColumns(),
+        VirtualColumns.forRowBasedSelectors(query, query.getVirtualColumns()),
         query.getGranularity(),
         false,
         null
@@ -126,26 +126,63 @@ public class HashVectorGrouper implements VectorGrouper
       throw new IAE("Not enough keySpace capacity for the provided start/end rows");
     }
 
+    return aggregateKeys(keySpace, 0, numRows, null, startRow);
+  }
+
+  @Override
+  public AggregateResult aggregateVector(
+      final Memory keySpace,
+      final int[] keyRows,
+      final int startKey,
+      final int endKey
+  )
+  {
+    // Hoisted bounds check on keySpace.
+    if (keySpace.getCapacity() < (long) endKey * keySize) {
+      throw new IAE("Not enough keySpace capacity for the provided start/end keys");
+    }
+
+    return aggregateKeys(keySpace, startKey, endKey - startKey, keyRows, 0);
+  }
+
+  /**
+   * Aggregates "numKeys" keys of keySpace, starting at key "startKey". The row of each key is given by "keyRows", or,
+   * if keyRows is null, rows are consecutive starting at "startRow".
+   */
+  private AggregateResult aggregateKeys(
+      final Memory keySpace,
+      final int startKey,
+      final int numKeys,
+      @Nullable final int[] keyRows,
+      final int startRow
+  )
+  {
     // We use integer indexes into the keySpace.
     if (keySpace.getCapacity() > Integer.MAX_VALUE) {
       throw new ISE("keySpace too large to handle");
     }
 
+    final int startKeySpacePosition = startKey * keySize;
+
     // Initialize vKeyHashCodes: one int per key.
     // Does *not* use hashFunction(). This is okay because the API of VectorGrouper does not expose any way of messing
     // about with hash codes.
-    for (int rowNum = 0, keySpacePosition = 0; rowNum < numRows; rowNum++, keySpacePosition += keySize) {
-      vKeyHashCodes[rowNum] = Groupers.smear(HashTableUtils.hashMemory(keySpace, keySpacePosition, keySize));
+    for (int keyNum = 0, keySpacePosition = startKeySpacePosition;
+         keyNum < numKeys;
+         keyNum++, keySpacePosition += keySize) {
+      vKeyHashCodes[keyNum] = Groupers.smear(HashTableUtils.hashMemory(keySpace, keySpacePosition, keySize));
     }
 
-    int aggregationStartRow = startRow;
-    int aggregationNumRows = 0;
+    int aggregationStartKey = 0;
+    int aggregationNumKeys = 0;
 
     final int aggregatorStartOffset = hashTable.bucketValueOffset();
 
-    for (int rowNum = 0, keySpacePosition = 0; rowNum < numRows; rowNum++, keySpacePosition += keySize) {
+    for (int keyNum = 0, keySpacePosition = startKeySpacePosition;
+         keyNum < numKeys;
+         keyNum++, keySpacePosition += keySize) {
       // Find, and if the table is full, expand and find again.
-      int bucket = hashTable.findBucket(vKeyHashCodes[rowNum], keySpace, keySpacePosition);
+      int bucket = hashTable.findBucket(vKeyHashCodes[keyNum], keySpace, keySpacePosition);
 
       if (bucket < 0) {
         // Bucket not yet initialized.
@@ -155,32 +192,32 @@ public class HashVectorGrouper implements VectorGrouper
           initBucket(bucket, keySpace, keySpacePosition);
         } else {
           // Out of space. Finish up unfinished aggregations, then try to grow.
-          if (aggregationNumRows > 0) {
-            doAggregateVector(aggregationStartRow, aggregationNumRows);
-            aggregationStartRow = aggregationStartRow + aggregationNumRows;
-            aggregationNumRows = 0;
+          if (aggregationNumKeys > 0) {
+            doAggregateVector(aggregationStartKey, aggregationNumKeys, startKey, keyRows, startRow);
+            aggregationStartKey = aggregationStartKey + aggregationNumKeys;
+            aggregationNumKeys = 0;
           }
 
           if (grow() && hashTable.canInsertNewBucket()) {
-            bucket = hashTable.findBucket(vKeyHashCodes[rowNum], keySpace, keySpacePosition);
+            bucket = hashTable.findBucket(vKeyHashCodes[keyNum], keySpace, keySpacePosition);
             bucket = -(bucket + 1);
             initBucket(bucket, keySpace, keySpacePosition);
           } else {
             // This may just trigger a spill and get ignored, which is ok. If it bubbles up to the user, the message
             // will be correct.
-            return Groupers.hashTableFull(rowNum);
+            return Groupers.hashTableFull(keyNum);
           }
         }
       }
 
-      // Schedule the current row for aggregation.
-      vAggregationPositions[aggregationNumRows] = bucket * bucketSize + aggregatorStartOffset;
-      aggregationNumRows++;
+      // Schedule the current key for aggregation. Positions are relative to aggregationStartKey.
+      vAggregationPositions[aggregationNumKeys] = bucket * bucketSize + aggregatorStartOffset;
+      aggregationNumKeys++;
     }
 
-    // Aggregate any remaining rows.
-    if (aggregationNumRows > 0) {
-      doAggregateVector(aggregationStartRow, aggregationNumRows);
+    // Aggregate any remaining keys.
+    if (aggregationNumKeys > 0) {
+      doAggregateVector(aggregationStartKey, aggregationNumKeys, startKey, keyRows, startRow);
     }
 
     return AggregateResult.ok();
@@ -281,16 +318,35 @@ public class HashVectorGrouper implements VectorGrouper
   }
 
   /**
-   * Aggregate the current vector from "startRow" (inclusive) to "endRow" (exclusive) into aggregation positions
-   * given by {@link #vAggregationPositions}.
+   * Aggregate "numKeys" keys, starting at key "aggregationStartKey" of the current call to {@link #aggregateKeys},
+   * into aggregation positions given by {@link #vAggregationPositions}.
    */
-  private void doAggregateVector(final int startRow, final int numRows)
+  private void doAggregateVector(
+      final int aggregationStartKey,
+      final int numKeys,
+      final int startKey,
+      @Nullable final int[] keyRows,
+      final int startRow
+  )
   {
+    final int[] aggregationRows;
+
+    if (keyRows == null) {
+      aggregationRows = Groupers.writeAggregationRows(
+          vAggregationRows,
+          startRow + aggregationStartKey,
+          startRow + aggregationStartKey + numKeys
+      );
+    } else {
+      System.arraycopy(keyRows, startKey + aggregationStartKey, vAggregationRows, 0, numKeys);
+      aggregationRows = vAggregationRows;
+    }
+
     aggregators.aggregateVector(
         hashTable.memory().getByteBuffer(),
-        numRows,
+        numKeys,
         vAggregationPositions,
-        Groupers.writeAggregationRows(vAggregationRows, startRow, startRow + numRows)
+        aggregationRows
     );
   }
 
@@ -50,6 +50,21 @@ public interface VectorGrouper extends Closeable
    */
   AggregateResult aggregateVector(Memory keySpace, int startRow, int endRow);
 
+  /**
+   * Aggregate keys "startKey" to "endKey" using the provided keys, where each key belongs to the row of the current
+   * vector given by "keyRows". Unlike {@link #aggregateVector(Memory, int, int)}, a row may have any number of keys,
+   * such as rows of multi-value dimensions, which are expanded into one key per value.
+   *
+   * @param keySpace memory holding keys, chunked into ints. Key i starts at position i * keySize.
+   * @param keyRows  row of the current vector of each key.
+   * @param startKey key to start at (inclusive).
+   * @param endKey   key to end at (exclusive). No more than the maxVectorSize given to {@link #initVectorized} keys
+   *                 may be aggregated at once.
+   *
+   * @return result that indicates how many keys were aggregated (may be partial due to resource limits)
+   */
+  AggregateResult aggregateVector(Memory keySpace, int[] keyRows, int startKey, int endKey);
+
   /**
    * Reset the grouper to its initial state.
    */
@@ -65,9 +65,7 @@ public class GroupByVectorColumnProcessorFactory implements VectorColumnProcesso
         ValueType.STRING == capabilities.getType(),
         "groupBy dimension processors must be STRING typed"
     );
-    throw new UnsupportedOperationException(
-        "Vectorized groupBys on multi-value dictionary-encoded dimensions are not yet implemented"
-    );
+    return new MultiValueStringGroupByVectorColumnSelector(selector);
   }
 
   @Override
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.groupby.epinephelinae.vector;
+
+import org.apache.datasketches.memory.Memory;
+import org.apache.datasketches.memory.WritableMemory;
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.query.groupby.ResultRow;
+import org.apache.druid.query.groupby.epinephelinae.column.GroupByColumnSelectorStrategy;
+import org.apache.druid.segment.data.IndexedInts;
+import org.apache.druid.segment.vector.MultiValueDimensionVectorSelector;
+
+/**
+ * Selector for multi-value string dimensions. Rows expand to one grouping key per value, like the non-vectorized
+ * {@link org.apache.druid.query.groupby.epinephelinae.column.StringGroupByColumnSelectorStrategy}: the key parts of
+ * each value are written by {@link #writeKey}, and {@link VectorGroupByEngine} aggregates rows through
+ * {@link org.apache.druid.query.groupby.epinephelinae.VectorGrouper#aggregateVector(Memory, int[], int, int)}.
+ *
+ * Rows without values expand to a single key, {@link GroupByColumnSelectorStrategy#GROUP_BY_MISSING_VALUE}, which is
+ * grouped as null.
+ */
+public class MultiValueStringGroupByVectorColumnSelector implements GroupByVectorColumnSelector
+{
+  private final MultiValueDimensionVectorSelector selector;
+
+  MultiValueStringGroupByVectorColumnSelector(final MultiValueDimensionVectorSelector selector)
+  {
+    this.selector = selector;
+  }
+
+  @Override
+  public int getGroupingKeySize()
+  {
+    return Integer.BYTES;
+  }
+
+  /**
+   * Writes the key part of the first value of each row, which is the only key part of rows with at most one value.
+   * Rows with more values must be expanded, see {@link #getRowSize} and {@link #writeKey}.
+   */
+  @Override
+  public void writeKeys(
+      final WritableMemory keySpace,
+      final int keySize,
+      final int keyOffset,
+      final int startRow,
+      final int endRow
+  )
+  {
+    final IndexedInts[] vector = selector.getRowVector();
+
+    for (int i = startRow, j = keyOffset; i < endRow; i++, j += keySize) {
+      final IndexedInts row = vector[i];
+      keySpace.putInt(j, row.size() == 0 ? GroupByColumnSelectorStrategy.GROUP_BY_MISSING_VALUE : row.get(0));
+    }
+  }
+
+  /**
+   * Returns the number of grouping keys the given row of the current vector expands to.
+   */
+  public int getRowSize(final int row)
+  {
+    return Math.max(1, selector.getRowVector()[row].size());
+  }
+
+  /**
+   * Writes the key part of value "valueIndex" of the given row of the current vector into keySpace at "keyPosition".
+   *
+   * @param valueIndex index of the value within the row, from 0 to {@link #getRowSize} - 1
+   */
+  public void writeKey(final WritableMemory keySpace, final int keyPosition, final int row, final int valueIndex)
+  {
+    final IndexedInts values = selector.getRowVector()[row];
+    keySpace.putInt(
+        keyPosition,
+        values.size() == 0 ? GroupByColumnSelectorStrategy.GROUP_BY_MISSING_VALUE : values.get(valueIndex)
+    );
+  }
+
+  @Override
+  public void writeKeyToResultRow(
+      final Memory keyMemory,
+      final int keyOffset,
+      final ResultRow resultRow,
+      final int resultRowPosition
+  )
+  {
+    final int id = keyMemory.getInt(keyOffset);
+
+    if (id != GroupByColumnSelectorStrategy.GROUP_BY_MISSING_VALUE) {
+      resultRow.set(resultRowPosition, selector.lookupName(id));
+    } else {
+      resultRow.set(resultRowPosition, NullHandling.defaultStringValue());
+    }
+  }
+}
@@ -21,6 +21,8 @@ package org.apache.druid.query.groupby.epinephelinae.vector;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Suppliers;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
 import org.apache.datasketches.memory.Memory;
 import org.apache.datasketches.memory.WritableMemory;
 import org.apache.druid.java.util.common.ISE;
@@ -56,6 +58,8 @@ import org.joda.time.Interval;
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -79,7 +83,7 @@ public class VectorGroupByEngine
     Function<String, ColumnCapabilities> capabilitiesFunction = name ->
         query.getVirtualColumns().getColumnCapabilitiesWithFallback(adapter, name);
 
-    return canVectorizeDimensions(capabilitiesFunction, query.getDimensions())
+    return canVectorizeDimensions(capabilitiesFunction, query.getVirtualColumns(), query.getDimensions())
            && query.getDimensions().stream().allMatch(DimensionSpec::canVectorize)
            && query.getAggregatorSpecs().stream().allMatch(aggregatorFactory -> aggregatorFactory.canVectorize(adapter))
            && VirtualColumns.shouldVectorize(query, query.getVirtualColumns(), adapter)
@@ -88,6 +92,7 @@ public class VectorGroupByEngine
 
   public static boolean canVectorizeDimensions(
       final Function<String, ColumnCapabilities> capabilitiesFunction,
+      final VirtualColumns virtualColumns,
       final List<DimensionSpec> dimensions
   )
   {
@@ -96,7 +101,6 @@ public class VectorGroupByEngine
         .allMatch(
             dimension -> {
               if (dimension.mustDecorate()) {
-                // group by on multi value dimensions are not currently supported
                 // DimensionSpecs that decorate may turn singly-valued columns into multi-valued selectors.
                 // To be safe, we must return false here.
                 return false;
@@ -108,9 +112,12 @@ public class VectorGroupByEngine
               if (columnCapabilities == null) {
                 return true;
               }
-              // strings must be single valued, dictionary encoded, and have unique dictionary entries
+              // strings must be dictionary encoded, and have unique dictionary entries. They must also be single valued,
+              // unless they are multi valued physical columns, whose rows are expanded into one key per value.
               if (ValueType.STRING.equals(columnCapabilities.getType())) {
-                return columnCapabilities.hasMultipleValues().isFalse() &&
+                return (columnCapabilities.hasMultipleValues().isFalse() ||
+                        (columnCapabilities.hasMultipleValues().isTrue() &&
+                         !virtualColumns.exists(dimension.getDimension()))) &&
                        columnCapabilities.isDictionaryEncoded().isTrue() &&
                        columnCapabilities.areDictionaryValuesUnique().isTrue();
               }
@@ -232,6 +239,18 @@ public class VectorGroupByEngine
     private final WritableMemory keySpace;
     private final VectorGrouper vectorGrouper;
 
+    // Selectors of multi-value dimensions, whose rows are expanded into one key per value, and the offsets of their
+    // key parts within keys.
+    private final List<MultiValueStringGroupByVectorColumnSelector> multiValueSelectors = new ArrayList<>();
+    private final IntList multiValueKeyOffsets = new IntArrayList();
+
+    // Keys of the current vector after expanding multi-value dimensions, and the row of each key. Only used if
+    // there are multi-value dimensions, and grown as needed.
+    @Nullable
+    private WritableMemory expandedKeySpace;
+    @Nullable
+    private int[] keyRows;
+
     @Nullable
     private final VectorCursorGranularizer granulizer;
 
@@ -241,6 +260,8 @@ public class VectorGroupByEngine
     @Nullable
     private Interval bucketInterval;
 
+    // Number of keys of the current vector aggregated before the grouper was full. Without multi-value dimensions, rows
+    // and keys are the same.
     private int partiallyAggregatedRows = -1;
 
     @Nullable
@@ -267,6 +288,20 @@ public class VectorGroupByEngine
       this.keySize = selectors.stream().mapToInt(GroupByVectorColumnSelector::getGroupingKeySize).sum();
       this.keySpace = WritableMemory.allocate(keySize * cursor.getMaxVectorSize());
       this.vectorGrouper = makeGrouper();
+
+      int keyOffset = 0;
+      for (final GroupByVectorColumnSelector selector : selectors) {
+        if (selector instanceof MultiValueStringGroupByVectorColumnSelector) {
+          multiValueSelectors.add((MultiValueStringGroupByVectorColumnSelector) selector);
+          multiValueKeyOffsets.add(keyOffset);
+        }
+        keyOffset += selector.getGroupingKeySize();
+      }
+
+      if (!multiValueSelectors.isEmpty()) {
+        this.expandedKeySpace = WritableMemory.allocate(keySize * cursor.getMaxVectorSize());
+        this.keyRows = new int[cursor.getMaxVectorSize()];
+      }
       this.granulizer = VectorCursorGranularizer.create(storageAdapter, cursor, query.getGranularity(), queryInterval);
 
       if (granulizer != null) {
@@ -364,6 +399,84 @@ public class VectorGroupByEngine
       return grouper;
     }
 
+    /**
+     * Expands the rows from "startRow" to "endRow", whose keys must have been written to {@link #keySpace}, into one
+     * key per combination of values of the multi-value dimensions, and aggregates the keys from "startKey" on.
+     *
+     * @return result that indicates how many keys from "startKey" on were aggregated
+     */
+    private AggregateResult aggregateExpandedKeys(final int startRow, final int endRow, final int startKey)
+    {
+      final int numKeys = expandKeys(startRow, endRow);
+      final int maxVectorSize = cursor.getMaxVectorSize();
+
+      for (int key = startKey; key < numKeys; key += maxVectorSize) {
+        final int endKey = Math.min(numKeys, key + maxVectorSize);
+        final AggregateResult result = vectorGrouper.aggregateVector(expandedKeySpace, keyRows, key, endKey);
+
+        if (!result.isOk()) {
+          return AggregateResult.partial(key - startKey + result.getCount(), result.getReason());
+        }
+      }
+
+      return AggregateResult.ok();
+    }
+
+    /**
+     * Writes the keys of the rows from "startRow" to "endRow" into {@link #expandedKeySpace}, and their rows into
+     * {@link #keyRows}, and returns the number of keys.
+     */
+    private int expandKeys(final int startRow, final int endRow)
+    {
+      int numKeys = 0;
+
+      for (int row = startRow; row < endRow; row++) {
+        int rowKeys = 1;
+        for (final MultiValueStringGroupByVectorColumnSelector selector : multiValueSelectors) {
+          rowKeys *= selector.getRowSize(row);
+        }
+
+        ensureExpandedKeyCapacity(numKeys + rowKeys);
+
+        final int rowKeyPosition = (row - startRow) * keySize;
+        for (int rowKey = 0; rowKey < rowKeys; rowKey++, numKeys++) {
+          final int keyPosition = numKeys * keySize;
+          keySpace.copyTo(rowKeyPosition, expandedKeySpace, keyPosition, keySize);
+
+          // Rows with a single key already have the right key parts, see MultiValueStringGroupByVectorColumnSelector.
+          if (rowKeys > 1) {
+            int remainder = rowKey;
+            for (int i = 0; i < multiValueSelectors.size(); i++) {
+              final MultiValueStringGroupByVectorColumnSelector selector = multiValueSelectors.get(i);
+              final int rowSize = selector.getRowSize(row);
+              selector.writeKey(
+                  expandedKeySpace,
+                  keyPosition + multiValueKeyOffsets.getInt(i),
+                  row,
+                  remainder % rowSize
+              );
+              remainder /= rowSize;
+            }
+          }
+
+          keyRows[numKeys] = row;
+        }
+      }
+
+      return numKeys;
+    }
+
+    private void ensureExpandedKeyCapacity(final int numKeys)
+    {
+      if (keyRows.length < numKeys) {
+        final int newNumKeys = Math.max(numKeys, keyRows.length * 2);
+        final WritableMemory newExpandedKeySpace = WritableMemory.allocate(keySize * newNumKeys);
+        expandedKeySpace.copyTo(0, newExpandedKeySpace, 0, expandedKeySpace.getCapacity());
+        expandedKeySpace = newExpandedKeySpace;
+        keyRows = Arrays.copyOf(keyRows, newNumKeys);
+      }
+    }
+
     private CloseableGrouperIterator<Memory, ResultRow> initNewDelegate()
     {
       // Method must not be called unless there's a current bucketInterval.
@@ -379,8 +492,11 @@ public class VectorGroupByEngine
         if (partiallyAggregatedRows < 0) {
           granulizer.setCurrentOffsets(bucketInterval);
           startOffset = granulizer.getStartOffset();
-        } else {
+        } else if (multiValueSelectors.isEmpty()) {
           startOffset = granulizer.getStartOffset() + partiallyAggregatedRows;
+        } else {
+          // Rows are expanded again, and the keys which were already aggregated are skipped.
+          startOffset = granulizer.getStartOffset();
         }
 
         if (granulizer.getEndOffset() > startOffset) {
@@ -392,11 +508,20 @@ public class VectorGroupByEngine
           }
 
           // Aggregate this vector.
-          final AggregateResult result = vectorGrouper.aggregateVector(
-              keySpace,
-              startOffset,
-              granulizer.getEndOffset()
-          );
+          final AggregateResult result;
+          if (multiValueSelectors.isEmpty()) {
+            result = vectorGrouper.aggregateVector(
+                keySpace,
+                startOffset,
+                granulizer.getEndOffset()
+            );
+          } else {
+            result = aggregateExpandedKeys(
+                startOffset,
+                granulizer.getEndOffset(),
+                Math.max(partiallyAggregatedRows, 0)
+            );
+          }
 
           if (result.isOk()) {
             partiallyAggregatedRows = -1;
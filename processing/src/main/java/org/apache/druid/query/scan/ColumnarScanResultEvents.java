@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.query.scan;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The "events" of a {@link ScanResultValue} in {@link ScanQuery.ResultFormat#RESULT_FORMAT_COMPACTED_LIST} form,
+ * stored column-by-column in the arrays filled by the vectorized scan engine. Rows are serialized straight out of
+ * those arrays, without building a list per row; {@link #get} materializes a row only for callers that ask for one,
+ * so this class can be used anywhere a {@code List<List<Object>>} is expected.
+ */
+@JsonSerialize(using = ColumnarScanResultEvents.Serializer.class)
+public class ColumnarScanResultEvents extends AbstractList<List<Object>>
+{
+  private final Column[] columns;
+  private final int numRows;
+
+  public ColumnarScanResultEvents(Column[] columns, int numRows)
+  {
+    this.columns = columns;
+    this.numRows = numRows;
+  }
+
+  @Override
+  public List<Object> get(int index)
+  {
+    if (index < 0 || index >= numRows) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + numRows);
+    }
+
+    final Object[] row = new Object[columns.length];
+    for (int i = 0; i < columns.length; i++) {
+      row[i] = columns[i].get(index);
+    }
+    return Arrays.asList(row);
+  }
+
+  @Override
+  public int size()
+  {
+    return numRows;
+  }
+
+  /**
+   * Values of one column for every row of a {@link ColumnarScanResultEvents}.
+   */
+  public interface Column
+  {
+    @Nullable
+    Object get(int row);
+
+    void serialize(int row, JsonGenerator jgen, SerializerProvider provider) throws IOException;
+  }
+
+  public static class LongColumn implements Column
+  {
+    private final long[] values;
+    @Nullable
+    private final boolean[] nulls;
+
+    public LongColumn(long[] values, @Nullable boolean[] nulls)
+    {
+      this.values = values;
+      this.nulls = nulls;
+    }
+
+    @Nullable
+    @Override
+    public Object get(int row)
+    {
+      return nulls != null && nulls[row] ? null : values[row];
+    }
+
+    @Override
+    public void serialize(int row, JsonGenerator jgen, SerializerProvider provider) throws IOException
+    {
+      if (nulls != null && nulls[row]) {
+        jgen.writeNull();
+      } else {
+        jgen.writeNumber(values[row]);
+      }
+    }
+  }
+
+  public static class FloatColumn implements Column
+  {
+    private final float[] values;
+    @Nullable
+    private final boolean[] nulls;
+
+    public FloatColumn(float[] values, @Nullable boolean[] nulls)
+    {
+      this.values = values;
+      this.nulls = nulls;
+    }
+
+    @Nullable
+    @Override
+    public Object get(int row)
+    {
+      return nulls != null && nulls[row] ? null : values[row];
+    }
+
+    @Override
+    public void serialize(int row, JsonGenerator jgen, SerializerProvider provider) throws IOException
+    {
+      if (nulls != null && nulls[row]) {
+        jgen.writeNull();
+      } else {
+        jgen.writeNumber(values[row]);
+      }
+    }
+  }
+
+  public static class DoubleColumn implements Column
+  {
+    private final double[] values;
+    @Nullable
+    private final boolean[] nulls;
+
+    public DoubleColumn(double[] values, @Nullable boolean[] nulls)
+    {
+      this.values = values;
+      this.nulls = nulls;
+    }
+
+    @Nullable
+    @Override
+    public Object get(int row)
+    {
+      return nulls != null && nulls[row] ? null : values[row];
+    }
+
+    @Override
+    public void serialize(int row, JsonGenerator jgen, SerializerProvider provider) throws IOException
+    {
+      if (nulls != null && nulls[row]) {
+        jgen.writeNull();
+      } else {
+        jgen.writeNumber(values[row]);
+      }
+    }
+  }
+
+  public static class ObjectColumn implements Column
+  {
+    private final Object[] values;
+
+    public ObjectColumn(Object[] values)
+    {
+      this.values = values;
+    }
+
+    @Nullable
+    @Override
+    public Object get(int row)
+    {
+      return values[row];
+    }
+
+    @Override
+    public void serialize(int row, JsonGenerator jgen, SerializerProvider provider) throws IOException
+    {
+      provider.defaultSerializeValue(values[row], jgen);
+    }
+  }
+
+  public static class Serializer extends JsonSerializer<ColumnarScanResultEvents>
+  {
+    @Override
+    public void serialize(ColumnarScanResultEvents events, JsonGenerator jgen, SerializerProvider provider)
+        throws IOException
+    {
+      jgen.writeStartArray();
+      for (int row = 0; row < events.numRows; row++) {
+        jgen.writeStartArray();
+        for (Column column : events.columns) {
+          column.serialize(row, jgen, provider);
+        }
+        jgen.writeEndArray();
+      }
+      jgen.writeEndArray();
+    }
+  }
+}
@@ -36,14 +36,18 @@ import org.apache.druid.query.QueryTimeoutException;
 import org.apache.druid.query.context.ResponseContext;
 import org.apache.druid.query.filter.Filter;
 import org.apache.druid.segment.BaseObjectColumnValueSelector;
+import org.apache.druid.segment.ColumnProcessors;
 import org.apache.druid.segment.Segment;
 import org.apache.druid.segment.StorageAdapter;
 import org.apache.druid.segment.VirtualColumn;
+import org.apache.druid.segment.VirtualColumns;
 import org.apache.druid.segment.column.ColumnHolder;
 import org.apache.druid.segment.filter.Filters;
+import org.apache.druid.segment.vector.VectorCursor;
 import org.apache.druid.timeline.SegmentId;
 import org.joda.time.Interval;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -124,15 +128,33 @@ public class ScanQueryEngine
 
     responseContext.add(ResponseContext.Key.NUM_SCANNED_ROWS, 0L);
     final long limit = calculateRemainingScanRowsLimit(query, responseContext);
+    final boolean descending = query.getOrder().equals(ScanQuery.Order.DESCENDING) ||
+                               (query.getOrder().equals(ScanQuery.Order.NONE) && query.isDescending());
+
+    if (canVectorize(query, adapter, filter, descending)) {
+      return processVectorized(
+          query,
+          adapter,
+          filter,
+          intervals.get(0),
+          allColumns,
+          segmentId,
+          limit,
+          responseContext,
+          hasTimeout,
+          timeoutAt,
+          start
+      );
+    }
+
     return Sequences.concat(
             adapter
                 .makeCursors(
                     filter,
                     intervals.get(0),
-                    query.getVirtualColumns(),
+                    VirtualColumns.forRowBasedSelectors(query, query.getVirtualColumns()),
                     Granularities.ALL,
-                    query.getOrder().equals(ScanQuery.Order.DESCENDING) ||
-                    (query.getOrder().equals(ScanQuery.Order.NONE) && query.isDescending()),
+                    descending,
                     null
                 )
                 .map(cursor -> new BaseSequence<>(
@@ -255,6 +277,166 @@ public class ScanQueryEngine
     );
   }
 
+  /**
+   * Whether this query can use {@link #processVectorized}. Only non-legacy, ascending "compactedList" scans are
+   * vectorized, since that is the form {@link ColumnarScanResultEvents} can represent.
+   *
+   * Unlike the aggregating engines, "vectorize: force" does not make a scan that cannot vectorize fail; it falls back
+   * to the row-based engine, because both engines return the same results and the row-based engine supports every
+   * scan query.
+   */
+  private static boolean canVectorize(
+      final ScanQuery query,
+      final StorageAdapter adapter,
+      @Nullable final Filter filter,
+      final boolean descending
+  )
+  {
+    if (query.isLegacy()
+        || descending
+        || !ScanQuery.ResultFormat.RESULT_FORMAT_COMPACTED_LIST.equals(query.getResultFormat())
+        || QueryContexts.getVectorize(query) == QueryContexts.Vectorize.FALSE) {
+      return false;
+    }
+
+    final VirtualColumns virtualColumns = query.getVirtualColumns();
+    if (virtualColumns.getVirtualColumns().length > 0
+        && (QueryContexts.getVectorizeVirtualColumns(query) == QueryContexts.Vectorize.FALSE
+            || !virtualColumns.canVectorize(adapter))) {
+      return false;
+    }
+
+    return adapter.canVectorize(filter, virtualColumns, false);
+  }
+
+  /**
+   * Scans the segment using a {@link VectorCursor}, copying each vector into primitive column batches that are
+   * returned as {@link ColumnarScanResultEvents}.
+   */
+  private static Sequence<ScanResultValue> processVectorized(
+      final ScanQuery query,
+      final StorageAdapter adapter,
+      @Nullable final Filter filter,
+      final Interval interval,
+      final List<String> allColumns,
+      final SegmentId segmentId,
+      final long limit,
+      final ResponseContext responseContext,
+      final boolean hasTimeout,
+      final long timeoutAt,
+      final long start
+  )
+  {
+    final VectorCursor cursor = adapter.makeVectorCursor(
+        filter,
+        interval,
+        query.getVirtualColumns(),
+        false,
+        QueryContexts.getVectorSize(query),
+        null
+    );
+
+    if (cursor == null) {
+      // Null cursor means the interval didn't match.
+      return Sequences.empty();
+    }
+
+    return new BaseSequence<>(
+        new BaseSequence.IteratorMaker<ScanResultValue, Iterator<ScanResultValue>>()
+        {
+          @Override
+          public Iterator<ScanResultValue> make()
+          {
+            final ScanVectorColumnReader[] readers = new ScanVectorColumnReader[allColumns.size()];
+            for (int i = 0; i < readers.length; i++) {
+              readers[i] = ColumnProcessors.makeVectorProcessor(
+                  allColumns.get(i),
+                  ScanVectorColumnReaderFactory.INSTANCE,
+                  cursor.getColumnSelectorFactory()
+              );
+            }
+
+            final int batchSize = query.getBatchSize();
+            return new Iterator<ScanResultValue>()
+            {
+              private long offset = 0;
+
+              // Number of rows of the current vector that have already been copied into a batch.
+              private int vectorOffset = 0;
+
+              @Override
+              public boolean hasNext()
+              {
+                return !cursor.isDone() && offset < limit;
+              }
+
+              @Override
+              public ScanResultValue next()
+              {
+                if (!hasNext()) {
+                  throw new NoSuchElementException();
+                }
+                if (hasTimeout && System.currentTimeMillis() >= timeoutAt) {
+                  throw new QueryTimeoutException(StringUtils.nonStrictFormat("Query [%s] timed out", query.getId()));
+                }
+
+                final int capacity = (int) Math.min(batchSize, limit - offset);
+                for (ScanVectorColumnReader reader : readers) {
+                  reader.startBatch(capacity);
+                }
+
+                int numRows = 0;
+                while (numRows < capacity && !cursor.isDone()) {
+                  final int vectorSize = cursor.getCurrentVectorSize();
+                  final int length = Math.min(vectorSize - vectorOffset, capacity - numRows);
+                  for (ScanVectorColumnReader reader : readers) {
+                    reader.read(vectorOffset, numRows, length);
+                  }
+                  numRows += length;
+                  vectorOffset += length;
+                  if (vectorOffset == vectorSize) {
+                    cursor.advance();
+                    vectorOffset = 0;
+                  }
+                }
+
+                final ColumnarScanResultEvents.Column[] columns = new ColumnarScanResultEvents.Column[readers.length];
+                for (int i = 0; i < readers.length; i++) {
+                  columns[i] = readers[i].finishBatch(numRows);
+                }
+
+                offset += numRows;
+                responseContext.add(ResponseContext.Key.NUM_SCANNED_ROWS, (long) numRows);
+                if (hasTimeout) {
+                  responseContext.put(
+                      ResponseContext.Key.TIMEOUT_AT,
+                      timeoutAt - (System.currentTimeMillis() - start)
+                  );
+                }
+                return new ScanResultValue(
+                    segmentId.toString(),
+                    allColumns,
+                    new ColumnarScanResultEvents(columns, numRows)
+                );
+              }
+
+              @Override
+              public void remove()
+              {
+                throw new UnsupportedOperationException();
+              }
+            };
+          }
+
+          @Override
+          public void cleanup(Iterator<ScanResultValue> iterFromMake)
+          {
+            cursor.close();
+          }
+        }
+    );
+  }
+
   /**
    * If we're performing time-ordering, we want to scan through the first `limit` rows in each segment ignoring the number
    * of rows already counted on other segments.
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.query.scan;
+
+/**
+ * Copies the values of one column out of the current vector of a {@link org.apache.druid.segment.vector.VectorCursor}
+ * into the arrays backing a batch of {@link ColumnarScanResultEvents}. Created by
+ * {@link ScanVectorColumnReaderFactory}.
+ */
+interface ScanVectorColumnReader
+{
+  /**
+   * Starts a new batch that will hold at most "capacity" rows.
+   */
+  void startBatch(int capacity);
+
+  /**
+   * Copies "length" rows of the current vector, starting at "vectorOffset", into the current batch at "batchOffset".
+   */
+  void read(int vectorOffset, int batchOffset, int length);
+
+  /**
+   * Finishes the current batch, which holds "numRows" rows, and returns its values.
+   */
+  ColumnarScanResultEvents.Column finishBatch(int numRows);
+}
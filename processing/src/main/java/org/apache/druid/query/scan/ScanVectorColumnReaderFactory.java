@@ -0,0 +1,286 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.query.scan;
+
+import org.apache.druid.segment.DimensionSelector;
+import org.apache.druid.segment.VectorColumnProcessorFactory;
+import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.data.IndexedInts;
+import org.apache.druid.segment.vector.MultiValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorObjectSelector;
+import org.apache.druid.segment.vector.VectorValueSelector;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * Makes the {@link ScanVectorColumnReader} for each column of a vectorized scan. Values are boxed the same way the
+ * row-based scan boxes them: Long, Float and Double for numeric columns, String (or a list of Strings for rows with
+ * more than one value) for string columns.
+ */
+class ScanVectorColumnReaderFactory implements VectorColumnProcessorFactory<ScanVectorColumnReader>
+{
+  static final ScanVectorColumnReaderFactory INSTANCE = new ScanVectorColumnReaderFactory();
+
+  private ScanVectorColumnReaderFactory()
+  {
+    // Singleton.
+  }
+
+  @Override
+  public ScanVectorColumnReader makeSingleValueDimensionProcessor(
+      ColumnCapabilities capabilities,
+      SingleValueDimensionVectorSelector selector
+  )
+  {
+    return new ObjectReader()
+    {
+      @Override
+      public void read(int vectorOffset, int batchOffset, int length)
+      {
+        final int[] ids = selector.getRowVector();
+        for (int i = 0; i < length; i++) {
+          values[batchOffset + i] = selector.lookupName(ids[vectorOffset + i]);
+        }
+      }
+    };
+  }
+
+  @Override
+  public ScanVectorColumnReader makeMultiValueDimensionProcessor(
+      ColumnCapabilities capabilities,
+      MultiValueDimensionVectorSelector selector
+  )
+  {
+    return new ObjectReader()
+    {
+      @Override
+      public void read(int vectorOffset, int batchOffset, int length)
+      {
+        final IndexedInts[] rows = selector.getRowVector();
+        for (int i = 0; i < length; i++) {
+          values[batchOffset + i] = DimensionSelector.rowToObject(rows[vectorOffset + i], selector);
+        }
+      }
+    };
+  }
+
+  @Override
+  public ScanVectorColumnReader makeFloatProcessor(ColumnCapabilities capabilities, VectorValueSelector selector)
+  {
+    return new FloatReader(selector);
+  }
+
+  @Override
+  public ScanVectorColumnReader makeDoubleProcessor(ColumnCapabilities capabilities, VectorValueSelector selector)
+  {
+    return new DoubleReader(selector);
+  }
+
+  @Override
+  public ScanVectorColumnReader makeLongProcessor(ColumnCapabilities capabilities, VectorValueSelector selector)
+  {
+    return new LongReader(selector);
+  }
+
+  @Override
+  public ScanVectorColumnReader makeObjectProcessor(ColumnCapabilities capabilities, VectorObjectSelector selector)
+  {
+    return new ObjectReader()
+    {
+      @Override
+      public void read(int vectorOffset, int batchOffset, int length)
+      {
+        System.arraycopy(selector.getObjectVector(), vectorOffset, values, batchOffset, length);
+      }
+    };
+  }
+
+  private abstract static class ObjectReader implements ScanVectorColumnReader
+  {
+    protected Object[] values;
+
+    @Override
+    public void startBatch(int capacity)
+    {
+      values = new Object[capacity];
+    }
+
+    @Override
+    public ColumnarScanResultEvents.Column finishBatch(int numRows)
+    {
+      final ColumnarScanResultEvents.Column column = new ColumnarScanResultEvents.ObjectColumn(
+          numRows < values.length ? Arrays.copyOf(values, numRows) : values
+      );
+      values = null;
+      return column;
+    }
+  }
+
+  /**
+   * Base class for numeric readers. The null array of a batch is only allocated once a vector with nulls is seen.
+   */
+  private abstract static class NumericReader implements ScanVectorColumnReader
+  {
+    protected final VectorValueSelector selector;
+
+    @Nullable
+    protected boolean[] nulls;
+    private int capacity;
+
+    NumericReader(VectorValueSelector selector)
+    {
+      this.selector = selector;
+    }
+
+    @Override
+    public void startBatch(int capacity)
+    {
+      this.capacity = capacity;
+      this.nulls = null;
+    }
+
+    void readNulls(int vectorOffset, int batchOffset, int length)
+    {
+      final boolean[] nullVector = selector.getNullVector();
+      if (nullVector != null) {
+        if (nulls == null) {
+          nulls = new boolean[capacity];
+        }
+        System.arraycopy(nullVector, vectorOffset, nulls, batchOffset, length);
+      }
+    }
+
+    @Nullable
+    boolean[] finishNulls(int numRows)
+    {
+      final boolean[] retVal = nulls != null && numRows < nulls.length ? Arrays.copyOf(nulls, numRows) : nulls;
+      nulls = null;
+      return retVal;
+    }
+  }
+
+  private static class LongReader extends NumericReader
+  {
+    private long[] values;
+
+    LongReader(VectorValueSelector selector)
+    {
+      super(selector);
+    }
+
+    @Override
+    public void startBatch(int capacity)
+    {
+      super.startBatch(capacity);
+      values = new long[capacity];
+    }
+
+    @Override
+    public void read(int vectorOffset, int batchOffset, int length)
+    {
+      System.arraycopy(selector.getLongVector(), vectorOffset, values, batchOffset, length);
+      readNulls(vectorOffset, batchOffset, length);
+    }
+
+    @Override
+    public ColumnarScanResultEvents.Column finishBatch(int numRows)
+    {
+      final ColumnarScanResultEvents.Column column = new ColumnarScanResultEvents.LongColumn(
+          numRows < values.length ? Arrays.copyOf(values, numRows) : values,
+          finishNulls(numRows)
+      );
+      values = null;
+      return column;
+    }
+  }
+
+  private static class FloatReader extends NumericReader
+  {
+    private float[] values;
+
+    FloatReader(VectorValueSelector selector)
+    {
+      super(selector);
+    }
+
+    @Override
+    public void startBatch(int capacity)
+    {
+      super.startBatch(capacity);
+      values = new float[capacity];
+    }
+
+    @Override
+    public void read(int vectorOffset, int batchOffset, int length)
+    {
+      System.arraycopy(selector.getFloatVector(), vectorOffset, values, batchOffset, length);
+      readNulls(vectorOffset, batchOffset, length);
+    }
+
+    @Override
+    public ColumnarScanResultEvents.Column finishBatch(int numRows)
+    {
+      final ColumnarScanResultEvents.Column column = new ColumnarScanResultEvents.FloatColumn(
+          numRows < values.length ? Arrays.copyOf(values, numRows) : values,
+          finishNulls(numRows)
+      );
+      values = null;
+      return column;
+    }
+  }
+
+  private static class DoubleReader extends NumericReader
+  {
+    private double[] values;
+
+    DoubleReader(VectorValueSelector selector)
+    {
+      super(selector);
+    }
+
+    @Override
+    public void startBatch(int capacity)
+    {
+      super.startBatch(capacity);
+      values = new double[capacity];
+    }
+
+    @Override
+    public void read(int vectorOffset, int batchOffset, int length)
+    {
+      System.arraycopy(selector.getDoubleVector(), vectorOffset, values, batchOffset, length);
+      readNulls(vectorOffset, batchOffset, length);
+    }
+
+    @Override
+    public ColumnarScanResultEvents.Column finishBatch(int numRows)
+    {
+      final ColumnarScanResultEvents.Column column = new ColumnarScanResultEvents.DoubleColumn(
+          numRows < values.length ? Arrays.copyOf(values, numRows) : values,
+          finishNulls(numRows)
+      );
+      values = null;
+      return column;
+    }
+  }
+}
@@ -26,6 +26,8 @@ import org.apache.druid.java.util.common.StringUtils;
 
 import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
 
 /**
  */
@@ -71,6 +73,12 @@ public class ContainsSearchQuerySpec implements SearchQuerySpec
     return org.apache.commons.lang.StringUtils.containsIgnoreCase(dimVal, value);
   }
 
+  @Override
+  public List<String> getRequiredSubstrings()
+  {
+    return value == null ? Collections.emptyList() : Collections.singletonList(value);
+  }
+
   @Override
   public byte[] getCacheKey()
   {
@@ -26,6 +26,7 @@ import org.apache.druid.java.util.common.StringUtils;
 import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
@@ -92,6 +93,12 @@ public class FragmentSearchQuerySpec implements SearchQuerySpec
     return true;
   }
 
+  @Override
+  public List<String> getRequiredSubstrings()
+  {
+    return values == null ? Collections.emptyList() : Arrays.asList(target);
+  }
+
   private boolean containsAny(String[] target, String input)
   {
     for (String value : target) {
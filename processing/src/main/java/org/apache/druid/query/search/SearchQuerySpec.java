@@ -19,11 +19,14 @@
 
 package org.apache.druid.query.search;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import org.apache.druid.annotations.SubclassesMustOverrideEqualsAndHashCode;
 
 import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
 
 /**
  */
@@ -40,5 +43,15 @@ public interface SearchQuerySpec
 {
   boolean accept(@Nullable String dimVal);
 
+  /**
+   * Returns substrings which all the values accepted by {@link #accept} contain, ignoring case, so that the
+   * {@link org.apache.druid.segment.column.NgramIndex} can skip the values which do not contain them.
+   */
+  @JsonIgnore
+  default List<String> getRequiredSubstrings()
+  {
+    return Collections.emptyList();
+  }
+
   byte[] getCacheKey();
 }
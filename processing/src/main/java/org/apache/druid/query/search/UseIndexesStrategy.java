@@ -21,6 +21,8 @@ package org.apache.druid.query.search;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntIterators;
 import it.unimi.dsi.fastutil.objects.Object2IntRBTreeMap;
 import org.apache.druid.collections.bitmap.BitmapFactory;
 import org.apache.druid.collections.bitmap.ImmutableBitmap;
@@ -33,6 +35,7 @@ import org.apache.druid.query.filter.BitmapIndexSelector;
 import org.apache.druid.query.filter.Filter;
 import org.apache.druid.query.search.CursorOnlyStrategy.CursorBasedExecutor;
 import org.apache.druid.segment.ColumnSelectorBitmapIndexSelector;
+import org.apache.druid.segment.IntIteratorUtils;
 import org.apache.druid.segment.QueryableIndex;
 import org.apache.druid.segment.Segment;
 import org.apache.druid.segment.StorageAdapter;
@@ -40,6 +43,7 @@ import org.apache.druid.segment.VirtualColumns;
 import org.apache.druid.segment.column.BitmapIndex;
 import org.apache.druid.segment.column.ColumnCapabilities;
 import org.apache.druid.segment.column.ColumnHolder;
+import org.apache.druid.segment.column.NgramIndex;
 import org.apache.druid.segment.column.NumericColumn;
 import org.joda.time.Interval;
 
@@ -257,10 +261,15 @@ public class UseIndexesStrategy extends SearchStrategy
         );
 
         ExtractionFn extractionFn = dimension.getExtractionFn();
+        final IntIterator dictIds;
         if (extractionFn == null) {
           extractionFn = IdentityExtractionFn.getInstance();
+          dictIds = getCandidateDictIds(columnHolder, bitmapIndex.getCardinality());
+        } else {
+          dictIds = IntIterators.fromTo(0, bitmapIndex.getCardinality());
         }
-        for (int i = 0; i < bitmapIndex.getCardinality(); ++i) {
+        while (dictIds.hasNext()) {
+          final int i = dictIds.nextInt();
           String dimVal = extractionFn.apply(bitmapIndex.getValue(i));
           if (!searchQuerySpec.accept(dimVal)) {
             continue;
@@ -280,5 +289,21 @@ public class UseIndexesStrategy extends SearchStrategy
 
       return retVal;
     }
+
+    /**
+     * Returns the ids of the dictionary values which may be accepted by the {@link SearchQuerySpec}: all of them, or
+     * only those containing its required substrings if the column has a {@link NgramIndex}.
+     */
+    private IntIterator getCandidateDictIds(ColumnHolder columnHolder, int cardinality)
+    {
+      if (columnHolder.getCapabilities().hasNgramIndexes()) {
+        final ImmutableBitmap candidates = columnHolder.getNgramIndex()
+                                                       .getCandidates(searchQuerySpec.getRequiredSubstrings());
+        if (candidates != null) {
+          return IntIteratorUtils.fromRoaringBitmapIntIterator(candidates.iterator());
+        }
+      }
+      return IntIterators.fromTo(0, cardinality);
+    }
   }
 }
@@ -258,7 +258,7 @@ public class TimeseriesQueryEngine
         adapter,
         Collections.singletonList(queryInterval),
         filter,
-        query.getVirtualColumns(),
+        VirtualColumns.forRowBasedSelectors(query, query.getVirtualColumns()),
         descending,
         gran,
         cursor -> {
@@ -22,15 +22,19 @@ package org.apache.druid.query.topn;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicates;
 import org.apache.druid.collections.NonBlockingPool;
-import org.apache.druid.java.util.common.granularity.Granularity;
+import org.apache.druid.collections.ResourceHolder;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.guava.LazySequence;
 import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.java.util.common.guava.Sequences;
+import org.apache.druid.query.QueryContexts;
 import org.apache.druid.query.Result;
 import org.apache.druid.query.aggregation.AggregatorFactory;
 import org.apache.druid.query.extraction.ExtractionFn;
 import org.apache.druid.query.filter.Filter;
 import org.apache.druid.segment.SegmentMissingException;
 import org.apache.druid.segment.StorageAdapter;
+import org.apache.druid.segment.VirtualColumns;
 import org.apache.druid.segment.column.ColumnCapabilities;
 import org.apache.druid.segment.column.ColumnHolder;
 import org.apache.druid.segment.column.ValueType;
@@ -57,7 +61,8 @@ public class TopNQueryEngine
    * Do the thing - process a {@link StorageAdapter} into a {@link Sequence} of {@link TopNResultValue}, with one of the
    * fine {@link TopNAlgorithm} available chosen based on the type of column being aggregated. The algorithm provides a
    * mapping function to process rows from the adapter {@link org.apache.druid.segment.Cursor} to apply
-   * {@link AggregatorFactory} and create or update {@link TopNResultValue}
+   * {@link AggregatorFactory} and create or update {@link TopNResultValue}. Queries which can be vectorized are
+   * processed by {@link VectorTopNEngine} instead.
    */
   public Sequence<Result<TopNResultValue>> query(
       final TopNQuery query,
@@ -73,8 +78,6 @@ public class TopNQueryEngine
 
     final List<Interval> queryIntervals = query.getQuerySegmentSpec().getIntervals();
     final Filter filter = Filters.convertToCNFFromQueryContext(query, Filters.toFilter(query.getDimensionsFilter()));
-    final Granularity granularity = query.getGranularity();
-    final TopNMapFn mapFn = getMapFn(query, adapter, queryMetrics);
 
     Preconditions.checkArgument(
         queryIntervals.size() == 1,
@@ -82,13 +85,54 @@ public class TopNQueryEngine
         queryIntervals
     );
 
+    final QueryContexts.Vectorize vectorize = QueryContexts.getVectorize(query);
+    if (vectorize.shouldVectorize(VectorTopNEngine.canVectorize(query, adapter, filter))) {
+      // VectorTopNEngine aggregates all the values of the dimension at once, fall back to the pooled algorithms, which
+      // can make multiple passes, if they do not fit in a buffer.
+      return new LazySequence<>(
+          () -> {
+            final ResourceHolder<ByteBuffer> bufferHolder = bufferPool.take();
+            if (VectorTopNEngine.fitsInBuffer(query, adapter, bufferHolder.get().capacity())) {
+              if (queryMetrics != null) {
+                queryMetrics.vectorized(true);
+              }
+              return VectorTopNEngine.process(query, adapter, filter, queryIntervals.get(0), bufferHolder, queryMetrics);
+            }
+            bufferHolder.close();
+            if (vectorize == QueryContexts.Vectorize.FORCE) {
+              throw new ISE(
+                  "Cannot vectorize, the values of dimension[%s] do not fit in a processing buffer",
+                  query.getDimensionSpec().getDimension()
+              );
+            }
+            return processNonVectorized(query, adapter, filter, queryIntervals.get(0), queryMetrics);
+          }
+      );
+    }
+
+    return processNonVectorized(query, adapter, filter, queryIntervals.get(0), queryMetrics);
+  }
+
+  private Sequence<Result<TopNResultValue>> processNonVectorized(
+      final TopNQuery query,
+      final StorageAdapter adapter,
+      @Nullable final Filter filter,
+      final Interval queryInterval,
+      final @Nullable TopNQueryMetrics queryMetrics
+  )
+  {
+    final TopNMapFn mapFn = getMapFn(query, adapter, queryMetrics);
+    if (queryMetrics != null) {
+      queryMetrics.vectorized(false);
+    }
+
     return Sequences.filter(
         Sequences.map(
             adapter.makeCursors(
                 filter,
-                queryIntervals.get(0),
-                query.getVirtualColumns(),
-                granularity,
+                queryInterval,
+                VirtualColumns.forRowBasedSelectors(query, query.getVirtualColumns()),
+                query.getGranularity(),
                 query.isDescending(),
                 queryMetrics
             ),
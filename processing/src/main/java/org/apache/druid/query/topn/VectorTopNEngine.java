@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.topn;
+
+import org.apache.druid.collections.ResourceHolder;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.granularity.Granularity;
+import org.apache.druid.java.util.common.guava.CloseQuietly;
+import org.apache.druid.java.util.common.guava.Sequence;
+import org.apache.druid.java.util.common.guava.Sequences;
+import org.apache.druid.java.util.common.io.Closer;
+import org.apache.druid.query.QueryContexts;
+import org.apache.druid.query.Result;
+import org.apache.druid.query.aggregation.AggregatorAdapters;
+import org.apache.druid.query.aggregation.AggregatorFactory;
+import org.apache.druid.query.dimension.DimensionSpec;
+import org.apache.druid.query.filter.Filter;
+import org.apache.druid.query.vector.VectorCursorGranularizer;
+import org.apache.druid.segment.DimensionDictionarySelector;
+import org.apache.druid.segment.StorageAdapter;
+import org.apache.druid.segment.VirtualColumns;
+import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorCursor;
+import org.joda.time.Interval;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Vectorized counterpart of {@link PooledTopNAlgorithm}: aggregates the rows of a {@link VectorCursor} into a pooled
+ * buffer by dictionary id of a single-valued, dictionary-encoded string dimension, and builds the results from the
+ * dictionary ids which were seen.
+ *
+ * Unlike {@link PooledTopNAlgorithm}, all the values of the dimension are aggregated in a single pass, so the buffer
+ * must be large enough to hold the aggregators of every value, see {@link #fitsInBuffer}.
+ */
+public class VectorTopNEngine
+{
+  private VectorTopNEngine()
+  {
+    // No instantiation.
+  }
+
+  /**
+   * Returns whether the given query can be run by {@link #process}, the conditions mirroring those of
+   * {@link TopNQueryEngine} for the pooled algorithms and of
+   * {@link org.apache.druid.query.groupby.epinephelinae.vector.VectorGroupByEngine#canVectorize}.
+   */
+  public static boolean canVectorize(final TopNQuery query, final StorageAdapter adapter, @Nullable final Filter filter)
+  {
+    final DimensionSpec dimensionSpec = query.getDimensionSpec();
+    final String dimension = dimensionSpec.getDimension();
+    final VirtualColumns virtualColumns = query.getVirtualColumns();
+
+    if (dimensionSpec.mustDecorate()
+        || dimensionSpec.getExtractionFn() != null
+        || !dimensionSpec.canVectorize()
+        || dimensionSpec.getOutputType() != ValueType.STRING
+        || virtualColumns.exists(dimension)) {
+      return false;
+    }
+
+    // dictionary ids must be unique, as for the pooled algorithms, and rows must have a single value
+    final ColumnCapabilities capabilities = adapter.getColumnCapabilities(dimension);
+    if (capabilities == null
+        || capabilities.getType() != ValueType.STRING
+        || !capabilities.isDictionaryEncoded().isTrue()
+        || !capabilities.areDictionaryValuesUnique().isTrue()
+        || !capabilities.hasMultipleValues().isFalse()) {
+      return false;
+    }
+
+    return query.getAggregatorSpecs().stream().allMatch(aggregatorFactory -> aggregatorFactory.canVectorize(adapter))
+           && VirtualColumns.shouldVectorize(query, virtualColumns, adapter)
+           && adapter.canVectorize(filter, virtualColumns, query.isDescending());
+  }
+
+  /**
+   * Returns whether the aggregators of every value of the dimension of the query fit in a buffer of the given
+   * capacity.
+   */
+  public static boolean fitsInBuffer(final TopNQuery query, final StorageAdapter adapter, final int capacity)
+  {
+    final int cardinality = adapter.getDimensionCardinality(query.getDimensionSpec().getDimension());
+    long numBytesPerRecord = 0;
+    for (AggregatorFactory aggregatorFactory : query.getAggregatorSpecs()) {
+      numBytesPerRecord += aggregatorFactory.getMaxIntermediateSizeWithNulls();
+    }
+    return cardinality != Integer.MAX_VALUE && cardinality * numBytesPerRecord <= capacity;
+  }
+
+  /**
+   * Runs the given query, which must be vectorizable, see {@link #canVectorize} and {@link #fitsInBuffer}, on the
+   * given single interval. The buffer is released when the returned sequence is closed.
+   */
+  public static Sequence<Result<TopNResultValue>> process(
+      final TopNQuery query,
+      final StorageAdapter adapter,
+      @Nullable final Filter filter,
+      final Interval queryInterval,
+      final ResourceHolder<ByteBuffer> bufferHolder,
+      @Nullable final TopNQueryMetrics queryMetrics
+  )
+  {
+    final Closer closer = Closer.create();
+    closer.register(bufferHolder);
+
+    try {
+      final VectorCursor cursor = adapter.makeVectorCursor(
+          filter,
+          queryInterval,
+          query.getVirtualColumns(),
+          false,
+          QueryContexts.getVectorSize(query),
+          queryMetrics
+      );
+
+      if (cursor == null) {
+        CloseQuietly.close(closer);
+        return Sequences.empty();
+      }
+      closer.register(cursor);
+
+      final Granularity granularity = query.getGranularity();
+      final VectorCursorGranularizer granularizer = VectorCursorGranularizer.create(
+          adapter,
+          cursor,
+          granularity,
+          queryInterval
+      );
+
+      if (granularizer == null) {
+        CloseQuietly.close(closer);
+        return Sequences.empty();
+      }
+
+      final VectorColumnSelectorFactory columnSelectorFactory = cursor.getColumnSelectorFactory();
+      final SingleValueDimensionVectorSelector dimSelector =
+          columnSelectorFactory.makeSingleValueDimensionSelector(query.getDimensionSpec());
+      final int cardinality = dimSelector.getValueCardinality();
+      if (cardinality == DimensionDictionarySelector.CARDINALITY_UNKNOWN) {
+        throw new ISE("Cannot operate on a dimension with unknown cardinality");
+      }
+      if (queryMetrics != null) {
+        queryMetrics.dimensionCardinality(cardinality);
+      }
+
+      final AggregatorAdapters aggregators = closer.register(
+          AggregatorAdapters.factorizeVector(columnSelectorFactory, query.getAggregatorSpecs())
+      );
+      final int numBytesPerRecord = aggregators.spaceNeeded();
+      final ByteBuffer buffer = bufferHolder.get();
+
+      if ((long) cardinality * numBytesPerRecord > buffer.capacity()) {
+        throw new ISE(
+            "Not enough space for aggregators, needed [%,d] bytes but have only [%,d].",
+            (long) cardinality * numBytesPerRecord,
+            buffer.capacity()
+        );
+      }
+
+      final List<AggregatorFactory> aggregatorSpecs = query.getAggregatorSpecs();
+      final Comparator<?> comparator = query.getTopNMetricSpec()
+                                            .getComparator(aggregatorSpecs, query.getPostAggregatorSpecs());
+
+      // Position in the buffer of the aggregators of each dictionary id, or -1 if the id was not seen in the bucket.
+      final int[] recordPositions = new int[cardinality];
+      final int[] vectorPositions = new int[cursor.getMaxVectorSize()];
+      final int[] vectorRows = new int[cursor.getMaxVectorSize()];
+
+      return Sequences.withBaggage(
+          Sequences
+              .simple(granularizer.getBucketIterable())
+              .map(
+                  bucketInterval -> {
+                    Arrays.fill(recordPositions, -1);
+                    int nextRecordPosition = 0;
+
+                    while (!cursor.isDone()) {
+                      granularizer.setCurrentOffsets(bucketInterval);
+                      final int startOffset = granularizer.getStartOffset();
+                      final int endOffset = granularizer.getEndOffset();
+
+                      if (endOffset > startOffset) {
+                        final int[] ids = dimSelector.getRowVector();
+                        for (int i = startOffset; i < endOffset; i++) {
+                          final int id = ids[i];
+                          int position = recordPositions[id];
+                          if (position < 0) {
+                            position = nextRecordPosition;
+                            recordPositions[id] = position;
+                            aggregators.init(buffer, position);
+                            nextRecordPosition += numBytesPerRecord;
+                          }
+                          vectorPositions[i - startOffset] = position;
+                          vectorRows[i - startOffset] = i;
+                        }
+
+                        aggregators.aggregateVector(
+                            buffer,
+                            endOffset - startOffset,
+                            vectorPositions,
+                            startOffset == 0 ? null : vectorRows
+                        );
+                      }
+
+                      if (!granularizer.advanceCursorWithinBucket()) {
+                        break;
+                      }
+                    }
+
+                    final TopNResultBuilder resultBuilder = query.getTopNMetricSpec().getResultBuilder(
+                        granularity.toDateTime(bucketInterval.getStartMillis()),
+                        query.getDimensionSpec(),
+                        query.getThreshold(),
+                        comparator,
+                        aggregatorSpecs,
+                        query.getPostAggregatorSpecs()
+                    );
+
+                    for (int id = 0; id < cardinality; id++) {
+                      final int position = recordPositions[id];
+                      if (position >= 0) {
+                        final Object[] vals = new Object[aggregatorSpecs.size()];
+                        for (int j = 0; j < vals.length; j++) {
+                          vals[j] = aggregators.get(buffer, position, j);
+                        }
+                        // Output type must be STRING, see canVectorize(); so no need to convert value.
+                        resultBuilder.addEntry(dimSelector.lookupName(id), id, vals);
+                      }
+                    }
+
+                    return resultBuilder.build();
+                  }
+              ),
+          closer
+      );
+    }
+    catch (Throwable t1) {
+      try {
+        closer.close();
+      }
+      catch (Throwable t2) {
+        t1.addSuppressed(t2);
+      }
+      throw t1;
+    }
+  }
+}
@@ -30,7 +30,10 @@ import org.apache.druid.segment.column.BitmapIndex;
 import org.apache.druid.segment.column.ColumnCapabilities;
 import org.apache.druid.segment.column.ColumnHolder;
 import org.apache.druid.segment.column.DictionaryEncodedColumn;
+import org.apache.druid.segment.column.NgramIndex;
+import org.apache.druid.segment.column.NumericBitmapIndex;
 import org.apache.druid.segment.column.NumericColumn;
+import org.apache.druid.segment.column.ZoneMap;
 import org.apache.druid.segment.data.CloseableIndexed;
 import org.apache.druid.segment.data.IndexedIterable;
 
@@ -57,6 +60,11 @@ public class ColumnSelectorBitmapIndexSelector implements BitmapIndexSelector
     this.index = index;
   }
 
+  public VirtualColumns getVirtualColumns()
+  {
+    return virtualColumns;
+  }
+
   @Nullable
   @Override
   public CloseableIndexed<String> getDimensionValues(String dimension)
@@ -308,6 +316,54 @@ public class ColumnSelectorBitmapIndexSelector implements BitmapIndexSelector
     return columnHolder.getSpatialIndex().getRTree();
   }
 
+  @Nullable
+  @Override
+  public ZoneMap getZoneMap(String dimension)
+  {
+    if (isVirtualColumn(dimension)) {
+      return null;
+    }
+
+    final ColumnHolder columnHolder = index.getColumnHolder(dimension);
+    if (columnHolder == null || !columnHolder.getCapabilities().hasZoneMaps()) {
+      return null;
+    }
+
+    return columnHolder.getZoneMap();
+  }
+
+  @Nullable
+  @Override
+  public NumericBitmapIndex getNumericBitmapIndex(String dimension)
+  {
+    if (isVirtualColumn(dimension)) {
+      return null;
+    }
+
+    final ColumnHolder columnHolder = index.getColumnHolder(dimension);
+    if (columnHolder == null || !columnHolder.getCapabilities().hasNumericBitmapIndexes()) {
+      return null;
+    }
+
+    return columnHolder.getNumericBitmapIndex();
+  }
+
+  @Nullable
+  @Override
+  public NgramIndex getNgramIndex(String dimension)
+  {
+    if (isVirtualColumn(dimension)) {
+      return null;
+    }
+
+    final ColumnHolder columnHolder = index.getColumnHolder(dimension);
+    if (columnHolder == null || !columnHolder.getCapabilities().hasNgramIndexes()) {
+      return null;
+    }
+
+    return columnHolder.getNgramIndex();
+  }
+
   private boolean isVirtualColumn(final String columnName)
   {
     return virtualColumns.getVirtualColumn(columnName) != null;
@@ -53,4 +53,14 @@ public interface ColumnSelectorFactory extends ColumnInspector
   @Override
   @Nullable
   ColumnCapabilities getColumnCapabilities(String column);
+
+  /**
+   * Returns whether the given column is a virtual column of this factory, whose selectors compute values from other
+   * columns as they are read. Filters on such columns may fail on rows that other filters would have excluded, see
+   * {@link org.apache.druid.segment.filter.AndFilter}.
+   */
+  default boolean isVirtualColumn(String column)
+  {
+    return false;
+  }
 }
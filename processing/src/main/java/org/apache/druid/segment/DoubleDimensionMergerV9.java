@@ -29,7 +29,7 @@ public class DoubleDimensionMergerV9 extends NumericDimensionMergerV9
 
   DoubleDimensionMergerV9(String dimensionName, IndexSpec indexSpec, SegmentWriteOutMedium segmentWriteOutMedium)
   {
-    super(dimensionName, indexSpec, segmentWriteOutMedium);
+    super(dimensionName, ValueType.DOUBLE, indexSpec, segmentWriteOutMedium);
   }
 
   @Override
@@ -43,6 +43,8 @@ public class DoubleDimensionMergerV9 extends NumericDimensionMergerV9
   {
     final ColumnDescriptor.Builder builder = ColumnDescriptor.builder();
     builder.setValueType(ValueType.DOUBLE);
+    IndexMergerV9.addZoneMapSerde(builder, serializer);
+    addBitmapIndexSerde(builder);
     ColumnPartSerde serde = IndexMergerV9.createDoubleColumnPartSerde(serializer, indexSpec);
     builder.addSerde(serde);
     return builder.build();
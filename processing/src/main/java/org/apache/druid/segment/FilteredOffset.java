@@ -25,16 +25,36 @@ import org.apache.druid.query.filter.BooleanFilter;
 import org.apache.druid.query.filter.Filter;
 import org.apache.druid.query.filter.RowOffsetMatcherFactory;
 import org.apache.druid.query.filter.ValueMatcher;
+import org.apache.druid.query.filter.ZoneMatcher;
 import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
 import org.apache.druid.segment.data.Offset;
 import org.apache.druid.segment.data.ReadableOffset;
+import org.apache.druid.segment.data.ZoneMapSerializer;
 import org.apache.druid.segment.filter.BooleanValueMatcher;
 import org.roaringbitmap.IntIterator;
 
+import javax.annotation.Nullable;
+
 public final class FilteredOffset extends Offset
 {
+  /**
+   * Number of rows of the aligned blocks of rows checked at once with the {@link ZoneMatcher} of the filter, the same
+   * as the default size of the zones of {@link org.apache.druid.segment.column.ZoneMap}s.
+   */
+  private static final int ZONE_BLOCK_ROWS = ZoneMapSerializer.DEFAULT_ROWS_PER_ZONE;
+
   private final Offset baseOffset;
   private final ValueMatcher filterMatcher;
+  @Nullable
+  private final ZoneMatcher zoneMatcher;
+
+  /**
+   * The block of rows of the current row, from blockStart (inclusive) to blockEnd (exclusive), and whether any of its
+   * rows may match according to {@link #zoneMatcher}.
+   */
+  private int blockStart = 0;
+  private int blockEnd = 0;
+  private boolean blockMayMatch = true;
 
   FilteredOffset(
       Offset baseOffset,
@@ -64,20 +84,50 @@ public final class FilteredOffset extends Offset
         filterMatcher = postFilter.makeMatcher(columnSelectorFactory);
       }
     }
+    zoneMatcher = postFilter.makeZoneMatcher(bitmapIndexSelector);
     incrementIfNeededOnCreationOrReset();
   }
 
   @Override
   public void increment()
+  {
+    baseOffset.increment();
+    advanceToMatch();
+  }
+
+  /**
+   * Advances the base offset to the first row, starting from the current one, which matches the filter. The rows of
+   * the blocks ruled out by {@link #zoneMatcher} are skipped as a whole, without reading the values of the filtered
+   * columns.
+   */
+  private void advanceToMatch()
   {
     while (!Thread.currentThread().isInterrupted()) {
-      baseOffset.increment();
-      if (!baseOffset.withinBounds() || filterMatcher.matches()) {
+      if (!baseOffset.withinBounds()) {
         return;
       }
+      if (zoneMatcher != null && !currentBlockMayMatch()) {
+        baseOffset.skipRows(blockStart, blockEnd);
+      } else if (filterMatcher.matches()) {
+        return;
+      } else {
+        baseOffset.increment();
+      }
     }
   }
 
+  private boolean currentBlockMayMatch()
+  {
+    assert zoneMatcher != null;
+    final int currentOffset = baseOffset.getOffset();
+    if (currentOffset < blockStart || currentOffset >= blockEnd) {
+      blockStart = currentOffset - currentOffset % ZONE_BLOCK_ROWS;
+      blockEnd = blockStart + ZONE_BLOCK_ROWS;
+      blockMayMatch = zoneMatcher.mayMatch(blockStart, blockEnd);
+    }
+    return blockMayMatch;
+  }
+
   @Override
   public boolean withinBounds()
   {
@@ -94,13 +144,11 @@ public final class FilteredOffset extends Offset
   private void incrementIfNeededOnCreationOrReset()
   {
     if (baseOffset.withinBounds()) {
-      if (!filterMatcher.matches()) {
-        increment();
-        // increment() returns early if it detects the current Thread is interrupted. It will leave this
-        // FilteredOffset in an illegal state, because it may point to an offset that should be filtered. So must to
-        // call BaseQuery.checkInterrupted() and thereby throw a QueryInterruptedException.
-        BaseQuery.checkInterrupted();
-      }
+      advanceToMatch();
+      // advanceToMatch() returns early if it detects the current Thread is interrupted. It will leave this
+      // FilteredOffset in an illegal state, because it may point to an offset that should be filtered. So must to
+      // call BaseQuery.checkInterrupted() and thereby throw a QueryInterruptedException.
+      BaseQuery.checkInterrupted();
     }
   }
 
@@ -137,6 +185,7 @@ public final class FilteredOffset extends Offset
   {
     inspector.visit("baseOffset", baseOffset);
     inspector.visit("filterMatcher", filterMatcher);
+    inspector.visit("zoneMatcher", zoneMatcher);
   }
 
   private static class CursorOffsetHolderRowOffsetMatcherFactory implements RowOffsetMatcherFactory
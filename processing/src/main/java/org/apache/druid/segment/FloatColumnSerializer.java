@@ -36,10 +36,18 @@ public class FloatColumnSerializer implements GenericColumnSerializer<Object>
       String columnName,
       SegmentWriteOutMedium segmentWriteOutMedium,
       String filenameBase,
-      CompressionStrategy compression
+      CompressionStrategy compression,
+      CompressionFactory.FloatEncodingStrategy encoding
   )
   {
-    return new FloatColumnSerializer(columnName, segmentWriteOutMedium, filenameBase, IndexIO.BYTE_ORDER, compression);
+    return new FloatColumnSerializer(
+        columnName,
+        segmentWriteOutMedium,
+        filenameBase,
+        IndexIO.BYTE_ORDER,
+        compression,
+        encoding
+    );
   }
 
   private final String columnName;
@@ -47,6 +55,7 @@ public class FloatColumnSerializer implements GenericColumnSerializer<Object>
   private final String filenameBase;
   private final ByteOrder byteOrder;
   private final CompressionStrategy compression;
+  private final CompressionFactory.FloatEncodingStrategy encoding;
   private ColumnarFloatsSerializer writer;
 
   private FloatColumnSerializer(
@@ -54,7 +63,8 @@ public class FloatColumnSerializer implements GenericColumnSerializer<Object>
       SegmentWriteOutMedium segmentWriteOutMedium,
       String filenameBase,
       ByteOrder byteOrder,
-      CompressionStrategy compression
+      CompressionStrategy compression,
+      CompressionFactory.FloatEncodingStrategy encoding
   )
   {
     this.columnName = columnName;
@@ -62,6 +72,7 @@ public class FloatColumnSerializer implements GenericColumnSerializer<Object>
     this.filenameBase = filenameBase;
     this.byteOrder = byteOrder;
     this.compression = compression;
+    this.encoding = encoding;
   }
 
   @Override
@@ -72,7 +83,8 @@ public class FloatColumnSerializer implements GenericColumnSerializer<Object>
         segmentWriteOutMedium,
         StringUtils.format("%s.float_column", filenameBase),
         byteOrder,
-        compression
+        compression,
+        encoding
     );
     writer.open();
   }
@@ -49,6 +49,7 @@ public class FloatColumnSerializerV2 implements GenericColumnSerializer<Object>
       SegmentWriteOutMedium segmentWriteOutMedium,
       String filenameBase,
       CompressionStrategy compression,
+      CompressionFactory.FloatEncodingStrategy encoding,
       BitmapSerdeFactory bitmapSerdeFactory
   )
   {
@@ -58,6 +59,7 @@ public class FloatColumnSerializerV2 implements GenericColumnSerializer<Object>
         filenameBase,
         IndexIO.BYTE_ORDER,
         compression,
+        encoding,
         bitmapSerdeFactory
     );
   }
@@ -67,6 +69,7 @@ public class FloatColumnSerializerV2 implements GenericColumnSerializer<Object>
   private final String filenameBase;
   private final ByteOrder byteOrder;
   private final CompressionStrategy compression;
+  private final CompressionFactory.FloatEncodingStrategy encoding;
   private final BitmapSerdeFactory bitmapSerdeFactory;
 
   private ColumnarFloatsSerializer writer;
@@ -80,6 +83,7 @@ public class FloatColumnSerializerV2 implements GenericColumnSerializer<Object>
       String filenameBase,
       ByteOrder byteOrder,
       CompressionStrategy compression,
+      CompressionFactory.FloatEncodingStrategy encoding,
       BitmapSerdeFactory bitmapSerdeFactory
   )
   {
@@ -88,6 +92,7 @@ public class FloatColumnSerializerV2 implements GenericColumnSerializer<Object>
     this.filenameBase = filenameBase;
     this.byteOrder = byteOrder;
     this.compression = compression;
+    this.encoding = encoding;
     this.bitmapSerdeFactory = bitmapSerdeFactory;
   }
 
@@ -99,7 +104,8 @@ public class FloatColumnSerializerV2 implements GenericColumnSerializer<Object>
         segmentWriteOutMedium,
         StringUtils.format("%s.float_column", filenameBase),
         byteOrder,
-        compression
+        compression,
+        encoding
     );
     writer.open();
     nullValueBitmapWriter = new ByteBufferWriter<>(
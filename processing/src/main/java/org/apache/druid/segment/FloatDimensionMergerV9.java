@@ -29,7 +29,7 @@ public class FloatDimensionMergerV9 extends NumericDimensionMergerV9
 
   FloatDimensionMergerV9(String dimensionName, IndexSpec indexSpec, SegmentWriteOutMedium segmentWriteOutMedium)
   {
-    super(dimensionName, indexSpec, segmentWriteOutMedium);
+    super(dimensionName, ValueType.FLOAT, indexSpec, segmentWriteOutMedium);
   }
 
   @Override
@@ -43,6 +43,8 @@ public class FloatDimensionMergerV9 extends NumericDimensionMergerV9
   {
     final ColumnDescriptor.Builder builder = ColumnDescriptor.builder();
     builder.setValueType(ValueType.FLOAT);
+    IndexMergerV9.addZoneMapSerde(builder, serializer);
+    addBitmapIndexSerde(builder);
     ColumnPartSerde serde = IndexMergerV9.createFloatColumnPartSerde(serializer, indexSpec);
     builder.addSerde(serde);
     return builder.build();
@@ -27,6 +27,8 @@ import com.google.common.base.Strings;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -56,6 +58,7 @@ import org.apache.druid.segment.column.ValueType;
 import org.apache.druid.segment.data.BitmapSerde;
 import org.apache.druid.segment.data.BitmapSerdeFactory;
 import org.apache.druid.segment.data.CompressedColumnarLongsSupplier;
+import org.apache.druid.segment.data.DecompressedBlockCache;
 import org.apache.druid.segment.data.GenericIndexed;
 import org.apache.druid.segment.data.ImmutableRTreeObjectStrategy;
 import org.apache.druid.segment.data.IndexedIterable;
@@ -517,9 +520,24 @@ public class IndexIO
   {
     private final ColumnConfig columnConfig;
 
+    /**
+     * Deserialized columns of lazily loaded segments, keyed by the identity of their supplier, see
+     * {@link #makeLazyColumnSupplier}. Null if {@link ColumnConfig#lazyColumnCacheSize()} is not positive, the
+     * suppliers then memoize their column.
+     */
+    @Nullable
+    private final Cache<Supplier<ColumnHolder>, ColumnHolder> lazyColumnCache;
+
     V9IndexLoader(ColumnConfig columnConfig)
     {
       this.columnConfig = columnConfig;
+      final int lazyColumnCacheSize = columnConfig.lazyColumnCacheSize();
+      if (lazyColumnCacheSize > 0) {
+        // weak keys, so that the columns of dropped segments are released without waiting for their eviction
+        this.lazyColumnCache = CacheBuilder.newBuilder().weakKeys().maximumSize(lazyColumnCacheSize).build();
+      } else {
+        this.lazyColumnCache = null;
+      }
     }
 
     @Override
@@ -594,18 +612,7 @@ public class IndexIO
         ByteBuffer colBuffer = smooshedFiles.mapFile(columnName);
 
         if (lazy) {
-          columns.put(columnName, Suppliers.memoize(
-              () -> {
-                try {
-                  return deserializeColumn(mapper, colBuffer, smooshedFiles);
-                }
-                catch (IOException | RuntimeException e) {
-                  log.warn(e, "Throw exceptions when deserialize column [%s].", columnName);
-                  loadFailed.execute();
-                  throw Throwables.propagate(e);
-                }
-              }
-          ));
+          columns.put(columnName, makeLazyColumnSupplier(mapper, columnName, colBuffer, smooshedFiles, loadFailed));
         } else {
           ColumnHolder columnHolder = deserializeColumn(mapper, colBuffer, smooshedFiles);
           columns.put(columnName, () -> columnHolder);
@@ -616,18 +623,10 @@ public class IndexIO
       ByteBuffer timeBuffer = smooshedFiles.mapFile("__time");
 
       if (lazy) {
-        columns.put(ColumnHolder.TIME_COLUMN_NAME, Suppliers.memoize(
-            () -> {
-              try {
-                return deserializeColumn(mapper, timeBuffer, smooshedFiles);
-              }
-              catch (IOException | RuntimeException e) {
-                log.warn(e, "Throw exceptions when deserialize column [%s]", ColumnHolder.TIME_COLUMN_NAME);
-                loadFailed.execute();
-                throw Throwables.propagate(e);
-              }
-            }
-        ));
+        columns.put(
+            ColumnHolder.TIME_COLUMN_NAME,
+            makeLazyColumnSupplier(mapper, ColumnHolder.TIME_COLUMN_NAME, timeBuffer, smooshedFiles, loadFailed)
+        );
       } else {
         ColumnHolder columnHolder = deserializeColumn(mapper, timeBuffer, smooshedFiles);
         columns.put(ColumnHolder.TIME_COLUMN_NAME, () -> columnHolder);
@@ -648,6 +647,49 @@ public class IndexIO
       return index;
     }
 
+    /**
+     * Returns a supplier deserializing the given column on first access. The buffer of the column is duplicated on
+     * every deserialization, which happens again if the column is evicted from {@link #lazyColumnCache}, and keeps
+     * the ids of the column parts in the {@link DecompressedBlockCache}.
+     */
+    private Supplier<ColumnHolder> makeLazyColumnSupplier(
+        ObjectMapper mapper,
+        String columnName,
+        ByteBuffer colBuffer,
+        SmooshedFileMapper smooshedFiles,
+        SegmentLazyLoadFailCallback loadFailed
+    )
+    {
+      final long blockCacheColumnId = DecompressedBlockCache.nextColumnId();
+      final Supplier<ColumnHolder> deserializer = () -> {
+        try (DecompressedBlockCache.PartIds ignored = DecompressedBlockCache.deserializingColumn(blockCacheColumnId)) {
+          return deserializeColumn(mapper, colBuffer.duplicate(), smooshedFiles);
+        }
+        catch (IOException | RuntimeException e) {
+          log.warn(e, "Throw exceptions when deserialize column [%s].", columnName);
+          loadFailed.execute();
+          throw Throwables.propagate(e);
+        }
+      };
+      if (lazyColumnCache == null) {
+        return Suppliers.memoize(deserializer);
+      }
+      return new Supplier<ColumnHolder>()
+      {
+        @Override
+        public ColumnHolder get()
+        {
+          ColumnHolder columnHolder = lazyColumnCache.getIfPresent(this);
+          if (columnHolder == null) {
+            // concurrent first accesses may deserialize the column more than once, which is harmless
+            columnHolder = deserializer.get();
+            lazyColumnCache.put(this, columnHolder);
+          }
+          return columnHolder;
+        }
+      };
+    }
+
     private ColumnHolder deserializeColumn(ObjectMapper mapper, ByteBuffer byteBuffer, SmooshedFileMapper smooshedFiles)
         throws IOException
     {
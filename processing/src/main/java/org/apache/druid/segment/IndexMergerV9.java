@@ -20,6 +20,7 @@
 package org.apache.druid.segment;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
@@ -60,6 +61,7 @@ import org.apache.druid.segment.serde.FloatNumericColumnPartSerde;
 import org.apache.druid.segment.serde.FloatNumericColumnPartSerdeV2;
 import org.apache.druid.segment.serde.LongNumericColumnPartSerde;
 import org.apache.druid.segment.serde.LongNumericColumnPartSerdeV2;
+import org.apache.druid.segment.serde.ZoneMapColumnPartSerde;
 import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
 import org.apache.druid.segment.writeout.SegmentWriteOutMediumFactory;
 import org.joda.time.DateTime;
@@ -188,22 +190,25 @@ public class IndexMergerV9 implements IndexMerger
 
     List<Metadata> metadataList = Lists.transform(adapters, IndexableAdapter::getMetadata);
 
-    final Metadata segmentMetadata;
+    final Metadata mergedMetadata;
     if (metricAggs != null) {
       AggregatorFactory[] combiningMetricAggs = new AggregatorFactory[metricAggs.length];
       for (int i = 0; i < metricAggs.length; i++) {
         combiningMetricAggs[i] = metricAggs[i].getCombiningFactory();
       }
-      segmentMetadata = Metadata.merge(
+      mergedMetadata = Metadata.merge(
           metadataList,
           combiningMetricAggs
       );
     } else {
-      segmentMetadata = Metadata.merge(
+      mergedMetadata = Metadata.merge(
           metadataList,
           null
       );
     }
+    final Metadata segmentMetadata = mergedMetadata == null
+                                     ? null
+                                     : mergedMetadata.withSortOrder(mergeSortOrder(adapters, mergedDimensions));
 
     Closer closer = Closer.create();
     try {
@@ -318,6 +323,43 @@ public class IndexMergerV9 implements IndexMerger
     }
   }
 
+  /**
+   * Rows are merged in time and merged dimensions order. The merged rows are sorted in that order if the rows of every
+   * adapter are sorted by time and its dimensions, in the same relative order as in the merged dimensions. Dimensions
+   * missing from an adapter are null in all of its rows, so they do not change its order.
+   */
+  @Nullable
+  @VisibleForTesting
+  static List<String> mergeSortOrder(final List<IndexableAdapter> adapters, final List<String> mergedDimensions)
+  {
+    for (IndexableAdapter adapter : adapters) {
+      final Metadata metadata = adapter.getMetadata();
+      final List<String> sortOrder = metadata == null ? null : metadata.getSortOrder();
+      if (sortOrder == null
+          || sortOrder.isEmpty()
+          || !ColumnHolder.TIME_COLUMN_NAME.equals(sortOrder.get(0))
+          || !isSubsequence(adapter.getDimensionNames(), sortOrder.subList(1, sortOrder.size()))
+          || !isSubsequence(adapter.getDimensionNames(), mergedDimensions)) {
+        return null;
+      }
+    }
+    return Metadata.makeSortOrder(mergedDimensions);
+  }
+
+  private static boolean isSubsequence(final List<String> subsequence, final List<String> sequence)
+  {
+    int index = 0;
+    for (String element : subsequence) {
+      while (index < sequence.size() && !sequence.get(index).equals(element)) {
+        index++;
+      }
+      if (index++ == sequence.size()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private void makeMetadataBinary(
       final FileSmoosher v9Smoosher,
       final ProgressIndicator progress,
@@ -414,14 +456,17 @@ public class IndexMergerV9 implements IndexMerger
       switch (type) {
         case LONG:
           builder.setValueType(ValueType.LONG);
+          addZoneMapSerde(builder, writer);
           builder.addSerde(createLongColumnPartSerde(writer, indexSpec));
           break;
         case FLOAT:
           builder.setValueType(ValueType.FLOAT);
+          addZoneMapSerde(builder, writer);
           builder.addSerde(createFloatColumnPartSerde(writer, indexSpec));
           break;
         case DOUBLE:
           builder.setValueType(ValueType.DOUBLE);
+          addZoneMapSerde(builder, writer);
           builder.addSerde(createDoubleColumnPartSerde(writer, indexSpec));
           break;
         case COMPLEX:
@@ -507,11 +552,9 @@ public class IndexMergerV9 implements IndexMerger
     progress.startSection(section);
     long startTime = System.currentTimeMillis();
 
-    final ColumnDescriptor serdeficator = ColumnDescriptor
-        .builder()
-        .setValueType(ValueType.LONG)
-        .addSerde(createLongColumnPartSerde(timeWriter, indexSpec))
-        .build();
+    final ColumnDescriptor.Builder builder = ColumnDescriptor.builder().setValueType(ValueType.LONG);
+    addZoneMapSerde(builder, timeWriter);
+    final ColumnDescriptor serdeficator = builder.addSerde(createLongColumnPartSerde(timeWriter, indexSpec)).build();
     makeColumn(v9Smoosher, ColumnHolder.TIME_COLUMN_NAME, serdeficator);
     log.debug("Completed time column in %,d millis.", System.currentTimeMillis() - startTime);
     progress.stopSection(section);
@@ -693,9 +736,10 @@ public class IndexMergerV9 implements IndexMerger
       IndexSpec indexSpec
   )
   {
+    final GenericColumnSerializer serializer;
     // If using default values for null use LongColumnSerializer to allow rollback to previous versions.
     if (NullHandling.replaceWithDefault()) {
-      return LongColumnSerializer.create(
+      serializer = LongColumnSerializer.create(
           columnName,
           segmentWriteOutMedium,
           columnName,
@@ -703,7 +747,7 @@ public class IndexMergerV9 implements IndexMerger
           indexSpec.getLongEncoding()
       );
     } else {
-      return LongColumnSerializerV2.create(
+      serializer = LongColumnSerializerV2.create(
           columnName,
           segmentWriteOutMedium,
           columnName,
@@ -712,6 +756,7 @@ public class IndexMergerV9 implements IndexMerger
           indexSpec.getBitmapSerdeFactory()
       );
     }
+    return maybeWithZoneMap(serializer, ValueType.LONG, segmentWriteOutMedium, indexSpec);
   }
 
   static GenericColumnSerializer createDoubleColumnSerializer(
@@ -720,23 +765,27 @@ public class IndexMergerV9 implements IndexMerger
       IndexSpec indexSpec
   )
   {
+    final GenericColumnSerializer serializer;
     // If using default values for null use DoubleColumnSerializer to allow rollback to previous versions.
     if (NullHandling.replaceWithDefault()) {
-      return DoubleColumnSerializer.create(
+      serializer = DoubleColumnSerializer.create(
           columnName,
           segmentWriteOutMedium,
           columnName,
-          indexSpec.getMetricCompression()
+          indexSpec.getMetricCompression(),
+          indexSpec.getFloatEncoding()
       );
     } else {
-      return DoubleColumnSerializerV2.create(
+      serializer = DoubleColumnSerializerV2.create(
           columnName,
           segmentWriteOutMedium,
           columnName,
           indexSpec.getMetricCompression(),
+          indexSpec.getFloatEncoding(),
           indexSpec.getBitmapSerdeFactory()
       );
     }
+    return maybeWithZoneMap(serializer, ValueType.DOUBLE, segmentWriteOutMedium, indexSpec);
   }
 
   static GenericColumnSerializer createFloatColumnSerializer(
@@ -745,23 +794,54 @@ public class IndexMergerV9 implements IndexMerger
       IndexSpec indexSpec
   )
   {
+    final GenericColumnSerializer serializer;
     // If using default values for null use FloatColumnSerializer to allow rollback to previous versions.
     if (NullHandling.replaceWithDefault()) {
-      return FloatColumnSerializer.create(
+      serializer = FloatColumnSerializer.create(
           columnName,
           segmentWriteOutMedium,
           columnName,
-          indexSpec.getMetricCompression()
+          indexSpec.getMetricCompression(),
+          indexSpec.getFloatEncoding()
       );
     } else {
-      return FloatColumnSerializerV2.create(
+      serializer = FloatColumnSerializerV2.create(
           columnName,
           segmentWriteOutMedium,
           columnName,
           indexSpec.getMetricCompression(),
+          indexSpec.getFloatEncoding(),
           indexSpec.getBitmapSerdeFactory()
       );
     }
+    return maybeWithZoneMap(serializer, ValueType.FLOAT, segmentWriteOutMedium, indexSpec);
+  }
+
+  private static GenericColumnSerializer maybeWithZoneMap(
+      GenericColumnSerializer serializer,
+      ValueType type,
+      SegmentWriteOutMedium segmentWriteOutMedium,
+      IndexSpec indexSpec
+  )
+  {
+    if (indexSpec.isNumericZoneMaps()) {
+      return new ZoneMapColumnSerializer<>(serializer, type, segmentWriteOutMedium);
+    }
+    return serializer;
+  }
+
+  /**
+   * Adds the zone map part of a numeric column written by a serializer from {@link #createLongColumnSerializer},
+   * {@link #createDoubleColumnSerializer} or {@link #createFloatColumnSerializer}, if it has one. It must be added
+   * before the part holding the values, see {@link ZoneMapColumnPartSerde}.
+   */
+  static void addZoneMapSerde(ColumnDescriptor.Builder builder, GenericColumnSerializer serializer)
+  {
+    if (serializer instanceof ZoneMapColumnSerializer) {
+      builder.addSerde(
+          ZoneMapColumnPartSerde.forSerializer(((ZoneMapColumnSerializer<?>) serializer).getZoneMapSerializer())
+      );
+    }
   }
 
   private void writeDimValuesAndSetupDimConversion(
@@ -30,6 +30,7 @@ import org.apache.druid.segment.data.BitmapSerde;
 import org.apache.druid.segment.data.BitmapSerdeFactory;
 import org.apache.druid.segment.data.CompressionFactory;
 import org.apache.druid.segment.data.CompressionStrategy;
+import org.apache.druid.segment.data.StringEncodingStrategy;
 import org.apache.druid.segment.loading.SegmentizerFactory;
 
 import javax.annotation.Nullable;
@@ -49,6 +50,8 @@ public class IndexSpec
   public static final CompressionStrategy DEFAULT_METRIC_COMPRESSION = CompressionStrategy.DEFAULT_COMPRESSION_STRATEGY;
   public static final CompressionStrategy DEFAULT_DIMENSION_COMPRESSION = CompressionStrategy.DEFAULT_COMPRESSION_STRATEGY;
   public static final CompressionFactory.LongEncodingStrategy DEFAULT_LONG_ENCODING = CompressionFactory.DEFAULT_LONG_ENCODING_STRATEGY;
+  public static final CompressionFactory.FloatEncodingStrategy DEFAULT_FLOAT_ENCODING = CompressionFactory.DEFAULT_FLOAT_ENCODING_STRATEGY;
+  public static final StringEncodingStrategy DEFAULT_STRING_DICTIONARY_ENCODING = StringEncodingStrategy.DEFAULT;
 
   private static final Set<CompressionStrategy> METRIC_COMPRESSION = Sets.newHashSet(
       Arrays.asList(CompressionStrategy.values())
@@ -66,6 +69,11 @@ public class IndexSpec
   private final CompressionStrategy dimensionCompression;
   private final CompressionStrategy metricCompression;
   private final CompressionFactory.LongEncodingStrategy longEncoding;
+  private final CompressionFactory.FloatEncodingStrategy floatEncoding;
+  private final StringEncodingStrategy stringDictionaryEncoding;
+  private final boolean numericZoneMaps;
+  private final boolean numericBitmapIndexes;
+  private final boolean stringNgramIndexes;
 
   @Nullable
   private final SegmentizerFactory segmentLoader;
@@ -89,6 +97,28 @@ public class IndexSpec
     this(bitmapSerdeFactory, dimensionCompression, metricCompression, longEncoding, null);
   }
 
+  public IndexSpec(
+      @Nullable BitmapSerdeFactory bitmapSerdeFactory,
+      @Nullable CompressionStrategy dimensionCompression,
+      @Nullable CompressionStrategy metricCompression,
+      @Nullable CompressionFactory.LongEncodingStrategy longEncoding,
+      @Nullable SegmentizerFactory segmentLoader
+  )
+  {
+    this(
+        bitmapSerdeFactory,
+        dimensionCompression,
+        metricCompression,
+        longEncoding,
+        null,
+        null,
+        null,
+        null,
+        null,
+        segmentLoader
+    );
+  }
+
   /**
    * Creates an IndexSpec with the given storage format settings.
    *
@@ -105,6 +135,21 @@ public class IndexSpec
    *
    * @param longEncoding encoding strategy for metric and dimension columns with type long, null to use the default.
    *                     Defaults to {@link CompressionFactory#DEFAULT_LONG_ENCODING_STRATEGY}
+   *
+   * @param floatEncoding encoding strategy for metric and dimension columns with type float or double, null to use the
+   *                      default. Defaults to {@link CompressionFactory#DEFAULT_FLOAT_ENCODING_STRATEGY}
+   *
+   * @param stringDictionaryEncoding format of the value dictionaries of string columns, null to use the default.
+   *                                 Defaults to {@link StringEncodingStrategy#DEFAULT}
+   *
+   * @param numericZoneMaps whether to write the {@link org.apache.druid.segment.column.ZoneMap} of the long, float and
+   *                        double columns, null to use the default. Defaults to false
+   *
+   * @param numericBitmapIndexes whether to write the {@link org.apache.druid.segment.column.NumericBitmapIndex} of the
+   *                             long, float and double dimensions, null to use the default. Defaults to false
+   *
+   * @param stringNgramIndexes whether to write the {@link org.apache.druid.segment.column.NgramIndex} of the string
+   *                           dimensions with bitmap indexes, null to use the default. Defaults to false
    */
   @JsonCreator
   public IndexSpec(
@@ -112,6 +157,11 @@ public class IndexSpec
       @JsonProperty("dimensionCompression") @Nullable CompressionStrategy dimensionCompression,
       @JsonProperty("metricCompression") @Nullable CompressionStrategy metricCompression,
       @JsonProperty("longEncoding") @Nullable CompressionFactory.LongEncodingStrategy longEncoding,
+      @JsonProperty("floatEncoding") @Nullable CompressionFactory.FloatEncodingStrategy floatEncoding,
+      @JsonProperty("stringDictionaryEncoding") @Nullable StringEncodingStrategy stringDictionaryEncoding,
+      @JsonProperty("numericZoneMaps") @Nullable Boolean numericZoneMaps,
+      @JsonProperty("numericBitmapIndexes") @Nullable Boolean numericBitmapIndexes,
+      @JsonProperty("stringNgramIndexes") @Nullable Boolean stringNgramIndexes,
       @JsonProperty("segmentLoader") @Nullable SegmentizerFactory segmentLoader
   )
   {
@@ -130,6 +180,13 @@ public class IndexSpec
     this.dimensionCompression = dimensionCompression == null ? DEFAULT_DIMENSION_COMPRESSION : dimensionCompression;
     this.metricCompression = metricCompression == null ? DEFAULT_METRIC_COMPRESSION : metricCompression;
     this.longEncoding = longEncoding == null ? DEFAULT_LONG_ENCODING : longEncoding;
+    this.floatEncoding = floatEncoding == null ? DEFAULT_FLOAT_ENCODING : floatEncoding;
+    this.stringDictionaryEncoding = stringDictionaryEncoding == null
+                                    ? DEFAULT_STRING_DICTIONARY_ENCODING
+                                    : stringDictionaryEncoding;
+    this.numericZoneMaps = numericZoneMaps != null && numericZoneMaps;
+    this.numericBitmapIndexes = numericBitmapIndexes != null && numericBitmapIndexes;
+    this.stringNgramIndexes = stringNgramIndexes != null && stringNgramIndexes;
     this.segmentLoader = segmentLoader;
   }
 
@@ -157,6 +214,36 @@ public class IndexSpec
     return longEncoding;
   }
 
+  @JsonProperty
+  public CompressionFactory.FloatEncodingStrategy getFloatEncoding()
+  {
+    return floatEncoding;
+  }
+
+  @JsonProperty
+  public StringEncodingStrategy getStringDictionaryEncoding()
+  {
+    return stringDictionaryEncoding;
+  }
+
+  @JsonProperty
+  public boolean isNumericZoneMaps()
+  {
+    return numericZoneMaps;
+  }
+
+  @JsonProperty
+  public boolean isNumericBitmapIndexes()
+  {
+    return numericBitmapIndexes;
+  }
+
+  @JsonProperty
+  public boolean isStringNgramIndexes()
+  {
+    return stringNgramIndexes;
+  }
+
   @JsonProperty
   @Nullable
   public SegmentizerFactory getSegmentLoader()
@@ -186,13 +273,29 @@ public class IndexSpec
            dimensionCompression == indexSpec.dimensionCompression &&
            metricCompression == indexSpec.metricCompression &&
            longEncoding == indexSpec.longEncoding &&
+           floatEncoding == indexSpec.floatEncoding &&
+           Objects.equals(stringDictionaryEncoding, indexSpec.stringDictionaryEncoding) &&
+           numericZoneMaps == indexSpec.numericZoneMaps &&
+           numericBitmapIndexes == indexSpec.numericBitmapIndexes &&
+           stringNgramIndexes == indexSpec.stringNgramIndexes &&
            Objects.equals(segmentLoader, indexSpec.segmentLoader);
   }
 
   @Override
   public int hashCode()
   {
-    return Objects.hash(bitmapSerdeFactory, dimensionCompression, metricCompression, longEncoding, segmentLoader);
+    return Objects.hash(
+        bitmapSerdeFactory,
+        dimensionCompression,
+        metricCompression,
+        longEncoding,
+        floatEncoding,
+        stringDictionaryEncoding,
+        numericZoneMaps,
+        numericBitmapIndexes,
+        stringNgramIndexes,
+        segmentLoader
+    );
   }
 
   @Override
@@ -203,6 +306,11 @@ public class IndexSpec
            ", dimensionCompression=" + dimensionCompression +
            ", metricCompression=" + metricCompression +
            ", longEncoding=" + longEncoding +
+           ", floatEncoding=" + floatEncoding +
+           ", stringDictionaryEncoding=" + stringDictionaryEncoding +
+           ", numericZoneMaps=" + numericZoneMaps +
+           ", numericBitmapIndexes=" + numericBitmapIndexes +
+           ", stringNgramIndexes=" + stringNgramIndexes +
            ", segmentLoader=" + segmentLoader +
            '}';
   }
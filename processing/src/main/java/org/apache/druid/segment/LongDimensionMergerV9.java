@@ -29,7 +29,7 @@ public class LongDimensionMergerV9 extends NumericDimensionMergerV9
 
   LongDimensionMergerV9(String dimensionName, IndexSpec indexSpec, SegmentWriteOutMedium segmentWriteOutMedium)
   {
-    super(dimensionName, indexSpec, segmentWriteOutMedium);
+    super(dimensionName, ValueType.LONG, indexSpec, segmentWriteOutMedium);
   }
 
   @Override
@@ -43,6 +43,8 @@ public class LongDimensionMergerV9 extends NumericDimensionMergerV9
   {
     final ColumnDescriptor.Builder builder = ColumnDescriptor.builder();
     builder.setValueType(ValueType.LONG);
+    IndexMergerV9.addZoneMapSerde(builder, serializer);
+    addBitmapIndexSerde(builder);
     ColumnPartSerde serde = IndexMergerV9.createLongColumnPartSerde(serializer, indexSpec);
     builder.addSerde(serde);
     return builder.build();
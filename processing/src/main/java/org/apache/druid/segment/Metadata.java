@@ -19,11 +19,13 @@
 
 package org.apache.druid.segment;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.apache.druid.data.input.impl.TimestampSpec;
 import org.apache.druid.guice.annotations.PublicApi;
 import org.apache.druid.java.util.common.granularity.Granularity;
 import org.apache.druid.query.aggregation.AggregatorFactory;
+import org.apache.druid.segment.column.ColumnHolder;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
@@ -50,13 +52,28 @@ public class Metadata
   private final Granularity queryGranularity;
   @Nullable
   private final Boolean rollup;
+  @Nullable
+  private final List<String> sortOrder;
 
+  public Metadata(
+      @Nullable Map<String, Object> container,
+      @Nullable AggregatorFactory[] aggregators,
+      @Nullable TimestampSpec timestampSpec,
+      @Nullable Granularity queryGranularity,
+      @Nullable Boolean rollup
+  )
+  {
+    this(container, aggregators, timestampSpec, queryGranularity, rollup, null);
+  }
+
+  @JsonCreator
   public Metadata(
       @JsonProperty("container") @Nullable Map<String, Object> container,
       @JsonProperty("aggregators") @Nullable AggregatorFactory[] aggregators,
       @JsonProperty("timestampSpec") @Nullable TimestampSpec timestampSpec,
       @JsonProperty("queryGranularity") @Nullable Granularity queryGranularity,
-      @JsonProperty("rollup") @Nullable Boolean rollup
+      @JsonProperty("rollup") @Nullable Boolean rollup,
+      @JsonProperty("sortOrder") @Nullable List<String> sortOrder
   )
   {
     this.container = container == null ? new ConcurrentHashMap<>() : container;
@@ -64,6 +81,7 @@ public class Metadata
     this.timestampSpec = timestampSpec;
     this.queryGranularity = queryGranularity;
     this.rollup = rollup;
+    this.sortOrder = sortOrder;
   }
 
   @JsonProperty
@@ -100,6 +118,38 @@ public class Metadata
     return rollup;
   }
 
+  /**
+   * Columns the rows are sorted by, starting with {@link ColumnHolder#TIME_COLUMN_NAME}
+   * and followed by dimensions in the order of the dimensions of the segment, or null if the row order is unknown.
+   * Within each timestamp, the rows of a segment with a sort order are clustered by the values of its leading
+   * dimension, which cursors use to skip to the rows matching an equality filter on it.
+   */
+  @JsonProperty
+  @Nullable
+  public List<String> getSortOrder()
+  {
+    return sortOrder;
+  }
+
+  /**
+   * Sort order of rows sorted by time, then by the given dimensions.
+   */
+  public static List<String> makeSortOrder(List<String> dimensions)
+  {
+    final List<String> sortOrder = new ArrayList<>(dimensions.size() + 1);
+    sortOrder.add(ColumnHolder.TIME_COLUMN_NAME);
+    sortOrder.addAll(dimensions);
+    return sortOrder;
+  }
+
+  /**
+   * Returns a copy of this metadata, sharing the same container, with the given sort order.
+   */
+  public Metadata withSortOrder(@Nullable List<String> sortOrder)
+  {
+    return new Metadata(container, aggregators, timestampSpec, queryGranularity, rollup, sortOrder);
+  }
+
   public Metadata putAll(@Nullable Map<String, Object> other)
   {
     if (other != null) {
@@ -124,6 +174,7 @@ public class Metadata
   // arbitrary key-value pairs from the metadata just follow the semantics of last one wins if same
   // key exists in multiple input Metadata containers
   // for others e.g. Aggregators, appropriate merging is done
+  // sort order is not merged, it depends on how the rows are merged, see IndexMergerV9
   @Nullable
   public static Metadata merge(
       @Nullable List<Metadata> toBeMerged,
@@ -228,13 +279,14 @@ public class Metadata
            Arrays.equals(aggregators, metadata.aggregators) &&
            Objects.equals(timestampSpec, metadata.timestampSpec) &&
            Objects.equals(queryGranularity, metadata.queryGranularity) &&
-           Objects.equals(rollup, metadata.rollup);
+           Objects.equals(rollup, metadata.rollup) &&
+           Objects.equals(sortOrder, metadata.sortOrder);
   }
 
   @Override
   public int hashCode()
   {
-    return Objects.hash(container, Arrays.hashCode(aggregators), timestampSpec, queryGranularity, rollup);
+    return Objects.hash(container, Arrays.hashCode(aggregators), timestampSpec, queryGranularity, rollup, sortOrder);
   }
 
   @Override
@@ -246,6 +298,7 @@ public class Metadata
            ", timestampSpec=" + timestampSpec +
            ", queryGranularity=" + queryGranularity +
            ", rollup=" + rollup +
+           ", sortOrder=" + sortOrder +
            '}';
   }
 }
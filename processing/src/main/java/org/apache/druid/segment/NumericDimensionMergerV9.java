@@ -19,6 +19,11 @@
 
 package org.apache.druid.segment;
 
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.segment.column.ColumnDescriptor;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.data.NumericBitmapIndexSerializer;
+import org.apache.druid.segment.serde.NumericBitmapIndexColumnPartSerde;
 import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
 
 import javax.annotation.Nullable;
@@ -36,9 +41,12 @@ public abstract class NumericDimensionMergerV9 implements DimensionMergerV9
   protected final SegmentWriteOutMedium segmentWriteOutMedium;
 
   protected final GenericColumnSerializer serializer;
+  @Nullable
+  private final NumericBitmapIndexSerializer bitmapIndexSerializer;
 
   NumericDimensionMergerV9(
       String dimensionName,
+      ValueType type,
       IndexSpec indexSpec,
       SegmentWriteOutMedium segmentWriteOutMedium
   )
@@ -47,6 +55,17 @@ public abstract class NumericDimensionMergerV9 implements DimensionMergerV9
     this.indexSpec = indexSpec;
     this.segmentWriteOutMedium = segmentWriteOutMedium;
 
+    if (indexSpec.isNumericBitmapIndexes()) {
+      bitmapIndexSerializer = new NumericBitmapIndexSerializer(
+          type,
+          dimensionName,
+          indexSpec.getBitmapSerdeFactory(),
+          segmentWriteOutMedium
+      );
+    } else {
+      bitmapIndexSerializer = null;
+    }
+
     try {
       serializer = setupEncodedValueWriter();
       serializer.open();
@@ -77,12 +96,35 @@ public abstract class NumericDimensionMergerV9 implements DimensionMergerV9
   public final void processMergedRow(ColumnValueSelector selector) throws IOException
   {
     serializer.serialize(selector);
+    if (bitmapIndexSerializer != null) {
+      if (!NullHandling.replaceWithDefault() && selector.isNull()) {
+        bitmapIndexSerializer.addNull();
+      } else if (bitmapIndexSerializer.getType() == ValueType.LONG) {
+        bitmapIndexSerializer.addLong(selector.getLong());
+      } else if (bitmapIndexSerializer.getType() == ValueType.FLOAT) {
+        bitmapIndexSerializer.addDouble(selector.getFloat());
+      } else {
+        bitmapIndexSerializer.addDouble(selector.getDouble());
+      }
+    }
   }
 
   @Override
   public final void writeIndexes(@Nullable List<IntBuffer> segmentRowNumConversions)
   {
-    // numeric values have no indices to write
+    // the bitmap index, if any, is built from the merged rows and written with the column
+  }
+
+  /**
+   * Adds the part holding the bitmap index of the column if {@link IndexSpec#isNumericBitmapIndexes()}, unless the
+   * column has too many distinct values to be indexed, see {@link NumericBitmapIndexSerializer#isOverMaxCardinality()}.
+   * Like {@link IndexMergerV9#addZoneMapSerde}, it must be called before adding the part holding the values.
+   */
+  protected void addBitmapIndexSerde(ColumnDescriptor.Builder builder)
+  {
+    if (bitmapIndexSerializer != null && !bitmapIndexSerializer.isOverMaxCardinality()) {
+      builder.addSerde(NumericBitmapIndexColumnPartSerde.forSerializer(bitmapIndexSerializer));
+    }
   }
 
   @Override
@@ -197,4 +197,10 @@ public class QueryableIndexColumnSelectorFactory implements ColumnSelectorFactor
 
     return QueryableIndexStorageAdapter.getColumnCapabilities(index, columnName);
   }
+
+  @Override
+  public boolean isVirtualColumn(String columnName)
+  {
+    return virtualColumns.exists(columnName);
+  }
 }
@@ -24,24 +24,31 @@ import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.common.config.NullHandling;
 import org.apache.druid.java.util.common.granularity.Granularity;
 import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.java.util.common.guava.Sequences;
 import org.apache.druid.java.util.common.io.Closer;
 import org.apache.druid.query.BaseQuery;
+import org.apache.druid.query.DefaultBitmapResultFactory;
 import org.apache.druid.query.filter.Filter;
 import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
 import org.apache.druid.segment.column.BaseColumn;
 import org.apache.druid.segment.column.ColumnHolder;
+import org.apache.druid.segment.column.DictionaryEncodedColumn;
 import org.apache.druid.segment.column.NumericColumn;
 import org.apache.druid.segment.data.Offset;
 import org.apache.druid.segment.data.ReadableOffset;
+import org.apache.druid.segment.filter.Filters;
+import org.apache.druid.segment.filter.SelectorFilter;
 import org.apache.druid.segment.historical.HistoricalCursor;
 import org.apache.druid.segment.vector.BitmapVectorOffset;
 import org.apache.druid.segment.vector.FilteredVectorOffset;
 import org.apache.druid.segment.vector.NoFilterVectorOffset;
 import org.apache.druid.segment.vector.QueryableIndexVectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.RowRangesVectorOffset;
 import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
 import org.apache.druid.segment.vector.VectorCursor;
 import org.apache.druid.segment.vector.VectorOffset;
@@ -50,11 +57,19 @@ import org.joda.time.Interval;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.Map;
 
 public class QueryableIndexCursorSequenceBuilder
 {
+  /**
+   * Maximum number of distinct timestamps in which rows matching a {@link #clusteredFilter} are searched. Beyond that,
+   * the filter is applied with its bitmap index instead.
+   */
+  @VisibleForTesting
+  static final int MAX_CLUSTERED_TIME_RUNS = 1024;
+
   private final QueryableIndex index;
   private final Interval interval;
   private final VirtualColumns virtualColumns;
@@ -66,6 +81,8 @@ public class QueryableIndexCursorSequenceBuilder
   @Nullable
   private final Filter postFilter;
   @Nullable
+  private final SelectorFilter clusteredFilter;
+  @Nullable
   private final ColumnSelectorBitmapIndexSelector bitmapIndexSelector;
 
   public QueryableIndexCursorSequenceBuilder(
@@ -77,6 +94,7 @@ public class QueryableIndexCursorSequenceBuilder
       long maxDataTimestamp,
       boolean descending,
       @Nullable Filter postFilter,
+      @Nullable SelectorFilter clusteredFilter,
       @Nullable ColumnSelectorBitmapIndexSelector bitmapIndexSelector
   )
   {
@@ -88,14 +106,40 @@ public class QueryableIndexCursorSequenceBuilder
     this.maxDataTimestamp = maxDataTimestamp;
     this.descending = descending;
     this.postFilter = postFilter;
+    this.clusteredFilter = clusteredFilter;
     this.bitmapIndexSelector = bitmapIndexSelector;
   }
 
   public Sequence<Cursor> build(final Granularity gran)
   {
+    // Column caches shared amongst all cursors in this sequence.
+    final Map<String, BaseColumn> columnCache = new HashMap<>();
+
+    final NumericColumn timestamps = (NumericColumn) index.getColumnHolder(ColumnHolder.TIME_COLUMN_NAME).getColumn();
+
+    final Closer closer = Closer.create();
+    closer.register(timestamps);
+
+    final int[] clusteredRows;
+    if (clusteredFilter == null) {
+      clusteredRows = null;
+    } else {
+      final int startRow = interval.getStartMillis() > minDataTimestamp
+                           ? timeSearch(timestamps, interval.getStartMillis(), 0, index.getNumRows())
+                           : 0;
+      final int endRow = interval.getEndMillis() <= maxDataTimestamp
+                         ? timeSearch(timestamps, interval.getEndMillis(), startRow, index.getNumRows())
+                         : index.getNumRows();
+      clusteredRows = searchClusteredRows(timestamps, startRow, endRow);
+    }
+    final ImmutableBitmap filterBitmap = clusteredRows == null ? getFilterBitmap() : this.filterBitmap;
+    final Filter postFilter = clusteredRows == null ? getPostFilter() : this.postFilter;
+
     final Offset baseOffset;
 
-    if (filterBitmap == null) {
+    if (clusteredRows != null) {
+      baseOffset = new RowRangesOffset(clusteredRows, descending);
+    } else if (filterBitmap == null) {
       baseOffset = descending
                    ? new SimpleDescendingOffset(index.getNumRows())
                    : new SimpleAscendingOffset(index.getNumRows());
@@ -103,14 +147,6 @@ public class QueryableIndexCursorSequenceBuilder
       baseOffset = BitmapOffset.of(filterBitmap, descending, index.getNumRows());
     }
 
-    // Column caches shared amongst all cursors in this sequence.
-    final Map<String, BaseColumn> columnCache = new HashMap<>();
-
-    final NumericColumn timestamps = (NumericColumn) index.getColumnHolder(ColumnHolder.TIME_COLUMN_NAME).getColumn();
-
-    final Closer closer = Closer.create();
-    closer.register(timestamps);
-
     Iterable<Interval> iterable = gran.getIterable(interval);
     if (descending) {
       iterable = Lists.reverse(ImmutableList.copyOf(iterable));
@@ -223,10 +259,27 @@ public class QueryableIndexCursorSequenceBuilder
       endOffset = index.getNumRows();
     }
 
-    final VectorOffset baseOffset =
-        filterBitmap == null
-        ? new NoFilterVectorOffset(vectorSize, startOffset, endOffset)
-        : new BitmapVectorOffset(vectorSize, filterBitmap, startOffset, endOffset);
+    final int[] clusteredRows;
+    if (clusteredFilter == null) {
+      clusteredRows = null;
+    } else {
+      if (timestamps == null) {
+        timestamps = (NumericColumn) index.getColumnHolder(ColumnHolder.TIME_COLUMN_NAME).getColumn();
+        closer.register(timestamps);
+      }
+      clusteredRows = searchClusteredRows(timestamps, startOffset, endOffset);
+    }
+    final ImmutableBitmap filterBitmap = clusteredRows == null ? getFilterBitmap() : this.filterBitmap;
+    final Filter postFilter = clusteredRows == null ? getPostFilter() : this.postFilter;
+
+    final VectorOffset baseOffset;
+    if (clusteredRows != null) {
+      baseOffset = new RowRangesVectorOffset(vectorSize, clusteredRows);
+    } else if (filterBitmap == null) {
+      baseOffset = new NoFilterVectorOffset(vectorSize, startOffset, endOffset);
+    } else {
+      baseOffset = new BitmapVectorOffset(vectorSize, filterBitmap, startOffset, endOffset);
+    }
 
     // baseColumnSelectorFactory using baseOffset is the column selector for filtering.
     final VectorColumnSelectorFactory baseColumnSelectorFactory = makeVectorColumnSelectorFactoryForOffset(
@@ -237,10 +290,13 @@ public class QueryableIndexCursorSequenceBuilder
     if (postFilter == null) {
       return new QueryableIndexVectorCursor(baseColumnSelectorFactory, baseOffset, vectorSize, closer);
     } else {
+      // The post-filter is evaluated first, on the columns it reads only, and the rows it matches are compacted into
+      // full vectors of the filtered offset, for which the cursor then reads the columns of the query.
       final VectorOffset filteredOffset = FilteredVectorOffset.create(
           baseOffset,
           baseColumnSelectorFactory,
-          postFilter
+          postFilter,
+          bitmapIndexSelector
       );
 
       // Now create the cursor and column selector that will be returned to the caller.
@@ -276,6 +332,125 @@ public class QueryableIndexCursorSequenceBuilder
     );
   }
 
+  /**
+   * Searches the rows matching {@link #clusteredFilter} between startRow (inclusive) and endRow (exclusive), in every
+   * run of rows with the same timestamp, within which rows are sorted by the filtered dimension. Returns the matching
+   * rows as a flattened array of sorted, disjoint (inclusive start, exclusive end) pairs, or null if there are more
+   * than {@link #MAX_CLUSTERED_TIME_RUNS} runs to search.
+   */
+  @Nullable
+  private int[] searchClusteredRows(final NumericColumn timestamps, final int startRow, final int endRow)
+  {
+    //noinspection unchecked
+    try (final DictionaryEncodedColumn<String> column =
+             (DictionaryEncodedColumn<String>) index.getColumnHolder(clusteredFilter.getDimension()).getColumn()) {
+      final int id = column.lookupId(NullHandling.emptyToNullIfNeeded(clusteredFilter.getValue()));
+      if (id < 0) {
+        return new int[0];
+      }
+      return searchClusteredRows(timestamps, column, id, startRow, endRow, MAX_CLUSTERED_TIME_RUNS);
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @VisibleForTesting
+  @Nullable
+  static int[] searchClusteredRows(
+      final NumericColumn timestamps,
+      final DictionaryEncodedColumn<String> column,
+      final int id,
+      final int startRow,
+      final int endRow,
+      final int maxRuns
+  )
+  {
+    final IntArrayList ranges = new IntArrayList();
+    int runs = 0;
+    for (int runStart = startRow; runStart < endRow; ) {
+      if (++runs > maxRuns) {
+        return null;
+      }
+      final long timestamp = timestamps.getLongSingleValueRow(runStart);
+      final int runEnd = timeSearch(timestamps, timestamp + 1, runStart, endRow);
+      final int rangeStart = idSearch(column, id, runStart, runEnd);
+      final int rangeEnd = idSearch(column, id + 1, rangeStart, runEnd);
+      if (rangeStart < rangeEnd) {
+        if (!ranges.isEmpty() && ranges.getInt(ranges.size() - 1) == rangeStart) {
+          ranges.set(ranges.size() - 1, rangeEnd);
+        } else {
+          ranges.add(rangeStart);
+          ranges.add(rangeEnd);
+        }
+      }
+      runStart = runEnd;
+    }
+    return ranges.toIntArray();
+  }
+
+  /**
+   * Returns the first row between startRow (inclusive) and endRow (exclusive) with a dictionary id equal to or
+   * greater than "id", or endRow if there is none. Rows must be sorted by id.
+   */
+  private static int idSearch(
+      final DictionaryEncodedColumn<String> column,
+      final int id,
+      final int startRow,
+      final int endRow
+  )
+  {
+    int minIndex = startRow;
+    int maxIndex = endRow;
+    while (minIndex < maxIndex) {
+      final int currIndex = (minIndex + maxIndex) >>> 1;
+      if (column.getSingleValueRow(currIndex) < id) {
+        minIndex = currIndex + 1;
+      } else {
+        maxIndex = currIndex;
+      }
+    }
+    return minIndex;
+  }
+
+  /**
+   * Bitmap of the pre-filters when {@link #clusteredFilter} is applied with its bitmap index, rather than by searching
+   * the matching rows.
+   */
+  @Nullable
+  private ImmutableBitmap getFilterBitmap()
+  {
+    if (clusteredFilter != null && useBitmapIndex(clusteredFilter)) {
+      final ImmutableBitmap clusteredBitmap = clusteredFilter.getBitmapResult(
+          bitmapIndexSelector,
+          new DefaultBitmapResultFactory(bitmapIndexSelector.getBitmapFactory())
+      );
+      return filterBitmap == null
+             ? clusteredBitmap
+             : bitmapIndexSelector.getBitmapFactory().intersection(ImmutableList.of(filterBitmap, clusteredBitmap));
+    }
+    return filterBitmap;
+  }
+
+  /**
+   * Post-filter when {@link #clusteredFilter} is applied with a matcher, rather than by searching the matching rows.
+   */
+  @Nullable
+  private Filter getPostFilter()
+  {
+    if (clusteredFilter != null && !useBitmapIndex(clusteredFilter)) {
+      return postFilter == null ? clusteredFilter : Filters.and(ImmutableList.of(clusteredFilter, postFilter));
+    }
+    return postFilter;
+  }
+
+  private boolean useBitmapIndex(final Filter filter)
+  {
+    return bitmapIndexSelector != null
+           && filter.supportsBitmapIndex(bitmapIndexSelector)
+           && filter.shouldUseBitmapIndex(bitmapIndexSelector);
+  }
+
   /**
    * Search the time column using binary search. Benchmarks on various other approaches (linear search, binary
    * search that switches to linear at various closeness thresholds) indicated that a pure binary search worked best.
@@ -525,6 +700,12 @@ public class QueryableIndexCursorSequenceBuilder
       baseOffset.increment();
     }
 
+    @Override
+    public void skipRows(int startRow, int endRow)
+    {
+      baseOffset.skipRows(startRow, endRow);
+    }
+
     @SuppressWarnings("MethodDoesntCallSuperMethod")
     @Override
     public Offset clone()
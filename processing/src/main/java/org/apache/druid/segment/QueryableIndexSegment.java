@@ -31,9 +31,20 @@ public class QueryableIndexSegment implements Segment
   private final SegmentId segmentId;
 
   public QueryableIndexSegment(QueryableIndex index, final SegmentId segmentId)
+  {
+    this(index, segmentId, false);
+  }
+
+  /**
+   * @param cacheFilterBitmaps whether the bitmaps of the filters of queries on this segment may be cached in the
+   *                           {@link org.apache.druid.segment.filter.FilterBitmapCache}, which is only correct if no
+   *                           other segment with the same id has different rows, like segments loaded from deep
+   *                           storage, and unlike the persisted hydrants of realtime segments.
+   */
+  public QueryableIndexSegment(QueryableIndex index, final SegmentId segmentId, boolean cacheFilterBitmaps)
   {
     this.index = index;
-    this.storageAdapter = new QueryableIndexStorageAdapter(index);
+    this.storageAdapter = new QueryableIndexStorageAdapter(index, cacheFilterBitmaps ? segmentId : null);
     this.segmentId = segmentId;
   }
 
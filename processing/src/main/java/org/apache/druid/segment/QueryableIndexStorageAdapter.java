@@ -24,6 +24,7 @@ import com.google.common.collect.Sets;
 import org.apache.druid.collections.bitmap.ImmutableBitmap;
 import org.apache.druid.java.util.common.DateTimes;
 import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.Pair;
 import org.apache.druid.java.util.common.granularity.Granularities;
 import org.apache.druid.java.util.common.granularity.Granularity;
 import org.apache.druid.java.util.common.guava.Sequence;
@@ -39,10 +40,14 @@ import org.apache.druid.segment.column.ColumnHolder;
 import org.apache.druid.segment.column.ComplexColumn;
 import org.apache.druid.segment.column.DictionaryEncodedColumn;
 import org.apache.druid.segment.column.NumericColumn;
+import org.apache.druid.segment.column.ValueType;
 import org.apache.druid.segment.data.Indexed;
 import org.apache.druid.segment.filter.AndFilter;
+import org.apache.druid.segment.filter.FilterBitmapCache;
 import org.apache.druid.segment.filter.Filters;
+import org.apache.druid.segment.filter.SelectorFilter;
 import org.apache.druid.segment.vector.VectorCursor;
+import org.apache.druid.timeline.SegmentId;
 import org.joda.time.DateTime;
 import org.joda.time.Interval;
 
@@ -50,6 +55,7 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -64,6 +70,13 @@ public class QueryableIndexStorageAdapter implements StorageAdapter
 
   private final QueryableIndex index;
 
+  /**
+   * Id of the segment, set only if the rows of the index never change for this id, in which case the bitmaps of its
+   * pre-filters are cached in the {@link FilterBitmapCache}.
+   */
+  @Nullable
+  private final SegmentId segmentId;
+
   @Nullable
   private volatile DateTime minTime;
 
@@ -71,8 +84,14 @@ public class QueryableIndexStorageAdapter implements StorageAdapter
   private volatile DateTime maxTime;
 
   public QueryableIndexStorageAdapter(QueryableIndex index)
+  {
+    this(index, null);
+  }
+
+  public QueryableIndexStorageAdapter(QueryableIndex index, @Nullable SegmentId segmentId)
   {
     this.index = index;
+    this.segmentId = segmentId;
   }
 
   @Override
@@ -246,19 +265,25 @@ public class QueryableIndexStorageAdapter implements StorageAdapter
       return null;
     }
 
-    final ColumnSelectorBitmapIndexSelector bitmapIndexSelector = makeBitmapIndexSelector(virtualColumns);
+    final Pair<VirtualColumns, Filter> eliminated = virtualColumns.eliminateCommonSubexpressions(
+        getColumnInspectorForIndex(index),
+        filter
+    );
+
+    final ColumnSelectorBitmapIndexSelector bitmapIndexSelector = makeBitmapIndexSelector(eliminated.lhs);
 
-    final FilterAnalysis filterAnalysis = analyzeFilter(filter, bitmapIndexSelector, queryMetrics);
+    final FilterAnalysis filterAnalysis = analyzeFilter(eliminated.rhs, bitmapIndexSelector, queryMetrics);
 
     return new QueryableIndexCursorSequenceBuilder(
         index,
         actualInterval,
-        virtualColumns,
+        eliminated.lhs,
         filterAnalysis.getPreFilterBitmap(),
         getMinTime().getMillis(),
         getMaxTime().getMillis(),
         descending,
         filterAnalysis.getPostFilter(),
+        filterAnalysis.getClusteredFilter(),
         bitmapIndexSelector
     ).buildVectorized(vectorSize > 0 ? vectorSize : DEFAULT_VECTOR_SIZE);
   }
@@ -283,20 +308,26 @@ public class QueryableIndexStorageAdapter implements StorageAdapter
       return Sequences.empty();
     }
 
-    final ColumnSelectorBitmapIndexSelector bitmapIndexSelector = makeBitmapIndexSelector(virtualColumns);
+    final Pair<VirtualColumns, Filter> eliminated = virtualColumns.eliminateCommonSubexpressions(
+        getColumnInspectorForIndex(index),
+        filter
+    );
+
+    final ColumnSelectorBitmapIndexSelector bitmapIndexSelector = makeBitmapIndexSelector(eliminated.lhs);
 
-    final FilterAnalysis filterAnalysis = analyzeFilter(filter, bitmapIndexSelector, queryMetrics);
+    final FilterAnalysis filterAnalysis = analyzeFilter(eliminated.rhs, bitmapIndexSelector, queryMetrics);
 
     return Sequences.filter(
         new QueryableIndexCursorSequenceBuilder(
             index,
             actualInterval,
-            virtualColumns,
+            eliminated.lhs,
             filterAnalysis.getPreFilterBitmap(),
             getMinTime().getMillis(),
             getMaxTime().getMillis(),
             descending,
             filterAnalysis.getPostFilter(),
+            filterAnalysis.getClusteredFilter(),
             bitmapIndexSelector
         ).build(gran),
         Objects::nonNull
@@ -388,6 +419,9 @@ public class QueryableIndexStorageAdapter implements StorageAdapter
      * will be moved to the pre-filtering stage.
      *
      * Any subfilters that cannot be processed entirely with bitmap indexes will be moved to the post-filtering stage.
+     *
+     * If there is no other pre-filter, an equality subfilter on the leading dimension of the sort order of the segment
+     * is instead applied by searching the contiguous rows matching it, see findClusteredFilter.
      */
     final List<Filter> preFilters;
     final List<Filter> postFilters = new ArrayList<>();
@@ -418,6 +452,17 @@ public class QueryableIndexStorageAdapter implements StorageAdapter
       }
     }
 
+    final SelectorFilter clusteredFilterCandidate = findClusteredFilter(filter, indexSelector);
+    final SelectorFilter clusteredFilter;
+    if (clusteredFilterCandidate != null
+        && preFilters.stream().allMatch(preFilter -> preFilter == clusteredFilterCandidate)) {
+      clusteredFilter = clusteredFilterCandidate;
+      preFilters.remove(clusteredFilter);
+      postFilters.remove(clusteredFilter);
+    } else {
+      clusteredFilter = null;
+    }
+
     final ImmutableBitmap preFilterBitmap;
     if (preFilters.isEmpty()) {
       preFilterBitmap = null;
@@ -427,23 +472,121 @@ public class QueryableIndexStorageAdapter implements StorageAdapter
             queryMetrics.makeBitmapResultFactory(indexSelector.getBitmapFactory());
         long bitmapConstructionStartNs = System.nanoTime();
         // Use AndFilter.getBitmapResult to intersect the preFilters to get its short-circuiting behavior.
-        preFilterBitmap = AndFilter.getBitmapIndex(indexSelector, bitmapResultFactory, preFilters);
+        preFilterBitmap = computePreFilterBitmap(indexSelector, bitmapResultFactory, preFilters);
         preFilteredRows = preFilterBitmap.size();
         queryMetrics.reportBitmapConstructionTime(System.nanoTime() - bitmapConstructionStartNs);
       } else {
         BitmapResultFactory<?> bitmapResultFactory = new DefaultBitmapResultFactory(indexSelector.getBitmapFactory());
-        preFilterBitmap = AndFilter.getBitmapIndex(indexSelector, bitmapResultFactory, preFilters);
+        preFilterBitmap = computePreFilterBitmap(indexSelector, bitmapResultFactory, preFilters);
       }
     }
 
     if (queryMetrics != null) {
-      queryMetrics.preFilters(new ArrayList<>(preFilters));
+      final List<Filter> reportedPreFilters = new ArrayList<>(preFilters);
+      if (clusteredFilter != null) {
+        reportedPreFilters.add(clusteredFilter);
+      }
+      queryMetrics.preFilters(reportedPreFilters);
       queryMetrics.postFilters(postFilters);
       queryMetrics.reportSegmentRows(totalRows);
       queryMetrics.reportPreFilteredRows(preFilteredRows);
     }
 
-    return new FilterAnalysis(preFilterBitmap, Filters.maybeAnd(postFilters).orElse(null));
+    return new FilterAnalysis(preFilterBitmap, Filters.maybeAnd(postFilters).orElse(null), clusteredFilter);
+  }
+
+  /**
+   * Intersects the bitmaps of the pre-filters like {@link AndFilter#getBitmapIndex} does, but reads the bitmaps of the
+   * pre-filters which have a {@link Filter#getCacheKey()} from the {@link FilterBitmapCache}, if this adapter has a
+   * segment id. Filters on virtual columns are not cached, since the virtual columns a filter depends on are not part
+   * of its cache key.
+   */
+  private <T> ImmutableBitmap computePreFilterBitmap(
+      final ColumnSelectorBitmapIndexSelector indexSelector,
+      final BitmapResultFactory<T> bitmapResultFactory,
+      final List<Filter> preFilters
+  )
+  {
+    final FilterBitmapCache cache = FilterBitmapCache.getInstance();
+    if (segmentId == null || !cache.isEnabled()) {
+      // Use AndFilter.getBitmapResult to intersect the preFilters to get its short-circuiting behavior.
+      return AndFilter.getBitmapIndex(indexSelector, bitmapResultFactory, preFilters);
+    }
+
+    final List<T> bitmapResults = new ArrayList<>(preFilters.size());
+    for (final Filter preFilter : preFilters) {
+      final byte[] cacheKey = preFilter.getCacheKey();
+      final T bitmapResult;
+      if (cacheKey != null
+          && preFilter.getRequiredColumns().stream().noneMatch(indexSelector.getVirtualColumns()::exists)) {
+        bitmapResult = bitmapResultFactory.wrapDimensionValue(
+            cache.getBitmap(
+                segmentId,
+                cacheKey,
+                indexSelector.getBitmapFactory(),
+                () -> bitmapResultFactory.toImmutableBitmap(
+                    preFilter.getBitmapResult(indexSelector, bitmapResultFactory)
+                )
+            )
+        );
+      } else {
+        bitmapResult = preFilter.getBitmapResult(indexSelector, bitmapResultFactory);
+      }
+      if (bitmapResultFactory.isEmpty(bitmapResult)) {
+        // Short-circuit.
+        return bitmapResultFactory.toImmutableBitmap(
+            bitmapResultFactory.wrapAllFalse(Filters.allFalse(indexSelector))
+        );
+      }
+      bitmapResults.add(bitmapResult);
+    }
+
+    return bitmapResultFactory.toImmutableBitmap(
+        bitmapResults.size() == 1 ? bitmapResults.get(0) : bitmapResultFactory.intersection(bitmapResults)
+    );
+  }
+
+  /**
+   * Returns the selector filter, or selector subfilter of an {@link AndFilter}, on the leading dimension of the sort
+   * order of the segment, if it is a single-valued dictionary encoded string column: within each timestamp, the rows
+   * matching such a filter are contiguous. Only segments with a query granularity are considered, so that there are
+   * few distinct timestamps to search.
+   */
+  @Nullable
+  private SelectorFilter findClusteredFilter(
+      @Nullable final Filter filter,
+      final ColumnSelectorBitmapIndexSelector indexSelector
+  )
+  {
+    final Metadata metadata = index.getMetadata();
+    if (filter == null
+        || metadata == null
+        || metadata.getSortOrder() == null
+        || metadata.getSortOrder().size() < 2
+        || metadata.getQueryGranularity() == null
+        || Granularities.NONE.equals(metadata.getQueryGranularity())) {
+      return null;
+    }
+    final String dimension = metadata.getSortOrder().get(1);
+    if (indexSelector.getVirtualColumns().exists(dimension)) {
+      return null;
+    }
+    final ColumnCapabilities capabilities = getColumnCapabilities(index, dimension);
+    if (capabilities == null
+        || capabilities.getType() != ValueType.STRING
+        || !capabilities.isDictionaryEncoded().isTrue()
+        || !capabilities.hasMultipleValues().isFalse()) {
+      return null;
+    }
+    final Collection<Filter> filters = filter instanceof AndFilter
+                                 ? ((AndFilter) filter).getFilters()
+                                 : Collections.singletonList(filter);
+    for (Filter subfilter : filters) {
+      if (subfilter instanceof SelectorFilter && dimension.equals(((SelectorFilter) subfilter).getDimension())) {
+        return (SelectorFilter) subfilter;
+      }
+    }
+    return null;
   }
 
   @VisibleForTesting
@@ -451,14 +594,25 @@ public class QueryableIndexStorageAdapter implements StorageAdapter
   {
     private final Filter postFilter;
     private final ImmutableBitmap preFilterBitmap;
+    private final SelectorFilter clusteredFilter;
 
     public FilterAnalysis(
         @Nullable final ImmutableBitmap preFilterBitmap,
         @Nullable final Filter postFilter
     )
+    {
+      this(preFilterBitmap, postFilter, null);
+    }
+
+    public FilterAnalysis(
+        @Nullable final ImmutableBitmap preFilterBitmap,
+        @Nullable final Filter postFilter,
+        @Nullable final SelectorFilter clusteredFilter
+    )
     {
       this.preFilterBitmap = preFilterBitmap;
       this.postFilter = postFilter;
+      this.clusteredFilter = clusteredFilter;
     }
 
     @Nullable
@@ -472,5 +626,14 @@ public class QueryableIndexStorageAdapter implements StorageAdapter
     {
       return postFilter;
     }
+
+    /**
+     * Filter on the leading dimension of the sort order of the segment, applied by searching the rows matching it.
+     */
+    @Nullable
+    public SelectorFilter getClusteredFilter()
+    {
+      return clusteredFilter;
+    }
   }
 }
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment;
+
+import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
+import org.apache.druid.segment.data.Offset;
+import org.apache.druid.segment.data.ReadableOffset;
+
+/**
+ * Offset iterating over sorted, disjoint ranges of rows, given as a flattened array of (inclusive start, exclusive
+ * end) pairs, see {@link QueryableIndexCursorSequenceBuilder#searchClusteredRows}.
+ */
+public class RowRangesOffset extends Offset
+{
+  private final int[] ranges;
+  private final boolean descending;
+  private final int initialRange;
+  private final int initialOffset;
+  private int range;
+  private int currentOffset;
+
+  public RowRangesOffset(int[] ranges, boolean descending)
+  {
+    this(
+        ranges,
+        descending,
+        descending ? ranges.length / 2 - 1 : 0,
+        ranges.length == 0 ? 0 : descending ? ranges[ranges.length - 1] - 1 : ranges[0]
+    );
+  }
+
+  private RowRangesOffset(int[] ranges, boolean descending, int initialRange, int initialOffset)
+  {
+    this.ranges = ranges;
+    this.descending = descending;
+    this.initialRange = initialRange;
+    this.initialOffset = initialOffset;
+    this.range = initialRange;
+    this.currentOffset = initialOffset;
+  }
+
+  @Override
+  public void increment()
+  {
+    if (descending) {
+      if (--currentOffset < ranges[2 * range] && --range >= 0) {
+        currentOffset = ranges[2 * range + 1] - 1;
+      }
+    } else {
+      if (++currentOffset == ranges[2 * range + 1] && 2 * ++range < ranges.length) {
+        currentOffset = ranges[2 * range];
+      }
+    }
+  }
+
+  @Override
+  public void skipRows(int startRow, int endRow)
+  {
+    if (descending) {
+      while (range >= 0 && currentOffset >= startRow) {
+        if (ranges[2 * range] < startRow) {
+          currentOffset = startRow - 1;
+        } else if (--range >= 0) {
+          currentOffset = ranges[2 * range + 1] - 1;
+        }
+      }
+    } else {
+      while (2 * range < ranges.length && currentOffset < endRow) {
+        if (ranges[2 * range + 1] > endRow) {
+          currentOffset = endRow;
+        } else if (2 * ++range < ranges.length) {
+          currentOffset = ranges[2 * range];
+        }
+      }
+    }
+  }
+
+  @Override
+  public boolean withinBounds()
+  {
+    return range >= 0 && 2 * range < ranges.length;
+  }
+
+  @Override
+  public void reset()
+  {
+    range = initialRange;
+    currentOffset = initialOffset;
+  }
+
+  @Override
+  public ReadableOffset getBaseReadableOffset()
+  {
+    return this;
+  }
+
+  @Override
+  public Offset clone()
+  {
+    return new RowRangesOffset(ranges, descending, range, currentOffset);
+  }
+
+  @Override
+  public int getOffset()
+  {
+    return currentOffset;
+  }
+
+  @Override
+  public String toString()
+  {
+    return currentOffset + "/" + ranges.length / 2 + " ranges";
+  }
+
+  @Override
+  public void inspectRuntimeShape(RuntimeShapeInspector inspector)
+  {
+    inspector.visit("descending", descending);
+  }
+}
@@ -47,6 +47,12 @@ public class SimpleAscendingOffset extends SimpleSettableOffset
     currentOffset++;
   }
 
+  @Override
+  public void skipRows(int startRow, int endRow)
+  {
+    currentOffset = endRow;
+  }
+
   @Override
   public boolean withinBounds()
   {
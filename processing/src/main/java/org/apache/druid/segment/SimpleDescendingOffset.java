@@ -47,6 +47,12 @@ public class SimpleDescendingOffset extends SimpleSettableOffset
     currentOffset--;
   }
 
+  @Override
+  public void skipRows(int startRow, int endRow)
+  {
+    currentOffset = startRow - 1;
+  }
+
   @Override
   public boolean withinBounds()
   {
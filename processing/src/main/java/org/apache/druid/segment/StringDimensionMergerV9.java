@@ -48,17 +48,19 @@ import org.apache.druid.segment.data.ColumnarIntsSerializer;
 import org.apache.druid.segment.data.ColumnarMultiIntsSerializer;
 import org.apache.druid.segment.data.CompressedVSizeColumnarIntsSerializer;
 import org.apache.druid.segment.data.CompressionStrategy;
-import org.apache.druid.segment.data.GenericIndexed;
+import org.apache.druid.segment.data.DictionaryWriter;
 import org.apache.druid.segment.data.GenericIndexedWriter;
 import org.apache.druid.segment.data.ImmutableRTreeObjectStrategy;
 import org.apache.druid.segment.data.Indexed;
 import org.apache.druid.segment.data.IndexedInts;
 import org.apache.druid.segment.data.ListIndexed;
+import org.apache.druid.segment.data.NgramIndexSerializer;
 import org.apache.druid.segment.data.SingleValueColumnarIntsSerializer;
 import org.apache.druid.segment.data.V3CompressedVSizeColumnarMultiIntsSerializer;
 import org.apache.druid.segment.data.VSizeColumnarIntsSerializer;
 import org.apache.druid.segment.data.VSizeColumnarMultiIntsSerializer;
 import org.apache.druid.segment.serde.DictionaryEncodedColumnPartSerde;
+import org.apache.druid.segment.serde.NgramIndexColumnPartSerde;
 import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
 
 import javax.annotation.Nonnull;
@@ -103,9 +105,11 @@ public class StringDimensionMergerV9 implements DimensionMergerV9
   @Nullable
   private ColumnarIntsSerializer encodedValueSerializer;
   @Nullable
-  private GenericIndexedWriter<String> dictionaryWriter;
+  private DictionaryWriter<String> dictionaryWriter;
   @Nullable
   private String firstDictionaryValue;
+  @Nullable
+  private NgramIndexSerializer ngramIndexSerializer;
 
 
   public StringDimensionMergerV9(
@@ -174,11 +178,19 @@ public class StringDimensionMergerV9 implements DimensionMergerV9
     }
 
     String dictFilename = StringUtils.format("%s.dim_values", dimensionName);
-    dictionaryWriter = new GenericIndexedWriter<>(segmentWriteOutMedium, dictFilename, GenericIndexed.STRING_STRATEGY);
+    dictionaryWriter = indexSpec.getStringDictionaryEncoding().makeDictionaryWriter(segmentWriteOutMedium, dictFilename);
     firstDictionaryValue = null;
     dictionarySize = 0;
     dictionaryWriter.open();
 
+    if (indexSpec.isStringNgramIndexes() && capabilities.hasBitmapIndexes()) {
+      ngramIndexSerializer = new NgramIndexSerializer(
+          dimensionName,
+          indexSpec.getBitmapSerdeFactory(),
+          segmentWriteOutMedium
+      );
+    }
+
     cardinality = 0;
     if (numMergeIndex > 1) {
       dictionaryMergeIterator = new IndexMerger.DictionaryMergeIterator(dimValueLookups, true);
@@ -212,6 +224,9 @@ public class StringDimensionMergerV9 implements DimensionMergerV9
       if (dictionarySize == 0) {
         firstDictionaryValue = value;
       }
+      if (ngramIndexSerializer != null) {
+        ngramIndexSerializer.add(value);
+      }
       dictionarySize++;
     }
   }
@@ -553,6 +568,11 @@ public class StringDimensionMergerV9 implements DimensionMergerV9
         .withSpatialIndex(spatialWriter)
         .withByteOrder(IndexIO.BYTE_ORDER);
 
+    if (ngramIndexSerializer != null) {
+      // must come before the dictionary encoded part, see NgramIndexColumnPartSerde
+      builder.addSerde(NgramIndexColumnPartSerde.forSerializer(ngramIndexSerializer));
+    }
+
     return builder
         .addSerde(partBuilder.build())
         .build();
@@ -29,24 +29,31 @@ import com.google.common.collect.Sets;
 import org.apache.druid.java.util.common.Cacheable;
 import org.apache.druid.java.util.common.IAE;
 import org.apache.druid.java.util.common.Pair;
+import org.apache.druid.math.expr.Expr;
 import org.apache.druid.query.Query;
 import org.apache.druid.query.QueryContexts;
 import org.apache.druid.query.cache.CacheKeyBuilder;
 import org.apache.druid.query.dimension.DimensionSpec;
+import org.apache.druid.query.filter.Filter;
 import org.apache.druid.segment.column.BitmapIndex;
 import org.apache.druid.segment.column.ColumnCapabilities;
 import org.apache.druid.segment.column.ColumnHolder;
 import org.apache.druid.segment.data.ReadableOffset;
+import org.apache.druid.segment.filter.Filters;
 import org.apache.druid.segment.vector.MultiValueDimensionVectorSelector;
 import org.apache.druid.segment.vector.ReadableVectorOffset;
 import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
 import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
 import org.apache.druid.segment.vector.VectorObjectSelector;
 import org.apache.druid.segment.vector.VectorValueSelector;
+import org.apache.druid.segment.virtual.ExpressionPlanner;
+import org.apache.druid.segment.virtual.ExpressionVirtualColumn;
 import org.apache.druid.segment.virtual.VirtualizedColumnSelectorFactory;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -124,6 +131,85 @@ public class VirtualColumns implements Cacheable
     }
   }
 
+  /**
+   * Returns the virtual columns to make row-based selectors for "query" with: if the "compileExpressions" context flag
+   * is set, {@link ExpressionVirtualColumn}s evaluate compiled expressions where possible.
+   */
+  public static VirtualColumns forRowBasedSelectors(Query<?> query, VirtualColumns virtualColumns)
+  {
+    if (!QueryContexts.getCompileExpressions(query) || virtualColumns.getVirtualColumns().length == 0) {
+      return virtualColumns;
+    }
+
+    final List<VirtualColumn> compiled = new ArrayList<>();
+    for (VirtualColumn virtualColumn : virtualColumns.getVirtualColumns()) {
+      if (virtualColumn instanceof ExpressionVirtualColumn) {
+        compiled.add(((ExpressionVirtualColumn) virtualColumn).withCompiledExpression());
+      } else {
+        compiled.add(virtualColumn);
+      }
+    }
+    return create(compiled);
+  }
+
+  /**
+   * Returns copies of these virtual columns and of "filter" in which the function calls shared between the
+   * expressions of {@link ExpressionVirtualColumn}s and {@link org.apache.druid.segment.filter.ExpressionFilter}s are
+   * evaluated only once per row or vector, see {@link ExpressionPlanner#eliminateCommonSubexpressions}. The copies hold
+   * state about the last row or vector they evaluated, so they must only be used for a single call of
+   * {@link CursorFactory#makeCursors} or {@link CursorFactory#makeVectorCursor}.
+   *
+   * @param inspector inspector for the columns of the underlying segment
+   *
+   * @return pair of the rewritten virtual columns and filter, which are the given ones if nothing was shared
+   */
+  public Pair<VirtualColumns, Filter> eliminateCommonSubexpressions(
+      final ColumnInspector inspector,
+      @Nullable final Filter filter
+  )
+  {
+    final List<Expr> expressions = new ArrayList<>();
+    for (VirtualColumn virtualColumn : virtualColumns) {
+      if (virtualColumn instanceof ExpressionVirtualColumn) {
+        expressions.add(((ExpressionVirtualColumn) virtualColumn).getParsedExpression().get());
+      }
+    }
+    if (filter != null) {
+      Filters.rewriteExpressions(filter, expression -> {
+        expressions.add(expression);
+        return expression;
+      });
+    }
+    if (expressions.isEmpty()) {
+      return Pair.of(this, filter);
+    }
+
+    final List<Expr> rewritten = ExpressionPlanner.eliminateCommonSubexpressions(
+        column -> getColumnCapabilitiesWithFallback(inspector, column),
+        expressions
+    );
+    if (rewritten == expressions) {
+      return Pair.of(this, filter);
+    }
+
+    // expressions were collected in the order of virtual columns then filters, so rewrite them in the same order
+    final Iterator<Expr> rewrittenIterator = rewritten.iterator();
+    final List<VirtualColumn> rewrittenVirtualColumns = new ArrayList<>(virtualColumns.size());
+    for (VirtualColumn virtualColumn : virtualColumns) {
+      if (virtualColumn instanceof ExpressionVirtualColumn) {
+        rewrittenVirtualColumns.add(
+            ((ExpressionVirtualColumn) virtualColumn).withEquivalentExpression(rewrittenIterator.next())
+        );
+      } else {
+        rewrittenVirtualColumns.add(virtualColumn);
+      }
+    }
+    final Filter rewrittenFilter = filter == null
+                                   ? null
+                                   : Filters.rewriteExpressions(filter, expression -> rewrittenIterator.next());
+    return Pair.of(create(rewrittenVirtualColumns), rewrittenFilter);
+  }
+
   private VirtualColumns(
       List<VirtualColumn> virtualColumns,
       Map<String, VirtualColumn> withDotSupport,
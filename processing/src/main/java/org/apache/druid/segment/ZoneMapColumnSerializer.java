@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment;
+
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.java.util.common.io.smoosh.FileSmoosher;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.data.ZoneMapSerializer;
+import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Serializer of a long, float or double column which also computes its {@link org.apache.druid.segment.column.ZoneMap}.
+ * The values are written by the delegate serializer, the zone map by {@link #getZoneMapSerializer()}, in a separate
+ * {@link org.apache.druid.segment.serde.ZoneMapColumnPartSerde}.
+ */
+public class ZoneMapColumnSerializer<T> implements GenericColumnSerializer<T>
+{
+  private final GenericColumnSerializer<T> delegate;
+  private final ZoneMapSerializer zoneMapSerializer;
+
+  ZoneMapColumnSerializer(
+      GenericColumnSerializer<T> delegate,
+      ValueType type,
+      SegmentWriteOutMedium segmentWriteOutMedium
+  )
+  {
+    this.delegate = delegate;
+    this.zoneMapSerializer = new ZoneMapSerializer(
+        type,
+        ZoneMapSerializer.DEFAULT_ROWS_PER_ZONE,
+        segmentWriteOutMedium
+    );
+  }
+
+  public ZoneMapSerializer getZoneMapSerializer()
+  {
+    return zoneMapSerializer;
+  }
+
+  @Override
+  public void open() throws IOException
+  {
+    delegate.open();
+    zoneMapSerializer.open();
+  }
+
+  @Override
+  public void serialize(ColumnValueSelector<? extends T> selector) throws IOException
+  {
+    delegate.serialize(selector);
+    if (!NullHandling.replaceWithDefault() && selector.isNull()) {
+      zoneMapSerializer.addNull();
+    } else if (zoneMapSerializer.getType() == ValueType.LONG) {
+      zoneMapSerializer.addLong(selector.getLong());
+    } else if (zoneMapSerializer.getType() == ValueType.FLOAT) {
+      zoneMapSerializer.addDouble(selector.getFloat());
+    } else {
+      zoneMapSerializer.addDouble(selector.getDouble());
+    }
+  }
+
+  @Override
+  public long getSerializedSize() throws IOException
+  {
+    return delegate.getSerializedSize();
+  }
+
+  @Override
+  public void writeTo(WritableByteChannel channel, FileSmoosher smoosher) throws IOException
+  {
+    delegate.writeTo(channel, smoosher);
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Base class of the size-bounded, least-recently-used caches of buffers shared by all segments of the process, like
+ * {@link org.apache.druid.segment.data.DecompressedBlockCache}. Subclasses define the keys and how values are computed
+ * on a miss, this class keeps track of the total size of the cached buffers and of the statistics emitted by
+ * {@link HeapBufferCacheMonitor}.
+ *
+ * Cached buffers are on the heap, so that the caches are bounded by the heap rather than competing with the direct
+ * memory sized for processing buffers, see {@link org.apache.druid.query.DruidProcessingConfig}. They are released by
+ * the garbage collector once they are evicted and no longer read by any query, so that eviction never races with
+ * readers.
+ */
+public abstract class HeapBufferCache<KeyType>
+{
+  @Nullable
+  private final Cache<KeyType, ByteBuffer> cache;
+  private final ToIntBiFunction<KeyType, ByteBuffer> weigher;
+  private final AtomicLong sizeInBytes = new AtomicLong();
+
+  /**
+   * @param maxSizeInBytes maximum total weight of the cached buffers, the cache is disabled if it is not positive
+   * @param weigher        size in bytes of a cached buffer and its key
+   */
+  protected HeapBufferCache(long maxSizeInBytes, ToIntBiFunction<KeyType, ByteBuffer> weigher)
+  {
+    this.weigher = weigher;
+    if (maxSizeInBytes > 0) {
+      this.cache = CacheBuilder.newBuilder()
+                               .maximumWeight(maxSizeInBytes)
+                               .<KeyType, ByteBuffer>weigher(weigher::applyAsInt)
+                               .removalListener(notification -> sizeInBytes.addAndGet(
+                                   -weigher.applyAsInt(notification.getKey(), notification.getValue())
+                               ))
+                               .recordStats()
+                               .build();
+    } else {
+      this.cache = null;
+    }
+  }
+
+  public boolean isEnabled()
+  {
+    return cache != null;
+  }
+
+  public Stats getStats()
+  {
+    if (cache == null) {
+      return new Stats(0, 0, 0, 0, 0);
+    }
+    final com.google.common.cache.CacheStats stats = cache.stats();
+    return new Stats(cache.size(), sizeInBytes.get(), stats.hitCount(), stats.missCount(), stats.evictionCount());
+  }
+
+  /**
+   * Returns the cached buffer of the given key, or null if it is not cached. Must only be called if the cache is
+   * enabled, see {@link #isEnabled()}.
+   */
+  @Nullable
+  protected ByteBuffer getIfPresent(KeyType key)
+  {
+    return cache.getIfPresent(key);
+  }
+
+  /**
+   * Caches the given buffer. Must only be called if the cache is enabled, see {@link #isEnabled()}.
+   */
+  protected void put(KeyType key, ByteBuffer value)
+  {
+    sizeInBytes.addAndGet(weigher.applyAsInt(key, value));
+    cache.put(key, value);
+  }
+
+  public static class Stats
+  {
+    private final long numEntries;
+    private final long sizeInBytes;
+    private final long numHits;
+    private final long numMisses;
+    private final long numEvictions;
+
+    public Stats(long numEntries, long sizeInBytes, long numHits, long numMisses, long numEvictions)
+    {
+      this.numEntries = numEntries;
+      this.sizeInBytes = sizeInBytes;
+      this.numHits = numHits;
+      this.numMisses = numMisses;
+      this.numEvictions = numEvictions;
+    }
+
+    public long getNumEntries()
+    {
+      return numEntries;
+    }
+
+    public long getSizeInBytes()
+    {
+      return sizeInBytes;
+    }
+
+    public long getNumHits()
+    {
+      return numHits;
+    }
+
+    public long getNumMisses()
+    {
+      return numMisses;
+    }
+
+    public long getNumEvictions()
+    {
+      return numEvictions;
+    }
+
+    public double hitRate()
+    {
+      final long lookups = numHits + numMisses;
+      return lookups == 0 ? 0 : numHits / (double) lookups;
+    }
+
+    public Stats delta(@Nullable Stats oldStats)
+    {
+      if (oldStats == null) {
+        return this;
+      }
+      return new Stats(
+          numEntries - oldStats.numEntries,
+          sizeInBytes - oldStats.sizeInBytes,
+          numHits - oldStats.numHits,
+          numMisses - oldStats.numMisses,
+          numEvictions - oldStats.numEvictions
+      );
+    }
+  }
+}
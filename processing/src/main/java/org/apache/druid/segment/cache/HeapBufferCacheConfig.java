@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.cache;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.druid.java.util.common.HumanReadableBytes;
+
+/**
+ * Configuration of a {@link HeapBufferCache}, bound by {@link org.apache.druid.guice.HeapBufferCacheModule}.
+ */
+public class HeapBufferCacheConfig
+{
+  @JsonProperty
+  private HumanReadableBytes sizeInBytes = HumanReadableBytes.valueOf(0);
+
+  public HeapBufferCacheConfig()
+  {
+  }
+
+  public HeapBufferCacheConfig(long sizeInBytes)
+  {
+    this.sizeInBytes = HumanReadableBytes.valueOf(sizeInBytes);
+  }
+
+  /**
+   * Maximum total size of the cached buffers, the cache is disabled if it is not positive.
+   */
+  public long getSizeInBytes()
+  {
+    return sizeInBytes.getBytes();
+  }
+}
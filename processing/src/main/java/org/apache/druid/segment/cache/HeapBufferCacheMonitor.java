@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.cache;
+
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.emitter.service.ServiceEmitter;
+import org.apache.druid.java.util.emitter.service.ServiceMetricEvent;
+import org.apache.druid.java.util.metrics.AbstractMonitor;
+
+import java.util.function.Supplier;
+
+/**
+ * Emits the statistics of a {@link HeapBufferCache}, if it is enabled, as "delta" and "total" metrics under the given
+ * prefix.
+ */
+public abstract class HeapBufferCacheMonitor extends AbstractMonitor
+{
+  private final String metricPrefix;
+  private final Supplier<? extends HeapBufferCache<?>> cacheSupplier;
+  private volatile HeapBufferCache.Stats prevStats = null;
+
+  protected HeapBufferCacheMonitor(String metricPrefix, Supplier<? extends HeapBufferCache<?>> cacheSupplier)
+  {
+    this.metricPrefix = metricPrefix;
+    this.cacheSupplier = cacheSupplier;
+  }
+
+  @Override
+  public boolean doMonitor(ServiceEmitter emitter)
+  {
+    final HeapBufferCache<?> cache = cacheSupplier.get();
+    if (cache.isEnabled()) {
+      final HeapBufferCache.Stats currStats = cache.getStats();
+      final HeapBufferCache.Stats deltaStats = currStats.delta(prevStats);
+
+      final ServiceMetricEvent.Builder builder = new ServiceMetricEvent.Builder();
+      emitStats(emitter, metricPrefix + "/delta", deltaStats, builder);
+      emitStats(emitter, metricPrefix + "/total", currStats, builder);
+
+      prevStats = currStats;
+    }
+    return true;
+  }
+
+  private static void emitStats(
+      final ServiceEmitter emitter,
+      final String metricPrefix,
+      final HeapBufferCache.Stats stats,
+      final ServiceMetricEvent.Builder builder
+  )
+  {
+    emitter.emit(builder.build(StringUtils.format("%s/numEntries", metricPrefix), stats.getNumEntries()));
+    emitter.emit(builder.build(StringUtils.format("%s/sizeBytes", metricPrefix), stats.getSizeInBytes()));
+    emitter.emit(builder.build(StringUtils.format("%s/hits", metricPrefix), stats.getNumHits()));
+    emitter.emit(builder.build(StringUtils.format("%s/misses", metricPrefix), stats.getNumMisses()));
+    emitter.emit(builder.build(StringUtils.format("%s/evictions", metricPrefix), stats.getNumEvictions()));
+    emitter.emit(builder.build(StringUtils.format("%s/hitRate", metricPrefix), stats.hitRate()));
+  }
+}
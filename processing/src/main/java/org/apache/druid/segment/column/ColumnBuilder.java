@@ -38,6 +38,12 @@ public class ColumnBuilder
   @Nullable
   private Supplier<SpatialIndex> spatialIndex = null;
   @Nullable
+  private Supplier<ZoneMap> zoneMap = null;
+  @Nullable
+  private Supplier<NumericBitmapIndex> numericBitmapIndex = null;
+  @Nullable
+  private Supplier<NgramIndex> ngramIndex = null;
+  @Nullable
   private SmooshedFileMapper fileMapper = null;
 
 
@@ -112,6 +118,27 @@ public class ColumnBuilder
     return this;
   }
 
+  public ColumnBuilder setZoneMap(Supplier<ZoneMap> zoneMap)
+  {
+    this.zoneMap = zoneMap;
+    this.capabilitiesBuilder.setHasZoneMaps(true);
+    return this;
+  }
+
+  public ColumnBuilder setNumericBitmapIndex(Supplier<NumericBitmapIndex> numericBitmapIndex)
+  {
+    this.numericBitmapIndex = numericBitmapIndex;
+    this.capabilitiesBuilder.setHasNumericBitmapIndexes(true);
+    return this;
+  }
+
+  public ColumnBuilder setNgramIndex(Supplier<NgramIndex> ngramIndex)
+  {
+    this.ngramIndex = ngramIndex;
+    this.capabilitiesBuilder.setHasNgramIndexes(true);
+    return this;
+  }
+
   public ColumnBuilder setHasNulls(boolean nullable)
   {
     this.capabilitiesBuilder.setHasNulls(nullable);
@@ -127,6 +154,14 @@ public class ColumnBuilder
   {
     Preconditions.checkState(capabilitiesBuilder.getType() != null, "Type must be set.");
 
-    return new SimpleColumnHolder(capabilitiesBuilder, columnSupplier, bitmapIndex, spatialIndex);
+    return new SimpleColumnHolder(
+        capabilitiesBuilder,
+        columnSupplier,
+        bitmapIndex,
+        spatialIndex,
+        zoneMap,
+        numericBitmapIndex,
+        ngramIndex
+    );
   }
 }
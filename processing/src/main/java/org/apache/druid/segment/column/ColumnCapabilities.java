@@ -82,6 +82,22 @@ public interface ColumnCapabilities
    */
   boolean hasSpatialIndexes();
 
+  /**
+   * Does the column have a {@link ZoneMap}, the minimum and maximum values of blocks of rows, which filters may use to
+   * skip the blocks which cannot match without reading their values?
+   */
+  boolean hasZoneMaps();
+
+  /**
+   * Does the column have a {@link NumericBitmapIndex}, the bitmaps of the rows of each of its numeric values?
+   */
+  boolean hasNumericBitmapIndexes();
+
+  /**
+   * Does the column have a {@link NgramIndex}, the dictionary ids of the values containing each of its n-grams?
+   */
+  boolean hasNgramIndexes();
+
   /**
    * All Druid primitive columns support filtering, maybe with or without indexes, but by default complex columns
    * do not support direct filtering, unless provided by through a custom implementation.
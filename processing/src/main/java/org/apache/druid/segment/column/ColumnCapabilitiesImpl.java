@@ -75,6 +75,9 @@ public class ColumnCapabilitiesImpl implements ColumnCapabilities
       capabilities.dictionaryEncoded = other.isDictionaryEncoded();
       capabilities.hasInvertedIndexes = other.hasBitmapIndexes();
       capabilities.hasSpatialIndexes = other.hasSpatialIndexes();
+      capabilities.hasZoneMaps = other.hasZoneMaps();
+      capabilities.hasNumericBitmapIndexes = other.hasNumericBitmapIndexes();
+      capabilities.hasNgramIndexes = other.hasNgramIndexes();
       capabilities.hasMultipleValues = other.hasMultipleValues();
       capabilities.dictionaryValuesSorted = other.areDictionaryValuesSorted();
       capabilities.dictionaryValuesUnique = other.areDictionaryValuesUnique();
@@ -145,6 +148,9 @@ public class ColumnCapabilitiesImpl implements ColumnCapabilities
     merged.hasNulls = merged.hasNulls.or(other.hasNulls());
     merged.hasInvertedIndexes |= otherSnapshot.hasBitmapIndexes();
     merged.hasSpatialIndexes |= otherSnapshot.hasSpatialIndexes();
+    merged.hasZoneMaps |= otherSnapshot.hasZoneMaps();
+    merged.hasNumericBitmapIndexes |= otherSnapshot.hasNumericBitmapIndexes();
+    merged.hasNgramIndexes |= otherSnapshot.hasNgramIndexes();
     merged.filterable &= otherSnapshot.isFilterable();
 
     return merged;
@@ -228,6 +234,12 @@ public class ColumnCapabilitiesImpl implements ColumnCapabilities
   private boolean filterable;
   @JsonIgnore
   private Capable hasNulls = Capable.UNKNOWN;
+  @JsonIgnore
+  private boolean hasZoneMaps = false;
+  @JsonIgnore
+  private boolean hasNumericBitmapIndexes = false;
+  @JsonIgnore
+  private boolean hasNgramIndexes = false;
 
   @Override
   @JsonProperty
@@ -319,6 +331,42 @@ public class ColumnCapabilitiesImpl implements ColumnCapabilities
     return this;
   }
 
+  @Override
+  public boolean hasZoneMaps()
+  {
+    return hasZoneMaps;
+  }
+
+  public ColumnCapabilitiesImpl setHasZoneMaps(boolean hasZoneMaps)
+  {
+    this.hasZoneMaps = hasZoneMaps;
+    return this;
+  }
+
+  @Override
+  public boolean hasNumericBitmapIndexes()
+  {
+    return hasNumericBitmapIndexes;
+  }
+
+  public ColumnCapabilitiesImpl setHasNumericBitmapIndexes(boolean hasNumericBitmapIndexes)
+  {
+    this.hasNumericBitmapIndexes = hasNumericBitmapIndexes;
+    return this;
+  }
+
+  @Override
+  public boolean hasNgramIndexes()
+  {
+    return hasNgramIndexes;
+  }
+
+  public ColumnCapabilitiesImpl setHasNgramIndexes(boolean hasNgramIndexes)
+  {
+    this.hasNgramIndexes = hasNgramIndexes;
+    return this;
+  }
+
   @Override
   @JsonProperty("hasMultipleValues")
   public Capable hasMultipleValues()
@@ -22,4 +22,14 @@ package org.apache.druid.segment.column;
 public interface ColumnConfig
 {
   int columnCacheSizeBytes();
+
+  /**
+   * Maximum number of columns of lazily loaded segments kept deserialized by {@link org.apache.druid.segment.IndexIO},
+   * across all segments. Columns are deserialized again when they are accessed after being evicted. If not positive,
+   * columns of lazily loaded segments are kept deserialized once accessed, as long as their segment is loaded.
+   */
+  default int lazyColumnCacheSize()
+  {
+    return 0;
+  }
 }
@@ -45,6 +45,12 @@ public interface ColumnHolder
   BitmapIndex getBitmapIndex();
   @Nullable
   SpatialIndex getSpatialIndex();
+  @Nullable
+  ZoneMap getZoneMap();
+  @Nullable
+  NumericBitmapIndex getNumericBitmapIndex();
+  @Nullable
+  NgramIndex getNgramIndex();
 
   /**
    * Returns a new instance of a {@link SettableColumnValueSelector}, corresponding to the type of this column.
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.column;
+
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+
+import javax.annotation.Nullable;
+
+/**
+ * N-gram index of a dictionary-encoded string column: for every sequence of {@link #N} consecutive characters of its
+ * values, the dictionary ids of the values containing it. Filters and search queries looking for substrings use it to
+ * find the few dictionary values which may contain them, instead of checking the whole dictionary.
+ *
+ * Characters are folded to lower case one by one before being indexed, so that the index serves both case sensitive
+ * and case insensitive lookups. The ids it returns are candidates, which must still be checked against the values.
+ */
+public interface NgramIndex
+{
+  int N = 3;
+
+  /**
+   * Returns the dictionary ids of the values which may contain all the given substrings, or null if the index cannot
+   * tell because all of them are shorter than {@link #N} characters.
+   */
+  @Nullable
+  ImmutableBitmap getCandidates(Iterable<String> substrings);
+}
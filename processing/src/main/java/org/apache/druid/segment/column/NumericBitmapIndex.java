@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.column;
+
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+
+/**
+ * Bitmap index of a long, float or double column: its distinct non-null values sorted in ascending order, with the
+ * bitmap of the rows holding each of them, and the bitmap of its null rows. Unlike the values of a {@link BitmapIndex},
+ * which are strings sorted lexicographically, these are compared as numbers, so that filters can find the bitmaps of
+ * a value or of a range of values with binary searches.
+ *
+ * Values of {@link ValueType#FLOAT} and {@link ValueType#DOUBLE} columns are ordered by {@link Double#compare}, so NaN
+ * comes last.
+ */
+public interface NumericBitmapIndex
+{
+  /**
+   * Type of the column, {@link ValueType#LONG}, {@link ValueType#FLOAT} or {@link ValueType#DOUBLE}.
+   */
+  ValueType getType();
+
+  /**
+   * Number of distinct non-null values.
+   */
+  int getCardinality();
+
+  /**
+   * Value at the given index, for {@link ValueType#LONG} columns.
+   */
+  long getLong(int index);
+
+  /**
+   * Value at the given index, for {@link ValueType#FLOAT} and {@link ValueType#DOUBLE} columns.
+   */
+  double getDouble(int index);
+
+  ImmutableBitmap getBitmap(int index);
+
+  ImmutableBitmap getNullBitmap();
+
+  BitmapFactory getBitmapFactory();
+}
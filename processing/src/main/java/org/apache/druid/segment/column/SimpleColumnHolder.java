@@ -37,6 +37,12 @@ class SimpleColumnHolder implements ColumnHolder
   private final Supplier<BitmapIndex> bitmapIndex;
   @Nullable
   private final Supplier<SpatialIndex> spatialIndex;
+  @Nullable
+  private final Supplier<ZoneMap> zoneMap;
+  @Nullable
+  private final Supplier<NumericBitmapIndex> numericBitmapIndex;
+  @Nullable
+  private final Supplier<NgramIndex> ngramIndex;
   private static final InvalidComplexColumnTypeValueSelector INVALID_COMPLEX_COLUMN_TYPE_VALUE_SELECTOR
       = new InvalidComplexColumnTypeValueSelector();
 
@@ -44,7 +50,10 @@ class SimpleColumnHolder implements ColumnHolder
       ColumnCapabilities capabilities,
       @Nullable Supplier<? extends BaseColumn> columnSupplier,
       @Nullable Supplier<BitmapIndex> bitmapIndex,
-      @Nullable Supplier<SpatialIndex> spatialIndex
+      @Nullable Supplier<SpatialIndex> spatialIndex,
+      @Nullable Supplier<ZoneMap> zoneMap,
+      @Nullable Supplier<NumericBitmapIndex> numericBitmapIndex,
+      @Nullable Supplier<NgramIndex> ngramIndex
   )
   {
     this.capabilities = capabilities;
@@ -64,6 +73,9 @@ class SimpleColumnHolder implements ColumnHolder
     }
     this.bitmapIndex = bitmapIndex;
     this.spatialIndex = spatialIndex;
+    this.zoneMap = zoneMap;
+    this.numericBitmapIndex = numericBitmapIndex;
+    this.ngramIndex = ngramIndex;
   }
 
   @Override
@@ -102,6 +114,27 @@ class SimpleColumnHolder implements ColumnHolder
     return spatialIndex == null ? null : spatialIndex.get();
   }
 
+  @Nullable
+  @Override
+  public ZoneMap getZoneMap()
+  {
+    return zoneMap == null ? null : zoneMap.get();
+  }
+
+  @Nullable
+  @Override
+  public NumericBitmapIndex getNumericBitmapIndex()
+  {
+    return numericBitmapIndex == null ? null : numericBitmapIndex.get();
+  }
+
+  @Nullable
+  @Override
+  public NgramIndex getNgramIndex()
+  {
+    return ngramIndex == null ? null : ngramIndex.get();
+  }
+
   @Override
   public SettableColumnValueSelector makeNewSettableColumnValueSelector()
   {
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.column;
+
+/**
+ * Summary of a numeric column split in "zones" of {@link #getRowsPerZone()} consecutive rows: the minimum and maximum
+ * non-null values of each zone, and its number of null rows. Filters use it to skip the zones which cannot contain a
+ * match without reading their values, see {@link org.apache.druid.query.filter.Filter#makeZoneMatcher}.
+ *
+ * Minimum and maximum values of {@link ValueType#FLOAT} and {@link ValueType#DOUBLE} columns are ordered by
+ * {@link Double#compare}, and are undefined for zones which only contain null rows.
+ */
+public interface ZoneMap
+{
+  /**
+   * Type of the column, {@link ValueType#LONG}, {@link ValueType#FLOAT} or {@link ValueType#DOUBLE}.
+   */
+  ValueType getType();
+
+  /**
+   * Number of rows per zone, a power of 2. The last zone may have fewer rows.
+   */
+  int getRowsPerZone();
+
+  int getNumZones();
+
+  int getNumRows(int zone);
+
+  int getNullCount(int zone);
+
+  /**
+   * Minimum value of the zone, for {@link ValueType#LONG} columns.
+   */
+  long getLongMin(int zone);
+
+  /**
+   * Maximum value of the zone, for {@link ValueType#LONG} columns.
+   */
+  long getLongMax(int zone);
+
+  /**
+   * Minimum value of the zone, for {@link ValueType#FLOAT} and {@link ValueType#DOUBLE} columns.
+   */
+  double getDoubleMin(int zone);
+
+  /**
+   * Maximum value of the zone, for {@link ValueType#FLOAT} and {@link ValueType#DOUBLE} columns.
+   */
+  double getDoubleMax(int zone);
+}
@@ -45,7 +45,10 @@ public class BlockLayoutColumnarFloatsSupplier implements Supplier<ColumnarFloat
       CompressionStrategy strategy
   )
   {
-    baseFloatBuffers = GenericIndexed.read(fromBuffer, new DecompressingByteBufferObjectStrategy(byteOrder, strategy));
+    baseFloatBuffers = GenericIndexed.read(
+        fromBuffer,
+        DecompressingByteBufferObjectStrategy.readCompressionHeader(fromBuffer, byteOrder, strategy)
+    );
     this.totalSize = totalSize;
     this.sizePer = sizePer;
   }
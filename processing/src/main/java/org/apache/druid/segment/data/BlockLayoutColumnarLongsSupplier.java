@@ -30,6 +30,10 @@ import java.nio.LongBuffer;
 public class BlockLayoutColumnarLongsSupplier implements Supplier<ColumnarLongs>
 {
   private final GenericIndexed<ResourceHolder<ByteBuffer>> baseLongBuffers;
+  /**
+   * Id of the blocks of this column part in the {@link DecompressedBlockCache}.
+   */
+  private final long blockCacheId = DecompressedBlockCache.nextPartId();
 
   // The number of rows in this column.
   private final int totalSize;
@@ -47,7 +51,10 @@ public class BlockLayoutColumnarLongsSupplier implements Supplier<ColumnarLongs>
       CompressionStrategy strategy
   )
   {
-    baseLongBuffers = GenericIndexed.read(fromBuffer, new DecompressingByteBufferObjectStrategy(order, strategy));
+    baseLongBuffers = GenericIndexed.read(
+        fromBuffer,
+        DecompressingByteBufferObjectStrategy.readCompressionHeader(fromBuffer, order, strategy)
+    );
     this.totalSize = totalSize;
     this.sizePer = sizePer;
     this.baseReader = reader;
@@ -119,7 +126,8 @@ public class BlockLayoutColumnarLongsSupplier implements Supplier<ColumnarLongs>
   private class BlockLayoutColumnarLongs implements ColumnarLongs
   {
     final CompressionFactory.LongEncodingReader reader = baseReader.duplicate();
-    final Indexed<ResourceHolder<ByteBuffer>> singleThreadedLongBuffers = baseLongBuffers.singleThreaded();
+    final Indexed<ResourceHolder<ByteBuffer>> singleThreadedLongBuffers =
+        DecompressedBlockCache.getInstance().wrap(baseLongBuffers.singleThreaded(), blockCacheId);
 
     int currBufferNum = -1;
     ResourceHolder<ByteBuffer> holder;
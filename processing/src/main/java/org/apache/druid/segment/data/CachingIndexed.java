@@ -28,6 +28,7 @@ import java.io.Closeable;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.IntSupplier;
 
 public class CachingIndexed<T> implements Indexed<T>, Closeable
 {
@@ -35,7 +36,8 @@ public class CachingIndexed<T> implements Indexed<T>, Closeable
 
   private static final Logger log = new Logger(CachingIndexed.class);
 
-  private final GenericIndexed<T>.BufferIndexed delegate;
+  private final Indexed<T> delegate;
+  private final IntSupplier lastValueSize;
   @Nullable
   private final SizedLRUMap<Integer, T> cachedValues;
 
@@ -50,7 +52,18 @@ public class CachingIndexed<T> implements Indexed<T>, Closeable
    */
   public CachingIndexed(GenericIndexed<T> delegate, final int lookupCacheSize)
   {
-    this.delegate = delegate.singleThreaded();
+    this(delegate.singleThreaded(), lookupCacheSize);
+  }
+
+  private CachingIndexed(GenericIndexed<T>.BufferIndexed delegate, final int lookupCacheSize)
+  {
+    this(delegate, delegate::getLastValueSize, lookupCacheSize);
+  }
+
+  private CachingIndexed(Indexed<T> delegate, IntSupplier lastValueSize, final int lookupCacheSize)
+  {
+    this.delegate = delegate;
+    this.lastValueSize = lastValueSize;
 
     if (lookupCacheSize > 0) {
       log.debug("Allocating column cache of max size[%d]", lookupCacheSize);
@@ -60,6 +73,16 @@ public class CachingIndexed<T> implements Indexed<T>, Closeable
     }
   }
 
+  /**
+   * Creates a CachingIndexed wrapping the given {@link FrontCodedIndexed}, see
+   * {@link #CachingIndexed(GenericIndexed, int)}.
+   */
+  public static CachingIndexed<String> of(FrontCodedIndexed delegate, final int lookupCacheSize)
+  {
+    final FrontCodedIndexed.SingleThreaded singleThreaded = delegate.singleThreaded();
+    return new CachingIndexed<>(singleThreaded, singleThreaded::getLastValueSize, lookupCacheSize);
+  }
+
   @Override
   public int size()
   {
@@ -76,7 +99,7 @@ public class CachingIndexed<T> implements Indexed<T>, Closeable
       }
 
       final T value = delegate.get(index);
-      cachedValues.put(index, value, delegate.getLastValueSize());
+      cachedValues.put(index, value, lastValueSize.getAsInt());
       return value;
     } else {
       return delegate.get(index);
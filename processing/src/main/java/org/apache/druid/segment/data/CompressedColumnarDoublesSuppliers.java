@@ -45,8 +45,13 @@ public class CompressedColumnarDoublesSuppliers
       final int totalSize = buffer.getInt();
       final int sizePer = buffer.getInt();
       CompressionStrategy compression = CompressionStrategy.LZF;
+      CompressionFactory.FloatEncodingStrategy encoding = CompressionFactory.DEFAULT_FLOAT_ENCODING_STRATEGY;
       if (versionFromBuffer == VERSION) {
         byte compressionId = buffer.get();
+        if (CompressionFactory.hasEncodingFlag(compressionId)) {
+          encoding = CompressionFactory.FloatEncodingStrategy.forId(buffer.get());
+          compressionId = CompressionFactory.clearEncodingFlag(compressionId);
+        }
         compression = CompressionStrategy.forId(compressionId);
       }
       return CompressionFactory.getDoubleSupplier(
@@ -54,6 +59,7 @@ public class CompressedColumnarDoublesSuppliers
           sizePer,
           buffer.asReadOnlyBuffer(),
           order,
+          encoding,
           compression
       );
     }
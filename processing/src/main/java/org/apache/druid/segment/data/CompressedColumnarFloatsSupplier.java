@@ -40,20 +40,32 @@ public class CompressedColumnarFloatsSupplier implements Supplier<ColumnarFloats
       .firstWriteByte((CompressedColumnarFloatsSupplier x) -> VERSION)
       .writeInt(x -> x.totalSize)
       .writeInt(x -> x.sizePer)
-      .writeByte(x -> x.compression.getId());
+      .maybeWriteByte(
+          x -> x.encoding != CompressionFactory.DEFAULT_FLOAT_ENCODING_STRATEGY,
+          x -> CompressionFactory.setEncodingFlag(x.compression.getId())
+      )
+      .writeByte(x -> {
+        if (x.encoding != CompressionFactory.DEFAULT_FLOAT_ENCODING_STRATEGY) {
+          return x.encoding.getId();
+        } else {
+          return x.compression.getId();
+        }
+      });
 
   private final int totalSize;
   private final int sizePer;
   private final ByteBuffer buffer;
   private final Supplier<ColumnarFloats> supplier;
   private final CompressionStrategy compression;
+  private final CompressionFactory.FloatEncodingStrategy encoding;
 
   CompressedColumnarFloatsSupplier(
       int totalSize,
       int sizePer,
       ByteBuffer buffer,
       Supplier<ColumnarFloats> supplier,
-      CompressionStrategy compression
+      CompressionStrategy compression,
+      CompressionFactory.FloatEncodingStrategy encoding
   )
   {
     this.totalSize = totalSize;
@@ -61,6 +73,7 @@ public class CompressedColumnarFloatsSupplier implements Supplier<ColumnarFloats
     this.buffer = buffer;
     this.supplier = supplier;
     this.compression = compression;
+    this.encoding = encoding;
   }
 
   @Override
@@ -90,8 +103,13 @@ public class CompressedColumnarFloatsSupplier implements Supplier<ColumnarFloats
       final int totalSize = buffer.getInt();
       final int sizePer = buffer.getInt();
       CompressionStrategy compression = CompressionStrategy.LZF;
+      CompressionFactory.FloatEncodingStrategy encoding = CompressionFactory.DEFAULT_FLOAT_ENCODING_STRATEGY;
       if (versionFromBuffer == VERSION) {
         byte compressionId = buffer.get();
+        if (CompressionFactory.hasEncodingFlag(compressionId)) {
+          encoding = CompressionFactory.FloatEncodingStrategy.forId(buffer.get());
+          compressionId = CompressionFactory.clearEncodingFlag(compressionId);
+        }
         compression = CompressionStrategy.forId(compressionId);
       }
       Supplier<ColumnarFloats> supplier = CompressionFactory.getFloatSupplier(
@@ -99,6 +117,7 @@ public class CompressedColumnarFloatsSupplier implements Supplier<ColumnarFloats
           sizePer,
           buffer.asReadOnlyBuffer(),
           order,
+          encoding,
           compression
       );
       return new CompressedColumnarFloatsSupplier(
@@ -106,7 +125,8 @@ public class CompressedColumnarFloatsSupplier implements Supplier<ColumnarFloats
           sizePer,
           buffer,
           supplier,
-          compression
+          compression,
+          encoding
       );
     }
 
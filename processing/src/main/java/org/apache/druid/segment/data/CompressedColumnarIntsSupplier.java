@@ -23,6 +23,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import org.apache.druid.collections.ResourceHolder;
+import org.apache.druid.io.Channels;
 import org.apache.druid.java.util.common.IAE;
 import org.apache.druid.java.util.common.guava.CloseQuietly;
 import org.apache.druid.java.util.common.io.Closer;
@@ -53,19 +54,26 @@ public class CompressedColumnarIntsSupplier implements WritableSupplier<Columnar
   private final int totalSize;
   private final int sizePer;
   private final GenericIndexed<ResourceHolder<ByteBuffer>> baseIntBuffers;
+  /**
+   * Id of the blocks of this column part in the {@link DecompressedBlockCache}.
+   */
+  private final long blockCacheId = DecompressedBlockCache.nextPartId();
   private final CompressionStrategy compression;
+  private final ByteBuffer compressionHeader;
 
   private CompressedColumnarIntsSupplier(
       int totalSize,
       int sizePer,
       GenericIndexed<ResourceHolder<ByteBuffer>> baseIntBuffers,
-      CompressionStrategy compression
+      CompressionStrategy compression,
+      ByteBuffer compressionHeader
   )
   {
     this.totalSize = totalSize;
     this.sizePer = sizePer;
     this.baseIntBuffers = baseIntBuffers;
     this.compression = compression;
+    this.compressionHeader = compressionHeader;
   }
 
   @Override
@@ -99,13 +107,14 @@ public class CompressedColumnarIntsSupplier implements WritableSupplier<Columnar
   @Override
   public long getSerializedSize()
   {
-    return META_SERDE_HELPER.size(this) + baseIntBuffers.getSerializedSize();
+    return META_SERDE_HELPER.size(this) + compressionHeader.remaining() + baseIntBuffers.getSerializedSize();
   }
 
   @Override
   public void writeTo(WritableByteChannel channel, FileSmoosher smoosher) throws IOException
   {
     META_SERDE_HELPER.writeTo(channel, this);
+    Channels.writeFully(channel, compressionHeader.asReadOnlyBuffer());
     baseIntBuffers.writeTo(channel, smoosher);
   }
 
@@ -123,11 +132,16 @@ public class CompressedColumnarIntsSupplier implements WritableSupplier<Columnar
       final int totalSize = buffer.getInt();
       final int sizePer = buffer.getInt();
       final CompressionStrategy compression = CompressionStrategy.forId(buffer.get());
+      final ByteBuffer compressionHeader = compression.readHeader(buffer);
       return new CompressedColumnarIntsSupplier(
           totalSize,
           sizePer,
-          GenericIndexed.read(buffer, new DecompressingByteBufferObjectStrategy(order, compression)),
-          compression
+          GenericIndexed.read(
+              buffer,
+              new DecompressingByteBufferObjectStrategy(order, compression.getDecompressor(compressionHeader))
+          ),
+          compression,
+          compressionHeader
       );
     }
 
@@ -142,11 +156,17 @@ public class CompressedColumnarIntsSupplier implements WritableSupplier<Columnar
       final int totalSize = buffer.getInt();
       final int sizePer = buffer.getInt();
       final CompressionStrategy compression = CompressionStrategy.forId(buffer.get());
+      final ByteBuffer compressionHeader = compression.readHeader(buffer);
       return new CompressedColumnarIntsSupplier(
           totalSize,
           sizePer,
-          GenericIndexed.read(buffer, new DecompressingByteBufferObjectStrategy(order, compression), mapper),
-          compression
+          GenericIndexed.read(
+              buffer,
+              new DecompressingByteBufferObjectStrategy(order, compression.getDecompressor(compressionHeader)),
+              mapper
+          ),
+          compression,
+          compressionHeader
       );
     }
 
@@ -166,6 +186,7 @@ public class CompressedColumnarIntsSupplier implements WritableSupplier<Columnar
         chunkFactor <= MAX_INTS_IN_BUFFER, "Chunks must be <= 64k bytes. chunkFactor was[%s]", chunkFactor
     );
 
+    final CompressionStrategy.Compressor compressor = compression.getCompressor();
     return new CompressedColumnarIntsSupplier(
         buffer.remaining(),
         chunkFactor,
@@ -178,9 +199,7 @@ public class CompressedColumnarIntsSupplier implements WritableSupplier<Columnar
                 return new Iterator<ByteBuffer>()
                 {
                   final IntBuffer myBuffer = buffer.asReadOnlyBuffer();
-                  final ByteBuffer retVal = compression
-                      .getCompressor()
-                      .allocateInBuffer(chunkFactor * Integer.BYTES, closer)
+                  final ByteBuffer retVal = compressor.allocateInBuffer(chunkFactor * Integer.BYTES, closer)
                       .order(byteOrder);
                   final IntBuffer retValAsIntBuffer = retVal.asIntBuffer();
 
@@ -213,11 +232,13 @@ public class CompressedColumnarIntsSupplier implements WritableSupplier<Columnar
               }
             },
             compression,
+            compressor,
             chunkFactor * Integer.BYTES,
             byteOrder,
             closer
         ),
-        compression
+        compression,
+        compressor.getHeader()
     );
   }
 
@@ -234,6 +255,7 @@ public class CompressedColumnarIntsSupplier implements WritableSupplier<Columnar
         chunkFactor <= MAX_INTS_IN_BUFFER, "Chunks must be <= 64k bytes. chunkFactor was[%s]", chunkFactor
     );
 
+    final CompressionStrategy.Compressor compressor = compression.getCompressor();
     return new CompressedColumnarIntsSupplier(
         list.size(),
         chunkFactor,
@@ -245,9 +267,7 @@ public class CompressedColumnarIntsSupplier implements WritableSupplier<Columnar
               {
                 return new Iterator<ByteBuffer>()
                 {
-                  private final ByteBuffer retVal = compression
-                      .getCompressor()
-                      .allocateInBuffer(chunkFactor * Integer.BYTES, closer)
+                  private final ByteBuffer retVal = compressor.allocateInBuffer(chunkFactor * Integer.BYTES, closer)
                       .order(byteOrder);
                   int position = 0;
 
@@ -278,17 +298,20 @@ public class CompressedColumnarIntsSupplier implements WritableSupplier<Columnar
               }
             },
             compression,
+            compressor,
             chunkFactor * Integer.BYTES,
             byteOrder,
             closer
         ),
-        compression
+        compression,
+        compressor.getHeader()
     );
   }
 
   private class CompressedColumnarInts implements ColumnarInts
   {
-    final Indexed<ResourceHolder<ByteBuffer>> singleThreadedIntBuffers = baseIntBuffers.singleThreaded();
+    final Indexed<ResourceHolder<ByteBuffer>> singleThreadedIntBuffers =
+        DecompressedBlockCache.getInstance().wrap(baseIntBuffers.singleThreaded(), blockCacheId);
 
     int currBufferNum = -1;
     ResourceHolder<ByteBuffer> holder;
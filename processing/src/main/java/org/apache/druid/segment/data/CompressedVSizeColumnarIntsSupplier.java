@@ -24,6 +24,7 @@ import com.google.common.base.Preconditions;
 import it.unimi.dsi.fastutil.ints.IntList;
 import org.apache.druid.collections.ResourceHolder;
 import org.apache.druid.common.utils.ByteUtils;
+import org.apache.druid.io.Channels;
 import org.apache.druid.java.util.common.IAE;
 import org.apache.druid.java.util.common.guava.CloseQuietly;
 import org.apache.druid.java.util.common.io.Closer;
@@ -56,14 +57,20 @@ public class CompressedVSizeColumnarIntsSupplier implements WritableSupplier<Col
   private final int bigEndianShift;
   private final int littleEndianMask;
   private final GenericIndexed<ResourceHolder<ByteBuffer>> baseBuffers;
+  /**
+   * Id of the blocks of this column part in the {@link DecompressedBlockCache}.
+   */
+  private final long blockCacheId = DecompressedBlockCache.nextPartId();
   private final CompressionStrategy compression;
+  private final ByteBuffer compressionHeader;
 
   private CompressedVSizeColumnarIntsSupplier(
       int totalSize,
       int sizePer,
       int numBytes,
       GenericIndexed<ResourceHolder<ByteBuffer>> baseBuffers,
-      CompressionStrategy compression
+      CompressionStrategy compression,
+      ByteBuffer compressionHeader
   )
   {
     Preconditions.checkArgument(
@@ -75,6 +82,7 @@ public class CompressedVSizeColumnarIntsSupplier implements WritableSupplier<Col
     this.sizePer = sizePer;
     this.baseBuffers = baseBuffers;
     this.compression = compression;
+    this.compressionHeader = compressionHeader;
     this.numBytes = numBytes;
     this.bigEndianShift = Integer.SIZE - (numBytes << 3); // numBytes * 8
     this.littleEndianMask = (int) ((1L << (numBytes << 3)) - 1); // set numBytes * 8 lower bits to 1
@@ -125,13 +133,14 @@ public class CompressedVSizeColumnarIntsSupplier implements WritableSupplier<Col
   @Override
   public long getSerializedSize()
   {
-    return META_SERDE_HELPER.size(this) + baseBuffers.getSerializedSize();
+    return META_SERDE_HELPER.size(this) + compressionHeader.remaining() + baseBuffers.getSerializedSize();
   }
 
   @Override
   public void writeTo(WritableByteChannel channel, FileSmoosher smoosher) throws IOException
   {
     META_SERDE_HELPER.writeTo(channel, this);
+    Channels.writeFully(channel, compressionHeader.asReadOnlyBuffer());
     baseBuffers.writeTo(channel, smoosher);
   }
 
@@ -154,13 +163,18 @@ public class CompressedVSizeColumnarIntsSupplier implements WritableSupplier<Col
       final int sizePer = buffer.getInt();
 
       final CompressionStrategy compression = CompressionStrategy.forId(buffer.get());
+      final ByteBuffer compressionHeader = compression.readHeader(buffer);
 
       return new CompressedVSizeColumnarIntsSupplier(
           totalSize,
           sizePer,
           numBytes,
-          GenericIndexed.read(buffer, new DecompressingByteBufferObjectStrategy(order, compression)),
-          compression
+          GenericIndexed.read(
+              buffer,
+              new DecompressingByteBufferObjectStrategy(order, compression.getDecompressor(compressionHeader))
+          ),
+          compression,
+          compressionHeader
       );
 
     }
@@ -182,13 +196,19 @@ public class CompressedVSizeColumnarIntsSupplier implements WritableSupplier<Col
       final int sizePer = buffer.getInt();
 
       final CompressionStrategy compression = CompressionStrategy.forId(buffer.get());
+      final ByteBuffer compressionHeader = compression.readHeader(buffer);
 
       return new CompressedVSizeColumnarIntsSupplier(
           totalSize,
           sizePer,
           numBytes,
-          GenericIndexed.read(buffer, new DecompressingByteBufferObjectStrategy(order, compression), mapper),
-          compression
+          GenericIndexed.read(
+              buffer,
+              new DecompressingByteBufferObjectStrategy(order, compression.getDecompressor(compressionHeader)),
+              mapper
+          ),
+          compression,
+          compressionHeader
       );
 
     }
@@ -215,6 +235,7 @@ public class CompressedVSizeColumnarIntsSupplier implements WritableSupplier<Col
         chunkFactor
     );
 
+    final CompressionStrategy.Compressor compressor = compression.getCompressor();
     return new CompressedVSizeColumnarIntsSupplier(
         list.size(),
         chunkFactor,
@@ -229,7 +250,7 @@ public class CompressedVSizeColumnarIntsSupplier implements WritableSupplier<Col
                 {
                   int position = 0;
                   private final ByteBuffer retVal =
-                      compression.getCompressor().allocateInBuffer(chunkBytes, closer).order(byteOrder);
+                      compressor.allocateInBuffer(chunkBytes, closer).order(byteOrder);
                   private final boolean isBigEndian = byteOrder.equals(ByteOrder.BIG_ENDIAN);
                   private final ByteBuffer helperBuf = ByteBuffer.allocate(Integer.BYTES).order(byteOrder);
 
@@ -272,11 +293,13 @@ public class CompressedVSizeColumnarIntsSupplier implements WritableSupplier<Col
               }
             },
             compression,
+            compressor,
             chunkBytes,
             byteOrder,
             closer
         ),
-        compression
+        compression,
+        compressor.getHeader()
     );
   }
 
@@ -311,7 +334,8 @@ public class CompressedVSizeColumnarIntsSupplier implements WritableSupplier<Col
 
   private class CompressedVSizeColumnarInts implements ColumnarInts
   {
-    final Indexed<ResourceHolder<ByteBuffer>> singleThreadedBuffers = baseBuffers.singleThreaded();
+    final Indexed<ResourceHolder<ByteBuffer>> singleThreadedBuffers =
+        DecompressedBlockCache.getInstance().wrap(baseBuffers.singleThreaded(), blockCacheId);
 
     final int div = Integer.numberOfTrailingZeros(sizePer);
     final int rem = sizePer - 1;
@@ -63,6 +63,8 @@ public class CompressionFactory
 
   public static final LongEncodingStrategy DEFAULT_LONG_ENCODING_STRATEGY = LongEncodingStrategy.LONGS;
 
+  public static final FloatEncodingStrategy DEFAULT_FLOAT_ENCODING_STRATEGY = FloatEncodingStrategy.FLOATS;
+
   // encoding format for segments created prior to the introduction of encoding formats
   public static final LongEncodingFormat LEGACY_LONG_ENCODING_FORMAT = LongEncodingFormat.LONGS;
 
@@ -84,6 +86,28 @@ public class CompressionFactory
 
   public static final int MAX_TABLE_SIZE = 256;
 
+  /**
+   * PFOR Encoding Header v1 :
+   * Byte 1 : version
+   * <p>
+   * Each block is then encoded on its own, with the following layout:
+   * Byte 1 - 8 : base value
+   * Byte 9 : number of bits per value
+   * Byte 10 - 13 : number of exceptions
+   * Next 4 * (number of exceptions) bytes : block index of each exception, in ascending order
+   * Next 8 * (number of exceptions) bytes : value of each exception
+   * Rest : offsets from the base value, using {@link VSizeLongSerde}, where exceptions hold the largest offset
+   */
+  public static final byte PFOR_ENCODING_VERSION = 0x1;
+
+  /**
+   * XOR Encoding Header v1 (float and double columns) :
+   * Byte 1 : version
+   * <p>
+   * Each block is then a bit stream of {@link XorEncoding} encoded values.
+   */
+  public static final byte XOR_ENCODING_VERSION = 0x1;
+
   /*
    * There is no header or version for Longs encoding for backward compatibility
    */
@@ -127,7 +151,8 @@ public class CompressionFactory
   {
     /**
      * AUTO strategy scans all values once before encoding them. It stores the value cardinality and maximum offset
-     * of the values to determine whether to use DELTA, TABLE, or LONGS format.
+     * of the values to determine whether to use DELTA, TABLE, or LONGS format. When block compression is used, PFOR
+     * format is also considered, and is used if it's smaller than the format chosen above.
      */
     AUTO,
 
@@ -176,6 +201,19 @@ public class CompressionFactory
         return new TableLongEncodingReader(buffer);
       }
     },
+    /**
+     * PFOR (patched frame of reference) format encodes each block separately, as offsets from a base value using the
+     * minimum number of bits for the block. Values that don't fit, such as the occasional outlier, are stored aside
+     * as exceptions, so they don't widen the whole block like they do with DELTA format. PFOR format is only
+     * applicable to block compressed columns.
+     */
+    PFOR((byte) 0x2) {
+      @Override
+      public LongEncodingReader getReader(ByteBuffer buffer, ByteOrder order)
+      {
+        return new PforLongEncodingReader(buffer);
+      }
+    },
     /**
      * LONGS format encodes longs as is, using 8 bytes for each value.
      */
@@ -215,6 +253,63 @@ public class CompressionFactory
     }
   }
 
+  /**
+   * Encodings for float and double columns. Unlike longs, the strategy chosen is always the format that is written, so
+   * the same enum is used for both. Like for longs, the encoding byte is only written for formats other than FLOATS,
+   * so that segments that don't use them can still be read by versions that don't know about encodings of floats.
+   */
+  public enum FloatEncodingStrategy
+  {
+    /**
+     * XOR format stores each value as the XOR with the previous value of the block, see {@link XorEncoding}. It works
+     * well with slowly changing values, and only applies to block compressed columns.
+     */
+    XOR((byte) 0x0),
+
+    /**
+     * FLOATS format stores the values as is, using 4 bytes for each float and 8 bytes for each double.
+     */
+    FLOATS((byte) 0xFF);
+
+    final byte id;
+
+    FloatEncodingStrategy(byte id)
+    {
+      this.id = id;
+    }
+
+    public byte getId()
+    {
+      return id;
+    }
+
+    static final Map<Byte, FloatEncodingStrategy> ID_MAP = new HashMap<>();
+
+    static {
+      for (FloatEncodingStrategy format : FloatEncodingStrategy.values()) {
+        ID_MAP.put(format.getId(), format);
+      }
+    }
+
+    public static FloatEncodingStrategy forId(byte id)
+    {
+      return ID_MAP.get(id);
+    }
+
+    @JsonValue
+    @Override
+    public String toString()
+    {
+      return StringUtils.toLowerCase(this.name());
+    }
+
+    @JsonCreator
+    public static FloatEncodingStrategy fromString(String name)
+    {
+      return valueOf(StringUtils.toUpperCase(name));
+    }
+  }
+
   /**
    * This writer output encoded values to the given ByteBuffer or OutputStream. {@link #setBuffer(ByteBuffer)} or
    * {@link #setOutputStream(WriteOutBytes)} must be called before any value is written, and {@link #flush()} must
@@ -369,17 +464,20 @@ public class CompressionFactory
     }
   }
 
-  // Float currently does not support any encoding types, and stores values as 4 byte float
+  // Floats and doubles are stored as is (4 and 8 bytes), unless XOR encoding is used with block compression
 
   public static Supplier<ColumnarFloats> getFloatSupplier(
       int totalSize,
       int sizePer,
       ByteBuffer fromBuffer,
       ByteOrder order,
+      FloatEncodingStrategy encoding,
       CompressionStrategy strategy
   )
   {
-    if (strategy == CompressionStrategy.NONE) {
+    if (encoding == FloatEncodingStrategy.XOR) {
+      return new XorColumnarFloatsSupplier(totalSize, sizePer, fromBuffer, order, strategy);
+    } else if (strategy == CompressionStrategy.NONE) {
       return new EntireLayoutColumnarFloatsSupplier(totalSize, fromBuffer, order);
     } else {
       return new BlockLayoutColumnarFloatsSupplier(totalSize, sizePer, fromBuffer, order, strategy);
@@ -393,9 +491,36 @@ public class CompressionFactory
       ByteOrder order,
       CompressionStrategy compressionStrategy
   )
+  {
+    return getFloatSerializer(
+        columnName,
+        segmentWriteOutMedium,
+        filenameBase,
+        order,
+        compressionStrategy,
+        DEFAULT_FLOAT_ENCODING_STRATEGY
+    );
+  }
+
+  public static ColumnarFloatsSerializer getFloatSerializer(
+      String columnName,
+      SegmentWriteOutMedium segmentWriteOutMedium,
+      String filenameBase,
+      ByteOrder order,
+      CompressionStrategy compressionStrategy,
+      FloatEncodingStrategy encodingStrategy
+  )
   {
     if (compressionStrategy == CompressionStrategy.NONE) {
       return new EntireLayoutColumnarFloatsSerializer(columnName, segmentWriteOutMedium, order);
+    } else if (encodingStrategy == FloatEncodingStrategy.XOR) {
+      return new XorColumnarFloatsSerializer(
+          columnName,
+          segmentWriteOutMedium,
+          filenameBase,
+          order,
+          compressionStrategy
+      );
     } else {
       return new BlockLayoutColumnarFloatsSerializer(
           columnName,
@@ -412,9 +537,13 @@ public class CompressionFactory
       int sizePer,
       ByteBuffer fromBuffer,
       ByteOrder byteOrder,
+      FloatEncodingStrategy encoding,
       CompressionStrategy strategy
   )
   {
+    if (encoding == FloatEncodingStrategy.XOR) {
+      return new XorColumnarDoublesSupplier(totalSize, sizePer, fromBuffer, byteOrder, strategy);
+    }
     switch (strategy) {
       case NONE:
         return new EntireLayoutColumnarDoublesSupplier(totalSize, fromBuffer, byteOrder);
@@ -431,9 +560,36 @@ public class CompressionFactory
       ByteOrder byteOrder,
       CompressionStrategy compression
   )
+  {
+    return getDoubleSerializer(
+        columnName,
+        segmentWriteOutMedium,
+        filenameBase,
+        byteOrder,
+        compression,
+        DEFAULT_FLOAT_ENCODING_STRATEGY
+    );
+  }
+
+  public static ColumnarDoublesSerializer getDoubleSerializer(
+      String columnName,
+      SegmentWriteOutMedium segmentWriteOutMedium,
+      String filenameBase,
+      ByteOrder byteOrder,
+      CompressionStrategy compression,
+      FloatEncodingStrategy encodingStrategy
+  )
   {
     if (compression == CompressionStrategy.NONE) {
       return new EntireLayoutColumnarDoublesSerializer(columnName, segmentWriteOutMedium, byteOrder);
+    } else if (encodingStrategy == FloatEncodingStrategy.XOR) {
+      return new XorColumnarDoublesSerializer(
+          columnName,
+          segmentWriteOutMedium,
+          filenameBase,
+          byteOrder,
+          compression
+      );
     } else {
       return new BlockLayoutColumnarDoublesSerializer(
           columnName,
@@ -21,6 +21,10 @@ package org.apache.druid.segment.data;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdDictTrainer;
 import com.ning.compress.BufferRecycler;
 import com.ning.compress.lzf.LZFDecoder;
 import com.ning.compress.lzf.LZFEncoder;
@@ -29,11 +33,14 @@ import net.jpountz.lz4.LZ4SafeDecompressor;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.druid.collections.ResourceHolder;
 import org.apache.druid.java.util.common.ByteBufferUtils;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.java.util.common.ISE;
 import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.java.util.common.io.Closer;
 import org.apache.druid.java.util.common.logger.Logger;
 import org.apache.druid.segment.CompressedPools;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.HashMap;
@@ -75,6 +82,63 @@ public enum CompressionStrategy
       return LZ4Compressor.DEFAULT_COMPRESSOR;
     }
   },
+  ZSTD((byte) 0x2) {
+    @Override
+    public Decompressor getDecompressor()
+    {
+      return ZstdDecompressor.DEFAULT_DECOMPRESSOR;
+    }
+
+    @Override
+    public Compressor getCompressor()
+    {
+      return ZstdCompressor.DEFAULT_COMPRESSOR;
+    }
+  },
+  /**
+   * ZSTD compression with a dictionary trained per column from the first block written by a {@link Compressor}. The
+   * dictionary is stored in the header written in front of the compressed blocks, see {@link #readHeader}. If the
+   * first block is too small to train a dictionary from, the blocks are compressed as with {@link #ZSTD}.
+   */
+  ZSTD_DICTIONARY((byte) 0x3) {
+    @Override
+    public Decompressor getDecompressor()
+    {
+      return ZstdDecompressor.DEFAULT_DECOMPRESSOR;
+    }
+
+    @Override
+    public Compressor getCompressor()
+    {
+      return new ZstdDictionaryCompressor();
+    }
+
+    @Override
+    public ByteBuffer readHeader(ByteBuffer buffer)
+    {
+      final ByteBuffer header = buffer.slice();
+      final int dictionarySize = header.getInt(0);
+      if (dictionarySize < 0 || dictionarySize > header.remaining() - Integer.BYTES) {
+        throw new IAE("Invalid zstd dictionary size[%s]", dictionarySize);
+      }
+      header.limit(Integer.BYTES + dictionarySize);
+      buffer.position(buffer.position() + header.remaining());
+      return header;
+    }
+
+    @Override
+    public Decompressor getDecompressor(ByteBuffer header)
+    {
+      final ByteBuffer dictionaryBuffer = header.duplicate();
+      final int dictionarySize = dictionaryBuffer.getInt();
+      if (dictionarySize == 0) {
+        return ZstdDecompressor.DEFAULT_DECOMPRESSOR;
+      }
+      final byte[] dictionary = new byte[dictionarySize];
+      dictionaryBuffer.get(dictionary);
+      return new ZstdDecompressor(new ZstdDictDecompress(dictionary));
+    }
+  },
   UNCOMPRESSED((byte) 0xFF) {
     @Override
     public Decompressor getDecompressor()
@@ -110,6 +174,8 @@ public enum CompressionStrategy
 
   public static final CompressionStrategy DEFAULT_COMPRESSION_STRATEGY = LZ4;
 
+  private static final int ZSTD_COMPRESSION_LEVEL = 3;
+
   final byte id;
 
   CompressionStrategy(byte id)
@@ -126,6 +192,26 @@ public enum CompressionStrategy
 
   public abstract Decompressor getDecompressor();
 
+  /**
+   * Reads the strategy specific header that {@link GenericIndexedWriter#ofCompressedByteBuffers} writes in front of
+   * the compressed blocks (see {@link Compressor#getHeader()}), advancing the position of the given buffer past it.
+   * Only {@link #ZSTD_DICTIONARY} writes such a header, all other strategies return an empty buffer and leave the
+   * position of the given buffer unchanged.
+   */
+  public ByteBuffer readHeader(ByteBuffer buffer)
+  {
+    return ByteBuffer.allocate(0);
+  }
+
+  /**
+   * Returns a decompressor for the blocks written by a {@link Compressor} of this strategy with the given header, as
+   * returned by {@link #readHeader} or {@link Compressor#getHeader()}.
+   */
+  public Decompressor getDecompressor(ByteBuffer header)
+  {
+    return getDecompressor();
+  }
+
   @JsonValue
   @Override
   public String toString()
@@ -198,6 +284,16 @@ public enum CompressionStrategy
      * shouldn't be changed in compress() method.
      */
     public abstract ByteBuffer compress(ByteBuffer in, ByteBuffer out);
+
+    /**
+     * Returns the strategy specific header which is required to decompress the blocks compressed so far, such as a
+     * trained dictionary. It is written in front of the compressed blocks and read back with
+     * {@link CompressionStrategy#readHeader}. Empty for all strategies but {@link CompressionStrategy#ZSTD_DICTIONARY}.
+     */
+    public ByteBuffer getHeader()
+    {
+      return ByteBuffer.allocate(0);
+    }
   }
 
   public static class UncompressedCompressor extends Compressor
@@ -344,6 +440,204 @@ public enum CompressionStrategy
     }
   }
 
+  public static class ZstdDecompressor implements Decompressor
+  {
+    private static final ZstdDecompressor DEFAULT_DECOMPRESSOR = new ZstdDecompressor(null);
+
+    @Nullable
+    private final ZstdDictDecompress dictionary;
+
+    ZstdDecompressor(@Nullable ZstdDictDecompress dictionary)
+    {
+      this.dictionary = dictionary;
+    }
+
+    @Override
+    public void decompress(ByteBuffer in, int numBytes, ByteBuffer out)
+    {
+      if (in.isDirect() && out.isDirect()) {
+        final long numDecompressedBytes = dictionary == null
+            ? Zstd.decompressDirectByteBuffer(out, out.position(), out.remaining(), in, in.position(), numBytes)
+            : Zstd.decompressDirectByteBufferFastDict(
+                out,
+                out.position(),
+                out.remaining(),
+                in,
+                in.position(),
+                numBytes,
+                dictionary
+            );
+        out.limit(out.position() + checkZstdResult(numDecompressedBytes));
+      } else {
+        // zstd-jni only works on direct buffers or heap arrays, copy through arrays for anything else
+        final byte[] bytes = new byte[numBytes];
+        in.duplicate().get(bytes);
+        try (final ResourceHolder<byte[]> outputBytesHolder = CompressedPools.getOutputBytes()) {
+          final byte[] outputBytes = outputBytesHolder.get();
+          final long numDecompressedBytes = dictionary == null
+              ? Zstd.decompressByteArray(outputBytes, 0, outputBytes.length, bytes, 0, numBytes)
+              : Zstd.decompressFastDict(outputBytes, 0, bytes, 0, numBytes, dictionary);
+          out.put(outputBytes, 0, checkZstdResult(numDecompressedBytes));
+          out.flip();
+        }
+      }
+    }
+  }
+
+  public static class ZstdCompressor extends Compressor
+  {
+    private static final ZstdCompressor DEFAULT_COMPRESSOR = new ZstdCompressor();
+
+    @Override
+    ByteBuffer allocateInBuffer(int inputSize, Closer closer)
+    {
+      ByteBuffer inBuffer = ByteBuffer.allocateDirect(inputSize);
+      closer.register(() -> ByteBufferUtils.free(inBuffer));
+      return inBuffer;
+    }
+
+    @Override
+    ByteBuffer allocateOutBuffer(int inputSize, Closer closer)
+    {
+      ByteBuffer outBuffer = ByteBuffer.allocateDirect((int) Zstd.compressBound(inputSize));
+      closer.register(() -> ByteBufferUtils.free(outBuffer));
+      return outBuffer;
+    }
+
+    @Override
+    public ByteBuffer compress(ByteBuffer in, ByteBuffer out)
+    {
+      out.clear();
+      if (in.isDirect() && out.isDirect()) {
+        out.limit(checkZstdResult(compressDirect(in, out)));
+      } else {
+        // zstd-jni only works on direct buffers or heap arrays, copy through arrays for anything else
+        final byte[] bytes = new byte[in.remaining()];
+        in.duplicate().get(bytes);
+        final byte[] outputBytes = new byte[out.remaining()];
+        out.put(outputBytes, 0, checkZstdResult(compressArray(bytes, outputBytes)));
+        out.flip();
+      }
+      return out;
+    }
+
+    long compressDirect(ByteBuffer in, ByteBuffer out)
+    {
+      return Zstd.compressDirectByteBuffer(
+          out,
+          out.position(),
+          out.remaining(),
+          in,
+          in.position(),
+          in.remaining(),
+          ZSTD_COMPRESSION_LEVEL
+      );
+    }
+
+    long compressArray(byte[] in, byte[] out)
+    {
+      return Zstd.compressByteArray(out, 0, out.length, in, 0, in.length, ZSTD_COMPRESSION_LEVEL);
+    }
+  }
+
+  /**
+   * Compressor of {@link #ZSTD_DICTIONARY}. Trains a dictionary from the first block passed to {@link #compress}, so
+   * an instance must only be used for the blocks of a single column.
+   */
+  public static class ZstdDictionaryCompressor extends ZstdCompressor
+  {
+    // big enough to capture the common byte patterns of a column, small enough not to matter next to its blocks
+    private static final int DICTIONARY_SIZE = 4 * 1024;
+    private static final int SAMPLE_SIZE = 512;
+    // zstd needs plenty of samples to train a useful dictionary, don't bother for smaller first blocks
+    private static final int MIN_TRAINING_BYTES = 8 * DICTIONARY_SIZE;
+
+    private boolean trained = false;
+    @Nullable
+    private byte[] dictionary = null;
+    @Nullable
+    private ZstdDictCompress dictCompress = null;
+
+    @Override
+    public ByteBuffer compress(ByteBuffer in, ByteBuffer out)
+    {
+      if (!trained) {
+        train(in);
+      }
+      return super.compress(in, out);
+    }
+
+    @Override
+    long compressDirect(ByteBuffer in, ByteBuffer out)
+    {
+      if (dictCompress == null) {
+        return super.compressDirect(in, out);
+      }
+      return Zstd.compressDirectByteBufferFastDict(
+          out,
+          out.position(),
+          out.remaining(),
+          in,
+          in.position(),
+          in.remaining(),
+          dictCompress
+      );
+    }
+
+    @Override
+    long compressArray(byte[] in, byte[] out)
+    {
+      if (dictCompress == null) {
+        return super.compressArray(in, out);
+      }
+      return Zstd.compressFastDict(out, 0, in, 0, in.length, dictCompress);
+    }
+
+    @Override
+    public ByteBuffer getHeader()
+    {
+      final int dictionarySize = dictionary == null ? 0 : dictionary.length;
+      final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + dictionarySize).putInt(dictionarySize);
+      if (dictionary != null) {
+        header.put(dictionary);
+      }
+      header.flip();
+      return header;
+    }
+
+    private void train(ByteBuffer in)
+    {
+      trained = true;
+      if (in.remaining() < MIN_TRAINING_BYTES) {
+        return;
+      }
+      final ZstdDictTrainer trainer = new ZstdDictTrainer(in.remaining(), DICTIONARY_SIZE);
+      final ByteBuffer samples = in.duplicate();
+      while (samples.hasRemaining()) {
+        final byte[] sample = new byte[Math.min(SAMPLE_SIZE, samples.remaining())];
+        samples.get(sample);
+        trainer.addSample(sample);
+      }
+      final ByteBuffer trainedDictionary = trainer.trainSamplesDirect();
+      if (trainedDictionary == null) {
+        // the samples don't have enough structure to build a dictionary from, compress without one
+        LOG.debug("Could not train zstd dictionary from [%,d] bytes", in.remaining());
+        return;
+      }
+      dictionary = new byte[trainedDictionary.remaining()];
+      trainedDictionary.get(dictionary);
+      dictCompress = new ZstdDictCompress(dictionary, ZSTD_COMPRESSION_LEVEL);
+    }
+  }
+
+  private static int checkZstdResult(long result)
+  {
+    if (Zstd.isError(result)) {
+      throw new ISE("zstd error: %s", Zstd.getErrorName(result));
+    }
+    return (int) result;
+  }
+
   /**
    * Logs info relating to whether LZ4 is using native or pure Java implementations
    */
@@ -70,6 +70,12 @@ public class ConciseBitmapSerdeFactory implements BitmapSerdeFactory
       return val.toBytes();
     }
 
+    @Override
+    public boolean canCompare()
+    {
+      return false;
+    }
+
     @Override
     public int compare(ImmutableBitmap o1, ImmutableBitmap o2)
     {
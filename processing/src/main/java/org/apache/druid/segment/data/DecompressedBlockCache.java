@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.inject.Inject;
+import org.apache.druid.collections.ResourceHolder;
+import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
+import org.apache.druid.segment.cache.HeapBufferCache;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded, least-recently-used cache of decompressed blocks of compressed columns, shared by all segments of the
+ * process, so that the hot blocks read by concurrent queries are decompressed once instead of for every query.
+ *
+ * Blocks are keyed by the id of the part of the column they belong to, see {@link #nextPartId()}, and their number.
+ * Parts deserialized within {@link #deserializingColumn} are identified by the segment column and their order in it,
+ * so a column deserialized again after being released, see
+ * {@link org.apache.druid.segment.column.ColumnConfig#lazyColumnCacheSize()}, reads the blocks cached before. Other
+ * parts get a new id every time they are deserialized. Either way the blocks of dropped segments are never read again
+ * and are eventually evicted.
+ *
+ * Cached blocks are copied on the heap, see {@link HeapBufferCache}.
+ *
+ * The cache is disabled by default. It is configured by {@link DecompressedBlockCacheConfig}, injected statically by
+ * {@link org.apache.druid.guice.DecompressedBlockCacheModule}, and its statistics are emitted by
+ * {@link DecompressedBlockCacheMonitor}.
+ */
+public class DecompressedBlockCache extends HeapBufferCache<DecompressedBlockCache.BlockKey>
+{
+  private static final DecompressedBlockCache DISABLED = new DecompressedBlockCache(0);
+  private static final AtomicLong NEXT_COLUMN_ID = new AtomicLong();
+  private static final ThreadLocal<PartIds> DESERIALIZING_COLUMN = new ThreadLocal<>();
+
+  /**
+   * Number of low bits of part ids holding the number of the part in its column.
+   */
+  private static final int PART_NUM_BITS = 8;
+
+  private static volatile DecompressedBlockCache instance = DISABLED;
+
+  @Inject
+  public static void configure(DecompressedBlockCacheConfig config)
+  {
+    setInstance(new DecompressedBlockCache(config.getSizeInBytes()));
+  }
+
+  public static DecompressedBlockCache getInstance()
+  {
+    return instance;
+  }
+
+  @VisibleForTesting
+  public static void setInstance(DecompressedBlockCache cache)
+  {
+    instance = cache;
+  }
+
+  /**
+   * Returns a new unique id for a column of a segment, see {@link #deserializingColumn}.
+   */
+  public static long nextColumnId()
+  {
+    return NEXT_COLUMN_ID.getAndIncrement();
+  }
+
+  /**
+   * Returns the id of a deserialized compressed part of a column, to key its blocks with. Within
+   * {@link #deserializingColumn}, the id is made of the id of the column and the number of parts deserialized before in
+   * the current thread, and is the same every time the column is deserialized. Otherwise it is a new unique id.
+   */
+  public static long nextPartId()
+  {
+    final PartIds partIds = DESERIALIZING_COLUMN.get();
+    if (partIds == null) {
+      return nextColumnId() << PART_NUM_BITS;
+    }
+    return partIds.next();
+  }
+
+  /**
+   * Marks the start of the deserialization of the column with the given id, see {@link #nextColumnId()}, in the
+   * current thread, until the returned object is closed. The parts of the column then get the same ids, see
+   * {@link #nextPartId()}, every time the column is deserialized, as long as the column id is kept.
+   */
+  public static PartIds deserializingColumn(long columnId)
+  {
+    final PartIds partIds = new PartIds(columnId, DESERIALIZING_COLUMN.get());
+    DESERIALIZING_COLUMN.set(partIds);
+    return partIds;
+  }
+
+  public DecompressedBlockCache(long maxSizeInBytes)
+  {
+    super(maxSizeInBytes, (key, block) -> block.capacity());
+  }
+
+  /**
+   * Wraps the given decompressed blocks of the column part with the given id, see {@link #nextPartId()}, to read them
+   * from this cache. Returns the blocks as is if the cache is disabled.
+   */
+  public Indexed<ResourceHolder<ByteBuffer>> wrap(Indexed<ResourceHolder<ByteBuffer>> blocks, long partId)
+  {
+    if (!isEnabled()) {
+      return blocks;
+    }
+    return new CachedBlocks(blocks, partId);
+  }
+
+  private ByteBuffer getBlock(Indexed<ResourceHolder<ByteBuffer>> blocks, long partId, int blockNum)
+  {
+    final BlockKey key = new BlockKey(partId, blockNum);
+    ByteBuffer block = getIfPresent(key);
+    if (block == null) {
+      try (ResourceHolder<ByteBuffer> holder = blocks.get(blockNum)) {
+        final ByteBuffer decompressed = holder.get();
+        // copy the whole buffer, readers may read the padding after the decompressed values
+        block = ByteBuffer.allocate(decompressed.capacity()).order(decompressed.order());
+        final ByteBuffer source = decompressed.duplicate();
+        source.clear();
+        block.put(source);
+        block.limit(decompressed.limit()).position(decompressed.position());
+      }
+      put(key, block);
+    }
+    // duplicate() does not preserve the byte order
+    return block.duplicate().order(block.order());
+  }
+
+  private class CachedBlocks implements Indexed<ResourceHolder<ByteBuffer>>
+  {
+    private final Indexed<ResourceHolder<ByteBuffer>> blocks;
+    private final long partId;
+
+    private CachedBlocks(Indexed<ResourceHolder<ByteBuffer>> blocks, long partId)
+    {
+      this.blocks = blocks;
+      this.partId = partId;
+    }
+
+    @Override
+    public int size()
+    {
+      return blocks.size();
+    }
+
+    @Override
+    public ResourceHolder<ByteBuffer> get(int index)
+    {
+      final ByteBuffer block = getBlock(blocks, partId, index);
+      return new ResourceHolder<ByteBuffer>()
+      {
+        @Override
+        public ByteBuffer get()
+        {
+          return block;
+        }
+
+        @Override
+        public void close()
+        {
+          // the block is owned by the cache
+        }
+      };
+    }
+
+    @Override
+    public int indexOf(@Nullable ResourceHolder<ByteBuffer> value)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<ResourceHolder<ByteBuffer>> iterator()
+    {
+      return IndexedIterable.create(this).iterator();
+    }
+
+    @Override
+    public void inspectRuntimeShape(RuntimeShapeInspector inspector)
+    {
+      inspector.visit("blocks", blocks);
+    }
+  }
+
+  /**
+   * Ids of the parts of a column being deserialized in the current thread, see {@link #deserializingColumn}.
+   */
+  public static class PartIds implements Closeable
+  {
+    private final long columnId;
+    @Nullable
+    private final PartIds previous;
+    private int numParts = 0;
+
+    private PartIds(long columnId, @Nullable PartIds previous)
+    {
+      this.columnId = columnId;
+      this.previous = previous;
+    }
+
+    private long next()
+    {
+      if (numParts == 1 << PART_NUM_BITS) {
+        // too many parts to number them, fall back to new ids
+        return nextColumnId() << PART_NUM_BITS;
+      }
+      return (columnId << PART_NUM_BITS) | numParts++;
+    }
+
+    @Override
+    public void close()
+    {
+      if (previous == null) {
+        DESERIALIZING_COLUMN.remove();
+      } else {
+        DESERIALIZING_COLUMN.set(previous);
+      }
+    }
+  }
+
+  static class BlockKey
+  {
+    private final long partId;
+    private final int blockNum;
+
+    private BlockKey(long partId, int blockNum)
+    {
+      this.partId = partId;
+      this.blockNum = blockNum;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      BlockKey blockKey = (BlockKey) o;
+      return partId == blockKey.partId && blockNum == blockKey.blockNum;
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return Objects.hash(partId, blockNum);
+    }
+  }
+}
@@ -30,10 +30,23 @@ public class DecompressingByteBufferObjectStrategy implements ObjectStrategy<Res
   private final ByteOrder order;
   private final CompressionStrategy.Decompressor decompressor;
 
-  DecompressingByteBufferObjectStrategy(ByteOrder order, CompressionStrategy compression)
+  DecompressingByteBufferObjectStrategy(ByteOrder order, CompressionStrategy.Decompressor decompressor)
   {
     this.order = order;
-    this.decompressor = compression.getDecompressor();
+    this.decompressor = decompressor;
+  }
+
+  /**
+   * Reads the header of the given compression strategy in front of a {@link GenericIndexed} of compressed blocks, see
+   * {@link GenericIndexedWriter#ofCompressedByteBuffers}, and returns a strategy to decompress these blocks with.
+   */
+  static DecompressingByteBufferObjectStrategy readCompressionHeader(
+      ByteBuffer buffer,
+      ByteOrder order,
+      CompressionStrategy compression
+  )
+  {
+    return new DecompressingByteBufferObjectStrategy(order, compression.getDecompressor(compression.readHeader(buffer)));
   }
 
   @Override
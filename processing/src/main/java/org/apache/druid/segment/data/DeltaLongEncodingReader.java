@@ -65,6 +65,12 @@ public class DeltaLongEncodingReader implements CompressionFactory.LongEncodingR
     return base + deserializer.get(index);
   }
 
+  @Override
+  public void read(long[] out, int outPosition, int startIndex, int length)
+  {
+    deserializer.getDelta(out, outPosition, startIndex, length, base);
+  }
+
   @Override
   public CompressionFactory.LongEncodingReader duplicate()
   {
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import org.apache.druid.segment.serde.Serializer;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+/**
+ * Writer of the sorted value dictionary of a dictionary encoded column, see {@link StringEncodingStrategy}.
+ */
+public interface DictionaryWriter<T> extends Serializer
+{
+  void open() throws IOException;
+
+  void write(@Nullable T objectToWrite) throws IOException;
+
+  /**
+   * Returns a value that was already written, for indexes that are built from the dictionary values.
+   */
+  @Nullable
+  T get(int index) throws IOException;
+}
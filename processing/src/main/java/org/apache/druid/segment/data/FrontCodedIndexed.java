@@ -0,0 +1,376 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Sorted dictionary of strings stored with front coding: the UTF-8 values are split in buckets of a power of 2 number
+ * of values, the first value of every bucket is stored in full and every other value of the bucket only stores the
+ * length of the prefix it shares with the first value, followed by the rest of its bytes. Since dictionaries are
+ * sorted, neighbouring values tend to share long prefixes (URLs, paths, user agents...).
+ *
+ * Lookups by index decode at most one bucket, and {@link #indexOf} binary searches the first values of the buckets,
+ * then scans a single bucket, so it has the same contract as {@link GenericIndexed#indexOf}.
+ *
+ * The serialized format is:
+ *
+ * byte 1: version (0x0)
+ * byte 2: bucket size
+ * byte 3: whether the dictionary contains null, which is then the value at index 0 and is not stored in the buckets
+ * bytes 4-7: number of non-null values
+ * bytes 8-11: number of bytes used by the buckets
+ * next (number of buckets - 1) * 4 bytes: offsets of the buckets after the first one, relative to the first bucket
+ * rest: the buckets. Lengths are stored as variable size integers, see {@link VByte}:
+ *   - length of the first value, then its bytes
+ *   - for every other value: length of the prefix shared with the first value, length of the rest, then its bytes
+ *
+ * Thread safe, except for the view returned by {@link #singleThreaded()}.
+ */
+public final class FrontCodedIndexed implements Indexed<String>
+{
+  public static final byte VERSION = 0x0;
+  public static final int MAX_BUCKET_SIZE = 128;
+
+  public static FrontCodedIndexed read(ByteBuffer buffer)
+  {
+    final ByteBuffer copy = buffer.asReadOnlyBuffer();
+    final byte version = copy.get();
+    if (version != VERSION) {
+      throw new IAE("Unknown version[%s]", version);
+    }
+    final int bucketSize = copy.get() & 0xFF;
+    final boolean hasNull = copy.get() == 1;
+    final int numValues = copy.getInt();
+    final int bucketsSize = copy.getInt();
+    final int numBuckets = getNumBuckets(numValues, bucketSize);
+
+    final ByteBuffer offsetsBuffer = copy.slice();
+    offsetsBuffer.limit(Math.max(0, numBuckets - 1) * Integer.BYTES);
+    copy.position(copy.position() + offsetsBuffer.limit());
+
+    final ByteBuffer bucketsBuffer = copy.slice();
+    bucketsBuffer.limit(bucketsSize);
+    copy.position(copy.position() + bucketsSize);
+
+    buffer.position(copy.position());
+    return new FrontCodedIndexed(offsetsBuffer, bucketsBuffer, bucketSize, numValues, numBuckets, hasNull);
+  }
+
+  static int getNumBuckets(int numValues, int bucketSize)
+  {
+    return (numValues + bucketSize - 1) / bucketSize;
+  }
+
+  private final ByteBuffer offsetsBuffer;
+  private final ByteBuffer bucketsBuffer;
+  private final int bucketSize;
+  private final int bucketShift;
+  private final int bucketMask;
+  private final int numValues;
+  private final int numBuckets;
+  private final boolean hasNull;
+  private final int adjustIndex;
+
+  private FrontCodedIndexed(
+      ByteBuffer offsetsBuffer,
+      ByteBuffer bucketsBuffer,
+      int bucketSize,
+      int numValues,
+      int numBuckets,
+      boolean hasNull
+  )
+  {
+    if (Integer.bitCount(bucketSize) != 1 || bucketSize > MAX_BUCKET_SIZE) {
+      throw new IAE("Unsupported bucket size[%s]", bucketSize);
+    }
+    this.offsetsBuffer = offsetsBuffer;
+    this.bucketsBuffer = bucketsBuffer;
+    this.bucketSize = bucketSize;
+    this.bucketShift = Integer.numberOfTrailingZeros(bucketSize);
+    this.bucketMask = bucketSize - 1;
+    this.numValues = numValues;
+    this.numBuckets = numBuckets;
+    this.hasNull = hasNull;
+    this.adjustIndex = hasNull ? 1 : 0;
+  }
+
+  @Override
+  public int size()
+  {
+    return numValues + adjustIndex;
+  }
+
+  @Nullable
+  @Override
+  public String get(int index)
+  {
+    return get(bucketsBuffer.asReadOnlyBuffer(), index);
+  }
+
+  @Override
+  public int indexOf(@Nullable String value)
+  {
+    if (value == null && hasNull) {
+      return 0;
+    }
+
+    final ByteBuffer buckets = bucketsBuffer.asReadOnlyBuffer();
+    int minBucket = 0;
+    int maxBucket = numBuckets - 1;
+    while (minBucket <= maxBucket) {
+      final int currBucket = (minBucket + maxBucket) >>> 1;
+      seekBucket(buckets, currBucket);
+      final int comparison = GenericIndexed.STRING_STRATEGY.compare(decode(readValue(buckets, 0)), value);
+      if (comparison == 0) {
+        return adjustIndex + (currBucket << bucketShift);
+      }
+
+      if (comparison < 0) {
+        minBucket = currBucket + 1;
+      } else {
+        maxBucket = currBucket - 1;
+      }
+    }
+
+    // the value is after the first value of maxBucket, and before the first value of maxBucket + 1
+    if (maxBucket < 0) {
+      return -(adjustIndex + 1);
+    }
+    seekBucket(buckets, maxBucket);
+    final byte[][] bucket = readBucket(buckets, getBucketLength(maxBucket));
+    final int bucketStart = adjustIndex + (maxBucket << bucketShift);
+    for (int i = 1; i < bucket.length; i++) {
+      final int comparison = GenericIndexed.STRING_STRATEGY.compare(decode(bucket[i]), value);
+      if (comparison == 0) {
+        return bucketStart + i;
+      }
+      if (comparison > 0) {
+        return -(bucketStart + i + 1);
+      }
+    }
+    return -(bucketStart + bucket.length + 1);
+  }
+
+  @Override
+  public Iterator<String> iterator()
+  {
+    final ByteBuffer buckets = bucketsBuffer.asReadOnlyBuffer();
+    return new Iterator<String>()
+    {
+      private int index = 0;
+      private byte[][] bucket = null;
+
+      @Override
+      public boolean hasNext()
+      {
+        return index < size();
+      }
+
+      @Override
+      public String next()
+      {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        final int valueIndex = index++ - adjustIndex;
+        if (valueIndex < 0) {
+          return null;
+        }
+        final int offset = valueIndex & bucketMask;
+        if (offset == 0) {
+          // buckets are stored one after the other, so the buffer is already positioned on the next one
+          bucket = readBucket(buckets, getBucketLength(valueIndex >> bucketShift));
+        }
+        return decode(bucket[offset]);
+      }
+    };
+  }
+
+  /**
+   * Returns a view of this dictionary which is faster to read from, but can only be used from a single thread at a
+   * time, like {@link GenericIndexed#singleThreaded()}.
+   */
+  public SingleThreaded singleThreaded()
+  {
+    return new SingleThreaded();
+  }
+
+  @Override
+  public void inspectRuntimeShape(RuntimeShapeInspector inspector)
+  {
+    inspector.visit("bucketsBuffer", bucketsBuffer);
+  }
+
+  @Nullable
+  private String get(ByteBuffer buckets, int index)
+  {
+    final byte[] value = getBytes(buckets, index);
+    return value == null ? null : decode(value);
+  }
+
+  @Nullable
+  private byte[] getBytes(ByteBuffer buckets, int index)
+  {
+    if (index < 0) {
+      throw new IAE("Index[%s] < 0", index);
+    }
+    if (index >= size()) {
+      throw new IAE("Index[%d] >= size[%d]", index, size());
+    }
+    final int valueIndex = index - adjustIndex;
+    if (valueIndex < 0) {
+      return null;
+    }
+    seekBucket(buckets, valueIndex >> bucketShift);
+    return readValue(buckets, valueIndex & bucketMask);
+  }
+
+  private void seekBucket(ByteBuffer buckets, int bucket)
+  {
+    buckets.position(bucket == 0 ? 0 : offsetsBuffer.getInt((bucket - 1) * Integer.BYTES));
+  }
+
+  private int getBucketLength(int bucket)
+  {
+    return bucket == numBuckets - 1 ? numValues - (bucket << bucketShift) : bucketSize;
+  }
+
+  @Nullable
+  private static String decode(byte[] value)
+  {
+    return NullHandling.emptyToNullIfNeeded(StringUtils.fromUtf8(value));
+  }
+
+  /**
+   * Reads the value at the given offset of the bucket starting at the position of the buffer.
+   */
+  static byte[] readValue(ByteBuffer bucket, int offset)
+  {
+    final int firstLength = VByte.readInt(bucket);
+    final int firstStart = bucket.position();
+    if (offset == 0) {
+      final byte[] value = new byte[firstLength];
+      bucket.get(value);
+      return value;
+    }
+
+    bucket.position(firstStart + firstLength);
+    int prefixLength = VByte.readInt(bucket);
+    int suffixLength = VByte.readInt(bucket);
+    for (int i = 1; i < offset; i++) {
+      bucket.position(bucket.position() + suffixLength);
+      prefixLength = VByte.readInt(bucket);
+      suffixLength = VByte.readInt(bucket);
+    }
+
+    final byte[] value = new byte[prefixLength + suffixLength];
+    final int suffixStart = bucket.position();
+    bucket.position(firstStart);
+    bucket.get(value, 0, prefixLength);
+    bucket.position(suffixStart);
+    bucket.get(value, prefixLength, suffixLength);
+    return value;
+  }
+
+  /**
+   * Reads all values of the bucket starting at the position of the buffer, after which the buffer is positioned at the
+   * end of the bucket.
+   */
+  static byte[][] readBucket(ByteBuffer bucket, int numValues)
+  {
+    final byte[][] values = new byte[numValues][];
+    final byte[] first = new byte[VByte.readInt(bucket)];
+    bucket.get(first);
+    values[0] = first;
+    for (int i = 1; i < numValues; i++) {
+      final int prefixLength = VByte.readInt(bucket);
+      final byte[] value = new byte[prefixLength + VByte.readInt(bucket)];
+      System.arraycopy(first, 0, value, 0, prefixLength);
+      bucket.get(value, prefixLength, value.length - prefixLength);
+      values[i] = value;
+    }
+    return values;
+  }
+
+  /**
+   * Single threaded view of a {@link FrontCodedIndexed}, which reuses the same buffer for all lookups and keeps track
+   * of the size of the last value read, for {@link CachingIndexed}.
+   */
+  public final class SingleThreaded implements Indexed<String>
+  {
+    private final ByteBuffer buckets = bucketsBuffer.asReadOnlyBuffer();
+    private int lastValueSize;
+
+    private SingleThreaded()
+    {
+    }
+
+    @Override
+    public int size()
+    {
+      return FrontCodedIndexed.this.size();
+    }
+
+    @Nullable
+    @Override
+    public String get(int index)
+    {
+      final byte[] value = getBytes(buckets, index);
+      if (value == null) {
+        lastValueSize = 0;
+        return null;
+      }
+      lastValueSize = value.length;
+      return decode(value);
+    }
+
+    int getLastValueSize()
+    {
+      return lastValueSize;
+    }
+
+    @Override
+    public int indexOf(@Nullable String value)
+    {
+      return FrontCodedIndexed.this.indexOf(value);
+    }
+
+    @Override
+    public Iterator<String> iterator()
+    {
+      return FrontCodedIndexed.this.iterator();
+    }
+
+    @Override
+    public void inspectRuntimeShape(RuntimeShapeInspector inspector)
+    {
+      inspector.visit("buckets", buckets);
+    }
+  }
+}
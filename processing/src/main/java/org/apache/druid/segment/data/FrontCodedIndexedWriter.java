@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.common.io.smoosh.FileSmoosher;
+import org.apache.druid.segment.serde.MetaSerdeHelper;
+import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
+import org.apache.druid.segment.writeout.WriteOutBytes;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Streams sorted strings out in the binary format described by {@link FrontCodedIndexed}. Values must be written in
+ * {@link GenericIndexed#STRING_STRATEGY} order without duplicates, with null (if any) first.
+ */
+public class FrontCodedIndexedWriter implements DictionaryWriter<String>
+{
+  private static final MetaSerdeHelper<FrontCodedIndexedWriter> META_SERDE_HELPER = MetaSerdeHelper
+      .firstWriteByte((FrontCodedIndexedWriter x) -> FrontCodedIndexed.VERSION)
+      .writeByte(x -> (byte) x.bucketSize)
+      .writeByte(x -> x.hasNull ? (byte) 1 : (byte) 0)
+      .writeInt(x -> x.numWritten)
+      .writeInt(x -> (int) x.bucketsOut.size());
+
+  private final SegmentWriteOutMedium segmentWriteOutMedium;
+  private final int bucketSize;
+  private final byte[][] bucket;
+  private final ByteBuffer getOffsetBuffer = ByteBuffer.allocate(Integer.BYTES);
+
+  @Nullable
+  private WriteOutBytes offsetsOut = null;
+  @Nullable
+  private WriteOutBytes bucketsOut = null;
+  private int bucketCount = 0;
+  private int numWritten = 0;
+  private boolean hasNull = false;
+  @Nullable
+  private String prevObject = null;
+
+  public FrontCodedIndexedWriter(SegmentWriteOutMedium segmentWriteOutMedium, int bucketSize)
+  {
+    this.segmentWriteOutMedium = segmentWriteOutMedium;
+    this.bucketSize = bucketSize;
+    this.bucket = new byte[bucketSize][];
+  }
+
+  @Override
+  public void open() throws IOException
+  {
+    offsetsOut = segmentWriteOutMedium.makeWriteOutBytes();
+    bucketsOut = segmentWriteOutMedium.makeWriteOutBytes();
+  }
+
+  @Override
+  public void write(@Nullable String objectToWrite) throws IOException
+  {
+    if (objectToWrite == null) {
+      if (hasNull || numWritten > 0) {
+        throw new ISE("null must be the first value of a front coded dictionary");
+      }
+      hasNull = true;
+      return;
+    }
+    if (prevObject != null && GenericIndexed.STRING_STRATEGY.compare(prevObject, objectToWrite) >= 0) {
+      throw new ISE("Values must be sorted and unique, got[%s] after[%s]", objectToWrite, prevObject);
+    }
+
+    if (bucketCount == bucketSize) {
+      flushBucket();
+    }
+    bucket[bucketCount++] = StringUtils.toUtf8(objectToWrite);
+    numWritten++;
+    prevObject = objectToWrite;
+  }
+
+  @Nullable
+  @Override
+  public String get(int index) throws IOException
+  {
+    if (hasNull) {
+      if (index == 0) {
+        return null;
+      }
+      index--;
+    }
+
+    final int firstUnflushed = numWritten - bucketCount;
+    final byte[] value;
+    if (index >= firstUnflushed) {
+      value = bucket[index - firstUnflushed];
+    } else {
+      final int bucketNum = index / bucketSize;
+      final long start = bucketNum == 0 ? 0 : getOffset(bucketNum - 1);
+      final long end = (bucketNum + 1) * (long) Integer.BYTES <= offsetsOut.size()
+                       ? getOffset(bucketNum)
+                       : bucketsOut.size();
+      final ByteBuffer bucketBuffer = ByteBuffer.allocate((int) (end - start));
+      bucketsOut.readFully(start, bucketBuffer);
+      bucketBuffer.clear();
+      value = FrontCodedIndexed.readValue(bucketBuffer, index % bucketSize);
+    }
+    return NullHandling.emptyToNullIfNeeded(StringUtils.fromUtf8(value));
+  }
+
+  /**
+   * Returns the offset of the bucket after the given one.
+   */
+  private long getOffset(int bucketNum) throws IOException
+  {
+    getOffsetBuffer.clear();
+    offsetsOut.readFully(bucketNum * (long) Integer.BYTES, getOffsetBuffer);
+    return getOffsetBuffer.getInt(0);
+  }
+
+  @Override
+  public long getSerializedSize() throws IOException
+  {
+    flushBucket();
+    return META_SERDE_HELPER.size(this) + offsetsOut.size() + bucketsOut.size();
+  }
+
+  @Override
+  public void writeTo(WritableByteChannel channel, FileSmoosher smoosher) throws IOException
+  {
+    flushBucket();
+    META_SERDE_HELPER.writeTo(channel, this);
+    offsetsOut.writeTo(channel);
+    bucketsOut.writeTo(channel);
+  }
+
+  private void flushBucket() throws IOException
+  {
+    if (bucketCount == 0) {
+      return;
+    }
+    if (bucketsOut.size() > 0) {
+      offsetsOut.writeInt((int) bucketsOut.size());
+    }
+
+    final byte[] first = bucket[0];
+    VByte.writeInt(bucketsOut, first.length);
+    bucketsOut.write(first);
+    for (int i = 1; i < bucketCount; i++) {
+      final byte[] value = bucket[i];
+      final int prefixLength = getPrefixLength(first, value);
+      VByte.writeInt(bucketsOut, prefixLength);
+      VByte.writeInt(bucketsOut, value.length - prefixLength);
+      bucketsOut.write(value, prefixLength, value.length - prefixLength);
+    }
+    bucketCount = 0;
+
+    if (bucketsOut.size() > Integer.MAX_VALUE) {
+      throw new ISE("Front coded dictionary is too large, [%,d] bytes", bucketsOut.size());
+    }
+  }
+
+  private static int getPrefixLength(byte[] first, byte[] value)
+  {
+    final int maxLength = Math.min(first.length, value.length);
+    int i = 0;
+    while (i < maxLength && first[i] == value[i]) {
+      i++;
+    }
+    return i;
+  }
+}
@@ -19,6 +19,8 @@
 
 package org.apache.druid.segment.data;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.primitives.Ints;
 import org.apache.druid.collections.ResourceHolder;
 import org.apache.druid.common.config.NullHandling;
@@ -154,25 +156,37 @@ public class GenericIndexed<T> implements CloseableIndexed<T>, Serializer
     return fromIterable(Arrays.asList(objects), strategy);
   }
 
+  /**
+   * Compresses the given buffers with the given compressor of the given strategy. The compressor's header (see
+   * {@link CompressionStrategy.Compressor#getHeader()}) is not part of the returned GenericIndexed, callers which
+   * serialize it must write the header in front of it themselves.
+   */
   static GenericIndexed<ResourceHolder<ByteBuffer>> ofCompressedByteBuffers(
       Iterable<ByteBuffer> buffers,
       CompressionStrategy compression,
+      CompressionStrategy.Compressor compressor,
       int bufferSize,
       ByteOrder order,
       Closer closer
   )
   {
+    // the header is only complete once all the buffers are compressed, so the decompressor must be created lazily
+    final Supplier<CompressionStrategy.Decompressor> decompressor =
+        Suppliers.memoize(() -> compression.getDecompressor(compressor.getHeader()));
     return fromIterableVersionOne(
         buffers,
-        GenericIndexedWriter.compressedByteBuffersWriteObjectStrategy(compression, bufferSize, closer),
+        GenericIndexedWriter.compressedByteBuffersWriteObjectStrategy(compressor, bufferSize, closer),
         false,
-        new DecompressingByteBufferObjectStrategy(order, compression)
+        new DecompressingByteBufferObjectStrategy(
+            order,
+            (in, numBytes, out) -> decompressor.get().decompress(in, numBytes, out)
+        )
     );
   }
 
   public static <T> GenericIndexed<T> fromIterable(Iterable<T> objectsIterable, ObjectStrategy<T> strategy)
   {
-    return fromIterableVersionOne(objectsIterable, strategy, true, strategy);
+    return fromIterableVersionOne(objectsIterable, strategy, strategy.canCompare(), strategy);
   }
 
   static int getNumberOfFilesRequired(int bagSize, long numWritten)
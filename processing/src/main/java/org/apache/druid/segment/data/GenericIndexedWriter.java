@@ -24,6 +24,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.primitives.Ints;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
 import it.unimi.dsi.fastutil.longs.LongList;
+import org.apache.druid.io.Channels;
 import org.apache.druid.java.util.common.IAE;
 import org.apache.druid.java.util.common.ISE;
 import org.apache.druid.java.util.common.StringUtils;
@@ -31,7 +32,6 @@ import org.apache.druid.java.util.common.io.Closer;
 import org.apache.druid.java.util.common.io.smoosh.FileSmoosher;
 import org.apache.druid.java.util.common.io.smoosh.SmooshedWriter;
 import org.apache.druid.segment.serde.MetaSerdeHelper;
-import org.apache.druid.segment.serde.Serializer;
 import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
 import org.apache.druid.segment.writeout.WriteOutBytes;
 
@@ -47,7 +47,7 @@ import java.nio.channels.WritableByteChannel;
 /**
  * Streams arrays of objects out in the binary format described by {@link GenericIndexed}
  */
-public class GenericIndexedWriter<T> implements Serializer
+public class GenericIndexedWriter<T> implements DictionaryWriter<T>
 {
   private static final int PAGE_SIZE = 4096;
 
@@ -70,6 +70,11 @@ public class GenericIndexedWriter<T> implements Serializer
       .writeByteArray(x -> x.fileNameByteArray);
 
 
+  /**
+   * Creates a writer of compressed blocks. The header of the compressor (see
+   * {@link CompressionStrategy.Compressor#getHeader()}) is written in front of the blocks, so they must be read back
+   * with {@link CompressionStrategy#readHeader} followed by {@link GenericIndexed#read}.
+   */
   static GenericIndexedWriter<ByteBuffer> ofCompressedByteBuffers(
       final SegmentWriteOutMedium segmentWriteOutMedium,
       final String filenameBase,
@@ -77,24 +82,25 @@ public class GenericIndexedWriter<T> implements Serializer
       final int bufferSize
   )
   {
+    final CompressionStrategy.Compressor compressor = compressionStrategy.getCompressor();
     GenericIndexedWriter<ByteBuffer> writer = new GenericIndexedWriter<>(
         segmentWriteOutMedium,
         filenameBase,
-        compressedByteBuffersWriteObjectStrategy(compressionStrategy, bufferSize, segmentWriteOutMedium.getCloser())
+        compressedByteBuffersWriteObjectStrategy(compressor, bufferSize, segmentWriteOutMedium.getCloser())
     );
     writer.objectsSorted = false;
+    writer.compressor = compressor;
     return writer;
   }
 
   static ObjectStrategy<ByteBuffer> compressedByteBuffersWriteObjectStrategy(
-      final CompressionStrategy compressionStrategy,
+      final CompressionStrategy.Compressor compressor,
       final int bufferSize,
       final Closer closer
   )
   {
     return new ObjectStrategy<ByteBuffer>()
     {
-      private final CompressionStrategy.Compressor compressor = compressionStrategy.getCompressor();
       private final ByteBuffer compressedDataBuffer = compressor.allocateOutBuffer(bufferSize, closer);
 
       @Override
@@ -148,6 +154,8 @@ public class GenericIndexedWriter<T> implements Serializer
   private boolean requireMultipleFiles = false;
   @Nullable
   private LongList headerOutLong;
+  @Nullable
+  private CompressionStrategy.Compressor compressor = null;
 
   // Used by checkedCastNonnegativeLongToInt. Will always be Integer.MAX_VALUE in production.
   private int intMaxForCasting = Integer.MAX_VALUE;
@@ -207,6 +215,7 @@ public class GenericIndexedWriter<T> implements Serializer
     }
   }
 
+  @Override
   public void open() throws IOException
   {
     headerOut = segmentWriteOutMedium.makeWriteOutBytes();
@@ -224,6 +233,7 @@ public class GenericIndexedWriter<T> implements Serializer
     this.intMaxForCasting = intMaxForCasting;
   }
 
+  @Override
   public void write(@Nullable T objectToWrite) throws IOException
   {
     if (objectsSorted && prevObject != null && strategy.compare(prevObject, objectToWrite) >= 0) {
@@ -264,6 +274,7 @@ public class GenericIndexedWriter<T> implements Serializer
     }
   }
 
+  @Override
   @Nullable
   public T get(int index) throws IOException
   {
@@ -298,17 +309,21 @@ public class GenericIndexedWriter<T> implements Serializer
   @Override
   public long getSerializedSize()
   {
+    final long compressionHeaderSize = compressor == null ? 0 : compressor.getHeader().remaining();
     if (requireMultipleFiles) {
       // for multi-file version (version 2), getSerializedSize() returns number of bytes in meta file.
-      return MULTI_FILE_META_SERDE_HELPER.size(this);
+      return compressionHeaderSize + MULTI_FILE_META_SERDE_HELPER.size(this);
     } else {
-      return SINGLE_FILE_META_SERDE_HELPER.size(this) + headerOut.size() + valuesOut.size();
+      return compressionHeaderSize + SINGLE_FILE_META_SERDE_HELPER.size(this) + headerOut.size() + valuesOut.size();
     }
   }
 
   @Override
   public void writeTo(WritableByteChannel channel, @Nullable FileSmoosher smoosher) throws IOException
   {
+    if (compressor != null) {
+      Channels.writeFully(channel, compressor.getHeader());
+    }
     if (requireMultipleFiles) {
       writeToMultiFiles(channel, smoosher);
     } else {
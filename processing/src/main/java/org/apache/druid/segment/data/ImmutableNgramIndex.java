@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.java.util.common.io.smoosh.SmooshedFileMapper;
+import org.apache.druid.segment.column.NgramIndex;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * {@link NgramIndex} read from the format written by {@link NgramIndexSerializer}:
+ *
+ * byte 1: version (0x0)
+ * bytes 2-5: number of distinct n-grams
+ * then: the sorted n-grams, as longs holding their {@link NgramIndex#N} folded characters (see {@link #forEachNgram})
+ * rest: {@link GenericIndexed} of the bitmaps of the dictionary ids of the values containing each n-gram
+ */
+public class ImmutableNgramIndex implements NgramIndex
+{
+  public static final byte VERSION = 0x0;
+  private static final long NGRAM_MASK = (1L << (N * Character.SIZE)) - 1;
+
+  public static ImmutableNgramIndex read(
+      ByteBuffer buffer,
+      BitmapSerdeFactory bitmapSerdeFactory,
+      @Nullable SmooshedFileMapper fileMapper
+  )
+  {
+    final byte version = buffer.get();
+    if (version != VERSION) {
+      throw new IAE("Unknown version[%s]", version);
+    }
+    final int cardinality = buffer.getInt();
+
+    final ByteBuffer ngrams = buffer.slice();
+    ngrams.limit(cardinality * Long.BYTES);
+    buffer.position(buffer.position() + ngrams.limit());
+
+    final GenericIndexed<ImmutableBitmap> bitmaps = GenericIndexed.read(
+        buffer,
+        bitmapSerdeFactory.getObjectStrategy(),
+        fileMapper
+    );
+    if (bitmaps.size() != cardinality) {
+      throw new IAE("Expected [%,d] bitmaps, got [%,d]", cardinality, bitmaps.size());
+    }
+    return new ImmutableNgramIndex(cardinality, ngrams, bitmaps, bitmapSerdeFactory.getBitmapFactory());
+  }
+
+  /**
+   * Calls the consumer with every n-gram of the string, possibly more than once, each packed in a long. Characters are
+   * folded the way {@link String#regionMatches(boolean, int, String, int, int)} compares them when ignoring case, so
+   * that a string containing another one, with or without regard to case, also contains all its n-grams.
+   */
+  static void forEachNgram(String s, LongConsumer consumer)
+  {
+    long ngram = 0;
+    for (int i = 0; i < s.length(); i++) {
+      final char c = Character.toLowerCase(Character.toUpperCase(s.charAt(i)));
+      ngram = ((ngram << Character.SIZE) | c) & NGRAM_MASK;
+      if (i >= N - 1) {
+        consumer.accept(ngram);
+      }
+    }
+  }
+
+  private final int cardinality;
+  private final ByteBuffer ngrams;
+  private final GenericIndexed<ImmutableBitmap> bitmaps;
+  private final BitmapFactory bitmapFactory;
+
+  private ImmutableNgramIndex(
+      int cardinality,
+      ByteBuffer ngrams,
+      GenericIndexed<ImmutableBitmap> bitmaps,
+      BitmapFactory bitmapFactory
+  )
+  {
+    this.cardinality = cardinality;
+    this.ngrams = ngrams;
+    this.bitmaps = bitmaps;
+    this.bitmapFactory = bitmapFactory;
+  }
+
+  @Nullable
+  @Override
+  public ImmutableBitmap getCandidates(Iterable<String> substrings)
+  {
+    final LongSet ngramsToFind = new LongOpenHashSet();
+    for (String substring : substrings) {
+      forEachNgram(substring, ngramsToFind::add);
+    }
+    if (ngramsToFind.isEmpty()) {
+      return null;
+    }
+
+    final List<ImmutableBitmap> bitmapsToIntersect = new ArrayList<>(ngramsToFind.size());
+    for (LongIterator it = ngramsToFind.iterator(); it.hasNext(); ) {
+      final int index = indexOf(it.nextLong());
+      if (index < 0) {
+        return bitmapFactory.makeEmptyImmutableBitmap();
+      }
+      bitmapsToIntersect.add(bitmaps.get(index));
+    }
+    return bitmapsToIntersect.size() == 1
+           ? bitmapsToIntersect.get(0)
+           : bitmapFactory.intersection(bitmapsToIntersect);
+  }
+
+  private int indexOf(long ngram)
+  {
+    int low = 0;
+    int high = cardinality - 1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final long midNgram = ngrams.getLong(mid * Long.BYTES);
+      if (midNgram < ngram) {
+        low = mid + 1;
+      } else if (midNgram > ngram) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+}
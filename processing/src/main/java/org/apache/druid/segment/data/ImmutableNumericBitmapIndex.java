@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.java.util.common.io.smoosh.SmooshedFileMapper;
+import org.apache.druid.segment.column.NumericBitmapIndex;
+import org.apache.druid.segment.column.ValueType;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link NumericBitmapIndex} read from the format written by {@link NumericBitmapIndexSerializer}:
+ *
+ * byte 1: version (0x0)
+ * bytes 2-5: number of distinct non-null values
+ * then: the sorted values, as longs for long columns and as the bits of doubles otherwise
+ * rest: {@link GenericIndexed} of the bitmaps of the values, followed by the bitmap of the null rows
+ *
+ * The type of the column is not stored, it is provided by
+ * {@link org.apache.druid.segment.serde.NumericBitmapIndexColumnPartSerde}.
+ */
+public class ImmutableNumericBitmapIndex implements NumericBitmapIndex
+{
+  public static final byte VERSION = 0x0;
+
+  public static ImmutableNumericBitmapIndex read(
+      ByteBuffer buffer,
+      ValueType type,
+      BitmapSerdeFactory bitmapSerdeFactory,
+      @Nullable SmooshedFileMapper fileMapper
+  )
+  {
+    checkType(type);
+    final byte version = buffer.get();
+    if (version != VERSION) {
+      throw new IAE("Unknown version[%s]", version);
+    }
+    final int cardinality = buffer.getInt();
+
+    final ByteBuffer values = buffer.slice();
+    values.limit(cardinality * Long.BYTES);
+    buffer.position(buffer.position() + values.limit());
+
+    final GenericIndexed<ImmutableBitmap> bitmaps = GenericIndexed.read(
+        buffer,
+        bitmapSerdeFactory.getObjectStrategy(),
+        fileMapper
+    );
+    if (bitmaps.size() != cardinality + 1) {
+      throw new IAE("Expected [%,d] bitmaps, got [%,d]", cardinality + 1, bitmaps.size());
+    }
+    return new ImmutableNumericBitmapIndex(type, cardinality, values, bitmaps, bitmapSerdeFactory.getBitmapFactory());
+  }
+
+  static void checkType(ValueType type)
+  {
+    if (!type.isNumeric()) {
+      throw new IAE("Numeric bitmap indexes are not supported for type[%s]", type);
+    }
+  }
+
+  private final ValueType type;
+  private final int cardinality;
+  private final ByteBuffer values;
+  private final GenericIndexed<ImmutableBitmap> bitmaps;
+  private final BitmapFactory bitmapFactory;
+
+  private ImmutableNumericBitmapIndex(
+      ValueType type,
+      int cardinality,
+      ByteBuffer values,
+      GenericIndexed<ImmutableBitmap> bitmaps,
+      BitmapFactory bitmapFactory
+  )
+  {
+    this.type = type;
+    this.cardinality = cardinality;
+    this.values = values;
+    this.bitmaps = bitmaps;
+    this.bitmapFactory = bitmapFactory;
+  }
+
+  @Override
+  public ValueType getType()
+  {
+    return type;
+  }
+
+  @Override
+  public int getCardinality()
+  {
+    return cardinality;
+  }
+
+  @Override
+  public long getLong(int index)
+  {
+    return values.getLong(index * Long.BYTES);
+  }
+
+  @Override
+  public double getDouble(int index)
+  {
+    return Double.longBitsToDouble(values.getLong(index * Long.BYTES));
+  }
+
+  @Override
+  public ImmutableBitmap getBitmap(int index)
+  {
+    return getBitmapOrEmpty(index);
+  }
+
+  @Override
+  public ImmutableBitmap getNullBitmap()
+  {
+    return getBitmapOrEmpty(cardinality);
+  }
+
+  @Override
+  public BitmapFactory getBitmapFactory()
+  {
+    return bitmapFactory;
+  }
+
+  private ImmutableBitmap getBitmapOrEmpty(int index)
+  {
+    final ImmutableBitmap bitmap = bitmaps.get(index);
+    return bitmap == null ? bitmapFactory.makeEmptyImmutableBitmap() : bitmap;
+  }
+}
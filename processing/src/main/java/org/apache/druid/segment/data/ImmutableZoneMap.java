@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.column.ZoneMap;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link ZoneMap} read from the format written by {@link ZoneMapSerializer}:
+ *
+ * byte 1: version (0x0)
+ * bytes 2-5: number of rows per zone
+ * bytes 6-9: number of rows
+ * rest: for every zone, the number of null rows (int) followed by the minimum and maximum values (longs for long
+ * columns, doubles otherwise)
+ *
+ * The type of the column is not stored, it is provided by {@link org.apache.druid.segment.serde.ZoneMapColumnPartSerde}.
+ */
+public class ImmutableZoneMap implements ZoneMap
+{
+  public static final byte VERSION = 0x0;
+  static final int ZONE_SIZE = Integer.BYTES + 2 * Long.BYTES;
+
+  public static ImmutableZoneMap read(ByteBuffer buffer, ValueType type)
+  {
+    checkType(type);
+    final ByteBuffer copy = buffer.asReadOnlyBuffer();
+    final byte version = copy.get();
+    if (version != VERSION) {
+      throw new IAE("Unknown version[%s]", version);
+    }
+    final int rowsPerZone = copy.getInt();
+    final int numRows = copy.getInt();
+    final int numZones = (numRows + rowsPerZone - 1) / rowsPerZone;
+
+    final ByteBuffer zones = copy.slice();
+    zones.limit(numZones * ZONE_SIZE);
+    buffer.position(copy.position() + zones.limit());
+    return new ImmutableZoneMap(type, rowsPerZone, numRows, numZones, zones);
+  }
+
+  static void checkType(ValueType type)
+  {
+    if (type != ValueType.LONG && type != ValueType.FLOAT && type != ValueType.DOUBLE) {
+      throw new IAE("Zone maps are not supported for type[%s]", type);
+    }
+  }
+
+  private final ValueType type;
+  private final int rowsPerZone;
+  private final int numRows;
+  private final int numZones;
+  private final ByteBuffer zones;
+
+  private ImmutableZoneMap(ValueType type, int rowsPerZone, int numRows, int numZones, ByteBuffer zones)
+  {
+    this.type = type;
+    this.rowsPerZone = rowsPerZone;
+    this.numRows = numRows;
+    this.numZones = numZones;
+    this.zones = zones;
+  }
+
+  @Override
+  public ValueType getType()
+  {
+    return type;
+  }
+
+  @Override
+  public int getRowsPerZone()
+  {
+    return rowsPerZone;
+  }
+
+  @Override
+  public int getNumZones()
+  {
+    return numZones;
+  }
+
+  @Override
+  public int getNumRows(int zone)
+  {
+    return zone == numZones - 1 ? numRows - zone * rowsPerZone : rowsPerZone;
+  }
+
+  @Override
+  public int getNullCount(int zone)
+  {
+    return zones.getInt(zone * ZONE_SIZE);
+  }
+
+  @Override
+  public long getLongMin(int zone)
+  {
+    return zones.getLong(zone * ZONE_SIZE + Integer.BYTES);
+  }
+
+  @Override
+  public long getLongMax(int zone)
+  {
+    return zones.getLong(zone * ZONE_SIZE + Integer.BYTES + Long.BYTES);
+  }
+
+  @Override
+  public double getDoubleMin(int zone)
+  {
+    return zones.getDouble(zone * ZONE_SIZE + Integer.BYTES);
+  }
+
+  @Override
+  public double getDoubleMax(int zone)
+  {
+    return zones.getDouble(zone * ZONE_SIZE + Integer.BYTES + Long.BYTES);
+  }
+}
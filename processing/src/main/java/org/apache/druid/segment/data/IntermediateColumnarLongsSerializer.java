@@ -25,6 +25,7 @@ import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
 import it.unimi.dsi.fastutil.longs.LongList;
 import org.apache.druid.java.util.common.io.smoosh.FileSmoosher;
+import org.apache.druid.segment.CompressedPools;
 import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
 
 import javax.annotation.Nullable;
@@ -132,6 +133,18 @@ public class IntermediateColumnarLongsSerializer implements ColumnarLongsSeriali
       writer = new LongsLongEncodingWriter(order);
     }
 
+    // PFOR blocks vary in size, so it can only be used with block layout
+    if (compression != CompressionStrategy.NONE && numInserted > 0) {
+      final PforLongEncodingWriter pforWriter = new PforLongEncodingWriter();
+      final long pforSize = PforLongEncodingWriter.getEncodedSize(
+          tempOut,
+          pforWriter.getBlockSize(CompressedPools.BUFFER_SIZE)
+      );
+      if (pforSize < getEncodedSize(writer, numInserted)) {
+        writer = pforWriter;
+      }
+    }
+
     if (compression == CompressionStrategy.NONE) {
       delegate = new EntireLayoutColumnarLongsSerializer(columnName, segmentWriteOutMedium, writer);
     } else {
@@ -151,6 +164,14 @@ public class IntermediateColumnarLongsSerializer implements ColumnarLongsSeriali
     }
   }
 
+  private static long getEncodedSize(CompressionFactory.LongEncodingWriter writer, int numValues)
+  {
+    final int valuesPerBlock = writer.getBlockSize(CompressedPools.BUFFER_SIZE);
+    final int remainder = numValues % valuesPerBlock;
+    return (long) (numValues / valuesPerBlock) * writer.getNumBytes(valuesPerBlock)
+           + (remainder > 0 ? writer.getNumBytes(remainder) : 0);
+  }
+
   @Override
   public long getSerializedSize() throws IOException
   {
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.collections.bitmap.MutableBitmap;
+import org.apache.druid.java.util.common.io.smoosh.FileSmoosher;
+import org.apache.druid.segment.serde.MetaSerdeHelper;
+import org.apache.druid.segment.serde.Serializer;
+import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
+import org.apache.druid.segment.writeout.WriteOutBytes;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Builds the {@link org.apache.druid.segment.column.NgramIndex} of a string column from the values of its dictionary,
+ * added in dictionary id order, and serializes it in the format read by {@link ImmutableNgramIndex}.
+ *
+ * The bitmaps of all the distinct n-grams are kept in memory until the index is written.
+ *
+ * This class is unsafe for concurrent use from multiple threads.
+ */
+public class NgramIndexSerializer implements Serializer
+{
+  private static final MetaSerdeHelper<NgramIndexSerializer> META_SERDE_HELPER = MetaSerdeHelper
+      .firstWriteByte((NgramIndexSerializer x) -> ImmutableNgramIndex.VERSION)
+      .writeInt(x -> x.sortedNgrams.length);
+
+  private final String filenameBase;
+  private final BitmapSerdeFactory bitmapSerdeFactory;
+  private final BitmapFactory bitmapFactory;
+  private final SegmentWriteOutMedium segmentWriteOutMedium;
+  private final Long2ObjectMap<MutableBitmap> bitmaps = new Long2ObjectOpenHashMap<>();
+
+  private int numValues = 0;
+
+  private long[] sortedNgrams = null;
+  private WriteOutBytes ngramsOut = null;
+  private GenericIndexedWriter<ImmutableBitmap> bitmapWriter = null;
+
+  public NgramIndexSerializer(
+      String filenameBase,
+      BitmapSerdeFactory bitmapSerdeFactory,
+      SegmentWriteOutMedium segmentWriteOutMedium
+  )
+  {
+    this.filenameBase = filenameBase;
+    this.bitmapSerdeFactory = bitmapSerdeFactory;
+    this.bitmapFactory = bitmapSerdeFactory.getBitmapFactory();
+    this.segmentWriteOutMedium = segmentWriteOutMedium;
+  }
+
+  public BitmapSerdeFactory getBitmapSerdeFactory()
+  {
+    return bitmapSerdeFactory;
+  }
+
+  public void add(@Nullable String value)
+  {
+    if (value != null) {
+      final int id = numValues;
+      ImmutableNgramIndex.forEachNgram(value, ngram -> {
+        MutableBitmap bitmap = bitmaps.get(ngram);
+        if (bitmap == null) {
+          bitmap = bitmapFactory.makeEmptyMutableBitmap();
+          bitmaps.put(ngram, bitmap);
+        }
+        bitmap.add(id);
+      });
+    }
+    numValues++;
+  }
+
+  @Override
+  public long getSerializedSize() throws IOException
+  {
+    writeBitmaps();
+    return META_SERDE_HELPER.size(this) + ngramsOut.size() + bitmapWriter.getSerializedSize();
+  }
+
+  @Override
+  public void writeTo(WritableByteChannel channel, FileSmoosher smoosher) throws IOException
+  {
+    writeBitmaps();
+    META_SERDE_HELPER.writeTo(channel, this);
+    ngramsOut.writeTo(channel);
+    bitmapWriter.writeTo(channel, smoosher);
+  }
+
+  private void writeBitmaps() throws IOException
+  {
+    if (sortedNgrams != null) {
+      return;
+    }
+
+    sortedNgrams = bitmaps.keySet().toLongArray();
+    Arrays.sort(sortedNgrams);
+
+    ngramsOut = segmentWriteOutMedium.makeWriteOutBytes();
+    bitmapWriter = new GenericIndexedWriter<>(
+        segmentWriteOutMedium,
+        filenameBase + ".ngrams",
+        bitmapSerdeFactory.getObjectStrategy()
+    );
+    bitmapWriter.open();
+    bitmapWriter.setObjectsNotSorted();
+
+    final ByteBuffer ngramBuffer = ByteBuffer.allocate(Long.BYTES);
+    for (long ngram : sortedNgrams) {
+      ngramBuffer.clear();
+      ngramBuffer.putLong(ngram).flip();
+      ngramsOut.write(ngramBuffer);
+      bitmapWriter.write(bitmapFactory.makeImmutableBitmap(bitmaps.remove(ngram)));
+    }
+  }
+}
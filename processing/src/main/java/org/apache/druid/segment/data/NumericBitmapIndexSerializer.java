@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import com.google.common.annotations.VisibleForTesting;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.collections.bitmap.MutableBitmap;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.io.smoosh.FileSmoosher;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.serde.MetaSerdeHelper;
+import org.apache.druid.segment.serde.Serializer;
+import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
+import org.apache.druid.segment.writeout.WriteOutBytes;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Builds the {@link org.apache.druid.segment.column.NumericBitmapIndex} of a numeric column from its values, added in
+ * row order, and serializes it in the format read by {@link ImmutableNumericBitmapIndex}.
+ *
+ * The bitmaps of all the distinct values are kept in memory until the index is written. To bound that memory, the
+ * index is dropped as soon as the column has more than {@link #DEFAULT_MAX_CARDINALITY} distinct values, see
+ * {@link #isOverMaxCardinality()}: the bitmaps of high cardinality columns would hardly speed up filters anyway.
+ *
+ * This class is unsafe for concurrent use from multiple threads.
+ */
+public class NumericBitmapIndexSerializer implements Serializer
+{
+  private static final MetaSerdeHelper<NumericBitmapIndexSerializer> META_SERDE_HELPER = MetaSerdeHelper
+      .firstWriteByte((NumericBitmapIndexSerializer x) -> ImmutableNumericBitmapIndex.VERSION)
+      .writeInt(x -> x.sortedValues.length);
+
+  /**
+   * Maximum number of distinct values of the columns to index.
+   */
+  public static final int DEFAULT_MAX_CARDINALITY = 1 << 16;
+
+  private final ValueType type;
+  private final String filenameBase;
+  private final BitmapSerdeFactory bitmapSerdeFactory;
+  private final BitmapFactory bitmapFactory;
+  private final SegmentWriteOutMedium segmentWriteOutMedium;
+  private final MutableBitmap nullBitmap;
+  // keyed by the values of long columns, and by the bits of the values of float and double columns
+  private final Long2ObjectOpenHashMap<MutableBitmap> bitmaps = new Long2ObjectOpenHashMap<>();
+  private final int maxCardinality;
+
+  private int numRows = 0;
+  private boolean overMaxCardinality = false;
+
+  private long[] sortedValues = null;
+  private WriteOutBytes valuesOut = null;
+  private GenericIndexedWriter<ImmutableBitmap> bitmapWriter = null;
+
+  public NumericBitmapIndexSerializer(
+      ValueType type,
+      String filenameBase,
+      BitmapSerdeFactory bitmapSerdeFactory,
+      SegmentWriteOutMedium segmentWriteOutMedium
+  )
+  {
+    this(type, filenameBase, bitmapSerdeFactory, segmentWriteOutMedium, DEFAULT_MAX_CARDINALITY);
+  }
+
+  @VisibleForTesting
+  NumericBitmapIndexSerializer(
+      ValueType type,
+      String filenameBase,
+      BitmapSerdeFactory bitmapSerdeFactory,
+      SegmentWriteOutMedium segmentWriteOutMedium,
+      int maxCardinality
+  )
+  {
+    ImmutableNumericBitmapIndex.checkType(type);
+    this.type = type;
+    this.filenameBase = filenameBase;
+    this.bitmapSerdeFactory = bitmapSerdeFactory;
+    this.bitmapFactory = bitmapSerdeFactory.getBitmapFactory();
+    this.segmentWriteOutMedium = segmentWriteOutMedium;
+    this.nullBitmap = bitmapFactory.makeEmptyMutableBitmap();
+    this.maxCardinality = maxCardinality;
+  }
+
+  public ValueType getType()
+  {
+    return type;
+  }
+
+  public BitmapSerdeFactory getBitmapSerdeFactory()
+  {
+    return bitmapSerdeFactory;
+  }
+
+  /**
+   * Returns true if the column has more distinct values than the maximum cardinality, in which case the index is
+   * not built, and must not be written.
+   */
+  public boolean isOverMaxCardinality()
+  {
+    return overMaxCardinality;
+  }
+
+  public void addNull()
+  {
+    if (!overMaxCardinality) {
+      nullBitmap.add(numRows);
+    }
+    numRows++;
+  }
+
+  public void addLong(long value)
+  {
+    add(value);
+  }
+
+  public void addDouble(double value)
+  {
+    // doubleToLongBits canonicalizes NaN values
+    add(Double.doubleToLongBits(value));
+  }
+
+  @Override
+  public long getSerializedSize() throws IOException
+  {
+    writeBitmaps();
+    return META_SERDE_HELPER.size(this) + valuesOut.size() + bitmapWriter.getSerializedSize();
+  }
+
+  @Override
+  public void writeTo(WritableByteChannel channel, FileSmoosher smoosher) throws IOException
+  {
+    writeBitmaps();
+    META_SERDE_HELPER.writeTo(channel, this);
+    valuesOut.writeTo(channel);
+    bitmapWriter.writeTo(channel, smoosher);
+  }
+
+  private void add(long key)
+  {
+    if (overMaxCardinality) {
+      numRows++;
+      return;
+    }
+    MutableBitmap bitmap = bitmaps.get(key);
+    if (bitmap == null) {
+      if (bitmaps.size() == maxCardinality) {
+        // release the bitmaps built so far, the index won't be written
+        overMaxCardinality = true;
+        bitmaps.clear();
+        bitmaps.trim();
+        nullBitmap.clear();
+        numRows++;
+        return;
+      }
+      bitmap = bitmapFactory.makeEmptyMutableBitmap();
+      bitmaps.put(key, bitmap);
+    }
+    bitmap.add(numRows++);
+  }
+
+  private void writeBitmaps() throws IOException
+  {
+    if (sortedValues != null) {
+      return;
+    }
+    if (overMaxCardinality) {
+      throw new ISE("Cannot write the bitmap index of a column with more than [%d] distinct values", maxCardinality);
+    }
+
+    sortedValues = bitmaps.keySet().toLongArray();
+    if (type == ValueType.LONG) {
+      Arrays.sort(sortedValues);
+    } else {
+      LongArrays.quickSort(
+          sortedValues,
+          (a, b) -> Double.compare(Double.longBitsToDouble(a), Double.longBitsToDouble(b))
+      );
+    }
+
+    valuesOut = segmentWriteOutMedium.makeWriteOutBytes();
+    bitmapWriter = new GenericIndexedWriter<>(
+        segmentWriteOutMedium,
+        filenameBase + ".numericBitmaps",
+        bitmapSerdeFactory.getObjectStrategy()
+    );
+    bitmapWriter.open();
+    bitmapWriter.setObjectsNotSorted();
+
+    final ByteBuffer valueBuffer = ByteBuffer.allocate(Long.BYTES);
+    for (long value : sortedValues) {
+      valueBuffer.clear();
+      valueBuffer.putLong(value).flip();
+      valuesOut.write(valueBuffer);
+      bitmapWriter.write(bitmapFactory.makeImmutableBitmap(bitmaps.remove(value)));
+    }
+    // empty bitmaps may be serialized as zero bytes, which are only read back as empty bitmaps if written as nulls
+    bitmapWriter.write(nullBitmap.isEmpty() ? null : bitmapFactory.makeImmutableBitmap(nullBitmap));
+  }
+}
@@ -51,6 +51,15 @@ public interface ObjectStrategy<T> extends Comparator<T>
   @Nullable
   byte[] toBytes(@Nullable T val);
 
+  /**
+   * Whether {@link #compare} is supported. Values of strategies which cannot compare them, like those of bitmaps, are
+   * never looked up by value.
+   */
+  default boolean canCompare()
+  {
+    return true;
+  }
+
   /**
    * Reads 4-bytes numBytes from the given buffer, and then delegates to {@link #fromByteBuffer(ByteBuffer, int)}.
    */
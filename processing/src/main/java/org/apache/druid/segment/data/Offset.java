@@ -59,6 +59,18 @@ public abstract class Offset implements ReadableOffset, Cloneable
    */
   public abstract ReadableOffset getBaseReadableOffset();
 
+  /**
+   * Moves the offset past the rows between startRow (inclusive) and endRow (exclusive), given that the current row is
+   * one of them, to the first following row outside of that range in the order of this offset. Used to skip the rows
+   * that cannot match a filter without visiting them, see {@link org.apache.druid.segment.FilteredOffset}.
+   */
+  public void skipRows(int startRow, int endRow)
+  {
+    do {
+      increment();
+    } while (withinBounds() && getOffset() >= startRow && getOffset() < endRow);
+  }
+
   @Override
   public Offset clone()
   {
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import org.apache.druid.java.util.common.IAE;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class PforLongEncodingReader implements CompressionFactory.LongEncodingReader
+{
+  private long base;
+  private int numExceptions;
+  private long exceptionMarker;
+  private int[] exceptionIndexes = new int[0];
+  private long[] exceptionValues = new long[0];
+  private VSizeLongSerde.LongDeserializer deserializer;
+
+  public PforLongEncodingReader(ByteBuffer fromBuffer)
+  {
+    final ByteBuffer buffer = fromBuffer.asReadOnlyBuffer();
+    byte version = buffer.get();
+    if (version == CompressionFactory.PFOR_ENCODING_VERSION) {
+      fromBuffer.position(buffer.position());
+    } else {
+      throw new IAE("Unknown version[%s]", version);
+    }
+  }
+
+  private PforLongEncodingReader()
+  {
+  }
+
+  @Override
+  public void setBuffer(ByteBuffer buffer)
+  {
+    final int start = buffer.position();
+    base = buffer.getLong(start);
+    final int bitsPerValue = buffer.get(start + Long.BYTES);
+    numExceptions = buffer.getInt(start + Long.BYTES + 1);
+    exceptionMarker = PforLongEncodingWriter.Frame.getMaxOffset(bitsPerValue);
+
+    if (exceptionIndexes.length < numExceptions) {
+      exceptionIndexes = new int[numExceptions];
+      exceptionValues = new long[numExceptions];
+    }
+    final int indexesStart = start + PforLongEncodingWriter.BLOCK_HEADER_SIZE;
+    final int valuesStart = indexesStart + numExceptions * Integer.BYTES;
+    for (int i = 0; i < numExceptions; i++) {
+      exceptionIndexes[i] = buffer.getInt(indexesStart + i * Integer.BYTES);
+      exceptionValues[i] = buffer.getLong(valuesStart + i * Long.BYTES);
+    }
+
+    deserializer = VSizeLongSerde.getDeserializer(
+        bitsPerValue,
+        buffer,
+        valuesStart + numExceptions * Long.BYTES
+    );
+  }
+
+  @Override
+  public long read(int index)
+  {
+    final long offset = deserializer.get(index);
+    if (numExceptions > 0 && offset == exceptionMarker) {
+      return exceptionValues[Arrays.binarySearch(exceptionIndexes, 0, numExceptions, index)];
+    }
+    return base + offset;
+  }
+
+  @Override
+  public void read(long[] out, int outPosition, int startIndex, int length)
+  {
+    deserializer.getDelta(out, outPosition, startIndex, length, base);
+
+    if (numExceptions > 0) {
+      // patch the exceptions in the range, which were decoded from the marker above
+      int exception = Arrays.binarySearch(exceptionIndexes, 0, numExceptions, startIndex);
+      if (exception < 0) {
+        exception = -(exception + 1);
+      }
+      final int endIndex = startIndex + length;
+      for (; exception < numExceptions && exceptionIndexes[exception] < endIndex; exception++) {
+        out[outPosition + exceptionIndexes[exception] - startIndex] = exceptionValues[exception];
+      }
+    }
+  }
+
+  @Override
+  public CompressionFactory.LongEncodingReader duplicate()
+  {
+    return new PforLongEncodingReader();
+  }
+}
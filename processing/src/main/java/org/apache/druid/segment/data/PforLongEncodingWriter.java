@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import it.unimi.dsi.fastutil.longs.LongList;
+import org.apache.druid.java.util.common.UOE;
+import org.apache.druid.segment.writeout.WriteOutBytes;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Writer for {@link CompressionFactory.LongEncodingFormat#PFOR}. Values are buffered until {@link #flush()}, at which
+ * point the whole block is encoded with the frame (base value and bits per value) that gives the smallest block,
+ * storing the values that fall outside of the frame as exceptions. See {@link CompressionFactory#PFOR_ENCODING_VERSION}
+ * for the block layout.
+ *
+ * Only block layout is supported, since blocks are of variable size.
+ */
+public class PforLongEncodingWriter implements CompressionFactory.LongEncodingWriter
+{
+  static final int BLOCK_HEADER_SIZE = Long.BYTES + 1 + Integer.BYTES;
+  static final int EXCEPTION_SIZE = Integer.BYTES + Long.BYTES;
+
+  @Nullable
+  private ByteBuffer buffer;
+  private long[] values = new long[0];
+  private long[] sortedValues = new long[0];
+  private int numValues = 0;
+
+  @Override
+  public void setBuffer(ByteBuffer buffer)
+  {
+    this.buffer = buffer;
+    numValues = 0;
+  }
+
+  @Override
+  public void setOutputStream(WriteOutBytes output)
+  {
+    throw new UOE("PFOR encoding is only supported with block compression");
+  }
+
+  @Override
+  public void write(long value)
+  {
+    if (numValues == values.length) {
+      values = Arrays.copyOf(values, Math.max(16, values.length * 2));
+    }
+    values[numValues++] = value;
+  }
+
+  @Override
+  public void flush() throws IOException
+  {
+    if (buffer == null || numValues == 0) {
+      return;
+    }
+    if (sortedValues.length < numValues) {
+      sortedValues = new long[values.length];
+    }
+    System.arraycopy(values, 0, sortedValues, 0, numValues);
+    Arrays.sort(sortedValues, 0, numValues);
+    final Frame frame = Frame.choose(sortedValues, numValues);
+
+    final int start = buffer.position();
+    buffer.putLong(start, frame.base);
+    buffer.put(start + Long.BYTES, (byte) frame.bitsPerValue);
+    buffer.putInt(start + Long.BYTES + 1, frame.numExceptions);
+
+    final int indexesStart = start + BLOCK_HEADER_SIZE;
+    final int valuesStart = indexesStart + frame.numExceptions * Integer.BYTES;
+    final long exceptionMarker = frame.getExceptionMarker();
+    buffer.position(valuesStart + frame.numExceptions * Long.BYTES);
+    final VSizeLongSerde.LongSerializer serializer =
+        VSizeLongSerde.getSerializer(frame.bitsPerValue, buffer, buffer.position());
+
+    int exception = 0;
+    for (int i = 0; i < numValues; i++) {
+      final long value = values[i];
+      if (value >= frame.base && value <= frame.max) {
+        serializer.write(value - frame.base);
+      } else {
+        buffer.putInt(indexesStart + exception * Integer.BYTES, i);
+        buffer.putLong(valuesStart + exception * Long.BYTES, value);
+        exception++;
+        serializer.write(exceptionMarker);
+      }
+    }
+    serializer.close();
+    numValues = 0;
+  }
+
+  @Override
+  public void putMeta(ByteBuffer metaOut, CompressionStrategy strategy)
+  {
+    metaOut.put(CompressionFactory.setEncodingFlag(strategy.getId()));
+    metaOut.put(CompressionFactory.LongEncodingFormat.PFOR.getId());
+    metaOut.put(CompressionFactory.PFOR_ENCODING_VERSION);
+  }
+
+  @Override
+  public int metaSize()
+  {
+    return 1 + 1 + 1;
+  }
+
+  /**
+   * A block never takes more space than storing all of its values with 64 bits and no exceptions, which is always one
+   * of the candidate frames.
+   */
+  @Override
+  public int getBlockSize(int bytesPerBlock)
+  {
+    return VSizeLongSerde.getNumValuesPerBlock(Long.SIZE, bytesPerBlock - BLOCK_HEADER_SIZE);
+  }
+
+  @Override
+  public int getNumBytes(int values)
+  {
+    return BLOCK_HEADER_SIZE + VSizeLongSerde.getSerializedSize(Long.SIZE, values);
+  }
+
+  /**
+   * Computes the number of bytes the given values would take once encoded in blocks of {@code valuesPerBlock}, before
+   * compression. Used by {@link IntermediateColumnarLongsSerializer} to compare this format against the others.
+   */
+  static long getEncodedSize(LongList values, int valuesPerBlock)
+  {
+    final long[] block = new long[valuesPerBlock];
+    long size = 0;
+    for (int start = 0; start < values.size(); start += valuesPerBlock) {
+      final int length = Math.min(valuesPerBlock, values.size() - start);
+      values.getElements(start, block, 0, length);
+      Arrays.sort(block, 0, length);
+      size += Frame.choose(block, length).getEncodedSize(length);
+    }
+    return size;
+  }
+
+  /**
+   * Values in [base, max] are stored as offsets from base using bitsPerValue bits, everything else is an exception.
+   */
+  static class Frame
+  {
+    final long base;
+    final long max;
+    final int bitsPerValue;
+    final int numExceptions;
+
+    Frame(long base, long max, int bitsPerValue, int numExceptions)
+    {
+      this.base = base;
+      this.max = max;
+      this.bitsPerValue = bitsPerValue;
+      this.numExceptions = numExceptions;
+    }
+
+    /**
+     * The largest offset for bitsPerValue is reserved to mark exceptions, if there are any.
+     */
+    long getExceptionMarker()
+    {
+      return getMaxOffset(bitsPerValue);
+    }
+
+    int getEncodedSize(int numValues)
+    {
+      return BLOCK_HEADER_SIZE
+             + numExceptions * EXCEPTION_SIZE
+             + VSizeLongSerde.getSerializedSize(bitsPerValue, numValues);
+    }
+
+    /**
+     * For every supported bits per value, finds the widest window of the sorted values that fits into it and picks
+     * the one with the smallest encoded size. Stops at the first size that fits all values without exceptions, since
+     * wider sizes can only be larger.
+     */
+    static Frame choose(long[] sortedValues, int numValues)
+    {
+      Frame best = null;
+      int bestSize = Integer.MAX_VALUE;
+      for (int bitsPerValue : VSizeLongSerde.SUPPORTED_SIZES) {
+        final long maxOffset = getMaxOffset(bitsPerValue);
+        final Frame candidate;
+        if (Long.compareUnsigned(sortedValues[numValues - 1] - sortedValues[0], maxOffset) <= 0) {
+          candidate = new Frame(sortedValues[0], sortedValues[numValues - 1], bitsPerValue, 0);
+        } else {
+          // bitsPerValue < 64 here, so maxOffset - 1 is the largest offset left once the marker is reserved
+          int windowStart = 0;
+          int bestStart = 0;
+          int bestLength = 0;
+          for (int i = 0; i < numValues; i++) {
+            while (Long.compareUnsigned(sortedValues[i] - sortedValues[windowStart], maxOffset - 1) > 0) {
+              windowStart++;
+            }
+            if (i - windowStart + 1 > bestLength) {
+              bestStart = windowStart;
+              bestLength = i - windowStart + 1;
+            }
+          }
+          candidate = new Frame(
+              sortedValues[bestStart],
+              sortedValues[bestStart + bestLength - 1],
+              bitsPerValue,
+              numValues - bestLength
+          );
+        }
+
+        final int size = candidate.getEncodedSize(numValues);
+        if (size < bestSize) {
+          best = candidate;
+          bestSize = size;
+        }
+        if (candidate.numExceptions == 0) {
+          break;
+        }
+      }
+      return best;
+    }
+
+    static long getMaxOffset(int bitsPerValue)
+    {
+      return bitsPerValue == Long.SIZE ? -1L : (1L << bitsPerValue) - 1;
+    }
+  }
+}
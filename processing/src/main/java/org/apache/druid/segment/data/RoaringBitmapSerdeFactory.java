@@ -95,6 +95,12 @@ public class RoaringBitmapSerdeFactory implements BitmapSerdeFactory
       return val.toBytes();
     }
 
+    @Override
+    public boolean canCompare()
+    {
+      return false;
+    }
+
     @Override
     public int compare(ImmutableBitmap o1, ImmutableBitmap o2)
     {
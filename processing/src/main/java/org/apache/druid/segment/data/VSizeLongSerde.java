@@ -416,6 +416,92 @@ public class VSizeLongSerde
   public interface LongDeserializer
   {
     long get(int index);
+
+    /**
+     * Reads {@code length} consecutive values starting at {@code startIndex}, adds {@code base} to each of them and
+     * stores them into {@code out} starting at {@code outPosition}.
+     *
+     * The deserializers of sizes that divide a byte, and of whole bytes up to 32 bits, override this to read every
+     * byte or long of the buffer once and extract all of the values packed in it.
+     */
+    default void getDelta(long[] out, int outPosition, int startIndex, int length, long base)
+    {
+      for (int i = 0; i < length; i++) {
+        out[outPosition + i] = base + get(startIndex + i);
+      }
+    }
+  }
+
+  /**
+   * Bulk {@link LongDeserializer#getDelta} of values of 1, 2 or 4 bits, packed from the highest bits of each byte.
+   */
+  private static void getDeltaSubByte(
+      ByteBuffer buffer,
+      int offset,
+      int bitsPerValue,
+      long[] out,
+      int outPosition,
+      int startIndex,
+      int length,
+      long base
+  )
+  {
+    final int valuesPerByte = Byte.SIZE / bitsPerValue;
+    final int mask = (1 << bitsPerValue) - 1;
+    int i = 0;
+    // values before the first byte boundary
+    for (; i < length && (startIndex + i) % valuesPerByte != 0; i++) {
+      final int index = startIndex + i;
+      final int shift = Byte.SIZE - bitsPerValue * (index % valuesPerByte + 1);
+      out[outPosition + i] = base + ((buffer.get(offset + index / valuesPerByte) >> shift) & mask);
+    }
+    int position = offset + (startIndex + i) / valuesPerByte;
+    for (; i + valuesPerByte <= length; i += valuesPerByte) {
+      final int packed = buffer.get(position++);
+      for (int j = 0; j < valuesPerByte; j++) {
+        out[outPosition + i + j] = base + ((packed >> (Byte.SIZE - bitsPerValue * (j + 1))) & mask);
+      }
+    }
+    // values after the last whole byte
+    for (int j = 0; i < length; i++, j++) {
+      out[outPosition + i] = base + ((buffer.get(position) >> (Byte.SIZE - bitsPerValue * (j + 1))) & mask);
+    }
+  }
+
+  /**
+   * Bulk {@link LongDeserializer#getDelta} of values of 8, 16 or 32 bits, reading a long at a time.
+   */
+  private static void getDeltaWords(
+      ByteBuffer buffer,
+      int offset,
+      int bitsPerValue,
+      long[] out,
+      int outPosition,
+      int startIndex,
+      int length,
+      long base
+  )
+  {
+    final int valuesPerLong = Long.SIZE / bitsPerValue;
+    final int bytesPerValue = bitsPerValue / Byte.SIZE;
+    final long mask = (1L << bitsPerValue) - 1;
+    int position = offset + startIndex * bytesPerValue;
+    int i = 0;
+    for (; i + valuesPerLong <= length; i += valuesPerLong) {
+      final long packed = buffer.getLong(position);
+      position += Long.BYTES;
+      for (int j = 0; j < valuesPerLong; j++) {
+        out[outPosition + i + j] = base + ((packed >>> (Long.SIZE - bitsPerValue * (j + 1))) & mask);
+      }
+    }
+    // values after the last whole long, which may be followed by less than a long of padding
+    for (; i < length; i++) {
+      long value = 0;
+      for (int j = 0; j < bytesPerValue; j++) {
+        value = (value << Byte.SIZE) | (buffer.get(position++) & 0xFF);
+      }
+      out[outPosition + i] = base + value;
+    }
   }
 
   private static final class Size1Des implements LongDeserializer
@@ -435,6 +521,12 @@ public class VSizeLongSerde
       int shift = 7 - (index & 7);
       return (buffer.get(offset + (index >> 3)) >> shift) & 1;
     }
+
+    @Override
+    public void getDelta(long[] out, int outPosition, int startIndex, int length, long base)
+    {
+      getDeltaSubByte(buffer, offset, 1, out, outPosition, startIndex, length, base);
+    }
   }
 
   private static final class Size2Des implements LongDeserializer
@@ -454,6 +546,12 @@ public class VSizeLongSerde
       int shift = 6 - ((index & 3) << 1);
       return (buffer.get(offset + (index >> 2)) >> shift) & 3;
     }
+
+    @Override
+    public void getDelta(long[] out, int outPosition, int startIndex, int length, long base)
+    {
+      getDeltaSubByte(buffer, offset, 2, out, outPosition, startIndex, length, base);
+    }
   }
 
   private static final class Size4Des implements LongDeserializer
@@ -473,6 +571,12 @@ public class VSizeLongSerde
       int shift = ((index + 1) & 1) << 2;
       return (buffer.get(offset + (index >> 1)) >> shift) & 0xF;
     }
+
+    @Override
+    public void getDelta(long[] out, int outPosition, int startIndex, int length, long base)
+    {
+      getDeltaSubByte(buffer, offset, 4, out, outPosition, startIndex, length, base);
+    }
   }
 
   private static final class Size8Des implements LongDeserializer
@@ -491,6 +595,12 @@ public class VSizeLongSerde
     {
       return buffer.get(offset + index) & 0xFF;
     }
+
+    @Override
+    public void getDelta(long[] out, int outPosition, int startIndex, int length, long base)
+    {
+      getDeltaWords(buffer, offset, 8, out, outPosition, startIndex, length, base);
+    }
   }
 
   private static final class Size12Des implements LongDeserializer
@@ -529,6 +639,12 @@ public class VSizeLongSerde
     {
       return buffer.getShort(offset + (index << 1)) & 0xFFFF;
     }
+
+    @Override
+    public void getDelta(long[] out, int outPosition, int startIndex, int length, long base)
+    {
+      getDeltaWords(buffer, offset, 16, out, outPosition, startIndex, length, base);
+    }
   }
 
   private static final class Size20Des implements LongDeserializer
@@ -585,6 +701,12 @@ public class VSizeLongSerde
     {
       return buffer.getInt(offset + (index << 2)) & 0xFFFFFFFFL;
     }
+
+    @Override
+    public void getDelta(long[] out, int outPosition, int startIndex, int length, long base)
+    {
+      getDeltaWords(buffer, offset, 32, out, outPosition, startIndex, length, base);
+    }
   }
 
   private static final class Size40Des implements LongDeserializer
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment.data;
+
+import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+
+/**
+ * Serializer that produces {@link XorColumnarDoublesSupplier.XorColumnarDoubles}.
+ */
+public class XorColumnarDoublesSerializer extends XorColumnarSerializer implements ColumnarDoublesSerializer
+{
+  XorColumnarDoublesSerializer(
+      String columnName,
+      SegmentWriteOutMedium segmentWriteOutMedium,
+      String filenameBase,
+      ByteOrder byteOrder,
+      CompressionStrategy compression
+  )
+  {
+    super(
+        columnName,
+        segmentWriteOutMedium,
+        filenameBase,
+        byteOrder,
+        compression,
+        CompressedColumnarDoublesSuppliers.VERSION,
+        XorEncoding.forDoubles()
+    );
+  }
+
+  @Override
+  public void add(double value) throws IOException
+  {
+    addBits(Double.doubleToRawLongBits(value));
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment.data;
+
+import com.google.common.base.Supplier;
+import org.apache.druid.collections.ResourceHolder;
+import org.apache.druid.java.util.common.IAE;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class XorColumnarDoublesSupplier implements Supplier<ColumnarDoubles>
+{
+  private final GenericIndexed<ResourceHolder<ByteBuffer>> baseDoubleBuffers;
+
+  // The number of rows in this column.
+  private final int totalSize;
+
+  // The number of doubles per buffer.
+  private final int sizePer;
+
+  public XorColumnarDoublesSupplier(
+      int totalSize,
+      int sizePer,
+      ByteBuffer fromBuffer,
+      ByteOrder byteOrder,
+      CompressionStrategy strategy
+  )
+  {
+    byte version = fromBuffer.get();
+    if (version != CompressionFactory.XOR_ENCODING_VERSION) {
+      throw new IAE("Unknown version[%s]", version);
+    }
+    baseDoubleBuffers = GenericIndexed.read(
+        fromBuffer,
+        DecompressingByteBufferObjectStrategy.readCompressionHeader(fromBuffer, byteOrder, strategy)
+    );
+    this.totalSize = totalSize;
+    this.sizePer = sizePer;
+  }
+
+  @Override
+  public ColumnarDoubles get()
+  {
+    return new XorColumnarDoubles();
+  }
+
+  private class XorColumnarDoubles implements ColumnarDoubles
+  {
+    final XorColumnarReader reader =
+        new XorColumnarReader(baseDoubleBuffers, totalSize, sizePer, XorEncoding.forDoubles());
+
+    @Override
+    public int size()
+    {
+      return totalSize;
+    }
+
+    @Override
+    public double get(int index)
+    {
+      reader.seek(index);
+      return Double.longBitsToDouble(reader.next());
+    }
+
+    @Override
+    public void get(final double[] out, final int start, final int length)
+    {
+      int p = 0;
+      while (p < length) {
+        final int limit = Math.min(length - p, reader.seek(start + p));
+        for (int i = 0; i < limit; i++) {
+          out[p + i] = Double.longBitsToDouble(reader.next());
+        }
+        p += limit;
+      }
+    }
+
+    @Override
+    public void get(final double[] out, final int[] indexes, final int length)
+    {
+      for (int i = 0; i < length; i++) {
+        reader.seek(indexes[i]);
+        out[i] = Double.longBitsToDouble(reader.next());
+      }
+    }
+
+    @Override
+    public void close()
+    {
+      reader.close();
+    }
+
+    @Override
+    public String toString()
+    {
+      return "XorColumnarDoubles{" +
+             "currBufferNum=" + reader.getCurrBufferNum() +
+             ", sizePer=" + sizePer +
+             ", numChunks=" + reader.getNumChunks() +
+             ", totalSize=" + totalSize +
+             '}';
+    }
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment.data;
+
+import com.google.common.base.Supplier;
+import org.apache.druid.collections.ResourceHolder;
+import org.apache.druid.java.util.common.IAE;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class XorColumnarFloatsSupplier implements Supplier<ColumnarFloats>
+{
+  private final GenericIndexed<ResourceHolder<ByteBuffer>> baseFloatBuffers;
+
+  // The number of rows in this column.
+  private final int totalSize;
+
+  // The number of floats per buffer.
+  private final int sizePer;
+
+  public XorColumnarFloatsSupplier(
+      int totalSize,
+      int sizePer,
+      ByteBuffer fromBuffer,
+      ByteOrder byteOrder,
+      CompressionStrategy strategy
+  )
+  {
+    byte version = fromBuffer.get();
+    if (version != CompressionFactory.XOR_ENCODING_VERSION) {
+      throw new IAE("Unknown version[%s]", version);
+    }
+    baseFloatBuffers = GenericIndexed.read(
+        fromBuffer,
+        DecompressingByteBufferObjectStrategy.readCompressionHeader(fromBuffer, byteOrder, strategy)
+    );
+    this.totalSize = totalSize;
+    this.sizePer = sizePer;
+  }
+
+  @Override
+  public ColumnarFloats get()
+  {
+    return new XorColumnarFloats();
+  }
+
+  private class XorColumnarFloats implements ColumnarFloats
+  {
+    final XorColumnarReader reader =
+        new XorColumnarReader(baseFloatBuffers, totalSize, sizePer, XorEncoding.forFloats());
+
+    @Override
+    public int size()
+    {
+      return totalSize;
+    }
+
+    @Override
+    public float get(int index)
+    {
+      reader.seek(index);
+      return Float.intBitsToFloat((int) reader.next());
+    }
+
+    @Override
+    public void get(final float[] out, final int start, final int length)
+    {
+      int p = 0;
+      while (p < length) {
+        final int limit = Math.min(length - p, reader.seek(start + p));
+        for (int i = 0; i < limit; i++) {
+          out[p + i] = Float.intBitsToFloat((int) reader.next());
+        }
+        p += limit;
+      }
+    }
+
+    @Override
+    public void get(final float[] out, final int[] indexes, final int length)
+    {
+      for (int i = 0; i < length; i++) {
+        reader.seek(indexes[i]);
+        out[i] = Float.intBitsToFloat((int) reader.next());
+      }
+    }
+
+    @Override
+    public void close()
+    {
+      reader.close();
+    }
+
+    @Override
+    public String toString()
+    {
+      return "XorColumnarFloats{" +
+             "currBufferNum=" + reader.getCurrBufferNum() +
+             ", sizePer=" + sizePer +
+             ", numChunks=" + reader.getNumChunks() +
+             ", totalSize=" + totalSize +
+             '}';
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment.data;
+
+import org.apache.druid.collections.ResourceHolder;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads the values of a column of {@link XorEncoding} encoded blocks. Since values can only be decoded sequentially
+ * within a block, the whole block is decoded when the reader moves to it, after which values of the block can be
+ * read in any order.
+ *
+ * Unsafe for concurrent use from multiple threads.
+ */
+class XorColumnarReader implements Closeable
+{
+  private final Indexed<ResourceHolder<ByteBuffer>> singleThreadedBuffers;
+  private final int totalSize;
+  private final int sizePer;
+  private final XorEncoding.Decoder decoder;
+  private final long[] values;
+
+  private int currBufferNum = -1;
+  private int position;
+
+  XorColumnarReader(
+      GenericIndexed<ResourceHolder<ByteBuffer>> buffers,
+      int totalSize,
+      int sizePer,
+      XorEncoding encoding
+  )
+  {
+    this.singleThreadedBuffers = buffers.singleThreaded();
+    this.totalSize = totalSize;
+    this.sizePer = sizePer;
+    this.decoder = encoding.decoder();
+    this.values = new long[sizePer];
+  }
+
+  /**
+   * Positions the reader so that the next call to {@link #next()} returns the value at the given row.
+   *
+   * @return the number of values that can be read with {@link #next()} before the end of the block
+   */
+  int seek(int index)
+  {
+    // division + remainder is optimized by the compiler so keep those together
+    final int bufferNum = index / sizePer;
+    final int bufferIndex = index % sizePer;
+
+    if (bufferNum != currBufferNum) {
+      loadBuffer(bufferNum);
+    }
+    position = bufferIndex;
+    return sizePer - bufferIndex;
+  }
+
+  long next()
+  {
+    return values[position++];
+  }
+
+  int getCurrBufferNum()
+  {
+    return currBufferNum;
+  }
+
+  int getNumChunks()
+  {
+    return singleThreadedBuffers.size();
+  }
+
+  @Override
+  public void close()
+  {
+    // nothing to close, blocks are released as soon as they are decoded
+  }
+
+  private void loadBuffer(int bufferNum)
+  {
+    try (ResourceHolder<ByteBuffer> holder = singleThreadedBuffers.get(bufferNum)) {
+      final ByteBuffer buffer = holder.get();
+      decoder.reset(buffer, buffer.position());
+      // the last block may hold fewer values, decoding past them would read past the end of the block
+      final int numValues = Math.min(sizePer, totalSize - bufferNum * sizePer);
+      for (int i = 0; i < numValues; i++) {
+        values[i] = decoder.next();
+      }
+    }
+    currBufferNum = bufferNum;
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import org.apache.druid.java.util.common.io.smoosh.FileSmoosher;
+import org.apache.druid.segment.serde.MetaSerdeHelper;
+import org.apache.druid.segment.serde.Serializer;
+import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Base of {@link XorColumnarFloatsSerializer} and {@link XorColumnarDoublesSerializer}, which write blocks of
+ * {@link XorEncoding} encoded values that are then compressed like the blocks of
+ * {@link BlockLayoutColumnarFloatsSerializer}.
+ */
+abstract class XorColumnarSerializer implements Serializer
+{
+  private static final MetaSerdeHelper<XorColumnarSerializer> META_SERDE_HELPER = MetaSerdeHelper
+      .firstWriteByte((XorColumnarSerializer x) -> x.version)
+      .writeInt(x -> x.numInserted)
+      .writeInt(x -> x.sizePer)
+      .writeByte(x -> CompressionFactory.setEncodingFlag(x.compression.getId()))
+      .writeByte(x -> CompressionFactory.FloatEncodingStrategy.XOR.getId())
+      .writeByte(x -> CompressionFactory.XOR_ENCODING_VERSION);
+
+  private final String columnName;
+  private final byte version;
+  private final int sizePer;
+  private final GenericIndexedWriter<ByteBuffer> flattener;
+  private final CompressionStrategy compression;
+  private final XorEncoding.Encoder encoder;
+
+  private int numInserted = 0;
+  @Nullable
+  private ByteBuffer endBuffer;
+
+  XorColumnarSerializer(
+      String columnName,
+      SegmentWriteOutMedium segmentWriteOutMedium,
+      String filenameBase,
+      ByteOrder byteOrder,
+      CompressionStrategy compression,
+      byte version,
+      XorEncoding encoding
+  )
+  {
+    this.columnName = columnName;
+    this.version = version;
+    this.sizePer = encoding.getValuesPerBlock();
+    final int bufferSize = encoding.getMaxEncodedSize(sizePer);
+    this.flattener = GenericIndexedWriter.ofCompressedByteBuffers(
+        segmentWriteOutMedium,
+        filenameBase,
+        compression,
+        bufferSize
+    );
+    this.compression = compression;
+    CompressionStrategy.Compressor compressor = compression.getCompressor();
+    this.endBuffer = compressor.allocateInBuffer(bufferSize, segmentWriteOutMedium.getCloser()).order(byteOrder);
+    this.encoder = encoding.encoder();
+    encoder.reset(endBuffer);
+  }
+
+  public void open() throws IOException
+  {
+    flattener.open();
+  }
+
+  public int size()
+  {
+    return numInserted;
+  }
+
+  void addBits(long bits) throws IOException
+  {
+    if (endBuffer == null) {
+      throw new IllegalStateException("written out already");
+    }
+    if (numInserted > 0 && numInserted % sizePer == 0) {
+      encoder.flush();
+      endBuffer.flip();
+      flattener.write(endBuffer);
+      endBuffer.clear();
+      encoder.reset(endBuffer);
+    }
+
+    encoder.write(bits);
+    ++numInserted;
+    if (numInserted < 0) {
+      throw new ColumnCapacityExceededException(columnName);
+    }
+  }
+
+  @Override
+  public long getSerializedSize() throws IOException
+  {
+    writeEndBuffer();
+    return META_SERDE_HELPER.size(this) + flattener.getSerializedSize();
+  }
+
+  @Override
+  public void writeTo(WritableByteChannel channel, FileSmoosher smoosher) throws IOException
+  {
+    writeEndBuffer();
+    META_SERDE_HELPER.writeTo(channel, this);
+    flattener.writeTo(channel, smoosher);
+  }
+
+  private void writeEndBuffer() throws IOException
+  {
+    if (endBuffer != null) {
+      encoder.flush();
+      endBuffer.flip();
+      if (endBuffer.remaining() > 0) {
+        flattener.write(endBuffer);
+      }
+      endBuffer = null;
+    }
+  }
+}
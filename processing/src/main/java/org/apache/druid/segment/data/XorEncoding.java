@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.segment.CompressedPools;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Bit level XOR encoding of float and double values, as described in "Gorilla: A Fast, Scalable, In-Memory Time
+ * Series Database". Values are handled as their raw IEEE 754 bits, which are {@link #width} bits wide.
+ * <p>
+ * The first value of a block is stored as is. Every following value is XOR-ed with the previous one, and:
+ * - if the XOR is zero, a single '0' bit is stored
+ * - if the meaningful (non zero) bits of the XOR fall within the meaningful bits of the previous stored XOR, '10' is
+ * stored, followed by the bits of the XOR in that same window
+ * - otherwise '11' is stored, followed by the number of leading zeros of the XOR, the number of meaningful bits minus
+ * one, and the meaningful bits
+ * <p>
+ * Values that change slowly share most of their sign, exponent and high mantissa bits, so their XOR is small.
+ */
+public class XorEncoding
+{
+  private final int width;
+  private final int lengthBits;
+
+  private XorEncoding(int width)
+  {
+    if (width != Integer.SIZE && width != Long.SIZE) {
+      throw new IAE("Unsupported width[%s]", width);
+    }
+    this.width = width;
+    this.lengthBits = Integer.numberOfTrailingZeros(width);
+  }
+
+  public static XorEncoding forFloats()
+  {
+    return new XorEncoding(Integer.SIZE);
+  }
+
+  public static XorEncoding forDoubles()
+  {
+    return new XorEncoding(Long.SIZE);
+  }
+
+  /**
+   * Worst case number of bytes for a block of the given number of values, where every value has its own window.
+   */
+  public int getMaxEncodedSize(int numValues)
+  {
+    final long bits = width + (long) (numValues - 1) * (2 + 2 * lengthBits + width);
+    return (int) ((bits + 7) / 8);
+  }
+
+  /**
+   * Number of values per block, so that the worst case encoded block fits in the given number of bytes. This is a
+   * power of 2, so that block and in-block indexes can be computed with bit operators.
+   */
+  public int getValuesPerBlock(int bytesPerBlock)
+  {
+    int ret = 1;
+    while (getMaxEncodedSize(ret) <= bytesPerBlock) {
+      ret *= 2;
+    }
+    return ret / 2;
+  }
+
+  public int getValuesPerBlock()
+  {
+    return getValuesPerBlock(CompressedPools.BUFFER_SIZE);
+  }
+
+  public Encoder encoder()
+  {
+    return new Encoder();
+  }
+
+  public Decoder decoder()
+  {
+    return new Decoder();
+  }
+
+  /**
+   * Writes encoded values to the buffer given to {@link #reset}, starting at its position. {@link #flush()} must be
+   * called at the end of each block, after which the position of the buffer is right after the block.
+   */
+  public class Encoder
+  {
+    private ByteBuffer out;
+    private long pending;
+    private int pendingBits;
+    private boolean first;
+    private long previous;
+    private int previousLeading;
+    private int previousTrailing;
+
+    private Encoder()
+    {
+    }
+
+    public void reset(ByteBuffer out)
+    {
+      this.out = out;
+      pending = 0;
+      pendingBits = 0;
+      first = true;
+      previousLeading = -1;
+    }
+
+    public void write(long bits)
+    {
+      if (first) {
+        writeBits(bits, width);
+        previous = bits;
+        first = false;
+        return;
+      }
+
+      final long xor = bits ^ previous;
+      previous = bits;
+      if (xor == 0) {
+        writeBits(0, 1);
+        return;
+      }
+
+      final int leading = Long.numberOfLeadingZeros(xor) - (Long.SIZE - width);
+      final int trailing = Long.numberOfTrailingZeros(xor);
+      if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+        writeBits(0b10, 2);
+        writeBits(xor >>> previousTrailing, width - previousLeading - previousTrailing);
+      } else {
+        final int meaningful = width - leading - trailing;
+        writeBits(0b11, 2);
+        writeBits(leading, lengthBits);
+        writeBits(meaningful - 1, lengthBits);
+        writeBits(xor >>> trailing, meaningful);
+        previousLeading = leading;
+        previousTrailing = trailing;
+      }
+    }
+
+    public void flush()
+    {
+      if (pendingBits > 0) {
+        out.put((byte) (pending << (Byte.SIZE - pendingBits)));
+        pendingBits = 0;
+      }
+    }
+
+    private void writeBits(long value, int numBits)
+    {
+      if (numBits > Integer.SIZE) {
+        writeBits(value >>> Integer.SIZE, numBits - Integer.SIZE);
+        writeBits(value, Integer.SIZE);
+        return;
+      }
+      pending = (pending << numBits) | (value & ((1L << numBits) - 1));
+      pendingBits += numBits;
+      while (pendingBits >= Byte.SIZE) {
+        pendingBits -= Byte.SIZE;
+        out.put((byte) (pending >>> pendingBits));
+      }
+    }
+  }
+
+  /**
+   * Reads the values of a block sequentially, starting from the buffer position given to {@link #reset}.
+   */
+  public class Decoder
+  {
+    private ByteBuffer in;
+    private int position;
+    private long window;
+    private int windowBits;
+    private boolean first;
+    private long previous;
+    private int previousLeading;
+    private int previousTrailing;
+
+    private Decoder()
+    {
+    }
+
+    public void reset(ByteBuffer in, int startPosition)
+    {
+      this.in = in;
+      position = startPosition;
+      windowBits = 0;
+      first = true;
+    }
+
+    public long next()
+    {
+      if (first) {
+        first = false;
+        previous = readBits(width);
+        return previous;
+      }
+      if (readBits(1) == 0) {
+        return previous;
+      }
+      if (readBits(1) == 1) {
+        previousLeading = (int) readBits(lengthBits);
+        final int meaningful = (int) readBits(lengthBits) + 1;
+        previousTrailing = width - previousLeading - meaningful;
+      }
+      previous ^= readBits(width - previousLeading - previousTrailing) << previousTrailing;
+      return previous;
+    }
+
+    private long readBits(int numBits)
+    {
+      if (numBits > Integer.SIZE) {
+        final long high = readBits(numBits - Integer.SIZE);
+        return (high << Integer.SIZE) | readBits(Integer.SIZE);
+      }
+      while (windowBits < numBits) {
+        window = (window << Byte.SIZE) | (in.get(position++) & 0xFF);
+        windowBits += Byte.SIZE;
+      }
+      windowBits -= numBits;
+      return (window >>> windowBits) & ((1L << numBits) - 1);
+    }
+  }
+}
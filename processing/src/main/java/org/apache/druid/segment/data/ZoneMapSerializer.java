@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.java.util.common.io.smoosh.FileSmoosher;
+import org.apache.druid.segment.CompressedPools;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.serde.MetaSerdeHelper;
+import org.apache.druid.segment.serde.Serializer;
+import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
+import org.apache.druid.segment.writeout.WriteOutBytes;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Computes the {@link org.apache.druid.segment.column.ZoneMap} of a numeric column while its values are written, and
+ * serializes it in the format read by {@link ImmutableZoneMap}.
+ *
+ * This class is unsafe for concurrent use from multiple threads.
+ */
+public class ZoneMapSerializer implements Serializer
+{
+  /**
+   * Number of rows per zone, the number of values of a block of a column of longs or doubles without encoding.
+   */
+  public static final int DEFAULT_ROWS_PER_ZONE = CompressedPools.BUFFER_SIZE / Long.BYTES;
+
+  private static final MetaSerdeHelper<ZoneMapSerializer> META_SERDE_HELPER = MetaSerdeHelper
+      .firstWriteByte((ZoneMapSerializer x) -> ImmutableZoneMap.VERSION)
+      .writeInt(x -> x.rowsPerZone)
+      .writeInt(x -> x.numRows);
+
+  private final ValueType type;
+  private final int rowsPerZone;
+  private final SegmentWriteOutMedium segmentWriteOutMedium;
+  private final ByteBuffer zoneBuffer = ByteBuffer.allocate(ImmutableZoneMap.ZONE_SIZE);
+
+  private WriteOutBytes zonesOut;
+  private int numRows = 0;
+  private int zoneRows = 0;
+  private int zoneNulls = 0;
+  private long longMin;
+  private long longMax;
+  private double doubleMin;
+  private double doubleMax;
+
+  public ZoneMapSerializer(ValueType type, int rowsPerZone, SegmentWriteOutMedium segmentWriteOutMedium)
+  {
+    if (Integer.bitCount(rowsPerZone) != 1) {
+      throw new IAE("rowsPerZone[%s] must be a power of 2", rowsPerZone);
+    }
+    ImmutableZoneMap.checkType(type);
+    this.type = type;
+    this.rowsPerZone = rowsPerZone;
+    this.segmentWriteOutMedium = segmentWriteOutMedium;
+    resetZone();
+  }
+
+  public ValueType getType()
+  {
+    return type;
+  }
+
+  public void open() throws IOException
+  {
+    zonesOut = segmentWriteOutMedium.makeWriteOutBytes();
+  }
+
+  public void addNull() throws IOException
+  {
+    zoneNulls++;
+    addRow();
+  }
+
+  public void addLong(long value) throws IOException
+  {
+    longMin = Math.min(longMin, value);
+    longMax = Math.max(longMax, value);
+    addRow();
+  }
+
+  public void addDouble(double value) throws IOException
+  {
+    if (Double.compare(value, doubleMin) < 0) {
+      doubleMin = value;
+    }
+    if (Double.compare(value, doubleMax) > 0) {
+      doubleMax = value;
+    }
+    addRow();
+  }
+
+  @Override
+  public long getSerializedSize() throws IOException
+  {
+    flushZone();
+    return META_SERDE_HELPER.size(this) + zonesOut.size();
+  }
+
+  @Override
+  public void writeTo(WritableByteChannel channel, FileSmoosher smoosher) throws IOException
+  {
+    flushZone();
+    META_SERDE_HELPER.writeTo(channel, this);
+    zonesOut.writeTo(channel);
+  }
+
+  private void addRow() throws IOException
+  {
+    numRows++;
+    if (++zoneRows == rowsPerZone) {
+      flushZone();
+    }
+  }
+
+  private void flushZone() throws IOException
+  {
+    if (zoneRows == 0) {
+      return;
+    }
+    zoneBuffer.clear();
+    zoneBuffer.putInt(zoneNulls);
+    if (type == ValueType.LONG) {
+      zoneBuffer.putLong(longMin).putLong(longMax);
+    } else {
+      zoneBuffer.putDouble(doubleMin).putDouble(doubleMax);
+    }
+    zoneBuffer.flip();
+    zonesOut.write(zoneBuffer);
+    resetZone();
+  }
+
+  private void resetZone()
+  {
+    zoneRows = 0;
+    zoneNulls = 0;
+    longMin = Long.MAX_VALUE;
+    longMax = Long.MIN_VALUE;
+    doubleMin = Double.NaN;
+    doubleMax = Double.NEGATIVE_INFINITY;
+  }
+}
@@ -24,6 +24,7 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.primitives.Booleans;
 import org.apache.druid.collections.bitmap.ImmutableBitmap;
 import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.query.BitmapResultFactory;
@@ -32,6 +33,7 @@ import org.apache.druid.query.filter.BooleanFilter;
 import org.apache.druid.query.filter.Filter;
 import org.apache.druid.query.filter.RowOffsetMatcherFactory;
 import org.apache.druid.query.filter.ValueMatcher;
+import org.apache.druid.query.filter.ZoneMatcher;
 import org.apache.druid.query.filter.vector.BaseVectorValueMatcher;
 import org.apache.druid.query.filter.vector.ReadableVectorMatch;
 import org.apache.druid.query.filter.vector.VectorValueMatcher;
@@ -40,6 +42,7 @@ import org.apache.druid.segment.ColumnInspector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashSet;
@@ -117,7 +120,7 @@ public class AndFilter implements BooleanFilter
     for (Filter filter : filters) {
       matchers[i++] = filter.makeMatcher(factory);
     }
-    return makeMatcher(matchers);
+    return makeMatcher(matchers, MatcherPassRates.reorderable(filters, factory::isVirtualColumn));
   }
 
   @Override
@@ -129,7 +132,7 @@ public class AndFilter implements BooleanFilter
     for (Filter filter : filters) {
       matchers[i++] = filter.makeVectorMatcher(factory);
     }
-    return makeVectorMatcher(matchers);
+    return makeVectorMatcher(matchers, MatcherPassRates.reorderable(filters, factory::isVirtualColumn));
   }
 
   @Override
@@ -138,6 +141,20 @@ public class AndFilter implements BooleanFilter
     return filters.stream().allMatch(filter -> filter.canVectorizeMatcher(inspector));
   }
 
+  @Nullable
+  @Override
+  public ZoneMatcher makeZoneMatcher(BitmapIndexSelector selector)
+  {
+    final List<ZoneMatcher> matchers = new ArrayList<>();
+    for (Filter filter : filters) {
+      final ZoneMatcher matcher = filter.makeZoneMatcher(selector);
+      if (matcher != null) {
+        matchers.add(matcher);
+      }
+    }
+    return ZoneMatchers.and(matchers);
+  }
+
   @Override
   public ValueMatcher makeMatcher(
       BitmapIndexSelector selector,
@@ -146,6 +163,7 @@ public class AndFilter implements BooleanFilter
   )
   {
     final List<ValueMatcher> matchers = new ArrayList<>();
+    final List<Filter> matcherFilters = new ArrayList<>();
     final List<ImmutableBitmap> bitmaps = new ArrayList<>();
 
     for (Filter filter : filters) {
@@ -154,16 +172,23 @@ public class AndFilter implements BooleanFilter
       } else {
         ValueMatcher matcher = filter.makeMatcher(columnSelectorFactory);
         matchers.add(matcher);
+        matcherFilters.add(filter);
       }
     }
+    final boolean[] reorderable = MatcherPassRates.reorderable(matcherFilters, columnSelectorFactory::isVirtualColumn);
 
     if (bitmaps.size() > 0) {
       ImmutableBitmap combinedBitmap = selector.getBitmapFactory().intersection(bitmaps);
       ValueMatcher offsetMatcher = rowOffsetMatcherFactory.makeRowOffsetMatcher(combinedBitmap);
       matchers.add(0, offsetMatcher);
+      // the offset matcher never fails
+      return makeMatcher(
+          matchers.toArray(BooleanFilter.EMPTY_VALUE_MATCHER_ARRAY),
+          Booleans.concat(new boolean[]{true}, reorderable)
+      );
     }
 
-    return makeMatcher(matchers.toArray(BooleanFilter.EMPTY_VALUE_MATCHER_ARRAY));
+    return makeMatcher(matchers.toArray(BooleanFilter.EMPTY_VALUE_MATCHER_ARRAY), reorderable);
   }
 
   @Override
@@ -189,7 +214,13 @@ public class AndFilter implements BooleanFilter
     return StringUtils.format("(%s)", AND_JOINER.join(filters));
   }
 
-  private static ValueMatcher makeMatcher(final ValueMatcher[] baseMatchers)
+  /**
+   * Makes a matcher which evaluates "baseMatchers" in order until one of them fails. After the first
+   * {@link MatcherPassRates#SAMPLE_ROWS} rows, the matchers are reordered so that the ones which failed most often
+   * are evaluated first, as far as "reorderable" allows, see {@link MatcherPassRates}.
+   */
+  @VisibleForTesting
+  static ValueMatcher makeMatcher(final ValueMatcher[] baseMatchers, final boolean[] reorderable)
   {
     Preconditions.checkState(baseMatchers.length > 0);
     if (baseMatchers.length == 1) {
@@ -198,10 +229,18 @@ public class AndFilter implements BooleanFilter
 
     return new ValueMatcher()
     {
+      @Nullable
+      private MatcherPassRates passRates = new MatcherPassRates(reorderable);
+      private ValueMatcher[] matchers = baseMatchers;
+
       @Override
       public boolean matches()
       {
-        for (ValueMatcher matcher : baseMatchers) {
+        if (passRates != null) {
+          return matchesAndRecordPassRates();
+        }
+
+        for (ValueMatcher matcher : matchers) {
           if (!matcher.matches()) {
             return false;
           }
@@ -209,6 +248,25 @@ public class AndFilter implements BooleanFilter
         return true;
       }
 
+      private boolean matchesAndRecordPassRates()
+      {
+        assert passRates != null;
+        boolean matches = true;
+        for (int i = 0; i < matchers.length; i++) {
+          matches = matchers[i].matches();
+          passRates.record(i, 1, matches ? 1 : 0);
+          if (!matches) {
+            break;
+          }
+        }
+
+        if (passRates.addRows(1)) {
+          matchers = passRates.sort(matchers, false);
+          passRates = null;
+        }
+        return matches;
+      }
+
       @Override
       public void inspectRuntimeShape(RuntimeShapeInspector inspector)
       {
@@ -220,7 +278,15 @@ public class AndFilter implements BooleanFilter
     };
   }
 
-  private static VectorValueMatcher makeVectorMatcher(final VectorValueMatcher[] baseMatchers)
+  /**
+   * Makes a vector matcher which narrows the match down with each of "baseMatchers" in order. After the first
+   * {@link MatcherPassRates#SAMPLE_ROWS} rows, the matchers are reordered so that the ones which let the fewest rows
+   * through are evaluated first, as far as "reorderable" allows, see {@link MatcherPassRates}.
+   */
+  private static VectorValueMatcher makeVectorMatcher(
+      final VectorValueMatcher[] baseMatchers,
+      final boolean[] reorderable
+  )
   {
     Preconditions.checkState(baseMatchers.length > 0);
     if (baseMatchers.length == 1) {
@@ -229,18 +295,31 @@ public class AndFilter implements BooleanFilter
 
     return new BaseVectorValueMatcher(baseMatchers[0])
     {
+      @Nullable
+      private MatcherPassRates passRates = new MatcherPassRates(reorderable);
+      private VectorValueMatcher[] matchers = baseMatchers;
+
       @Override
       public ReadableVectorMatch match(final ReadableVectorMatch mask)
       {
         ReadableVectorMatch match = mask;
 
-        for (VectorValueMatcher matcher : baseMatchers) {
+        for (int i = 0; i < matchers.length; i++) {
           if (match.isAllFalse()) {
             // Short-circuit if the entire vector is false.
             break;
           }
 
-          match = matcher.match(match);
+          final int evaluated = match.getSelectionSize();
+          match = matchers[i].match(match);
+          if (passRates != null) {
+            passRates.record(i, evaluated, match.getSelectionSize());
+          }
+        }
+
+        if (passRates != null && passRates.addRows(mask.getSelectionSize())) {
+          matchers = passRates.sort(matchers, false);
+          passRates = null;
         }
 
         assert match.isValid(mask);
@@ -38,6 +38,7 @@ import org.apache.druid.query.filter.DruidPredicateFactory;
 import org.apache.druid.query.filter.Filter;
 import org.apache.druid.query.filter.FilterTuning;
 import org.apache.druid.query.filter.ValueMatcher;
+import org.apache.druid.query.filter.ZoneMatcher;
 import org.apache.druid.query.filter.vector.VectorValueMatcher;
 import org.apache.druid.query.filter.vector.VectorValueMatcherColumnProcessorFactory;
 import org.apache.druid.query.ordering.StringComparators;
@@ -47,8 +48,10 @@ import org.apache.druid.segment.ColumnSelector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.IntListUtils;
 import org.apache.druid.segment.column.BitmapIndex;
+import org.apache.druid.segment.column.NumericBitmapIndex;
 import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
 
+import javax.annotation.Nullable;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -81,6 +84,13 @@ public class BoundFilter implements Filter
       }
 
       return bitmapResultFactory.unionDimensionValueBitmaps(getBitmapIterator(boundDimFilter, bitmapIndex));
+    }
+
+    final NumericBitmapIndex numericBitmapIndex = getNumericBitmapIndex(selector);
+    if (numericBitmapIndex != null) {
+      return bitmapResultFactory.unionDimensionValueBitmaps(
+          NumericBitmapIndexes.forBound(numericBitmapIndex, boundDimFilter, getPredicateFactory())
+      );
     } else {
       return Filters.matchPredicate(
           boundDimFilter.getDimension(),
@@ -106,6 +116,14 @@ public class BoundFilter implements Filter
           getBitmapIndexList(boundDimFilter, bitmapIndex),
           indexSelector.getNumRows()
       );
+    }
+
+    final NumericBitmapIndex numericBitmapIndex = getNumericBitmapIndex(indexSelector);
+    if (numericBitmapIndex != null) {
+      return Filters.estimateSelectivity(
+          NumericBitmapIndexes.forBound(numericBitmapIndex, boundDimFilter, getPredicateFactory()).iterator(),
+          indexSelector.getNumRows()
+      );
     } else {
       return Filters.estimateSelectivity(
           boundDimFilter.getDimension(),
@@ -121,6 +139,15 @@ public class BoundFilter implements Filter
     return boundDimFilter.getOrdering().equals(StringComparators.LEXICOGRAPHIC) && extractionFn == null;
   }
 
+  @Nullable
+  private NumericBitmapIndex getNumericBitmapIndex(BitmapIndexSelector selector)
+  {
+    if (!NumericBitmapIndexes.canUseIndex(boundDimFilter)) {
+      return null;
+    }
+    return selector.getNumericBitmapIndex(boundDimFilter.getDimension());
+  }
+
   @Override
   public ValueMatcher makeMatcher(ColumnSelectorFactory factory)
   {
@@ -143,10 +170,17 @@ public class BoundFilter implements Filter
     return true;
   }
 
+  @Nullable
+  @Override
+  public ZoneMatcher makeZoneMatcher(BitmapIndexSelector selector)
+  {
+    return ZoneMatchers.forBound(selector, boundDimFilter, getPredicateFactory());
+  }
+
   @Override
   public boolean supportsBitmapIndex(BitmapIndexSelector selector)
   {
-    return selector.getBitmapIndex(boundDimFilter.getDimension()) != null;
+    return selector.getBitmapIndex(boundDimFilter.getDimension()) != null || getNumericBitmapIndex(selector) != null;
   }
 
   @Override
@@ -167,6 +201,21 @@ public class BoundFilter implements Filter
     return boundDimFilter.getRequiredColumns();
   }
 
+  /**
+   * Returns the extraction function applied to values before they are matched, if any.
+   */
+  @Nullable
+  ExtractionFn getExtractionFn()
+  {
+    return extractionFn;
+  }
+
+  @Override
+  public byte[] getCacheKey()
+  {
+    return boundDimFilter.getCacheKey();
+  }
+
   @Override
   public boolean supportsRequiredColumnRewrite()
   {
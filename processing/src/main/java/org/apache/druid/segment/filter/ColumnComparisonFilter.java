@@ -157,6 +157,11 @@ public class ColumnComparisonFilter implements Filter
     return dimensions.stream().map(DimensionSpec::getDimension).collect(Collectors.toSet());
   }
 
+  List<DimensionSpec> getDimensions()
+  {
+    return dimensions;
+  }
+
   @Override
   public double estimateSelectivity(BitmapIndexSelector indexSelector)
   {
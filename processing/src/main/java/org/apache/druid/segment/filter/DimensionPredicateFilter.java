@@ -42,6 +42,7 @@ import org.apache.druid.segment.ColumnSelector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
 
+import javax.annotation.Nullable;
 import java.util.Objects;
 import java.util.Set;
 
@@ -119,6 +120,15 @@ public class DimensionPredicateFilter implements Filter
     return ImmutableSet.of(dimension);
   }
 
+  /**
+   * Returns the extraction function applied to values before they are matched, if any.
+   */
+  @Nullable
+  ExtractionFn getExtractionFn()
+  {
+    return extractionFn;
+  }
+
   @Override
   public boolean supportsBitmapIndex(BitmapIndexSelector selector)
   {
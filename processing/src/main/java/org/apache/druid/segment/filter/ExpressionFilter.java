@@ -70,6 +70,21 @@ public class ExpressionFilter implements Filter
     this.filterTuning = filterTuning;
   }
 
+  public Expr getExpression()
+  {
+    return expr.get();
+  }
+
+  /**
+   * Returns a copy of this filter which evaluates "expression" instead, which must produce the same results as the
+   * expression of this filter, such as the expression rewritten by
+   * {@link org.apache.druid.segment.virtual.ExpressionPlanner#eliminateCommonSubexpressions}.
+   */
+  public ExpressionFilter withEquivalentExpression(Expr expression)
+  {
+    return new ExpressionFilter(Suppliers.ofInstance(expression), filterTuning);
+  }
+
   @Override
   public boolean canVectorizeMatcher(ColumnInspector inspector)
   {
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.filter;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.inject.Inject;
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.query.filter.Filter;
+import org.apache.druid.segment.cache.HeapBufferCache;
+import org.apache.druid.timeline.SegmentId;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded, least-recently-used cache of the bitmaps of the rows of segments matched by filters, shared by all
+ * segments of the process, so that the unions of many dimension value bitmaps computed by filters like
+ * {@link org.apache.druid.query.filter.InDimFilter} and {@link BoundFilter} are computed once for the filters that
+ * queries send again and again.
+ *
+ * Bitmaps are keyed by the id of the segment and the {@link Filter#getCacheKey()} of the filter, so they must only be
+ * cached for segments whose rows never change for the same id, see
+ * {@link org.apache.druid.segment.QueryableIndexSegment}. Cached bitmaps are serialized on the heap, see
+ * {@link HeapBufferCache}, and mapped by the {@link BitmapFactory} of the segment when read.
+ *
+ * The cache is disabled by default. It is configured by {@link FilterBitmapCacheConfig}, injected statically by
+ * {@link org.apache.druid.guice.FilterBitmapCacheModule}, and its statistics are emitted by
+ * {@link FilterBitmapCacheMonitor}.
+ */
+public class FilterBitmapCache extends HeapBufferCache<FilterBitmapCache.BitmapKey>
+{
+  private static final FilterBitmapCache DISABLED = new FilterBitmapCache(0);
+
+  private static volatile FilterBitmapCache instance = DISABLED;
+
+  @Inject
+  public static void configure(FilterBitmapCacheConfig config)
+  {
+    setInstance(new FilterBitmapCache(config.getSizeInBytes()));
+  }
+
+  public static FilterBitmapCache getInstance()
+  {
+    return instance;
+  }
+
+  @VisibleForTesting
+  public static void setInstance(FilterBitmapCache cache)
+  {
+    instance = cache;
+  }
+
+  public FilterBitmapCache(long maxSizeInBytes)
+  {
+    super(maxSizeInBytes, FilterBitmapCache::weigh);
+  }
+
+  /**
+   * Returns the bitmap of the rows of the segment with the given id that are matched by the filter with the given
+   * cache key, see {@link Filter#getCacheKey()}. The bitmap is read from the cache if present, and is computed by
+   * "computeBitmap" and added to the cache otherwise. Returns the computed bitmap as is if the cache is disabled.
+   */
+  public ImmutableBitmap getBitmap(
+      final SegmentId segmentId,
+      final byte[] filterCacheKey,
+      final BitmapFactory bitmapFactory,
+      final Supplier<ImmutableBitmap> computeBitmap
+  )
+  {
+    if (!isEnabled()) {
+      return computeBitmap.get();
+    }
+
+    final BitmapKey key = new BitmapKey(segmentId, filterCacheKey);
+    final ByteBuffer serialized = getIfPresent(key);
+    if (serialized == null) {
+      final ImmutableBitmap bitmap = computeBitmap.get();
+      put(key, ByteBuffer.wrap(bitmap.toBytes()));
+      return bitmap;
+    }
+    return bitmapFactory.mapImmutableBitmap(serialized.asReadOnlyBuffer());
+  }
+
+  private static int weigh(BitmapKey key, ByteBuffer bitmap)
+  {
+    return key.filterCacheKey.length + bitmap.capacity();
+  }
+
+  static class BitmapKey
+  {
+    private final SegmentId segmentId;
+    private final byte[] filterCacheKey;
+
+    private BitmapKey(SegmentId segmentId, byte[] filterCacheKey)
+    {
+      this.segmentId = segmentId;
+      this.filterCacheKey = filterCacheKey;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      BitmapKey bitmapKey = (BitmapKey) o;
+      return segmentId.equals(bitmapKey.segmentId) && Arrays.equals(filterCacheKey, bitmapKey.filterCacheKey);
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return Objects.hash(segmentId, Arrays.hashCode(filterCacheKey));
+    }
+  }
+}
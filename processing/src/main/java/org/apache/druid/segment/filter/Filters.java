@@ -28,6 +28,7 @@ import it.unimi.dsi.fastutil.ints.IntIterator;
 import it.unimi.dsi.fastutil.ints.IntList;
 import org.apache.druid.collections.bitmap.ImmutableBitmap;
 import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.math.expr.Expr;
 import org.apache.druid.query.BitmapResultFactory;
 import org.apache.druid.query.Query;
 import org.apache.druid.query.QueryContexts;
@@ -43,6 +44,7 @@ import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.IntIteratorUtils;
 import org.apache.druid.segment.column.BitmapIndex;
 import org.apache.druid.segment.column.ColumnHolder;
+import org.apache.druid.segment.column.NumericBitmapIndex;
 import org.apache.druid.segment.data.CloseableIndexed;
 import org.apache.druid.segment.data.Indexed;
 import org.apache.druid.segment.filter.cnf.CalciteCnfHelper;
@@ -60,6 +62,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -475,8 +478,14 @@ public class Filters
     if (filter.supportsBitmapIndex(indexSelector) && tuning.getUseBitmapIndex()) {
       return filter.getRequiredColumns().stream().allMatch(column -> {
         final BitmapIndex index = indexSelector.getBitmapIndex(column);
-        Preconditions.checkNotNull(index, "Column does not have a bitmap index");
-        final int cardinality = index.getCardinality();
+        final int cardinality;
+        if (index != null) {
+          cardinality = index.getCardinality();
+        } else {
+          final NumericBitmapIndex numericIndex = indexSelector.getNumericBitmapIndex(column);
+          Preconditions.checkNotNull(numericIndex, "Column does not have a bitmap index");
+          cardinality = numericIndex.getCardinality();
+        }
         return cardinality >= tuning.getMinCardinalityToUseBitmapIndex()
                && cardinality <= tuning.getMaxCardinalityToUseBitmapIndex();
       });
@@ -595,6 +604,42 @@ public class Filters
     return valueMatcher.matches();
   }
 
+  /**
+   * Replaces the expression of every {@link ExpressionFilter} in a tree of {@link AndFilter}, {@link OrFilter} and
+   * {@link NotFilter} with the result of "rewriter", visiting them in order. Returns the same filter if "rewriter"
+   * returned the same expression for all of them.
+   */
+  public static Filter rewriteExpressions(final Filter filter, final Function<Expr, Expr> rewriter)
+  {
+    if (filter instanceof ExpressionFilter) {
+      final ExpressionFilter expressionFilter = (ExpressionFilter) filter;
+      final Expr expression = expressionFilter.getExpression();
+      final Expr rewritten = rewriter.apply(expression);
+      return rewritten == expression ? filter : expressionFilter.withEquivalentExpression(rewritten);
+    } else if (filter instanceof NotFilter) {
+      final Filter baseFilter = ((NotFilter) filter).getBaseFilter();
+      final Filter rewritten = rewriteExpressions(baseFilter, rewriter);
+      return rewritten == baseFilter ? filter : new NotFilter(rewritten);
+    } else if (filter instanceof AndFilter || filter instanceof OrFilter) {
+      final Collection<Filter> children = filter instanceof AndFilter
+                                          ? ((AndFilter) filter).getFilters()
+                                          : ((OrFilter) filter).getFilters();
+      final LinkedHashSet<Filter> rewritten = new LinkedHashSet<>();
+      boolean changed = false;
+      for (Filter child : children) {
+        final Filter rewrittenChild = rewriteExpressions(child, rewriter);
+        changed |= rewrittenChild != child;
+        rewritten.add(rewrittenChild);
+      }
+      if (!changed) {
+        return filter;
+      }
+      return filter instanceof AndFilter ? new AndFilter(rewritten) : new OrFilter(rewritten);
+    } else {
+      return filter;
+    }
+  }
+
   /**
    * Flattens children of an AND, removes duplicates, and removes literally-true filters.
    */
@@ -39,11 +39,14 @@ import org.apache.druid.segment.ColumnInspector;
 import org.apache.druid.segment.ColumnProcessors;
 import org.apache.druid.segment.ColumnSelector;
 import org.apache.druid.segment.ColumnSelectorFactory;
+import org.apache.druid.segment.IntIteratorUtils;
 import org.apache.druid.segment.column.BitmapIndex;
+import org.apache.druid.segment.column.NgramIndex;
 import org.apache.druid.segment.data.CloseableIndexed;
 import org.apache.druid.segment.data.Indexed;
 import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.Map;
@@ -111,6 +114,15 @@ public class LikeFilter implements Filter
     return ImmutableSet.of(dimension);
   }
 
+  /**
+   * Returns the extraction function applied to values before they are matched, if any.
+   */
+  @Nullable
+  ExtractionFn getExtractionFn()
+  {
+    return extractionFn;
+  }
+
   @Override
   public boolean supportsRequiredColumnRewrite()
   {
@@ -186,6 +198,21 @@ public class LikeFilter implements Filter
         throw new UncheckedIOException(e);
       }
     } else {
+      final NgramIndex ngramIndex = extractionFn == null ? selector.getNgramIndex(dimension) : null;
+      final ImmutableBitmap candidates = ngramIndex == null ? null : ngramIndex.getCandidates(likeMatcher.getLiterals());
+
+      if (candidates != null) {
+        // Verify that dimension contains the n-grams of the literals of the pattern, and is accepted by likeMatcher.
+        final BitmapIndex bitmapIndex = selector.getBitmapIndex(dimension);
+
+        try (final CloseableIndexed<String> dimValues = selector.getDimensionValues(dimension)) {
+          return Filters.bitmapsFromIndexes(getDimValueIndexIterableForCandidates(candidates, dimValues), bitmapIndex);
+        }
+        catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+
       // fallback
       return Filters.matchPredicateNoUnion(
           dimension,
@@ -285,6 +312,48 @@ public class LikeFilter implements Filter
     };
   }
 
+  private IntIterable getDimValueIndexIterableForCandidates(
+      final ImmutableBitmap candidates,
+      final Indexed<String> dimValues
+  )
+  {
+    return () -> new IntIterator()
+    {
+      final IntIterator candidateIterator = IntIteratorUtils.fromRoaringBitmapIntIterator(candidates.iterator());
+      int found = findNext();
+
+      private int findNext()
+      {
+        while (candidateIterator.hasNext()) {
+          final int candidate = candidateIterator.nextInt();
+          if (likeMatcher.matches(dimValues.get(candidate))) {
+            return candidate;
+          }
+        }
+        return -1;
+      }
+
+      @Override
+      public boolean hasNext()
+      {
+        return found != -1;
+      }
+
+      @Override
+      public int nextInt()
+      {
+        int cur = found;
+
+        if (cur == -1) {
+          throw new NoSuchElementException();
+        }
+
+        found = findNext();
+        return cur;
+      }
+    };
+  }
+
   @Override
   public boolean equals(Object o)
   {
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.filter;
+
+import org.apache.druid.query.filter.BooleanFilter;
+import org.apache.druid.query.filter.Filter;
+import org.apache.druid.query.filter.InDimFilter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.function.Predicate;
+
+/**
+ * Counts how many of the rows each child matcher of an {@link AndFilter} or {@link OrFilter} evaluates pass it, over
+ * the first {@link #SAMPLE_ROWS} rows the filter matches, so the matchers can then be reordered so that the ones most
+ * likely to decide the result on their own are evaluated first: the ones which fail most often for "and", and the ones
+ * which pass most often for "or".
+ *
+ * Since "and" and "or" matchers short-circuit, a matcher only evaluates the rows which the matchers before it did not
+ * decide, so pass rates are conditional on the matchers before it. Matchers that evaluated no rows keep their place
+ * after the others.
+ *
+ * Queries may rely on the order of short-circuiting to guard a matcher which can fail on some rows, like
+ * {@code x <> 0 AND y / x > 1} with an expression filter that throws on division by zero, or with a filter on a
+ * virtual column computing {@code y / x}. Matchers of filters which may fail, see {@link #isReorderable}, are therefore
+ * never moved, and no other matcher is moved across them.
+ */
+final class MatcherPassRates
+{
+  static final int SAMPLE_ROWS = 4096;
+
+  private final boolean[] reorderable;
+  private final long[] evaluated;
+  private final long[] passed;
+  private long rows = 0;
+
+  /**
+   * @param reorderable whether each matcher may be moved, see {@link #isReorderable}
+   */
+  MatcherPassRates(boolean[] reorderable)
+  {
+    this.reorderable = reorderable;
+    this.evaluated = new long[reorderable.length];
+    this.passed = new long[reorderable.length];
+  }
+
+  /**
+   * Returns whether the matcher of a filter may be evaluated before the matchers of filters that came before it, which
+   * is not the case of filters which may fail on the rows those would have filtered out: expression and JavaScript
+   * filters, filters applying an extraction function, and filters reading a virtual column, whose values are computed
+   * as the matcher reads them.
+   *
+   * @param isVirtualColumn whether a column is a virtual column of the cursor the matcher reads, see
+   *                        {@link org.apache.druid.segment.ColumnSelectorFactory#isVirtualColumn}
+   */
+  static boolean isReorderable(Filter filter, Predicate<String> isVirtualColumn)
+  {
+    if (filter instanceof ExpressionFilter || filter instanceof JavaScriptFilter) {
+      return false;
+    } else if (filter instanceof BooleanFilter) {
+      return ((BooleanFilter) filter).getFilters()
+                                     .stream()
+                                     .allMatch(child -> isReorderable(child, isVirtualColumn));
+    } else if (filter instanceof NotFilter) {
+      return isReorderable(((NotFilter) filter).getBaseFilter(), isVirtualColumn);
+    } else {
+      return !hasExtractionFn(filter) && filter.getRequiredColumns().stream().noneMatch(isVirtualColumn);
+    }
+  }
+
+  private static boolean hasExtractionFn(Filter filter)
+  {
+    if (filter instanceof DimensionPredicateFilter) {
+      return ((DimensionPredicateFilter) filter).getExtractionFn() != null;
+    } else if (filter instanceof BoundFilter) {
+      return ((BoundFilter) filter).getExtractionFn() != null;
+    } else if (filter instanceof LikeFilter) {
+      return ((LikeFilter) filter).getExtractionFn() != null;
+    } else if (filter instanceof InDimFilter) {
+      return ((InDimFilter) filter).getExtractionFn() != null;
+    } else if (filter instanceof ColumnComparisonFilter) {
+      return ((ColumnComparisonFilter) filter).getDimensions()
+                                              .stream()
+                                              .anyMatch(dimension -> dimension.getExtractionFn() != null);
+    } else {
+      return false;
+    }
+  }
+
+  static boolean[] allReorderable(int numMatchers)
+  {
+    final boolean[] reorderable = new boolean[numMatchers];
+    Arrays.fill(reorderable, true);
+    return reorderable;
+  }
+
+  static boolean[] reorderable(Collection<Filter> filters, Predicate<String> isVirtualColumn)
+  {
+    final boolean[] reorderable = new boolean[filters.size()];
+    int i = 0;
+    for (Filter filter : filters) {
+      reorderable[i++] = isReorderable(filter, isVirtualColumn);
+    }
+    return reorderable;
+  }
+
+  void record(int matcher, int evaluatedRows, int passedRows)
+  {
+    evaluated[matcher] += evaluatedRows;
+    passed[matcher] += passedRows;
+  }
+
+  /**
+   * Adds the number of rows matched by the filter, and returns true once {@link #SAMPLE_ROWS} rows have been seen.
+   */
+  boolean addRows(int numRows)
+  {
+    rows += numRows;
+    return rows >= SAMPLE_ROWS;
+  }
+
+  /**
+   * Returns a copy of "matchers", whose pass rates have been recorded under their index in the array, sorted by pass
+   * rate, highest first if "passingFirst" is set and lowest first otherwise. Ties keep their order, and so do the
+   * matchers which are not reorderable, between which the others are sorted.
+   */
+  <T> T[] sort(final T[] matchers, final boolean passingFirst)
+  {
+    final double unknownPassRate = passingFirst ? 0.0 : 1.0;
+    final Integer[] order = new Integer[matchers.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+
+    final Comparator<Integer> byPassRate = Comparator.comparingDouble(
+        i -> evaluated[i] == 0 ? unknownPassRate : (double) passed[i] / evaluated[i]
+    );
+    // Arrays.sort of objects is stable
+    int start = 0;
+    for (int end = 0; end <= order.length; end++) {
+      if (end == order.length || !reorderable[end]) {
+        Arrays.sort(order, start, end, passingFirst ? byPassRate.reversed() : byPassRate);
+        start = end + 1;
+      }
+    }
+
+    final T[] sorted = Arrays.copyOf(matchers, matchers.length);
+    for (int i = 0; i < order.length; i++) {
+      sorted[i] = matchers[order[i]];
+    }
+    return sorted;
+  }
+}
@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.filter;
+
+import com.google.common.collect.Iterables;
+import it.unimi.dsi.fastutil.ints.IntAVLTreeSet;
+import it.unimi.dsi.fastutil.ints.IntIterable;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntSortedSet;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.query.filter.BoundDimFilter;
+import org.apache.druid.query.filter.DruidDoublePredicate;
+import org.apache.druid.query.filter.DruidFloatPredicate;
+import org.apache.druid.query.filter.DruidLongPredicate;
+import org.apache.druid.query.filter.DruidPredicateFactory;
+import org.apache.druid.query.ordering.StringComparators;
+import org.apache.druid.segment.DimensionHandlerUtils;
+import org.apache.druid.segment.IntListUtils;
+import org.apache.druid.segment.column.NumericBitmapIndex;
+import org.apache.druid.segment.column.ValueType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * Utility methods for finding the bitmaps of a {@link NumericBitmapIndex} matched by filters. They follow the
+ * semantics of the value matchers made by {@link ValueMatchers} for numeric selectors, so that filters return the same
+ * rows whether they use the index or not.
+ */
+public class NumericBitmapIndexes
+{
+  private NumericBitmapIndexes()
+  {
+    // No instantiation.
+  }
+
+  /**
+   * Returns whether a {@link BoundDimFilter} can use a {@link NumericBitmapIndex}: it must have
+   * {@link StringComparators#NUMERIC} ordering and no extraction function.
+   */
+  public static boolean canUseIndex(final BoundDimFilter boundDimFilter)
+  {
+    return StringComparators.NUMERIC.equals(boundDimFilter.getOrdering()) && boundDimFilter.getExtractionFn() == null;
+  }
+
+  /**
+   * Returns the bitmaps of the rows matched by a {@link BoundDimFilter} for which {@link #canUseIndex} is true. The
+   * range of values satisfying each bound is found with a binary search.
+   */
+  public static Iterable<ImmutableBitmap> forBound(
+      final NumericBitmapIndex index,
+      final BoundDimFilter boundDimFilter,
+      final DruidPredicateFactory predicateFactory
+  )
+  {
+    final int numNonNaN = getNumNonNaN(index);
+
+    // The predicate of a bound filter is the conjunction of the predicates of its lower and upper bounds. Each of them
+    // is monotonic over the sorted values, except for NaN, which is compared separately below.
+    int start = 0;
+    if (boundDimFilter.hasLowerBound()) {
+      final IntPredicate lowerPredicate = makeIndexPredicate(
+          index,
+          new BoundDimFilter(
+              boundDimFilter.getDimension(),
+              boundDimFilter.getLower(),
+              null,
+              boundDimFilter.isLowerStrict(),
+              null,
+              null,
+              null,
+              StringComparators.NUMERIC
+          )
+      );
+      start = findFirst(0, numNonNaN, lowerPredicate);
+    }
+    int end = numNonNaN;
+    if (boundDimFilter.hasUpperBound()) {
+      final IntPredicate upperPredicate = makeIndexPredicate(
+          index,
+          new BoundDimFilter(
+              boundDimFilter.getDimension(),
+              null,
+              boundDimFilter.getUpper(),
+              null,
+              boundDimFilter.isUpperStrict(),
+              null,
+              null,
+              StringComparators.NUMERIC
+          )
+      );
+      end = findFirst(start, numNonNaN, i -> !upperPredicate.test(i));
+    }
+
+    final List<Iterable<ImmutableBitmap>> bitmaps = new ArrayList<>(3);
+    bitmaps.add(bitmapsFromIndexes(IntListUtils.fromTo(start, Math.max(start, end)), index));
+    if (numNonNaN < index.getCardinality() && makeIndexPredicate(index, predicateFactory).test(numNonNaN)) {
+      bitmaps.add(bitmapsFromIndexes(IntListUtils.fromTo(numNonNaN, index.getCardinality()), index));
+    }
+    if (matchesNull(index, predicateFactory)) {
+      bitmaps.add(Collections.singletonList(index.getNullBitmap()));
+    }
+    return Iterables.concat(bitmaps);
+  }
+
+  /**
+   * Returns the bitmaps of the rows matched by an {@link org.apache.druid.query.filter.InDimFilter} with no extraction
+   * function, looking up each of its values with a binary search.
+   */
+  public static Iterable<ImmutableBitmap> forValues(
+      final NumericBitmapIndex index,
+      final Set<String> values,
+      final DruidPredicateFactory predicateFactory
+  )
+  {
+    // several values, like "1" and "1.0", may be converted to the same number
+    final IntSortedSet indexes = new IntAVLTreeSet();
+    for (String value : values) {
+      final int valueIndex;
+      switch (index.getType()) {
+        case LONG:
+          final Long longValue = DimensionHandlerUtils.convertObjectToLong(value);
+          valueIndex = longValue == null ? -1 : indexOf(index, (long) longValue);
+          break;
+        case FLOAT:
+          final Float floatValue = DimensionHandlerUtils.convertObjectToFloat(value);
+          valueIndex = floatValue == null ? -1 : indexOf(index, (double) floatValue);
+          break;
+        default:
+          final Double doubleValue = DimensionHandlerUtils.convertObjectToDouble(value);
+          valueIndex = doubleValue == null ? -1 : indexOf(index, (double) doubleValue);
+      }
+      if (valueIndex >= 0) {
+        indexes.add(valueIndex);
+      }
+    }
+
+    final Iterable<ImmutableBitmap> bitmaps = bitmapsFromIndexes(indexes, index);
+    if (matchesNull(index, predicateFactory)) {
+      return Iterables.concat(bitmaps, Collections.singletonList(index.getNullBitmap()));
+    }
+    return bitmaps;
+  }
+
+  /**
+   * Null rows are matched like {@link ValueMatchers#makeLongValueMatcher} and the matchers for other numeric selectors
+   * do it, with {@link DruidLongPredicate#applyNull()} and its float and double equivalents.
+   */
+  private static boolean matchesNull(final NumericBitmapIndex index, final DruidPredicateFactory predicateFactory)
+  {
+    switch (index.getType()) {
+      case LONG:
+        return predicateFactory.makeLongPredicate().applyNull();
+      case FLOAT:
+        return predicateFactory.makeFloatPredicate().applyNull();
+      default:
+        return predicateFactory.makeDoublePredicate().applyNull();
+    }
+  }
+
+  private static IntPredicate makeIndexPredicate(final NumericBitmapIndex index, final BoundDimFilter boundDimFilter)
+  {
+    switch (index.getType()) {
+      case LONG:
+        final DruidLongPredicate longPredicate = boundDimFilter.getLongPredicateSupplier().get();
+        return i -> longPredicate.applyLong(index.getLong(i));
+      case FLOAT:
+        final DruidFloatPredicate floatPredicate = boundDimFilter.getFloatPredicateSupplier().get();
+        return i -> floatPredicate.applyFloat((float) index.getDouble(i));
+      default:
+        final DruidDoublePredicate doublePredicate = boundDimFilter.getDoublePredicateSupplier().get();
+        return i -> doublePredicate.applyDouble(index.getDouble(i));
+    }
+  }
+
+  private static IntPredicate makeIndexPredicate(
+      final NumericBitmapIndex index,
+      final DruidPredicateFactory predicateFactory
+  )
+  {
+    switch (index.getType()) {
+      case LONG:
+        final DruidLongPredicate longPredicate = predicateFactory.makeLongPredicate();
+        return i -> longPredicate.applyLong(index.getLong(i));
+      case FLOAT:
+        final DruidFloatPredicate floatPredicate = predicateFactory.makeFloatPredicate();
+        return i -> floatPredicate.applyFloat((float) index.getDouble(i));
+      default:
+        final DruidDoublePredicate doublePredicate = predicateFactory.makeDoublePredicate();
+        return i -> doublePredicate.applyDouble(index.getDouble(i));
+    }
+  }
+
+  /**
+   * Number of values before NaN, which is sorted last, see {@link NumericBitmapIndex}.
+   */
+  private static int getNumNonNaN(final NumericBitmapIndex index)
+  {
+    if (index.getType() == ValueType.LONG) {
+      return index.getCardinality();
+    }
+    return findFirst(0, index.getCardinality(), i -> Double.isNaN(index.getDouble(i)));
+  }
+
+  /**
+   * Returns the first index in [from, to) for which a predicate, false then true over that range, is true, or "to" if
+   * there is none.
+   */
+  private static int findFirst(final int from, final int to, final IntPredicate predicate)
+  {
+    int low = from;
+    int high = to;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (predicate.test(mid)) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low;
+  }
+
+  private static int indexOf(final NumericBitmapIndex index, final long value)
+  {
+    final int i = findFirst(0, index.getCardinality(), j -> index.getLong(j) >= value);
+    return i < index.getCardinality() && index.getLong(i) == value ? i : -1;
+  }
+
+  private static int indexOf(final NumericBitmapIndex index, final double value)
+  {
+    final int i = findFirst(0, index.getCardinality(), j -> Double.compare(index.getDouble(j), value) >= 0);
+    return i < index.getCardinality() && Double.compare(index.getDouble(i), value) == 0 ? i : -1;
+  }
+
+  private static Iterable<ImmutableBitmap> bitmapsFromIndexes(final IntIterable indexes, final NumericBitmapIndex index)
+  {
+    // Do not use Iterables.transform() to avoid boxing/unboxing integers, like Filters.bitmapsFromIndexes().
+    return () -> {
+      final IntIterator iterator = indexes.iterator();
+      return new Iterator<ImmutableBitmap>()
+      {
+        @Override
+        public boolean hasNext()
+        {
+          return iterator.hasNext();
+        }
+
+        @Override
+        public ImmutableBitmap next()
+        {
+          return index.getBitmap(iterator.nextInt());
+        }
+      };
+    };
+  }
+}
@@ -19,9 +19,11 @@
 
 package org.apache.druid.segment.filter;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterables;
+import com.google.common.primitives.Booleans;
 import org.apache.druid.collections.bitmap.ImmutableBitmap;
 import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.query.BitmapResultFactory;
@@ -30,6 +32,7 @@ import org.apache.druid.query.filter.BooleanFilter;
 import org.apache.druid.query.filter.Filter;
 import org.apache.druid.query.filter.RowOffsetMatcherFactory;
 import org.apache.druid.query.filter.ValueMatcher;
+import org.apache.druid.query.filter.ZoneMatcher;
 import org.apache.druid.query.filter.vector.BaseVectorValueMatcher;
 import org.apache.druid.query.filter.vector.ReadableVectorMatch;
 import org.apache.druid.query.filter.vector.VectorMatch;
@@ -39,6 +42,7 @@ import org.apache.druid.segment.ColumnInspector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -88,7 +92,7 @@ public class OrFilter implements BooleanFilter
     for (Filter filter : filters) {
       matchers[i++] = filter.makeMatcher(factory);
     }
-    return makeMatcher(matchers);
+    return makeMatcher(matchers, MatcherPassRates.reorderable(filters, factory::isVirtualColumn));
   }
 
   @Override
@@ -100,7 +104,7 @@ public class OrFilter implements BooleanFilter
     for (Filter filter : filters) {
       matchers[i++] = filter.makeVectorMatcher(factory);
     }
-    return makeVectorMatcher(matchers);
+    return makeVectorMatcher(matchers, MatcherPassRates.reorderable(filters, factory::isVirtualColumn));
   }
 
   @Override
@@ -109,6 +113,22 @@ public class OrFilter implements BooleanFilter
     return filters.stream().allMatch(filter -> filter.canVectorizeMatcher(inspector));
   }
 
+  @Nullable
+  @Override
+  public ZoneMatcher makeZoneMatcher(BitmapIndexSelector selector)
+  {
+    final List<ZoneMatcher> matchers = new ArrayList<>();
+    for (Filter filter : filters) {
+      final ZoneMatcher matcher = filter.makeZoneMatcher(selector);
+      if (matcher == null) {
+        // Some rows of every zone may match this filter.
+        return null;
+      }
+      matchers.add(matcher);
+    }
+    return ZoneMatchers.or(matchers);
+  }
+
   @Override
   public ValueMatcher makeMatcher(
       BitmapIndexSelector selector,
@@ -117,6 +137,7 @@ public class OrFilter implements BooleanFilter
   )
   {
     final List<ValueMatcher> matchers = new ArrayList<>();
+    final List<Filter> matcherFilters = new ArrayList<>();
     final List<ImmutableBitmap> bitmaps = new ArrayList<>();
 
     for (Filter filter : filters) {
@@ -125,16 +146,23 @@ public class OrFilter implements BooleanFilter
       } else {
         ValueMatcher matcher = filter.makeMatcher(columnSelectorFactory);
         matchers.add(matcher);
+        matcherFilters.add(filter);
       }
     }
+    final boolean[] reorderable = MatcherPassRates.reorderable(matcherFilters, columnSelectorFactory::isVirtualColumn);
 
     if (bitmaps.size() > 0) {
       ImmutableBitmap combinedBitmap = selector.getBitmapFactory().union(bitmaps);
       ValueMatcher offsetMatcher = rowOffsetMatcherFactory.makeRowOffsetMatcher(combinedBitmap);
       matchers.add(0, offsetMatcher);
+      // the offset matcher never fails
+      return makeMatcher(
+          matchers.toArray(BooleanFilter.EMPTY_VALUE_MATCHER_ARRAY),
+          Booleans.concat(new boolean[]{true}, reorderable)
+      );
     }
 
-    return makeMatcher(matchers.toArray(BooleanFilter.EMPTY_VALUE_MATCHER_ARRAY));
+    return makeMatcher(matchers.toArray(BooleanFilter.EMPTY_VALUE_MATCHER_ARRAY), reorderable);
   }
 
   @Override
@@ -160,7 +188,13 @@ public class OrFilter implements BooleanFilter
     return StringUtils.format("(%s)", OR_JOINER.join(filters));
   }
 
-  private static ValueMatcher makeMatcher(final ValueMatcher[] baseMatchers)
+  /**
+   * Makes a matcher which evaluates "baseMatchers" in order until one of them passes. After the first
+   * {@link MatcherPassRates#SAMPLE_ROWS} rows, the matchers are reordered so that the ones which passed most often
+   * are evaluated first, as far as "reorderable" allows, see {@link MatcherPassRates}.
+   */
+  @VisibleForTesting
+  static ValueMatcher makeMatcher(final ValueMatcher[] baseMatchers, final boolean[] reorderable)
   {
     Preconditions.checkState(baseMatchers.length > 0);
 
@@ -170,10 +204,18 @@ public class OrFilter implements BooleanFilter
 
     return new ValueMatcher()
     {
+      @Nullable
+      private MatcherPassRates passRates = new MatcherPassRates(reorderable);
+      private ValueMatcher[] matchers = baseMatchers;
+
       @Override
       public boolean matches()
       {
-        for (ValueMatcher matcher : baseMatchers) {
+        if (passRates != null) {
+          return matchesAndRecordPassRates();
+        }
+
+        for (ValueMatcher matcher : matchers) {
           if (matcher.matches()) {
             return true;
           }
@@ -181,6 +223,25 @@ public class OrFilter implements BooleanFilter
         return false;
       }
 
+      private boolean matchesAndRecordPassRates()
+      {
+        assert passRates != null;
+        boolean matches = false;
+        for (int i = 0; i < matchers.length; i++) {
+          matches = matchers[i].matches();
+          passRates.record(i, 1, matches ? 1 : 0);
+          if (matches) {
+            break;
+          }
+        }
+
+        if (passRates.addRows(1)) {
+          matchers = passRates.sort(matchers, true);
+          passRates = null;
+        }
+        return matches;
+      }
+
       @Override
       public void inspectRuntimeShape(RuntimeShapeInspector inspector)
       {
@@ -192,7 +253,16 @@ public class OrFilter implements BooleanFilter
     };
   }
 
-  private static VectorValueMatcher makeVectorMatcher(final VectorValueMatcher[] baseMatchers)
+  /**
+   * Makes a vector matcher which adds the rows matched by each of "baseMatchers" in order, evaluating each matcher
+   * only on the rows not matched yet. After the first {@link MatcherPassRates#SAMPLE_ROWS} rows, the matchers are
+   * reordered so that the ones which matched the most rows are evaluated first, as far as "reorderable" allows, see
+   * {@link MatcherPassRates}.
+   */
+  private static VectorValueMatcher makeVectorMatcher(
+      final VectorValueMatcher[] baseMatchers,
+      final boolean[] reorderable
+  )
   {
     Preconditions.checkState(baseMatchers.length > 0);
     if (baseMatchers.length == 1) {
@@ -205,10 +275,17 @@ public class OrFilter implements BooleanFilter
       final VectorMatch scratch = VectorMatch.wrap(new int[getMaxVectorSize()]);
       final VectorMatch retVal = VectorMatch.wrap(new int[getMaxVectorSize()]);
 
+      @Nullable
+      private MatcherPassRates passRates = new MatcherPassRates(reorderable);
+      private VectorValueMatcher[] matchers = baseMatchers;
+
       @Override
       public ReadableVectorMatch match(final ReadableVectorMatch mask)
       {
-        ReadableVectorMatch currentMatch = baseMatchers[0].match(mask);
+        ReadableVectorMatch currentMatch = matchers[0].match(mask);
+        if (passRates != null) {
+          passRates.record(0, mask.getSelectionSize(), currentMatch.getSelectionSize());
+        }
 
         // Initialize currentMask = mask, then progressively remove rows from the mask as we find matches for them.
         // This isn't necessary for correctness (we could use the original "mask" on every call to "match") but it
@@ -219,22 +296,30 @@ public class OrFilter implements BooleanFilter
         // the rest of the matchers.
         retVal.copyFrom(currentMatch);
 
-        for (int i = 1; i < baseMatchers.length; i++) {
+        for (int i = 1; i < matchers.length; i++) {
           if (retVal.isAllTrue(getCurrentVectorSize())) {
             // Short-circuit if the entire vector is true.
             break;
           }
 
           currentMask.removeAll(currentMatch);
-          currentMatch = baseMatchers[i].match(currentMask);
+          currentMatch = matchers[i].match(currentMask);
           retVal.addAll(currentMatch, scratch);
+          if (passRates != null) {
+            passRates.record(i, currentMask.getSelectionSize(), currentMatch.getSelectionSize());
+          }
 
           if (currentMatch == currentMask) {
-            // baseMatchers[i] matched every remaining row. Short-circuit out.
+            // matchers[i] matched every remaining row. Short-circuit out.
             break;
           }
         }
 
+        if (passRates != null && passRates.addRows(mask.getSelectionSize())) {
+          matchers = passRates.sort(matchers, true);
+          passRates = null;
+        }
+
         assert retVal.isValid(mask);
         return retVal;
       }
@@ -27,6 +27,7 @@ import org.apache.druid.query.filter.BitmapIndexSelector;
 import org.apache.druid.query.filter.Filter;
 import org.apache.druid.query.filter.FilterTuning;
 import org.apache.druid.query.filter.ValueMatcher;
+import org.apache.druid.query.filter.ZoneMatcher;
 import org.apache.druid.query.filter.vector.VectorValueMatcher;
 import org.apache.druid.query.filter.vector.VectorValueMatcherColumnProcessorFactory;
 import org.apache.druid.segment.ColumnInspector;
@@ -95,6 +96,13 @@ public class SelectorFilter implements Filter
     ).makeMatcher(value);
   }
 
+  @Nullable
+  @Override
+  public ZoneMatcher makeZoneMatcher(BitmapIndexSelector selector)
+  {
+    return ZoneMatchers.forValue(selector, dimension, value);
+  }
+
   @Override
   public boolean supportsBitmapIndex(BitmapIndexSelector selector)
   {
@@ -0,0 +1,353 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.filter;
+
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Floats;
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.query.filter.BitmapIndexSelector;
+import org.apache.druid.query.filter.BoundDimFilter;
+import org.apache.druid.query.filter.DruidPredicateFactory;
+import org.apache.druid.query.filter.ZoneMatcher;
+import org.apache.druid.query.ordering.StringComparators;
+import org.apache.druid.segment.DimensionHandlerUtils;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.column.ZoneMap;
+
+import javax.annotation.Nullable;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Utility methods for creating {@link ZoneMatcher} instances from the {@link ZoneMap} of a column.
+ *
+ * The matchers follow the semantics of the value matchers made by {@link ValueMatchers} for numeric selectors: null
+ * rows read as zeros when {@link NullHandling#replaceWithDefault()} is true, and float and double values are compared
+ * with the {@code <} and {@code <=} operators by bound filters.
+ */
+public class ZoneMatchers
+{
+  private ZoneMatchers()
+  {
+    // No instantiation.
+  }
+
+  /**
+   * Creates a {@link ZoneMatcher} for rows equal to a constant, like {@link ValueMatchers#makeLongValueMatcher}.
+   *
+   * @return matcher, or null if the column has no zone map or if no zone can be skipped
+   */
+  @Nullable
+  public static ZoneMatcher forValue(
+      final BitmapIndexSelector selector,
+      final String dimension,
+      @Nullable final String value
+  )
+  {
+    final ZoneMap zoneMap = selector.getZoneMap(dimension);
+    if (zoneMap == null) {
+      return null;
+    }
+
+    final boolean[] mayMatch = new boolean[zoneMap.getNumZones()];
+    switch (zoneMap.getType()) {
+      case LONG:
+        final Long longValue = DimensionHandlerUtils.convertObjectToLong(value);
+        if (longValue == null) {
+          return forNullValue(zoneMap);
+        }
+        for (int zone = 0; zone < mayMatch.length; zone++) {
+          mayMatch[zone] = (hasNonNulls(zoneMap, zone)
+                            && zoneMap.getLongMin(zone) <= longValue
+                            && longValue <= zoneMap.getLongMax(zone))
+                           || (hasDefaultValueNulls(zoneMap, zone) && longValue == 0L);
+        }
+        break;
+      case FLOAT:
+      case DOUBLE:
+        final Double doubleValue = zoneMap.getType() == ValueType.FLOAT
+                                   ? toDouble(DimensionHandlerUtils.convertObjectToFloat(value))
+                                   : DimensionHandlerUtils.convertObjectToDouble(value);
+        if (doubleValue == null) {
+          return forNullValue(zoneMap);
+        }
+        for (int zone = 0; zone < mayMatch.length; zone++) {
+          mayMatch[zone] = (hasNonNulls(zoneMap, zone)
+                            && Double.compare(zoneMap.getDoubleMin(zone), doubleValue) <= 0
+                            && Double.compare(doubleValue, zoneMap.getDoubleMax(zone)) <= 0)
+                           || (hasDefaultValueNulls(zoneMap, zone) && doubleValue == 0.0);
+        }
+        break;
+      default:
+        return null;
+    }
+    return makeMatcher(zoneMap, mayMatch);
+  }
+
+  /**
+   * Creates a {@link ZoneMatcher} for a {@link BoundDimFilter} with {@link StringComparators#NUMERIC} ordering and no
+   * extraction function, following the bounds of its numeric predicates.
+   *
+   * @return matcher, or null if the filter cannot use zone maps, if the column has no zone map or if no zone can be
+   * skipped
+   */
+  @Nullable
+  public static ZoneMatcher forBound(
+      final BitmapIndexSelector selector,
+      final BoundDimFilter boundDimFilter,
+      final DruidPredicateFactory predicateFactory
+  )
+  {
+    if (!StringComparators.NUMERIC.equals(boundDimFilter.getOrdering()) || boundDimFilter.getExtractionFn() != null) {
+      return null;
+    }
+    final ZoneMap zoneMap = selector.getZoneMap(boundDimFilter.getDimension());
+    if (zoneMap == null) {
+      return null;
+    }
+
+    final boolean[] mayMatch = new boolean[zoneMap.getNumZones()];
+    switch (zoneMap.getType()) {
+      case LONG:
+        final boolean longMatchesNull = predicateFactory.makeLongPredicate().applyNull();
+        final BigDecimal lowerDecimal = boundDimFilter.hasLowerBound() ? parseDecimal(boundDimFilter.getLower()) : null;
+        final BigDecimal upperDecimal = boundDimFilter.hasUpperBound() ? parseDecimal(boundDimFilter.getUpper()) : null;
+        // Unparseable upper bounds fall before all actual numbers, so no numbers can match.
+        final boolean longsMayMatch = !boundDimFilter.hasUpperBound() || upperDecimal != null;
+        for (int zone = 0; zone < mayMatch.length; zone++) {
+          mayMatch[zone] = (longMatchesNull && zoneMap.getNullCount(zone) > 0)
+                           || (longsMayMatch && hasNonNulls(zoneMap, zone) && intersects(
+                               boundDimFilter,
+                               lowerDecimal,
+                               upperDecimal,
+                               zoneMap.getLongMin(zone),
+                               zoneMap.getLongMax(zone)
+                           ))
+                           || (longsMayMatch && hasDefaultValueNulls(zoneMap, zone) && intersects(
+                               boundDimFilter,
+                               lowerDecimal,
+                               upperDecimal,
+                               0L,
+                               0L
+                           ));
+        }
+        break;
+      case FLOAT:
+      case DOUBLE:
+        final boolean isFloat = zoneMap.getType() == ValueType.FLOAT;
+        final boolean doubleMatchesNull = isFloat
+                                          ? predicateFactory.makeFloatPredicate().applyNull()
+                                          : predicateFactory.makeDoublePredicate().applyNull();
+        final Double lower = boundDimFilter.hasLowerBound() ? parseDouble(boundDimFilter.getLower(), isFloat) : null;
+        final Double upper = boundDimFilter.hasUpperBound() ? parseDouble(boundDimFilter.getUpper(), isFloat) : null;
+        final boolean doublesMayMatch = !boundDimFilter.hasUpperBound() || upper != null;
+        for (int zone = 0; zone < mayMatch.length; zone++) {
+          mayMatch[zone] = (doubleMatchesNull && zoneMap.getNullCount(zone) > 0)
+                           || (doublesMayMatch && hasNonNulls(zoneMap, zone) && intersects(
+                               boundDimFilter,
+                               lower,
+                               upper,
+                               zoneMap.getDoubleMin(zone),
+                               zoneMap.getDoubleMax(zone)
+                           ))
+                           || (doublesMayMatch && hasDefaultValueNulls(zoneMap, zone) && intersects(
+                               boundDimFilter,
+                               lower,
+                               upper,
+                               0.0,
+                               0.0
+                           ));
+        }
+        break;
+      default:
+        return null;
+    }
+    return makeMatcher(zoneMap, mayMatch);
+  }
+
+  /**
+   * Creates a {@link ZoneMatcher} which may match a range of rows only if all the given matchers may match it.
+   *
+   * @return matcher, or null if the list is empty
+   */
+  @Nullable
+  public static ZoneMatcher and(final List<ZoneMatcher> matchers)
+  {
+    if (matchers.isEmpty()) {
+      return null;
+    } else if (matchers.size() == 1) {
+      return matchers.get(0);
+    }
+    final ZoneMatcher[] matchersArray = matchers.toArray(new ZoneMatcher[0]);
+    return (startRow, endRow) -> {
+      for (ZoneMatcher matcher : matchersArray) {
+        if (!matcher.mayMatch(startRow, endRow)) {
+          return false;
+        }
+      }
+      return true;
+    };
+  }
+
+  /**
+   * Creates a {@link ZoneMatcher} which may match a range of rows if any of the given matchers may match it.
+   *
+   * @return matcher, or null if the list is empty
+   */
+  @Nullable
+  public static ZoneMatcher or(final List<ZoneMatcher> matchers)
+  {
+    if (matchers.isEmpty()) {
+      return null;
+    } else if (matchers.size() == 1) {
+      return matchers.get(0);
+    }
+    final ZoneMatcher[] matchersArray = matchers.toArray(new ZoneMatcher[0]);
+    return (startRow, endRow) -> {
+      for (ZoneMatcher matcher : matchersArray) {
+        if (matcher.mayMatch(startRow, endRow)) {
+          return true;
+        }
+      }
+      return false;
+    };
+  }
+
+  @Nullable
+  private static ZoneMatcher forNullValue(final ZoneMap zoneMap)
+  {
+    if (NullHandling.replaceWithDefault()) {
+      // Leave it to the value matcher, null rows read as zeros.
+      return null;
+    }
+    final boolean[] mayMatch = new boolean[zoneMap.getNumZones()];
+    for (int zone = 0; zone < mayMatch.length; zone++) {
+      mayMatch[zone] = zoneMap.getNullCount(zone) > 0;
+    }
+    return makeMatcher(zoneMap, mayMatch);
+  }
+
+  @Nullable
+  private static ZoneMatcher makeMatcher(final ZoneMap zoneMap, final boolean[] mayMatch)
+  {
+    boolean canSkip = false;
+    for (boolean zoneMayMatch : mayMatch) {
+      canSkip |= !zoneMayMatch;
+    }
+    if (!canSkip) {
+      return null;
+    }
+
+    final int shift = Integer.numberOfTrailingZeros(zoneMap.getRowsPerZone());
+    return (startRow, endRow) -> {
+      final int lastZone = (endRow - 1) >> shift;
+      if (lastZone >= mayMatch.length) {
+        return true;
+      }
+      for (int zone = startRow >> shift; zone <= lastZone; zone++) {
+        if (mayMatch[zone]) {
+          return true;
+        }
+      }
+      return false;
+    };
+  }
+
+  private static boolean hasNonNulls(final ZoneMap zoneMap, final int zone)
+  {
+    return zoneMap.getNullCount(zone) < zoneMap.getNumRows(zone);
+  }
+
+  /**
+   * Null rows of a segment written with SQL compatible null handling read as zeros if
+   * {@link NullHandling#replaceWithDefault()} is true.
+   */
+  private static boolean hasDefaultValueNulls(final ZoneMap zoneMap, final int zone)
+  {
+    return NullHandling.replaceWithDefault() && zoneMap.getNullCount(zone) > 0;
+  }
+
+  private static boolean intersects(
+      final BoundDimFilter boundDimFilter,
+      @Nullable final BigDecimal lower,
+      @Nullable final BigDecimal upper,
+      final long min,
+      final long max
+  )
+  {
+    if (lower != null) {
+      final int cmp = BigDecimal.valueOf(max).compareTo(lower);
+      if (cmp < 0 || (cmp == 0 && boundDimFilter.isLowerStrict())) {
+        return false;
+      }
+    }
+    if (upper != null) {
+      final int cmp = BigDecimal.valueOf(min).compareTo(upper);
+      if (cmp > 0 || (cmp == 0 && boundDimFilter.isUpperStrict())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Compares with operators like the predicates of {@link BoundDimFilter}, so NaN values in the zone never rule it
+   * out.
+   */
+  private static boolean intersects(
+      final BoundDimFilter boundDimFilter,
+      @Nullable final Double lower,
+      @Nullable final Double upper,
+      final double min,
+      final double max
+  )
+  {
+    if (lower != null && (boundDimFilter.isLowerStrict() ? max <= lower : max < lower)) {
+      return false;
+    }
+    if (upper != null && (boundDimFilter.isUpperStrict() ? min >= upper : min > upper)) {
+      return false;
+    }
+    return true;
+  }
+
+  @Nullable
+  private static BigDecimal parseDecimal(final String value)
+  {
+    try {
+      return new BigDecimal(value);
+    }
+    catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  @Nullable
+  private static Double parseDouble(final String value, final boolean isFloat)
+  {
+    return isFloat ? toDouble(Floats.tryParse(value)) : Doubles.tryParse(value);
+  }
+
+  @Nullable
+  private static Double toDouble(@Nullable final Float value)
+  {
+    return value == null ? null : value.doubleValue();
+  }
+}
@@ -462,5 +462,43 @@ public class GeneratorBasicSchemas
     SCHEMA_INFO_BUILDER.put("wide", nullsSchema);
   }
 
+  static {
+    // multi-value string dimensions, like tags, next to single-value ones
+    List<GeneratorColumnSchema> multiValueSchemaColumns = ImmutableList.of(
+        // dims
+        GeneratorColumnSchema.makeZipf("dimZipf", ValueType.STRING, false, 1, null, 1, 101, 1.0),
+        GeneratorColumnSchema.makeLazyZipf("dimMultiValueZipf", ValueType.STRING, false, 3, null, 1, 1001, 1.2),
+        GeneratorColumnSchema.makeSequential(
+            "dimMultiValueSequentialWithNulls",
+            ValueType.STRING,
+            false,
+            4,
+            0.2,
+            1,
+            51
+        ),
+
+        // metrics
+        GeneratorColumnSchema.makeSequential("metLongSequential", ValueType.LONG, true, 1, null, 0, 10000),
+        GeneratorColumnSchema.makeZipf("metFloatZipf", ValueType.FLOAT, true, 1, null, 0, 1000, 1.0)
+    );
+
+    List<AggregatorFactory> multiValueSchemaIngestAggs = new ArrayList<>();
+    multiValueSchemaIngestAggs.add(new CountAggregatorFactory("rows"));
+    multiValueSchemaIngestAggs.add(new LongSumAggregatorFactory("sumLongSequential", "metLongSequential"));
+    multiValueSchemaIngestAggs.add(new DoubleMinAggregatorFactory("minFloatZipf", "metFloatZipf"));
+
+    Interval multiValueSchemaDataInterval = Intervals.of("2000-01-01/P1D");
+
+    GeneratorSchemaInfo multiValueSchema = new GeneratorSchemaInfo(
+        multiValueSchemaColumns,
+        multiValueSchemaIngestAggs,
+        multiValueSchemaDataInterval,
+        true
+    );
+
+    SCHEMA_INFO_BUILDER.put("multiValue", multiValueSchema);
+  }
+
   public static final Map<String, GeneratorSchemaInfo> SCHEMA_MAP = SCHEMA_INFO_BUILDER.build();
 }
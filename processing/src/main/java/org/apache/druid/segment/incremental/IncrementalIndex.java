@@ -1136,6 +1136,24 @@ public abstract class IncrementalIndex<AggregatorType> extends AbstractIndex imp
      */
     Iterable<IncrementalIndexRow> persistIterable();
 
+    /**
+     * Whether {@link #persistIterable()} returns rows sorted by time and dimensions.
+     */
+    default boolean isPersistSorted()
+    {
+      return false;
+    }
+
+    /**
+     * Whether the iterators of {@link #timeRangeIterable} may return the same {@link IncrementalIndexRow} instance,
+     * updated in place, for different rows. If so, a row is only valid until the iterator moves on, and rows cannot be
+     * gathered into vectors by {@link IncrementalIndexVectorCursor}.
+     */
+    default boolean iteratorReusesRows()
+    {
+      return false;
+    }
+
     /**
      * @return the previous rowIndex associated with the specified key, or
      * {@link IncrementalIndexRow#EMPTY_ROW_INDEX} if there was no mapping for the key.
@@ -1232,6 +1250,12 @@ public abstract class IncrementalIndex<AggregatorType> extends AbstractIndex imp
       return keySet();
     }
 
+    @Override
+    public boolean isPersistSorted()
+    {
+      return sortFacts;
+    }
+
     @Override
     public int putIfAbsent(IncrementalIndexRow key, int rowIndex)
     {
@@ -1346,6 +1370,12 @@ public abstract class IncrementalIndex<AggregatorType> extends AbstractIndex imp
       return () -> timeAndDimsOrderedConcat(facts.values()).iterator();
     }
 
+    @Override
+    public boolean isPersistSorted()
+    {
+      return true;
+    }
+
     @Override
     public int putIfAbsent(IncrementalIndexRow key, int rowIndex)
     {
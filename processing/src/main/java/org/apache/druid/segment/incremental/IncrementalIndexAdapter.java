@@ -237,6 +237,9 @@ public class IncrementalIndexAdapter implements IndexableAdapter
   @Override
   public Metadata getMetadata()
   {
+    if (index.getFacts().isPersistSorted()) {
+      return index.getMetadata().withSortOrder(Metadata.makeSortOrder(getDimensionNames()));
+    }
     return index.getMetadata();
   }
 }
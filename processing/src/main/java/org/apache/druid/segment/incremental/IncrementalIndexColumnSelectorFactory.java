@@ -133,4 +133,10 @@ class IncrementalIndexColumnSelectorFactory implements ColumnSelectorFactory
     // Use adapter.getColumnCapabilities instead of index.getCapabilities (see note in IncrementalIndexStorageAdapater)
     return adapter.getColumnCapabilities(columnName);
   }
+
+  @Override
+  public boolean isVirtualColumn(String columnName)
+  {
+    return virtualColumns.exists(columnName);
+  }
 }
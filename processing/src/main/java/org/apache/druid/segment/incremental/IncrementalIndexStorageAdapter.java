@@ -22,6 +22,8 @@ package org.apache.druid.segment.incremental;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.granularity.Granularities;
 import org.apache.druid.java.util.common.granularity.Granularity;
 import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.java.util.common.guava.Sequences;
@@ -34,6 +36,7 @@ import org.apache.druid.segment.Cursor;
 import org.apache.druid.segment.DimensionDictionarySelector;
 import org.apache.druid.segment.DimensionIndexer;
 import org.apache.druid.segment.Metadata;
+import org.apache.druid.segment.QueryableIndexStorageAdapter;
 import org.apache.druid.segment.StorageAdapter;
 import org.apache.druid.segment.VirtualColumns;
 import org.apache.druid.segment.column.ColumnCapabilities;
@@ -42,6 +45,7 @@ import org.apache.druid.segment.column.ColumnHolder;
 import org.apache.druid.segment.data.Indexed;
 import org.apache.druid.segment.data.ListIndexed;
 import org.apache.druid.segment.filter.BooleanValueMatcher;
+import org.apache.druid.segment.vector.VectorCursor;
 import org.joda.time.DateTime;
 import org.joda.time.Interval;
 
@@ -290,6 +294,52 @@ public class IncrementalIndexStorageAdapter implements StorageAdapter
         .map(i -> new IncrementalIndexCursor(virtualColumns, descending, filter, i, actualInterval, gran));
   }
 
+  @Override
+  public boolean canVectorize(@Nullable Filter filter, VirtualColumns virtualColumns, boolean descending)
+  {
+    // Filters are evaluated row by row while each vector is gathered (see IncrementalIndexVectorCursor), so any filter
+    // can be used. Vector cursors can't iterate backwards, though.
+    return !descending && !index.getFacts().iteratorReusesRows();
+  }
+
+  @Override
+  @Nullable
+  public VectorCursor makeVectorCursor(
+      @Nullable final Filter filter,
+      final Interval interval,
+      final VirtualColumns virtualColumns,
+      final boolean descending,
+      final int vectorSize,
+      @Nullable final QueryMetrics<?> queryMetrics
+  )
+  {
+    if (!canVectorize(filter, virtualColumns, descending)) {
+      throw new ISE("Cannot vectorize. Check 'canVectorize' before calling 'makeVectorCursor'.");
+    }
+
+    if (queryMetrics != null) {
+      queryMetrics.vectorized(true);
+    }
+
+    if (index.isEmpty()) {
+      return null;
+    }
+
+    final Interval dataInterval = new Interval(getMinTime(), Granularities.ALL.bucketEnd(getMaxTime()));
+
+    if (!interval.overlaps(dataInterval)) {
+      return null;
+    }
+
+    return new IncrementalIndexVectorCursor(
+        this,
+        filter,
+        interval.overlap(dataInterval),
+        virtualColumns,
+        vectorSize > 0 ? vectorSize : QueryableIndexStorageAdapter.DEFAULT_VECTOR_SIZE
+    );
+  }
+
   @Override
   public Metadata getMetadata()
   {
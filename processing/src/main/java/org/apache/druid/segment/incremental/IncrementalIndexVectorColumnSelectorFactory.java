@@ -0,0 +1,574 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment.incremental;
+
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.query.dimension.DefaultDimensionSpec;
+import org.apache.druid.query.dimension.DimensionSpec;
+import org.apache.druid.segment.ColumnValueSelector;
+import org.apache.druid.segment.DimensionSelector;
+import org.apache.druid.segment.IdLookup;
+import org.apache.druid.segment.VirtualColumns;
+import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.data.ArrayBasedIndexedInts;
+import org.apache.druid.segment.data.IndexedInts;
+import org.apache.druid.segment.vector.MultiValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.NilVectorSelector;
+import org.apache.druid.segment.vector.ReadableVectorInspector;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorObjectSelector;
+import org.apache.druid.segment.vector.VectorValueSelector;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * {@link VectorColumnSelectorFactory} for {@link IncrementalIndexVectorCursor}. Its counterpart for historical
+ * segments is {@link org.apache.druid.segment.vector.QueryableIndexVectorColumnSelectorFactory}.
+ *
+ * Selectors fill a whole vector at once from the rows gathered by the cursor, reading dictionary ids through the
+ * {@link org.apache.druid.segment.DimensionIndexer} selectors and metric values through
+ * {@link IncrementalIndex#makeMetricColumnValueSelector}, so values are exactly those the row-based
+ * {@link IncrementalIndexColumnSelectorFactory} would return. Vectors are computed lazily, at most once per vector id.
+ */
+class IncrementalIndexVectorColumnSelectorFactory implements VectorColumnSelectorFactory
+{
+  private final IncrementalIndexStorageAdapter adapter;
+  private final VirtualColumns virtualColumns;
+  private final ReadableVectorInspector inspector;
+  private final IncrementalIndexRow[] rows;
+
+  /**
+   * Row-based selectors over {@link #rowHolder}, without virtual columns: those are built on top of this factory.
+   */
+  private final IncrementalIndexRowHolder rowHolder;
+  private final IncrementalIndexColumnSelectorFactory rowSelectorFactory;
+
+  // Shared selectors are useful, since they cache vectors internally, and we can avoid recomputation if the same
+  // selector is used by more than one part of a query.
+  private final Map<DimensionSpec, SingleValueDimensionVectorSelector> singleValueDimensionSelectorCache;
+  private final Map<DimensionSpec, MultiValueDimensionVectorSelector> multiValueDimensionSelectorCache;
+  private final Map<String, VectorValueSelector> valueSelectorCache;
+  private final Map<String, VectorObjectSelector> objectSelectorCache;
+
+  IncrementalIndexVectorColumnSelectorFactory(
+      IncrementalIndexStorageAdapter adapter,
+      VirtualColumns virtualColumns,
+      ReadableVectorInspector inspector,
+      IncrementalIndexRow[] rows
+  )
+  {
+    this.adapter = adapter;
+    this.virtualColumns = virtualColumns;
+    this.inspector = inspector;
+    this.rows = rows;
+    this.rowHolder = new IncrementalIndexRowHolder();
+    this.rowSelectorFactory = new IncrementalIndexColumnSelectorFactory(
+        adapter,
+        VirtualColumns.EMPTY,
+        false,
+        rowHolder
+    );
+    this.singleValueDimensionSelectorCache = new HashMap<>();
+    this.multiValueDimensionSelectorCache = new HashMap<>();
+    this.valueSelectorCache = new HashMap<>();
+    this.objectSelectorCache = new HashMap<>();
+  }
+
+  @Override
+  public ReadableVectorInspector getReadableVectorInspector()
+  {
+    return inspector;
+  }
+
+  @Override
+  public SingleValueDimensionVectorSelector makeSingleValueDimensionSelector(final DimensionSpec dimensionSpec)
+  {
+    if (!dimensionSpec.canVectorize()) {
+      throw new ISE("DimensionSpec[%s] cannot be vectorized", dimensionSpec);
+    }
+
+    Function<DimensionSpec, SingleValueDimensionVectorSelector> mappingFunction = spec -> {
+      if (virtualColumns.exists(spec.getDimension())) {
+        return virtualColumns.makeSingleValueDimensionVectorSelector(spec, this);
+      }
+
+      final ColumnCapabilities capabilities = getColumnCapabilities(spec.getDimension());
+      if (capabilities == null || capabilities.getType() != ValueType.STRING) {
+        // Asking for a single-value dimension selector on a non-string column gets you a bunch of nulls.
+        return NilVectorSelector.create(inspector);
+      }
+
+      // The storage adapter reports every string column as possibly multi-valued, so check the actual state of the
+      // index instead, like IncrementalIndexStorageAdapter#getSnapshotColumnCapabilities does.
+      final ColumnCapabilities indexCapabilities = adapter.index.getCapabilities(spec.getDimension());
+      if (indexCapabilities != null && indexCapabilities.hasMultipleValues().isTrue()) {
+        // Asking for a single-value dimension selector on a multi-value column gets you an error.
+        throw new ISE("Column[%s] is multi-value, do not ask for a single-value selector", spec.getDimension());
+      }
+
+      return spec.decorate(
+          new RowSingleValueDimensionVectorSelector(
+              rowSelectorFactory.makeDimensionSelector(DefaultDimensionSpec.of(spec.getDimension()))
+          )
+      );
+    };
+
+    // We cannot use computeIfAbsent() here since the function being applied may modify the cache itself through
+    // virtual column references, triggering a ConcurrentModificationException in JDK 9 and above.
+    SingleValueDimensionVectorSelector selector = singleValueDimensionSelectorCache.get(dimensionSpec);
+    if (selector == null) {
+      selector = mappingFunction.apply(dimensionSpec);
+      singleValueDimensionSelectorCache.put(dimensionSpec, selector);
+    }
+
+    return selector;
+  }
+
+  @Override
+  public MultiValueDimensionVectorSelector makeMultiValueDimensionSelector(final DimensionSpec dimensionSpec)
+  {
+    if (!dimensionSpec.canVectorize()) {
+      throw new ISE("DimensionSpec[%s] cannot be vectorized", dimensionSpec);
+    }
+
+    Function<DimensionSpec, MultiValueDimensionVectorSelector> mappingFunction = spec -> {
+      if (virtualColumns.exists(spec.getDimension())) {
+        return virtualColumns.makeMultiValueDimensionVectorSelector(spec, this);
+      }
+
+      final ColumnCapabilities capabilities = getColumnCapabilities(spec.getDimension());
+      if (capabilities == null || capabilities.getType() != ValueType.STRING) {
+        throw new ISE(
+            "Column[%s] is not a multi-value string column, do not ask for a multi-value selector",
+            spec.getDimension()
+        );
+      }
+
+      return spec.decorate(
+          new RowMultiValueDimensionVectorSelector(
+              rowSelectorFactory.makeDimensionSelector(DefaultDimensionSpec.of(spec.getDimension()))
+          )
+      );
+    };
+
+    // We cannot use computeIfAbsent() here since the function being applied may modify the cache itself through
+    // virtual column references, triggering a ConcurrentModificationException in JDK 9 and above.
+    MultiValueDimensionVectorSelector selector = multiValueDimensionSelectorCache.get(dimensionSpec);
+    if (selector == null) {
+      selector = mappingFunction.apply(dimensionSpec);
+      multiValueDimensionSelectorCache.put(dimensionSpec, selector);
+    }
+
+    return selector;
+  }
+
+  @Override
+  public VectorValueSelector makeValueSelector(final String columnName)
+  {
+    Function<String, VectorValueSelector> mappingFunction = name -> {
+      if (virtualColumns.exists(name)) {
+        return virtualColumns.makeVectorValueSelector(name, this);
+      }
+
+      if (getColumnCapabilities(name) == null) {
+        return NilVectorSelector.create(inspector);
+      }
+
+      return new RowVectorValueSelector(rowSelectorFactory.makeColumnValueSelector(name));
+    };
+
+    // We cannot use computeIfAbsent() here since the function being applied may modify the cache itself through
+    // virtual column references, triggering a ConcurrentModificationException in JDK 9 and above.
+    VectorValueSelector selector = valueSelectorCache.get(columnName);
+    if (selector == null) {
+      selector = mappingFunction.apply(columnName);
+      valueSelectorCache.put(columnName, selector);
+    }
+
+    return selector;
+  }
+
+  @Override
+  public VectorObjectSelector makeObjectSelector(final String columnName)
+  {
+    Function<String, VectorObjectSelector> mappingFunction = name -> {
+      if (virtualColumns.exists(name)) {
+        return virtualColumns.makeVectorObjectSelector(name, this);
+      }
+
+      if (getColumnCapabilities(name) == null) {
+        return NilVectorSelector.create(inspector);
+      }
+
+      return new RowVectorObjectSelector(rowSelectorFactory.makeColumnValueSelector(name));
+    };
+
+    // We cannot use computeIfAbsent() here since the function being applied may modify the cache itself through
+    // virtual column references, triggering a ConcurrentModificationException in JDK 9 and above.
+    VectorObjectSelector selector = objectSelectorCache.get(columnName);
+    if (selector == null) {
+      selector = mappingFunction.apply(columnName);
+      objectSelectorCache.put(columnName, selector);
+    }
+
+    return selector;
+  }
+
+  @Nullable
+  @Override
+  public ColumnCapabilities getColumnCapabilities(final String columnName)
+  {
+    if (virtualColumns.exists(columnName)) {
+      return virtualColumns.getColumnCapabilities(adapter, columnName);
+    }
+
+    // Use adapter.getColumnCapabilities instead of index.getCapabilities (see note in IncrementalIndexStorageAdapater)
+    return adapter.getColumnCapabilities(columnName);
+  }
+
+  @Override
+  public boolean isVirtualColumn(final String columnName)
+  {
+    return virtualColumns.exists(columnName);
+  }
+
+  /**
+   * Base class of the selectors of this factory: knows the size of the current vector and how to point
+   * {@link #rowHolder} at one of its rows.
+   */
+  private abstract class RowVectorSelector
+  {
+    public int getMaxVectorSize()
+    {
+      return inspector.getMaxVectorSize();
+    }
+
+    public int getCurrentVectorSize()
+    {
+      return inspector.getCurrentVectorSize();
+    }
+
+    void setRow(int i)
+    {
+      rowHolder.set(rows[i]);
+    }
+  }
+
+  private class RowSingleValueDimensionVectorSelector extends RowVectorSelector
+      implements SingleValueDimensionVectorSelector
+  {
+    private final DimensionSelector selector;
+
+    /**
+     * Id of rows without any value: the null id of the dictionary, if null was added to the dictionary before the
+     * selector was created, or else an extra id past the end of the dictionary that {@link #lookupName} maps to null.
+     */
+    private final int nullId;
+    private final int cardinality;
+    private final int[] vector;
+    private int id = ReadableVectorInspector.NULL_ID;
+
+    RowSingleValueDimensionVectorSelector(DimensionSelector selector)
+    {
+      this.selector = selector;
+      final IdLookup idLookup = selector.idLookup();
+      final int dictionaryNullId = idLookup == null ? -1 : idLookup.lookupId(null);
+      final int dictionaryCardinality = selector.getValueCardinality();
+      if (dictionaryNullId >= 0 && dictionaryNullId < dictionaryCardinality) {
+        this.nullId = dictionaryNullId;
+        this.cardinality = dictionaryCardinality;
+      } else {
+        this.nullId = dictionaryCardinality;
+        this.cardinality = dictionaryCardinality + 1;
+      }
+      this.vector = new int[inspector.getMaxVectorSize()];
+    }
+
+    @Override
+    public int[] getRowVector()
+    {
+      if (id == inspector.getId()) {
+        return vector;
+      }
+
+      final int size = inspector.getCurrentVectorSize();
+      for (int i = 0; i < size; i++) {
+        setRow(i);
+        final IndexedInts row = selector.getRow();
+        vector[i] = row.size() == 0 ? nullId : row.get(0);
+      }
+
+      id = inspector.getId();
+      return vector;
+    }
+
+    @Override
+    public int getValueCardinality()
+    {
+      return cardinality;
+    }
+
+    @Nullable
+    @Override
+    public String lookupName(int id)
+    {
+      return id == nullId ? null : selector.lookupName(id);
+    }
+
+    @Override
+    public boolean nameLookupPossibleInAdvance()
+    {
+      return selector.nameLookupPossibleInAdvance();
+    }
+
+    @Nullable
+    @Override
+    public IdLookup idLookup()
+    {
+      final IdLookup idLookup = selector.idLookup();
+      if (idLookup == null) {
+        return null;
+      }
+      return name -> NullHandling.isNullOrEquivalent(name) ? nullId : idLookup.lookupId(name);
+    }
+  }
+
+  private class RowMultiValueDimensionVectorSelector extends RowVectorSelector
+      implements MultiValueDimensionVectorSelector
+  {
+    private final DimensionSelector selector;
+    private final ArrayBasedIndexedInts[] vector;
+    private int id = ReadableVectorInspector.NULL_ID;
+
+    RowMultiValueDimensionVectorSelector(DimensionSelector selector)
+    {
+      this.selector = selector;
+      this.vector = new ArrayBasedIndexedInts[inspector.getMaxVectorSize()];
+      for (int i = 0; i < vector.length; i++) {
+        vector[i] = new ArrayBasedIndexedInts();
+      }
+    }
+
+    @Override
+    public IndexedInts[] getRowVector()
+    {
+      if (id == inspector.getId()) {
+        return vector;
+      }
+
+      final int size = inspector.getCurrentVectorSize();
+      for (int i = 0; i < size; i++) {
+        setRow(i);
+        // The row-based selector reuses its IndexedInts, so copy the ids of each row.
+        final IndexedInts row = selector.getRow();
+        final int rowSize = row.size();
+        final ArrayBasedIndexedInts target = vector[i];
+        target.ensureSize(rowSize);
+        for (int j = 0; j < rowSize; j++) {
+          target.setValue(j, row.get(j));
+        }
+        target.setSize(rowSize);
+      }
+
+      id = inspector.getId();
+      return vector;
+    }
+
+    @Override
+    public int getValueCardinality()
+    {
+      return selector.getValueCardinality();
+    }
+
+    @Nullable
+    @Override
+    public String lookupName(int id)
+    {
+      return selector.lookupName(id);
+    }
+
+    @Override
+    public boolean nameLookupPossibleInAdvance()
+    {
+      return selector.nameLookupPossibleInAdvance();
+    }
+
+    @Nullable
+    @Override
+    public IdLookup idLookup()
+    {
+      return selector.idLookup();
+    }
+  }
+
+  private class RowVectorValueSelector extends RowVectorSelector implements VectorValueSelector
+  {
+    private final ColumnValueSelector<?> selector;
+
+    @Nullable
+    private long[] longVector;
+    @Nullable
+    private float[] floatVector;
+    @Nullable
+    private double[] doubleVector;
+    @Nullable
+    private boolean[] nullVector;
+
+    private int longId = ReadableVectorInspector.NULL_ID;
+    private int floatId = ReadableVectorInspector.NULL_ID;
+    private int doubleId = ReadableVectorInspector.NULL_ID;
+    private int nullId = ReadableVectorInspector.NULL_ID;
+
+    /**
+     * Whether the vector identified by {@link #nullId} has any null. Its null vector is only returned if so.
+     */
+    private boolean hasNulls;
+
+    RowVectorValueSelector(ColumnValueSelector<?> selector)
+    {
+      this.selector = selector;
+    }
+
+    @Override
+    public long[] getLongVector()
+    {
+      if (longId == inspector.getId()) {
+        return longVector;
+      }
+
+      if (longVector == null) {
+        longVector = new long[inspector.getMaxVectorSize()];
+      }
+
+      final int size = inspector.getCurrentVectorSize();
+      for (int i = 0; i < size; i++) {
+        setRow(i);
+        // Row selectors may assert that they are not null when read, so check first.
+        longVector[i] = selector.isNull() ? 0L : selector.getLong();
+      }
+
+      longId = inspector.getId();
+      return longVector;
+    }
+
+    @Override
+    public float[] getFloatVector()
+    {
+      if (floatId == inspector.getId()) {
+        return floatVector;
+      }
+
+      if (floatVector == null) {
+        floatVector = new float[inspector.getMaxVectorSize()];
+      }
+
+      final int size = inspector.getCurrentVectorSize();
+      for (int i = 0; i < size; i++) {
+        setRow(i);
+        floatVector[i] = selector.isNull() ? 0f : selector.getFloat();
+      }
+
+      floatId = inspector.getId();
+      return floatVector;
+    }
+
+    @Override
+    public double[] getDoubleVector()
+    {
+      if (doubleId == inspector.getId()) {
+        return doubleVector;
+      }
+
+      if (doubleVector == null) {
+        doubleVector = new double[inspector.getMaxVectorSize()];
+      }
+
+      final int size = inspector.getCurrentVectorSize();
+      for (int i = 0; i < size; i++) {
+        setRow(i);
+        doubleVector[i] = selector.isNull() ? 0d : selector.getDouble();
+      }
+
+      doubleId = inspector.getId();
+      return doubleVector;
+    }
+
+    @Nullable
+    @Override
+    public boolean[] getNullVector()
+    {
+      if (nullId == inspector.getId()) {
+        return hasNulls ? nullVector : null;
+      }
+
+      if (nullVector == null) {
+        nullVector = new boolean[inspector.getMaxVectorSize()];
+      }
+
+      hasNulls = false;
+      final int size = inspector.getCurrentVectorSize();
+      for (int i = 0; i < size; i++) {
+        setRow(i);
+        nullVector[i] = selector.isNull();
+        hasNulls |= nullVector[i];
+      }
+
+      nullId = inspector.getId();
+      return hasNulls ? nullVector : null;
+    }
+  }
+
+  private class RowVectorObjectSelector extends RowVectorSelector implements VectorObjectSelector
+  {
+    private final ColumnValueSelector<?> selector;
+    private final Object[] vector;
+    private int id = ReadableVectorInspector.NULL_ID;
+
+    RowVectorObjectSelector(ColumnValueSelector<?> selector)
+    {
+      this.selector = selector;
+      this.vector = new Object[inspector.getMaxVectorSize()];
+    }
+
+    @Override
+    public Object[] getObjectVector()
+    {
+      if (id == inspector.getId()) {
+        return vector;
+      }
+
+      final int size = inspector.getCurrentVectorSize();
+      for (int i = 0; i < size; i++) {
+        setRow(i);
+        vector[i] = selector.getObject();
+      }
+
+      id = inspector.getId();
+      return vector;
+    }
+  }
+}
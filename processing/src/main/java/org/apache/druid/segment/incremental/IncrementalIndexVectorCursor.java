@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment.incremental;
+
+import org.apache.druid.query.BaseQuery;
+import org.apache.druid.query.filter.Filter;
+import org.apache.druid.query.filter.ValueMatcher;
+import org.apache.druid.segment.VirtualColumns;
+import org.apache.druid.segment.vector.ReadableVectorInspector;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorCursor;
+import org.joda.time.Interval;
+
+import javax.annotation.Nullable;
+import java.util.Iterator;
+
+/**
+ * {@link VectorCursor} over the facts table of an {@link IncrementalIndex}. Each vector is gathered by walking the
+ * facts in time order and keeping up to "vectorSize" rows that match the filter; selectors from
+ * {@link IncrementalIndexVectorColumnSelectorFactory} then read the dictionary ids and metric values of those rows a
+ * whole vector at a time.
+ *
+ * The filter is evaluated with a row-based {@link ValueMatcher} while gathering, since an IncrementalIndex has no
+ * bitmap indexes to pre-filter with. Like {@link IncrementalIndexStorageAdapter}'s row cursor, rows added after this
+ * cursor was created are skipped.
+ *
+ * Only ascending iteration is supported, and only over facts whose iterators return rows that stay valid after the
+ * iterator has moved past them (see {@link IncrementalIndex.FactsHolder#iteratorReusesRows()}).
+ */
+class IncrementalIndexVectorCursor implements VectorCursor, ReadableVectorInspector
+{
+  private final IncrementalIndexRow[] rows;
+  private final Iterable<IncrementalIndexRow> cursorIterable;
+  private final IncrementalIndexRowHolder filterRowHolder;
+  @Nullable
+  private final ValueMatcher filterMatcher;
+  private final int maxRowIndex;
+  private final IncrementalIndexVectorColumnSelectorFactory columnSelectorFactory;
+
+  private Iterator<IncrementalIndexRow> baseIter;
+  private int currentVectorSize;
+  private int id = ReadableVectorInspector.NULL_ID;
+
+  IncrementalIndexVectorCursor(
+      IncrementalIndexStorageAdapter adapter,
+      @Nullable Filter filter,
+      Interval interval,
+      VirtualColumns virtualColumns,
+      int vectorSize
+  )
+  {
+    this.rows = new IncrementalIndexRow[vectorSize];
+    this.filterRowHolder = new IncrementalIndexRowHolder();
+    // Set maxRowIndex before creating the filterMatcher. See https://github.com/apache/druid/pull/6340
+    this.maxRowIndex = adapter.index.getLastRowIndex();
+    this.filterMatcher = filter == null
+                         ? null
+                         : filter.makeMatcher(
+                             new IncrementalIndexColumnSelectorFactory(adapter, virtualColumns, false, filterRowHolder)
+                         );
+    this.cursorIterable = adapter.index.getFacts().timeRangeIterable(
+        false,
+        interval.getStartMillis(),
+        interval.getEndMillis()
+    );
+    this.columnSelectorFactory = new IncrementalIndexVectorColumnSelectorFactory(adapter, virtualColumns, this, rows);
+
+    reset();
+  }
+
+  @Override
+  public VectorColumnSelectorFactory getColumnSelectorFactory()
+  {
+    return columnSelectorFactory;
+  }
+
+  @Override
+  public int getId()
+  {
+    return id;
+  }
+
+  @Override
+  public void advance()
+  {
+    fill();
+  }
+
+  @Override
+  public boolean isDone()
+  {
+    return currentVectorSize == 0;
+  }
+
+  @Override
+  public void reset()
+  {
+    baseIter = cursorIterable.iterator();
+    fill();
+  }
+
+  @Override
+  public int getMaxVectorSize()
+  {
+    return rows.length;
+  }
+
+  @Override
+  public int getCurrentVectorSize()
+  {
+    return currentVectorSize;
+  }
+
+  @Override
+  public void close()
+  {
+    // Nothing to close.
+  }
+
+  /**
+   * Gathers the next vector of matching rows into {@link #rows}.
+   */
+  private void fill()
+  {
+    BaseQuery.checkInterrupted();
+
+    int size = 0;
+    while (size < rows.length && baseIter.hasNext()) {
+      final IncrementalIndexRow row = baseIter.next();
+
+      // ignore rows whose rowIndex is beyond the maxRowIndex, i.e. rows added after the cursor was created
+      if (row.getRowIndex() > maxRowIndex) {
+        continue;
+      }
+
+      if (filterMatcher != null) {
+        filterRowHolder.set(row);
+        if (!filterMatcher.matches()) {
+          continue;
+        }
+      }
+
+      rows[size++] = row;
+    }
+
+    currentVectorSize = size;
+    id++;
+  }
+}
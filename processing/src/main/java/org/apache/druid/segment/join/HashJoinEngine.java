@@ -116,6 +116,12 @@ public class HashJoinEngine
           return leftColumnSelectorFactory.getColumnCapabilities(column);
         }
       }
+
+      @Override
+      public boolean isVirtualColumn(String column)
+      {
+        return !joinableClause.includesColumn(column) && leftColumnSelectorFactory.isVirtualColumn(column);
+      }
     }
 
     final JoinColumnSelectorFactory joinColumnSelectorFactory = new JoinColumnSelectorFactory();
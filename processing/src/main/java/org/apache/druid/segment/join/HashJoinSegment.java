@@ -47,6 +47,7 @@ public class HashJoinSegment implements SegmentReference
   private final Filter baseFilter;
   private final List<JoinableClause> clauses;
   private final JoinFilterPreAnalysis joinFilterPreAnalysis;
+  private final boolean vectorize;
 
   /**
    * @param baseSegment           The left-hand side base segment
@@ -60,11 +61,30 @@ public class HashJoinSegment implements SegmentReference
       List<JoinableClause> clauses,
       JoinFilterPreAnalysis joinFilterPreAnalysis
   )
+  {
+    this(baseSegment, baseFilter, clauses, joinFilterPreAnalysis, false);
+  }
+
+  /**
+   * @param baseSegment           The left-hand side base segment
+   * @param clauses               The right-hand side clauses. The caller is responsible for ensuring that there are no
+   *                              duplicate prefixes or prefixes that shadow each other across the clauses
+   * @param joinFilterPreAnalysis Pre-analysis for the query we expect to run on this segment
+   * @param vectorize             Whether the join may be vectorized, if its clauses allow it
+   */
+  public HashJoinSegment(
+      SegmentReference baseSegment,
+      @Nullable Filter baseFilter,
+      List<JoinableClause> clauses,
+      JoinFilterPreAnalysis joinFilterPreAnalysis,
+      boolean vectorize
+  )
   {
     this.baseSegment = baseSegment;
     this.baseFilter = baseFilter;
     this.clauses = clauses;
     this.joinFilterPreAnalysis = joinFilterPreAnalysis;
+    this.vectorize = vectorize;
 
     // Verify 'clauses' is nonempty (otherwise it's a waste to create this object, and the caller should know)
     if (clauses.isEmpty()) {
@@ -101,7 +121,8 @@ public class HashJoinSegment implements SegmentReference
         baseSegment.asStorageAdapter(),
         baseFilter,
         clauses,
-        joinFilterPreAnalysis
+        joinFilterPreAnalysis,
+        vectorize
     );
   }
 
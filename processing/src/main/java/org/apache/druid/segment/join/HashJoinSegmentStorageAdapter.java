@@ -41,6 +41,7 @@ import org.apache.druid.segment.join.filter.JoinFilterAnalyzer;
 import org.apache.druid.segment.join.filter.JoinFilterPreAnalysis;
 import org.apache.druid.segment.join.filter.JoinFilterPreAnalysisKey;
 import org.apache.druid.segment.join.filter.JoinFilterSplit;
+import org.apache.druid.segment.vector.VectorCursor;
 import org.joda.time.DateTime;
 import org.joda.time.Interval;
 
@@ -59,6 +60,7 @@ public class HashJoinSegmentStorageAdapter implements StorageAdapter
   private final Filter baseFilter;
   private final List<JoinableClause> clauses;
   private final JoinFilterPreAnalysis joinFilterPreAnalysis;
+  private final boolean vectorize;
 
   /**
    * @param baseAdapter           A StorageAdapter for the left-hand side base segment
@@ -88,11 +90,31 @@ public class HashJoinSegmentStorageAdapter implements StorageAdapter
       final List<JoinableClause> clauses,
       final JoinFilterPreAnalysis joinFilterPreAnalysis
   )
+  {
+    this(baseAdapter, baseFilter, clauses, joinFilterPreAnalysis, false);
+  }
+
+  /**
+   * @param baseAdapter           A StorageAdapter for the left-hand side base segment
+   * @param baseFilter            A filter for the left-hand side base segment
+   * @param clauses               The right-hand side clauses. The caller is responsible for ensuring that there are no
+   *                              duplicate prefixes or prefixes that shadow each other across the clauses
+   * @param joinFilterPreAnalysis Pre-analysis for the query we expect to run on this storage adapter
+   * @param vectorize             Whether {@link #makeVectorCursor} may be used, if the clauses allow it
+   */
+  HashJoinSegmentStorageAdapter(
+      final StorageAdapter baseAdapter,
+      @Nullable final Filter baseFilter,
+      final List<JoinableClause> clauses,
+      final JoinFilterPreAnalysis joinFilterPreAnalysis,
+      final boolean vectorize
+  )
   {
     this.baseAdapter = baseAdapter;
     this.baseFilter = baseFilter;
     this.clauses = clauses;
     this.joinFilterPreAnalysis = joinFilterPreAnalysis;
+    this.vectorize = vectorize;
   }
 
   @Override
@@ -221,6 +243,106 @@ public class HashJoinSegmentStorageAdapter implements StorageAdapter
     throw new UnsupportedOperationException("Cannot retrieve metadata from join segment");
   }
 
+  @Override
+  public boolean canVectorize(
+      @Nullable final Filter filter,
+      final VirtualColumns virtualColumns,
+      final boolean descending
+  )
+  {
+    if (!vectorize) {
+      return false;
+    }
+
+    for (JoinableClause clause : clauses) {
+      if (clause.getJoinType().isRighty() || !clause.getJoinable().canVectorizeJoin(clause.getCondition())) {
+        return false;
+      }
+    }
+
+    final List<VirtualColumn> preJoinVirtualColumns = new ArrayList<>();
+    final List<VirtualColumn> postJoinVirtualColumns = new ArrayList<>();
+
+    determineBaseColumnsWithPreAndPostJoinVirtualColumns(
+        virtualColumns,
+        preJoinVirtualColumns,
+        postJoinVirtualColumns
+    );
+
+    final JoinFilterSplit joinFilterSplit = JoinFilterAnalyzer.splitFilter(joinFilterPreAnalysis, baseFilter);
+    preJoinVirtualColumns.addAll(joinFilterSplit.getPushDownVirtualColumns());
+
+    if (joinFilterSplit.getJoinTableFilter().isPresent()) {
+      // Filters on joined columns are only applied by PostJoinCursor, which is not vectorized.
+      return false;
+    }
+
+    return VirtualColumns.create(postJoinVirtualColumns).canVectorize(this)
+           && baseAdapter.canVectorize(
+               joinFilterSplit.getBaseTableFilter().orElse(null),
+               VirtualColumns.create(preJoinVirtualColumns),
+               descending
+           );
+  }
+
+  @Nullable
+  @Override
+  public VectorCursor makeVectorCursor(
+      @Nullable final Filter filter,
+      final Interval interval,
+      final VirtualColumns virtualColumns,
+      final boolean descending,
+      final int vectorSize,
+      @Nullable final QueryMetrics<?> queryMetrics
+  )
+  {
+    if (!canVectorize(filter, virtualColumns, descending)) {
+      throw new ISE("Cannot vectorize. Check 'canVectorize' before calling 'makeVectorCursor'.");
+    }
+
+    checkPreAnalysisKey(filter, virtualColumns);
+
+    final List<VirtualColumn> preJoinVirtualColumns = new ArrayList<>();
+    final List<VirtualColumn> postJoinVirtualColumns = new ArrayList<>();
+
+    determineBaseColumnsWithPreAndPostJoinVirtualColumns(
+        virtualColumns,
+        preJoinVirtualColumns,
+        postJoinVirtualColumns
+    );
+
+    final JoinFilterSplit joinFilterSplit = JoinFilterAnalyzer.splitFilter(joinFilterPreAnalysis, baseFilter);
+    preJoinVirtualColumns.addAll(joinFilterSplit.getPushDownVirtualColumns());
+
+    final VectorCursor baseCursor = baseAdapter.makeVectorCursor(
+        joinFilterSplit.getBaseTableFilter().orElse(null),
+        interval,
+        VirtualColumns.create(preJoinVirtualColumns),
+        descending,
+        vectorSize,
+        queryMetrics
+    );
+
+    if (baseCursor == null) {
+      return null;
+    }
+
+    final Closer joinablesCloser = Closer.create();
+    VectorCursor retVal = baseCursor;
+
+    for (int i = 0; i < clauses.size(); i++) {
+      // Post-join virtual columns are computed by the last cursor, which sees the columns of all clauses.
+      retVal = HashJoinVectorCursor.wrap(
+          retVal,
+          clauses.get(i),
+          i == clauses.size() - 1 ? VirtualColumns.create(postJoinVirtualColumns) : VirtualColumns.EMPTY,
+          joinablesCloser
+      );
+    }
+
+    return retVal;
+  }
+
   @Override
   public Sequence<Cursor> makeCursors(
       @Nullable final Filter filter,
@@ -231,24 +353,7 @@ public class HashJoinSegmentStorageAdapter implements StorageAdapter
       @Nullable final QueryMetrics<?> queryMetrics
   )
   {
-    // Filter pre-analysis key implied by the call to "makeCursors". We need to sanity-check that it matches
-    // the actual pre-analysis that was done. Note: we can't infer a rewrite config from the "makeCursors" call (it
-    // requires access to the query context) so we'll need to skip sanity-checking it, by re-using the one present
-    // in the cached key.)
-    final JoinFilterPreAnalysisKey keyIn =
-        new JoinFilterPreAnalysisKey(
-            joinFilterPreAnalysis.getKey().getRewriteConfig(),
-            clauses,
-            virtualColumns,
-            filter
-        );
-
-    final JoinFilterPreAnalysisKey keyCached = joinFilterPreAnalysis.getKey();
-
-    if (!keyIn.equals(keyCached)) {
-      // It is a bug if this happens. The implied key and the cached key should always match.
-      throw new ISE("Pre-analysis mismatch, cannot execute query");
-    }
+    checkPreAnalysisKey(filter, virtualColumns);
 
     final List<VirtualColumn> preJoinVirtualColumns = new ArrayList<>();
     final List<VirtualColumn> postJoinVirtualColumns = new ArrayList<>();
@@ -294,6 +399,29 @@ public class HashJoinSegmentStorageAdapter implements StorageAdapter
     ).withBaggage(joinablesCloser);
   }
 
+  /**
+   * Sanity-checks that the filter pre-analysis key implied by a call to "makeCursors" or "makeVectorCursor" matches
+   * the actual pre-analysis that was done. Note: we can't infer a rewrite config from the call (it requires access to
+   * the query context) so we'll need to skip sanity-checking it, by re-using the one present in the cached key.
+   */
+  private void checkPreAnalysisKey(@Nullable final Filter filter, final VirtualColumns virtualColumns)
+  {
+    final JoinFilterPreAnalysisKey keyIn =
+        new JoinFilterPreAnalysisKey(
+            joinFilterPreAnalysis.getKey().getRewriteConfig(),
+            clauses,
+            virtualColumns,
+            filter
+        );
+
+    final JoinFilterPreAnalysisKey keyCached = joinFilterPreAnalysis.getKey();
+
+    if (!keyIn.equals(keyCached)) {
+      // It is a bug if this happens. The implied key and the cached key should always match.
+      throw new ISE("Pre-analysis mismatch, cannot execute query");
+    }
+  }
+
   /**
    * Returns whether "column" will be selected from "baseAdapter". This is true if it is not shadowed by any joinables
    * (i.e. if it does not start with any of their prefixes).
@@ -0,0 +1,953 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.join;
+
+import com.google.common.base.Preconditions;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.guava.CloseQuietly;
+import org.apache.druid.java.util.common.io.Closer;
+import org.apache.druid.query.dimension.DimensionSpec;
+import org.apache.druid.segment.DimensionHandlerUtils;
+import org.apache.druid.segment.IdLookup;
+import org.apache.druid.segment.VirtualColumns;
+import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.data.IndexedInts;
+import org.apache.druid.segment.data.SingleIndexedInt;
+import org.apache.druid.segment.vector.MultiValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.NilVectorSelector;
+import org.apache.druid.segment.vector.ReadableVectorInspector;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorCursor;
+import org.apache.druid.segment.vector.VectorObjectSelector;
+import org.apache.druid.segment.vector.VectorValueSelector;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Array;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Vectorized counterpart of the cursor made by {@link HashJoinEngine#makeJoinCursor}. Used by
+ * {@link HashJoinSegmentStorageAdapter#makeVectorCursor} to implement inner and left joins.
+ *
+ * For each vector of the left-hand cursor, the {@link VectorJoinMatcher} is probed with all of its keys at once. Each
+ * vector of this cursor is then a list of (left-hand row, right-hand row) pairs, all coming from the same left-hand
+ * vector: left-hand columns are read by gathering values of the left-hand selectors, right-hand columns by reading the
+ * matched rows of the joinable. When every left-hand row matches exactly one right-hand row, which is the common case
+ * of a join onto a unique key, left-hand vectors are passed through as-is.
+ */
+public class HashJoinVectorCursor implements VectorCursor, ReadableVectorInspector
+{
+  private static final int NO_MATCH = -1;
+
+  private final VectorCursor leftCursor;
+  private final JoinableClause joinableClause;
+  private final VirtualColumns virtualColumns;
+  private final VectorJoinMatcher joinMatcher;
+  private final Closer closer;
+  private final JoinVectorColumnSelectorFactory columnSelectorFactory;
+
+  // Row of the left-hand vector, and matched row of the joinable (or NO_MATCH), of each row of the current vector.
+  private final int[] leftRows;
+  private final int[] rightRows;
+
+  // Position in the current left-hand vector: "leftRow" is the next left-hand row to emit, and "matchPosition" the
+  // next of its matches, as an index into joinMatcher.getMatchedRows().
+  private boolean matched;
+  private int leftRow;
+  private int matchPosition;
+
+  // Whether the current vector is made of all left-hand rows, in order, each exactly once.
+  private boolean passThrough;
+  private int currentVectorSize;
+  private int id = 0;
+
+  private HashJoinVectorCursor(
+      final VectorCursor leftCursor,
+      final JoinableClause joinableClause,
+      final VirtualColumns virtualColumns,
+      final Closer closer
+  )
+  {
+    Preconditions.checkArgument(
+        !joinableClause.getJoinType().isRighty(),
+        "Cannot vectorize join of type[%s]",
+        joinableClause.getJoinType()
+    );
+
+    this.leftCursor = leftCursor;
+    this.joinableClause = joinableClause;
+    this.virtualColumns = virtualColumns;
+    this.joinMatcher = joinableClause.getJoinable().makeVectorJoinMatcher(
+        leftCursor.getColumnSelectorFactory(),
+        joinableClause.getCondition(),
+        closer
+    );
+    this.closer = closer;
+    this.columnSelectorFactory = new JoinVectorColumnSelectorFactory(leftCursor.getColumnSelectorFactory());
+    this.leftRows = new int[leftCursor.getMaxVectorSize()];
+    this.rightRows = new int[leftCursor.getMaxVectorSize()];
+    fill();
+  }
+
+  /**
+   * Creates a cursor that joins "leftCursor" onto the joinable of "joinableClause", which must be able to vectorize
+   * the join (see {@link Joinable#canVectorizeJoin}).
+   *
+   * @param leftCursor     cursor over the left-hand side of the join
+   * @param joinableClause the right-hand side of the join; must be an inner or left join
+   * @param virtualColumns virtual columns to compute on top of the joined columns
+   * @param closer         closer for per query resources of the joinables; closed along with the cursor
+   */
+  public static HashJoinVectorCursor wrap(
+      final VectorCursor leftCursor,
+      final JoinableClause joinableClause,
+      final VirtualColumns virtualColumns,
+      final Closer closer
+  )
+  {
+    return new HashJoinVectorCursor(leftCursor, joinableClause, virtualColumns, closer);
+  }
+
+  @Override
+  public VectorColumnSelectorFactory getColumnSelectorFactory()
+  {
+    return columnSelectorFactory;
+  }
+
+  @Override
+  public void advance()
+  {
+    if (matched && leftRow == leftCursor.getCurrentVectorSize()) {
+      leftCursor.advance();
+      matched = false;
+    }
+
+    fill();
+  }
+
+  @Override
+  public boolean isDone()
+  {
+    return currentVectorSize == 0;
+  }
+
+  @Override
+  public void reset()
+  {
+    leftCursor.reset();
+    matched = false;
+    fill();
+  }
+
+  @Override
+  public void close()
+  {
+    try {
+      leftCursor.close();
+    }
+    finally {
+      // The closer is shared by all clauses of a join, so outer cursors find it already closed, which is a no-op.
+      CloseQuietly.close(closer);
+    }
+  }
+
+  @Override
+  public int getMaxVectorSize()
+  {
+    return leftCursor.getMaxVectorSize();
+  }
+
+  @Override
+  public int getCurrentVectorSize()
+  {
+    return currentVectorSize;
+  }
+
+  @Override
+  public int getId()
+  {
+    return id;
+  }
+
+  /**
+   * Fills the next vector from the current left-hand vector, moving on to the following left-hand vectors if the
+   * current one has nothing left to emit.
+   */
+  private void fill()
+  {
+    final boolean lefty = joinableClause.getJoinType().isLefty();
+    final int maxVectorSize = leftCursor.getMaxVectorSize();
+
+    currentVectorSize = 0;
+    passThrough = false;
+
+    while (!leftCursor.isDone()) {
+      if (!matched) {
+        joinMatcher.matchVector();
+        matched = true;
+        leftRow = 0;
+        matchPosition = 0;
+      }
+
+      final int leftVectorSize = leftCursor.getCurrentVectorSize();
+      final int[] matchOffsets = joinMatcher.getMatchOffsets();
+      final int[] matchedRows = joinMatcher.getMatchedRows();
+      final int startLeftRow = leftRow;
+      boolean oneToOne = true;
+
+      while (leftRow < leftVectorSize && currentVectorSize < maxVectorSize) {
+        final int matchEnd = matchOffsets[leftRow + 1];
+
+        if (matchPosition < matchEnd) {
+          leftRows[currentVectorSize] = leftRow;
+          rightRows[currentVectorSize] = matchedRows[matchPosition];
+          currentVectorSize++;
+          matchPosition++;
+
+          if (matchPosition == matchEnd) {
+            leftRow++;
+          } else {
+            oneToOne = false;
+          }
+        } else {
+          // No matches for this row.
+          if (lefty) {
+            leftRows[currentVectorSize] = leftRow;
+            rightRows[currentVectorSize] = NO_MATCH;
+            currentVectorSize++;
+          } else {
+            oneToOne = false;
+          }
+
+          leftRow++;
+        }
+      }
+
+      if (currentVectorSize > 0) {
+        passThrough = oneToOne && startLeftRow == 0 && leftRow == leftVectorSize;
+        break;
+      }
+
+      // Nothing to emit from this left-hand vector; move on to the next one.
+      leftCursor.advance();
+      matched = false;
+    }
+
+    id++;
+  }
+
+  private class JoinVectorColumnSelectorFactory implements VectorColumnSelectorFactory
+  {
+    private final VectorColumnSelectorFactory leftColumnSelectorFactory;
+
+    private final Map<DimensionSpec, SingleValueDimensionVectorSelector> singleValueDimensionSelectorCache;
+    private final Map<DimensionSpec, MultiValueDimensionVectorSelector> multiValueDimensionSelectorCache;
+    private final Map<String, VectorValueSelector> valueSelectorCache;
+    private final Map<String, VectorObjectSelector> objectSelectorCache;
+
+    JoinVectorColumnSelectorFactory(VectorColumnSelectorFactory leftColumnSelectorFactory)
+    {
+      this.leftColumnSelectorFactory = leftColumnSelectorFactory;
+      this.singleValueDimensionSelectorCache = new HashMap<>();
+      this.multiValueDimensionSelectorCache = new HashMap<>();
+      this.valueSelectorCache = new HashMap<>();
+      this.objectSelectorCache = new HashMap<>();
+    }
+
+    @Override
+    public ReadableVectorInspector getReadableVectorInspector()
+    {
+      return HashJoinVectorCursor.this;
+    }
+
+    @Override
+    public SingleValueDimensionVectorSelector makeSingleValueDimensionSelector(final DimensionSpec dimensionSpec)
+    {
+      if (!dimensionSpec.canVectorize()) {
+        throw new ISE("DimensionSpec[%s] cannot be vectorized", dimensionSpec);
+      }
+
+      // We cannot use computeIfAbsent() here since the virtual column may modify the cache itself through
+      // column references, triggering a ConcurrentModificationException in JDK 9 and above.
+      SingleValueDimensionVectorSelector selector = singleValueDimensionSelectorCache.get(dimensionSpec);
+      if (selector == null) {
+        final String column = dimensionSpec.getDimension();
+
+        if (virtualColumns.exists(column)) {
+          selector = virtualColumns.makeSingleValueDimensionVectorSelector(dimensionSpec, this);
+        } else if (joinableClause.includesColumn(column)) {
+          final IntFunction<Object> reader = joinMatcher.makeColumnReader(joinableClause.unprefix(column));
+          selector = reader == null
+                     ? NilVectorSelector.create(HashJoinVectorCursor.this)
+                     : dimensionSpec.decorate(new RightSingleValueDimensionVectorSelector(reader));
+        } else {
+          selector = new LeftSingleValueDimensionVectorSelector(
+              leftColumnSelectorFactory.makeSingleValueDimensionSelector(dimensionSpec)
+          );
+        }
+
+        singleValueDimensionSelectorCache.put(dimensionSpec, selector);
+      }
+
+      return selector;
+    }
+
+    @Override
+    public MultiValueDimensionVectorSelector makeMultiValueDimensionSelector(final DimensionSpec dimensionSpec)
+    {
+      if (!dimensionSpec.canVectorize()) {
+        throw new ISE("DimensionSpec[%s] cannot be vectorized", dimensionSpec);
+      }
+
+      // We cannot use computeIfAbsent() here since the virtual column may modify the cache itself through
+      // column references, triggering a ConcurrentModificationException in JDK 9 and above.
+      MultiValueDimensionVectorSelector selector = multiValueDimensionSelectorCache.get(dimensionSpec);
+      if (selector == null) {
+        final String column = dimensionSpec.getDimension();
+
+        if (virtualColumns.exists(column)) {
+          selector = virtualColumns.makeMultiValueDimensionVectorSelector(dimensionSpec, this);
+        } else if (joinableClause.includesColumn(column)) {
+          final IntFunction<Object> reader = joinMatcher.makeColumnReader(joinableClause.unprefix(column));
+          if (reader == null) {
+            throw new ISE("Column[%s] does not exist, do not ask for a multi-value selector", column);
+          }
+          selector = dimensionSpec.decorate(new RightMultiValueDimensionVectorSelector(reader));
+        } else {
+          selector = new LeftMultiValueDimensionVectorSelector(
+              leftColumnSelectorFactory.makeMultiValueDimensionSelector(dimensionSpec)
+          );
+        }
+
+        multiValueDimensionSelectorCache.put(dimensionSpec, selector);
+      }
+
+      return selector;
+    }
+
+    @Override
+    public VectorValueSelector makeValueSelector(final String column)
+    {
+      // We cannot use computeIfAbsent() here since the virtual column may modify the cache itself through
+      // column references, triggering a ConcurrentModificationException in JDK 9 and above.
+      VectorValueSelector selector = valueSelectorCache.get(column);
+      if (selector == null) {
+        if (virtualColumns.exists(column)) {
+          selector = virtualColumns.makeVectorValueSelector(column, this);
+        } else if (joinableClause.includesColumn(column)) {
+          final IntFunction<Object> reader = joinMatcher.makeColumnReader(joinableClause.unprefix(column));
+          selector = reader == null
+                     ? NilVectorSelector.create(HashJoinVectorCursor.this)
+                     : new RightVectorValueSelector(reader);
+        } else {
+          selector = new LeftVectorValueSelector(leftColumnSelectorFactory.makeValueSelector(column));
+        }
+
+        valueSelectorCache.put(column, selector);
+      }
+
+      return selector;
+    }
+
+    @Override
+    public VectorObjectSelector makeObjectSelector(final String column)
+    {
+      // We cannot use computeIfAbsent() here since the virtual column may modify the cache itself through
+      // column references, triggering a ConcurrentModificationException in JDK 9 and above.
+      VectorObjectSelector selector = objectSelectorCache.get(column);
+      if (selector == null) {
+        if (virtualColumns.exists(column)) {
+          selector = virtualColumns.makeVectorObjectSelector(column, this);
+        } else if (joinableClause.includesColumn(column)) {
+          final IntFunction<Object> reader = joinMatcher.makeColumnReader(joinableClause.unprefix(column));
+          final ColumnCapabilities capabilities = getColumnCapabilities(column);
+          selector = reader == null
+                     ? NilVectorSelector.create(HashJoinVectorCursor.this)
+                     : new RightVectorObjectSelector(
+                         reader,
+                         capabilities != null && capabilities.getType() == ValueType.STRING
+                     );
+        } else {
+          selector = new LeftVectorObjectSelector(leftColumnSelectorFactory.makeObjectSelector(column));
+        }
+
+        objectSelectorCache.put(column, selector);
+      }
+
+      return selector;
+    }
+
+    @Nullable
+    @Override
+    public ColumnCapabilities getColumnCapabilities(final String column)
+    {
+      if (virtualColumns.exists(column)) {
+        return virtualColumns.getColumnCapabilities(this, column);
+      } else if (joinableClause.includesColumn(column)) {
+        return joinableClause.getJoinable().getColumnCapabilities(joinableClause.unprefix(column));
+      } else {
+        return leftColumnSelectorFactory.getColumnCapabilities(column);
+      }
+    }
+
+    @Override
+    public boolean isVirtualColumn(final String column)
+    {
+      return virtualColumns.exists(column)
+             || (!joinableClause.includesColumn(column) && leftColumnSelectorFactory.isVirtualColumn(column));
+    }
+  }
+
+  /**
+   * Base class of the selectors of this cursor: knows the size of the current vector.
+   */
+  private abstract class JoinVectorSelector
+  {
+    public int getMaxVectorSize()
+    {
+      return leftCursor.getMaxVectorSize();
+    }
+
+    public int getCurrentVectorSize()
+    {
+      return currentVectorSize;
+    }
+  }
+
+  private class LeftSingleValueDimensionVectorSelector extends JoinVectorSelector
+      implements SingleValueDimensionVectorSelector
+  {
+    private final SingleValueDimensionVectorSelector selector;
+    private final int[] vector;
+    private int vectorId = NULL_ID;
+
+    LeftSingleValueDimensionVectorSelector(SingleValueDimensionVectorSelector selector)
+    {
+      this.selector = selector;
+      this.vector = new int[leftCursor.getMaxVectorSize()];
+    }
+
+    @Override
+    public int[] getRowVector()
+    {
+      if (passThrough) {
+        return selector.getRowVector();
+      }
+
+      if (vectorId != id) {
+        final int[] leftVector = selector.getRowVector();
+        for (int i = 0; i < currentVectorSize; i++) {
+          vector[i] = leftVector[leftRows[i]];
+        }
+        vectorId = id;
+      }
+
+      return vector;
+    }
+
+    @Override
+    public int getValueCardinality()
+    {
+      return selector.getValueCardinality();
+    }
+
+    @Nullable
+    @Override
+    public String lookupName(int id)
+    {
+      return selector.lookupName(id);
+    }
+
+    @Override
+    public boolean nameLookupPossibleInAdvance()
+    {
+      return selector.nameLookupPossibleInAdvance();
+    }
+
+    @Nullable
+    @Override
+    public IdLookup idLookup()
+    {
+      return selector.idLookup();
+    }
+  }
+
+  private class LeftMultiValueDimensionVectorSelector extends JoinVectorSelector
+      implements MultiValueDimensionVectorSelector
+  {
+    private final MultiValueDimensionVectorSelector selector;
+    private final IndexedInts[] vector;
+    private int vectorId = NULL_ID;
+
+    LeftMultiValueDimensionVectorSelector(MultiValueDimensionVectorSelector selector)
+    {
+      this.selector = selector;
+      this.vector = new IndexedInts[leftCursor.getMaxVectorSize()];
+    }
+
+    @Override
+    public IndexedInts[] getRowVector()
+    {
+      if (passThrough) {
+        return selector.getRowVector();
+      }
+
+      if (vectorId != id) {
+        final IndexedInts[] leftVector = selector.getRowVector();
+        for (int i = 0; i < currentVectorSize; i++) {
+          vector[i] = leftVector[leftRows[i]];
+        }
+        vectorId = id;
+      }
+
+      return vector;
+    }
+
+    @Override
+    public int getValueCardinality()
+    {
+      return selector.getValueCardinality();
+    }
+
+    @Nullable
+    @Override
+    public String lookupName(int id)
+    {
+      return selector.lookupName(id);
+    }
+
+    @Override
+    public boolean nameLookupPossibleInAdvance()
+    {
+      return selector.nameLookupPossibleInAdvance();
+    }
+
+    @Nullable
+    @Override
+    public IdLookup idLookup()
+    {
+      return selector.idLookup();
+    }
+  }
+
+  private class LeftVectorValueSelector extends JoinVectorSelector implements VectorValueSelector
+  {
+    private final VectorValueSelector selector;
+
+    @Nullable
+    private long[] longVector;
+    @Nullable
+    private float[] floatVector;
+    @Nullable
+    private double[] doubleVector;
+    @Nullable
+    private boolean[] nullVector;
+
+    private int longId = NULL_ID;
+    private int floatId = NULL_ID;
+    private int doubleId = NULL_ID;
+    private int nullId = NULL_ID;
+
+    /**
+     * Whether the vector identified by {@link #nullId} has any null. Its null vector is only returned if so.
+     */
+    private boolean hasNulls;
+
+    LeftVectorValueSelector(VectorValueSelector selector)
+    {
+      this.selector = selector;
+    }
+
+    @Override
+    public long[] getLongVector()
+    {
+      if (passThrough) {
+        return selector.getLongVector();
+      }
+
+      if (longId != id) {
+        if (longVector == null) {
+          longVector = new long[leftCursor.getMaxVectorSize()];
+        }
+
+        final long[] leftVector = selector.getLongVector();
+        for (int i = 0; i < currentVectorSize; i++) {
+          longVector[i] = leftVector[leftRows[i]];
+        }
+        longId = id;
+      }
+
+      return longVector;
+    }
+
+    @Override
+    public float[] getFloatVector()
+    {
+      if (passThrough) {
+        return selector.getFloatVector();
+      }
+
+      if (floatId != id) {
+        if (floatVector == null) {
+          floatVector = new float[leftCursor.getMaxVectorSize()];
+        }
+
+        final float[] leftVector = selector.getFloatVector();
+        for (int i = 0; i < currentVectorSize; i++) {
+          floatVector[i] = leftVector[leftRows[i]];
+        }
+        floatId = id;
+      }
+
+      return floatVector;
+    }
+
+    @Override
+    public double[] getDoubleVector()
+    {
+      if (passThrough) {
+        return selector.getDoubleVector();
+      }
+
+      if (doubleId != id) {
+        if (doubleVector == null) {
+          doubleVector = new double[leftCursor.getMaxVectorSize()];
+        }
+
+        final double[] leftVector = selector.getDoubleVector();
+        for (int i = 0; i < currentVectorSize; i++) {
+          doubleVector[i] = leftVector[leftRows[i]];
+        }
+        doubleId = id;
+      }
+
+      return doubleVector;
+    }
+
+    @Nullable
+    @Override
+    public boolean[] getNullVector()
+    {
+      if (passThrough) {
+        return selector.getNullVector();
+      }
+
+      if (nullId != id) {
+        final boolean[] leftVector = selector.getNullVector();
+        hasNulls = false;
+
+        if (leftVector != null) {
+          if (nullVector == null) {
+            nullVector = new boolean[leftCursor.getMaxVectorSize()];
+          }
+
+          for (int i = 0; i < currentVectorSize; i++) {
+            nullVector[i] = leftVector[leftRows[i]];
+            hasNulls |= nullVector[i];
+          }
+        }
+
+        nullId = id;
+      }
+
+      return hasNulls ? nullVector : null;
+    }
+  }
+
+  private class LeftVectorObjectSelector extends JoinVectorSelector implements VectorObjectSelector
+  {
+    private final VectorObjectSelector selector;
+    @Nullable
+    private Object[] vector;
+    private int vectorId = NULL_ID;
+
+    LeftVectorObjectSelector(VectorObjectSelector selector)
+    {
+      this.selector = selector;
+    }
+
+    @Override
+    public Object[] getObjectVector()
+    {
+      if (passThrough) {
+        return selector.getObjectVector();
+      }
+
+      if (vectorId != id) {
+        final Object[] leftVector = selector.getObjectVector();
+        if (vector == null) {
+          // Same component type as the left-hand vectors, since some readers expect String[] for string columns.
+          vector = (Object[]) Array.newInstance(
+              leftVector.getClass().getComponentType(),
+              leftCursor.getMaxVectorSize()
+          );
+        }
+        for (int i = 0; i < currentVectorSize; i++) {
+          vector[i] = leftVector[leftRows[i]];
+        }
+        vectorId = id;
+      }
+
+      return vector;
+    }
+  }
+
+  /**
+   * Reads the values of a right-hand column for the rows of the current vector. Rows without a match read as null.
+   */
+  private abstract class RightVectorSelector extends JoinVectorSelector
+  {
+    private final IntFunction<Object> reader;
+    private final boolean stringValues;
+    private final Object[] values;
+    private int valuesId = NULL_ID;
+
+    /**
+     * @param stringValues whether to read values as strings, into a String[] like the object vectors of other
+     *                     string columns
+     */
+    RightVectorSelector(IntFunction<Object> reader, boolean stringValues)
+    {
+      this.reader = reader;
+      this.stringValues = stringValues;
+      this.values = stringValues
+                    ? new String[leftCursor.getMaxVectorSize()]
+                    : new Object[leftCursor.getMaxVectorSize()];
+    }
+
+    Object[] getValues()
+    {
+      if (valuesId != id) {
+        for (int i = 0; i < currentVectorSize; i++) {
+          final int rightRow = rightRows[i];
+          final Object value = rightRow == NO_MATCH ? null : reader.apply(rightRow);
+          values[i] = stringValues ? DimensionHandlerUtils.convertObjectToString(value) : value;
+        }
+        valuesId = id;
+      }
+
+      return values;
+    }
+  }
+
+  /**
+   * Joinables do not have a dictionary that is valid across rows, so the id of each row is its position in the
+   * vector, like in {@link org.apache.druid.segment.join.table.IndexedTableDimensionSelector}.
+   */
+  private class RightSingleValueDimensionVectorSelector extends RightVectorSelector
+      implements SingleValueDimensionVectorSelector
+  {
+    private final int[] vector;
+
+    RightSingleValueDimensionVectorSelector(IntFunction<Object> reader)
+    {
+      super(reader, false);
+      this.vector = new int[leftCursor.getMaxVectorSize()];
+      for (int i = 0; i < vector.length; i++) {
+        vector[i] = i;
+      }
+    }
+
+    @Override
+    public int[] getRowVector()
+    {
+      return vector;
+    }
+
+    @Override
+    public int getValueCardinality()
+    {
+      return CARDINALITY_UNKNOWN;
+    }
+
+    @Nullable
+    @Override
+    public String lookupName(int id)
+    {
+      return DimensionHandlerUtils.convertObjectToString(getValues()[id]);
+    }
+
+    @Override
+    public boolean nameLookupPossibleInAdvance()
+    {
+      return false;
+    }
+
+    @Nullable
+    @Override
+    public IdLookup idLookup()
+    {
+      return null;
+    }
+  }
+
+  private class RightMultiValueDimensionVectorSelector extends RightVectorSelector
+      implements MultiValueDimensionVectorSelector
+  {
+    private final IndexedInts[] vector;
+
+    RightMultiValueDimensionVectorSelector(IntFunction<Object> reader)
+    {
+      super(reader, false);
+      this.vector = new IndexedInts[leftCursor.getMaxVectorSize()];
+      for (int i = 0; i < vector.length; i++) {
+        final SingleIndexedInt row = new SingleIndexedInt();
+        row.setValue(i);
+        vector[i] = row;
+      }
+    }
+
+    @Override
+    public IndexedInts[] getRowVector()
+    {
+      return vector;
+    }
+
+    @Override
+    public int getValueCardinality()
+    {
+      return CARDINALITY_UNKNOWN;
+    }
+
+    @Nullable
+    @Override
+    public String lookupName(int id)
+    {
+      return DimensionHandlerUtils.convertObjectToString(getValues()[id]);
+    }
+
+    @Override
+    public boolean nameLookupPossibleInAdvance()
+    {
+      return false;
+    }
+
+    @Nullable
+    @Override
+    public IdLookup idLookup()
+    {
+      return null;
+    }
+  }
+
+  /**
+   * Reads numbers like {@link org.apache.druid.segment.join.table.IndexedTableColumnValueSelector}: values that are
+   * not numbers, and rows without a match, are null.
+   */
+  private class RightVectorValueSelector extends RightVectorSelector implements VectorValueSelector
+  {
+    private final long[] longVector;
+    private final float[] floatVector;
+    private final double[] doubleVector;
+    private final boolean[] nullVector;
+
+    private int longId = NULL_ID;
+    private int floatId = NULL_ID;
+    private int doubleId = NULL_ID;
+    private int nullId = NULL_ID;
+    private boolean hasNulls;
+
+    RightVectorValueSelector(IntFunction<Object> reader)
+    {
+      super(reader, false);
+      this.longVector = new long[leftCursor.getMaxVectorSize()];
+      this.floatVector = new float[leftCursor.getMaxVectorSize()];
+      this.doubleVector = new double[leftCursor.getMaxVectorSize()];
+      this.nullVector = new boolean[leftCursor.getMaxVectorSize()];
+    }
+
+    @Override
+    public long[] getLongVector()
+    {
+      if (longId != id) {
+        final Object[] values = getValues();
+        for (int i = 0; i < currentVectorSize; i++) {
+          longVector[i] = values[i] instanceof Number ? ((Number) values[i]).longValue() : 0L;
+        }
+        longId = id;
+      }
+
+      return longVector;
+    }
+
+    @Override
+    public float[] getFloatVector()
+    {
+      if (floatId != id) {
+        final Object[] values = getValues();
+        for (int i = 0; i < currentVectorSize; i++) {
+          floatVector[i] = values[i] instanceof Number ? ((Number) values[i]).floatValue() : 0f;
+        }
+        floatId = id;
+      }
+
+      return floatVector;
+    }
+
+    @Override
+    public double[] getDoubleVector()
+    {
+      if (doubleId != id) {
+        final Object[] values = getValues();
+        for (int i = 0; i < currentVectorSize; i++) {
+          doubleVector[i] = values[i] instanceof Number ? ((Number) values[i]).doubleValue() : 0d;
+        }
+        doubleId = id;
+      }
+
+      return doubleVector;
+    }
+
+    @Nullable
+    @Override
+    public boolean[] getNullVector()
+    {
+      if (nullId != id) {
+        final Object[] values = getValues();
+        hasNulls = false;
+        for (int i = 0; i < currentVectorSize; i++) {
+          nullVector[i] = !(values[i] instanceof Number);
+          hasNulls |= nullVector[i];
+        }
+        nullId = id;
+      }
+
+      return hasNulls ? nullVector : null;
+    }
+  }
+
+  private class RightVectorObjectSelector extends RightVectorSelector implements VectorObjectSelector
+  {
+    RightVectorObjectSelector(IntFunction<Object> reader, boolean stringValues)
+    {
+      super(reader, stringValues);
+    }
+
+    @Override
+    public Object[] getObjectVector()
+    {
+      return getValues();
+    }
+  }
+}
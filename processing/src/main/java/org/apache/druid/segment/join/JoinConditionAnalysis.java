@@ -184,6 +184,19 @@ public class JoinConditionAnalysis
     return canHashJoin;
   }
 
+  /**
+   * Returns whether this condition can be satisfied by a {@link VectorJoinMatcher}: it must be a single equi-condition
+   * whose left-hand side is a direct column access, so keys can be read from a vector selector on that column.
+   */
+  public boolean canVectorizeHashJoin()
+  {
+    return !isAlwaysFalse
+           && !isAlwaysTrue
+           && nonEquiConditions.isEmpty()
+           && equiConditions.size() == 1
+           && equiConditions.get(0).getLeftExpr().getBindingIfIdentifier() != null;
+  }
+
   /**
    * Returns the distinct column keys from the RHS required to evaluate the equi conditions.
    */
@@ -23,6 +23,7 @@ import org.apache.druid.java.util.common.io.Closer;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.ReferenceCountedObject;
 import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
 
 import javax.annotation.Nullable;
 import java.util.List;
@@ -33,7 +34,8 @@ import java.util.Set;
  * Represents something that can be the right-hand side of a join.
  *
  * This class's most important method is {@link #makeJoinMatcher}. Its main user is
- * {@link HashJoinEngine#makeJoinCursor}.
+ * {@link HashJoinEngine#makeJoinCursor}. Its vectorized counterpart is {@link #makeVectorJoinMatcher}, used by
+ * {@link HashJoinVectorCursor}.
  */
 public interface Joinable extends ReferenceCountedObject
 {
@@ -85,6 +87,37 @@ public interface Joinable extends ReferenceCountedObject
       Closer closer
   );
 
+  /**
+   * Returns whether {@link #makeVectorJoinMatcher} can be called with this condition. Joinables that cannot be
+   * probed a vector at a time return false, and joins onto them run through {@link #makeJoinMatcher} instead.
+   */
+  default boolean canVectorizeJoin(JoinConditionAnalysis condition)
+  {
+    return false;
+  }
+
+  /**
+   * Creates a VectorJoinMatcher that can be used to implement an inner or left join onto this Joinable. Check
+   * {@link #canVectorizeJoin} before calling this method.
+   *
+   * @param leftColumnSelectorFactory vector column selector factory that allows access to the left-hand side of the
+   *                                  join
+   * @param condition                 join condition for the matcher
+   * @param closer                    closer that will run after join cursor has completed to clean up any per query
+   *                                  resources the joinable uses
+   * @return the matcher
+   */
+  default VectorJoinMatcher makeVectorJoinMatcher(
+      VectorColumnSelectorFactory leftColumnSelectorFactory,
+      JoinConditionAnalysis condition,
+      Closer closer
+  )
+  {
+    throw new UnsupportedOperationException(
+        "Cannot vectorize. Check 'canVectorizeJoin' before calling 'makeVectorJoinMatcher'."
+    );
+  }
+
   /**
    * Searches a column from this Joinable for a particular value, finds rows that match,
    * and returns values of a second column for those rows.
@@ -23,6 +23,7 @@ import com.google.common.base.Preconditions;
 import org.apache.druid.java.util.common.IAE;
 import org.apache.druid.java.util.common.logger.Logger;
 import org.apache.druid.query.Query;
+import org.apache.druid.query.QueryContexts;
 import org.apache.druid.query.cache.CacheKeyBuilder;
 import org.apache.druid.query.filter.Filter;
 import org.apache.druid.query.planning.DataSourceAnalysis;
@@ -98,7 +99,8 @@ public class JoinableFactoryWrapper
                     baseSegment,
                     baseFilter,
                     joinableClauses.getJoinableClauses(),
-                    joinFilterPreAnalysis
+                    joinFilterPreAnalysis,
+                    QueryContexts.getVectorizeJoins(query)
                 );
           }
         }
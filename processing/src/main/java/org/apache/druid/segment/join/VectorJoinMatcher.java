@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.join;
+
+import javax.annotation.Nullable;
+import java.util.function.IntFunction;
+
+/**
+ * The vectorized counterpart of {@link JoinMatcher}, returned by {@link Joinable#makeVectorJoinMatcher} and used by
+ * {@link HashJoinVectorCursor} to implement a join.
+ *
+ * Instead of matching one left-hand row at a time, {@link #matchVector()} probes the joinable with all keys of the
+ * current vector of the left-hand side at once. Matches are then laid out in a compressed form: the matched row ids
+ * of left-hand row "i" are the elements of {@link #getMatchedRows()} from {@code getMatchOffsets()[i]} (inclusive)
+ * to {@code getMatchOffsets()[i + 1]} (exclusive). A typical usage would go something like:
+ *
+ * <pre>
+ * matcher.matchVector();
+ * final int[] offsets = matcher.getMatchOffsets();
+ * final int[] rows = matcher.getMatchedRows();
+ * for (int i = 0; i < leftVectorSize; i++) {
+ *   for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+ *     // Do something with the match of left-hand row "i" and right-hand row "rows[j]"
+ *   }
+ * }
+ * </pre>
+ *
+ * Only inner and left joins are supported, so there is no equivalent of {@link JoinMatcher#matchRemainder()}.
+ */
+public interface VectorJoinMatcher
+{
+  /**
+   * Matches the join condition against every row of the current vector of the left-hand side.
+   */
+  void matchVector();
+
+  /**
+   * Returns the offsets into {@link #getMatchedRows()} of the matches of each row of the current left-hand vector.
+   * Has one more element than the current vector size; only valid after {@link #matchVector()}.
+   */
+  int[] getMatchOffsets();
+
+  /**
+   * Returns the matched row ids, ordered by the left-hand row they match. Ids are only meaningful to the readers
+   * returned by {@link #makeColumnReader}, and are valid until the next call to {@link #matchVector()}.
+   */
+  int[] getMatchedRows();
+
+  /**
+   * Returns a function that reads the value of one of this joinable's columns for a matched row id, or null if the
+   * column does not exist.
+   */
+  @Nullable
+  IntFunction<Object> makeColumnReader(String columnName);
+}
@@ -30,6 +30,8 @@ import org.apache.druid.segment.column.ValueType;
 import org.apache.druid.segment.join.JoinConditionAnalysis;
 import org.apache.druid.segment.join.JoinMatcher;
 import org.apache.druid.segment.join.Joinable;
+import org.apache.druid.segment.join.VectorJoinMatcher;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
 
 import javax.annotation.Nullable;
 import java.io.Closeable;
@@ -92,6 +94,22 @@ public class LookupJoinable implements Joinable
     return LookupJoinMatcher.create(extractor, leftSelectorFactory, condition, remainderNeeded);
   }
 
+  @Override
+  public boolean canVectorizeJoin(JoinConditionAnalysis condition)
+  {
+    return LookupVectorJoinMatcher.canVectorize(condition);
+  }
+
+  @Override
+  public VectorJoinMatcher makeVectorJoinMatcher(
+      final VectorColumnSelectorFactory leftSelectorFactory,
+      final JoinConditionAnalysis condition,
+      Closer closer
+  )
+  {
+    return LookupVectorJoinMatcher.create(extractor, leftSelectorFactory, condition);
+  }
+
   @Override
   public Optional<Set<String>> getCorrelatedColumnValues(
       String searchColumnName,
@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.join.lookup;
+
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.query.QueryUnsupportedException;
+import org.apache.druid.query.lookup.LookupExtractor;
+import org.apache.druid.segment.ColumnProcessors;
+import org.apache.druid.segment.DimensionHandlerUtils;
+import org.apache.druid.segment.VectorColumnProcessorFactory;
+import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.data.IndexedInts;
+import org.apache.druid.segment.join.JoinConditionAnalysis;
+import org.apache.druid.segment.join.VectorJoinMatcher;
+import org.apache.druid.segment.vector.MultiValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.ReadableVectorInspector;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorObjectSelector;
+import org.apache.druid.segment.vector.VectorValueSelector;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Vectorized counterpart of {@link LookupJoinMatcher}. A lookup matches each key at most once, so the matched row id
+ * of a left-hand row is the position of that row in the current left-hand vector, and the key and value it matched
+ * are kept in per-vector arrays.
+ */
+public class LookupVectorJoinMatcher implements VectorJoinMatcher
+{
+  private final LookupExtractor extractor;
+  private final ReadableVectorInspector leftInspector;
+  private final KeyReader keyReader;
+  private final String[] keys;
+  private final String[] values;
+  private final int[] matchOffsets;
+  private final int[] matchedRows;
+
+  private LookupVectorJoinMatcher(
+      final LookupExtractor extractor,
+      final VectorColumnSelectorFactory leftSelectorFactory,
+      final String leftColumn
+  )
+  {
+    final int maxVectorSize = leftSelectorFactory.getReadableVectorInspector().getMaxVectorSize();
+
+    this.extractor = extractor;
+    this.leftInspector = leftSelectorFactory.getReadableVectorInspector();
+    this.keyReader = ColumnProcessors.makeVectorProcessor(leftColumn, KeyReaderFactory.INSTANCE, leftSelectorFactory);
+    this.keys = new String[maxVectorSize];
+    this.values = new String[maxVectorSize];
+    this.matchOffsets = new int[maxVectorSize + 1];
+    this.matchedRows = new int[maxVectorSize];
+  }
+
+  public static LookupVectorJoinMatcher create(
+      LookupExtractor extractor,
+      VectorColumnSelectorFactory leftSelectorFactory,
+      JoinConditionAnalysis condition
+  )
+  {
+    if (!canVectorize(condition)) {
+      throw new IAE("Cannot build vectorized lookup join matcher on condition: %s", condition);
+    }
+
+    return new LookupVectorJoinMatcher(
+        extractor,
+        leftSelectorFactory,
+        condition.getEquiConditions().get(0).getLeftExpr().getBindingIfIdentifier()
+    );
+  }
+
+  static boolean canVectorize(final JoinConditionAnalysis condition)
+  {
+    return condition.canVectorizeHashJoin()
+           && LookupColumnSelectorFactory.KEY_COLUMN.equals(condition.getEquiConditions().get(0).getRightColumn());
+  }
+
+  @Override
+  public void matchVector()
+  {
+    final int numRows = leftInspector.getCurrentVectorSize();
+    keyReader.read(keys, numRows);
+
+    int numMatches = 0;
+    for (int i = 0; i < numRows; i++) {
+      final String theKey = keys[i];
+      final String theValue = theKey == null ? null : extractor.apply(theKey);
+
+      if (theValue != null) {
+        values[i] = theValue;
+        matchedRows[numMatches++] = i;
+      }
+
+      matchOffsets[i + 1] = numMatches;
+    }
+  }
+
+  @Override
+  public int[] getMatchOffsets()
+  {
+    return matchOffsets;
+  }
+
+  @Override
+  public int[] getMatchedRows()
+  {
+    return matchedRows;
+  }
+
+  @Nullable
+  @Override
+  public IntFunction<Object> makeColumnReader(final String columnName)
+  {
+    if (LookupColumnSelectorFactory.KEY_COLUMN.equals(columnName)) {
+      return row -> keys[row];
+    } else if (LookupColumnSelectorFactory.VALUE_COLUMN.equals(columnName)) {
+      return row -> values[row];
+    } else {
+      return null;
+    }
+  }
+
+  private interface KeyReader
+  {
+    /**
+     * Reads the keys of the first "numRows" rows of the current left-hand vector into "keys".
+     */
+    void read(String[] keys, int numRows);
+  }
+
+  /**
+   * Reads left-hand keys as strings, the same way {@link LookupJoinMatcher} does.
+   */
+  private static class KeyReaderFactory implements VectorColumnProcessorFactory<KeyReader>
+  {
+    private static final KeyReaderFactory INSTANCE = new KeyReaderFactory();
+
+    @Override
+    public KeyReader makeSingleValueDimensionProcessor(
+        ColumnCapabilities capabilities,
+        SingleValueDimensionVectorSelector selector
+    )
+    {
+      return (keys, numRows) -> {
+        final int[] ids = selector.getRowVector();
+        for (int i = 0; i < numRows; i++) {
+          keys[i] = selector.lookupName(ids[i]);
+        }
+      };
+    }
+
+    @Override
+    public KeyReader makeMultiValueDimensionProcessor(
+        ColumnCapabilities capabilities,
+        MultiValueDimensionVectorSelector selector
+    )
+    {
+      return (keys, numRows) -> {
+        final IndexedInts[] rows = selector.getRowVector();
+        for (int i = 0; i < numRows; i++) {
+          final IndexedInts row = rows[i];
+
+          if (row.size() == 1) {
+            keys[i] = selector.lookupName(row.get(0));
+          } else if (row.size() == 0) {
+            keys[i] = null;
+          } else {
+            // Multi-valued rows are not handled by the join system right now
+            throw new QueryUnsupportedException("Joining against a multi-value dimension is not supported.");
+          }
+        }
+      };
+    }
+
+    @Override
+    public KeyReader makeFloatProcessor(ColumnCapabilities capabilities, VectorValueSelector selector)
+    {
+      return (keys, numRows) -> {
+        final float[] vector = selector.getFloatVector();
+        final boolean[] nulls = NullHandling.replaceWithDefault() ? null : selector.getNullVector();
+        for (int i = 0; i < numRows; i++) {
+          keys[i] = nulls != null && nulls[i] ? null : DimensionHandlerUtils.convertObjectToString(vector[i]);
+        }
+      };
+    }
+
+    @Override
+    public KeyReader makeDoubleProcessor(ColumnCapabilities capabilities, VectorValueSelector selector)
+    {
+      return (keys, numRows) -> {
+        final double[] vector = selector.getDoubleVector();
+        final boolean[] nulls = NullHandling.replaceWithDefault() ? null : selector.getNullVector();
+        for (int i = 0; i < numRows; i++) {
+          keys[i] = nulls != null && nulls[i] ? null : DimensionHandlerUtils.convertObjectToString(vector[i]);
+        }
+      };
+    }
+
+    @Override
+    public KeyReader makeLongProcessor(ColumnCapabilities capabilities, VectorValueSelector selector)
+    {
+      return (keys, numRows) -> {
+        final long[] vector = selector.getLongVector();
+        final boolean[] nulls = NullHandling.replaceWithDefault() ? null : selector.getNullVector();
+        for (int i = 0; i < numRows; i++) {
+          keys[i] = nulls != null && nulls[i] ? null : DimensionHandlerUtils.convertObjectToString(vector[i]);
+        }
+      };
+    }
+
+    @Override
+    public KeyReader makeObjectProcessor(ColumnCapabilities capabilities, VectorObjectSelector selector)
+    {
+      if (capabilities.getType() != ValueType.STRING) {
+        // Complex keys never match, like in LookupJoinMatcher.
+        return (keys, numRows) -> {
+          for (int i = 0; i < numRows; i++) {
+            keys[i] = null;
+          }
+        };
+      }
+
+      // Strings that are not dictionary-encoded, such as virtual columns.
+      return (keys, numRows) -> {
+        final Object[] vector = selector.getObjectVector();
+        for (int i = 0; i < numRows; i++) {
+          final Object key = vector[i];
+
+          if (key instanceof List) {
+            final List<?> keyValues = (List<?>) key;
+            if (keyValues.size() == 1) {
+              keys[i] = DimensionHandlerUtils.convertObjectToString(keyValues.get(0));
+            } else if (keyValues.isEmpty()) {
+              keys[i] = null;
+            } else {
+              // Multi-valued rows are not handled by the join system right now
+              throw new QueryUnsupportedException("Joining against a multi-value dimension is not supported.");
+            }
+          } else {
+            keys[i] = DimensionHandlerUtils.convertObjectToString(key);
+          }
+        }
+      };
+    }
+  }
+}
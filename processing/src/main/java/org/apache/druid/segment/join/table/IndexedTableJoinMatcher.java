@@ -149,7 +149,7 @@ public class IndexedTableJoinMatcher implements JoinMatcher
 
   }
 
-  private static IndexedTable.Index getIndex(
+  static IndexedTable.Index getIndex(
       final IndexedTable table,
       final Equality condition
   )
@@ -558,7 +558,7 @@ public class IndexedTableJoinMatcher implements JoinMatcher
     }
   }
 
-  private interface Int2IntListMap
+  interface Int2IntListMap
   {
     IntList getAndLoadIfAbsent(int key);
   }
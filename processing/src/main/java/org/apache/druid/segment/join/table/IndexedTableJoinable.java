@@ -26,6 +26,8 @@ import org.apache.druid.segment.column.ColumnCapabilities;
 import org.apache.druid.segment.join.JoinConditionAnalysis;
 import org.apache.druid.segment.join.JoinMatcher;
 import org.apache.druid.segment.join.Joinable;
+import org.apache.druid.segment.join.VectorJoinMatcher;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
 
 import javax.annotation.Nullable;
 import java.io.Closeable;
@@ -88,6 +90,23 @@ public class IndexedTableJoinable implements Joinable
     );
   }
 
+  @Override
+  public boolean canVectorizeJoin(final JoinConditionAnalysis condition)
+  {
+    return condition.canVectorizeHashJoin()
+           && table.keyColumns().contains(condition.getEquiConditions().get(0).getRightColumn());
+  }
+
+  @Override
+  public VectorJoinMatcher makeVectorJoinMatcher(
+      final VectorColumnSelectorFactory leftColumnSelectorFactory,
+      final JoinConditionAnalysis condition,
+      final Closer closer
+  )
+  {
+    return new IndexedTableVectorJoinMatcher(table, leftColumnSelectorFactory, condition, closer);
+  }
+
   @Override
   public Optional<Set<String>> getCorrelatedColumnValues(
       String searchColumnName,
@@ -0,0 +1,317 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.join.table;
+
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.ints.IntLists;
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.java.util.common.io.Closer;
+import org.apache.druid.query.QueryUnsupportedException;
+import org.apache.druid.segment.ColumnProcessors;
+import org.apache.druid.segment.DimensionDictionarySelector;
+import org.apache.druid.segment.VectorColumnProcessorFactory;
+import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.data.IndexedInts;
+import org.apache.druid.segment.join.Equality;
+import org.apache.druid.segment.join.JoinConditionAnalysis;
+import org.apache.druid.segment.join.VectorJoinMatcher;
+import org.apache.druid.segment.vector.MultiValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.ReadableVectorInspector;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorObjectSelector;
+import org.apache.druid.segment.vector.VectorValueSelector;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Vectorized counterpart of {@link IndexedTableJoinMatcher}. Matched row ids are row numbers of the table.
+ *
+ * Like the non-vectorized matcher, keys read from dictionary-encoded columns with a known cardinality are looked up
+ * in the table index at most once per dictionary id, no matter how many rows or vectors they appear in.
+ */
+public class IndexedTableVectorJoinMatcher implements VectorJoinMatcher
+{
+  private final IndexedTable table;
+  private final ReadableVectorInspector leftInspector;
+  private final ConditionMatcher conditionMatcher;
+  private final Closer closer;
+  private final int[] matchOffsets;
+  private int[] matchedRows;
+  private int numMatches;
+
+  IndexedTableVectorJoinMatcher(
+      final IndexedTable table,
+      final VectorColumnSelectorFactory leftSelectorFactory,
+      final JoinConditionAnalysis condition,
+      final Closer closer
+  )
+  {
+    if (!condition.canVectorizeHashJoin()) {
+      throw new IAE(
+          "Cannot build vectorized hash-join matcher on condition: %s",
+          condition.getOriginalExpression()
+      );
+    }
+
+    final Equality equality = condition.getEquiConditions().get(0);
+    final IndexedTable.Index index = IndexedTableJoinMatcher.getIndex(table, equality);
+
+    this.table = table;
+    this.leftInspector = leftSelectorFactory.getReadableVectorInspector();
+    this.conditionMatcher = ColumnProcessors.makeVectorProcessor(
+        equality.getLeftExpr().getBindingIfIdentifier(),
+        new ConditionMatcherFactory(index),
+        leftSelectorFactory
+    );
+    this.closer = closer;
+    this.matchOffsets = new int[leftInspector.getMaxVectorSize() + 1];
+    this.matchedRows = new int[leftInspector.getMaxVectorSize()];
+  }
+
+  @Override
+  public void matchVector()
+  {
+    numMatches = 0;
+    conditionMatcher.match(leftInspector.getCurrentVectorSize());
+  }
+
+  @Override
+  public int[] getMatchOffsets()
+  {
+    return matchOffsets;
+  }
+
+  @Override
+  public int[] getMatchedRows()
+  {
+    return matchedRows;
+  }
+
+  @Nullable
+  @Override
+  public IntFunction<Object> makeColumnReader(final String columnName)
+  {
+    final int columnNumber = table.rowSignature().indexOf(columnName);
+
+    if (columnNumber < 0) {
+      return null;
+    }
+
+    final IndexedTable.Reader reader = table.columnReader(columnNumber);
+    closer.register(reader);
+    return reader::read;
+  }
+
+  /**
+   * Records the matches of left-hand row "row": all rows of "rows", which may be empty.
+   */
+  private void setMatches(final int row, final IntList rows)
+  {
+    final int size = rows.size();
+
+    if (size == 1) {
+      ensureCapacity(numMatches + 1);
+      matchedRows[numMatches++] = rows.getInt(0);
+    } else if (size > 1) {
+      ensureCapacity(numMatches + size);
+      rows.getElements(0, matchedRows, numMatches, size);
+      numMatches += size;
+    }
+
+    matchOffsets[row + 1] = numMatches;
+  }
+
+  private void ensureCapacity(final int capacity)
+  {
+    if (capacity > matchedRows.length) {
+      matchedRows = Arrays.copyOf(matchedRows, Math.max(capacity, matchedRows.length * 2));
+    }
+  }
+
+  private interface ConditionMatcher
+  {
+    /**
+     * Calls {@link #setMatches} for each of the first "numRows" rows of the current left-hand vector.
+     */
+    void match(int numRows);
+  }
+
+  /**
+   * Makes condition matchers that look up a whole vector of left-hand keys in the table index.
+   */
+  private class ConditionMatcherFactory implements VectorColumnProcessorFactory<ConditionMatcher>
+  {
+    private final IndexedTable.Index index;
+
+    ConditionMatcherFactory(IndexedTable.Index index)
+    {
+      this.index = index;
+    }
+
+    @Override
+    public ConditionMatcher makeSingleValueDimensionProcessor(
+        ColumnCapabilities capabilities,
+        SingleValueDimensionVectorSelector selector
+    )
+    {
+      final int cardinality = selector.getValueCardinality();
+
+      if (cardinality == DimensionDictionarySelector.CARDINALITY_UNKNOWN) {
+        // The dimension id is not valid outside the context of a specific vector, so we cannot use a cache.
+        return numRows -> {
+          final int[] ids = selector.getRowVector();
+          for (int i = 0; i < numRows; i++) {
+            setMatches(i, index.find(selector.lookupName(ids[i])));
+          }
+        };
+      } else {
+        final IntFunction<IntList> loader = dimensionId -> index.find(selector.lookupName(dimensionId));
+        final IndexedTableJoinMatcher.Int2IntListMap cache =
+            cardinality <= IndexedTableJoinMatcher.ConditionMatcherFactory.CACHE_MAX_SIZE
+            ? new IndexedTableJoinMatcher.Int2IntListLookupTable(cardinality, loader)
+            : new IndexedTableJoinMatcher.Int2IntListLruCache(
+                IndexedTableJoinMatcher.ConditionMatcherFactory.CACHE_MAX_SIZE,
+                loader
+            );
+
+        return numRows -> {
+          final int[] ids = selector.getRowVector();
+          for (int i = 0; i < numRows; i++) {
+            setMatches(i, cache.getAndLoadIfAbsent(ids[i]));
+          }
+        };
+      }
+    }
+
+    @Override
+    public ConditionMatcher makeMultiValueDimensionProcessor(
+        ColumnCapabilities capabilities,
+        MultiValueDimensionVectorSelector selector
+    )
+    {
+      return numRows -> {
+        final IndexedInts[] rows = selector.getRowVector();
+        for (int i = 0; i < numRows; i++) {
+          final IndexedInts row = rows[i];
+
+          if (row.size() == 1) {
+            setMatches(i, index.find(selector.lookupName(row.get(0))));
+          } else if (row.size() == 0) {
+            setMatches(i, IntLists.EMPTY_LIST);
+          } else {
+            // Multi-valued rows are not handled by the join system right now
+            throw new QueryUnsupportedException("Joining against a multi-value dimension is not supported.");
+          }
+        }
+      };
+    }
+
+    @Override
+    public ConditionMatcher makeFloatProcessor(ColumnCapabilities capabilities, VectorValueSelector selector)
+    {
+      return numRows -> {
+        final float[] vector = selector.getFloatVector();
+        final boolean[] nulls = NullHandling.replaceWithDefault() ? null : selector.getNullVector();
+        for (int i = 0; i < numRows; i++) {
+          setMatches(i, nulls != null && nulls[i] ? IntLists.EMPTY_LIST : index.find(vector[i]));
+        }
+      };
+    }
+
+    @Override
+    public ConditionMatcher makeDoubleProcessor(ColumnCapabilities capabilities, VectorValueSelector selector)
+    {
+      return numRows -> {
+        final double[] vector = selector.getDoubleVector();
+        final boolean[] nulls = NullHandling.replaceWithDefault() ? null : selector.getNullVector();
+        for (int i = 0; i < numRows; i++) {
+          setMatches(i, nulls != null && nulls[i] ? IntLists.EMPTY_LIST : index.find(vector[i]));
+        }
+      };
+    }
+
+    @Override
+    public ConditionMatcher makeLongProcessor(ColumnCapabilities capabilities, VectorValueSelector selector)
+    {
+      if (index.keyType() == ValueType.LONG && index.areKeysUnique()) {
+        // Specialized to use findUniqueLong, which avoids boxing the key.
+        return numRows -> {
+          final long[] vector = selector.getLongVector();
+          final boolean[] nulls = NullHandling.replaceWithDefault() ? null : selector.getNullVector();
+          for (int i = 0; i < numRows; i++) {
+            if (nulls == null || !nulls[i]) {
+              final int row = index.findUniqueLong(vector[i]);
+              if (row != IndexedTable.Index.NOT_FOUND) {
+                ensureCapacity(numMatches + 1);
+                matchedRows[numMatches++] = row;
+              }
+            }
+            matchOffsets[i + 1] = numMatches;
+          }
+        };
+      } else {
+        return numRows -> {
+          final long[] vector = selector.getLongVector();
+          final boolean[] nulls = NullHandling.replaceWithDefault() ? null : selector.getNullVector();
+          for (int i = 0; i < numRows; i++) {
+            setMatches(i, nulls != null && nulls[i] ? IntLists.EMPTY_LIST : index.find(vector[i]));
+          }
+        };
+      }
+    }
+
+    @Override
+    public ConditionMatcher makeObjectProcessor(ColumnCapabilities capabilities, VectorObjectSelector selector)
+    {
+      if (capabilities.getType() != ValueType.STRING) {
+        // Complex keys never match, like in IndexedTableJoinMatcher.
+        return numRows -> Arrays.fill(matchOffsets, 1, numRows + 1, numMatches);
+      }
+
+      // Strings that are not dictionary-encoded, such as virtual columns.
+      return numRows -> {
+        final Object[] vector = selector.getObjectVector();
+        for (int i = 0; i < numRows; i++) {
+          final Object key = vector[i];
+
+          if (key instanceof List) {
+            final List<?> values = (List<?>) key;
+            if (values.size() == 1) {
+              setMatches(i, index.find(values.get(0)));
+            } else if (values.isEmpty()) {
+              setMatches(i, IntLists.EMPTY_LIST);
+            } else {
+              // Multi-valued rows are not handled by the join system right now
+              throw new QueryUnsupportedException("Joining against a multi-value dimension is not supported.");
+            }
+          } else {
+            setMatches(i, index.find(key));
+          }
+        }
+      };
+    }
+  }
+}
@@ -61,7 +61,7 @@ public class BroadcastJoinableMMappedQueryableSegmentizerFactory implements Segm
   public Segment factorize(DataSegment dataSegment, File parentDir, boolean lazy, SegmentLazyLoadFailCallback loadFailed) throws SegmentLoadingException
   {
     try {
-      return new QueryableIndexSegment(indexIO.loadIndex(parentDir, lazy, loadFailed), dataSegment.getId()) {
+      return new QueryableIndexSegment(indexIO.loadIndex(parentDir, lazy, loadFailed), dataSegment.getId(), true) {
         @Nullable
         @Override
         public <T> T as(Class<T> clazz)
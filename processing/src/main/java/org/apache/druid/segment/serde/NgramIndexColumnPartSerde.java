@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.serde;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Suppliers;
+import org.apache.druid.segment.column.NgramIndex;
+import org.apache.druid.segment.data.BitmapSerdeFactory;
+import org.apache.druid.segment.data.ImmutableNgramIndex;
+import org.apache.druid.segment.data.NgramIndexSerializer;
+
+import javax.annotation.Nullable;
+
+/**
+ * Part of the {@link org.apache.druid.segment.column.ColumnDescriptor} of a string column holding its
+ * {@link NgramIndex}. It must come before the {@link DictionaryEncodedColumnPartSerde}, which reads its spatial index
+ * from the rest of the buffer.
+ */
+public class NgramIndexColumnPartSerde implements ColumnPartSerde
+{
+  private final BitmapSerdeFactory bitmapSerdeFactory;
+  @Nullable
+  private final Serializer serializer;
+
+  private NgramIndexColumnPartSerde(BitmapSerdeFactory bitmapSerdeFactory, @Nullable Serializer serializer)
+  {
+    this.bitmapSerdeFactory = bitmapSerdeFactory;
+    this.serializer = serializer;
+  }
+
+  @JsonCreator
+  public static NgramIndexColumnPartSerde createDeserializer(
+      @JsonProperty("bitmapSerdeFactory") BitmapSerdeFactory bitmapSerdeFactory
+  )
+  {
+    return new NgramIndexColumnPartSerde(bitmapSerdeFactory, null);
+  }
+
+  public static NgramIndexColumnPartSerde forSerializer(NgramIndexSerializer serializer)
+  {
+    return new NgramIndexColumnPartSerde(serializer.getBitmapSerdeFactory(), serializer);
+  }
+
+  @JsonProperty
+  public BitmapSerdeFactory getBitmapSerdeFactory()
+  {
+    return bitmapSerdeFactory;
+  }
+
+  @Nullable
+  @Override
+  public Serializer getSerializer()
+  {
+    return serializer;
+  }
+
+  @Override
+  public Deserializer getDeserializer()
+  {
+    return (buffer, builder, columnConfig) -> {
+      final NgramIndex ngramIndex = ImmutableNgramIndex.read(buffer, bitmapSerdeFactory, builder.getFileMapper());
+      builder.setNgramIndex(Suppliers.ofInstance(ngramIndex));
+    };
+  }
+}
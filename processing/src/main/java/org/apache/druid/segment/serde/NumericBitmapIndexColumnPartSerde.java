@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.serde;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Suppliers;
+import org.apache.druid.segment.column.NumericBitmapIndex;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.data.BitmapSerdeFactory;
+import org.apache.druid.segment.data.ImmutableNumericBitmapIndex;
+import org.apache.druid.segment.data.NumericBitmapIndexSerializer;
+
+import javax.annotation.Nullable;
+
+/**
+ * Part of the {@link org.apache.druid.segment.column.ColumnDescriptor} of a numeric column holding its
+ * {@link NumericBitmapIndex}. Like {@link ZoneMapColumnPartSerde}, it must come before the part holding the values of
+ * the column.
+ */
+public class NumericBitmapIndexColumnPartSerde implements ColumnPartSerde
+{
+  private final ValueType valueType;
+  private final BitmapSerdeFactory bitmapSerdeFactory;
+  @Nullable
+  private final Serializer serializer;
+
+  private NumericBitmapIndexColumnPartSerde(
+      ValueType valueType,
+      BitmapSerdeFactory bitmapSerdeFactory,
+      @Nullable Serializer serializer
+  )
+  {
+    this.valueType = valueType;
+    this.bitmapSerdeFactory = bitmapSerdeFactory;
+    this.serializer = serializer;
+  }
+
+  @JsonCreator
+  public static NumericBitmapIndexColumnPartSerde createDeserializer(
+      @JsonProperty("valueType") ValueType valueType,
+      @JsonProperty("bitmapSerdeFactory") BitmapSerdeFactory bitmapSerdeFactory
+  )
+  {
+    return new NumericBitmapIndexColumnPartSerde(valueType, bitmapSerdeFactory, null);
+  }
+
+  public static NumericBitmapIndexColumnPartSerde forSerializer(NumericBitmapIndexSerializer serializer)
+  {
+    return new NumericBitmapIndexColumnPartSerde(serializer.getType(), serializer.getBitmapSerdeFactory(), serializer);
+  }
+
+  @JsonProperty
+  public ValueType getValueType()
+  {
+    return valueType;
+  }
+
+  @JsonProperty
+  public BitmapSerdeFactory getBitmapSerdeFactory()
+  {
+    return bitmapSerdeFactory;
+  }
+
+  @Nullable
+  @Override
+  public Serializer getSerializer()
+  {
+    return serializer;
+  }
+
+  @Override
+  public Deserializer getDeserializer()
+  {
+    return (buffer, builder, columnConfig) -> {
+      final NumericBitmapIndex bitmapIndex = ImmutableNumericBitmapIndex.read(
+          buffer,
+          valueType,
+          bitmapSerdeFactory,
+          builder.getFileMapper()
+      );
+      builder.setNumericBitmapIndex(Suppliers.ofInstance(bitmapIndex));
+    };
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.serde;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Suppliers;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.column.ZoneMap;
+import org.apache.druid.segment.data.ImmutableZoneMap;
+import org.apache.druid.segment.data.ZoneMapSerializer;
+
+import javax.annotation.Nullable;
+
+/**
+ * Part of the {@link org.apache.druid.segment.column.ColumnDescriptor} of a numeric column holding its
+ * {@link ZoneMap}. It must come before the part holding the values of the column, because numeric parts like
+ * {@link LongNumericColumnPartSerdeV2} read their null value bitmap from the rest of the buffer.
+ */
+public class ZoneMapColumnPartSerde implements ColumnPartSerde
+{
+  private final ValueType valueType;
+  @Nullable
+  private final Serializer serializer;
+
+  private ZoneMapColumnPartSerde(ValueType valueType, @Nullable Serializer serializer)
+  {
+    this.valueType = valueType;
+    this.serializer = serializer;
+  }
+
+  @JsonCreator
+  public static ZoneMapColumnPartSerde createDeserializer(
+      @JsonProperty("valueType") ValueType valueType
+  )
+  {
+    return new ZoneMapColumnPartSerde(valueType, null);
+  }
+
+  public static ZoneMapColumnPartSerde forSerializer(ZoneMapSerializer serializer)
+  {
+    return new ZoneMapColumnPartSerde(serializer.getType(), serializer);
+  }
+
+  @JsonProperty
+  public ValueType getValueType()
+  {
+    return valueType;
+  }
+
+  @Nullable
+  @Override
+  public Serializer getSerializer()
+  {
+    return serializer;
+  }
+
+  @Override
+  public Deserializer getDeserializer()
+  {
+    return (buffer, builder, columnConfig) -> {
+      final ZoneMap zoneMap = ImmutableZoneMap.read(buffer, valueType);
+      builder.setZoneMap(Suppliers.ofInstance(zoneMap));
+    };
+  }
+}
@@ -19,33 +19,64 @@
 
 package org.apache.druid.segment.vector;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.query.filter.BitmapIndexSelector;
 import org.apache.druid.query.filter.Filter;
+import org.apache.druid.query.filter.ZoneMatcher;
 import org.apache.druid.query.filter.vector.ReadableVectorMatch;
 import org.apache.druid.query.filter.vector.VectorMatch;
 import org.apache.druid.query.filter.vector.VectorValueMatcher;
 
+import javax.annotation.Nullable;
+
+/**
+ * Vector offset over the rows of a base offset that match a filter. This is the first phase of a late materialization:
+ * the filter is evaluated on the columns it reads, one base vector at a time, and the matching rows of several base
+ * vectors are compacted into full vectors of this offset, so that the columns read by the query after filtering are
+ * only read for the matching rows, and in as few vectors as possible when the filter is selective.
+ *
+ * A vector of this offset whose rows are all the rows of the current base vector is the base vector itself, with its
+ * id. Other vectors may span several base vectors and have ids of their own, which are negative so that they never
+ * collide with the ids of the base offset.
+ */
 public class FilteredVectorOffset implements VectorOffset
 {
   private final VectorOffset baseOffset;
   private final VectorValueMatcher filterMatcher;
+  @Nullable
+  private final ZoneMatcher zoneMatcher;
+  private final int maxVectorSize;
+
+  // matching rows of the base vectors evaluated so far which were not returned yet, the first currentVectorSize of
+  // which are the current vector; twice the vector size since a base vector is evaluated while there is room left
   private final int[] offsets;
+  private int numOffsets = 0;
   private int currentVectorSize = 0;
   private boolean allTrue = false;
+  private int compactedVectorId = NULL_ID;
 
-  private FilteredVectorOffset(final VectorOffset baseOffset, final VectorValueMatcher filterMatcher)
+  @VisibleForTesting
+  FilteredVectorOffset(
+      final VectorOffset baseOffset,
+      final VectorValueMatcher filterMatcher,
+      @Nullable final ZoneMatcher zoneMatcher
+  )
   {
     this.baseOffset = baseOffset;
     this.filterMatcher = filterMatcher;
-    this.offsets = new int[baseOffset.getMaxVectorSize()];
-    advanceWhileVectorIsEmptyAndPopulateOffsets();
+    this.zoneMatcher = zoneMatcher;
+    this.maxVectorSize = baseOffset.getMaxVectorSize();
+    this.offsets = new int[2 * maxVectorSize];
+    populateOffsets();
   }
 
   public static FilteredVectorOffset create(
       final VectorOffset baseOffset,
       final VectorColumnSelectorFactory baseColumnSelectorFactory,
-      final Filter filter
+      final Filter filter,
+      @Nullable final BitmapIndexSelector bitmapIndexSelector
   )
   {
     // This is not the same logic as the row-by-row FilteredOffset, which uses bitmaps whenever possible.
@@ -53,7 +84,8 @@ public class FilteredVectorOffset implements VectorOffset
     // it for vector matchers yet. So let's keep this method simple for now, and try to harmonize them in the future.
     Preconditions.checkState(filter.canVectorizeMatcher(baseColumnSelectorFactory), "Cannot vectorize");
     final VectorValueMatcher filterMatcher = filter.makeVectorMatcher(baseColumnSelectorFactory);
-    return new FilteredVectorOffset(baseOffset, filterMatcher);
+    final ZoneMatcher zoneMatcher = bitmapIndexSelector == null ? null : filter.makeZoneMatcher(bitmapIndexSelector);
+    return new FilteredVectorOffset(baseOffset, filterMatcher, zoneMatcher);
   }
 
   @Override
@@ -61,14 +93,19 @@ public class FilteredVectorOffset implements VectorOffset
   {
     // Should not be called when the offset is empty.
     Preconditions.checkState(currentVectorSize > 0, "currentVectorSize > 0");
-    return baseOffset.getId();
+    return allTrue ? baseOffset.getId() : compactedVectorId;
   }
 
   @Override
   public void advance()
   {
-    baseOffset.advance();
-    advanceWhileVectorIsEmptyAndPopulateOffsets();
+    if (allTrue) {
+      baseOffset.advance();
+    } else {
+      numOffsets -= currentVectorSize;
+      System.arraycopy(offsets, currentVectorSize, offsets, 0, numOffsets);
+    }
+    populateOffsets();
   }
 
   @Override
@@ -86,7 +123,7 @@ public class FilteredVectorOffset implements VectorOffset
   @Override
   public int getMaxVectorSize()
   {
-    return baseOffset.getMaxVectorSize();
+    return maxVectorSize;
   }
 
   @Override
@@ -117,59 +154,77 @@ public class FilteredVectorOffset implements VectorOffset
     }
   }
 
-  private void advanceWhileVectorIsEmptyAndPopulateOffsets()
+  /**
+   * Evaluates the filter on base vectors, until a full vector of matching rows is available or the base offset is
+   * done. The base offset is left on the current vector if all of its rows match and no rows of previous base vectors
+   * are pending, and is advanced past the evaluated vectors otherwise.
+   */
+  private void populateOffsets()
   {
     allTrue = false;
 
-    int j = 0;
-
-    while (j == 0) {
-      if (baseOffset.isDone()) {
-        currentVectorSize = 0;
-        return;
+    while (numOffsets < maxVectorSize && !baseOffset.isDone()) {
+      if (zoneMatcher != null && !currentVectorMayMatch()) {
+        // Skip the vector without reading the values of the filtered columns.
+        baseOffset.advance();
+        continue;
       }
 
-      final ReadableVectorMatch match = filterMatcher.match(VectorMatch.allTrue(baseOffset.getCurrentVectorSize()));
+      final int baseVectorSize = baseOffset.getCurrentVectorSize();
+      final ReadableVectorMatch match = filterMatcher.match(VectorMatch.allTrue(baseVectorSize));
 
-      if (match.isAllTrue(baseOffset.getCurrentVectorSize())) {
-        currentVectorSize = baseOffset.getCurrentVectorSize();
+      if (numOffsets == 0 && match.isAllTrue(baseVectorSize)) {
+        currentVectorSize = baseVectorSize;
         allTrue = true;
         return;
-      } else if (match.isAllFalse()) {
-        baseOffset.advance();
-      } else {
-        final int[] selection = match.getSelection();
-        final int selectionSize = match.getSelectionSize();
+      }
 
-        if (baseOffset.isContiguous()) {
-          final int startOffset = baseOffset.getStartOffset();
+      final int[] selection = match.getSelection();
+      final int selectionSize = match.getSelectionSize();
 
-          for (int i = 0; i < selectionSize; i++) {
-            offsets[j++] = startOffset + selection[i];
-          }
-        } else {
-          final int[] baseOffsets = baseOffset.getOffsets();
+      if (baseOffset.isContiguous()) {
+        final int startOffset = baseOffset.getStartOffset();
 
-          for (int i = 0; i < selectionSize; i++) {
-            offsets[j++] = baseOffsets[selection[i]];
-          }
+        for (int i = 0; i < selectionSize; i++) {
+          offsets[numOffsets++] = startOffset + selection[i];
         }
+      } else {
+        final int[] baseOffsets = baseOffset.getOffsets();
 
-        if (j == 0) {
-          baseOffset.advance();
+        for (int i = 0; i < selectionSize; i++) {
+          offsets[numOffsets++] = baseOffsets[selection[i]];
         }
       }
+
+      baseOffset.advance();
     }
 
-    currentVectorSize = j;
+    currentVectorSize = Math.min(numOffsets, maxVectorSize);
+    if (currentVectorSize > 0) {
+      // negative ids below NULL_ID, wrapping around after Integer.MIN_VALUE
+      compactedVectorId = compactedVectorId == Integer.MIN_VALUE ? NULL_ID - 1 : compactedVectorId - 1;
+    }
+  }
+
+  private boolean currentVectorMayMatch()
+  {
+    final int vectorSize = baseOffset.getCurrentVectorSize();
+    if (baseOffset.isContiguous()) {
+      final int startOffset = baseOffset.getStartOffset();
+      return zoneMatcher.mayMatch(startOffset, startOffset + vectorSize);
+    } else {
+      final int[] baseOffsets = baseOffset.getOffsets();
+      return zoneMatcher.mayMatch(baseOffsets[0], baseOffsets[vectorSize - 1] + 1);
+    }
   }
 
   @Override
   public void reset()
   {
+    numOffsets = 0;
     currentVectorSize = 0;
     allTrue = false;
     baseOffset.reset();
-    advanceWhileVectorIsEmptyAndPopulateOffsets();
+    populateOffsets();
   }
 }
@@ -273,4 +273,10 @@ public class QueryableIndexVectorColumnSelectorFactory implements VectorColumnSe
     }
     return QueryableIndexStorageAdapter.getColumnCapabilities(index, columnName);
   }
+
+  @Override
+  public boolean isVirtualColumn(final String columnName)
+  {
+    return virtualColumns.exists(columnName);
+  }
 }
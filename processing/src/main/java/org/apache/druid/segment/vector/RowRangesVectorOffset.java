@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.vector;
+
+/**
+ * Vector offset iterating over sorted, disjoint ranges of rows, given as a flattened array of (inclusive start,
+ * exclusive end) pairs. Vectors do not span several ranges, so they are always contiguous.
+ */
+public class RowRangesVectorOffset implements VectorOffset
+{
+  private final int maxVectorSize;
+  private final int[] ranges;
+  private int range;
+  private int theOffset;
+  private int currentVectorSize;
+
+  public RowRangesVectorOffset(final int maxVectorSize, final int[] ranges)
+  {
+    this.maxVectorSize = maxVectorSize;
+    this.ranges = ranges;
+    reset();
+  }
+
+  @Override
+  public int getId()
+  {
+    return theOffset;
+  }
+
+  @Override
+  public void advance()
+  {
+    if (isDone()) {
+      return;
+    }
+    theOffset += currentVectorSize;
+    if (theOffset == ranges[2 * range + 1] && 2 * ++range < ranges.length) {
+      theOffset = ranges[2 * range];
+    }
+    updateVectorSize();
+  }
+
+  @Override
+  public boolean isDone()
+  {
+    return 2 * range >= ranges.length;
+  }
+
+  @Override
+  public boolean isContiguous()
+  {
+    return true;
+  }
+
+  @Override
+  public int getMaxVectorSize()
+  {
+    return maxVectorSize;
+  }
+
+  @Override
+  public int getCurrentVectorSize()
+  {
+    return currentVectorSize;
+  }
+
+  @Override
+  public int getStartOffset()
+  {
+    return theOffset;
+  }
+
+  @Override
+  public int[] getOffsets()
+  {
+    throw new UnsupportedOperationException("contiguous ranges");
+  }
+
+  @Override
+  public void reset()
+  {
+    range = 0;
+    theOffset = ranges.length == 0 ? 0 : ranges[0];
+    updateVectorSize();
+  }
+
+  private void updateVectorSize()
+  {
+    currentVectorSize = isDone() ? 0 : Math.min(maxVectorSize, ranges[2 * range + 1] - theOffset);
+  }
+}
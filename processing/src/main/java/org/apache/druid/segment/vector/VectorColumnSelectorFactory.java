@@ -110,4 +110,14 @@ public interface VectorColumnSelectorFactory extends ColumnInspector
   @Override
   @Nullable
   ColumnCapabilities getColumnCapabilities(String column);
+
+  /**
+   * Returns whether the given column is a virtual column of this factory.
+   *
+   * @see org.apache.druid.segment.ColumnSelectorFactory#isVirtualColumn
+   */
+  default boolean isVirtualColumn(String column)
+  {
+    return false;
+  }
 }
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.virtual;
+
+import org.apache.druid.math.expr.Expr;
+import org.apache.druid.math.expr.ExprEval;
+import org.apache.druid.math.expr.ExprType;
+import org.apache.druid.math.expr.vector.ExprEvalVector;
+import org.apache.druid.math.expr.vector.ExprVectorProcessor;
+import org.apache.druid.segment.vector.ReadableVectorInspector;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * Wraps a subexpression which {@link ExpressionPlanner#eliminateCommonSubexpressions} found in more than one place in
+ * the expressions of a query. All of those places share a single instance, which evaluates the subexpression once per
+ * row or vector and hands the same result to every consumer.
+ *
+ * Row-based results are memoized by the values of the input bindings of the subexpression, and vectorized results by
+ * the {@link VectorInputBinding#getCurrentVectorId()} and size of the vector. Instances are therefore stateful, and
+ * must only be used by the selectors and matchers made for a single call of
+ * {@link org.apache.druid.segment.CursorFactory#makeCursors} or
+ * {@link org.apache.druid.segment.CursorFactory#makeVectorCursor}.
+ */
+class CommonSubexpression implements Expr
+{
+  private final Expr expr;
+  private final String[] inputs;
+  private final Object[] inputValues;
+  private final ObjectBinding inputBindings;
+
+  @Nullable
+  private ExprEval result;
+  @Nullable
+  private MemoizingVectorProcessor<?> vectorProcessor;
+
+  CommonSubexpression(Expr expr)
+  {
+    this.expr = expr;
+    this.inputs = expr.analyzeInputs().getRequiredBindingsList().toArray(new String[0]);
+    this.inputValues = new Object[inputs.length];
+    this.inputBindings = name -> {
+      for (int i = 0; i < inputs.length; i++) {
+        if (inputs[i].equals(name)) {
+          return inputValues[i];
+        }
+      }
+      return null;
+    };
+  }
+
+  @Override
+  public ExprEval eval(ObjectBinding bindings)
+  {
+    // read each input once, and evaluate the subexpression on the values read if any of them changed since the last
+    // evaluation, so consumers evaluating the same row get the same ExprEval
+    boolean changed = result == null;
+    for (int i = 0; i < inputs.length; i++) {
+      final Object value = bindings.get(inputs[i]);
+      if (!changed && !Objects.deepEquals(value, inputValues[i])) {
+        changed = true;
+      }
+      inputValues[i] = value;
+    }
+    if (changed) {
+      result = expr.eval(inputBindings);
+    }
+    return result;
+  }
+
+  @Override
+  public String stringify()
+  {
+    return expr.stringify();
+  }
+
+  @Override
+  public Expr visit(Shuttle shuttle)
+  {
+    final Expr newExpr = expr.visit(shuttle);
+    return shuttle.visit(newExpr == expr ? this : new CommonSubexpression(newExpr));
+  }
+
+  @Override
+  public BindingAnalysis analyzeInputs()
+  {
+    return expr.analyzeInputs();
+  }
+
+  @Nullable
+  @Override
+  public ExprType getOutputType(InputBindingInspector inspector)
+  {
+    return expr.getOutputType(inspector);
+  }
+
+  @Override
+  public boolean canVectorize(InputBindingInspector inspector)
+  {
+    return expr.canVectorize(inspector);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> ExprVectorProcessor<T> buildVectorized(VectorInputBindingInspector inspector)
+  {
+    if (vectorProcessor == null) {
+      vectorProcessor = new MemoizingVectorProcessor<>(expr.buildVectorized(inspector));
+    }
+    return (ExprVectorProcessor<T>) vectorProcessor;
+  }
+
+  @Override
+  public String toString()
+  {
+    return expr.toString();
+  }
+
+  private static class MemoizingVectorProcessor<T> implements ExprVectorProcessor<T>
+  {
+    private final ExprVectorProcessor<T> processor;
+
+    private int currentVectorId = ReadableVectorInspector.NULL_ID;
+    private int currentVectorSize = 0;
+    @Nullable
+    private ExprEvalVector<T> result;
+
+    private MemoizingVectorProcessor(ExprVectorProcessor<T> processor)
+    {
+      this.processor = processor;
+    }
+
+    @Override
+    public ExprEvalVector<T> evalVector(VectorInputBinding bindings)
+    {
+      // a filtered offset only has the id of its base offset if it has all of its rows, so the post-filter selectors
+      // of a cursor see the same vector as the filter matcher then; the size is checked too as a safeguard
+      final int vectorId = bindings.getCurrentVectorId();
+      final int vectorSize = bindings.getCurrentVectorSize();
+      if (vectorId == ReadableVectorInspector.NULL_ID
+          || vectorId != currentVectorId
+          || vectorSize != currentVectorSize) {
+        currentVectorId = vectorId;
+        currentVectorSize = vectorSize;
+        result = processor.evalVector(bindings);
+      }
+      return result;
+    }
+
+    @Override
+    public ExprType getOutputType()
+    {
+      return processor.getOutputType();
+    }
+  }
+}
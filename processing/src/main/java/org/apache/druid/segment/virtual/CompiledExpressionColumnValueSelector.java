@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.virtual;
+
+import com.google.common.base.Preconditions;
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.math.expr.CompiledExpr;
+import org.apache.druid.math.expr.ExprType;
+import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
+import org.apache.druid.segment.ColumnValueSelector;
+
+import javax.annotation.Nullable;
+
+/**
+ * Expression {@link ColumnValueSelector} for numeric expressions compiled by
+ * {@link org.apache.druid.math.expr.ExprCompiler}, which reads the primitive values of its input selectors directly
+ * instead of evaluating an {@link org.apache.druid.math.expr.ExprEval} for every node of the expression. Like the
+ * selectors made by {@link ExpressionSelectors#makeColumnValueSelector}, {@link #getObject()} returns the
+ * {@link Long} or {@link Double} value of the expression.
+ */
+public class CompiledExpressionColumnValueSelector implements ColumnValueSelector<Object>
+{
+  private final CompiledExpr compiledExpr;
+  private final ColumnValueSelector<?>[] inputs;
+  private final CompiledExpr.NumericBinding bindings;
+
+  public CompiledExpressionColumnValueSelector(CompiledExpr compiledExpr, ColumnValueSelector<?>[] inputs)
+  {
+    Preconditions.checkArgument(
+        compiledExpr.getInputs().size() == inputs.length,
+        "Expected [%s] inputs, got [%s]",
+        compiledExpr.getInputs().size(),
+        inputs.length
+    );
+    this.compiledExpr = compiledExpr;
+    this.inputs = inputs;
+    this.bindings = new CompiledExpr.NumericBinding()
+    {
+      @Override
+      public long getLong(int input)
+      {
+        return inputs[input].getLong();
+      }
+
+      @Override
+      public double getDouble(int input)
+      {
+        return inputs[input].getDouble();
+      }
+    };
+  }
+
+  @Override
+  public double getDouble()
+  {
+    return isNull() ? 0.0 : compiledExpr.evalDouble(bindings);
+  }
+
+  @Override
+  public float getFloat()
+  {
+    return (float) getDouble();
+  }
+
+  @Override
+  public long getLong()
+  {
+    return isNull() ? 0L : compiledExpr.evalLong(bindings);
+  }
+
+  /**
+   * The result of the operators that can be compiled is null if any of their inputs is null, so the expression is
+   * null if any input is, which can only happen in SQL compatible null handling mode.
+   */
+  @Override
+  public boolean isNull()
+  {
+    if (NullHandling.replaceWithDefault()) {
+      return false;
+    }
+    for (ColumnValueSelector<?> input : inputs) {
+      if (input.isNull()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Nullable
+  @Override
+  public Object getObject()
+  {
+    if (isNull()) {
+      return null;
+    }
+    if (compiledExpr.getOutputType() == ExprType.LONG) {
+      return compiledExpr.evalLong(bindings);
+    } else {
+      return compiledExpr.evalDouble(bindings);
+    }
+  }
+
+  @Override
+  public Class<Object> classOfObject()
+  {
+    return Object.class;
+  }
+
+  @Override
+  public void inspectRuntimeShape(RuntimeShapeInspector inspector)
+  {
+    inspector.visit("compiledExpr", compiledExpr);
+    inspector.visit("inputs", inputs);
+  }
+}
@@ -24,14 +24,18 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 import org.apache.druid.math.expr.Expr;
 import org.apache.druid.math.expr.ExprType;
+import org.apache.druid.math.expr.Exprs;
 import org.apache.druid.math.expr.Parser;
 import org.apache.druid.segment.ColumnInspector;
 import org.apache.druid.segment.column.ColumnCapabilities;
 import org.apache.druid.segment.column.ValueType;
 
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -204,4 +208,73 @@ public class ExpressionPlanner
         needsApplied
     );
   }
+
+  /**
+   * Finds the function calls which appear more than once in a list of expressions, such as those of the virtual
+   * columns and expression filters of a query, and rewrites the expressions so that every appearance of such a call
+   * is replaced by one shared {@link CommonSubexpression}, which is evaluated only once per row or vector. The
+   * rewritten expressions hold state about the last row or vector they evaluated, so they must only be used for a
+   * single call of {@link org.apache.druid.segment.CursorFactory#makeCursors} or
+   * {@link org.apache.druid.segment.CursorFactory#makeVectorCursor}.
+   *
+   * Only expressions which are fully scalar with known input types are considered, because expressions which need
+   * implicit mapping over multi-valued inputs, or which use lambdas, will be transformed further when making selectors.
+   *
+   * @return the rewritten expressions, in the same order, or the same list if no function calls are shared
+   */
+  public static List<Expr> eliminateCommonSubexpressions(ColumnInspector inspector, List<Expr> expressions)
+  {
+    final boolean[] eligible = new boolean[expressions.size()];
+    final Map<String, Integer> counts = new HashMap<>();
+    for (int i = 0; i < expressions.size(); i++) {
+      final ExpressionPlan plan = plan(inspector, expressions.get(i));
+      eligible[i] = !plan.any(
+          ExpressionPlan.Trait.NEEDS_APPLIED,
+          ExpressionPlan.Trait.UNKNOWN_INPUTS,
+          ExpressionPlan.Trait.INCOMPLETE_INPUTS,
+          ExpressionPlan.Trait.NON_SCALAR_INPUTS,
+          ExpressionPlan.Trait.NON_SCALAR_OUTPUT
+      );
+      if (eligible[i]) {
+        expressions.get(i).visit(expr -> {
+          if (canShare(expr)) {
+            counts.merge(expr.stringify(), 1, Integer::sum);
+          }
+          return expr;
+        });
+      }
+    }
+
+    if (counts.values().stream().allMatch(count -> count < 2)) {
+      return expressions;
+    }
+
+    final Map<String, CommonSubexpression> shared = new HashMap<>();
+    final List<Expr> rewritten = new ArrayList<>(expressions.size());
+    for (int i = 0; i < expressions.size(); i++) {
+      if (eligible[i]) {
+        // the shuttle visits children before their parents, so the shared subexpression a parent is rewritten to
+        // already contains the shared subexpressions of its children
+        rewritten.add(expressions.get(i).visit(expr -> {
+          if (canShare(expr)) {
+            final String key = expr.stringify();
+            if (counts.getOrDefault(key, 0) > 1) {
+              return shared.computeIfAbsent(key, k -> new CommonSubexpression(expr));
+            }
+          }
+          return expr;
+        }));
+      } else {
+        rewritten.add(expressions.get(i));
+      }
+    }
+    return rewritten;
+  }
+
+  private static boolean canShare(Expr expr)
+  {
+    // operators cost little more than evaluating their arguments, and constant calls are already flattened by the
+    // parser, so only non-constant function calls are worth sharing
+    return Exprs.isFunctionCall(expr) && !expr.analyzeInputs().getRequiredBindings().isEmpty();
+  }
 }
@@ -25,7 +25,9 @@ import com.google.common.base.Supplier;
 import com.google.common.collect.Iterables;
 import org.apache.druid.common.config.NullHandling;
 import org.apache.druid.java.util.common.UOE;
+import org.apache.druid.math.expr.CompiledExpr;
 import org.apache.druid.math.expr.Expr;
+import org.apache.druid.math.expr.ExprCompiler;
 import org.apache.druid.math.expr.ExprEval;
 import org.apache.druid.math.expr.Parser;
 import org.apache.druid.query.dimension.DefaultDimensionSpec;
@@ -36,6 +38,7 @@ import org.apache.druid.segment.BaseObjectColumnValueSelector;
 import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.ColumnValueSelector;
 import org.apache.druid.segment.ConstantExprEvalSelector;
+import org.apache.druid.segment.DimensionDictionarySelector;
 import org.apache.druid.segment.DimensionSelector;
 import org.apache.druid.segment.NilColumnValueSelector;
 import org.apache.druid.segment.column.ColumnCapabilities;
@@ -122,6 +125,29 @@ public class ExpressionSelectors
     };
   }
 
+  /**
+   * Like {@link #makeColumnValueSelector(ColumnSelectorFactory, Expr)}, but if "compile" is set and the expression can
+   * be compiled by {@link ExprCompiler}, the selector evaluates the compiled expression instead of interpreting it.
+   */
+  public static ColumnValueSelector makeColumnValueSelector(
+      ColumnSelectorFactory columnSelectorFactory,
+      Expr expression,
+      boolean compile
+  )
+  {
+    if (compile) {
+      final CompiledExpr compiledExpr = ExprCompiler.compile(expression, columnSelectorFactory);
+      if (compiledExpr != null) {
+        final ColumnValueSelector<?>[] inputs = compiledExpr.getInputs()
+                                                            .stream()
+                                                            .map(columnSelectorFactory::makeColumnValueSelector)
+                                                            .toArray(ColumnValueSelector<?>[]::new);
+        return new CompiledExpressionColumnValueSelector(compiledExpr, inputs);
+      }
+    }
+    return makeColumnValueSelector(columnSelectorFactory, expression);
+  }
+
   /**
    * Makes a ColumnValueSelector whose getObject method returns an {@link ExprEval}.
    *
@@ -195,6 +221,13 @@ public class ExpressionSelectors
       }
     }
 
+    if (extractionFn == null) {
+      final DimensionSelector multiInputSelector = makeMultiStringInputDimensionSelector(columnSelectorFactory, plan);
+      if (multiInputSelector != null) {
+        return multiInputSelector;
+      }
+    }
+
     final ColumnValueSelector<ExprEval> baseSelector = makeExprEvalSelector(columnSelectorFactory, expression);
 
     if (baseSelector instanceof ConstantExprEvalSelector) {
@@ -217,6 +250,51 @@ public class ExpressionSelectors
     }
   }
 
+  /**
+   * Makes a {@link MultiStringInputDimensionSelector} if the expression is a scalar expression over between two and
+   * {@link MultiStringInputDimensionSelector#MAX_INPUTS} single-valued, dictionary-encoded string columns, whose
+   * combined cardinality is at most {@link MultiStringInputDimensionSelector#MAX_CARDINALITY}, or returns null
+   * otherwise.
+   */
+  @Nullable
+  private static DimensionSelector makeMultiStringInputDimensionSelector(
+      final ColumnSelectorFactory columnSelectorFactory,
+      final ExpressionPlan plan
+  )
+  {
+    final List<String> columns = plan.getAnalysis().getRequiredBindingsList();
+    if (columns.size() < 2
+        || columns.size() > MultiStringInputDimensionSelector.MAX_INPUTS
+        || plan.any(
+        ExpressionPlan.Trait.NON_SCALAR_OUTPUT,
+        ExpressionPlan.Trait.NON_SCALAR_INPUTS,
+        ExpressionPlan.Trait.NEEDS_APPLIED,
+        ExpressionPlan.Trait.UNKNOWN_INPUTS,
+        ExpressionPlan.Trait.INCOMPLETE_INPUTS
+    )) {
+      return null;
+    }
+
+    for (String column : columns) {
+      final ColumnCapabilities capabilities = columnSelectorFactory.getColumnCapabilities(column);
+      if (capabilities == null
+          || capabilities.getType() != ValueType.STRING
+          || !capabilities.isDictionaryEncoded().isTrue()
+          || !capabilities.hasMultipleValues().isFalse()) {
+        return null;
+      }
+    }
+
+    final List<DimensionSelector> selectors =
+        columns.stream()
+               .map(column -> columnSelectorFactory.makeDimensionSelector(DefaultDimensionSpec.of(column)))
+               .collect(Collectors.toList());
+    if (MultiStringInputDimensionSelector.computeCardinality(selectors)
+        == DimensionDictionarySelector.CARDINALITY_UNKNOWN) {
+      return null;
+    }
+    return new MultiStringInputDimensionSelector(columns, selectors, plan.getExpression());
+  }
 
   /**
    * Returns whether an expression can be applied to unique values of a particular column (like those in a dictionary)
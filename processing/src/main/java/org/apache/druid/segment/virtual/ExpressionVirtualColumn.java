@@ -23,7 +23,6 @@ import com.fasterxml.jackson.annotation.JacksonInject;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
@@ -60,6 +59,7 @@ public class ExpressionVirtualColumn implements VirtualColumn
   @Nullable
   private final ValueType outputType;
   private final Supplier<Expr> parsedExpression;
+  private final boolean compile;
 
   @JsonCreator
   public ExpressionVirtualColumn(
@@ -73,6 +73,7 @@ public class ExpressionVirtualColumn implements VirtualColumn
     this.expression = Preconditions.checkNotNull(expression, "expression");
     this.outputType = outputType;
     this.parsedExpression = Suppliers.memoize(() -> Parser.parse(expression, macroTable));
+    this.compile = false;
   }
 
   /**
@@ -90,6 +91,41 @@ public class ExpressionVirtualColumn implements VirtualColumn
     this.expression = parsedExpression.toString();
     this.outputType = outputType;
     this.parsedExpression = Suppliers.ofInstance(parsedExpression);
+    this.compile = false;
+  }
+
+  private ExpressionVirtualColumn(
+      ExpressionVirtualColumn virtualColumn,
+      Supplier<Expr> parsedExpression,
+      boolean compile
+  )
+  {
+    this.name = virtualColumn.name;
+    this.expression = virtualColumn.expression;
+    this.outputType = virtualColumn.outputType;
+    this.parsedExpression = parsedExpression;
+    this.compile = compile;
+  }
+
+  /**
+   * Returns a copy of this virtual column whose {@link ColumnValueSelector}s evaluate a compiled version of the
+   * expression when it can be compiled, see {@link ExpressionSelectors#makeColumnValueSelector}. Compiling does not
+   * change results, so it is not part of {@link #equals} or the cache key.
+   */
+  public ExpressionVirtualColumn withCompiledExpression()
+  {
+    return compile ? this : new ExpressionVirtualColumn(this, parsedExpression, true);
+  }
+
+  /**
+   * Returns a copy of this virtual column which evaluates "parsedExpression" instead of the expression it was created
+   * with, such as the expression rewritten by {@link ExpressionPlanner#eliminateCommonSubexpressions}. The caller must
+   * make sure both expressions produce the same results, since the copy keeps the expression string, and so is equal
+   * to this virtual column and has the same cache key.
+   */
+  public ExpressionVirtualColumn withEquivalentExpression(Expr parsedExpression)
+  {
+    return new ExpressionVirtualColumn(this, Suppliers.ofInstance(parsedExpression), compile);
   }
 
   @JsonProperty("name")
@@ -113,7 +149,6 @@ public class ExpressionVirtualColumn implements VirtualColumn
   }
 
   @JsonIgnore
-  @VisibleForTesting
   public Supplier<Expr> getParsedExpression()
   {
     return parsedExpression;
@@ -137,7 +172,7 @@ public class ExpressionVirtualColumn implements VirtualColumn
   @Override
   public ColumnValueSelector<?> makeColumnValueSelector(String columnName, ColumnSelectorFactory factory)
   {
-    return ExpressionSelectors.makeColumnValueSelector(factory, parsedExpression.get());
+    return ExpressionSelectors.makeColumnValueSelector(factory, parsedExpression.get(), compile);
   }
 
   @Override
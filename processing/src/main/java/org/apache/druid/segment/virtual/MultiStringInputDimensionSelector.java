@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.virtual;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Predicate;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.math.expr.Expr;
+import org.apache.druid.math.expr.ExprEval;
+import org.apache.druid.query.filter.ValueMatcher;
+import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
+import org.apache.druid.segment.DimensionDictionarySelector;
+import org.apache.druid.segment.DimensionSelector;
+import org.apache.druid.segment.DimensionSelectorUtils;
+import org.apache.druid.segment.IdLookup;
+import org.apache.druid.segment.data.IndexedInts;
+import org.apache.druid.segment.data.SingleIndexedInt;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * A DimensionSelector that computes an expression over a few single-valued, dictionary-encoded string columns, like
+ * {@link SingleStringInputDimensionSelector} does for one column. Every combination of the dictionary ids of the
+ * inputs is an id of this selector, so it has a dictionary of its own, and queries like groupBy can group on the ids
+ * of the expression instead of its values. Expression results are cached by id, in an array if the cardinality is
+ * at most ARRAY_CACHE_SIZE, and in an LRU cache otherwise. See {@link ExpressionSelectors} for details on how
+ * expression selectors are constructed.
+ */
+public class MultiStringInputDimensionSelector implements DimensionSelector
+{
+  /**
+   * Maximum number of inputs, since the number of combinations of input ids grows quickly with more inputs.
+   */
+  public static final int MAX_INPUTS = 3;
+
+  /**
+   * Maximum cardinality of this selector, which is the product of the cardinalities of its inputs.
+   */
+  public static final int MAX_CARDINALITY = 1 << 20;
+
+  private static final int ARRAY_CACHE_SIZE = 1 << 14;
+
+  private final DimensionSelector[] selectors;
+  private final String[] columns;
+  private final int[] cardinalities;
+  private final int[] multipliers;
+  private final int cardinality;
+  private final Expr expression;
+  private final Expr.ObjectBinding bindings;
+  private final SingleIndexedInt row = new SingleIndexedInt();
+  @Nullable
+  private final ExprEval[] arrayEvalCache;
+  @Nullable
+  private final SingleStringInputCachingExpressionColumnValueSelector.LruEvalCache lruEvalCache;
+
+  // id being evaluated, the bindings look up the value of each input from it
+  private int currentId;
+
+  public MultiStringInputDimensionSelector(
+      final List<String> columns,
+      final List<DimensionSelector> selectors,
+      final Expr expression
+  )
+  {
+    Preconditions.checkArgument(
+        columns.size() == selectors.size() && columns.size() > 1 && columns.size() <= MAX_INPUTS,
+        "Expected between 2 and %s inputs",
+        MAX_INPUTS
+    );
+
+    this.selectors = selectors.toArray(new DimensionSelector[0]);
+    this.columns = columns.toArray(new String[0]);
+    this.cardinalities = new int[this.selectors.length];
+    this.multipliers = new int[this.selectors.length];
+    this.expression = Preconditions.checkNotNull(expression, "expression");
+
+    this.cardinality = computeCardinality(selectors);
+    if (cardinality == DimensionDictionarySelector.CARDINALITY_UNKNOWN) {
+      throw new ISE(
+          "Selectors of inputs[%s] must have dictionaries with a combined cardinality of at most [%s]",
+          columns,
+          MAX_CARDINALITY
+      );
+    }
+
+    int multiplier = 1;
+    for (int i = 0; i < this.selectors.length; i++) {
+      cardinalities[i] = this.selectors[i].getValueCardinality();
+      multipliers[i] = multiplier;
+      multiplier *= cardinalities[i];
+    }
+
+    this.bindings = name -> {
+      for (int i = 0; i < this.columns.length; i++) {
+        if (this.columns[i].equals(name)) {
+          return this.selectors[i].lookupName((currentId / multipliers[i]) % cardinalities[i]);
+        }
+      }
+      return null;
+    };
+
+    if (cardinality <= ARRAY_CACHE_SIZE) {
+      arrayEvalCache = new ExprEval[cardinality];
+      lruEvalCache = null;
+    } else {
+      arrayEvalCache = null;
+      lruEvalCache = new SingleStringInputCachingExpressionColumnValueSelector.LruEvalCache(expression, bindings);
+    }
+  }
+
+  /**
+   * Returns the cardinality of a {@link MultiStringInputDimensionSelector} over the given selectors, or
+   * {@link DimensionDictionarySelector#CARDINALITY_UNKNOWN} if one of them does not have a dictionary or the
+   * cardinality would be more than {@link #MAX_CARDINALITY}.
+   */
+  public static int computeCardinality(final List<DimensionSelector> selectors)
+  {
+    long product = 1;
+    for (DimensionSelector selector : selectors) {
+      if (selector.getValueCardinality() == DimensionDictionarySelector.CARDINALITY_UNKNOWN
+          || !selector.nameLookupPossibleInAdvance()) {
+        return DimensionDictionarySelector.CARDINALITY_UNKNOWN;
+      }
+      product *= selector.getValueCardinality();
+      if (product > MAX_CARDINALITY) {
+        return DimensionDictionarySelector.CARDINALITY_UNKNOWN;
+      }
+    }
+    return (int) product;
+  }
+
+  @Override
+  public void inspectRuntimeShape(final RuntimeShapeInspector inspector)
+  {
+    inspector.visit("selectors", selectors);
+    inspector.visit("expression", expression);
+  }
+
+  /**
+   * Combines the ids of the current rows of the input selectors, which are single-valued, into one id
+   */
+  @Override
+  public IndexedInts getRow()
+  {
+    int id = 0;
+    for (int i = 0; i < selectors.length; i++) {
+      id += selectors[i].getRow().get(0) * multipliers[i];
+    }
+    row.setValue(id);
+    return row;
+  }
+
+  @Override
+  public ValueMatcher makeValueMatcher(@Nullable final String value)
+  {
+    return DimensionSelectorUtils.makeValueMatcherGeneric(this, value);
+  }
+
+  @Override
+  public ValueMatcher makeValueMatcher(final Predicate<String> predicate)
+  {
+    return DimensionSelectorUtils.makeValueMatcherGeneric(this, predicate);
+  }
+
+  @Override
+  public int getValueCardinality()
+  {
+    return cardinality;
+  }
+
+  @Nullable
+  @Override
+  public String lookupName(final int id)
+  {
+    currentId = id;
+    if (arrayEvalCache != null) {
+      if (arrayEvalCache[id] == null) {
+        arrayEvalCache[id] = expression.eval(bindings);
+      }
+      return arrayEvalCache[id].asString();
+    } else {
+      assert lruEvalCache != null;
+      return lruEvalCache.compute(id).asString();
+    }
+  }
+
+  @Override
+  public boolean nameLookupPossibleInAdvance()
+  {
+    return true;
+  }
+
+  @Nullable
+  @Override
+  public IdLookup idLookup()
+  {
+    return null;
+  }
+
+  @Nullable
+  @Override
+  public Object getObject()
+  {
+    return defaultGetObject();
+  }
+
+  @Override
+  public Class classOfObject()
+  {
+    return Object.class;
+  }
+}
@@ -73,4 +73,10 @@ public class VirtualizedColumnSelectorFactory implements ColumnSelectorFactory
       return baseFactory.getColumnCapabilities(columnName);
     }
   }
+
+  @Override
+  public boolean isVirtualColumn(String columnName)
+  {
+    return virtualColumns.exists(columnName) || baseFactory.isVirtualColumn(columnName);
+  }
 }
@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.aggregation.cardinality;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.druid.hll.HyperLogLogCollector;
+import org.apache.druid.query.ColumnSelectorPlus;
+import org.apache.druid.query.aggregation.cardinality.types.CardinalityAggregatorColumnSelectorStrategy;
+import org.apache.druid.query.aggregation.cardinality.types.StringCardinalityAggregatorColumnSelectorStrategy;
+import org.apache.druid.segment.IdLookup;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class CardinalityVectorAggregatorTest extends InitializedNullHandlingTest
+{
+  private static final List<String> VALUES1 = Arrays.asList("a", "b", "c", "a", "a", null, "b", "b", "c", "a");
+  private static final List<String> VALUES2 = Arrays.asList("x", "x", "y", null, "x", "z", "y", "x", "x", "x");
+  private static final int POSITION = 10;
+
+  @Test
+  public void testAggregateValuesMatchesBufferAggregator()
+  {
+    assertRangeMatchesBufferAggregator(ImmutableList.of(VALUES1, VALUES2), false);
+  }
+
+  @Test
+  public void testAggregateRowsOneColumnMatchesBufferAggregator()
+  {
+    assertRangeMatchesBufferAggregator(ImmutableList.of(VALUES1), true);
+  }
+
+  @Test
+  public void testAggregateRowsMultipleColumnsMatchesBufferAggregator()
+  {
+    assertRangeMatchesBufferAggregator(ImmutableList.of(VALUES1, VALUES2), true);
+  }
+
+  @Test
+  public void testAggregatePositionsMatchesRange()
+  {
+    for (boolean byRow : new boolean[]{false, true}) {
+      final List<List<String>> columns = ImmutableList.of(VALUES1, VALUES2);
+      final CardinalityVectorAggregator rangeAggregator = makeVectorAggregator(columns, byRow);
+      final CardinalityVectorAggregator positionsAggregator = makeVectorAggregator(columns, byRow);
+      final int size = HyperLogLogCollector.getLatestNumBytesForDenseStorage();
+      final ByteBuffer buf = ByteBuffer.allocate(POSITION + 2 * size);
+
+      // even rows go to the first position, odd rows to the second one
+      final int[] positions = new int[VALUES1.size()];
+      for (int i = 0; i < positions.length; i++) {
+        positions[i] = (i % 2) * size;
+      }
+      positionsAggregator.init(buf, POSITION);
+      positionsAggregator.init(buf, POSITION + size);
+      positionsAggregator.aggregate(buf, positions.length, positions, null, POSITION);
+
+      final HyperLogLogCollector expected = (HyperLogLogCollector) positionsAggregator.get(buf, POSITION);
+      expected.fold((HyperLogLogCollector) positionsAggregator.get(buf, POSITION + size));
+
+      final ByteBuffer rangeBuf = ByteBuffer.allocate(size);
+      rangeAggregator.init(rangeBuf, 0);
+      rangeAggregator.aggregate(rangeBuf, 0, 0, VALUES1.size());
+
+      Assert.assertEquals(
+          expected.estimateCardinality(),
+          ((HyperLogLogCollector) rangeAggregator.get(rangeBuf, 0)).estimateCardinality(),
+          0
+      );
+    }
+  }
+
+  private static void assertRangeMatchesBufferAggregator(List<List<String>> columns, boolean byRow)
+  {
+    final List<CardinalityAggregatorTest.TestDimensionSelector> selectors =
+        columns.stream()
+               .map(column -> new CardinalityAggregatorTest.TestDimensionSelector(
+                   column.stream().map(value -> new String[]{value}).collect(Collectors.toList()),
+                   null
+               ))
+               .collect(Collectors.toList());
+    final List<ColumnSelectorPlus<CardinalityAggregatorColumnSelectorStrategy>> selectorPluses = new ArrayList<>();
+    for (CardinalityAggregatorTest.TestDimensionSelector selector : selectors) {
+      selectorPluses.add(
+          new ColumnSelectorPlus<>("dim", "dim", new StringCardinalityAggregatorColumnSelectorStrategy(), selector)
+      );
+    }
+
+    final int size = HyperLogLogCollector.getLatestNumBytesForDenseStorage();
+    final ByteBuffer expectedBuf = ByteBuffer.allocate(POSITION + size);
+    final CardinalityBufferAggregator bufferAggregator = new CardinalityBufferAggregator(
+        selectorPluses.toArray(new ColumnSelectorPlus[0]),
+        byRow
+    );
+    bufferAggregator.init(expectedBuf, POSITION);
+    for (int i = 0; i < columns.get(0).size(); i++) {
+      bufferAggregator.aggregate(expectedBuf, POSITION);
+      selectors.forEach(CardinalityAggregatorTest.TestDimensionSelector::increment);
+    }
+
+    // aggregate in two ranges, so that cached hashes are reused
+    final ByteBuffer buf = ByteBuffer.allocate(POSITION + size);
+    final CardinalityVectorAggregator vectorAggregator = makeVectorAggregator(columns, byRow);
+    vectorAggregator.init(buf, POSITION);
+    vectorAggregator.aggregate(buf, POSITION, 0, 4);
+    vectorAggregator.aggregate(buf, POSITION, 4, columns.get(0).size());
+
+    Assert.assertEquals(bufferAggregator.get(expectedBuf, POSITION), vectorAggregator.get(buf, POSITION));
+  }
+
+  private static CardinalityVectorAggregator makeVectorAggregator(List<List<String>> columns, boolean byRow)
+  {
+    return new CardinalityVectorAggregator(
+        columns.stream().map(TestVectorSelector::new).collect(Collectors.toList()),
+        byRow
+    );
+  }
+
+  private static class TestVectorSelector implements SingleValueDimensionVectorSelector
+  {
+    private final List<String> dictionary = new ArrayList<>();
+    private final int[] rows;
+
+    TestVectorSelector(List<String> values)
+    {
+      rows = new int[values.size()];
+      for (int i = 0; i < values.size(); i++) {
+        int id = dictionary.indexOf(values.get(i));
+        if (id < 0) {
+          id = dictionary.size();
+          dictionary.add(values.get(i));
+        }
+        rows[i] = id;
+      }
+    }
+
+    @Override
+    public int[] getRowVector()
+    {
+      return rows;
+    }
+
+    @Override
+    public int getValueCardinality()
+    {
+      return dictionary.size();
+    }
+
+    @Nullable
+    @Override
+    public String lookupName(int id)
+    {
+      return dictionary.get(id);
+    }
+
+    @Override
+    public boolean nameLookupPossibleInAdvance()
+    {
+      return true;
+    }
+
+    @Nullable
+    @Override
+    public IdLookup idLookup()
+    {
+      return null;
+    }
+
+    @Override
+    public int getMaxVectorSize()
+    {
+      return rows.length;
+    }
+
+    @Override
+    public int getCurrentVectorSize()
+    {
+      return rows.length;
+    }
+  }
+}
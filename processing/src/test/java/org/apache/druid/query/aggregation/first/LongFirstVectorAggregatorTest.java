@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.aggregation.first;
+
+import org.apache.druid.collections.SerializablePair;
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.segment.vector.VectorValueSelector;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LongFirstVectorAggregatorTest extends InitializedNullHandlingTest
+{
+  private static final int POSITION = 2;
+  private static final int OTHER_POSITION = 40;
+  private static final long[] TIMES = new long[]{3L, 1L, 2L, 1L, 5L};
+  private static final long[] VALUES = new long[]{7L, 11, -892587293, 60, 123};
+  private static final boolean[] NULLS = new boolean[]{false, false, true, false, false};
+
+  private ByteBuffer buf;
+  @Mock
+  private VectorValueSelector timeSelector;
+  @Mock
+  private VectorValueSelector valueSelector;
+
+  private LongFirstVectorAggregator target;
+
+  @Before
+  public void setUp()
+  {
+    byte[] randomBytes = new byte[128];
+    ThreadLocalRandom.current().nextBytes(randomBytes);
+    buf = ByteBuffer.wrap(randomBytes);
+    Mockito.doReturn(TIMES).when(timeSelector).getLongVector();
+    Mockito.doReturn(VALUES).when(valueSelector).getLongVector();
+
+    target = new LongFirstVectorAggregator(timeSelector, valueSelector);
+    target.init(buf, POSITION);
+    target.init(buf, OTHER_POSITION);
+  }
+
+  @Test
+  public void aggregateRangeShouldKeepEarliestRow()
+  {
+    target.aggregate(buf, POSITION, 0, TIMES.length);
+    assertPair(1L, VALUES[1], POSITION);
+  }
+
+  @Test
+  public void aggregateRangeShouldNotReplaceEarlierValue()
+  {
+    target.aggregate(buf, POSITION, 3, 5);
+    assertPair(1L, VALUES[3], POSITION);
+    target.aggregate(buf, POSITION, 0, 3);
+    assertPair(1L, VALUES[3], POSITION);
+  }
+
+  @Test
+  public void aggregateBatchShouldUsePositionsAndRows()
+  {
+    target.aggregate(buf, 3, new int[]{0, OTHER_POSITION - POSITION, 0}, new int[]{0, 1, 3}, POSITION);
+    assertPair(1L, VALUES[3], POSITION);
+    assertPair(1L, VALUES[1], OTHER_POSITION);
+  }
+
+  @Test
+  public void aggregateBatchWithNullValue()
+  {
+    if (NullHandling.sqlCompatible()) {
+      Mockito.doReturn(NULLS).when(valueSelector).getNullVector();
+    }
+    target.aggregate(buf, 2, new int[]{POSITION, OTHER_POSITION}, new int[]{2, 1}, 0);
+    assertPair(2L, NullHandling.replaceWithDefault() ? VALUES[2] : null, POSITION);
+    assertPair(1L, VALUES[1], OTHER_POSITION);
+  }
+
+  @Test
+  public void bufferLayoutShouldMatchBufferAggregator()
+  {
+    target.aggregate(buf, POSITION, 0, TIMES.length);
+    Assert.assertEquals(
+        new LongFirstBufferAggregator(null, null).get(buf, POSITION),
+        target.get(buf, POSITION)
+    );
+  }
+
+  private void assertPair(long expectedTime, Long expectedValue, int position)
+  {
+    SerializablePair<Long, Long> pair = (SerializablePair<Long, Long>) target.get(buf, position);
+    Assert.assertEquals(expectedTime, (long) pair.lhs);
+    Assert.assertEquals(expectedValue, pair.rhs);
+  }
+}
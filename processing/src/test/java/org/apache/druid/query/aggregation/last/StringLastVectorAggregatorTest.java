@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.aggregation.last;
+
+import org.apache.druid.query.aggregation.SerializablePairLongString;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorValueSelector;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StringLastVectorAggregatorTest extends InitializedNullHandlingTest
+{
+  private static final int MAX_STRING_BYTES = 32;
+  private static final int BUFFER_SIZE = 1024;
+  private static final int POSITION = 2;
+  private static final int OTHER_POSITION = 512;
+  private static final long[] TIMES = new long[]{1L, 3L, 2L, 3L, 0L};
+  private static final int[] ROWS = new int[]{1, 0, 2, 2, 3};
+  private static final String[] DICTIONARY = new String[]{"Zero", "One", "TwoThisStringIsLongerThanThirtyTwoBytes"};
+
+  private ByteBuffer buf;
+  @Mock
+  private VectorValueSelector timeSelector;
+  @Mock
+  private SingleValueDimensionVectorSelector valueSelector;
+
+  private StringLastVectorAggregator target;
+
+  @Before
+  public void setUp()
+  {
+    byte[] randomBytes = new byte[BUFFER_SIZE];
+    ThreadLocalRandom.current().nextBytes(randomBytes);
+    buf = ByteBuffer.wrap(randomBytes);
+    Mockito.doReturn(TIMES).when(timeSelector).getLongVector();
+    Mockito.doReturn(ROWS).when(valueSelector).getRowVector();
+    Mockito.doAnswer(invocation -> {
+      int index = invocation.getArgument(0);
+      return index >= DICTIONARY.length ? null : DICTIONARY[index];
+    }).when(valueSelector).lookupName(anyInt());
+
+    target = new StringLastVectorAggregator(timeSelector, valueSelector, MAX_STRING_BYTES);
+    target.init(buf, POSITION);
+    target.init(buf, OTHER_POSITION);
+  }
+
+  @Test
+  public void aggregateRangeShouldKeepLatestRowAndTruncate()
+  {
+    target.aggregate(buf, POSITION, 0, TIMES.length);
+    assertPair(3L, DICTIONARY[2].substring(0, MAX_STRING_BYTES), POSITION);
+  }
+
+  @Test
+  public void aggregateRangeShouldNotReplaceLaterValue()
+  {
+    target.aggregate(buf, POSITION, 1, 2);
+    assertPair(3L, DICTIONARY[0], POSITION);
+    target.aggregate(buf, POSITION, 2, 3);
+    assertPair(3L, DICTIONARY[0], POSITION);
+  }
+
+  @Test
+  public void aggregateBatchShouldUsePositionsAndRows()
+  {
+    target.aggregate(buf, 3, new int[]{0, OTHER_POSITION - POSITION, 0}, new int[]{0, 4, 1}, POSITION);
+    assertPair(3L, DICTIONARY[0], POSITION);
+    assertPair(0L, null, OTHER_POSITION);
+  }
+
+  @Test
+  public void bufferLayoutShouldMatchBufferAggregator()
+  {
+    target.aggregate(buf, POSITION, 0, TIMES.length);
+    Assert.assertEquals(
+        new StringLastBufferAggregator(null, null, MAX_STRING_BYTES, false).get(buf, POSITION),
+        target.get(buf, POSITION)
+    );
+  }
+
+  private void assertPair(long expectedTime, String expectedValue, int position)
+  {
+    SerializablePairLongString pair = (SerializablePairLongString) target.get(buf, position);
+    Assert.assertEquals(expectedTime, (long) pair.lhs);
+    Assert.assertEquals(expectedValue, pair.rhs);
+  }
+}
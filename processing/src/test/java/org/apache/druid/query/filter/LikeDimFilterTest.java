@@ -30,6 +30,7 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 
 public class LikeDimFilterTest extends InitializedNullHandlingTest
 {
@@ -80,12 +81,26 @@ public class LikeDimFilterTest extends InitializedNullHandlingTest
                   .verify();
   }
 
+  @Test
+  public void testLikeMatcherLiterals()
+  {
+    Assert.assertEquals(
+        Arrays.asList("foo", "b", "ar"),
+        LikeDimFilter.LikeMatcher.from("%foo%b_ar", null).getLiterals()
+    );
+    Assert.assertEquals(
+        Arrays.asList("a%b", "c"),
+        LikeDimFilter.LikeMatcher.from("a@%b%%c", '@').getLiterals()
+    );
+    Assert.assertEquals(Collections.emptyList(), LikeDimFilter.LikeMatcher.from("%_%", null).getLiterals());
+  }
+
   @Test
   public void test_LikeMatcher_equals()
   {
     EqualsVerifier.forClass(LikeDimFilter.LikeMatcher.class)
                   .usingGetClass()
-                  .withNonnullFields("suffixMatch", "prefix", "pattern")
+                  .withNonnullFields("suffixMatch", "prefix", "pattern", "literals")
                   .verify();
   }
 }
@@ -25,9 +25,11 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Ordering;
 import com.google.common.primitives.Ints;
+import org.apache.datasketches.memory.WritableMemory;
 import org.apache.druid.common.config.NullHandling;
 import org.apache.druid.data.input.MapBasedRow;
 import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.common.parsers.CloseableIterator;
 import org.apache.druid.query.aggregation.AggregatorAdapters;
 import org.apache.druid.query.aggregation.AggregatorFactory;
 import org.apache.druid.query.aggregation.CountAggregatorFactory;
@@ -37,9 +39,13 @@ import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class BufferArrayGrouperTest
 {
@@ -77,6 +83,43 @@ public class BufferArrayGrouperTest
     );
   }
 
+  @Test
+  public void testAggregateVectorKeyRows() throws IOException
+  {
+    // Keys of a vector whose second and third rows have two values each. The first key is not aggregated.
+    final int[] keys = new int[]{7, 1, 2, 3, 1, 3};
+    final int[] keyRows = new int[]{0, 1, 1, 2, 2, 3};
+    final WritableMemory keySpace = WritableMemory.allocate(keys.length * Integer.BYTES);
+    for (int i = 0; i < keys.length; i++) {
+      keySpace.putInt(i * Integer.BYTES, keys[i]);
+    }
+
+    final BufferArrayGrouper grouper = new BufferArrayGrouper(
+        Suppliers.ofInstance(ByteBuffer.allocate(1024)),
+        GrouperTestUtil.newVectorAggregators(new long[]{10L, 20L, 30L, 40L}),
+        8
+    );
+    grouper.initVectorized(keys.length);
+
+    // Aggregate in two parts split within row 2, as when resuming after a partial aggregation.
+    Assert.assertTrue(grouper.aggregateVector(keySpace, keyRows, 1, 4).isOk());
+    Assert.assertTrue(grouper.aggregateVector(keySpace, keyRows, 4, keys.length).isOk());
+
+    final Map<Integer, List<Object>> entries = new HashMap<>();
+    try (CloseableIterator<Entry<Integer>> iterator = grouper.iterator(false)) {
+      while (iterator.hasNext()) {
+        final Entry<Integer> entry = iterator.next();
+        entries.put(entry.getKey(), Arrays.asList(entry.getValues()));
+      }
+    }
+    Assert.assertEquals(
+        ImmutableMap.of(1, Arrays.asList(50L, 2L), 2, Arrays.asList(20L, 1L), 3, Arrays.asList(70L, 2L)),
+        entries
+    );
+
+    grouper.close();
+  }
+
   private BufferArrayGrouper newGrouper(
       TestColumnSelectorFactory columnSelectorFactory,
       int bufferSize
@@ -19,6 +19,14 @@
 
 package org.apache.druid.query.groupby.epinephelinae;
 
+import com.google.common.collect.ImmutableList;
+import org.apache.druid.query.aggregation.AggregatorAdapters;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorValueSelector;
+import org.mockito.Mockito;
+
 public class GrouperTestUtil
 {
   private GrouperTestUtil()
@@ -35,4 +43,25 @@ public class GrouperTestUtil
   {
     return new TestColumnSelectorFactory();
   }
+
+  /**
+   * Returns vector aggregators computing the sum of column "value", whose current vector is "values", and the count
+   * of rows.
+   */
+  public static AggregatorAdapters newVectorAggregators(final long[] values)
+  {
+    final VectorValueSelector valueSelector = Mockito.mock(VectorValueSelector.class);
+    Mockito.when(valueSelector.getLongVector()).thenReturn(values);
+
+    final VectorColumnSelectorFactory columnSelectorFactory = Mockito.mock(VectorColumnSelectorFactory.class);
+    Mockito.when(columnSelectorFactory.makeValueSelector("value")).thenReturn(valueSelector);
+
+    return AggregatorAdapters.factorizeVector(
+        columnSelectorFactory,
+        ImmutableList.of(
+            new LongSumAggregatorFactory("valueSum", "value"),
+            new CountAggregatorFactory("count")
+        )
+    );
+  }
 }
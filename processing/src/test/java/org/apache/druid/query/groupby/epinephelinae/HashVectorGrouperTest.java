@@ -20,14 +20,33 @@
 package org.apache.druid.query.groupby.epinephelinae;
 
 import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableMap;
+import org.apache.datasketches.memory.Memory;
+import org.apache.datasketches.memory.WritableMemory;
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.java.util.common.parsers.CloseableIterator;
 import org.apache.druid.query.aggregation.AggregatorAdapters;
+import org.apache.druid.query.groupby.epinephelinae.collection.MemoryOpenHashTable;
+import org.junit.Assert;
+import org.junit.BeforeClass;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class HashVectorGrouperTest
 {
+  @BeforeClass
+  public static void setUpStatic()
+  {
+    NullHandling.initializeForTests();
+  }
+
   @Test
   public void testCloseAggregatorAdaptorsShouldBeClosed()
   {
@@ -45,4 +64,62 @@ public class HashVectorGrouperTest
     grouper.close();
     Mockito.verify(aggregatorAdapters, Mockito.times(1)).close();
   }
+
+  @Test
+  public void testAggregateKeyRowsResumesAfterTableFull() throws IOException
+  {
+    // Keys of a vector whose second and third rows have two values each. The first key was aggregated already.
+    final int[] keys = new int[]{7, 1, 2, 3, 1, 3};
+    final int[] keyRows = new int[]{0, 1, 1, 2, 2, 3};
+    final WritableMemory keySpace = WritableMemory.allocate(keys.length * Integer.BYTES);
+    for (int i = 0; i < keys.length; i++) {
+      keySpace.putInt(i * Integer.BYTES, keys[i]);
+    }
+
+    // Buffer of four buckets, which holds two keys at a load factor of 0.5 and cannot grow.
+    final AggregatorAdapters aggregators = GrouperTestUtil.newVectorAggregators(new long[]{10L, 20L, 30L, 40L});
+    final ByteBuffer buffer = ByteBuffer.allocate(
+        MemoryOpenHashTable.memoryNeeded(4, MemoryOpenHashTable.bucketSize(Integer.BYTES, aggregators.spaceNeeded()))
+    );
+    final HashVectorGrouper grouper = new HashVectorGrouper(
+        Suppliers.ofInstance(buffer),
+        Integer.BYTES,
+        aggregators,
+        Integer.MAX_VALUE,
+        0.5f,
+        4
+    );
+    grouper.initVectorized(keys.length);
+
+    // The table is full at the third key, which is the first key of row 2; the count is relative to the start key.
+    final AggregateResult result = grouper.aggregateVector(keySpace, keyRows, 1, keys.length);
+    Assert.assertFalse(result.isOk());
+    Assert.assertEquals(2, result.getCount());
+    Assert.assertEquals(
+        ImmutableMap.of(1, Arrays.asList(20L, 1L), 2, Arrays.asList(20L, 1L)),
+        entries(grouper)
+    );
+
+    // Resume from the first key which was not aggregated, as after a spill.
+    grouper.reset();
+    Assert.assertTrue(grouper.aggregateVector(keySpace, keyRows, 1 + result.getCount(), keys.length).isOk());
+    Assert.assertEquals(
+        ImmutableMap.of(1, Arrays.asList(30L, 1L), 3, Arrays.asList(70L, 2L)),
+        entries(grouper)
+    );
+
+    grouper.close();
+  }
+
+  private static Map<Integer, List<Object>> entries(final HashVectorGrouper grouper) throws IOException
+  {
+    final Map<Integer, List<Object>> entries = new HashMap<>();
+    try (CloseableIterator<Grouper.Entry<Memory>> iterator = grouper.iterator()) {
+      while (iterator.hasNext()) {
+        final Grouper.Entry<Memory> entry = iterator.next();
+        entries.put(entry.getKey().getInt(0), Arrays.asList(entry.getValues()));
+      }
+    }
+    return entries;
+  }
 }
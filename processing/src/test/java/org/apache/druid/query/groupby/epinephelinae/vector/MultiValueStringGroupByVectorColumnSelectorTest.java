@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.groupby.epinephelinae.vector;
+
+import org.apache.datasketches.memory.WritableMemory;
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.query.groupby.ResultRow;
+import org.apache.druid.query.groupby.epinephelinae.column.GroupByColumnSelectorStrategy;
+import org.apache.druid.segment.data.ArrayBasedIndexedInts;
+import org.apache.druid.segment.data.IndexedInts;
+import org.apache.druid.segment.vector.MultiValueDimensionVectorSelector;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class MultiValueStringGroupByVectorColumnSelectorTest extends InitializedNullHandlingTest
+{
+  private static final int KEY_SIZE = 8;
+  private static final int KEY_OFFSET = 4;
+  private static final int MISSING_VALUE = GroupByColumnSelectorStrategy.GROUP_BY_MISSING_VALUE;
+
+  private MultiValueStringGroupByVectorColumnSelector selector;
+
+  @Before
+  public void setUp()
+  {
+    final MultiValueDimensionVectorSelector dimensionSelector = Mockito.mock(MultiValueDimensionVectorSelector.class);
+    Mockito.when(dimensionSelector.getRowVector()).thenReturn(
+        new IndexedInts[]{
+            new ArrayBasedIndexedInts(new int[]{1, 2}),
+            new ArrayBasedIndexedInts(new int[]{}),
+            new ArrayBasedIndexedInts(new int[]{0})
+        }
+    );
+    Mockito.when(dimensionSelector.lookupName(0)).thenReturn("a");
+    Mockito.when(dimensionSelector.lookupName(1)).thenReturn("b");
+    Mockito.when(dimensionSelector.lookupName(2)).thenReturn("c");
+    selector = new MultiValueStringGroupByVectorColumnSelector(dimensionSelector);
+  }
+
+  @Test
+  public void testGetGroupingKeySize()
+  {
+    Assert.assertEquals(Integer.BYTES, selector.getGroupingKeySize());
+  }
+
+  @Test
+  public void testGetRowSize()
+  {
+    Assert.assertEquals(2, selector.getRowSize(0));
+    Assert.assertEquals(1, selector.getRowSize(1));
+    Assert.assertEquals(1, selector.getRowSize(2));
+  }
+
+  @Test
+  public void testWriteKeys()
+  {
+    final WritableMemory keySpace = WritableMemory.allocate(3 * KEY_SIZE);
+    selector.writeKeys(keySpace, KEY_SIZE, KEY_OFFSET, 0, 3);
+
+    // The first value of each row.
+    Assert.assertEquals(1, keySpace.getInt(KEY_OFFSET));
+    Assert.assertEquals(MISSING_VALUE, keySpace.getInt(KEY_SIZE + KEY_OFFSET));
+    Assert.assertEquals(0, keySpace.getInt(2 * KEY_SIZE + KEY_OFFSET));
+  }
+
+  @Test
+  public void testWriteKey()
+  {
+    final WritableMemory keySpace = WritableMemory.allocate(4 * KEY_SIZE);
+    selector.writeKey(keySpace, KEY_OFFSET, 0, 0);
+    selector.writeKey(keySpace, KEY_SIZE + KEY_OFFSET, 0, 1);
+    selector.writeKey(keySpace, 2 * KEY_SIZE + KEY_OFFSET, 1, 0);
+    selector.writeKey(keySpace, 3 * KEY_SIZE + KEY_OFFSET, 2, 0);
+
+    Assert.assertEquals(1, keySpace.getInt(KEY_OFFSET));
+    Assert.assertEquals(2, keySpace.getInt(KEY_SIZE + KEY_OFFSET));
+    Assert.assertEquals(MISSING_VALUE, keySpace.getInt(2 * KEY_SIZE + KEY_OFFSET));
+    Assert.assertEquals(0, keySpace.getInt(3 * KEY_SIZE + KEY_OFFSET));
+  }
+
+  @Test
+  public void testWriteKeyToResultRow()
+  {
+    final WritableMemory keyMemory = WritableMemory.allocate(2 * Integer.BYTES);
+    keyMemory.putInt(0, 2);
+    keyMemory.putInt(Integer.BYTES, MISSING_VALUE);
+
+    final ResultRow resultRow = ResultRow.create(3);
+    selector.writeKeyToResultRow(keyMemory, 0, resultRow, 1);
+    selector.writeKeyToResultRow(keyMemory, Integer.BYTES, resultRow, 2);
+
+    Assert.assertEquals("c", resultRow.get(1));
+    Assert.assertEquals(NullHandling.defaultStringValue(), resultRow.get(2));
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.query.scan;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.druid.jackson.DefaultObjectMapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class ColumnarScanResultEventsTest
+{
+  private static final ObjectMapper JSON_MAPPER = new DefaultObjectMapper();
+
+  private final ColumnarScanResultEvents events = new ColumnarScanResultEvents(
+      new ColumnarScanResultEvents.Column[]{
+          new ColumnarScanResultEvents.LongColumn(new long[]{1L, 2L, 3L}, null),
+          new ColumnarScanResultEvents.FloatColumn(new float[]{1.5f, 0f, 3.5f}, new boolean[]{false, true, false}),
+          new ColumnarScanResultEvents.DoubleColumn(new double[]{0.25, 0.5, 0.75}, null),
+          new ColumnarScanResultEvents.ObjectColumn(new Object[]{"a", null, Arrays.asList("b", "c")})
+      },
+      3
+  );
+
+  private final List<List<Object>> expected = Arrays.asList(
+      Arrays.asList(1L, 1.5f, 0.25, "a"),
+      Arrays.asList(2L, null, 0.5, null),
+      Arrays.asList(3L, 3.5f, 0.75, Arrays.asList("b", "c"))
+  );
+
+  @Test
+  public void testEqualsRowList()
+  {
+    Assert.assertEquals(expected, events);
+    Assert.assertEquals(events, expected);
+    Assert.assertEquals(expected.subList(1, 3), events.subList(1, 3));
+  }
+
+  @Test
+  public void testSerde() throws Exception
+  {
+    Assert.assertEquals(JSON_MAPPER.writeValueAsString(expected), JSON_MAPPER.writeValueAsString(events));
+  }
+
+  @Test
+  public void testSerdeAsScanResultValue() throws Exception
+  {
+    final List<String> columns = Arrays.asList("__time", "f", "d", "s");
+    final ScanResultValue value = new ScanResultValue("segment", columns, events);
+    Assert.assertEquals(
+        JSON_MAPPER.writeValueAsString(new ScanResultValue("segment", columns, expected)),
+        JSON_MAPPER.writeValueAsString(value)
+    );
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testGetOutOfBounds()
+  {
+    events.get(3);
+  }
+}
@@ -31,6 +31,7 @@ import org.apache.druid.query.QueryRunner;
 import org.apache.druid.query.QueryRunnerTestHelper;
 import org.apache.druid.query.Result;
 import org.apache.druid.segment.IncrementalIndexSegment;
+import org.apache.druid.segment.IndexSpec;
 import org.apache.druid.segment.QueryableIndex;
 import org.apache.druid.segment.QueryableIndexSegment;
 import org.apache.druid.segment.TestIndex;
@@ -76,7 +77,10 @@ public class SearchQueryRunnerWithCaseTest extends InitializedNullHandlingTest
     IncrementalIndex index2 = TestIndex.makeRealtimeIndex(input);
 
     QueryableIndex index3 = TestIndex.persistRealtimeAndLoadMMapped(index1);
-    QueryableIndex index4 = TestIndex.persistRealtimeAndLoadMMapped(index2);
+    QueryableIndex index4 = TestIndex.persistRealtimeAndLoadMMapped(
+        index2,
+        new IndexSpec(null, null, null, null, null, null, null, null, true, null)
+    );
 
     final List<QueryRunner<Result<SearchResultValue>>> runners = new ArrayList<>();
     for (SearchQueryConfig config : configs) {
@@ -115,16 +115,14 @@ public class TimeseriesQueryRunnerTest extends InitializedNullHandlingTest
         Arrays.asList(QueryRunnerTestHelper.COMMON_DOUBLE_AGGREGATORS, QueryRunnerTestHelper.COMMON_FLOAT_AGGREGATORS)
     );
 
-    // Add vectorization tests for any indexes that support it.
+    // Add vectorization tests for ascending queries, vector cursors can't iterate backwards.
     return StreamSupport
         .stream(baseConstructors.spliterator(), false)
         .filter(
             constructor -> {
-              boolean canVectorize =
-                  QueryRunnerTestHelper.isTestRunnerVectorizable((QueryRunner) constructor[0])
-                  && !(boolean) constructor[1] /* descending */;
-              final boolean vectorize = (boolean) constructor[2]; /* vectorize */
-              return !vectorize || canVectorize;
+              final boolean descending = (boolean) constructor[1];
+              final boolean vectorize = (boolean) constructor[2];
+              return !vectorize || !descending;
             }
         )
         .collect(Collectors.toList());
@@ -159,9 +157,6 @@ public class TimeseriesQueryRunnerTest extends InitializedNullHandlingTest
   @Test
   public void testEmptyTimeseries()
   {
-    // Cannot vectorize due to "doubleFirst" aggregator.
-    cannotVectorize();
-
     TimeseriesQuery query = Druids.newTimeseriesQueryBuilder()
                                   .dataSource(QueryRunnerTestHelper.DATA_SOURCE)
                                   .granularity(QueryRunnerTestHelper.ALL_GRAN)
@@ -1940,9 +1935,6 @@ public class TimeseriesQueryRunnerTest extends InitializedNullHandlingTest
   @Test
   public void testTimeseriesWithFirstLastAggregator()
   {
-    // Cannot vectorize due to "doubleFirst", "doubleLast" aggregators.
-    cannotVectorize();
-
     TimeseriesQuery query = Druids.newTimeseriesQueryBuilder()
                                   .dataSource(QueryRunnerTestHelper.DATA_SOURCE)
                                   .granularity(QueryRunnerTestHelper.MONTH_GRAN)
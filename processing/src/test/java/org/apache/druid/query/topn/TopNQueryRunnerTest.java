@@ -42,6 +42,7 @@ import org.apache.druid.math.expr.ExprMacroTable;
 import org.apache.druid.query.BySegmentResultValue;
 import org.apache.druid.query.BySegmentResultValueClass;
 import org.apache.druid.query.FinalizeResultsQueryRunner;
+import org.apache.druid.query.QueryContexts;
 import org.apache.druid.query.QueryPlus;
 import org.apache.druid.query.QueryRunner;
 import org.apache.druid.query.QueryRunnerTestHelper;
@@ -252,6 +253,11 @@ public class TopNQueryRunnerTest extends InitializedNullHandlingTest
   {
     final Sequence<Result<TopNResultValue>> retval = runWithMerge(query);
     TestHelper.assertExpectedResults(expectedResults, retval);
+    // queries on mmapped segments are vectorized by default, also check the pooled and heap based algorithms
+    TestHelper.assertExpectedResults(
+        expectedResults,
+        runWithMerge(query.withOverriddenContext(ImmutableMap.of(QueryContexts.VECTORIZE_KEY, "false")))
+    );
     return retval;
   }
 
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.topn;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.druid.collections.CloseableStupidPool;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.java.util.common.granularity.Granularity;
+import org.apache.druid.query.QueryContexts;
+import org.apache.druid.query.QueryRunnerTestHelper;
+import org.apache.druid.query.Result;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.apache.druid.query.aggregation.DoubleSumAggregatorFactory;
+import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
+import org.apache.druid.query.dimension.ExtractionDimensionSpec;
+import org.apache.druid.query.extraction.SubstringDimExtractionFn;
+import org.apache.druid.query.filter.SelectorDimFilter;
+import org.apache.druid.segment.QueryableIndexStorageAdapter;
+import org.apache.druid.segment.StorageAdapter;
+import org.apache.druid.segment.TestHelper;
+import org.apache.druid.segment.TestIndex;
+import org.apache.druid.segment.filter.Filters;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+public class VectorTopNEngineTest extends InitializedNullHandlingTest
+{
+  private final StorageAdapter adapter = new QueryableIndexStorageAdapter(TestIndex.getMMappedTestIndex());
+  private final CloseableStupidPool<ByteBuffer> pool = new CloseableStupidPool<>(
+      "VectorTopNEngineTest-bufferPool",
+      () -> ByteBuffer.allocate(1 << 20)
+  );
+  private final TopNQueryEngine engine = new TopNQueryEngine(pool);
+
+  @After
+  public void tearDown()
+  {
+    pool.close();
+  }
+
+  @Test
+  public void testCanVectorize()
+  {
+    Assert.assertTrue(VectorTopNEngine.canVectorize(makeQuery(Granularities.ALL).build(), adapter, null));
+
+    // multi-value dimension
+    Assert.assertFalse(
+        VectorTopNEngine.canVectorize(
+            makeQuery(Granularities.ALL).dimension(QueryRunnerTestHelper.PLACEMENTISH_DIMENSION).build(),
+            adapter,
+            null
+        )
+    );
+
+    // extraction function
+    Assert.assertFalse(
+        VectorTopNEngine.canVectorize(
+            makeQuery(Granularities.ALL).dimension(
+                new ExtractionDimensionSpec(
+                    QueryRunnerTestHelper.MARKET_DIMENSION,
+                    QueryRunnerTestHelper.MARKET_DIMENSION,
+                    new SubstringDimExtractionFn(0, 1)
+                )
+            ).build(),
+            adapter,
+            null
+        )
+    );
+
+    // nonexistent dimension
+    Assert.assertFalse(
+        VectorTopNEngine.canVectorize(makeQuery(Granularities.ALL).dimension("nonexistent").build(), adapter, null)
+    );
+  }
+
+  @Test
+  public void testFitsInBuffer()
+  {
+    final TopNQuery query = makeQuery(Granularities.ALL).build();
+    Assert.assertTrue(VectorTopNEngine.fitsInBuffer(query, adapter, 1 << 20));
+    Assert.assertFalse(VectorTopNEngine.fitsInBuffer(query, adapter, 16));
+  }
+
+  @Test
+  public void testMatchesNonVectorized()
+  {
+    for (Granularity granularity : ImmutableList.of(Granularities.ALL, Granularities.DAY, Granularities.MONTH)) {
+      assertVectorizedMatchesNonVectorized(makeQuery(granularity).build());
+      assertVectorizedMatchesNonVectorized(
+          makeQuery(granularity).filters(QueryRunnerTestHelper.QUALITY_DIMENSION, "automotive", "mezzanine").build()
+      );
+      assertVectorizedMatchesNonVectorized(
+          makeQuery(granularity).dimension(QueryRunnerTestHelper.QUALITY_DIMENSION).threshold(3).build()
+      );
+    }
+  }
+
+  @Test
+  public void testLexicographicMetricWithPreviousStop()
+  {
+    assertVectorizedMatchesNonVectorized(
+        makeQuery(Granularities.ALL)
+            .dimension(QueryRunnerTestHelper.QUALITY_DIMENSION)
+            .metric(new DimensionTopNMetricSpec("entertainment", null))
+            .build()
+    );
+  }
+
+  @Test
+  public void testForceWithBufferTooSmall()
+  {
+    final CloseableStupidPool<ByteBuffer> smallPool = new CloseableStupidPool<>(
+        "VectorTopNEngineTest-smallBufferPool",
+        () -> ByteBuffer.allocate(16)
+    );
+    final TopNQuery query = makeQuery(Granularities.ALL).build();
+    try {
+      final TopNQueryEngine smallEngine = new TopNQueryEngine(smallPool);
+
+      // falls back to the pooled algorithm, making multiple passes
+      Assert.assertEquals(
+          engine.query(withVectorize(query, "false"), adapter, null).toList(),
+          smallEngine.query(withVectorize(query, "true"), adapter, null).toList()
+      );
+
+      try {
+        smallEngine.query(withVectorize(query, "force"), adapter, null).toList();
+        Assert.fail("Expected ISE");
+      }
+      catch (ISE e) {
+        Assert.assertTrue(e.getMessage().contains("do not fit in a processing buffer"));
+      }
+    }
+    finally {
+      smallPool.close();
+    }
+  }
+
+  private void assertVectorizedMatchesNonVectorized(TopNQuery query)
+  {
+    Assert.assertTrue(
+        VectorTopNEngine.canVectorize(query, adapter, Filters.toFilter(query.getDimensionsFilter()))
+    );
+    final List<Result<TopNResultValue>> expected = engine.query(withVectorize(query, "false"), adapter, null).toList();
+    final List<Result<TopNResultValue>> actual = engine.query(withVectorize(query, "force"), adapter, null).toList();
+    TestHelper.assertExpectedResults(expected, actual);
+  }
+
+  private static TopNQuery withVectorize(TopNQuery query, String vectorize)
+  {
+    return query.withOverriddenContext(ImmutableMap.of(QueryContexts.VECTORIZE_KEY, vectorize));
+  }
+
+  private static TopNQueryBuilder makeQuery(Granularity granularity)
+  {
+    return new TopNQueryBuilder()
+        .dataSource(QueryRunnerTestHelper.DATA_SOURCE)
+        .granularity(granularity)
+        .dimension(QueryRunnerTestHelper.MARKET_DIMENSION)
+        .metric("index")
+        .threshold(4)
+        .intervals(QueryRunnerTestHelper.FULL_ON_INTERVAL_SPEC)
+        .aggregators(
+            new CountAggregatorFactory("rows"),
+            new DoubleSumAggregatorFactory("index", "index"),
+            new LongSumAggregatorFactory("qualityLong", "qualityLong")
+        );
+  }
+}
@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.druid.data.input.InputRow;
+import org.apache.druid.data.input.MapBasedInputRow;
+import org.apache.druid.data.input.impl.DimensionsSpec;
+import org.apache.druid.java.util.common.DateTimes;
+import org.apache.druid.java.util.common.Intervals;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.java.util.common.granularity.Granularity;
+import org.apache.druid.java.util.common.guava.Sequence;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.apache.druid.query.dimension.DefaultDimensionSpec;
+import org.apache.druid.query.filter.Filter;
+import org.apache.druid.segment.column.ColumnHolder;
+import org.apache.druid.segment.filter.AndFilter;
+import org.apache.druid.segment.filter.SelectorFilter;
+import org.apache.druid.segment.incremental.IncrementalIndexSchema;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorCursor;
+import org.apache.druid.segment.vector.VectorValueSelector;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.joda.time.Interval;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * Tests cursors on segments whose rows are clustered by their leading dimension within each timestamp, filtered on
+ * that dimension.
+ */
+@RunWith(Parameterized.class)
+public class ClusteredFilterCursorTest extends InitializedNullHandlingTest
+{
+  private static final List<String> TENANTS = Arrays.asList("t0", "t1", "t2", "t3", null);
+
+  @Parameterized.Parameters(name = "merged={0}")
+  public static Collection<Object[]> constructorFeeder()
+  {
+    return ImmutableList.of(new Object[]{false}, new Object[]{true});
+  }
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final boolean merged;
+  private final List<InputRow> rows = new ArrayList<>();
+  private QueryableIndex index;
+  private QueryableIndexStorageAdapter adapter;
+
+  public ClusteredFilterCursorTest(boolean merged)
+  {
+    this.merged = merged;
+  }
+
+  @Before
+  public void setUp() throws IOException
+  {
+    final Random random = new Random(1234);
+    final List<String> dimensions = Arrays.asList("tenant", "page", "id");
+    for (int i = 0; i < 3000; i++) {
+      final Map<String, Object> event = new HashMap<>();
+      event.put("tenant", TENANTS.get(random.nextInt(TENANTS.size())));
+      event.put("page", "p" + random.nextInt(10));
+      event.put("id", String.valueOf(i));
+      final long timestamp = DateTimes.of("2020-01-01").getMillis() + random.nextInt(3 * 3600_000);
+      rows.add(new MapBasedInputRow(timestamp, dimensions, event));
+    }
+
+    final IndexBuilder builder = IndexBuilder
+        .create()
+        .tmpDir(temporaryFolder.newFolder())
+        .schema(
+            new IncrementalIndexSchema.Builder()
+                .withQueryGranularity(Granularities.HOUR)
+                .withDimensionsSpec(new DimensionsSpec(DimensionsSpec.getDefaultSchemas(dimensions)))
+                .withMetrics(new CountAggregatorFactory("count"))
+                .withRollup(false)
+                .build()
+        )
+        .rows(rows);
+    index = merged ? builder.buildMMappedMergedIndex() : builder.buildMMappedIndex();
+    adapter = new QueryableIndexStorageAdapter(index);
+  }
+
+  @After
+  public void tearDown()
+  {
+    index.close();
+  }
+
+  @Test
+  public void testSortOrder()
+  {
+    Assert.assertEquals(
+        Arrays.asList(ColumnHolder.TIME_COLUMN_NAME, "tenant", "page", "id"),
+        index.getMetadata().getSortOrder()
+    );
+  }
+
+  @Test
+  public void testAnalyzeFilter()
+  {
+    final ColumnSelectorBitmapIndexSelector selector = adapter.makeBitmapIndexSelector(VirtualColumns.EMPTY);
+    final SelectorFilter tenantFilter = new SelectorFilter("tenant", "t1");
+
+    QueryableIndexStorageAdapter.FilterAnalysis analysis = adapter.analyzeFilter(tenantFilter, selector, null);
+    Assert.assertSame(tenantFilter, analysis.getClusteredFilter());
+    Assert.assertNull(analysis.getPreFilterBitmap());
+    Assert.assertNull(analysis.getPostFilter());
+
+    // other bitmap filters are not intersected with the rows of the clustered filter
+    analysis = adapter.analyzeFilter(
+        new AndFilter(ImmutableList.of(tenantFilter, new SelectorFilter("page", "p1"))),
+        selector,
+        null
+    );
+    Assert.assertNull(analysis.getClusteredFilter());
+
+    // filters on other dimensions are not clustered
+    analysis = adapter.analyzeFilter(new SelectorFilter("page", "p1"), selector, null);
+    Assert.assertNull(analysis.getClusteredFilter());
+  }
+
+  @Test
+  public void testCursors()
+  {
+    final List<Interval> intervals = ImmutableList.of(
+        Intervals.of("2020-01-01/2020-01-02"),
+        Intervals.of("2020-01-01T01/2020-01-01T02"),
+        Intervals.of("2020-01-01T00:30/2020-01-01T02:30")
+    );
+    for (String tenant : TENANTS) {
+      for (Interval interval : intervals) {
+        assertCursors(
+            new SelectorFilter("tenant", tenant),
+            row -> Objects.equals(tenant, row.getRaw("tenant")),
+            interval
+        );
+      }
+    }
+    assertCursors(new SelectorFilter("tenant", "missing"), row -> false, intervals.get(0));
+  }
+
+  private void assertCursors(Filter filter, Predicate<InputRow> predicate, Interval interval)
+  {
+    final List<String> expected = new ArrayList<>();
+    for (InputRow row : rows) {
+      final long hour = Granularities.HOUR.bucketStart(row.getTimestamp()).getMillis();
+      if (interval.contains(hour) && predicate.test(row)) {
+        expected.add(hour + "," + row.getRaw("page"));
+      }
+    }
+    Collections.sort(expected);
+    final String message = StringUtils.format("filter[%s], interval[%s]", filter, interval);
+
+    for (Granularity gran : ImmutableList.of(Granularities.ALL, Granularities.HOUR)) {
+      for (boolean descending : new boolean[]{false, true}) {
+        final List<String> actual = readCursors(
+            adapter.makeCursors(filter, interval, VirtualColumns.EMPTY, gran, descending, null),
+            descending
+        );
+        Collections.sort(actual);
+        Assert.assertEquals(message, expected, actual);
+      }
+    }
+
+    Assert.assertTrue(adapter.canVectorize(filter, VirtualColumns.EMPTY, false));
+    final VectorCursor cursor = adapter.makeVectorCursor(filter, interval, VirtualColumns.EMPTY, false, 64, null);
+    final List<String> actual = new ArrayList<>();
+    if (cursor != null) {
+      final VectorValueSelector timeSelector =
+          cursor.getColumnSelectorFactory().makeValueSelector(ColumnHolder.TIME_COLUMN_NAME);
+      final SingleValueDimensionVectorSelector pageSelector =
+          cursor.getColumnSelectorFactory().makeSingleValueDimensionSelector(DefaultDimensionSpec.of("page"));
+      for (; !cursor.isDone(); cursor.advance()) {
+        final long[] times = timeSelector.getLongVector();
+        final int[] pages = pageSelector.getRowVector();
+        for (int i = 0; i < cursor.getCurrentVectorSize(); i++) {
+          actual.add(times[i] + "," + pageSelector.lookupName(pages[i]));
+        }
+      }
+      cursor.close();
+    }
+    Assert.assertEquals(message, expected, actual);
+  }
+
+  private static List<String> readCursors(Sequence<Cursor> cursors, boolean descending)
+  {
+    final List<String> actual = new ArrayList<>();
+    cursors.accumulate(null, (accumulated, cursor) -> {
+      final BaseLongColumnValueSelector timeSelector =
+          cursor.getColumnSelectorFactory().makeColumnValueSelector(ColumnHolder.TIME_COLUMN_NAME);
+      final DimensionSelector pageSelector =
+          cursor.getColumnSelectorFactory().makeDimensionSelector(DefaultDimensionSpec.of("page"));
+      long previousTime = descending ? Long.MAX_VALUE : Long.MIN_VALUE;
+      for (; !cursor.isDone(); cursor.advance()) {
+        final long time = timeSelector.getLong();
+        Assert.assertTrue(descending ? time <= previousTime : time >= previousTime);
+        previousTime = time;
+        actual.add(time + "," + pageSelector.lookupName(pageSelector.getRow().get(0)));
+      }
+      return null;
+    });
+    return actual;
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment;
+
+import org.apache.druid.segment.column.ColumnConfig;
+import org.apache.druid.segment.column.ColumnHolder;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+public class IndexIOLazyColumnCacheTest extends InitializedNullHandlingTest
+{
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testLazyColumnsMatchEagerColumns() throws IOException
+  {
+    final File dir = persistTestIndex();
+    try (
+        QueryableIndex eager = TestHelper.getTestIndexIO().loadIndex(dir);
+        QueryableIndex lazy = makeIndexIO(1).loadIndex(dir, true, () -> {})
+    ) {
+      Assert.assertEquals(eager.getColumnNames(), lazy.getColumnNames());
+      Assert.assertEquals(eager.getNumRows(), lazy.getNumRows());
+      for (String column : eager.getColumnNames()) {
+        final ColumnHolder expected = eager.getColumnHolder(column);
+        final ColumnHolder actual = lazy.getColumnHolder(column);
+        Assert.assertEquals(column, expected.getCapabilities().getType(), actual.getCapabilities().getType());
+        Assert.assertEquals(
+            column,
+            expected.getCapabilities().hasBitmapIndexes(),
+            actual.getCapabilities().hasBitmapIndexes()
+        );
+      }
+      Assert.assertNull(lazy.getColumnHolder("nonexistent"));
+    }
+  }
+
+  @Test
+  public void testEvictedColumnIsDeserializedAgain() throws IOException
+  {
+    final File dir = persistTestIndex();
+    try (QueryableIndex lazy = makeIndexIO(1).loadIndex(dir, true, () -> {})) {
+      final ColumnHolder market = lazy.getColumnHolder("market");
+      Assert.assertSame(market, lazy.getColumnHolder("market"));
+
+      // evicts "market"
+      lazy.getColumnHolder("quality");
+      final ColumnHolder marketAgain = lazy.getColumnHolder("market");
+      Assert.assertNotSame(market, marketAgain);
+      Assert.assertEquals(market.getCapabilities().getType(), marketAgain.getCapabilities().getType());
+    }
+  }
+
+  @Test
+  public void testUnboundedCacheKeepsColumns() throws IOException
+  {
+    final File dir = persistTestIndex();
+    try (QueryableIndex lazy = makeIndexIO(0).loadIndex(dir, true, () -> {})) {
+      final ColumnHolder market = lazy.getColumnHolder("market");
+      lazy.getColumnHolder("quality");
+      Assert.assertSame(market, lazy.getColumnHolder("market"));
+    }
+  }
+
+  private File persistTestIndex() throws IOException
+  {
+    final File dir = temporaryFolder.newFolder();
+    TestIndex.INDEX_MERGER.persist(TestIndex.getIncrementalTestIndex(), dir, TestIndex.INDEX_SPEC, null);
+    return dir;
+  }
+
+  private static IndexIO makeIndexIO(int lazyColumnCacheSize)
+  {
+    return TestHelper.getTestIndexIO(
+        new ColumnConfig()
+        {
+          @Override
+          public int columnCacheSizeBytes()
+          {
+            return 0;
+          }
+
+          @Override
+          public int lazyColumnCacheSize()
+          {
+            return lazyColumnCacheSize;
+          }
+        }
+    );
+  }
+}
@@ -34,6 +34,7 @@ import org.apache.druid.segment.column.ColumnHolder;
 import org.apache.druid.segment.column.DictionaryEncodedColumn;
 import org.apache.druid.segment.data.IncrementalIndexTest;
 import org.apache.druid.segment.data.IndexedInts;
+import org.apache.druid.segment.data.StringEncodingStrategy;
 import org.apache.druid.segment.incremental.IncrementalIndex;
 import org.apache.druid.segment.writeout.OffHeapMemorySegmentWriteOutMediumFactory;
 import org.junit.Assert;
@@ -41,10 +42,13 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 import org.roaringbitmap.IntIterator;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -54,12 +58,24 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+@RunWith(Parameterized.class)
 public class IndexMergerNullHandlingTest
 {
   static {
     NullHandling.initializeForTests();
   }
 
+  @Parameterized.Parameters(name = "stringDictionaryEncoding={0}")
+  public static Collection<Object[]> constructorFeeder()
+  {
+    return ImmutableList.of(
+        new Object[]{StringEncodingStrategy.DEFAULT},
+        new Object[]{new StringEncodingStrategy.FrontCoded(1)},
+        new Object[]{new StringEncodingStrategy.FrontCoded(4)}
+    );
+  }
+
+  private final StringEncodingStrategy stringDictionaryEncoding;
   private IndexMerger indexMerger;
   private IndexIO indexIO;
   private IndexSpec indexSpec;
@@ -67,12 +83,17 @@ public class IndexMergerNullHandlingTest
   @Rule
   public TemporaryFolder temporaryFolder = new TemporaryFolder();
 
+  public IndexMergerNullHandlingTest(StringEncodingStrategy stringDictionaryEncoding)
+  {
+    this.stringDictionaryEncoding = stringDictionaryEncoding;
+  }
+
   @Before
   public void setUp()
   {
     indexMerger = TestHelper.getTestIndexMergerV9(OffHeapMemorySegmentWriteOutMediumFactory.instance());
     indexIO = TestHelper.getTestIndexIO();
-    indexSpec = new IndexSpec();
+    indexSpec = new IndexSpec(null, null, null, null, null, stringDictionaryEncoding, null, null, null, null);
   }
 
   @Test
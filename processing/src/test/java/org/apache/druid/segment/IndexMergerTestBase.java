@@ -258,7 +258,8 @@ public class IndexMergerTestBase extends InitializedNullHandlingTest
             IncrementalIndexTest.getDefaultCombiningAggregatorFactories(),
             null,
             Granularities.NONE,
-            Boolean.TRUE
+            Boolean.TRUE,
+            Arrays.asList(ColumnHolder.TIME_COLUMN_NAME, "dim1", "dim2")
         ),
         index.getMetadata()
     );
@@ -800,6 +801,10 @@ public class IndexMergerTestBase extends InitializedNullHandlingTest
     final List<DebugRow> rowList = RowIteratorHelper.toList(adapter.getRows());
 
     Assert.assertEquals(Arrays.asList("d3", "d1", "d2"), ImmutableList.copyOf(adapter.getDimensionNames()));
+    Assert.assertEquals(
+        Arrays.asList(ColumnHolder.TIME_COLUMN_NAME, "d3", "d1", "d2"),
+        merged.getMetadata().getSortOrder()
+    );
     Assert.assertEquals(3, rowList.size());
 
     Assert.assertEquals(Arrays.asList("30000", "100", "4000"), rowList.get(0).dimensionValues());
@@ -1419,6 +1424,10 @@ public class IndexMergerTestBase extends InitializedNullHandlingTest
     final List<DebugRow> rowList2 = RowIteratorHelper.toList(adapter2.getRows());
 
     Assert.assertEquals(ImmutableList.of("dimB", "dimA"), ImmutableList.copyOf(adapter.getDimensionNames()));
+    Assert.assertEquals(
+        ImmutableList.of(ColumnHolder.TIME_COLUMN_NAME, "dimB", "dimA"),
+        merged.getMetadata().getSortOrder()
+    );
     Assert.assertEquals(5, rowList.size());
 
     Assert.assertEquals(Arrays.asList(null, "1"), rowList.get(0).dimensionValues());
@@ -1447,6 +1456,8 @@ public class IndexMergerTestBase extends InitializedNullHandlingTest
 
 
     Assert.assertEquals(ImmutableList.of("dimA", "dimB", "dimC"), ImmutableList.copyOf(adapter2.getDimensionNames()));
+    // dimensions of indexBA and indexC are in conflicting orders, so rows are not sorted by the merged dimensions
+    Assert.assertNull(merged2.getMetadata().getSortOrder());
     Assert.assertEquals(12, rowList2.size());
     Assert.assertEquals(Arrays.asList(null, null, "1"), rowList2.get(0).dimensionValues());
     Assert.assertEquals(Collections.singletonList(1L), rowList2.get(0).metricValues());
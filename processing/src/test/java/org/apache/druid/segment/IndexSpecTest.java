@@ -27,6 +27,7 @@ import org.apache.druid.segment.data.CompressionFactory;
 import org.apache.druid.segment.data.CompressionFactory.LongEncodingStrategy;
 import org.apache.druid.segment.data.CompressionStrategy;
 import org.apache.druid.segment.data.RoaringBitmapSerdeFactory;
+import org.apache.druid.segment.data.StringEncodingStrategy;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -63,6 +64,54 @@ public class IndexSpecTest
     Assert.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
   }
 
+  @Test
+  public void testSerdeStringDictionaryEncoding() throws Exception
+  {
+    final ObjectMapper objectMapper = new DefaultObjectMapper();
+    final String json = "{ \"stringDictionaryEncoding\" : { \"type\" : \"frontCoded\", \"bucketSize\" : 16 } }";
+
+    final IndexSpec spec = objectMapper.readValue(json, IndexSpec.class);
+
+    Assert.assertEquals(new StringEncodingStrategy.FrontCoded(16), spec.getStringDictionaryEncoding());
+    Assert.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
+  }
+
+  @Test
+  public void testSerdeNumericZoneMaps() throws Exception
+  {
+    final ObjectMapper objectMapper = new DefaultObjectMapper();
+    final String json = "{ \"numericZoneMaps\" : true }";
+
+    final IndexSpec spec = objectMapper.readValue(json, IndexSpec.class);
+
+    Assert.assertTrue(spec.isNumericZoneMaps());
+    Assert.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
+  }
+
+  @Test
+  public void testSerdeNumericBitmapIndexes() throws Exception
+  {
+    final ObjectMapper objectMapper = new DefaultObjectMapper();
+    final String json = "{ \"numericBitmapIndexes\" : true }";
+
+    final IndexSpec spec = objectMapper.readValue(json, IndexSpec.class);
+
+    Assert.assertTrue(spec.isNumericBitmapIndexes());
+    Assert.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
+  }
+
+  @Test
+  public void testSerdeStringNgramIndexes() throws Exception
+  {
+    final ObjectMapper objectMapper = new DefaultObjectMapper();
+    final String json = "{ \"stringNgramIndexes\" : true }";
+
+    final IndexSpec spec = objectMapper.readValue(json, IndexSpec.class);
+
+    Assert.assertTrue(spec.isStringNgramIndexes());
+    Assert.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
+  }
+
   @Test
   public void testDefaults()
   {
@@ -70,6 +119,10 @@ public class IndexSpecTest
     Assert.assertEquals(CompressionStrategy.LZ4, spec.getDimensionCompression());
     Assert.assertEquals(CompressionStrategy.LZ4, spec.getMetricCompression());
     Assert.assertEquals(CompressionFactory.LongEncodingStrategy.LONGS, spec.getLongEncoding());
+    Assert.assertEquals(StringEncodingStrategy.DEFAULT, spec.getStringDictionaryEncoding());
+    Assert.assertFalse(spec.isNumericZoneMaps());
+    Assert.assertFalse(spec.isNumericBitmapIndexes());
+    Assert.assertFalse(spec.isStringNgramIndexes());
   }
 
   @Test
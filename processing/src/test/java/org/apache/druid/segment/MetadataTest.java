@@ -27,6 +27,7 @@ import org.apache.druid.query.aggregation.AggregatorFactory;
 import org.apache.druid.query.aggregation.DoubleMaxAggregatorFactory;
 import org.apache.druid.query.aggregation.LongMaxAggregatorFactory;
 import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
+import org.apache.druid.segment.column.ColumnHolder;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -63,6 +64,33 @@ public class MetadataTest
     Assert.assertEquals(metadata, other);
   }
 
+  @Test
+  public void testSerdeSortOrder() throws Exception
+  {
+    ObjectMapper jsonMapper = TestHelper.makeJsonMapper();
+
+    Metadata metadata = new Metadata(
+        Collections.singletonMap("k", "v"),
+        null,
+        null,
+        Granularities.HOUR,
+        Boolean.TRUE,
+        Metadata.makeSortOrder(ImmutableList.of("tenant", "page"))
+    );
+
+    Metadata other = jsonMapper.readValue(
+        jsonMapper.writeValueAsString(metadata),
+        Metadata.class
+    );
+
+    Assert.assertEquals(metadata, other);
+    Assert.assertEquals(ImmutableList.of(ColumnHolder.TIME_COLUMN_NAME, "tenant", "page"), other.getSortOrder());
+
+    // sort order depends on how rows are merged, and is not merged
+    Assert.assertNull(Metadata.merge(ImmutableList.of(metadata, other), null).getSortOrder());
+    Assert.assertEquals(metadata.getContainer(), metadata.withSortOrder(null).getContainer());
+  }
+
   @Test
   public void testMerge()
   {
@@ -19,12 +19,20 @@
 
 package org.apache.druid.segment;
 
+import com.google.common.collect.Lists;
 import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
 import org.apache.druid.segment.column.NumericColumn;
+import org.apache.druid.segment.data.Offset;
 import org.apache.druid.segment.data.ReadableOffset;
+import org.apache.druid.segment.vector.RowRangesVectorOffset;
+import org.apache.druid.segment.vector.VectorOffset;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 public class QueryableIndexCursorSequenceBuilderTest
 {
   @Test
@@ -114,4 +122,74 @@ public class QueryableIndexCursorSequenceBuilderTest
         QueryableIndexCursorSequenceBuilder.timeSearch(column, 15, 0, values.length)
     );
   }
+
+  @Test
+  public void testRowRangesOffsets()
+  {
+    final int[] ranges = new int[]{2, 5, 7, 8, 10, 20};
+    final List<Integer> expected = Arrays.asList(2, 3, 4, 7, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19);
+
+    final List<Integer> ascending = new ArrayList<>();
+    final Offset offset = new RowRangesOffset(ranges, false);
+    for (; offset.withinBounds(); offset.increment()) {
+      ascending.add(offset.getOffset());
+    }
+    Assert.assertEquals(expected, ascending);
+
+    final List<Integer> descending = new ArrayList<>();
+    final Offset descendingOffset = new RowRangesOffset(ranges, true);
+    descendingOffset.increment();
+    final Offset clone = descendingOffset.clone();
+    for (; clone.withinBounds(); clone.increment()) {
+      descending.add(clone.getOffset());
+    }
+    Assert.assertEquals(Lists.reverse(expected.subList(0, expected.size() - 1)), descending);
+    Assert.assertFalse(new RowRangesOffset(new int[0], true).withinBounds());
+
+    final List<Integer> vectorized = new ArrayList<>();
+    final VectorOffset vectorOffset = new RowRangesVectorOffset(4, ranges);
+    for (; !vectorOffset.isDone(); vectorOffset.advance()) {
+      Assert.assertTrue(vectorOffset.isContiguous());
+      Assert.assertTrue(vectorOffset.getCurrentVectorSize() <= 4);
+      for (int i = 0; i < vectorOffset.getCurrentVectorSize(); i++) {
+        vectorized.add(vectorOffset.getStartOffset() + i);
+      }
+    }
+    Assert.assertEquals(expected, vectorized);
+    Assert.assertTrue(new RowRangesVectorOffset(4, new int[0]).isDone());
+  }
+
+  @Test
+  public void testSkipRows()
+  {
+    final int[] ranges = new int[]{2, 5, 7, 8, 10, 20};
+
+    final Offset rangesOffset = new RowRangesOffset(ranges, false);
+    rangesOffset.skipRows(0, 4);
+    Assert.assertEquals(4, rangesOffset.getOffset());
+    rangesOffset.skipRows(4, 12);
+    Assert.assertEquals(12, rangesOffset.getOffset());
+    rangesOffset.skipRows(12, 20);
+    Assert.assertFalse(rangesOffset.withinBounds());
+
+    final Offset descendingRangesOffset = new RowRangesOffset(ranges, true);
+    descendingRangesOffset.skipRows(16, 24);
+    Assert.assertEquals(15, descendingRangesOffset.getOffset());
+    descendingRangesOffset.skipRows(4, 16);
+    Assert.assertEquals(3, descendingRangesOffset.getOffset());
+    descendingRangesOffset.skipRows(0, 4);
+    Assert.assertFalse(descendingRangesOffset.withinBounds());
+
+    final Offset ascendingOffset = new SimpleAscendingOffset(20);
+    ascendingOffset.skipRows(0, 8);
+    Assert.assertEquals(8, ascendingOffset.getOffset());
+    ascendingOffset.skipRows(8, 24);
+    Assert.assertFalse(ascendingOffset.withinBounds());
+
+    final Offset descendingOffset = new SimpleDescendingOffset(20);
+    descendingOffset.skipRows(16, 24);
+    Assert.assertEquals(15, descendingOffset.getOffset());
+    descendingOffset.skipRows(0, 16);
+    Assert.assertFalse(descendingOffset.withinBounds());
+  }
 }
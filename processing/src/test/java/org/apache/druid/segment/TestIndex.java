@@ -373,6 +373,11 @@ public class TestIndex
   }
 
   public static QueryableIndex persistRealtimeAndLoadMMapped(IncrementalIndex index)
+  {
+    return persistRealtimeAndLoadMMapped(index, INDEX_SPEC);
+  }
+
+  public static QueryableIndex persistRealtimeAndLoadMMapped(IncrementalIndex index, IndexSpec indexSpec)
   {
     try {
       File someTmpFile = File.createTempFile("billy", "yay");
@@ -380,7 +385,7 @@ public class TestIndex
       someTmpFile.mkdirs();
       someTmpFile.deleteOnExit();
 
-      INDEX_MERGER.persist(index, someTmpFile, INDEX_SPEC, null);
+      INDEX_MERGER.persist(index, someTmpFile, indexSpec, null);
       return INDEX_IO.loadIndex(someTmpFile);
     }
     catch (IOException e) {
@@ -63,8 +63,10 @@ public class CompressedDoublesSerdeTest
   {
     List<Object[]> data = new ArrayList<>();
     for (CompressionStrategy strategy : CompressionStrategy.values()) {
-      data.add(new Object[]{strategy, ByteOrder.BIG_ENDIAN});
-      data.add(new Object[]{strategy, ByteOrder.LITTLE_ENDIAN});
+      for (CompressionFactory.FloatEncodingStrategy encoding : CompressionFactory.FloatEncodingStrategy.values()) {
+        data.add(new Object[]{strategy, encoding, ByteOrder.BIG_ENDIAN});
+        data.add(new Object[]{strategy, encoding, ByteOrder.LITTLE_ENDIAN});
+      }
     }
     return data;
   }
@@ -78,6 +80,7 @@ public class CompressedDoublesSerdeTest
   public ExpectedException expectedException = ExpectedException.none();
 
   protected final CompressionStrategy compressionStrategy;
+  protected final CompressionFactory.FloatEncodingStrategy encodingStrategy;
   protected final ByteOrder order;
 
   private final double[] values0 = {};
@@ -101,10 +104,12 @@ public class CompressedDoublesSerdeTest
 
   public CompressedDoublesSerdeTest(
       CompressionStrategy compressionStrategy,
+      CompressionFactory.FloatEncodingStrategy encodingStrategy,
       ByteOrder order
   )
   {
     this.compressionStrategy = compressionStrategy;
+    this.encodingStrategy = encodingStrategy;
     this.order = order;
   }
 
@@ -147,7 +152,8 @@ public class CompressedDoublesSerdeTest
           segmentWriteOutMedium,
           "test",
           order,
-          compressionStrategy
+          compressionStrategy,
+          encodingStrategy
       );
       serializer.open();
 
@@ -165,7 +171,8 @@ public class CompressedDoublesSerdeTest
         new OffHeapMemorySegmentWriteOutMedium(),
         "test",
         order,
-        compressionStrategy
+        compressionStrategy,
+        encodingStrategy
     );
     serializer.open();
 
@@ -56,8 +56,10 @@ public class CompressedFloatsSerdeTest
   {
     List<Object[]> data = new ArrayList<>();
     for (CompressionStrategy strategy : CompressionStrategy.values()) {
-      data.add(new Object[]{strategy, ByteOrder.BIG_ENDIAN});
-      data.add(new Object[]{strategy, ByteOrder.LITTLE_ENDIAN});
+      for (CompressionFactory.FloatEncodingStrategy encoding : CompressionFactory.FloatEncodingStrategy.values()) {
+        data.add(new Object[]{strategy, encoding, ByteOrder.BIG_ENDIAN});
+        data.add(new Object[]{strategy, encoding, ByteOrder.LITTLE_ENDIAN});
+      }
     }
     return data;
   }
@@ -71,6 +73,7 @@ public class CompressedFloatsSerdeTest
   public ExpectedException expectedException = ExpectedException.none();
 
   protected final CompressionStrategy compressionStrategy;
+  protected final CompressionFactory.FloatEncodingStrategy encodingStrategy;
   protected final ByteOrder order;
 
   private final float[] values0 = {};
@@ -87,10 +90,12 @@ public class CompressedFloatsSerdeTest
 
   public CompressedFloatsSerdeTest(
       CompressionStrategy compressionStrategy,
+      CompressionFactory.FloatEncodingStrategy encodingStrategy,
       ByteOrder order
   )
   {
     this.compressionStrategy = compressionStrategy;
+    this.encodingStrategy = encodingStrategy;
     this.order = order;
   }
 
@@ -117,6 +122,21 @@ public class CompressedFloatsSerdeTest
     testWithValues(chunk);
   }
 
+  @Test
+  public void testSlowlyChangingChunkSerde() throws Exception
+  {
+    // gauge-like values, which XOR encoding stores with only a few bits each
+    float[] chunk = new float[30000];
+    double value = 50;
+    for (int i = 0; i < chunk.length; i++) {
+      if (ThreadLocalRandom.current().nextInt(4) == 0) {
+        value += ThreadLocalRandom.current().nextInt(-10, 11) / 10.0;
+      }
+      chunk[i] = (float) value;
+    }
+    testWithValues(chunk);
+  }
+
   // this test takes ~30 minutes to run
   @Ignore
   @Test
@@ -133,7 +153,8 @@ public class CompressedFloatsSerdeTest
           segmentWriteOutMedium,
           "test",
           order,
-          compressionStrategy
+          compressionStrategy,
+          encodingStrategy
       );
       serializer.open();
 
@@ -151,7 +172,8 @@ public class CompressedFloatsSerdeTest
         new OffHeapMemorySegmentWriteOutMedium(),
         "test",
         order,
-        compressionStrategy
+        compressionStrategy,
+        encodingStrategy
     );
     serializer.open();
 
@@ -92,7 +92,27 @@ public class CompressedLongsAutoEncodingSerdeTest
     testValues(chunk);
   }
 
-  public void testValues(long[] values) throws Exception
+  @Test
+  public void testOutliers() throws Exception
+  {
+    // a narrow range of values with a few outliers on both sides, which should be stored as PFOR exceptions
+    final int numRows = (1 << 16) + ThreadLocalRandom.current().nextInt(1, 101);
+    final long[] values = new long[numRows];
+    for (int i = 0; i < numRows; i++) {
+      if (i % 1000 == 7) {
+        values[i] = ThreadLocalRandom.current().nextBoolean() ? Long.MIN_VALUE + i : Long.MAX_VALUE - i;
+      } else {
+        values[i] = 1_000_000L + ThreadLocalRandom.current().nextLong(1L << bitsPerValue);
+      }
+    }
+    final long serializedSize = testValues(values);
+    if (compressionStrategy != CompressionStrategy.NONE && bitsPerValue < 12) {
+      // DELTA would need 64 bits per value because of the outliers
+      Assert.assertTrue(serializedSize < numRows * 2L);
+    }
+  }
+
+  public long testValues(long[] values) throws Exception
   {
     ColumnarLongsSerializer serializer = CompressionFactory.getLongSerializer(
         "test",
@@ -117,7 +137,34 @@ public class CompressedLongsAutoEncodingSerdeTest
     ColumnarLongs longs = supplier.get();
 
     assertIndexMatchesVals(longs, values);
+    assertVectorizedReadsMatchVals(longs, values);
     longs.close();
+    return baos.size();
+  }
+
+  private void assertVectorizedReadsMatchVals(ColumnarLongs indexed, long[] vals)
+  {
+    final int vectorSize = 512;
+    final long[] out = new long[vectorSize];
+    for (int start = 0; start < vals.length; start += vectorSize - 3) {
+      final int length = Math.min(vectorSize, vals.length - start);
+      indexed.get(out, start, length);
+      for (int i = 0; i < length; i++) {
+        Assert.assertEquals(vals[start + i], out[i]);
+      }
+    }
+
+    final int[] indexes = new int[vectorSize];
+    for (int start = 0; start < vals.length; start += vectorSize * 3) {
+      int length = 0;
+      for (int index = start; index < vals.length && length < vectorSize; index += 3) {
+        indexes[length++] = index;
+      }
+      indexed.get(out, indexes, length);
+      for (int i = 0; i < length; i++) {
+        Assert.assertEquals(vals[indexes[i]], out[i]);
+      }
+    }
   }
 
   private void assertIndexMatchesVals(ColumnarLongs indexed, long[] vals)
@@ -98,10 +98,11 @@ public class CompressionStrategyTest
   @Test
   public void testBasicOperations()
   {
-    ByteBuffer compressionOut = compressionStrategy.getCompressor().allocateOutBuffer(originalData.length, closer);
-    ByteBuffer compressed = compressionStrategy.getCompressor().compress(ByteBuffer.wrap(originalData), compressionOut);
+    CompressionStrategy.Compressor compressor = compressionStrategy.getCompressor();
+    ByteBuffer compressionOut = compressor.allocateOutBuffer(originalData.length, closer);
+    ByteBuffer compressed = compressor.compress(ByteBuffer.wrap(originalData), compressionOut);
     ByteBuffer output = ByteBuffer.allocate(originalData.length);
-    compressionStrategy.getDecompressor().decompress(compressed, compressed.remaining(), output);
+    compressionStrategy.getDecompressor(compressor.getHeader()).decompress(compressed, compressed.remaining(), output);
     byte[] checkArray = new byte[DATA_SIZER];
     output.get(checkArray);
     Assert.assertArrayEquals("Uncompressed data does not match", originalData, checkArray);
@@ -110,15 +111,47 @@ public class CompressionStrategyTest
   @Test
   public void testDirectMemoryOperations()
   {
-    ByteBuffer compressionOut = compressionStrategy.getCompressor().allocateOutBuffer(originalData.length, closer);
-    ByteBuffer compressed = compressionStrategy.getCompressor().compress(ByteBuffer.wrap(originalData), compressionOut);
+    CompressionStrategy.Compressor compressor = compressionStrategy.getCompressor();
+    ByteBuffer compressionOut = compressor.allocateOutBuffer(originalData.length, closer);
+    ByteBuffer compressed = compressor.compress(ByteBuffer.wrap(originalData), compressionOut);
     ByteBuffer output = ByteBuffer.allocateDirect(originalData.length);
-    compressionStrategy.getDecompressor().decompress(compressed, compressed.remaining(), output);
+    compressionStrategy.getDecompressor(compressor.getHeader()).decompress(compressed, compressed.remaining(), output);
     byte[] checkArray = new byte[DATA_SIZER];
     output.get(checkArray);
     Assert.assertArrayEquals("Uncompressed data does not match", originalData, checkArray);
   }
 
+  @Test
+  public void testHeaderRoundTrip()
+  {
+    // repetitive data that a dictionary can be trained from, unlike the random originalData
+    final ByteBuffer block = ByteBuffer.allocate(DATA_SIZER - (DATA_SIZER % Long.BYTES));
+    for (int i = 0; block.remaining() >= Long.BYTES; i++) {
+      block.putLong(1_600_000_000_000L + (i % 97) * 1000L);
+    }
+    block.flip();
+
+    CompressionStrategy.Compressor compressor = compressionStrategy.getCompressor();
+    ByteBuffer compressionOut = compressor.allocateOutBuffer(block.remaining(), closer);
+    ByteBuffer compressed = compressor.compress(block, compressionOut);
+    ByteBuffer header = compressor.getHeader();
+    if (compressionStrategy == CompressionStrategy.ZSTD_DICTIONARY) {
+      Assert.assertTrue("dictionary should have been trained", header.remaining() > Integer.BYTES);
+    } else {
+      Assert.assertEquals(0, header.remaining());
+    }
+
+    ByteBuffer serialized = ByteBuffer.allocate(header.remaining() + compressed.remaining());
+    serialized.put(header.duplicate()).put(compressed.duplicate()).flip();
+    ByteBuffer readHeader = compressionStrategy.readHeader(serialized);
+    Assert.assertEquals(header, readHeader);
+    Assert.assertEquals(compressed.remaining(), serialized.remaining());
+
+    ByteBuffer output = ByteBuffer.allocate(block.remaining());
+    compressionStrategy.getDecompressor(readHeader).decompress(serialized, serialized.remaining(), output);
+    Assert.assertEquals(block, output);
+  }
+
   @Test(timeout = 60_000L)
   public void testConcurrency() throws Exception
   {
@@ -140,10 +173,12 @@ public class CompressionStrategyTest
                 @Override
                 public Boolean call()
                 {
-                  ByteBuffer compressionOut = compressionStrategy.getCompressor().allocateOutBuffer(originalData.length, closer);
-                  ByteBuffer compressed = compressionStrategy.getCompressor().compress(ByteBuffer.wrap(originalData), compressionOut);
+                  CompressionStrategy.Compressor compressor = compressionStrategy.getCompressor();
+                  ByteBuffer compressionOut = compressor.allocateOutBuffer(originalData.length, closer);
+                  ByteBuffer compressed = compressor.compress(ByteBuffer.wrap(originalData), compressionOut);
                   ByteBuffer output = ByteBuffer.allocate(originalData.length);
-                  compressionStrategy.getDecompressor().decompress(compressed, compressed.remaining(), output);
+                  compressionStrategy.getDecompressor(compressor.getHeader())
+                                     .decompress(compressed, compressed.remaining(), output);
                   byte[] checkArray = new byte[DATA_SIZER];
                   output.get(checkArray);
                   Assert.assertArrayEquals("Uncompressed data does not match", originalData, checkArray);
@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.apache.druid.java.util.common.io.Closer;
+import org.apache.druid.segment.CompressedPools;
+import org.apache.druid.segment.writeout.OffHeapMemorySegmentWriteOutMedium;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.Channels;
+import java.util.Random;
+
+public class DecompressedBlockCacheTest
+{
+  private static final int NUM_ROWS = 20000;
+
+  private final Closer closer = Closer.create();
+  private DecompressedBlockCache previousCache;
+
+  @Before
+  public void setUp()
+  {
+    previousCache = DecompressedBlockCache.getInstance();
+  }
+
+  @After
+  public void tearDown() throws IOException
+  {
+    DecompressedBlockCache.setInstance(previousCache);
+    closer.close();
+  }
+
+  @Test
+  public void testDisabled() throws IOException
+  {
+    final DecompressedBlockCache cache = new DecompressedBlockCache(0);
+    Assert.assertFalse(cache.isEnabled());
+    DecompressedBlockCache.setInstance(cache);
+
+    final int[] values = randomInts(1000);
+    final CompressedColumnarIntsSupplier supplier = CompressedColumnarIntsSupplier.fromIntBuffer(
+        IntBuffer.wrap(values),
+        1 << 10,
+        ByteOrder.nativeOrder(),
+        CompressionStrategy.LZ4,
+        closer
+    );
+    assertValues(values, supplier.get());
+    Assert.assertEquals(0, cache.getStats().getNumEntries());
+    Assert.assertEquals(0, cache.getStats().getNumMisses());
+  }
+
+  @Test
+  public void testColumnarInts() throws IOException
+  {
+    final DecompressedBlockCache cache = new DecompressedBlockCache(1 << 24);
+    DecompressedBlockCache.setInstance(cache);
+
+    final int[] values = randomInts(1000);
+    final CompressedColumnarIntsSupplier supplier = CompressedColumnarIntsSupplier.fromIntBuffer(
+        IntBuffer.wrap(values),
+        1 << 12,
+        ByteOrder.nativeOrder(),
+        CompressionStrategy.LZ4,
+        closer
+    );
+    final int numBlocks = (NUM_ROWS + (1 << 12) - 1) >> 12;
+
+    assertValues(values, supplier.get());
+    DecompressedBlockCache.Stats stats = cache.getStats();
+    Assert.assertEquals(numBlocks, stats.getNumEntries());
+    Assert.assertEquals(numBlocks, stats.getNumMisses());
+    Assert.assertEquals(0, stats.getNumHits());
+    Assert.assertEquals((long) numBlocks * CompressedPools.BUFFER_SIZE, stats.getSizeInBytes());
+
+    assertValues(values, supplier.get());
+    final DecompressedBlockCache.Stats delta = cache.getStats().delta(stats);
+    Assert.assertEquals(numBlocks, delta.getNumHits());
+    Assert.assertEquals(0, delta.getNumMisses());
+    Assert.assertEquals(1.0, delta.hitRate(), 0.0);
+  }
+
+  @Test
+  public void testColumnarVSizeInts() throws IOException
+  {
+    final DecompressedBlockCache cache = new DecompressedBlockCache(1 << 24);
+    DecompressedBlockCache.setInstance(cache);
+
+    // 3-byte values, to check that the padding after the last value of a block is cached
+    final int maxValue = 1 << 20;
+    final int[] values = randomInts(maxValue);
+    final CompressedVSizeColumnarIntsSupplier supplier = CompressedVSizeColumnarIntsSupplier.fromList(
+        IntArrayList.wrap(values),
+        maxValue,
+        CompressedVSizeColumnarIntsSupplier.maxIntsInBufferForValue(maxValue),
+        ByteOrder.BIG_ENDIAN,
+        CompressionStrategy.LZ4,
+        closer
+    );
+
+    assertValues(values, supplier.get());
+    assertValues(values, supplier.get());
+    final DecompressedBlockCache.Stats stats = cache.getStats();
+    Assert.assertEquals(stats.getNumEntries(), stats.getNumMisses());
+    Assert.assertEquals(stats.getNumEntries(), stats.getNumHits());
+  }
+
+  @Test
+  public void testColumnarLongs() throws IOException
+  {
+    final DecompressedBlockCache cache = new DecompressedBlockCache(1 << 24);
+    DecompressedBlockCache.setInstance(cache);
+
+    final ColumnarLongsSerializer serializer = CompressionFactory.getLongSerializer(
+        "test",
+        new OffHeapMemorySegmentWriteOutMedium(),
+        "test",
+        ByteOrder.LITTLE_ENDIAN,
+        CompressionFactory.LongEncodingStrategy.LONGS,
+        CompressionStrategy.LZ4
+    );
+    serializer.open();
+    final long[] values = new long[NUM_ROWS];
+    final Random random = new Random(0);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      values[i] = random.nextLong();
+      serializer.add(values[i]);
+    }
+    final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    serializer.writeTo(Channels.newChannel(baos), null);
+    final CompressedColumnarLongsSupplier supplier = CompressedColumnarLongsSupplier.fromByteBuffer(
+        ByteBuffer.wrap(baos.toByteArray()),
+        ByteOrder.LITTLE_ENDIAN
+    );
+
+    for (int pass = 0; pass < 2; pass++) {
+      try (ColumnarLongs longs = supplier.get()) {
+        final long[] read = new long[NUM_ROWS];
+        longs.get(read, 0, NUM_ROWS);
+        Assert.assertArrayEquals(values, read);
+      }
+    }
+    final DecompressedBlockCache.Stats stats = cache.getStats();
+    Assert.assertEquals(stats.getNumEntries(), stats.getNumMisses());
+    Assert.assertEquals(stats.getNumEntries(), stats.getNumHits());
+  }
+
+  @Test
+  public void testColumnDeserializedAgain() throws IOException
+  {
+    final DecompressedBlockCache cache = new DecompressedBlockCache(1 << 24);
+    DecompressedBlockCache.setInstance(cache);
+
+    final int[] values = randomInts(1000);
+    final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    CompressedColumnarIntsSupplier.fromIntBuffer(
+        IntBuffer.wrap(values),
+        1 << 12,
+        ByteOrder.nativeOrder(),
+        CompressionStrategy.LZ4,
+        closer
+    ).writeTo(Channels.newChannel(baos), null);
+    final ByteBuffer serialized = ByteBuffer.wrap(baos.toByteArray());
+    final int numBlocks = (NUM_ROWS + (1 << 12) - 1) >> 12;
+
+    final long columnId = DecompressedBlockCache.nextColumnId();
+    for (int pass = 0; pass < 2; pass++) {
+      try (DecompressedBlockCache.PartIds ignored = DecompressedBlockCache.deserializingColumn(columnId)) {
+        assertValues(
+            values,
+            CompressedColumnarIntsSupplier.fromByteBuffer(serialized.duplicate(), ByteOrder.nativeOrder()).get()
+        );
+      }
+    }
+    DecompressedBlockCache.Stats stats = cache.getStats();
+    Assert.assertEquals(numBlocks, stats.getNumEntries());
+    Assert.assertEquals(numBlocks, stats.getNumHits());
+
+    // outside of deserializingColumn, parts get new ids
+    assertValues(
+        values,
+        CompressedColumnarIntsSupplier.fromByteBuffer(serialized.duplicate(), ByteOrder.nativeOrder()).get()
+    );
+    stats = cache.getStats();
+    Assert.assertEquals(2 * numBlocks, stats.getNumEntries());
+    Assert.assertEquals(numBlocks, stats.getNumHits());
+  }
+
+  @Test
+  public void testEviction() throws IOException
+  {
+    final DecompressedBlockCache cache = new DecompressedBlockCache(2L * CompressedPools.BUFFER_SIZE);
+    DecompressedBlockCache.setInstance(cache);
+
+    final int[] values = randomInts(1000);
+    final CompressedColumnarIntsSupplier supplier = CompressedColumnarIntsSupplier.fromIntBuffer(
+        IntBuffer.wrap(values),
+        1 << 10,
+        ByteOrder.nativeOrder(),
+        CompressionStrategy.LZ4,
+        closer
+    );
+
+    assertValues(values, supplier.get());
+    assertValues(values, supplier.get());
+    final DecompressedBlockCache.Stats stats = cache.getStats();
+    Assert.assertTrue(stats.getNumEvictions() > 0);
+    Assert.assertTrue(stats.getSizeInBytes() <= 2L * CompressedPools.BUFFER_SIZE);
+    Assert.assertEquals(stats.getNumEntries() * CompressedPools.BUFFER_SIZE, stats.getSizeInBytes());
+  }
+
+  private static int[] randomInts(int bound)
+  {
+    final Random random = new Random(0);
+    final int[] values = new int[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      values[i] = random.nextInt(bound);
+    }
+    return values;
+  }
+
+  private static void assertValues(int[] expected, ColumnarInts ints) throws IOException
+  {
+    Assert.assertEquals(expected.length, ints.size());
+    for (int i = 0; i < expected.length; i++) {
+      Assert.assertEquals(expected[i], ints.get(i));
+    }
+    ints.close();
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.segment.writeout.OnHeapMemorySegmentWriteOutMedium;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+@RunWith(Parameterized.class)
+public class FrontCodedIndexedTest extends InitializedNullHandlingTest
+{
+  @Parameterized.Parameters(name = "bucketSize={0}")
+  public static Collection<Object[]> constructorFeeder()
+  {
+    return ImmutableList.of(new Object[]{1}, new Object[]{4}, new Object[]{16}, new Object[]{128});
+  }
+
+  private final int bucketSize;
+
+  public FrontCodedIndexedTest(int bucketSize)
+  {
+    this.bucketSize = bucketSize;
+  }
+
+  @Test
+  public void testSanity() throws IOException
+  {
+    final List<String> values = ImmutableList.of("hello", "hello world", "hellos", "helm", "help", "world");
+    final FrontCodedIndexed indexed = serializeAndDeserialize(values);
+
+    checkAgainstGenericIndexed(values, indexed);
+    Assert.assertEquals(-1, indexed.indexOf("a"));
+    Assert.assertEquals(-2, indexed.indexOf("hello again"));
+    Assert.assertEquals(-5, indexed.indexOf("helmet"));
+    Assert.assertEquals(-7, indexed.indexOf("zebra"));
+  }
+
+  @Test
+  public void testWithNull() throws IOException
+  {
+    final List<String> values = Lists.newArrayList(null, "a", "ab", "abc", "b");
+    final FrontCodedIndexed indexed = serializeAndDeserialize(values);
+
+    checkAgainstGenericIndexed(values, indexed);
+    Assert.assertEquals(0, indexed.indexOf(null));
+    Assert.assertNull(indexed.get(0));
+  }
+
+  @Test
+  public void testOnlyNull() throws IOException
+  {
+    final List<String> values = Lists.newArrayList((String) null);
+    checkAgainstGenericIndexed(values, serializeAndDeserialize(values));
+  }
+
+  @Test
+  public void testEmpty() throws IOException
+  {
+    final FrontCodedIndexed indexed = serializeAndDeserialize(ImmutableList.of());
+    Assert.assertEquals(0, indexed.size());
+    Assert.assertEquals(-1, indexed.indexOf("a"));
+    Assert.assertEquals(-1, indexed.indexOf(null));
+    Assert.assertFalse(indexed.iterator().hasNext());
+  }
+
+  @Test
+  public void testRandomValues() throws IOException
+  {
+    final Random random = new Random(1234);
+    final String[] prefixes = {"http://druid.apache.org/", "http://druid.apache.org/docs/", "https://", "/usr/", "é"};
+    final TreeSet<String> sorted = new TreeSet<>();
+    while (sorted.size() < 10000) {
+      sorted.add(prefixes[random.nextInt(prefixes.length)] + randomString(random));
+    }
+    final List<String> values = new ArrayList<>();
+    if (random.nextBoolean()) {
+      values.add(null);
+    }
+    values.addAll(sorted);
+
+    final FrontCodedIndexed indexed = serializeAndDeserialize(values);
+    checkAgainstGenericIndexed(values, indexed);
+
+    final GenericIndexed<String> expected = GenericIndexed.fromIterable(values, GenericIndexed.STRING_STRATEGY);
+    for (int i = 0; i < 1000; i++) {
+      final String probe = prefixes[random.nextInt(prefixes.length)] + randomString(random);
+      Assert.assertEquals(probe, expected.indexOf(probe), indexed.indexOf(probe));
+    }
+  }
+
+  @Test(expected = ISE.class)
+  public void testNotSorted() throws IOException
+  {
+    serializeAndDeserialize(ImmutableList.of("b", "a"));
+  }
+
+  @Test(expected = ISE.class)
+  public void testNullNotFirst() throws IOException
+  {
+    serializeAndDeserialize(Lists.newArrayList("a", null));
+  }
+
+  private void checkAgainstGenericIndexed(List<String> values, FrontCodedIndexed indexed)
+  {
+    final GenericIndexed<String> expected = GenericIndexed.fromIterable(values, GenericIndexed.STRING_STRATEGY);
+    Assert.assertEquals(expected.size(), indexed.size());
+    Assert.assertEquals(Lists.newArrayList(expected), Lists.newArrayList(indexed));
+
+    final CachingIndexed<String> cached = CachingIndexed.of(indexed, 1024);
+    final FrontCodedIndexed.SingleThreaded singleThreaded = indexed.singleThreaded();
+    for (int i = 0; i < values.size(); i++) {
+      Assert.assertEquals(expected.get(i), indexed.get(i));
+      Assert.assertEquals(expected.get(i), singleThreaded.get(i));
+      Assert.assertEquals(expected.get(i), cached.get(i));
+      Assert.assertEquals(expected.indexOf(values.get(i)), indexed.indexOf(values.get(i)));
+      if (values.get(i) != null) {
+        // in between values, or right after the last one
+        final String after = values.get(i) + "\u0000";
+        Assert.assertEquals(after, expected.indexOf(after), indexed.indexOf(after));
+      }
+    }
+    cached.close();
+  }
+
+  private static String randomString(Random random)
+  {
+    final char[] chars = new char[random.nextInt(20)];
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = (char) ('a' + random.nextInt(6));
+    }
+    return new String(chars);
+  }
+
+  private FrontCodedIndexed serializeAndDeserialize(List<String> values) throws IOException
+  {
+    final FrontCodedIndexedWriter writer = new FrontCodedIndexedWriter(
+        new OnHeapMemorySegmentWriteOutMedium(),
+        bucketSize
+    );
+    writer.open();
+    for (String value : values) {
+      writer.write(value);
+    }
+    for (int i = 0; i < values.size(); i++) {
+      Assert.assertEquals(values.get(i), writer.get(i));
+    }
+
+    final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    final WritableByteChannel channel = Channels.newChannel(baos);
+    writer.writeTo(channel, null);
+    channel.close();
+
+    final ByteBuffer byteBuffer = ByteBuffer.wrap(baos.toByteArray());
+    Assert.assertEquals(writer.getSerializedSize(), byteBuffer.remaining());
+    final FrontCodedIndexed indexed = FrontCodedIndexed.read(byteBuffer);
+    Assert.assertEquals(0, byteBuffer.remaining());
+    return indexed;
+  }
+}
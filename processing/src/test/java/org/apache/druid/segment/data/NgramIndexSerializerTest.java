@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.segment.writeout.OnHeapMemorySegmentWriteOutMedium;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.roaringbitmap.IntIterator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class NgramIndexSerializerTest extends InitializedNullHandlingTest
+{
+  @Test
+  public void testCandidates() throws IOException
+  {
+    final ImmutableNgramIndex index = makeIndex(
+        new RoaringBitmapSerdeFactory(true),
+        Arrays.asList(null, "apple", "application", "banana", "Pineapple")
+    );
+
+    Assert.assertEquals(ImmutableList.of(1, 2, 4), toList(index.getCandidates(ImmutableList.of("app"))));
+    Assert.assertEquals(ImmutableList.of(1, 2, 4), toList(index.getCandidates(ImmutableList.of("aPP"))));
+    Assert.assertEquals(ImmutableList.of(1, 4), toList(index.getCandidates(ImmutableList.of("apple"))));
+    Assert.assertEquals(ImmutableList.of(4), toList(index.getCandidates(ImmutableList.of("pine", "apple"))));
+    Assert.assertEquals(ImmutableList.of(3), toList(index.getCandidates(ImmutableList.of("nan", "ba"))));
+    Assert.assertEquals(ImmutableList.of(), toList(index.getCandidates(ImmutableList.of("cherry"))));
+    Assert.assertNull(index.getCandidates(ImmutableList.of("ap", "")));
+    Assert.assertNull(index.getCandidates(ImmutableList.of()));
+  }
+
+  @Test
+  public void testEmpty() throws IOException
+  {
+    final ImmutableNgramIndex index = makeIndex(new ConciseBitmapSerdeFactory(), Arrays.asList(null, ""));
+    Assert.assertEquals(ImmutableList.of(), toList(index.getCandidates(ImmutableList.of("abc"))));
+  }
+
+  @Test
+  public void testCandidatesIncludeAllMatches() throws IOException
+  {
+    final Random random = new Random(1234);
+    final List<String> values = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      values.add(randomString(random, 10));
+    }
+    final ImmutableNgramIndex index = makeIndex(new ConciseBitmapSerdeFactory(), values);
+
+    for (int i = 0; i < 100; i++) {
+      final String substring = randomString(random, 4);
+      final ImmutableBitmap candidates = index.getCandidates(ImmutableList.of(substring));
+      if (substring.length() < 3) {
+        Assert.assertNull(candidates);
+        continue;
+      }
+      for (int id = 0; id < values.size(); id++) {
+        if (org.apache.commons.lang.StringUtils.containsIgnoreCase(values.get(id), substring)) {
+          Assert.assertTrue(substring, candidates.get(id));
+        }
+      }
+    }
+  }
+
+  private static String randomString(Random random, int maxLength)
+  {
+    final char[] chars = new char[random.nextInt(maxLength + 1)];
+    for (int i = 0; i < chars.length; i++) {
+      // few distinct characters in both cases, including some outside of ASCII
+      chars[i] = "aAbBßẞσΣς".charAt(random.nextInt(9));
+    }
+    return new String(chars);
+  }
+
+  private static ImmutableNgramIndex makeIndex(BitmapSerdeFactory bitmapSerdeFactory, List<String> values)
+      throws IOException
+  {
+    final NgramIndexSerializer serializer = new NgramIndexSerializer(
+        "test",
+        bitmapSerdeFactory,
+        new OnHeapMemorySegmentWriteOutMedium()
+    );
+    for (String value : values) {
+      serializer.add(value);
+    }
+
+    final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    final WritableByteChannel channel = Channels.newChannel(baos);
+    serializer.writeTo(channel, null);
+    channel.close();
+
+    // trailing byte to check that reading stops at the end of the index
+    final ByteBuffer buffer = ByteBuffer.allocate(baos.size() + 1);
+    buffer.put(baos.toByteArray()).put((byte) 1).flip();
+    Assert.assertEquals(serializer.getSerializedSize(), baos.size());
+    final ImmutableNgramIndex index = ImmutableNgramIndex.read(buffer, bitmapSerdeFactory, null);
+    Assert.assertEquals(1, buffer.remaining());
+    return index;
+  }
+
+  private static List<Integer> toList(ImmutableBitmap bitmap)
+  {
+    final List<Integer> ids = new ArrayList<>();
+    final IntIterator iterator = bitmap.iterator();
+    while (iterator.hasNext()) {
+      ids.add(iterator.next());
+    }
+    return ids;
+  }
+}
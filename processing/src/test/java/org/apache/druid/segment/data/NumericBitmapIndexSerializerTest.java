@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.writeout.OnHeapMemorySegmentWriteOutMedium;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.roaringbitmap.IntIterator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+public class NumericBitmapIndexSerializerTest extends InitializedNullHandlingTest
+{
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  @Test
+  public void testLongs() throws IOException
+  {
+    final NumericBitmapIndexSerializer serializer = makeSerializer(ValueType.LONG, new RoaringBitmapSerdeFactory(true));
+    for (long value : new long[]{5, -3, 5, Long.MAX_VALUE, Long.MIN_VALUE, -3, 5}) {
+      serializer.addLong(value);
+    }
+    serializer.addNull();
+
+    final ImmutableNumericBitmapIndex index = serializeAndDeserialize(serializer, new RoaringBitmapSerdeFactory(true));
+    Assert.assertEquals(ValueType.LONG, index.getType());
+    Assert.assertEquals(4, index.getCardinality());
+    Assert.assertEquals(Long.MIN_VALUE, index.getLong(0));
+    Assert.assertEquals(-3, index.getLong(1));
+    Assert.assertEquals(5, index.getLong(2));
+    Assert.assertEquals(Long.MAX_VALUE, index.getLong(3));
+    Assert.assertEquals(ImmutableList.of(4), toList(index.getBitmap(0)));
+    Assert.assertEquals(ImmutableList.of(1, 5), toList(index.getBitmap(1)));
+    Assert.assertEquals(ImmutableList.of(0, 2, 6), toList(index.getBitmap(2)));
+    Assert.assertEquals(ImmutableList.of(3), toList(index.getBitmap(3)));
+    Assert.assertEquals(ImmutableList.of(7), toList(index.getNullBitmap()));
+  }
+
+  @Test
+  public void testDoubles() throws IOException
+  {
+    final NumericBitmapIndexSerializer serializer = makeSerializer(ValueType.DOUBLE, new ConciseBitmapSerdeFactory());
+    for (double value : new double[]{1.5, Double.NaN, -0.0, 0.0, Double.NEGATIVE_INFINITY, -1.5, 0.0 / 0.0}) {
+      serializer.addDouble(value);
+    }
+
+    final ImmutableNumericBitmapIndex index = serializeAndDeserialize(serializer, new ConciseBitmapSerdeFactory());
+    Assert.assertEquals(6, index.getCardinality());
+    Assert.assertEquals(Double.NEGATIVE_INFINITY, index.getDouble(0), 0);
+    Assert.assertEquals(-1.5, index.getDouble(1), 0);
+    Assert.assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(index.getDouble(2)));
+    Assert.assertEquals(Double.doubleToLongBits(0.0), Double.doubleToLongBits(index.getDouble(3)));
+    Assert.assertEquals(1.5, index.getDouble(4), 0);
+    Assert.assertTrue(Double.isNaN(index.getDouble(5)));
+    Assert.assertEquals(ImmutableList.of(1, 6), toList(index.getBitmap(5)));
+    Assert.assertTrue(index.getNullBitmap().isEmpty());
+  }
+
+  @Test
+  public void testEmpty() throws IOException
+  {
+    final NumericBitmapIndexSerializer serializer = makeSerializer(ValueType.FLOAT, new RoaringBitmapSerdeFactory(true));
+    final ImmutableNumericBitmapIndex index = serializeAndDeserialize(serializer, new RoaringBitmapSerdeFactory(true));
+    Assert.assertEquals(0, index.getCardinality());
+    Assert.assertTrue(index.getNullBitmap().isEmpty());
+  }
+
+  @Test
+  public void testMaxCardinality() throws IOException
+  {
+    final NumericBitmapIndexSerializer serializer = new NumericBitmapIndexSerializer(
+        ValueType.LONG,
+        "test",
+        new RoaringBitmapSerdeFactory(true),
+        new OnHeapMemorySegmentWriteOutMedium(),
+        3
+    );
+    for (long value : new long[]{1, 2, 1, 3}) {
+      serializer.addLong(value);
+    }
+    serializer.addNull();
+    Assert.assertFalse(serializer.isOverMaxCardinality());
+    Assert.assertEquals(3, serializeAndDeserialize(serializer, new RoaringBitmapSerdeFactory(true)).getCardinality());
+
+    final NumericBitmapIndexSerializer overMax = new NumericBitmapIndexSerializer(
+        ValueType.LONG,
+        "test",
+        new RoaringBitmapSerdeFactory(true),
+        new OnHeapMemorySegmentWriteOutMedium(),
+        3
+    );
+    for (long value : new long[]{1, 2, 3, 4, 1}) {
+      overMax.addLong(value);
+    }
+    overMax.addNull();
+    Assert.assertTrue(overMax.isOverMaxCardinality());
+    expectedException.expect(ISE.class);
+    overMax.getSerializedSize();
+  }
+
+  @Test(expected = IAE.class)
+  public void testUnsupportedType()
+  {
+    makeSerializer(ValueType.STRING, new RoaringBitmapSerdeFactory(true));
+  }
+
+  private static NumericBitmapIndexSerializer makeSerializer(ValueType type, BitmapSerdeFactory bitmapSerdeFactory)
+  {
+    return new NumericBitmapIndexSerializer(
+        type,
+        "test",
+        bitmapSerdeFactory,
+        new OnHeapMemorySegmentWriteOutMedium()
+    );
+  }
+
+  private static ImmutableNumericBitmapIndex serializeAndDeserialize(
+      NumericBitmapIndexSerializer serializer,
+      BitmapSerdeFactory bitmapSerdeFactory
+  ) throws IOException
+  {
+    final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    final WritableByteChannel channel = Channels.newChannel(baos);
+    serializer.writeTo(channel, null);
+    channel.close();
+
+    // trailing byte to check that reading stops at the end of the index
+    final ByteBuffer buffer = ByteBuffer.allocate(baos.size() + 1);
+    buffer.put(baos.toByteArray()).put((byte) 1).flip();
+    Assert.assertEquals(serializer.getSerializedSize(), baos.size());
+    final ImmutableNumericBitmapIndex index = ImmutableNumericBitmapIndex.read(
+        buffer,
+        serializer.getType(),
+        bitmapSerdeFactory,
+        null
+    );
+    Assert.assertEquals(1, buffer.remaining());
+    return index;
+  }
+
+  private static List<Integer> toList(ImmutableBitmap bitmap)
+  {
+    final List<Integer> rows = new ArrayList<>();
+    final IntIterator iterator = bitmap.iterator();
+    while (iterator.hasNext()) {
+      rows.add(iterator.next());
+    }
+    return rows;
+  }
+}
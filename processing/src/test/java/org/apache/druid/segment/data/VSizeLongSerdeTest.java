@@ -27,6 +27,7 @@ import org.junit.Test;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Random;
 
 public class VSizeLongSerdeTest
 {
@@ -99,6 +100,40 @@ public class VSizeLongSerdeTest
     }
   }
 
+  @Test
+  public void testGetDelta() throws IOException
+  {
+    final Random random = new Random(0);
+    for (int longSize : VSizeLongSerde.SUPPORTED_SIZES) {
+      final long[] values = new long[100];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = longSize == 64 ? random.nextLong() : random.nextLong() & ((1L << longSize) - 1);
+      }
+      outStream.reset();
+      VSizeLongSerde.LongSerializer ser = VSizeLongSerde.getSerializer(longSize, outStream);
+      for (long value : values) {
+        ser.write(value);
+      }
+      ser.close();
+      VSizeLongSerde.LongDeserializer des = VSizeLongSerde.getDeserializer(
+          longSize,
+          ByteBuffer.wrap(outStream.toByteArray()),
+          0
+      );
+
+      // unaligned starts and ends, and ends at the last value
+      for (int startIndex : new int[]{0, 1, 3, 7, 8, 13}) {
+        for (int length : new int[]{0, 1, 5, 8, 17, values.length - startIndex}) {
+          final long[] out = new long[length + 2];
+          des.getDelta(out, 2, startIndex, length, 10);
+          for (int i = 0; i < length; i++) {
+            Assert.assertEquals(values[startIndex + i] + 10, out[2 + i]);
+          }
+        }
+      }
+    }
+  }
+
   public void testSerde(int longSize, long[] values) throws IOException
   {
     outBuffer.rewind();
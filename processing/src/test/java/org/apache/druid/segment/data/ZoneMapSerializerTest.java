@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.writeout.OnHeapMemorySegmentWriteOutMedium;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+public class ZoneMapSerializerTest
+{
+  @Test
+  public void testLongs() throws IOException
+  {
+    final ZoneMapSerializer serializer = new ZoneMapSerializer(ValueType.LONG, 4, new OnHeapMemorySegmentWriteOutMedium());
+    serializer.open();
+    for (long value : new long[]{5, -3, 7, 1, Long.MAX_VALUE, Long.MIN_VALUE}) {
+      serializer.addLong(value);
+    }
+    serializer.addNull();
+    for (int i = 0; i < 4; i++) {
+      serializer.addNull();
+    }
+
+    final ImmutableZoneMap zoneMap = serializeAndDeserialize(serializer);
+    Assert.assertEquals(ValueType.LONG, zoneMap.getType());
+    Assert.assertEquals(4, zoneMap.getRowsPerZone());
+    Assert.assertEquals(3, zoneMap.getNumZones());
+
+    Assert.assertEquals(4, zoneMap.getNumRows(0));
+    Assert.assertEquals(0, zoneMap.getNullCount(0));
+    Assert.assertEquals(-3, zoneMap.getLongMin(0));
+    Assert.assertEquals(7, zoneMap.getLongMax(0));
+
+    Assert.assertEquals(4, zoneMap.getNumRows(1));
+    Assert.assertEquals(2, zoneMap.getNullCount(1));
+    Assert.assertEquals(Long.MIN_VALUE, zoneMap.getLongMin(1));
+    Assert.assertEquals(Long.MAX_VALUE, zoneMap.getLongMax(1));
+
+    Assert.assertEquals(3, zoneMap.getNumRows(2));
+    Assert.assertEquals(3, zoneMap.getNullCount(2));
+  }
+
+  @Test
+  public void testDoubles() throws IOException
+  {
+    final ZoneMapSerializer serializer = new ZoneMapSerializer(ValueType.DOUBLE, 2, new OnHeapMemorySegmentWriteOutMedium());
+    serializer.open();
+    for (double value : new double[]{1.5, -0.0, 0.0, Double.NaN, Double.NEGATIVE_INFINITY}) {
+      serializer.addDouble(value);
+    }
+
+    final ImmutableZoneMap zoneMap = serializeAndDeserialize(serializer);
+    Assert.assertEquals(3, zoneMap.getNumZones());
+    Assert.assertEquals(-0.0, zoneMap.getDoubleMin(0), 0);
+    Assert.assertEquals(1.5, zoneMap.getDoubleMax(0), 0);
+    Assert.assertEquals(0.0, zoneMap.getDoubleMin(1), 0);
+    Assert.assertTrue(Double.isNaN(zoneMap.getDoubleMax(1)));
+    Assert.assertEquals(1, zoneMap.getNumRows(2));
+    Assert.assertEquals(Double.NEGATIVE_INFINITY, zoneMap.getDoubleMin(2), 0);
+    Assert.assertEquals(Double.NEGATIVE_INFINITY, zoneMap.getDoubleMax(2), 0);
+  }
+
+  @Test
+  public void testEmpty() throws IOException
+  {
+    final ZoneMapSerializer serializer = new ZoneMapSerializer(ValueType.FLOAT, 8, new OnHeapMemorySegmentWriteOutMedium());
+    serializer.open();
+    Assert.assertEquals(0, serializeAndDeserialize(serializer).getNumZones());
+  }
+
+  @Test(expected = IAE.class)
+  public void testRowsPerZoneNotPowerOfTwo()
+  {
+    new ZoneMapSerializer(ValueType.LONG, 3, new OnHeapMemorySegmentWriteOutMedium());
+  }
+
+  @Test(expected = IAE.class)
+  public void testUnsupportedType()
+  {
+    new ZoneMapSerializer(ValueType.STRING, 4, new OnHeapMemorySegmentWriteOutMedium());
+  }
+
+  private static ImmutableZoneMap serializeAndDeserialize(ZoneMapSerializer serializer) throws IOException
+  {
+    final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    final WritableByteChannel channel = Channels.newChannel(baos);
+    serializer.writeTo(channel, null);
+    channel.close();
+
+    // trailing byte to check that reading stops at the end of the zone map
+    final ByteBuffer buffer = ByteBuffer.allocate(baos.size() + 1);
+    buffer.put(baos.toByteArray()).put((byte) 1).flip();
+    Assert.assertEquals(serializer.getSerializedSize(), baos.size());
+    final ImmutableZoneMap zoneMap = ImmutableZoneMap.read(buffer, serializer.getType());
+    Assert.assertEquals(1, buffer.remaining());
+    return zoneMap;
+  }
+}
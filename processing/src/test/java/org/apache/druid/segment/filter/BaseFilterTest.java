@@ -76,10 +76,10 @@ import org.apache.druid.segment.StorageAdapter;
 import org.apache.druid.segment.VirtualColumns;
 import org.apache.druid.segment.column.RowSignature;
 import org.apache.druid.segment.column.ValueType;
-import org.apache.druid.segment.data.BitmapSerdeFactory;
 import org.apache.druid.segment.data.ConciseBitmapSerdeFactory;
 import org.apache.druid.segment.data.IndexedInts;
 import org.apache.druid.segment.data.RoaringBitmapSerdeFactory;
+import org.apache.druid.segment.data.StringEncodingStrategy;
 import org.apache.druid.segment.incremental.IncrementalIndex;
 import org.apache.druid.segment.incremental.IncrementalIndexSchema;
 import org.apache.druid.segment.incremental.IncrementalIndexStorageAdapter;
@@ -287,9 +287,24 @@ public abstract class BaseFilterTest extends InitializedNullHandlingTest
   {
     final List<Object[]> constructors = new ArrayList<>();
 
-    final Map<String, BitmapSerdeFactory> bitmapSerdeFactories = ImmutableMap.of(
-        "concise", new ConciseBitmapSerdeFactory(),
-        "roaring", new RoaringBitmapSerdeFactory(true)
+    final Map<String, IndexSpec> indexSpecs = ImmutableMap.of(
+        "concise", new IndexSpec(new ConciseBitmapSerdeFactory(), null, null, null),
+        "roaring", new IndexSpec(new RoaringBitmapSerdeFactory(true), null, null, null),
+        "roaring, frontCoded dictionaries, numeric zone maps, ngram indexes",
+        new IndexSpec(
+            new RoaringBitmapSerdeFactory(true),
+            null,
+            null,
+            null,
+            null,
+            new StringEncodingStrategy.FrontCoded(4),
+            true,
+            null,
+            true,
+            null
+        ),
+        "concise, numeric bitmap indexes",
+        new IndexSpec(new ConciseBitmapSerdeFactory(), null, null, null, null, null, null, true, null, null)
     );
 
     final Map<String, SegmentWriteOutMediumFactory> segmentWriteOutMediumFactories = ImmutableMap.of(
@@ -330,7 +345,7 @@ public abstract class BaseFilterTest extends InitializedNullHandlingTest
             )
             .build();
 
-    for (Map.Entry<String, BitmapSerdeFactory> bitmapSerdeFactoryEntry : bitmapSerdeFactories.entrySet()) {
+    for (Map.Entry<String, IndexSpec> indexSpecEntry : indexSpecs.entrySet()) {
       for (Map.Entry<String, SegmentWriteOutMediumFactory> segmentWriteOutMediumFactoryEntry :
           segmentWriteOutMediumFactories.entrySet()) {
         for (Map.Entry<String, Function<IndexBuilder, Pair<StorageAdapter, Closeable>>> finisherEntry :
@@ -338,8 +353,8 @@ public abstract class BaseFilterTest extends InitializedNullHandlingTest
           for (boolean cnf : ImmutableList.of(false, true)) {
             for (boolean optimize : ImmutableList.of(false, true)) {
               final String testName = StringUtils.format(
-                  "bitmaps[%s], indexMerger[%s], finisher[%s], cnf[%s], optimize[%s]",
-                  bitmapSerdeFactoryEntry.getKey(),
+                  "indexSpec[%s], indexMerger[%s], finisher[%s], cnf[%s], optimize[%s]",
+                  indexSpecEntry.getKey(),
                   segmentWriteOutMediumFactoryEntry.getKey(),
                   finisherEntry.getKey(),
                   cnf,
@@ -348,7 +363,7 @@ public abstract class BaseFilterTest extends InitializedNullHandlingTest
               final IndexBuilder indexBuilder = IndexBuilder
                   .create()
                   .schema(DEFAULT_INDEX_SCHEMA)
-                  .indexSpec(new IndexSpec(bitmapSerdeFactoryEntry.getValue(), null, null, null))
+                  .indexSpec(indexSpecEntry.getValue())
                   .segmentWriteOutMediumFactory(segmentWriteOutMediumFactoryEntry.getValue());
               constructors.add(new Object[]{testName, indexBuilder, finisherEntry.getValue(), cnf, optimize});
             }
@@ -773,9 +788,8 @@ public abstract class BaseFilterTest extends InitializedNullHandlingTest
       final List<String> expectedRows
   )
   {
-    // IncrementalIndex and RowBasedSegment cannot ever vectorize.
-    final boolean testVectorized =
-        !(adapter instanceof IncrementalIndexStorageAdapter) && !(adapter instanceof RowBasedStorageAdapter);
+    // RowBasedSegment cannot ever vectorize.
+    final boolean testVectorized = !(adapter instanceof RowBasedStorageAdapter);
     assertFilterMatches(filter, expectedRows, testVectorized);
   }
 
@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.filter;
+
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ConciseBitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.collections.bitmap.MutableBitmap;
+import org.apache.druid.collections.bitmap.RoaringBitmapFactory;
+import org.apache.druid.java.util.common.Intervals;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.java.util.common.io.Closer;
+import org.apache.druid.query.dimension.DefaultDimensionSpec;
+import org.apache.druid.query.filter.Filter;
+import org.apache.druid.query.filter.InDimFilter;
+import org.apache.druid.segment.DimensionSelector;
+import org.apache.druid.segment.QueryableIndex;
+import org.apache.druid.segment.QueryableIndexStorageAdapter;
+import org.apache.druid.segment.VirtualColumns;
+import org.apache.druid.segment.generator.GeneratorBasicSchemas;
+import org.apache.druid.segment.generator.GeneratorSchemaInfo;
+import org.apache.druid.segment.generator.SegmentGenerator;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.apache.druid.timeline.DataSegment;
+import org.apache.druid.timeline.SegmentId;
+import org.apache.druid.timeline.partition.LinearShardSpec;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class FilterBitmapCacheTest extends InitializedNullHandlingTest
+{
+  private static final int ROWS_PER_SEGMENT = 10_000;
+  private static final SegmentId SEGMENT_ID = SegmentId.dummy("foo");
+
+  private static QueryableIndex INDEX;
+  private static Closer CLOSER;
+
+  private FilterBitmapCache previousCache;
+
+  @BeforeClass
+  public static void setupClass()
+  {
+    CLOSER = Closer.create();
+
+    final GeneratorSchemaInfo schemaInfo = GeneratorBasicSchemas.SCHEMA_MAP.get("expression-testbench");
+
+    final DataSegment dataSegment = DataSegment.builder()
+                                               .dataSource("foo")
+                                               .interval(schemaInfo.getDataInterval())
+                                               .version("1")
+                                               .shardSpec(new LinearShardSpec(0))
+                                               .size(0)
+                                               .build();
+
+    final SegmentGenerator segmentGenerator = CLOSER.register(new SegmentGenerator());
+    INDEX = CLOSER.register(
+        segmentGenerator.generate(dataSegment, schemaInfo, Granularities.HOUR, ROWS_PER_SEGMENT)
+    );
+  }
+
+  @AfterClass
+  public static void teardownClass() throws IOException
+  {
+    CLOSER.close();
+  }
+
+  @Before
+  public void setUp()
+  {
+    previousCache = FilterBitmapCache.getInstance();
+  }
+
+  @After
+  public void tearDown()
+  {
+    FilterBitmapCache.setInstance(previousCache);
+  }
+
+  @Test
+  public void testDisabled()
+  {
+    final FilterBitmapCache cache = new FilterBitmapCache(0);
+    Assert.assertFalse(cache.isEnabled());
+
+    final BitmapFactory bitmapFactory = new RoaringBitmapFactory();
+    final AtomicInteger computed = new AtomicInteger();
+    for (int i = 0; i < 2; i++) {
+      cache.getBitmap(SEGMENT_ID, new byte[]{1}, bitmapFactory, () -> {
+        computed.incrementAndGet();
+        return makeBitmap(bitmapFactory, 1, 2, 3);
+      });
+    }
+    Assert.assertEquals(2, computed.get());
+    Assert.assertEquals(0, cache.getStats().getNumEntries());
+    Assert.assertEquals(0, cache.getStats().getNumMisses());
+  }
+
+  @Test
+  public void testRoaring()
+  {
+    assertCachedBitmaps(new RoaringBitmapFactory());
+  }
+
+  @Test
+  public void testConcise()
+  {
+    assertCachedBitmaps(new ConciseBitmapFactory());
+  }
+
+  @Test
+  public void testEviction()
+  {
+    final BitmapFactory bitmapFactory = new RoaringBitmapFactory();
+    final ImmutableBitmap bitmap = makeBitmap(bitmapFactory, 1, 100, 10_000);
+    final long entrySize = bitmap.toBytes().length + 1;
+    final FilterBitmapCache cache = new FilterBitmapCache(2 * entrySize);
+
+    for (byte key = 0; key < 4; key++) {
+      cache.getBitmap(SEGMENT_ID, new byte[]{key}, bitmapFactory, () -> bitmap);
+    }
+    final FilterBitmapCache.Stats stats = cache.getStats();
+    Assert.assertTrue(stats.getNumEvictions() > 0);
+    Assert.assertTrue(stats.getSizeInBytes() <= 2 * entrySize);
+    Assert.assertEquals(stats.getNumEntries() * entrySize, stats.getSizeInBytes());
+  }
+
+  @Test
+  public void testStorageAdapter()
+  {
+    final FilterBitmapCache cache = new FilterBitmapCache(1 << 24);
+    FilterBitmapCache.setInstance(cache);
+
+    final Set<String> values = new HashSet<>();
+    forEachValue(new QueryableIndexStorageAdapter(INDEX), null, value -> {
+      if (values.size() < 3) {
+        values.add(value);
+      }
+    });
+    final Filter filter = new InDimFilter("string2", values, null);
+    final int expected = countRows(new QueryableIndexStorageAdapter(INDEX), filter);
+    Assert.assertTrue(expected > 0);
+    Assert.assertEquals(0, cache.getStats().getNumMisses());
+
+    // only adapters with a segment id use the cache
+    Assert.assertEquals(expected, countRows(new QueryableIndexStorageAdapter(INDEX, SEGMENT_ID), filter));
+    Assert.assertEquals(1, cache.getStats().getNumMisses());
+    Assert.assertEquals(expected, countRows(new QueryableIndexStorageAdapter(INDEX, SEGMENT_ID), filter));
+    Assert.assertEquals(1, cache.getStats().getNumHits());
+    Assert.assertEquals(1, cache.getStats().getNumEntries());
+  }
+
+  private static void assertCachedBitmaps(BitmapFactory bitmapFactory)
+  {
+    final FilterBitmapCache cache = new FilterBitmapCache(1 << 20);
+    final ImmutableBitmap bitmap = makeBitmap(bitmapFactory, 1, 5, 1000, 70_000);
+
+    final ImmutableBitmap first = cache.getBitmap(SEGMENT_ID, new byte[]{1, 2}, bitmapFactory, () -> bitmap);
+    final ImmutableBitmap second = cache.getBitmap(SEGMENT_ID, new byte[]{1, 2}, bitmapFactory, () -> {
+      throw new AssertionError("should be cached");
+    });
+    Assert.assertArrayEquals(bitmap.toBytes(), first.toBytes());
+    Assert.assertArrayEquals(bitmap.toBytes(), second.toBytes());
+    Assert.assertEquals(4, second.size());
+    Assert.assertTrue(second.get(70_000));
+
+    // another segment or another filter is another entry
+    cache.getBitmap(SegmentId.dummy("bar"), new byte[]{1, 2}, bitmapFactory, () -> bitmap);
+    cache.getBitmap(SEGMENT_ID, new byte[]{1, 3}, bitmapFactory, () -> bitmap);
+
+    final FilterBitmapCache.Stats stats = cache.getStats();
+    Assert.assertEquals(3, stats.getNumEntries());
+    Assert.assertEquals(3, stats.getNumMisses());
+    Assert.assertEquals(1, stats.getNumHits());
+    Assert.assertEquals(0.25, stats.hitRate(), 0.0);
+  }
+
+  private static ImmutableBitmap makeBitmap(BitmapFactory bitmapFactory, int... rows)
+  {
+    final MutableBitmap bitmap = bitmapFactory.makeEmptyMutableBitmap();
+    for (int row : rows) {
+      bitmap.add(row);
+    }
+    return bitmapFactory.makeImmutableBitmap(bitmap);
+  }
+
+  private static int countRows(QueryableIndexStorageAdapter adapter, Filter filter)
+  {
+    final AtomicInteger rows = new AtomicInteger();
+    forEachValue(adapter, filter, value -> rows.incrementAndGet());
+    return rows.get();
+  }
+
+  private static void forEachValue(
+      QueryableIndexStorageAdapter adapter,
+      @Nullable Filter filter,
+      Consumer<String> consumer
+  )
+  {
+    adapter.makeCursors(filter, Intervals.ETERNITY, VirtualColumns.EMPTY, Granularities.ALL, false, null)
+           .accumulate(0, (acc, cursor) -> {
+             final DimensionSelector selector = cursor.getColumnSelectorFactory()
+                                                      .makeDimensionSelector(DefaultDimensionSpec.of("string2"));
+             while (!cursor.isDone()) {
+               consumer.accept((String) selector.getObject());
+               cursor.advance();
+             }
+             return acc;
+           });
+  }
+}
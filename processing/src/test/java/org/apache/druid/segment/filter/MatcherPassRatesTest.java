@@ -0,0 +1,294 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.filter;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.druid.data.input.MapBasedRow;
+import org.apache.druid.data.input.Row;
+import org.apache.druid.math.expr.ExprMacroTable;
+import org.apache.druid.math.expr.Parser;
+import org.apache.druid.query.extraction.SubstringDimExtractionFn;
+import org.apache.druid.query.filter.BoundDimFilter;
+import org.apache.druid.query.filter.Filter;
+import org.apache.druid.query.filter.InDimFilter;
+import org.apache.druid.query.filter.ValueMatcher;
+import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
+import org.apache.druid.query.ordering.StringComparators;
+import org.apache.druid.segment.ColumnSelectorFactory;
+import org.apache.druid.segment.RowAdapters;
+import org.apache.druid.segment.RowBasedColumnSelectorFactory;
+import org.apache.druid.segment.VirtualColumns;
+import org.apache.druid.segment.column.RowSignature;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.virtual.ExpressionVirtualColumn;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.function.IntPredicate;
+
+public class MatcherPassRatesTest extends InitializedNullHandlingTest
+{
+  private static final int NUM_ROWS = MatcherPassRates.SAMPLE_ROWS * 4;
+
+  @Test
+  public void testSort()
+  {
+    final MatcherPassRates passRates = new MatcherPassRates(MatcherPassRates.allReorderable(4));
+    passRates.record(0, 10, 5);
+    passRates.record(1, 10, 1);
+    passRates.record(2, 10, 9);
+    // matcher 3 evaluated no rows
+
+    Assert.assertArrayEquals(
+        new String[]{"b", "a", "c", "d"},
+        passRates.sort(new String[]{"a", "b", "c", "d"}, false)
+    );
+    Assert.assertArrayEquals(
+        new String[]{"c", "a", "b", "d"},
+        passRates.sort(new String[]{"a", "b", "c", "d"}, true)
+    );
+  }
+
+  @Test
+  public void testSortKeepsOrderOfTies()
+  {
+    final MatcherPassRates passRates = new MatcherPassRates(MatcherPassRates.allReorderable(3));
+    passRates.record(0, 4, 2);
+    passRates.record(1, 2, 1);
+    passRates.record(2, 8, 4);
+    Assert.assertArrayEquals(new String[]{"a", "b", "c"}, passRates.sort(new String[]{"a", "b", "c"}, false));
+    Assert.assertArrayEquals(new String[]{"a", "b", "c"}, passRates.sort(new String[]{"a", "b", "c"}, true));
+  }
+
+  @Test
+  public void testAndMatcherEvaluatesFailingMatcherFirst()
+  {
+    final RowMatcher mostlyTrue = new RowMatcher(row -> row % 10 != 0);
+    final RowMatcher mostlyFalse = new RowMatcher(row -> row % 10 == 1);
+    final ValueMatcher matcher = AndFilter.makeMatcher(
+        new ValueMatcher[]{mostlyTrue, mostlyFalse},
+        MatcherPassRates.allReorderable(2)
+    );
+
+    int matched = 0;
+    for (int row = 0; row < NUM_ROWS; row++) {
+      mostlyTrue.row = row;
+      mostlyFalse.row = row;
+      final boolean expected = row % 10 == 1;
+      Assert.assertEquals(expected, matcher.matches());
+      matched += expected ? 1 : 0;
+    }
+
+    // after sampling, "mostlyTrue" is only evaluated on the rows that pass "mostlyFalse"
+    Assert.assertEquals(NUM_ROWS, mostlyFalse.evaluated, MatcherPassRates.SAMPLE_ROWS);
+    Assert.assertTrue(mostlyTrue.evaluated <= MatcherPassRates.SAMPLE_ROWS + matched);
+  }
+
+  @Test
+  public void testOrMatcherEvaluatesPassingMatcherFirst()
+  {
+    final RowMatcher mostlyFalse = new RowMatcher(row -> row % 10 == 1);
+    final RowMatcher mostlyTrue = new RowMatcher(row -> row % 10 != 0);
+    final ValueMatcher matcher = OrFilter.makeMatcher(
+        new ValueMatcher[]{mostlyFalse, mostlyTrue},
+        MatcherPassRates.allReorderable(2)
+    );
+
+    int unmatched = 0;
+    for (int row = 0; row < NUM_ROWS; row++) {
+      mostlyFalse.row = row;
+      mostlyTrue.row = row;
+      final boolean expected = row % 10 != 0;
+      Assert.assertEquals(expected, matcher.matches());
+      unmatched += expected ? 0 : 1;
+    }
+
+    // after sampling, "mostlyFalse" is only evaluated on the rows that fail "mostlyTrue"
+    Assert.assertEquals(NUM_ROWS, mostlyTrue.evaluated, MatcherPassRates.SAMPLE_ROWS);
+    Assert.assertTrue(mostlyFalse.evaluated <= MatcherPassRates.SAMPLE_ROWS + unmatched);
+  }
+
+  @Test
+  public void testSortKeepsUnreorderableMatchersInPlace()
+  {
+    final MatcherPassRates passRates = new MatcherPassRates(new boolean[]{true, false, true, true});
+    passRates.record(0, 10, 9);
+    passRates.record(1, 10, 1);
+    passRates.record(2, 10, 8);
+    passRates.record(3, 10, 2);
+
+    // "a" is not moved after "b", and "c" and "d" are not moved before it
+    Assert.assertArrayEquals(
+        new String[]{"a", "b", "d", "c"},
+        passRates.sort(new String[]{"a", "b", "c", "d"}, false)
+    );
+  }
+
+  @Test
+  public void testIsReorderable()
+  {
+    final Filter selector = new SelectorFilter("x", "a");
+    final Filter expression = new ExpressionFilter(
+        () -> Parser.parse("y / x > 1", ExprMacroTable.nil()),
+        null
+    );
+    Assert.assertTrue(MatcherPassRates.isReorderable(selector, column -> false));
+    Assert.assertFalse(MatcherPassRates.isReorderable(expression, column -> false));
+    Assert.assertFalse(
+        MatcherPassRates.isReorderable(new OrFilter(ImmutableList.of(selector, expression)), column -> false)
+    );
+    Assert.assertFalse(MatcherPassRates.isReorderable(new NotFilter(expression), column -> false));
+    Assert.assertArrayEquals(
+        new boolean[]{true, false},
+        MatcherPassRates.reorderable(ImmutableList.of(selector, expression), column -> false)
+    );
+  }
+
+  @Test
+  public void testIsReorderableVirtualColumn()
+  {
+    final Filter selector = new SelectorFilter("v0", "a");
+    Assert.assertTrue(MatcherPassRates.isReorderable(selector, "v1"::equals));
+    Assert.assertFalse(MatcherPassRates.isReorderable(selector, "v0"::equals));
+    Assert.assertFalse(MatcherPassRates.isReorderable(new NotFilter(selector), "v0"::equals));
+  }
+
+  @Test
+  public void testIsReorderableExtractionFn()
+  {
+    final SubstringDimExtractionFn extractionFn = new SubstringDimExtractionFn(1, 2);
+    Assert.assertFalse(
+        MatcherPassRates.isReorderable(
+            new BoundFilter(new BoundDimFilter("x", "a", null, null, null, null, extractionFn, null)),
+            column -> false
+        )
+    );
+    Assert.assertFalse(
+        MatcherPassRates.isReorderable(new InDimFilter("x", ImmutableList.of("a"), extractionFn), column -> false)
+    );
+    Assert.assertTrue(
+        MatcherPassRates.isReorderable(new InDimFilter("x", ImmutableList.of("a"), null), column -> false)
+    );
+  }
+
+  @Test
+  public void testAndMatcherKeepsGuardOfVirtualColumnFirst()
+  {
+    // "x <> 0 AND v0 > 5" with v0 = "y / x", which throws on the rows where x is 0 if evaluated before the guard
+    final Row[] row = new Row[1];
+    final ColumnSelectorFactory factory = VirtualColumns.create(
+        ImmutableList.of(new ExpressionVirtualColumn("v0", "y / x", ValueType.LONG, ExprMacroTable.nil()))
+    ).wrap(
+        RowBasedColumnSelectorFactory.create(
+            RowAdapters.standardRow(),
+            () -> row[0],
+            RowSignature.builder().add("x", ValueType.LONG).add("y", ValueType.LONG).build(),
+            false
+        )
+    );
+    final ValueMatcher matcher = new AndFilter(
+        ImmutableList.of(
+            new NotFilter(new SelectorFilter("x", "0")),
+            new BoundFilter(new BoundDimFilter("v0", "5", null, true, null, null, null, StringComparators.NUMERIC))
+        )
+    ).makeMatcher(factory);
+
+    for (int i = 0; i < NUM_ROWS; i++) {
+      // "v0 > 5" fails more often than "x <> 0", but must not be moved before it
+      row[0] = new MapBasedRow(0L, ImmutableMap.of("x", i % 10 == 0 ? 0L : 1L, "y", i % 10 == 1 ? 10L : 1L));
+      Assert.assertEquals(i % 10 == 1, matcher.matches());
+    }
+  }
+
+  @Test
+  public void testAndMatcherKeepsGuardFirst()
+  {
+    // like "x <> 0 AND y / x > 1", where the second matcher fails on the rows the first one filters out
+    final RowMatcher guard = new RowMatcher(row -> row % 10 != 0);
+    final RowMatcher guarded = new RowMatcher(row -> {
+      if (row % 10 == 0) {
+        throw new ArithmeticException("/ by zero");
+      }
+      return row % 10 == 1;
+    });
+    final ValueMatcher matcher = AndFilter.makeMatcher(
+        new ValueMatcher[]{guard, guarded},
+        new boolean[]{true, false}
+    );
+
+    for (int row = 0; row < NUM_ROWS; row++) {
+      guard.row = row;
+      guarded.row = row;
+      Assert.assertEquals(row % 10 == 1, matcher.matches());
+    }
+    Assert.assertEquals(NUM_ROWS, guard.evaluated);
+  }
+
+  @Test
+  public void testOrMatcherKeepsGuardFirst()
+  {
+    // like "x = 0 OR y / x > 1"
+    final RowMatcher guard = new RowMatcher(row -> row % 10 == 0);
+    final RowMatcher guarded = new RowMatcher(row -> {
+      if (row % 10 == 0) {
+        throw new ArithmeticException("/ by zero");
+      }
+      return row % 10 != 1;
+    });
+    final ValueMatcher matcher = OrFilter.makeMatcher(
+        new ValueMatcher[]{guard, guarded},
+        new boolean[]{true, false}
+    );
+
+    for (int row = 0; row < NUM_ROWS; row++) {
+      guard.row = row;
+      guarded.row = row;
+      Assert.assertEquals(row % 10 != 1, matcher.matches());
+    }
+    Assert.assertEquals(NUM_ROWS, guard.evaluated);
+  }
+
+  private static class RowMatcher implements ValueMatcher
+  {
+    private final IntPredicate predicate;
+    private int row;
+    private int evaluated;
+
+    RowMatcher(IntPredicate predicate)
+    {
+      this.predicate = predicate;
+    }
+
+    @Override
+    public boolean matches()
+    {
+      evaluated++;
+      return predicate.test(row);
+    }
+
+    @Override
+    public void inspectRuntimeShape(RuntimeShapeInspector inspector)
+    {
+      // nothing to inspect
+    }
+  }
+}
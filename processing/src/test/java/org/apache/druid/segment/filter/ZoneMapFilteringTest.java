@@ -0,0 +1,286 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.filter;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.druid.common.config.NullHandling;
+import org.apache.druid.data.input.InputRow;
+import org.apache.druid.data.input.MapBasedInputRow;
+import org.apache.druid.data.input.impl.DimensionSchema;
+import org.apache.druid.data.input.impl.DimensionsSpec;
+import org.apache.druid.data.input.impl.DoubleDimensionSchema;
+import org.apache.druid.data.input.impl.FloatDimensionSchema;
+import org.apache.druid.data.input.impl.LongDimensionSchema;
+import org.apache.druid.java.util.common.Intervals;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
+import org.apache.druid.query.filter.BoundDimFilter;
+import org.apache.druid.query.filter.Filter;
+import org.apache.druid.query.filter.SelectorDimFilter;
+import org.apache.druid.query.filter.ZoneMatcher;
+import org.apache.druid.query.ordering.StringComparators;
+import org.apache.druid.segment.ColumnSelectorBitmapIndexSelector;
+import org.apache.druid.segment.ColumnValueSelector;
+import org.apache.druid.segment.Cursor;
+import org.apache.druid.segment.IndexBuilder;
+import org.apache.druid.segment.IndexSpec;
+import org.apache.druid.segment.QueryableIndex;
+import org.apache.druid.segment.QueryableIndexStorageAdapter;
+import org.apache.druid.segment.StorageAdapter;
+import org.apache.druid.segment.VirtualColumns;
+import org.apache.druid.segment.column.ColumnHolder;
+import org.apache.druid.segment.column.ZoneMap;
+import org.apache.druid.segment.data.ZoneMapSerializer;
+import org.apache.druid.segment.incremental.IncrementalIndexSchema;
+import org.apache.druid.segment.vector.VectorCursor;
+import org.apache.druid.segment.vector.VectorValueSelector;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks that filtered cursors skipping the zones ruled out by {@link ZoneMap}s return the same rows as cursors over
+ * the same segment written without zone maps.
+ */
+public class ZoneMapFilteringTest extends InitializedNullHandlingTest
+{
+  private static final int NUM_ROWS = 3 * ZoneMapSerializer.DEFAULT_ROWS_PER_ZONE + 100;
+
+  @ClassRule
+  public static TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static QueryableIndex INDEX;
+  private static QueryableIndex INDEX_WITH_ZONE_MAPS;
+
+  @BeforeClass
+  public static void setup() throws IOException
+  {
+    final List<InputRow> rows = new ArrayList<>();
+    final List<String> dimensions = ImmutableList.of("l", "f", "d");
+    for (int i = 0; i < NUM_ROWS; i++) {
+      final Map<String, Object> event = new HashMap<>();
+      if (i % 7 != 0) {
+        event.put("l", i);
+      }
+      event.put("f", i / 2f);
+      event.put("d", -i / 4.0);
+      event.put("m", i % 10);
+      rows.add(new MapBasedInputRow(i, dimensions, event));
+    }
+    final IncrementalIndexSchema schema =
+        new IncrementalIndexSchema.Builder()
+            .withMetrics(new CountAggregatorFactory("cnt"), new LongSumAggregatorFactory("m", "m"))
+            .withDimensionsSpec(
+                new DimensionsSpec(
+                    ImmutableList.<DimensionSchema>of(
+                        new LongDimensionSchema("l"),
+                        new FloatDimensionSchema("f"),
+                        new DoubleDimensionSchema("d")
+                    ),
+                    null,
+                    null
+                )
+            )
+            .withRollup(false)
+            .build();
+
+    INDEX = IndexBuilder.create()
+                        .rows(rows)
+                        .schema(schema)
+                        .tmpDir(temporaryFolder.newFolder())
+                        .buildMMappedIndex();
+    INDEX_WITH_ZONE_MAPS = IndexBuilder.create()
+                                       .rows(rows)
+                                       .schema(schema)
+                                       .indexSpec(new IndexSpec(null, null, null, null, null, null, true, null, null, null))
+                                       .tmpDir(temporaryFolder.newFolder())
+                                       .buildMMappedIndex();
+  }
+
+  @AfterClass
+  public static void teardown()
+  {
+    INDEX.close();
+    INDEX_WITH_ZONE_MAPS.close();
+  }
+
+  @Test
+  public void testZoneMaps()
+  {
+    Assert.assertNull(INDEX.getColumnHolder("l").getZoneMap());
+    for (String column : ImmutableList.of(ColumnHolder.TIME_COLUMN_NAME, "l", "f", "d", "m")) {
+      final ColumnHolder columnHolder = INDEX_WITH_ZONE_MAPS.getColumnHolder(column);
+      Assert.assertTrue(column, columnHolder.getCapabilities().hasZoneMaps());
+      final ZoneMap zoneMap = columnHolder.getZoneMap();
+      Assert.assertEquals(column, 4, zoneMap.getNumZones());
+      Assert.assertEquals(column, 100, zoneMap.getNumRows(3));
+    }
+
+    final ZoneMap zoneMap = INDEX_WITH_ZONE_MAPS.getColumnHolder("l").getZoneMap();
+    Assert.assertEquals(NullHandling.replaceWithDefault() ? 0 : 1, zoneMap.getLongMin(0));
+    Assert.assertEquals(ZoneMapSerializer.DEFAULT_ROWS_PER_ZONE - 1, zoneMap.getLongMax(0));
+    Assert.assertEquals(NullHandling.replaceWithDefault() ? 0 : 1171, zoneMap.getNullCount(0));
+
+    final ZoneMap doubleZoneMap = INDEX_WITH_ZONE_MAPS.getColumnHolder("d").getZoneMap();
+    Assert.assertEquals(-(NUM_ROWS - 1) / 4.0, doubleZoneMap.getDoubleMin(3), 0);
+    Assert.assertEquals(-3 * ZoneMapSerializer.DEFAULT_ROWS_PER_ZONE / 4.0, doubleZoneMap.getDoubleMax(3), 0);
+  }
+
+  @Test
+  public void testZoneMatchers()
+  {
+    final ColumnSelectorBitmapIndexSelector selector = new ColumnSelectorBitmapIndexSelector(
+        INDEX_WITH_ZONE_MAPS.getBitmapFactoryForDimensions(),
+        VirtualColumns.EMPTY,
+        INDEX_WITH_ZONE_MAPS
+    );
+    Assert.assertNull(new BoundDimFilter("l", "-100", null, false, false, null, null, StringComparators.NUMERIC)
+                          .toFilter()
+                          .makeZoneMatcher(selector));
+    Assert.assertNull(new BoundDimFilter("l", "100", "200", false, false, null, null, StringComparators.LEXICOGRAPHIC)
+                          .toFilter()
+                          .makeZoneMatcher(selector));
+    Assert.assertNull(new SelectorDimFilter("nonexistent", "100", null).toFilter().makeZoneMatcher(selector));
+
+    final int zone = ZoneMapSerializer.DEFAULT_ROWS_PER_ZONE;
+    final ZoneMatcher matcher = new BoundDimFilter(
+        "l",
+        String.valueOf(2 * zone + 100),
+        String.valueOf(2 * zone + 200),
+        false,
+        false,
+        null,
+        null,
+        StringComparators.NUMERIC
+    ).toFilter().makeZoneMatcher(selector);
+    Assert.assertNotNull(matcher);
+    Assert.assertTrue(matcher.mayMatch(2 * zone + 150, 2 * zone + 151));
+    Assert.assertTrue(matcher.mayMatch(0, NUM_ROWS));
+    Assert.assertFalse(matcher.mayMatch(0, 2 * zone));
+  }
+
+  @Test
+  public void testFilters()
+  {
+    final int zone = ZoneMapSerializer.DEFAULT_ROWS_PER_ZONE;
+    assertSameRows(new BoundDimFilter("l", "100", "200", false, true, null, null, StringComparators.NUMERIC).toFilter());
+    assertSameRows(
+        new BoundDimFilter("l", String.valueOf(2 * zone - 10), null, true, false, null, null, StringComparators.NUMERIC)
+            .toFilter()
+    );
+    assertSameRows(new BoundDimFilter("l", null, "1e2", false, false, null, null, StringComparators.NUMERIC).toFilter());
+    assertSameRows(new BoundDimFilter("l", "-1.5", "0.5", true, true, null, null, StringComparators.NUMERIC).toFilter());
+    assertSameRows(new BoundDimFilter("l", "abc", "def", false, false, null, null, StringComparators.NUMERIC).toFilter());
+    assertSameRows(new BoundDimFilter("f", "5000", "5000.5", false, false, null, null, StringComparators.NUMERIC).toFilter());
+    assertSameRows(new BoundDimFilter("d", null, "-5000", false, true, null, null, StringComparators.NUMERIC).toFilter());
+    assertSameRows(new BoundDimFilter("m", "9", null, false, false, null, null, StringComparators.NUMERIC).toFilter());
+    assertSameRows(new BoundDimFilter("__time", "20000", "20010", false, false, null, null, StringComparators.NUMERIC).toFilter());
+    assertSameRows(new SelectorDimFilter("l", String.valueOf(zone + 1), null).toFilter());
+    assertSameRows(new SelectorDimFilter("l", "0", null).toFilter());
+    assertSameRows(new SelectorDimFilter("l", null, null).toFilter());
+    assertSameRows(new SelectorDimFilter("f", "12000.5", null).toFilter());
+    assertSameRows(new SelectorDimFilter("d", "-4000.25", null).toFilter());
+    assertSameRows(
+        new OrFilter(
+            ImmutableList.of(
+                new SelectorDimFilter("l", "10", null).toFilter(),
+                new SelectorDimFilter("d", "-6000", null).toFilter()
+            )
+        )
+    );
+    assertSameRows(
+        new AndFilter(
+            ImmutableList.of(
+                new SelectorDimFilter("m", "3", null).toFilter(),
+                new BoundDimFilter("f", "4000", "4100", false, false, null, null, StringComparators.NUMERIC).toFilter()
+            )
+        )
+    );
+  }
+
+  private static void assertSameRows(Filter filter)
+  {
+    for (boolean vectorize : new boolean[]{false, true}) {
+      Assert.assertEquals(
+          filter + ", vectorize=" + vectorize,
+          readTimes(INDEX, filter, vectorize, false),
+          readTimes(INDEX_WITH_ZONE_MAPS, filter, vectorize, false)
+      );
+    }
+    Assert.assertEquals(
+        filter + ", descending",
+        readTimes(INDEX, filter, false, true),
+        readTimes(INDEX_WITH_ZONE_MAPS, filter, false, true)
+    );
+  }
+
+  private static List<Long> readTimes(QueryableIndex index, Filter filter, boolean vectorize, boolean descending)
+  {
+    final StorageAdapter adapter = new QueryableIndexStorageAdapter(index);
+    final List<Long> times = new ArrayList<>();
+    if (vectorize) {
+      try (final VectorCursor cursor = adapter.makeVectorCursor(
+          filter,
+          Intervals.ETERNITY,
+          VirtualColumns.EMPTY,
+          false,
+          512,
+          null
+      )) {
+        final VectorValueSelector selector = cursor.getColumnSelectorFactory()
+                                                   .makeValueSelector(ColumnHolder.TIME_COLUMN_NAME);
+        while (!cursor.isDone()) {
+          final long[] vector = selector.getLongVector();
+          for (int i = 0; i < cursor.getCurrentVectorSize(); i++) {
+            times.add(vector[i]);
+          }
+          cursor.advance();
+        }
+      }
+    } else {
+      final Cursor cursor = adapter.makeCursors(
+          filter,
+          Intervals.ETERNITY,
+          VirtualColumns.EMPTY,
+          Granularities.ALL,
+          descending,
+          null
+      ).toList().get(0);
+      final ColumnValueSelector<?> selector = cursor.getColumnSelectorFactory()
+                                                    .makeColumnValueSelector(ColumnHolder.TIME_COLUMN_NAME);
+      while (!cursor.isDone()) {
+        times.add(selector.getLong());
+        cursor.advance();
+      }
+    }
+    return times;
+  }
+}
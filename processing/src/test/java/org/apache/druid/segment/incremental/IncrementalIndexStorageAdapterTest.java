@@ -59,17 +59,26 @@ import org.apache.druid.query.topn.TopNResultValue;
 import org.apache.druid.segment.CloserRule;
 import org.apache.druid.segment.ColumnSelector;
 import org.apache.druid.segment.ColumnSelectorFactory;
+import org.apache.druid.segment.ColumnValueSelector;
 import org.apache.druid.segment.Cursor;
 import org.apache.druid.segment.DimensionSelector;
 import org.apache.druid.segment.StorageAdapter;
 import org.apache.druid.segment.VirtualColumns;
+import org.apache.druid.segment.column.ColumnHolder;
 import org.apache.druid.segment.data.IndexedInts;
 import org.apache.druid.segment.filter.Filters;
 import org.apache.druid.segment.filter.SelectorFilter;
+import org.apache.druid.segment.vector.MultiValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorCursor;
+import org.apache.druid.segment.vector.VectorObjectSelector;
+import org.apache.druid.segment.vector.VectorValueSelector;
 import org.apache.druid.testing.InitializedNullHandlingTest;
 import org.joda.time.DateTime;
 import org.joda.time.Interval;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -77,6 +86,7 @@ import org.junit.runners.Parameterized;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -640,6 +650,141 @@ public class IncrementalIndexStorageAdapterTest extends InitializedNullHandlingT
     Assert.assertEquals(1, assertCursorsNotEmpty.get());
   }
 
+  @Test
+  public void testVectorCursor() throws Exception
+  {
+    final IncrementalIndex<?> index = indexCreator.createIndex();
+    final long timestamp = System.currentTimeMillis();
+
+    index.add(new MapBasedInputRow(timestamp, Collections.singletonList("billy"), ImmutableMap.of("billy", "hi")));
+    index.add(
+        new MapBasedInputRow(
+            timestamp + 1,
+            Arrays.asList("billy", "sally"),
+            ImmutableMap.of("billy", Arrays.asList("a", "b"), "sally", "bo")
+        )
+    );
+    index.add(new MapBasedInputRow(timestamp + 2, Collections.singletonList("sally"), ImmutableMap.of("sally", "x")));
+    index.add(new MapBasedInputRow(timestamp + 2, Collections.singletonList("sally"), ImmutableMap.of("sally", "x")));
+
+    final IncrementalIndexStorageAdapter sa = new IncrementalIndexStorageAdapter(index);
+    final Interval interval = Intervals.utc(timestamp - 60_000, timestamp + 60_000);
+
+    // Facts whose iterators reuse rows cannot be gathered into vectors.
+    Assert.assertEquals(
+        !index.getFacts().iteratorReusesRows(),
+        sa.canVectorize(null, VirtualColumns.EMPTY, false)
+    );
+    Assume.assumeTrue(sa.canVectorize(null, VirtualColumns.EMPTY, false));
+    Assert.assertFalse(sa.canVectorize(null, VirtualColumns.EMPTY, true));
+
+    final List<List<Object>> expected = new ArrayList<>();
+    final Cursor cursor = Iterables.getOnlyElement(
+        sa.makeCursors(null, interval, VirtualColumns.EMPTY, Granularities.ALL, false, null).toList()
+    );
+    final ColumnSelectorFactory factory = cursor.getColumnSelectorFactory();
+    final ColumnValueSelector<?> timeSelector = factory.makeColumnValueSelector(ColumnHolder.TIME_COLUMN_NAME);
+    final ColumnValueSelector<?> cntSelector = factory.makeColumnValueSelector("cnt");
+    final DimensionSelector billySelector = factory.makeDimensionSelector(DefaultDimensionSpec.of("billy"));
+    final DimensionSelector sallySelector = factory.makeDimensionSelector(DefaultDimensionSpec.of("sally"));
+    while (!cursor.isDone()) {
+      expected.add(
+          Arrays.asList(
+              timeSelector.getLong(),
+              cntSelector.getLong(),
+              billySelector.getObject(),
+              sallySelector.getObject()
+          )
+      );
+      cursor.advance();
+    }
+    Assert.assertEquals(3, expected.size());
+
+    final List<List<Object>> actual = new ArrayList<>();
+    try (VectorCursor vectorCursor = sa.makeVectorCursor(null, interval, VirtualColumns.EMPTY, false, 2, null)) {
+      Assert.assertNotNull(vectorCursor);
+      Assert.assertEquals(2, vectorCursor.getMaxVectorSize());
+
+      final VectorColumnSelectorFactory vectorFactory = vectorCursor.getColumnSelectorFactory();
+      final VectorValueSelector timeVectorSelector = vectorFactory.makeValueSelector(ColumnHolder.TIME_COLUMN_NAME);
+      final VectorValueSelector cntVectorSelector = vectorFactory.makeValueSelector("cnt");
+      final MultiValueDimensionVectorSelector billyVectorSelector =
+          vectorFactory.makeMultiValueDimensionSelector(DefaultDimensionSpec.of("billy"));
+      final VectorObjectSelector sallyVectorSelector = vectorFactory.makeObjectSelector("sally");
+
+      while (!vectorCursor.isDone()) {
+        final long[] times = timeVectorSelector.getLongVector();
+        final long[] cnts = cntVectorSelector.getLongVector();
+        final IndexedInts[] billys = billyVectorSelector.getRowVector();
+        final Object[] sallys = sallyVectorSelector.getObjectVector();
+        for (int i = 0; i < vectorCursor.getCurrentVectorSize(); i++) {
+          actual.add(
+              Arrays.asList(
+                  times[i],
+                  cnts[i],
+                  DimensionSelector.rowToObject(billys[i], billyVectorSelector),
+                  sallys[i]
+              )
+          );
+        }
+        vectorCursor.advance();
+      }
+    }
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void testVectorCursorWithFilterAndIndexUpdation() throws Exception
+  {
+    final IncrementalIndex<?> index = indexCreator.createIndex();
+    final long timestamp = System.currentTimeMillis();
+
+    for (int i = 0; i < 5; i++) {
+      index.add(
+          new MapBasedInputRow(
+              timestamp + i,
+              Collections.singletonList("billy"),
+              ImmutableMap.of("billy", i % 2 == 0 ? "even" : "odd")
+          )
+      );
+    }
+
+    final IncrementalIndexStorageAdapter sa = new IncrementalIndexStorageAdapter(index);
+    final Filter filter = new SelectorFilter("billy", "even");
+    Assume.assumeTrue(sa.canVectorize(filter, VirtualColumns.EMPTY, false));
+
+    try (VectorCursor vectorCursor = sa.makeVectorCursor(
+        filter,
+        Intervals.utc(timestamp - 60_000, timestamp + 60_000),
+        VirtualColumns.EMPTY,
+        false,
+        2,
+        null
+    )) {
+      Assert.assertNotNull(vectorCursor);
+
+      // Rows added after the cursor was created are not visible.
+      index.add(
+          new MapBasedInputRow(timestamp + 10, Collections.singletonList("billy"), ImmutableMap.of("billy", "even"))
+      );
+
+      final SingleValueDimensionVectorSelector selector =
+          vectorCursor.getColumnSelectorFactory().makeSingleValueDimensionSelector(DefaultDimensionSpec.of("billy"));
+      final List<Integer> vectorSizes = new ArrayList<>();
+      while (!vectorCursor.isDone()) {
+        final int[] ids = selector.getRowVector();
+        for (int i = 0; i < vectorCursor.getCurrentVectorSize(); i++) {
+          Assert.assertEquals("even", selector.lookupName(ids[i]));
+        }
+        vectorSizes.add(vectorCursor.getCurrentVectorSize());
+        vectorCursor.advance();
+      }
+
+      Assert.assertEquals(Arrays.asList(2, 1), vectorSizes);
+    }
+  }
+
   private static class DictionaryRaceTestFilter implements Filter
   {
     private final IncrementalIndex index;
@@ -0,0 +1,383 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.join;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.apache.druid.java.util.common.DateTimes;
+import org.apache.druid.java.util.common.Intervals;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.math.expr.ExprMacroTable;
+import org.apache.druid.query.InlineDataSource;
+import org.apache.druid.query.filter.Filter;
+import org.apache.druid.segment.VirtualColumns;
+import org.apache.druid.segment.column.RowSignature;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.filter.SelectorFilter;
+import org.apache.druid.segment.join.filter.JoinFilterPreAnalysis;
+import org.apache.druid.segment.join.table.IndexedTableJoinable;
+import org.apache.druid.segment.join.table.RowBasedIndexedTable;
+import org.apache.druid.segment.virtual.ExpressionVirtualColumn;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+public class HashJoinVectorCursorTest extends BaseHashJoinSegmentStorageAdapterTest
+{
+  // Smaller than the number of rows of the fact table, so joins span several vectors.
+  private static final int VECTOR_SIZE = 3;
+
+  private static final List<String> COUNTRY_COLUMNS = ImmutableList.of(
+      "page",
+      "countryIsoCode",
+      "countryNumber",
+      FACT_TO_COUNTRY_ON_ISO_CODE_PREFIX + "countryIsoCode",
+      FACT_TO_COUNTRY_ON_ISO_CODE_PREFIX + "countryName",
+      FACT_TO_COUNTRY_ON_ISO_CODE_PREFIX + "countryNumber"
+  );
+
+  private static final List<String> LOOKUP_COLUMNS = ImmutableList.of(
+      "page",
+      "countryIsoCode",
+      FACT_TO_COUNTRY_ON_ISO_CODE_PREFIX + "k",
+      FACT_TO_COUNTRY_ON_ISO_CODE_PREFIX + "v"
+  );
+
+  private static final String FACT_TO_CITIES_PREFIX = "ci.";
+
+  private static final List<String> CITY_COLUMNS = ImmutableList.of(
+      "page",
+      "countryIsoCode",
+      FACT_TO_CITIES_PREFIX + "countryIsoCode",
+      FACT_TO_CITIES_PREFIX + "cityName"
+  );
+
+  @Test
+  public void test_makeVectorCursor_factToCountryLeft()
+  {
+    assertVectorCursorMatchesCursor(
+        ImmutableList.of(factToCountryOnIsoCode(JoinType.LEFT)),
+        null,
+        VirtualColumns.EMPTY,
+        COUNTRY_COLUMNS
+    );
+  }
+
+  @Test
+  public void test_makeVectorCursor_factToCountryInner()
+  {
+    assertVectorCursorMatchesCursor(
+        ImmutableList.of(factToCountryOnIsoCode(JoinType.INNER)),
+        null,
+        VirtualColumns.EMPTY,
+        COUNTRY_COLUMNS
+    );
+  }
+
+  @Test
+  public void test_makeVectorCursor_factToCountryInnerUsingNumber()
+  {
+    assertVectorCursorMatchesCursor(
+        ImmutableList.of(factToCountryOnNumber(JoinType.INNER)),
+        null,
+        VirtualColumns.EMPTY,
+        ImmutableList.of(
+            "page",
+            "countryNumber",
+            FACT_TO_COUNTRY_ON_NUMBER_PREFIX + "countryIsoCode",
+            FACT_TO_COUNTRY_ON_NUMBER_PREFIX + "countryNumber"
+        )
+    );
+  }
+
+  @Test
+  public void test_makeVectorCursor_factToCountryLeftUsingLookup()
+  {
+    assertVectorCursorMatchesCursor(
+        ImmutableList.of(factToCountryNameUsingIsoCodeLookup(JoinType.LEFT)),
+        null,
+        VirtualColumns.EMPTY,
+        LOOKUP_COLUMNS
+    );
+  }
+
+  @Test
+  public void test_makeVectorCursor_factToCountryInnerUsingLookup()
+  {
+    assertVectorCursorMatchesCursor(
+        ImmutableList.of(factToCountryNameUsingIsoCodeLookup(JoinType.INNER)),
+        null,
+        VirtualColumns.EMPTY,
+        LOOKUP_COLUMNS
+    );
+  }
+
+  @Test
+  public void test_makeVectorCursor_factToCountryInnerUsingNumberLookup()
+  {
+    assertVectorCursorMatchesCursor(
+        ImmutableList.of(factToCountryNameUsingNumberLookup(JoinType.INNER)),
+        null,
+        VirtualColumns.EMPTY,
+        ImmutableList.of(
+            "page",
+            "countryNumber",
+            FACT_TO_COUNTRY_ON_NUMBER_PREFIX + "k",
+            FACT_TO_COUNTRY_ON_NUMBER_PREFIX + "v"
+        )
+    );
+  }
+
+  @Test
+  public void test_makeVectorCursor_factToCountryAndLookupChained()
+  {
+    assertVectorCursorMatchesCursor(
+        ImmutableList.of(
+            factToCountryOnIsoCode(JoinType.LEFT),
+            factToCountryNameUsingNumberLookup(JoinType.INNER)
+        ),
+        null,
+        VirtualColumns.EMPTY,
+        ImmutableList.of(
+            "page",
+            "countryNumber",
+            FACT_TO_COUNTRY_ON_ISO_CODE_PREFIX + "countryName",
+            FACT_TO_COUNTRY_ON_NUMBER_PREFIX + "v"
+        )
+    );
+  }
+
+  @Test
+  public void test_makeVectorCursor_factToCountryLeftWithBaseFilter()
+  {
+    assertVectorCursorMatchesCursor(
+        ImmutableList.of(factToCountryOnIsoCode(JoinType.LEFT)),
+        new SelectorFilter("channel", "#en.wikipedia"),
+        VirtualColumns.EMPTY,
+        COUNTRY_COLUMNS
+    );
+  }
+
+  @Test
+  public void test_makeVectorCursor_factToCountryLeftWithPostJoinVirtualColumn()
+  {
+    assertVectorCursorMatchesCursor(
+        ImmutableList.of(factToCountryOnIsoCode(JoinType.LEFT)),
+        null,
+        VirtualColumns.create(
+            ImmutableList.of(
+                new ExpressionVirtualColumn(
+                    "v",
+                    "\"c1.countryNumber\" + \"countryNumber\"",
+                    ValueType.LONG,
+                    ExprMacroTable.nil()
+                )
+            )
+        ),
+        ImmutableList.of("page", "v")
+    );
+  }
+
+  @Test
+  public void test_makeVectorCursor_factToCountryLeftWithPostJoinStringVirtualColumn()
+  {
+    assertVectorCursorMatchesCursor(
+        ImmutableList.of(factToCountryOnNumber(JoinType.LEFT)),
+        null,
+        VirtualColumns.create(
+            ImmutableList.of(
+                new ExpressionVirtualColumn(
+                    "v",
+                    "\"c2.countryIsoCode\" == countryIsoCode",
+                    ValueType.LONG,
+                    ExprMacroTable.nil()
+                )
+            )
+        ),
+        ImmutableList.of("page", "v")
+    );
+  }
+
+  @Test
+  public void test_makeVectorCursor_factToCitiesLeftOneToMany()
+  {
+    assertVectorCursorMatchesCursor(
+        ImmutableList.of(factToCitiesOnIsoCode(JoinType.LEFT)),
+        null,
+        VirtualColumns.EMPTY,
+        CITY_COLUMNS
+    );
+  }
+
+  @Test
+  public void test_makeVectorCursor_factToCitiesInnerOneToMany()
+  {
+    assertVectorCursorMatchesCursor(
+        ImmutableList.of(factToCitiesOnIsoCode(JoinType.INNER)),
+        null,
+        VirtualColumns.EMPTY,
+        CITY_COLUMNS
+    );
+  }
+
+  @Test
+  public void test_canVectorize_notEnabled()
+  {
+    final List<JoinableClause> joinableClauses = ImmutableList.of(factToCountryOnIsoCode(JoinType.LEFT));
+
+    Assert.assertFalse(
+        new HashJoinSegmentStorageAdapter(
+            factSegment.asStorageAdapter(),
+            joinableClauses,
+            makeDefaultConfigPreAnalysis(null, joinableClauses, VirtualColumns.EMPTY)
+        ).canVectorize(null, VirtualColumns.EMPTY, false)
+    );
+  }
+
+  @Test
+  public void test_canVectorize_factToCountryRight()
+  {
+    Assert.assertFalse(makeVectorizableAdapter(ImmutableList.of(factToCountryOnIsoCode(JoinType.RIGHT))));
+  }
+
+  @Test
+  public void test_canVectorize_factToRegionOnTwoColumns()
+  {
+    Assert.assertFalse(makeVectorizableAdapter(ImmutableList.of(factToRegion(JoinType.LEFT))));
+  }
+
+  @Test
+  public void test_canVectorize_descending()
+  {
+    final List<JoinableClause> joinableClauses = ImmutableList.of(factToCountryOnIsoCode(JoinType.LEFT));
+
+    Assert.assertFalse(
+        new HashJoinSegmentStorageAdapter(
+            factSegment.asStorageAdapter(),
+            null,
+            joinableClauses,
+            makeDefaultConfigPreAnalysis(null, joinableClauses, VirtualColumns.EMPTY),
+            true
+        ).canVectorize(null, VirtualColumns.EMPTY, true)
+    );
+  }
+
+  /**
+   * Joins the fact table to a table of cities on countryIsoCode. Every fact row of US and CA matches more cities than
+   * fit in a vector, so that their matches span several vectors.
+   */
+  private static JoinableClause factToCitiesOnIsoCode(final JoinType joinType)
+  {
+    final List<Object[]> cities = new ArrayList<>();
+    for (int i = 0; i < VECTOR_SIZE + 2; i++) {
+      cities.add(new Object[]{"US", "US city " + i});
+    }
+    for (int i = 0; i < VECTOR_SIZE + 1; i++) {
+      cities.add(new Object[]{"CA", "CA city " + i});
+    }
+    cities.add(new Object[]{"AU", "AU city"});
+
+    final InlineDataSource dataSource = InlineDataSource.fromIterable(
+        cities,
+        RowSignature.builder()
+                    .add("countryIsoCode", ValueType.STRING)
+                    .add("cityName", ValueType.STRING)
+                    .build()
+    );
+
+    return new JoinableClause(
+        FACT_TO_CITIES_PREFIX,
+        new IndexedTableJoinable(
+            new RowBasedIndexedTable<>(
+                dataSource.getRowsAsList(),
+                dataSource.rowAdapter(),
+                dataSource.getRowSignature(),
+                ImmutableSet.of("countryIsoCode"),
+                DateTimes.nowUtc().toString()
+            )
+        ),
+        joinType,
+        JoinConditionAnalysis.forExpression(
+            StringUtils.format("\"%scountryIsoCode\" == countryIsoCode", FACT_TO_CITIES_PREFIX),
+            FACT_TO_CITIES_PREFIX,
+            ExprMacroTable.nil()
+        )
+    );
+  }
+
+  /**
+   * Returns whether a vectorization-enabled adapter over "joinableClauses" can vectorize a query without filters.
+   */
+  private boolean makeVectorizableAdapter(final List<JoinableClause> joinableClauses)
+  {
+    return new HashJoinSegmentStorageAdapter(
+        factSegment.asStorageAdapter(),
+        null,
+        joinableClauses,
+        makeDefaultConfigPreAnalysis(null, joinableClauses, VirtualColumns.EMPTY),
+        true
+    ).canVectorize(null, VirtualColumns.EMPTY, false);
+  }
+
+  private void assertVectorCursorMatchesCursor(
+      final List<JoinableClause> joinableClauses,
+      @Nullable final Filter filter,
+      final VirtualColumns virtualColumns,
+      final List<String> columns
+  )
+  {
+    final JoinFilterPreAnalysis joinFilterPreAnalysis = makeDefaultConfigPreAnalysis(
+        filter,
+        joinableClauses,
+        virtualColumns
+    );
+
+    final HashJoinSegmentStorageAdapter adapter = new HashJoinSegmentStorageAdapter(
+        factSegment.asStorageAdapter(),
+        null,
+        joinableClauses,
+        joinFilterPreAnalysis,
+        true
+    );
+
+    Assert.assertTrue(adapter.canVectorize(filter, virtualColumns, false));
+
+    final List<Object[]> expectedRows = JoinTestHelper.readCursors(
+        adapter.makeCursors(filter, Intervals.ETERNITY, virtualColumns, Granularities.ALL, false, null),
+        columns
+    );
+
+    final List<Object[]> rows = JoinTestHelper.readVectorCursor(
+        adapter.makeVectorCursor(filter, Intervals.ETERNITY, virtualColumns, false, VECTOR_SIZE, null),
+        columns
+    );
+
+    Assert.assertFalse("no rows", expectedRows.isEmpty());
+    Assert.assertEquals("number of rows", expectedRows.size(), rows.size());
+
+    for (int i = 0; i < rows.size(); i++) {
+      Assert.assertArrayEquals("row #" + i, expectedRows.get(i), rows.get(i));
+    }
+  }
+}
@@ -52,16 +52,25 @@ import org.apache.druid.segment.DimensionSelector;
 import org.apache.druid.segment.IndexBuilder;
 import org.apache.druid.segment.RowAdapter;
 import org.apache.druid.segment.TestHelper;
+import org.apache.druid.segment.VectorColumnProcessorFactory;
+import org.apache.druid.segment.column.ColumnCapabilities;
 import org.apache.druid.segment.column.RowSignature;
 import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.data.IndexedInts;
 import org.apache.druid.segment.incremental.IncrementalIndexSchema;
 import org.apache.druid.segment.join.table.RowBasedIndexedTable;
+import org.apache.druid.segment.vector.MultiValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorCursor;
+import org.apache.druid.segment.vector.VectorObjectSelector;
+import org.apache.druid.segment.vector.VectorValueSelector;
 import org.junit.Assert;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -142,6 +151,90 @@ public class JoinTestHelper
         }
       };
 
+  private static final VectorColumnProcessorFactory<Supplier<Object[]>> SIMPLE_VECTOR_READER =
+      new VectorColumnProcessorFactory<Supplier<Object[]>>()
+      {
+        @Override
+        public Supplier<Object[]> makeSingleValueDimensionProcessor(
+            ColumnCapabilities capabilities,
+            SingleValueDimensionVectorSelector selector
+        )
+        {
+          return () -> {
+            final int[] ids = selector.getRowVector();
+            final Object[] values = new Object[selector.getCurrentVectorSize()];
+            for (int i = 0; i < values.length; i++) {
+              values[i] = selector.lookupName(ids[i]);
+            }
+            return values;
+          };
+        }
+
+        @Override
+        public Supplier<Object[]> makeMultiValueDimensionProcessor(
+            ColumnCapabilities capabilities,
+            MultiValueDimensionVectorSelector selector
+        )
+        {
+          return () -> {
+            final IndexedInts[] rows = selector.getRowVector();
+            final Object[] values = new Object[selector.getCurrentVectorSize()];
+            for (int i = 0; i < values.length; i++) {
+              values[i] = DimensionSelector.rowToObject(rows[i], selector);
+            }
+            return values;
+          };
+        }
+
+        @Override
+        public Supplier<Object[]> makeFloatProcessor(ColumnCapabilities capabilities, VectorValueSelector selector)
+        {
+          return () -> {
+            final float[] vector = selector.getFloatVector();
+            final boolean[] nulls = selector.getNullVector();
+            final Object[] values = new Object[selector.getCurrentVectorSize()];
+            for (int i = 0; i < values.length; i++) {
+              values[i] = NullHandling.sqlCompatible() && nulls != null && nulls[i] ? null : vector[i];
+            }
+            return values;
+          };
+        }
+
+        @Override
+        public Supplier<Object[]> makeDoubleProcessor(ColumnCapabilities capabilities, VectorValueSelector selector)
+        {
+          return () -> {
+            final double[] vector = selector.getDoubleVector();
+            final boolean[] nulls = selector.getNullVector();
+            final Object[] values = new Object[selector.getCurrentVectorSize()];
+            for (int i = 0; i < values.length; i++) {
+              values[i] = NullHandling.sqlCompatible() && nulls != null && nulls[i] ? null : vector[i];
+            }
+            return values;
+          };
+        }
+
+        @Override
+        public Supplier<Object[]> makeLongProcessor(ColumnCapabilities capabilities, VectorValueSelector selector)
+        {
+          return () -> {
+            final long[] vector = selector.getLongVector();
+            final boolean[] nulls = selector.getNullVector();
+            final Object[] values = new Object[selector.getCurrentVectorSize()];
+            for (int i = 0; i < values.length; i++) {
+              values[i] = NullHandling.sqlCompatible() && nulls != null && nulls[i] ? null : vector[i];
+            }
+            return values;
+          };
+        }
+
+        @Override
+        public Supplier<Object[]> makeObjectProcessor(ColumnCapabilities capabilities, VectorObjectSelector selector)
+        {
+          return () -> Arrays.copyOf(selector.getObjectVector(), selector.getCurrentVectorSize());
+        }
+      };
+
   public static final String INDEXED_TABLE_VERSION = DateTimes.nowUtc().toString();
   public static final byte[] INDEXED_TABLE_CACHE_KEY = new byte[] {1, 2, 3};
 
@@ -327,6 +420,47 @@ public class JoinTestHelper
     ).toList();
   }
 
+  /**
+   * Reads "columns" from all rows of "cursor", which is closed afterwards. Values are read the same way as
+   * {@link #readCursors}.
+   */
+  public static List<Object[]> readVectorCursor(final VectorCursor cursor, final List<String> columns)
+  {
+    final List<Supplier<Object[]>> readers = columns
+        .stream()
+        .map(
+            column ->
+                ColumnProcessors.makeVectorProcessor(
+                    column,
+                    SIMPLE_VECTOR_READER,
+                    cursor.getColumnSelectorFactory()
+                )
+        )
+        .collect(Collectors.toList());
+
+    final List<Object[]> rows = new ArrayList<>();
+
+    try (final VectorCursor theCursor = cursor) {
+      while (!theCursor.isDone()) {
+        final List<Object[]> vectors = readers.stream().map(Supplier::get).collect(Collectors.toList());
+
+        for (int i = 0; i < theCursor.getCurrentVectorSize(); i++) {
+          final Object[] row = new Object[columns.size()];
+
+          for (int j = 0; j < row.length; j++) {
+            row[j] = vectors.get(j)[i];
+          }
+
+          rows.add(row);
+        }
+
+        theCursor.advance();
+      }
+    }
+
+    return rows;
+  }
+
   public static void verifyCursors(
       final Sequence<Cursor> cursors,
       final List<String> columns,
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.vector;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import org.apache.druid.query.filter.vector.ReadableVectorMatch;
+import org.apache.druid.query.filter.vector.VectorMatch;
+import org.apache.druid.query.filter.vector.VectorValueMatcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+public class FilteredVectorOffsetTest
+{
+  private static final int VECTOR_SIZE = 8;
+  private static final int NUM_ROWS = 100;
+
+  @Test
+  public void testSelectiveFilterFillsVectors()
+  {
+    final FilteredVectorOffset offset = makeOffset(row -> row % 5 == 0);
+
+    final IntList sizes = new IntArrayList();
+    final Set<Integer> ids = new HashSet<>();
+    final IntList rows = new IntArrayList();
+    while (!offset.isDone()) {
+      Assert.assertFalse(offset.isContiguous());
+      Assert.assertTrue(offset.getId() < ReadableVectorInspector.NULL_ID);
+      Assert.assertTrue(ids.add(offset.getId()));
+      sizes.add(offset.getCurrentVectorSize());
+      for (int i = 0; i < offset.getCurrentVectorSize(); i++) {
+        rows.add(offset.getOffsets()[i]);
+      }
+      offset.advance();
+    }
+
+    Assert.assertEquals(new IntArrayList(new int[]{8, 8, 4}), sizes);
+    Assert.assertEquals(expectedRows(row -> row % 5 == 0), rows);
+  }
+
+  @Test
+  public void testAllTrueVectorsAreBaseVectors()
+  {
+    final FilteredVectorOffset offset = makeOffset(row -> true);
+
+    int expectedStart = 0;
+    while (!offset.isDone()) {
+      Assert.assertTrue(offset.isContiguous());
+      Assert.assertEquals(expectedStart, offset.getStartOffset());
+      Assert.assertEquals(expectedStart, offset.getId());
+      expectedStart += offset.getCurrentVectorSize();
+      offset.advance();
+    }
+    Assert.assertEquals(NUM_ROWS, expectedStart);
+  }
+
+  @Test
+  public void testMixedVectorsAndReset()
+  {
+    final IntPredicate predicate = row -> row < 4 || (row >= 16 && row < 60) || row == 99;
+    final FilteredVectorOffset offset = makeOffset(predicate);
+
+    for (int pass = 0; pass < 2; pass++) {
+      final IntList rows = new IntArrayList();
+      while (!offset.isDone()) {
+        Assert.assertTrue(offset.getCurrentVectorSize() <= VECTOR_SIZE);
+        if (offset.isContiguous()) {
+          for (int i = 0; i < offset.getCurrentVectorSize(); i++) {
+            rows.add(offset.getStartOffset() + i);
+          }
+        } else {
+          for (int i = 0; i < offset.getCurrentVectorSize(); i++) {
+            rows.add(offset.getOffsets()[i]);
+          }
+        }
+        offset.advance();
+      }
+      Assert.assertEquals(expectedRows(predicate), rows);
+      offset.reset();
+    }
+  }
+
+  private static FilteredVectorOffset makeOffset(IntPredicate predicate)
+  {
+    final NoFilterVectorOffset baseOffset = new NoFilterVectorOffset(VECTOR_SIZE, 0, NUM_ROWS);
+    return new FilteredVectorOffset(baseOffset, new RowMatcher(baseOffset, predicate), null);
+  }
+
+  private static IntList expectedRows(IntPredicate predicate)
+  {
+    final IntList rows = new IntArrayList();
+    for (int row = 0; row < NUM_ROWS; row++) {
+      if (predicate.test(row)) {
+        rows.add(row);
+      }
+    }
+    return rows;
+  }
+
+  private static class RowMatcher implements VectorValueMatcher
+  {
+    private final VectorOffset offset;
+    private final IntPredicate predicate;
+    private final VectorMatch match = VectorMatch.wrap(new int[VECTOR_SIZE]);
+
+    RowMatcher(VectorOffset offset, IntPredicate predicate)
+    {
+      this.offset = offset;
+      this.predicate = predicate;
+    }
+
+    @Override
+    public ReadableVectorMatch match(ReadableVectorMatch mask)
+    {
+      final int[] selection = match.getSelection();
+      int numRows = 0;
+      for (int i = 0; i < mask.getSelectionSize(); i++) {
+        final int index = mask.getSelection()[i];
+        if (predicate.test(offset.getStartOffset() + index)) {
+          selection[numRows++] = index;
+        }
+      }
+      match.setSelectionSize(numRows);
+      return match;
+    }
+
+    @Override
+    public int getMaxVectorSize()
+    {
+      return offset.getMaxVectorSize();
+    }
+
+    @Override
+    public int getCurrentVectorSize()
+    {
+      return offset.getCurrentVectorSize();
+    }
+  }
+}
@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.virtual;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.java.util.common.io.Closer;
+import org.apache.druid.math.expr.Expr;
+import org.apache.druid.math.expr.Parser;
+import org.apache.druid.query.expression.TestExprMacroTable;
+import org.apache.druid.query.filter.ExpressionDimFilter;
+import org.apache.druid.segment.ColumnInspector;
+import org.apache.druid.segment.ColumnSelectorFactory;
+import org.apache.druid.segment.ColumnValueSelector;
+import org.apache.druid.segment.Cursor;
+import org.apache.druid.segment.QueryableIndex;
+import org.apache.druid.segment.QueryableIndexStorageAdapter;
+import org.apache.druid.segment.VirtualColumn;
+import org.apache.druid.segment.VirtualColumns;
+import org.apache.druid.segment.column.ColumnCapabilitiesImpl;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.generator.GeneratorBasicSchemas;
+import org.apache.druid.segment.generator.GeneratorSchemaInfo;
+import org.apache.druid.segment.generator.SegmentGenerator;
+import org.apache.druid.segment.vector.VectorCursor;
+import org.apache.druid.segment.vector.VectorValueSelector;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.apache.druid.timeline.DataSegment;
+import org.apache.druid.timeline.partition.LinearShardSpec;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CommonSubexpressionTest extends InitializedNullHandlingTest
+{
+  private static final int ROWS_PER_SEGMENT = 10_000;
+
+  private static final ColumnInspector INSPECTOR = column -> {
+    switch (column) {
+      case "s":
+        return ColumnCapabilitiesImpl.createSimpleSingleValueStringColumnCapabilities();
+      case "l":
+        return ColumnCapabilitiesImpl.createSimpleNumericColumnCapabilities(ValueType.LONG);
+      case "a":
+        return ColumnCapabilitiesImpl.createSimpleArrayColumnCapabilities(ValueType.STRING_ARRAY);
+      default:
+        return null;
+    }
+  };
+
+  private static QueryableIndex INDEX;
+  private static Closer CLOSER;
+
+  @BeforeClass
+  public static void setupClass()
+  {
+    CLOSER = Closer.create();
+
+    final GeneratorSchemaInfo schemaInfo = GeneratorBasicSchemas.SCHEMA_MAP.get("expression-testbench");
+
+    final DataSegment dataSegment = DataSegment.builder()
+                                               .dataSource("foo")
+                                               .interval(schemaInfo.getDataInterval())
+                                               .version("1")
+                                               .shardSpec(new LinearShardSpec(0))
+                                               .size(0)
+                                               .build();
+
+    final SegmentGenerator segmentGenerator = CLOSER.register(new SegmentGenerator());
+    INDEX = CLOSER.register(
+        segmentGenerator.generate(dataSegment, schemaInfo, Granularities.HOUR, ROWS_PER_SEGMENT)
+    );
+  }
+
+  @AfterClass
+  public static void teardownClass() throws IOException
+  {
+    CLOSER.close();
+  }
+
+  @Test
+  public void testSharedFunctionCalls()
+  {
+    final List<Expr> expressions = parse("upper(s)", "concat(upper(s), 'x')", "strlen(upper(s)) + l");
+    final List<Expr> rewritten = ExpressionPlanner.eliminateCommonSubexpressions(INSPECTOR, expressions);
+
+    Assert.assertEquals(3, rewritten.size());
+    for (int i = 0; i < expressions.size(); i++) {
+      Assert.assertEquals(expressions.get(i).stringify(), rewritten.get(i).stringify());
+    }
+
+    Assert.assertTrue(rewritten.get(0) instanceof CommonSubexpression);
+    Assert.assertEquals(ImmutableList.of(rewritten.get(0)), findCommonSubexpressions(rewritten.get(1)));
+    Assert.assertEquals(ImmutableList.of(rewritten.get(0)), findCommonSubexpressions(rewritten.get(2)));
+    Assert.assertSame(rewritten.get(0), findCommonSubexpressions(rewritten.get(2)).get(0));
+  }
+
+  @Test
+  public void testNothingShared()
+  {
+    // operators, identifiers and constant calls are not shared, and neither are expressions over arrays
+    final List<Expr> expressions = parse("l + 1", "(l + 1) * 2", "upper('x') + s", "concat(upper('x'), s)");
+    Assert.assertSame(expressions, ExpressionPlanner.eliminateCommonSubexpressions(INSPECTOR, expressions));
+
+    final List<Expr> arrays = parse("array_length(a)", "array_length(a) + 1");
+    Assert.assertSame(arrays, ExpressionPlanner.eliminateCommonSubexpressions(INSPECTOR, arrays));
+  }
+
+  @Test
+  public void testCursorResultsMatchUnsharedExpressions()
+  {
+    assertCursorMatchesUnshared(
+        "concat(upper(string1), '-', string3)",
+        "strlen(upper(string1)) + long1",
+        "strlen(upper(string1)) > 2"
+    );
+    assertCursorMatchesUnshared(
+        "abs(long4) * 2",
+        "abs(long4) + long1",
+        "abs(long4) > 5000"
+    );
+  }
+
+  @Test
+  public void testVectorCursorResultsMatchUnsharedExpressions()
+  {
+    final VirtualColumns virtualColumns = makeVirtualColumns("abs(long4) * 2", "abs(long4) + long1");
+    final ExpressionDimFilter filter = new ExpressionDimFilter("abs(long4) > 5000", TestExprMacroTable.INSTANCE);
+    final QueryableIndexStorageAdapter adapter = new QueryableIndexStorageAdapter(INDEX);
+    Assert.assertTrue(adapter.canVectorize(filter.toFilter(), virtualColumns, false));
+
+    final List<List<Object>> expected = readUnshared(virtualColumns, filter);
+    final List<List<Object>> actual = new ArrayList<>();
+    try (VectorCursor cursor = adapter.makeVectorCursor(
+        filter.toFilter(),
+        INDEX.getDataInterval(),
+        virtualColumns,
+        false,
+        512,
+        null
+    )) {
+      final VectorValueSelector v1 = cursor.getColumnSelectorFactory().makeValueSelector("v1");
+      final VectorValueSelector v2 = cursor.getColumnSelectorFactory().makeValueSelector("v2");
+      while (!cursor.isDone()) {
+        final long[] longs1 = v1.getLongVector();
+        final long[] longs2 = v2.getLongVector();
+        final boolean[] nulls1 = v1.getNullVector();
+        final boolean[] nulls2 = v2.getNullVector();
+        for (int i = 0; i < cursor.getCurrentVectorSize(); i++) {
+          actual.add(
+              Arrays.asList(
+                  nulls1 != null && nulls1[i] ? null : longs1[i],
+                  nulls2 != null && nulls2[i] ? null : longs2[i]
+              )
+          );
+        }
+        cursor.advance();
+      }
+    }
+
+    Assert.assertFalse(expected.isEmpty());
+    Assert.assertEquals(expected, actual);
+  }
+
+  private static void assertCursorMatchesUnshared(String expression1, String expression2, String filterExpression)
+  {
+    final VirtualColumns virtualColumns = makeVirtualColumns(expression1, expression2);
+    final ExpressionDimFilter filter = new ExpressionDimFilter(filterExpression, TestExprMacroTable.INSTANCE);
+
+    final List<List<Object>> expected = readUnshared(virtualColumns, filter);
+    final List<List<Object>> actual = new QueryableIndexStorageAdapter(INDEX)
+        .makeCursors(filter.toFilter(), INDEX.getDataInterval(), virtualColumns, Granularities.ALL, false, null)
+        .map(cursor -> readRows(cursor, cursor.getColumnSelectorFactory(), null))
+        .accumulate(new ArrayList<List<Object>>(), (acc, in) -> {
+          acc.addAll(in);
+          return acc;
+        });
+
+    Assert.assertFalse(filterExpression, expected.isEmpty());
+    Assert.assertEquals(filterExpression, expected, actual);
+  }
+
+  /**
+   * Reads the virtual columns of the rows matching the filter without going through the storage adapter, so the
+   * expressions are evaluated on their own.
+   */
+  private static List<List<Object>> readUnshared(VirtualColumns virtualColumns, ExpressionDimFilter filter)
+  {
+    final VirtualColumns withFilter = VirtualColumns.create(
+        ImmutableList.<VirtualColumn>builder()
+            .addAll(Arrays.asList(virtualColumns.getVirtualColumns()))
+            .add(new ExpressionVirtualColumn("f", filter.getExpression(), null, TestExprMacroTable.INSTANCE))
+            .build()
+    );
+    return new QueryableIndexStorageAdapter(INDEX)
+        .makeCursors(null, INDEX.getDataInterval(), VirtualColumns.EMPTY, Granularities.ALL, false, null)
+        .map(cursor -> {
+          final ColumnSelectorFactory factory = withFilter.wrap(cursor.getColumnSelectorFactory());
+          return readRows(cursor, factory, factory.makeColumnValueSelector("f"));
+        })
+        .accumulate(new ArrayList<List<Object>>(), (acc, in) -> {
+          acc.addAll(in);
+          return acc;
+        });
+  }
+
+  private static List<List<Object>> readRows(
+      Cursor cursor,
+      ColumnSelectorFactory factory,
+      ColumnValueSelector<?> filterSelector
+  )
+  {
+    final ColumnValueSelector<?> v1 = factory.makeColumnValueSelector("v1");
+    final ColumnValueSelector<?> v2 = factory.makeColumnValueSelector("v2");
+    final List<List<Object>> rows = new ArrayList<>();
+    while (!cursor.isDone()) {
+      if (filterSelector == null || (!filterSelector.isNull() && filterSelector.getLong() != 0)) {
+        rows.add(Arrays.asList(v1.getObject(), v2.getObject()));
+      }
+      cursor.advance();
+    }
+    return rows;
+  }
+
+  private static VirtualColumns makeVirtualColumns(String expression1, String expression2)
+  {
+    return VirtualColumns.create(
+        ImmutableList.of(
+            new ExpressionVirtualColumn("v1", expression1, null, TestExprMacroTable.INSTANCE),
+            new ExpressionVirtualColumn("v2", expression2, null, TestExprMacroTable.INSTANCE)
+        )
+    );
+  }
+
+  private static List<Expr> parse(String... expressions)
+  {
+    final List<Expr> parsed = new ArrayList<>();
+    for (String expression : expressions) {
+      parsed.add(Parser.parse(expression, TestExprMacroTable.INSTANCE));
+    }
+    return parsed;
+  }
+
+  private static List<Expr> findCommonSubexpressions(Expr expr)
+  {
+    final List<Expr> found = new ArrayList<>();
+    expr.visit(node -> {
+      if (node instanceof CommonSubexpression) {
+        found.add(node);
+      }
+      return node;
+    });
+    return found;
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.virtual;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.java.util.common.guava.Sequence;
+import org.apache.druid.java.util.common.io.Closer;
+import org.apache.druid.query.expression.TestExprMacroTable;
+import org.apache.druid.segment.ColumnValueSelector;
+import org.apache.druid.segment.Cursor;
+import org.apache.druid.segment.QueryableIndex;
+import org.apache.druid.segment.QueryableIndexStorageAdapter;
+import org.apache.druid.segment.VirtualColumns;
+import org.apache.druid.segment.generator.GeneratorBasicSchemas;
+import org.apache.druid.segment.generator.GeneratorSchemaInfo;
+import org.apache.druid.segment.generator.SegmentGenerator;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.apache.druid.timeline.DataSegment;
+import org.apache.druid.timeline.partition.LinearShardSpec;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class CompiledExpressionColumnValueSelectorTest extends InitializedNullHandlingTest
+{
+  private static final int ROWS_PER_SEGMENT = 10_000;
+
+  private static QueryableIndex INDEX;
+  private static Closer CLOSER;
+
+  @BeforeClass
+  public static void setupClass()
+  {
+    CLOSER = Closer.create();
+
+    final GeneratorSchemaInfo schemaInfo = GeneratorBasicSchemas.SCHEMA_MAP.get("expression-testbench");
+
+    final DataSegment dataSegment = DataSegment.builder()
+                                               .dataSource("foo")
+                                               .interval(schemaInfo.getDataInterval())
+                                               .version("1")
+                                               .shardSpec(new LinearShardSpec(0))
+                                               .size(0)
+                                               .build();
+
+    final SegmentGenerator segmentGenerator = CLOSER.register(new SegmentGenerator());
+    INDEX = CLOSER.register(
+        segmentGenerator.generate(dataSegment, schemaInfo, Granularities.HOUR, ROWS_PER_SEGMENT)
+    );
+  }
+
+  @AfterClass
+  public static void teardownClass() throws IOException
+  {
+    CLOSER.close();
+  }
+
+  @Test
+  public void testCompiledExpressions()
+  {
+    assertCompiledMatchesInterpreted("long1 * long2", true);
+    assertCompiledMatchesInterpreted("(long1 - long4) / double3", true);
+    assertCompiledMatchesInterpreted("long3 + long5", true);
+    assertCompiledMatchesInterpreted("double1 < double3", true);
+    assertCompiledMatchesInterpreted("-float1 * 2 + long2 % 7", true);
+  }
+
+  @Test
+  public void testFallsBackToInterpreter()
+  {
+    assertCompiledMatchesInterpreted("long1 * nonexistent", false);
+    assertCompiledMatchesInterpreted("cos(float3)", false);
+    assertCompiledMatchesInterpreted("concat(string1, long1)", false);
+  }
+
+  private static void assertCompiledMatchesInterpreted(String expression, boolean expectCompiled)
+  {
+    final VirtualColumns virtualColumns = VirtualColumns.create(
+        ImmutableList.of(
+            new ExpressionVirtualColumn("v", expression, null, TestExprMacroTable.INSTANCE),
+            new ExpressionVirtualColumn("c", expression, null, TestExprMacroTable.INSTANCE).withCompiledExpression()
+        )
+    );
+
+    final Sequence<Cursor> cursors = new QueryableIndexStorageAdapter(INDEX).makeCursors(
+        null,
+        INDEX.getDataInterval(),
+        virtualColumns,
+        Granularities.ALL,
+        false,
+        null
+    );
+
+    final int rowCount = cursors
+        .map(cursor -> {
+          final ColumnValueSelector<?> interpreted = cursor.getColumnSelectorFactory().makeColumnValueSelector("v");
+          final ColumnValueSelector<?> compiled = cursor.getColumnSelectorFactory().makeColumnValueSelector("c");
+          Assert.assertEquals(
+              expression,
+              expectCompiled,
+              compiled instanceof CompiledExpressionColumnValueSelector
+          );
+          int rows = 0;
+          while (!cursor.isDone()) {
+            final String message = StringUtils.format("%s failed at row %s", expression, rows);
+            Assert.assertEquals(message, interpreted.getObject(), compiled.getObject());
+            Assert.assertEquals(message, interpreted.isNull(), compiled.isNull());
+            if (!compiled.isNull()) {
+              Assert.assertEquals(message, interpreted.getLong(), compiled.getLong());
+              Assert.assertEquals(message, interpreted.getDouble(), compiled.getDouble(), 0.0);
+            }
+            rows++;
+            cursor.advance();
+          }
+          return rows;
+        })
+        .accumulate(0, (acc, in) -> acc + in);
+
+    Assert.assertEquals(ROWS_PER_SEGMENT, rowCount);
+  }
+}
@@ -88,7 +88,22 @@ public class ExpressionVectorSelectorsTest
       "long2",
       "float2",
       "double2",
-      "string3"
+      "string3",
+      "concat(string1, string3)",
+      "concat(string1, long1)",
+      "lower(string3)",
+      "upper(string5)",
+      "strlen(string3)",
+      "substring(string1, 1, 3)",
+      "regexp_extract(string1, '(\\d)')",
+      "if(long1 > 0, string1, string3)",
+      "if(long1 > 0, long2, long4)",
+      "case_searched(double1 > 0.5, double3, double5 > 0.5, double4)",
+      "case_simple(string5, '1', string1, '2', string3, 'other')",
+      "nvl(string3, 'x')",
+      "nvl(long1, long4)",
+      "isnull(string3)",
+      "notnull(double2)"
   );
 
   private static final int ROWS_PER_SEGMENT = 100_000;
@@ -140,7 +155,7 @@ public class ExpressionVectorSelectorsTest
   @Before
   public void setup()
   {
-    Expr parsed = Parser.parse(expression, ExprMacroTable.nil());
+    Expr parsed = Parser.parse(expression, TestExprMacroTable.INSTANCE);
     outputType = parsed.getOutputType(
         new ColumnInspector()
         {
@@ -170,6 +185,25 @@ public class ExpressionVectorSelectorsTest
       Closer closer,
       int rowsPerSegment
   )
+  {
+    sanityTestVectorizedExpressionSelectors(
+        expression,
+        outputType,
+        index,
+        closer,
+        rowsPerSegment,
+        TestExprMacroTable.INSTANCE
+    );
+  }
+
+  public static void sanityTestVectorizedExpressionSelectors(
+      String expression,
+      @Nullable ExprType outputType,
+      QueryableIndex index,
+      Closer closer,
+      int rowsPerSegment,
+      ExprMacroTable macroTable
+  )
   {
     final List<Object> results = new ArrayList<>(rowsPerSegment);
     final VirtualColumns virtualColumns = VirtualColumns.create(
@@ -178,7 +212,7 @@ public class ExpressionVectorSelectorsTest
                 "v",
                 expression,
                 ExprType.toValueType(outputType),
-                TestExprMacroTable.INSTANCE
+                macroTable
             )
         )
     );
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.virtual;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.java.util.common.guava.Sequence;
+import org.apache.druid.java.util.common.io.Closer;
+import org.apache.druid.math.expr.Expr;
+import org.apache.druid.math.expr.Parser;
+import org.apache.druid.query.dimension.DefaultDimensionSpec;
+import org.apache.druid.query.expression.TestExprMacroTable;
+import org.apache.druid.segment.ColumnSelectorFactory;
+import org.apache.druid.segment.Cursor;
+import org.apache.druid.segment.DimensionSelector;
+import org.apache.druid.segment.QueryableIndex;
+import org.apache.druid.segment.QueryableIndexStorageAdapter;
+import org.apache.druid.segment.VirtualColumns;
+import org.apache.druid.segment.data.IndexedInts;
+import org.apache.druid.segment.generator.GeneratorBasicSchemas;
+import org.apache.druid.segment.generator.GeneratorSchemaInfo;
+import org.apache.druid.segment.generator.SegmentGenerator;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.apache.druid.timeline.DataSegment;
+import org.apache.druid.timeline.partition.LinearShardSpec;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+public class MultiStringInputDimensionSelectorTest extends InitializedNullHandlingTest
+{
+  private static final int ROWS_PER_SEGMENT = 10_000;
+
+  private static QueryableIndex INDEX;
+  private static Closer CLOSER;
+
+  @BeforeClass
+  public static void setupClass()
+  {
+    CLOSER = Closer.create();
+
+    final GeneratorSchemaInfo schemaInfo = GeneratorBasicSchemas.SCHEMA_MAP.get("expression-testbench");
+
+    final DataSegment dataSegment = DataSegment.builder()
+                                               .dataSource("foo")
+                                               .interval(schemaInfo.getDataInterval())
+                                               .version("1")
+                                               .shardSpec(new LinearShardSpec(0))
+                                               .size(0)
+                                               .build();
+
+    final SegmentGenerator segmentGenerator = CLOSER.register(new SegmentGenerator());
+    INDEX = CLOSER.register(
+        segmentGenerator.generate(dataSegment, schemaInfo, Granularities.HOUR, ROWS_PER_SEGMENT)
+    );
+  }
+
+  @AfterClass
+  public static void teardownClass() throws IOException
+  {
+    CLOSER.close();
+  }
+
+  @Test
+  public void testMultiStringInputs()
+  {
+    assertSelectorMatchesExpression("concat(string2, '-', string4)", true);
+    assertSelectorMatchesExpression("concat(string1, string2)", true);
+    assertSelectorMatchesExpression("upper(string2) == string4", true);
+  }
+
+  @Test
+  public void testFallsBackToExpressionSelector()
+  {
+    // combined cardinality is too large
+    assertSelectorMatchesExpression("concat(string1, string2, string4)", false);
+    // not all inputs are strings
+    assertSelectorMatchesExpression("concat(string2, long1)", false);
+    // only one input
+    assertSelectorMatchesExpression("concat(string2, 'x')", false);
+  }
+
+  @Test
+  public void testArrayCache()
+  {
+    final Expr expr = Parser.parse("concat(x, '-', y)", TestExprMacroTable.INSTANCE);
+    final MultiStringInputDimensionSelector selector = new MultiStringInputDimensionSelector(
+        ImmutableList.of("x", "y"),
+        ImmutableList.of(DimensionSelector.constant("a"), DimensionSelector.constant("b")),
+        expr
+    );
+    Assert.assertEquals(1, selector.getValueCardinality());
+    Assert.assertEquals(0, selector.getRow().get(0));
+    Assert.assertEquals("a-b", selector.lookupName(0));
+    Assert.assertEquals("a-b", selector.getObject());
+  }
+
+  private static void assertSelectorMatchesExpression(String expression, boolean expectMultiStringInput)
+  {
+    final Expr expr = Parser.parse(expression, TestExprMacroTable.INSTANCE);
+    final VirtualColumns virtualColumns = VirtualColumns.create(
+        ImmutableList.of(new ExpressionVirtualColumn("v", expression, null, TestExprMacroTable.INSTANCE))
+    );
+
+    final Sequence<Cursor> cursors = new QueryableIndexStorageAdapter(INDEX).makeCursors(
+        null,
+        INDEX.getDataInterval(),
+        virtualColumns,
+        Granularities.ALL,
+        false,
+        null
+    );
+
+    final int rowCount = cursors
+        .map(cursor -> {
+          final ColumnSelectorFactory factory = cursor.getColumnSelectorFactory();
+          final DimensionSelector selector = factory.makeDimensionSelector(DefaultDimensionSpec.of("v"));
+          Assert.assertEquals(
+              expression,
+              expectMultiStringInput,
+              selector instanceof MultiStringInputDimensionSelector
+          );
+
+          final Map<String, DimensionSelector> inputs = new HashMap<>();
+          for (String column : expr.analyzeInputs().getRequiredBindings()) {
+            inputs.put(column, factory.makeDimensionSelector(DefaultDimensionSpec.of(column)));
+          }
+
+          int rows = 0;
+          while (!cursor.isDone()) {
+            final Map<String, Object> values = new HashMap<>();
+            inputs.forEach((column, input) -> values.put(column, input.getObject()));
+            final String expected = expr.eval(Parser.withMap(values)).asString();
+            final String message = StringUtils.format("%s failed at row %s", expression, rows);
+
+            final IndexedInts row = selector.getRow();
+            Assert.assertEquals(message, 1, row.size());
+            Assert.assertEquals(message, expected, selector.lookupName(row.get(0)));
+            Assert.assertEquals(message, expected, selector.getObject());
+            if (expectMultiStringInput) {
+              Assert.assertTrue(message, row.get(0) < selector.getValueCardinality());
+            }
+            rows++;
+            cursor.advance();
+          }
+          return rows;
+        })
+        .accumulate(0, (acc, in) -> acc + in);
+
+    Assert.assertEquals(ROWS_PER_SEGMENT, rowCount);
+  }
+}
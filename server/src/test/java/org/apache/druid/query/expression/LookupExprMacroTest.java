@@ -21,13 +21,18 @@ package org.apache.druid.query.expression;
 
 import com.google.common.collect.ImmutableMap;
 import org.apache.druid.math.expr.Expr;
+import org.apache.druid.math.expr.ExprType;
 import org.apache.druid.math.expr.Parser;
+import org.apache.druid.math.expr.vector.ExprEvalVector;
 import org.apache.druid.testing.InitializedNullHandlingTest;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import javax.annotation.Nullable;
+import java.util.Collections;
+
 public class LookupExprMacroTest extends InitializedNullHandlingTest
 {
   private static final Expr.ObjectBinding BINDINGS = Parser.withMap(
@@ -53,6 +58,73 @@ public class LookupExprMacroTest extends InitializedNullHandlingTest
     assertExpr("lookup(x, 'lookylook')", null);
   }
 
+  @Test
+  public void testLookupVectorized()
+  {
+    final String[] values = new String[]{"foo", "bar", null, "foo"};
+    final Expr.VectorInputBinding bindings = new Expr.VectorInputBinding()
+    {
+      @Override
+      public <T> T[] getObjectVector(String name)
+      {
+        return (T[]) values;
+      }
+
+      @Override
+      public long[] getLongVector(String name)
+      {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public double[] getDoubleVector(String name)
+      {
+        throw new UnsupportedOperationException();
+      }
+
+      @Nullable
+      @Override
+      public boolean[] getNullVector(String name)
+      {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public int getCurrentVectorSize()
+      {
+        return values.length;
+      }
+
+      @Override
+      public int getCurrentVectorId()
+      {
+        return 0;
+      }
+
+      @Override
+      public int getMaxVectorSize()
+      {
+        return values.length;
+      }
+
+      @Override
+      public ExprType getType(String name)
+      {
+        return ExprType.STRING;
+      }
+    };
+
+    final Expr expr = Parser.parse("lookup(x, 'lookyloo')", LookupEnabledTestExprMacroTable.INSTANCE);
+    Assert.assertTrue(expr.canVectorize(bindings));
+    final ExprEvalVector<?> result = expr.buildVectorized(bindings).evalVector(bindings);
+    Assert.assertEquals(ExprType.STRING, result.getType());
+    for (int i = 0; i < values.length; i++) {
+      final Object expected = expr.eval(Parser.withMap(Collections.singletonMap("x", values[i]))).value();
+      Assert.assertEquals(values[i], expected, result.getObjectVector()[i]);
+    }
+    Assert.assertEquals("xfoo", result.getObjectVector()[0]);
+  }
+
   private void assertExpr(final String expression, final Object expectedResult)
   {
     final Expr expr = Parser.parse(expression, LookupEnabledTestExprMacroTable.INSTANCE);